@@ -41,10 +41,12 @@ import com.aliyun.sdk.service.oss2.retry.Retryer;
 import com.aliyun.sdk.service.oss2.transport.BinaryData;
 import com.aliyun.sdk.service.oss2.transport.apache5client.Apache5HttpClientBuilder;
 import com.google.auto.service.AutoService;
+import com.google.common.collect.Iterators;
 import com.salesforce.multicloudj.blob.driver.AbstractBlobStore;
 import com.salesforce.multicloudj.blob.driver.BlobIdentifier;
 import com.salesforce.multicloudj.blob.driver.BlobInfo;
 import com.salesforce.multicloudj.blob.driver.BlobMetadata;
+import com.salesforce.multicloudj.blob.driver.BlobVersionInfo;
 import com.salesforce.multicloudj.blob.driver.BucketVersioningConfiguration;
 import com.salesforce.multicloudj.blob.driver.ByteArray;
 import com.salesforce.multicloudj.blob.driver.CopyFromRequest;
@@ -64,9 +66,11 @@ import com.salesforce.multicloudj.blob.driver.ObjectLockConfiguration;
 import com.salesforce.multicloudj.blob.driver.ObjectLockInfo;
 import com.salesforce.multicloudj.blob.driver.ObjectRetentionConfig;
 import com.salesforce.multicloudj.blob.driver.ObjectRetentionRules;
+import com.salesforce.multicloudj.blob.driver.ParallelFileUploader;
 import com.salesforce.multicloudj.blob.driver.PresignedUrlRequest;
 import com.salesforce.multicloudj.blob.driver.PresignedUrlResponse;
 import com.salesforce.multicloudj.blob.driver.RetentionMode;
+import com.salesforce.multicloudj.blob.driver.SharedClients;
 import com.salesforce.multicloudj.blob.driver.UploadPartResponse;
 import com.salesforce.multicloudj.blob.driver.UploadRequest;
 import com.salesforce.multicloudj.blob.driver.UploadResponse;
@@ -84,6 +88,8 @@ import java.io.IOException;
 import java.io.InputStream;
 import java.io.OutputStream;
 import java.net.URL;
+import java.nio.ByteBuffer;
+import java.nio.channels.ReadableByteChannel;
 import java.nio.file.Files;
 import java.nio.file.Path;
 import java.util.Collection;
@@ -103,15 +109,26 @@ public class AliBlobStore extends AbstractBlobStore implements AliSdkService {
 
   private final OSSClient ossClient;
   private final AliTransformer transformer;
+  private final ParallelFileUploader parallelFileUploader;
+
+  /** This store's reference to a client shared with other stores, or null if it owns ossClient. */
+  private final SharedClients.Lease<OSSClient> clientLease;
 
   public AliBlobStore() {
     this(new Builder(), null);
   }
 
   public AliBlobStore(Builder builder, OSSClient ossClient) {
+    this(builder, ossClient, null);
+  }
+
+  private AliBlobStore(
+      Builder builder, OSSClient ossClient, SharedClients.Lease<OSSClient> clientLease) {
     super(builder);
     this.ossClient = ossClient;
+    this.clientLease = clientLease;
     this.transformer = builder.getTransformerSupplier().get(bucket);
+    this.parallelFileUploader = ParallelFileUploader.from(builder, executorService);
   }
 
   @Override
@@ -160,6 +177,10 @@ public class AliBlobStore extends AbstractBlobStore implements AliSdkService {
    */
   @Override
   protected UploadResponse doUpload(UploadRequest uploadRequest, File file) {
+    long size = file.length();
+    if (parallelFileUploader != null && parallelFileUploader.appliesTo(uploadRequest, size)) {
+      return parallelFileUploader.upload(this, uploadRequest, file.toPath(), size);
+    }
     try {
       BinaryData body =
           BinaryData.fromStream(
@@ -182,6 +203,34 @@ public class AliBlobStore extends AbstractBlobStore implements AliSdkService {
     return doUpload(uploadRequest, path.toFile());
   }
 
+  /**
+   * Performs Blob upload, handing the buffer to the SDK without copying it
+   *
+   * @param uploadRequest Wrapper object containing upload data
+   * @param buffer The buffer that contains the blob content
+   * @return Wrapper object containing the upload result data
+   */
+  @Override
+  protected UploadResponse doUpload(UploadRequest uploadRequest, ByteBuffer buffer) {
+    return doUploadInternal(uploadRequest, BinaryData.fromByteBuffer(buffer.duplicate()));
+  }
+
+  /**
+   * Performs Blob upload, handing the channel to the SDK
+   *
+   * @param uploadRequest Wrapper object containing upload data
+   * @param channel The channel that contains the blob content
+   * @param contentLength The number of bytes the channel holds, or -1 if unknown
+   * @return Wrapper object containing the upload result data
+   */
+  @Override
+  protected UploadResponse doUpload(
+      UploadRequest uploadRequest, ReadableByteChannel channel, long contentLength) {
+    BinaryData body =
+        BinaryData.fromByteChannel(channel, contentLength >= 0 ? contentLength : null);
+    return doUploadInternal(uploadRequest, body);
+  }
+
   /** Helper function to upload blobs */
   protected UploadResponse doUploadInternal(
       UploadRequest uploadRequest,
@@ -299,6 +348,10 @@ public class AliBlobStore extends AbstractBlobStore implements AliSdkService {
     } catch (IOException e) {
       throw new RuntimeException("Failed to download Blob: " + downloadRequest.getKey(), e);
     } catch (Exception e) {
+      DownloadResponse notModified = transformer.toNotModifiedResponse(downloadRequest, e);
+      if (notModified != null) {
+        return notModified;
+      }
       handleArchivedObjects(downloadRequest, e);
       if (e instanceof RuntimeException) {
         throw (RuntimeException) e;
@@ -350,6 +403,10 @@ public class AliBlobStore extends AbstractBlobStore implements AliSdkService {
     try {
       result = ossClient.getObject(request, OperationOptions.defaults());
     } catch (Exception e) {
+      DownloadResponse notModified = transformer.toNotModifiedResponse(downloadRequest, e);
+      if (notModified != null) {
+        return notModified;
+      }
       handleArchivedObjects(downloadRequest, e);
       throw e;
     }
@@ -627,7 +684,7 @@ public class AliBlobStore extends AbstractBlobStore implements AliSdkService {
     ListObjectsV2Result response =
         ossClient.listObjectsV2(listRequest,
             OperationOptions.defaults());
-    return transformer.toListBlobsPageResponse(response);
+    return request.trimToEndBefore(transformer.toListBlobsPageResponse(response));
   }
 
   @Override
@@ -635,6 +692,20 @@ public class AliBlobStore extends AbstractBlobStore implements AliSdkService {
     return new BlobMetadataIterator(ossClient, getBucket(), request.getKey());
   }
 
+  /**
+   * Lists every version and delete marker under the prefix with one paginated
+   * {@code ListObjectVersions} walk, fetching pages as the iterator advances.
+   */
+  @Override
+  protected Iterator<BlobVersionInfo> doListAllVersions(String prefix) {
+    ListObjectVersionsRequest request =
+        ListObjectVersionsRequest.newBuilder().bucket(getBucket()).prefix(prefix).build();
+    return Iterators.concat(
+        Iterators.transform(
+            ossClient.listObjectVersionsPaginator(request).iterator(),
+            page -> transformer.toVersionInfos(page).iterator()));
+  }
+
   /**
    * Initiates a multipart upload
    *
@@ -692,7 +763,8 @@ public class AliBlobStore extends AbstractBlobStore implements AliSdkService {
     // as the cross-cloud composite checksum on MultipartUploadResponse.
     return new MultipartUploadResponse(
         stripQuotes(result.completeMultipartUpload().eTag()),
-        result.hashCRC64());
+        result.hashCRC64(),
+        result.versionId());
   }
 
   /**
@@ -961,7 +1033,9 @@ public class AliBlobStore extends AbstractBlobStore implements AliSdkService {
 
   @Override
   public void close() {
-    if (ossClient != null) {
+    if (clientLease != null) {
+      clientLease.close();
+    } else if (ossClient != null) {
       try {
         ossClient.close();
       } catch (Exception e) {
@@ -1022,6 +1096,11 @@ public class AliBlobStore extends AbstractBlobStore implements AliSdkService {
     @Override
     public AliBlobStore build() {
       OSSClient ossClient = this.client;
+      if (ossClient == null && getSharedClients() != null) {
+        SharedClients.Lease<OSSClient> lease =
+            getSharedClients().acquire(SharedClients.clientKey(this), () -> buildOSSClient(this));
+        return new AliBlobStore(this, lease.get(), lease);
+      }
       if (ossClient == null) {
         ossClient = buildOSSClient(this);
       }
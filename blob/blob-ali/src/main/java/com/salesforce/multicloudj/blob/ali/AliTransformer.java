@@ -1,6 +1,7 @@
 package com.salesforce.multicloudj.blob.ali;
 
 import com.aliyun.sdk.service.oss2.PresignOptions;
+import com.aliyun.sdk.service.oss2.exceptions.ServiceException;
 import com.aliyun.sdk.service.oss2.models.AbortMultipartUploadRequest;
 import com.aliyun.sdk.service.oss2.models.CommonPrefix;
 import com.aliyun.sdk.service.oss2.models.CompleteMultipartUpload;
@@ -8,6 +9,7 @@ import com.aliyun.sdk.service.oss2.models.CompleteMultipartUploadRequest;
 import com.aliyun.sdk.service.oss2.models.CopyObjectRequest;
 import com.aliyun.sdk.service.oss2.models.CopyObjectResult;
 import com.aliyun.sdk.service.oss2.models.Delete;
+import com.aliyun.sdk.service.oss2.models.DeleteMarkerEntry;
 import com.aliyun.sdk.service.oss2.models.DeleteMultipleObjectsRequest;
 import com.aliyun.sdk.service.oss2.models.DeleteObjectRequest;
 import com.aliyun.sdk.service.oss2.models.GetBucketVersioningRequest;
@@ -25,6 +27,7 @@ import com.aliyun.sdk.service.oss2.models.InitiateMultipartUpload;
 import com.aliyun.sdk.service.oss2.models.InitiateMultipartUploadRequest;
 import com.aliyun.sdk.service.oss2.models.InitiateMultipartUploadResult;
 import com.aliyun.sdk.service.oss2.models.LegalHold;
+import com.aliyun.sdk.service.oss2.models.ListObjectVersionsResult;
 import com.aliyun.sdk.service.oss2.models.ListObjectsV2Request;
 import com.aliyun.sdk.service.oss2.models.ListObjectsV2Result;
 import com.aliyun.sdk.service.oss2.models.ListPartsRequest;
@@ -32,6 +35,7 @@ import com.aliyun.sdk.service.oss2.models.ListPartsResult;
 import com.aliyun.sdk.service.oss2.models.ObjectIdentifier;
 import com.aliyun.sdk.service.oss2.models.ObjectLegalHoldStatusType;
 import com.aliyun.sdk.service.oss2.models.ObjectRetentionModeType;
+import com.aliyun.sdk.service.oss2.models.ObjectVersion;
 import com.aliyun.sdk.service.oss2.models.Part;
 import com.aliyun.sdk.service.oss2.models.PutObjectLegalHoldRequest;
 import com.aliyun.sdk.service.oss2.models.PutObjectRequest;
@@ -55,6 +59,8 @@ import com.aliyun.sdk.service.oss2.transport.HttpClientOptions;
 import com.salesforce.multicloudj.blob.driver.BlobIdentifier;
 import com.salesforce.multicloudj.blob.driver.BlobInfo;
 import com.salesforce.multicloudj.blob.driver.BlobMetadata;
+import com.salesforce.multicloudj.blob.driver.BlobPreconditions;
+import com.salesforce.multicloudj.blob.driver.BlobVersionInfo;
 import com.salesforce.multicloudj.blob.driver.BucketVersioningConfiguration;
 import com.salesforce.multicloudj.blob.driver.BucketVersioningStatus;
 import com.salesforce.multicloudj.blob.driver.Checksum;
@@ -85,6 +91,7 @@ import com.salesforce.multicloudj.common.util.HexUtil;
 import java.io.InputStream;
 import java.time.Duration;
 import java.time.Instant;
+import java.time.ZoneOffset;
 import java.time.ZonedDateTime;
 import java.time.format.DateTimeFormatter;
 import java.util.ArrayList;
@@ -220,9 +227,57 @@ public class AliTransformer {
     if (downloadRequest.getStart() != null || downloadRequest.getEnd() != null) {
       builder.range(toHttpRange(downloadRequest.getStart(), downloadRequest.getEnd()));
     }
+    BlobPreconditions preconditions = downloadRequest.getPreconditions();
+    if (preconditions != null && preconditions.getIfMatch() != null) {
+      builder.ifMatch(preconditions.getIfMatch());
+    }
+    if (preconditions != null && preconditions.getIfNoneMatch() != null) {
+      builder.ifNoneMatch(preconditions.getIfNoneMatch());
+    }
+    if (preconditions != null && preconditions.getIfModifiedSince() != null) {
+      builder.ifModifiedSince(
+          DateTimeFormatter.RFC_1123_DATE_TIME.format(
+              preconditions.getIfModifiedSince().atZone(ZoneOffset.UTC)));
+    }
     return builder.build();
   }
 
+  /**
+   * Returns the result of a conditional download that OSS answered with 304 Not Modified, or null
+   * if {@code failure} is any other error. The SDK raises a 304 as a {@link ServiceException},
+   * possibly wrapped, but to the caller it is an ordinary outcome of revalidation.
+   */
+  public DownloadResponse toNotModifiedResponse(
+      DownloadRequest downloadRequest, Throwable failure) {
+    if (!downloadRequest.isConditional()) {
+      return null;
+    }
+    Throwable cur = failure;
+    while (cur != null && !(cur instanceof ServiceException)) {
+      cur = cur.getCause();
+    }
+    if (cur == null || ((ServiceException) cur).statusCode() != 304) {
+      return null;
+    }
+    BlobMetadata.BlobMetadataBuilder metadata =
+        BlobMetadata.builder()
+            .key(downloadRequest.getKey())
+            .versionId(downloadRequest.getVersionId());
+    Map<String, String> headers = ((ServiceException) cur).headers();
+    if (headers != null) {
+      for (Map.Entry<String, String> entry : headers.entrySet()) {
+        if ("ETag".equalsIgnoreCase(entry.getKey())) {
+          metadata.eTag(stripQuotes(entry.getValue()));
+        } else if ("Last-Modified".equalsIgnoreCase(entry.getKey())) {
+          metadata.lastModified(parseLastModified(entry.getValue()));
+        } else if ("x-oss-version-id".equalsIgnoreCase(entry.getKey())) {
+          metadata.versionId(entry.getValue());
+        }
+      }
+    }
+    return DownloadResponse.notModified(downloadRequest.getKey(), metadata.build());
+  }
+
   private String toHttpRange(Long start, Long end) {
     if (start == null) {
       return "bytes=-" + end;
@@ -757,6 +812,11 @@ public class AliTransformer {
       builder.maxKeys(request.getMaxResults().longValue());
     }
 
+    // OSS has no end bound; the stores trim pages with ListBlobsPageRequest.trimToEndBefore.
+    if (request.getStartAfter() != null) {
+      builder.startAfter(request.getStartAfter());
+    }
+
     return builder.build();
   }
 
@@ -789,12 +849,39 @@ public class AliTransformer {
         result.nextContinuationToken());
   }
 
+  /** Returns the versions and delete markers of one {@code ListObjectVersions} page. */
+  public List<BlobVersionInfo> toVersionInfos(ListObjectVersionsResult result) {
+    List<BlobVersionInfo> versions = new ArrayList<>();
+    if (result.versions() != null) {
+      for (ObjectVersion version : result.versions()) {
+        versions.add(BlobVersionInfo.builder()
+            .key(version.key())
+            .versionId(version.versionId())
+            .objectSize(version.size() != null ? version.size() : 0L)
+            .latest(Boolean.TRUE.equals(version.isLatest()))
+            .build());
+      }
+    }
+    if (result.deleteMarkers() != null) {
+      for (DeleteMarkerEntry marker : result.deleteMarkers()) {
+        versions.add(BlobVersionInfo.builder()
+            .key(marker.key())
+            .versionId(marker.versionId())
+            .latest(Boolean.TRUE.equals(marker.isLatest()))
+            .deleteMarker(true)
+            .build());
+      }
+    }
+    return versions;
+  }
+
   public ListBlobsBatch toListBlobsBatch(ListObjectsV2Result result) {
     List<BlobInfo> blobs = result.contents().stream()
         .map(obj -> new BlobInfo.Builder()
             .withKey(obj.key())
             .withObjectSize(obj.size() != null ? obj.size() : 0L)
             .withLastModified(obj.lastModified())
+            .withETag(obj.eTag())
             .build())
         .collect(Collectors.toList());
 
@@ -45,6 +45,7 @@ public class BlobInfoIterator implements Iterator<BlobInfo> {
                     .withKey(objSum.key())
                     .withObjectSize(objSum.size() != null ? objSum.size() : 0L)
                     .withLastModified(objSum.lastModified())
+                    .withETag(objSum.eTag())
                     .build())
         .collect(toList());
   }
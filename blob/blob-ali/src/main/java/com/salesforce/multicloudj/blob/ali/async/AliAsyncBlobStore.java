@@ -35,6 +35,7 @@ import com.salesforce.multicloudj.blob.driver.BlobIdentifier;
 import com.salesforce.multicloudj.blob.driver.BlobInfo;
 import com.salesforce.multicloudj.blob.driver.BlobMetadata;
 import com.salesforce.multicloudj.blob.driver.BlobStoreValidator;
+import com.salesforce.multicloudj.blob.driver.BulkLookups;
 import com.salesforce.multicloudj.blob.driver.ByteArray;
 import com.salesforce.multicloudj.blob.driver.CopyRequest;
 import com.salesforce.multicloudj.blob.driver.CopyResponse;
@@ -79,6 +80,7 @@ import java.util.Collections;
 import java.util.List;
 import java.util.Map;
 import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
 import java.util.concurrent.ExecutorService;
 import java.util.concurrent.ForkJoinPool;
 import java.util.concurrent.atomic.AtomicLong;
@@ -90,7 +92,11 @@ import lombok.Getter;
 /** Alibaba Cloud OSS native async implementation of AsyncBlobStore. */
 public class AliAsyncBlobStore extends AbstractAsyncBlobStore implements AliSdkService {
 
-  private static final int MAX_OBJECTS_PER_DELETE = 1000;
+  /**
+   * Number of files a directory upload or download keeps in flight when the builder does not set
+   * one. Matches the S3 TransferManager default, so both providers behave alike out of the box.
+   */
+  static final int DEFAULT_TRANSFER_DIRECTORY_MAX_CONCURRENCY = 100;
 
   private final OSSAsyncClient asyncClient;
   // syncClient is required for operations not available on OSSAsyncClient:
@@ -101,6 +107,7 @@ public class AliAsyncBlobStore extends AbstractAsyncBlobStore implements AliSdkS
   private final AliTransformer transformer;
   private final ExecutorService executorService;
   private final Downloader downloader;
+  private final int transferDirectoryMaxConcurrency;
 
   public AliAsyncBlobStore(
       String bucket,
@@ -111,9 +118,39 @@ public class AliAsyncBlobStore extends AbstractAsyncBlobStore implements AliSdkS
       OSSClient syncClient,
       AliTransformerSupplier transformerSupplier,
       ExecutorService executorService) {
+    this(bucket, region, credentialsOverrider, validator, asyncClient,
+        syncClient, transformerSupplier, executorService, (Integer) null);
+  }
+
+  public AliAsyncBlobStore(
+      String bucket,
+      String region,
+      CredentialsOverrider credentialsOverrider,
+      BlobStoreValidator validator,
+      OSSAsyncClient asyncClient,
+      OSSClient syncClient,
+      AliTransformerSupplier transformerSupplier,
+      ExecutorService executorService,
+      Integer maxBulkLookupConcurrency) {
+    this(bucket, region, credentialsOverrider, validator, asyncClient,
+        syncClient, transformerSupplier, executorService, maxBulkLookupConcurrency, null);
+  }
+
+  public AliAsyncBlobStore(
+      String bucket,
+      String region,
+      CredentialsOverrider credentialsOverrider,
+      BlobStoreValidator validator,
+      OSSAsyncClient asyncClient,
+      OSSClient syncClient,
+      AliTransformerSupplier transformerSupplier,
+      ExecutorService executorService,
+      Integer maxBulkLookupConcurrency,
+      Integer transferDirectoryMaxConcurrency) {
     this(bucket, region, credentialsOverrider, validator, asyncClient,
         syncClient, transformerSupplier, executorService,
-        syncClient != null ? new Downloader(syncClient) : null);
+        syncClient != null ? new Downloader(syncClient) : null, maxBulkLookupConcurrency,
+        transferDirectoryMaxConcurrency);
   }
 
   AliAsyncBlobStore(
@@ -126,13 +163,39 @@ public class AliAsyncBlobStore extends AbstractAsyncBlobStore implements AliSdkS
       AliTransformerSupplier transformerSupplier,
       ExecutorService executorService,
       Downloader downloader) {
-    super(AliConstants.PROVIDER_ID, bucket, region, credentialsOverrider, validator);
+    this(bucket, region, credentialsOverrider, validator, asyncClient,
+        syncClient, transformerSupplier, executorService, downloader, null, null);
+  }
+
+  AliAsyncBlobStore(
+      String bucket,
+      String region,
+      CredentialsOverrider credentialsOverrider,
+      BlobStoreValidator validator,
+      OSSAsyncClient asyncClient,
+      OSSClient syncClient,
+      AliTransformerSupplier transformerSupplier,
+      ExecutorService executorService,
+      Downloader downloader,
+      Integer maxBulkLookupConcurrency,
+      Integer transferDirectoryMaxConcurrency) {
+    super(
+        AliConstants.PROVIDER_ID,
+        bucket,
+        region,
+        credentialsOverrider,
+        validator,
+        maxBulkLookupConcurrency);
     this.asyncClient = asyncClient;
     this.syncClient = syncClient;
     this.transformer = transformerSupplier.get(bucket);
     this.executorService =
         executorService != null ? executorService : ForkJoinPool.commonPool();
     this.downloader = downloader;
+    this.transferDirectoryMaxConcurrency =
+        transferDirectoryMaxConcurrency != null
+            ? transferDirectoryMaxConcurrency
+            : DEFAULT_TRANSFER_DIRECTORY_MAX_CONCURRENCY;
   }
 
   @Override
@@ -240,7 +303,7 @@ public class AliAsyncBlobStore extends AbstractAsyncBlobStore implements AliSdkS
   @Override
   protected CompletableFuture<DownloadResponse> doDownload(
       DownloadRequest request, OutputStream outputStream) {
-    return doDownloadInternal(request).thenApply(result -> {
+    return handleNotModified(request, doDownloadInternal(request).thenApply(result -> {
       try (InputStream body = result.body()) {
         copyStream(body, outputStream);
         return transformer.toDownloadResponse(request.getKey(), result);
@@ -248,7 +311,7 @@ public class AliAsyncBlobStore extends AbstractAsyncBlobStore implements AliSdkS
         throw new SubstrateSdkException(
             "Failed to download blob: " + request.getKey(), e);
       }
-    });
+    }));
   }
 
   @Override
@@ -276,7 +339,7 @@ public class AliAsyncBlobStore extends AbstractAsyncBlobStore implements AliSdkS
         && request.getEnd() == null) {
       return doParallelDownload(request, destinationPath);
     }
-    return doDownloadInternal(request).thenApply(result -> {
+    return handleNotModified(request, doDownloadInternal(request).thenApply(result -> {
       try (InputStream body = result.body()) {
         Files.copy(body, destinationPath);
         return transformer.toDownloadResponse(request.getKey(), result);
@@ -284,7 +347,7 @@ public class AliAsyncBlobStore extends AbstractAsyncBlobStore implements AliSdkS
         throw new SubstrateSdkException(
             "Failed to download blob: " + request.getKey(), e);
       }
-    });
+    }));
   }
 
   /**
@@ -304,6 +367,14 @@ public class AliAsyncBlobStore extends AbstractAsyncBlobStore implements AliSdkS
     return asyncClient
         .headObjectAsync(headRequest, OperationOptions.defaults())
         .thenApplyAsync(headResult -> {
+          BlobMetadata metadata = transformer.toBlobMetadata(request.getKey(), headResult);
+          // The Downloader issues ranged GETs, so conditional requests are decided on the HEAD.
+          if (request.isConditional()
+              && request
+                  .getPreconditions()
+                  .isNotModified(metadata.getETag(), metadata.getLastModified())) {
+            return DownloadResponse.notModified(request.getKey(), metadata);
+          }
           GetObjectRequest getRequest =
               transformer.toGetObjectRequest(request);
           try {
@@ -315,8 +386,7 @@ public class AliAsyncBlobStore extends AbstractAsyncBlobStore implements AliSdkS
           }
           return DownloadResponse.builder()
               .key(request.getKey())
-              .metadata(transformer.toBlobMetadata(
-                  request.getKey(), headResult))
+              .metadata(metadata)
               .build();
         }, executorService);
   }
@@ -324,9 +394,27 @@ public class AliAsyncBlobStore extends AbstractAsyncBlobStore implements AliSdkS
   @Override
   protected CompletableFuture<DownloadResponse> doDownload(
       DownloadRequest request) {
-    return doDownloadInternal(request).thenApply(result ->
+    return handleNotModified(request, doDownloadInternal(request).thenApply(result ->
         transformer.toDownloadResponse(
-            request.getKey(), result, result.body()));
+            request.getKey(), result, result.body())));
+  }
+
+  /** Turns the 304 of a conditional download into a not-modified response. */
+  private CompletableFuture<DownloadResponse> handleNotModified(
+      DownloadRequest request, CompletableFuture<DownloadResponse> future) {
+    if (!request.isConditional()) {
+      return future;
+    }
+    return future.exceptionally(throwable -> {
+      DownloadResponse notModified = transformer.toNotModifiedResponse(request, throwable);
+      if (notModified != null) {
+        return notModified;
+      }
+      if (throwable instanceof CompletionException) {
+        throw (CompletionException) throwable;
+      }
+      throw new CompletionException(throwable);
+    });
   }
 
   private CompletableFuture<GetObjectResult> doDownloadInternal(
@@ -474,7 +562,7 @@ public class AliAsyncBlobStore extends AbstractAsyncBlobStore implements AliSdkS
         transformer.toListObjectsRequest(request);
     return asyncClient
         .listObjectsV2Async(listRequest, OperationOptions.defaults())
-        .thenApply(transformer::toListBlobsPageResponse);
+        .thenApply(result -> request.trimToEndBefore(transformer.toListBlobsPageResponse(result)));
   }
 
 
@@ -510,7 +598,8 @@ public class AliAsyncBlobStore extends AbstractAsyncBlobStore implements AliSdkS
         // it as the cross-cloud composite checksum on MultipartUploadResponse.
         .thenApply(result -> new MultipartUploadResponse(
             stripQuotes(result.completeMultipartUpload().eTag()),
-            result.hashCRC64()));
+            result.hashCRC64(),
+            result.versionId()));
   }
 
   @Override
@@ -687,13 +776,17 @@ public class AliAsyncBlobStore extends AbstractAsyncBlobStore implements AliSdkS
             }
           }
 
-          // Fan out per-file downloads. When transfer status logging is enabled, a per-file
-          // listener shares the directory-scoped totalBytes counter and drives byte accounting
-          // and logging. When disabled, no listener is attached (mirrors AWS) — null.
+          // Fan out per-file downloads, at most transferDirectoryMaxConcurrency at a time so a
+          // large directory does not open one connection and one file handle per object. When
+          // transfer status logging is enabled, a per-file listener shares the directory-scoped
+          // totalBytes counter and drives byte accounting and logging. When disabled, no
+          // listener is attached (mirrors AWS) — null.
           boolean loggingEnabled =
               directoryDownloadRequest.isTransferStatusLoggingEnabled();
-          List<CompletableFuture<Void>> futures = blobInfos.stream()
-              .map(blob -> {
+          return BulkLookups.forEachAsync(
+              new ArrayList<>(blobInfos),
+              transferDirectoryMaxConcurrency,
+              blob -> {
                 String key = blob.getKey();
                 String relative = (prefix != null && key.startsWith(prefix))
                     ? key.substring(prefix.length()) : key;
@@ -721,10 +814,7 @@ public class AliAsyncBlobStore extends AbstractAsyncBlobStore implements AliSdkS
                           .build());
                       return null;
                     });
-              })
-              .collect(Collectors.toList());
-          return CompletableFuture.allOf(
-              futures.toArray(new CompletableFuture[0]));
+              });
         }, executorService)
         // Stage 4: build response after all downloads complete.
         .thenApply(v -> DirectoryDownloadResponse.builder()
@@ -805,7 +895,8 @@ public class AliAsyncBlobStore extends AbstractAsyncBlobStore implements AliSdkS
           return fileSizes;
         },
         executorService)
-        // Stage 2: fan out per-file uploads and compose; no blocking join.
+        // Stage 2: fan out per-file uploads, transferDirectoryMaxConcurrency at a time, and
+        // compose; no blocking join.
         .thenCompose(fileSizes -> {
           if (fileSizes.isEmpty()) {
             return CompletableFuture.completedFuture(null);
@@ -815,8 +906,10 @@ public class AliAsyncBlobStore extends AbstractAsyncBlobStore implements AliSdkS
           // consumed. When disabled, no listener is attached (mirrors AWS) — null.
           boolean loggingEnabled =
               directoryUploadRequest.isTransferStatusLoggingEnabled();
-          List<CompletableFuture<Void>> futures = fileSizes.entrySet().stream()
-              .map(entry -> {
+          return BulkLookups.forEachAsync(
+              new ArrayList<>(fileSizes.entrySet()),
+              transferDirectoryMaxConcurrency,
+              entry -> {
                 Path filePath = entry.getKey();
                 long fileSize = entry.getValue();
                 String key = toBlobKey(sourceDir, filePath, prefix);
@@ -851,10 +944,7 @@ public class AliAsyncBlobStore extends AbstractAsyncBlobStore implements AliSdkS
                           .build());
                       return null;
                     });
-              })
-              .collect(Collectors.toList());
-          return CompletableFuture.allOf(
-              futures.toArray(new CompletableFuture[0]));
+              });
         })
         // Stage 3: build response after all uploads complete.
         .thenApply(v -> DirectoryUploadResponse.builder()
@@ -901,26 +991,6 @@ public class AliAsyncBlobStore extends AbstractAsyncBlobStore implements AliSdkS
     return key;
   }
 
-  @Override
-  protected CompletableFuture<Void> doDeleteDirectory(String prefix) {
-    List<CompletableFuture<Void>> futures =
-        Collections.synchronizedList(new ArrayList<>());
-
-    Consumer<ListBlobsBatch> consumer =
-        batch -> {
-          List<List<BlobInfo>> partitionedBlobLists =
-              transformer.partitionList(batch.getBlobs(), MAX_OBJECTS_PER_DELETE);
-          for (List<BlobInfo> blobList : partitionedBlobLists) {
-            futures.add(doDelete(transformer.toBlobIdentifiers(blobList)));
-          }
-        };
-    CompletableFuture<Void> listFuture =
-        doList(ListBlobsRequest.builder().withPrefix(prefix).build(), consumer);
-    futures.add(listFuture);
-    return listFuture.thenCompose(v ->
-        CompletableFuture.allOf(futures.toArray(new CompletableFuture[0])));
-  }
-
   public static Builder builder() {
     return new Builder();
   }
@@ -999,7 +1069,9 @@ public class AliAsyncBlobStore extends AbstractAsyncBlobStore implements AliSdkS
           async,
           sync,
           getTransformerSupplier(),
-          getExecutorService());
+          getExecutorService(),
+          getMaxBulkLookupConcurrency(),
+          getTransferDirectoryMaxConcurrency());
     }
   }
 }
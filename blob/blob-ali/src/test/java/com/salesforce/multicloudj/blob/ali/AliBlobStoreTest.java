@@ -28,6 +28,7 @@ import com.aliyun.sdk.service.oss2.models.CompleteMultipartUploadResult;
 import com.aliyun.sdk.service.oss2.models.CompleteMultipartUploadResultXml;
 import com.aliyun.sdk.service.oss2.models.CopyObjectRequest;
 import com.aliyun.sdk.service.oss2.models.CopyObjectResult;
+import com.aliyun.sdk.service.oss2.models.DeleteMarkerEntry;
 import com.aliyun.sdk.service.oss2.models.DeleteMultipleObjectsRequest;
 import com.aliyun.sdk.service.oss2.models.DeleteObjectRequest;
 import com.aliyun.sdk.service.oss2.models.GetBucketVersioningRequest;
@@ -74,6 +75,7 @@ import com.aliyun.sdk.service.oss2.paginator.ListObjectVersionsIterable;
 import com.salesforce.multicloudj.blob.driver.BlobIdentifier;
 import com.salesforce.multicloudj.blob.driver.BlobInfo;
 import com.salesforce.multicloudj.blob.driver.BlobMetadata;
+import com.salesforce.multicloudj.blob.driver.BlobVersionInfo;
 import com.salesforce.multicloudj.blob.driver.BucketVersioningConfiguration;
 import com.salesforce.multicloudj.blob.driver.BucketVersioningStatus;
 import com.salesforce.multicloudj.blob.driver.ByteArray;
@@ -234,6 +236,58 @@ public class AliBlobStoreTest {
     }
   }
 
+  @Test
+  void testDoUploadLargeFileUploadsPartsInParallel() throws IOException {
+    AliBlobStore store =
+        new AliBlobStore.Builder()
+            .withClient(mockOssClient)
+            .withBucket("bucket-1")
+            .withRegion("cn-shanghai")
+            .withThresholdBytes(1000L)
+            .withPartBufferSize(1000L)
+            .build();
+    InitiateMultipartUploadResult initiateResult = mock(InitiateMultipartUploadResult.class);
+    InitiateMultipartUpload initiated = mock(InitiateMultipartUpload.class);
+    when(initiateResult.initiateMultipartUpload()).thenReturn(initiated);
+    when(initiated.bucket()).thenReturn("bucket-1");
+    when(initiated.key()).thenReturn("object-1");
+    when(initiated.uploadId()).thenReturn("mpu-id");
+    when(mockOssClient.initiateMultipartUpload(
+        any(InitiateMultipartUploadRequest.class), any(OperationOptions.class)))
+        .thenReturn(initiateResult);
+    UploadPartResult partResult = mock(UploadPartResult.class);
+    when(partResult.eTag()).thenReturn("\"part-etag\"");
+    when(mockOssClient.uploadPart(any(UploadPartRequest.class), any(OperationOptions.class)))
+        .thenReturn(partResult);
+    CompleteMultipartUploadResult completeResult = mock(CompleteMultipartUploadResult.class);
+    CompleteMultipartUploadResultXml completeXml = mock(CompleteMultipartUploadResultXml.class);
+    when(completeResult.completeMultipartUpload()).thenReturn(completeXml);
+    when(completeXml.eTag()).thenReturn("\"result-etag\"");
+    when(completeResult.versionId()).thenReturn("version-1");
+    when(mockOssClient.completeMultipartUpload(
+        any(CompleteMultipartUploadRequest.class), any(OperationOptions.class)))
+        .thenReturn(completeResult);
+    Path path = Files.createTempFile("large", ".bin");
+    try {
+      Files.write(path, new byte[2500]);
+
+      UploadResponse response =
+          store.upload(UploadRequest.builder().withKey("object-1").build(), path.toFile());
+
+      assertEquals("result-etag", response.getETag());
+      assertEquals("version-1", response.getVersionId());
+      verify(mockOssClient, times(3)).uploadPart(
+          any(UploadPartRequest.class), any(OperationOptions.class));
+      ArgumentCaptor<CompleteMultipartUploadRequest> captor =
+          ArgumentCaptor.forClass(CompleteMultipartUploadRequest.class);
+      verify(mockOssClient).completeMultipartUpload(captor.capture(), any(OperationOptions.class));
+      assertEquals(3, captor.getValue().completeMultipartUpload().parts().size());
+      verify(mockOssClient, never()).putObject(any(PutObjectRequest.class), any());
+    } finally {
+      Files.deleteIfExists(path);
+    }
+  }
+
   @Test
   void testDoUploadPath() throws IOException {
     doReturn(buildTestPutObjectResult())
@@ -1990,6 +2044,41 @@ public class AliBlobStoreTest {
     assertEquals(priorVersionId, info.getVersionId());
   }
 
+  @Test
+  void testDoListAllVersionsIncludesDeleteMarkers() {
+    ObjectVersion noncurrent = mock(ObjectVersion.class);
+    when(noncurrent.key()).thenReturn("dir/b");
+    when(noncurrent.versionId()).thenReturn("b1");
+    when(noncurrent.size()).thenReturn(10L);
+    when(noncurrent.isLatest()).thenReturn(false);
+    DeleteMarkerEntry marker = mock(DeleteMarkerEntry.class);
+    when(marker.key()).thenReturn("dir/b");
+    when(marker.versionId()).thenReturn("b2");
+    when(marker.isLatest()).thenReturn(true);
+    ListObjectVersionsResult listResult = mock(ListObjectVersionsResult.class);
+    when(listResult.versions()).thenReturn(List.of(noncurrent));
+    when(listResult.deleteMarkers()).thenReturn(List.of(marker));
+    ListObjectVersionsIterable iterable = mock(ListObjectVersionsIterable.class);
+    when(iterable.iterator()).thenReturn(List.of(listResult).iterator());
+    when(mockOssClient.listObjectVersionsPaginator(any(ListObjectVersionsRequest.class)))
+        .thenReturn(iterable);
+
+    List<BlobVersionInfo> versions = new ArrayList<>();
+    ali.doListAllVersions("dir/").forEachRemaining(versions::add);
+
+    assertEquals(2, versions.size());
+    assertEquals("b1", versions.get(0).getVersionId());
+    assertEquals(10L, versions.get(0).getObjectSize());
+    assertFalse(versions.get(0).isLatest());
+    assertEquals("b2", versions.get(1).getVersionId());
+    assertTrue(versions.get(1).isDeleteMarker());
+    assertTrue(versions.get(1).isLatest());
+    ArgumentCaptor<ListObjectVersionsRequest> captor =
+        ArgumentCaptor.forClass(ListObjectVersionsRequest.class);
+    verify(mockOssClient).listObjectVersionsPaginator(captor.capture());
+    assertEquals("dir/", captor.getValue().prefix());
+  }
+
   @Test
   void testDoDownloadByteArray_checkArchived_deletedOnVersionedBucket_throwsWithArchiveInfo() {
     // The ByteArray download path must preserve the same archived-object contract as the
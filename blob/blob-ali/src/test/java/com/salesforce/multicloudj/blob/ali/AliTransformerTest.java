@@ -802,6 +802,18 @@ public class AliTransformerTest {
     assertEquals(request.getMaxResults().longValue(), actual.maxKeys());
   }
 
+  @Test
+  void testToListObjectsRequestWithKeyRange() {
+    ListBlobsPageRequest request =
+        ListBlobsPageRequest.builder()
+            .withStartAfter("logs/0100")
+            .withEndBefore("logs/0200")
+            .build();
+
+    ListObjectsV2Request actual = transformer.toListObjectsRequest(request);
+    assertEquals("logs/0100", actual.startAfter());
+  }
+
   @Test
   void testToListObjectsRequest_fromListBlobsRequest() {
     ListBlobsRequest request =
@@ -4,6 +4,7 @@ import static com.salesforce.multicloudj.blob.ali.ErrorCodeMapping.getException;
 import static org.junit.jupiter.api.Assertions.assertEquals;
 
 import com.salesforce.multicloudj.common.exceptions.InvalidArgumentException;
+import com.salesforce.multicloudj.common.exceptions.ResourceConflictException;
 import com.salesforce.multicloudj.common.exceptions.ResourceNotFoundException;
 import com.salesforce.multicloudj.common.exceptions.UnAuthorizedException;
 import com.salesforce.multicloudj.common.exceptions.UnknownException;
@@ -19,6 +20,7 @@ public class ErrorCodeMappingTest {
     assertEquals(UnknownException.class, getException("ServerError"));
     assertEquals(InvalidArgumentException.class, getException("NoSuchBucket"));
     assertEquals(ResourceNotFoundException.class, getException("NoSuchKey"));
+    assertEquals(ResourceConflictException.class, getException("PreconditionFailed"));
     assertEquals(InvalidArgumentException.class, getException("InvalidRequest"));
     assertEquals(UnAuthorizedException.class, getException("SignatureDoesNotMatch"));
     assertEquals(InvalidArgumentException.class, getException("BucketAlreadyExists"));
@@ -1720,6 +1720,53 @@ public class AliAsyncBlobStoreTest {
     assertNotNull(ex.getCause());
   }
 
+  @Test
+  void testUploadDirectoryBoundsFilesInFlight(@TempDir Path tempDir) throws Exception {
+    for (int i = 0; i < 5; i++) {
+      Files.writeString(tempDir.resolve("file" + i + ".txt"), "content" + i);
+    }
+    store = new AliAsyncBlobStore(
+        BUCKET, REGION, null, validator, mockAsyncClient,
+        mockSyncClient, new AliTransformerSupplier(), null,
+        mockDownloader, null, 2);
+
+    PutObjectResult mockResult = mock(PutObjectResult.class);
+    when(mockResult.eTag()).thenReturn("\"etag\"");
+    List<CompletableFuture<PutObjectResult>> pending = new ArrayList<>();
+    when(mockAsyncClient.putObjectAsync(
+        any(PutObjectRequest.class), any(OperationOptions.class)))
+        .thenAnswer(invocation -> {
+          CompletableFuture<PutObjectResult> future = new CompletableFuture<>();
+          synchronized (pending) {
+            pending.add(future);
+          }
+          return future;
+        });
+
+    DirectoryUploadRequest request = DirectoryUploadRequest.builder()
+        .localSourceDirectory(tempDir.toString())
+        .prefix("pfx")
+        .includeSubFolders(true)
+        .build();
+    CompletableFuture<DirectoryUploadResponse> result = store.uploadDirectory(request);
+
+    for (int completed = 0; completed < 5; completed++) {
+      CompletableFuture<PutObjectResult> next;
+      synchronized (pending) {
+        while (pending.size() <= completed) {
+          pending.wait(10);
+        }
+        assertTrue(pending.stream().filter(f -> !f.isDone()).count() <= 2);
+        next = pending.get(completed);
+      }
+      next.complete(mockResult);
+    }
+
+    DirectoryUploadResponse response = result.get();
+    assertEquals(5, pending.size());
+    assertEquals(0, response.getFailedTransfers().size());
+  }
+
   @Test
   void testUploadDirectoryFileUploadFailed(@TempDir Path tempDir)
       throws Exception {
@@ -1,15 +1,23 @@
 package com.salesforce.multicloudj.blob.aws;
 
 import com.google.auto.service.AutoService;
+import com.google.common.collect.Iterators;
+import com.salesforce.multicloudj.blob.async.driver.AsyncBlobStore;
+import com.salesforce.multicloudj.blob.aws.async.AwsAsyncBlobStore;
 import com.salesforce.multicloudj.blob.driver.AbstractBlobStore;
 import com.salesforce.multicloudj.blob.driver.BlobIdentifier;
 import com.salesforce.multicloudj.blob.driver.BlobInfo;
 import com.salesforce.multicloudj.blob.driver.BlobMetadata;
+import com.salesforce.multicloudj.blob.driver.BlobVersionInfo;
 import com.salesforce.multicloudj.blob.driver.BucketVersioningConfiguration;
 import com.salesforce.multicloudj.blob.driver.ByteArray;
 import com.salesforce.multicloudj.blob.driver.CopyFromRequest;
 import com.salesforce.multicloudj.blob.driver.CopyRequest;
 import com.salesforce.multicloudj.blob.driver.CopyResponse;
+import com.salesforce.multicloudj.blob.driver.DirectoryDownloadRequest;
+import com.salesforce.multicloudj.blob.driver.DirectoryDownloadResponse;
+import com.salesforce.multicloudj.blob.driver.DirectoryUploadRequest;
+import com.salesforce.multicloudj.blob.driver.DirectoryUploadResponse;
 import com.salesforce.multicloudj.blob.driver.DownloadRequest;
 import com.salesforce.multicloudj.blob.driver.DownloadResponse;
 import com.salesforce.multicloudj.blob.driver.ListBlobVersionsRequest;
@@ -23,9 +31,11 @@ import com.salesforce.multicloudj.blob.driver.MultipartUploadResponse;
 import com.salesforce.multicloudj.blob.driver.ObjectLockInfo;
 import com.salesforce.multicloudj.blob.driver.ObjectRetentionConfig;
 import com.salesforce.multicloudj.blob.driver.ObjectRetentionRules;
+import com.salesforce.multicloudj.blob.driver.ParallelFileUploader;
 import com.salesforce.multicloudj.blob.driver.PresignedUrlRequest;
 import com.salesforce.multicloudj.blob.driver.PresignedUrlResponse;
 import com.salesforce.multicloudj.blob.driver.RetentionMode;
+import com.salesforce.multicloudj.blob.driver.SharedClients;
 import com.salesforce.multicloudj.blob.driver.UploadPartResponse;
 import com.salesforce.multicloudj.blob.driver.UploadRequest;
 import com.salesforce.multicloudj.blob.driver.UploadResponse;
@@ -40,6 +50,8 @@ import java.io.File;
 import java.io.InputStream;
 import java.io.OutputStream;
 import java.net.URL;
+import java.nio.ByteBuffer;
+import java.nio.channels.ReadableByteChannel;
 import java.nio.file.Path;
 import java.time.Duration;
 import java.time.Instant;
@@ -48,6 +60,8 @@ import java.util.Comparator;
 import java.util.Iterator;
 import java.util.List;
 import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
 import java.util.stream.Collectors;
 import lombok.Getter;
 import software.amazon.awssdk.auth.credentials.AwsCredentialsProvider;
@@ -92,6 +106,7 @@ import software.amazon.awssdk.services.s3.model.S3Exception;
 import software.amazon.awssdk.services.s3.model.Tag;
 import software.amazon.awssdk.services.s3.model.UploadPartRequest;
 import software.amazon.awssdk.services.s3.presigner.S3Presigner;
+import software.amazon.awssdk.transfer.s3.S3TransferManager;
 
 /** AWS implementation of BlobStore */
 @AutoService(AbstractBlobStore.class)
@@ -99,14 +114,39 @@ public class AwsBlobStore extends AbstractBlobStore implements AwsSdkService {
   private final S3Client s3Client;
   private final AwsTransformer transformer;
 
+  /** This store's reference to a client shared with other stores, or null if it owns s3Client. */
+  private final SharedClients.Lease<S3Client> clientLease;
+
+  /** Uploads channels of unknown length in parts instead of letting the SDK buffer them whole. */
+  private final ParallelFileUploader streamUploader;
+
+  /** Configures the async store that runs directory transfers, built on first use. */
+  private final AwsAsyncBlobStore.Builder directoryStoreBuilder;
+
+  private AsyncBlobStore directoryStore;
+  private boolean closed;
+
   public AwsBlobStore() {
     this(new Builder(), null);
   }
 
   public AwsBlobStore(Builder builder, S3Client s3Client) {
+    this(builder, s3Client, null);
+  }
+
+  private AwsBlobStore(
+      Builder builder, S3Client s3Client, SharedClients.Lease<S3Client> clientLease) {
     super(builder);
     this.s3Client = s3Client;
+    this.clientLease = clientLease;
     this.transformer = builder.getTransformerSupplier().get(bucket);
+    this.streamUploader =
+        new ParallelFileUploader(
+            builder.getThresholdBytes(),
+            builder.getPartBufferSize(),
+            builder.getMaxConcurrency(),
+            executorService);
+    this.directoryStoreBuilder = builder.toDirectoryStoreBuilder();
   }
 
   /** Helper function to determine if any of the HttpClient configuration options have been set */
@@ -174,6 +214,39 @@ public class AwsBlobStore extends AbstractBlobStore implements AwsSdkService {
     return doUpload(uploadRequest, RequestBody.fromFile(path));
   }
 
+  /**
+   * Performs Blob upload, streaming the buffer to the SDK in place
+   *
+   * @param uploadRequest Wrapper object containing upload data
+   * @param buffer The buffer that contains the blob content
+   * @return Wrapper object containing the upload result data
+   */
+  @Override
+  protected UploadResponse doUpload(UploadRequest uploadRequest, ByteBuffer buffer) {
+    return doUpload(uploadRequest, transformer.toRequestBody(buffer));
+  }
+
+  /**
+   * Performs Blob upload from a channel. Without a content length the SDK would buffer the whole
+   * stream to size the request, so a channel of unknown length is uploaded in parts instead, read
+   * one part at a time.
+   *
+   * @param uploadRequest Wrapper object containing upload data
+   * @param channel The channel that contains the blob content
+   * @param contentLength The number of bytes the channel holds, or -1 if unknown
+   * @return Wrapper object containing the upload result data
+   */
+  @Override
+  protected UploadResponse doUpload(
+      UploadRequest uploadRequest, ReadableByteChannel channel, long contentLength) {
+    if (contentLength < 0
+        && uploadRequest.getContentLength() <= 0
+        && streamUploader.appliesToStream(uploadRequest)) {
+      return streamUploader.upload(this, uploadRequest, channel);
+    }
+    return super.doUpload(uploadRequest, channel, contentLength);
+  }
+
   /** Helper function to upload blobs */
   protected UploadResponse doUpload(UploadRequest uploadRequest, RequestBody requestBody) {
     PutObjectRequest request = transformer.toRequest(uploadRequest);
@@ -197,6 +270,10 @@ public class AwsBlobStore extends AbstractBlobStore implements AwsSdkService {
           s3Client.getObject(request, ResponseTransformer.toOutputStream(outputStream));
       return transformer.toDownloadResponse(downloadRequest, response);
     } catch (S3Exception e) {
+      DownloadResponse notModified = transformer.toNotModifiedResponse(downloadRequest, e);
+      if (notModified != null) {
+        return notModified;
+      }
       handleArchivedObjects(downloadRequest, e);
       throw e;
     }
@@ -219,6 +296,10 @@ public class AwsBlobStore extends AbstractBlobStore implements AwsSdkService {
       GetObjectResponse response = responseBytes.response();
       return transformer.toDownloadResponse(downloadRequest, response);
     } catch (S3Exception e) {
+      DownloadResponse notModified = transformer.toNotModifiedResponse(downloadRequest, e);
+      if (notModified != null) {
+        return notModified;
+      }
       handleArchivedObjects(downloadRequest, e);
       throw e;
     }
@@ -240,6 +321,10 @@ public class AwsBlobStore extends AbstractBlobStore implements AwsSdkService {
           s3Client.getObject(request, ResponseTransformer.toFile(destinationPath));
       return transformer.toDownloadResponse(downloadRequest, response);
     } catch (S3Exception e) {
+      DownloadResponse notModified = transformer.toNotModifiedResponse(downloadRequest, e);
+      if (notModified != null) {
+        return notModified;
+      }
       handleArchivedObjects(downloadRequest, e);
       throw e;
     }
@@ -261,6 +346,10 @@ public class AwsBlobStore extends AbstractBlobStore implements AwsSdkService {
           s3Client.getObject(request, ResponseTransformer.toFile(destinationPath));
       return transformer.toDownloadResponse(downloadRequest, response);
     } catch (S3Exception e) {
+      DownloadResponse notModified = transformer.toNotModifiedResponse(downloadRequest, e);
+      if (notModified != null) {
+        return notModified;
+      }
       handleArchivedObjects(downloadRequest, e);
       throw e;
     }
@@ -281,6 +370,10 @@ public class AwsBlobStore extends AbstractBlobStore implements AwsSdkService {
       return transformer.toDownloadResponse(
           downloadRequest, responseInputStream.response(), responseInputStream);
     } catch (S3Exception e) {
+      DownloadResponse notModified = transformer.toNotModifiedResponse(downloadRequest, e);
+      if (notModified != null) {
+        return notModified;
+      }
       handleArchivedObjects(downloadRequest, e);
       throw e;
     }
@@ -332,6 +425,49 @@ public class AwsBlobStore extends AbstractBlobStore implements AwsSdkService {
     s3Client.deleteObjects(transformer.toDeleteRequests(objects));
   }
 
+  /**
+   * Downloads the objects under a prefix with an {@link S3TransferManager}, which the synchronous
+   * S3 client has no equivalent of. The transfer manager and the async client under it are built
+   * on the first directory transfer, configured like this store, and shared by all later ones.
+   */
+  @Override
+  protected DirectoryDownloadResponse doDownloadDirectory(
+      DirectoryDownloadRequest directoryDownloadRequest) {
+    return await(directoryStore().downloadDirectory(directoryDownloadRequest));
+  }
+
+  /**
+   * Uploads the files under a directory with an {@link S3TransferManager}, built on first use like
+   * the one {@link #doDownloadDirectory} runs on.
+   */
+  @Override
+  protected DirectoryUploadResponse doUploadDirectory(
+      DirectoryUploadRequest directoryUploadRequest) {
+    return await(directoryStore().uploadDirectory(directoryUploadRequest));
+  }
+
+  private synchronized AsyncBlobStore directoryStore() {
+    if (closed) {
+      throw new FailedPreconditionException("BlobStore is closed");
+    }
+    if (directoryStore == null) {
+      directoryStore = directoryStoreBuilder.build();
+    }
+    return directoryStore;
+  }
+
+  /** Waits for a directory transfer, rethrowing the failure the transfer manager reported. */
+  private static <T> T await(CompletableFuture<T> transfer) {
+    try {
+      return transfer.join();
+    } catch (CompletionException e) {
+      if (e.getCause() instanceof RuntimeException) {
+        throw (RuntimeException) e.getCause();
+      }
+      throw new SubstrateSdkException("Directory transfer failed", e.getCause());
+    }
+  }
+
   /**
    * Copies a Blob to a different bucket
    *
@@ -401,8 +537,9 @@ public class AwsBlobStore extends AbstractBlobStore implements AwsSdkService {
     List<String> commonPrefixes =
         response.commonPrefixes().stream().map(CommonPrefix::prefix).collect(Collectors.toList());
 
-    return new ListBlobsPageResponse(
-        blobs, commonPrefixes, response.isTruncated(), response.nextContinuationToken());
+    return request.trimToEndBefore(
+        new ListBlobsPageResponse(
+            blobs, commonPrefixes, response.isTruncated(), response.nextContinuationToken()));
   }
 
   /**
@@ -415,6 +552,20 @@ public class AwsBlobStore extends AbstractBlobStore implements AwsSdkService {
     return new BlobMetadataIterator(s3Client, getBucket(), request.getKey());
   }
 
+  /**
+   * Lists every version and delete marker under the prefix with one paginated {@code
+   * ListObjectVersions} walk, fetching pages as the iterator advances.
+   */
+  @Override
+  protected Iterator<BlobVersionInfo> doListAllVersions(String prefix) {
+    ListObjectVersionsRequest request =
+        ListObjectVersionsRequest.builder().bucket(getBucket()).prefix(prefix).build();
+    return Iterators.concat(
+        Iterators.transform(
+            s3Client.listObjectVersionsPaginator(request).iterator(),
+            page -> transformer.toVersionInfos(page).iterator()));
+  }
+
   /**
    * Initiates a multipart upload
    *
@@ -716,11 +867,31 @@ public class AwsBlobStore extends AbstractBlobStore implements AwsSdkService {
     s3Client.putObjectLegalHold(transformer.toPutObjectLegalHoldRequest(key, versionId, legalHold));
   }
 
-  /** Closes the underlying S3 client and releases any resources. */
+  /**
+   * Closes the underlying S3 client and releases any resources. A shared client is only closed once
+   * the last store using it is closed. The S3 client is released even if closing the transfer
+   * manager fails.
+   */
   @Override
   public void close() {
-    if (s3Client != null) {
-      s3Client.close();
+    AsyncBlobStore transfers;
+    synchronized (this) {
+      closed = true;
+      transfers = directoryStore;
+      directoryStore = null;
+    }
+    try {
+      if (transfers != null) {
+        transfers.close();
+      }
+    } catch (Exception e) {
+      throw new SubstrateSdkException("Failed to close S3 transfer manager", e);
+    } finally {
+      if (clientLease != null) {
+        clientLease.close();
+      } else if (s3Client != null) {
+        s3Client.close();
+      }
     }
   }
 
@@ -728,6 +899,7 @@ public class AwsBlobStore extends AbstractBlobStore implements AwsSdkService {
   public static class Builder extends AbstractBlobStore.Builder<AwsBlobStore, Builder> {
 
     private S3Client s3Client;
+    private S3TransferManager transferManager;
     private AwsTransformerSupplier transformerSupplier = new AwsTransformerSupplier();
 
     public Builder() {
@@ -739,6 +911,53 @@ public class AwsBlobStore extends AbstractBlobStore implements AwsSdkService {
       return this;
     }
 
+    /**
+     * Configures the async store directory transfers run on with the settings of this builder:
+     * connection, credentials, retries, multipart and transfer manager settings all carry over.
+     */
+    private AwsAsyncBlobStore.Builder toDirectoryStoreBuilder() {
+      AwsAsyncBlobStore.Builder async =
+          AwsAsyncBlobStore.builder()
+              .withTransferManager(transferManager)
+              .withTransformerSupplier(transformerSupplier);
+      async
+          .withBucket(getBucket())
+          .withRegion(getRegion())
+          .withCredentialsOverrider(getCredentialsOverrider())
+          .withExecutorService(getExecutorService())
+          .withValidator(getValidator())
+          .withThresholdBytes(getThresholdBytes())
+          .withPartBufferSize(getPartBufferSize())
+          .withParallelUploadsEnabled(getParallelUploadsEnabled())
+          .withParallelDownloadsEnabled(getParallelDownloadsEnabled())
+          .withTargetThroughputInGbps(getTargetThroughputInGbps())
+          .withMaxNativeMemoryLimitInBytes(getMaxNativeMemoryLimitInBytes())
+          .withInitialReadBufferSizeInBytes(getInitialReadBufferSizeInBytes())
+          .withMaxConcurrency(getMaxConcurrency())
+          .withTransferManagerThreadPoolSize(getTransferManagerThreadPoolSize())
+          .withTransferDirectoryMaxConcurrency(getTransferDirectoryMaxConcurrency())
+          .withRetryConfig(getRetryConfig())
+          .withUseSystemPropertyProxyValues(getUseSystemPropertyProxyValues())
+          .withUseEnvironmentVariableProxyValues(getUseEnvironmentVariableProxyValues());
+      // These setters reject null, so only carry over what was set.
+      if (getEndpoint() != null) {
+        async.withEndpoint(getEndpoint());
+      }
+      if (getProxyEndpoint() != null) {
+        async.withProxyEndpoint(getProxyEndpoint());
+      }
+      if (getMaxConnections() != null) {
+        async.withMaxConnections(getMaxConnections());
+      }
+      if (getSocketTimeout() != null) {
+        async.withSocketTimeout(getSocketTimeout());
+      }
+      if (getIdleConnectionTimeout() != null) {
+        async.withIdleConnectionTimeout(getIdleConnectionTimeout());
+      }
+      return async;
+    }
+
     /** Helper function to generate the client */
     private static S3Client buildS3Client(Builder builder) {
       Region regionObj = Region.of(builder.getRegion());
@@ -818,8 +1037,22 @@ public class AwsBlobStore extends AbstractBlobStore implements AwsSdkService {
       return this;
     }
 
+    /**
+     * Sets the transfer manager directory transfers run on. When unset, one is built on the first
+     * directory transfer.
+     */
+    public Builder withTransferManager(S3TransferManager transferManager) {
+      this.transferManager = transferManager;
+      return this;
+    }
+
     @Override
     public AwsBlobStore build() {
+      if (s3Client == null && getSharedClients() != null) {
+        SharedClients.Lease<S3Client> lease =
+            getSharedClients().acquire(SharedClients.clientKey(this), () -> buildS3Client(this));
+        return new AwsBlobStore(this, lease.get(), lease);
+      }
       if (s3Client == null) {
         s3Client = buildS3Client(this);
       }
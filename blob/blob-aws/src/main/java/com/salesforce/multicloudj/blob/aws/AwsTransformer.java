@@ -4,8 +4,11 @@ import com.salesforce.multicloudj.blob.aws.async.S3LoggingTransferListener;
 import com.salesforce.multicloudj.blob.driver.BlobIdentifier;
 import com.salesforce.multicloudj.blob.driver.BlobInfo;
 import com.salesforce.multicloudj.blob.driver.BlobMetadata;
+import com.salesforce.multicloudj.blob.driver.BlobPreconditions;
+import com.salesforce.multicloudj.blob.driver.BlobVersionInfo;
 import com.salesforce.multicloudj.blob.driver.BucketVersioningConfiguration;
 import com.salesforce.multicloudj.blob.driver.BucketVersioningStatus;
+import com.salesforce.multicloudj.blob.driver.ByteBufferInputStream;
 import com.salesforce.multicloudj.blob.driver.Checksum;
 import com.salesforce.multicloudj.blob.driver.ChecksumMethod;
 import com.salesforce.multicloudj.blob.driver.CopyFromRequest;
@@ -42,11 +45,14 @@ import com.salesforce.multicloudj.common.retries.RetryConfig;
 import com.salesforce.multicloudj.common.util.HexUtil;
 import java.io.IOException;
 import java.io.InputStream;
+import java.nio.ByteBuffer;
 import java.nio.file.Files;
 import java.nio.file.Path;
 import java.nio.file.Paths;
 import java.time.Duration;
 import java.time.Instant;
+import java.time.format.DateTimeFormatter;
+import java.time.format.DateTimeParseException;
 import java.util.ArrayList;
 import java.util.Collection;
 import java.util.Comparator;
@@ -54,15 +60,21 @@ import java.util.HashMap;
 import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Map;
+import java.util.Optional;
 import java.util.concurrent.Executors;
+import java.util.concurrent.Flow;
 import java.util.concurrent.atomic.AtomicLong;
 import java.util.stream.Collectors;
 import org.apache.commons.lang3.StringUtils;
+import org.reactivestreams.FlowAdapters;
+import org.reactivestreams.Publisher;
+import org.reactivestreams.Subscriber;
 import software.amazon.awssdk.awscore.presigner.PresignedRequest;
 import software.amazon.awssdk.core.ResponseInputStream;
 import software.amazon.awssdk.core.async.AsyncRequestBody;
 import software.amazon.awssdk.core.sync.RequestBody;
 import software.amazon.awssdk.http.ContentStreamProvider;
+import software.amazon.awssdk.http.SdkHttpResponse;
 import software.amazon.awssdk.retries.StandardRetryStrategy;
 import software.amazon.awssdk.retries.api.BackoffStrategy;
 import software.amazon.awssdk.retries.api.RetryStrategy;
@@ -78,6 +90,7 @@ import software.amazon.awssdk.services.s3.model.CopyObjectResponse;
 import software.amazon.awssdk.services.s3.model.CreateMultipartUploadRequest;
 import software.amazon.awssdk.services.s3.model.CreateMultipartUploadResponse;
 import software.amazon.awssdk.services.s3.model.Delete;
+import software.amazon.awssdk.services.s3.model.DeleteMarkerEntry;
 import software.amazon.awssdk.services.s3.model.DeleteObjectRequest;
 import software.amazon.awssdk.services.s3.model.DeleteObjectsRequest;
 import software.amazon.awssdk.services.s3.model.GetBucketVersioningRequest;
@@ -91,6 +104,7 @@ import software.amazon.awssdk.services.s3.model.GetObjectRetentionResponse;
 import software.amazon.awssdk.services.s3.model.GetObjectTaggingRequest;
 import software.amazon.awssdk.services.s3.model.HeadObjectRequest;
 import software.amazon.awssdk.services.s3.model.HeadObjectResponse;
+import software.amazon.awssdk.services.s3.model.ListObjectVersionsResponse;
 import software.amazon.awssdk.services.s3.model.ListObjectsV2Request;
 import software.amazon.awssdk.services.s3.model.ListObjectsV2Response;
 import software.amazon.awssdk.services.s3.model.ListPartsRequest;
@@ -100,11 +114,13 @@ import software.amazon.awssdk.services.s3.model.ObjectLockLegalHoldStatus;
 import software.amazon.awssdk.services.s3.model.ObjectLockMode;
 import software.amazon.awssdk.services.s3.model.ObjectLockRetention;
 import software.amazon.awssdk.services.s3.model.ObjectLockRetentionMode;
+import software.amazon.awssdk.services.s3.model.ObjectVersion;
 import software.amazon.awssdk.services.s3.model.PutObjectLegalHoldRequest;
 import software.amazon.awssdk.services.s3.model.PutObjectRequest;
 import software.amazon.awssdk.services.s3.model.PutObjectResponse;
 import software.amazon.awssdk.services.s3.model.PutObjectRetentionRequest;
 import software.amazon.awssdk.services.s3.model.PutObjectTaggingRequest;
+import software.amazon.awssdk.services.s3.model.S3Exception;
 import software.amazon.awssdk.services.s3.model.S3Object;
 import software.amazon.awssdk.services.s3.model.ServerSideEncryption;
 import software.amazon.awssdk.services.s3.model.StorageClass;
@@ -175,11 +191,36 @@ public class AwsTransformer {
     return new ListBlobsBatch(blobs, prefixes);
   }
 
+  /** Returns the versions and delete markers of one {@code ListObjectVersions} page. */
+  public List<BlobVersionInfo> toVersionInfos(ListObjectVersionsResponse response) {
+    List<BlobVersionInfo> versions = new ArrayList<>();
+    for (ObjectVersion version : response.versions()) {
+      versions.add(
+          BlobVersionInfo.builder()
+              .key(version.key())
+              .versionId(version.versionId())
+              .objectSize(version.size() != null ? version.size() : 0L)
+              .latest(Boolean.TRUE.equals(version.isLatest()))
+              .build());
+    }
+    for (DeleteMarkerEntry marker : response.deleteMarkers()) {
+      versions.add(
+          BlobVersionInfo.builder()
+              .key(marker.key())
+              .versionId(marker.versionId())
+              .latest(Boolean.TRUE.equals(marker.isLatest()))
+              .deleteMarker(true)
+              .build());
+    }
+    return versions;
+  }
+
   public BlobInfo toInfo(S3Object s3) {
     return new BlobInfo.Builder()
         .withKey(s3.key())
         .withObjectSize(s3.size())
         .withLastModified(s3.lastModified())
+        .withETag(s3.eTag())
         .build();
   }
 
@@ -206,9 +247,40 @@ public class AwsTransformer {
       builder.continuationToken(request.getPaginationToken());
     }
 
+    // S3 has no end bound; the stores trim pages with ListBlobsPageRequest.trimToEndBefore.
+    if (request.getStartAfter() != null) {
+      builder.startAfter(request.getStartAfter());
+    }
+
     return builder.build();
   }
 
+  /**
+   * Builds an {@link AsyncRequestBody} that subscribes the SDK directly to {@code publisher}. The
+   * body reports {@link UploadRequest#getContentLength()} when it is set; without it the SDK
+   * streams content of unknown length, through multipart on the CRT and multipart-enabled
+   * clients.
+   */
+  public AsyncRequestBody toAsyncRequestBody(
+      UploadRequest uploadRequest, Flow.Publisher<ByteBuffer> publisher) {
+    Publisher<ByteBuffer> adapted = FlowAdapters.toPublisher(publisher);
+    if (uploadRequest.getContentLength() <= 0) {
+      return AsyncRequestBody.fromPublisher(adapted);
+    }
+    Optional<Long> contentLength = Optional.of(uploadRequest.getContentLength());
+    return new AsyncRequestBody() {
+      @Override
+      public Optional<Long> contentLength() {
+        return contentLength;
+      }
+
+      @Override
+      public void subscribe(Subscriber<? super ByteBuffer> subscriber) {
+        adapted.subscribe(subscriber);
+      }
+    };
+  }
+
   public AsyncRequestBody toAsyncRequestBody(UploadRequest uploadRequest, InputStream inputStream) {
     Long contentLength =
         uploadRequest.getContentLength() > 0 ? uploadRequest.getContentLength() : null;
@@ -216,6 +288,16 @@ public class AwsTransformer {
         inputStream, contentLength, Executors.newSingleThreadExecutor());
   }
 
+  /**
+   * Builds a sync {@link RequestBody} that streams the remaining bytes of {@code buffer} in place.
+   * Unlike {@link RequestBody#fromByteBuffer(ByteBuffer)} the buffer is not copied; every retry
+   * reads it again from a fresh {@link ByteBufferInputStream}.
+   */
+  public RequestBody toRequestBody(ByteBuffer buffer) {
+    return RequestBody.fromContentProvider(
+        () -> new ByteBufferInputStream(buffer), buffer.remaining(), OCTET_STREAM_MIME);
+  }
+
   /**
    * Builds a sync {@link RequestBody} for an {@link InputStream} upload, honouring the optional
    * {@code contentLength} on {@link UploadRequest}. When {@code contentLength} is unspecified
@@ -403,9 +485,47 @@ public class AwsTransformer {
     if (request.getStart() != null || request.getEnd() != null) {
       builder.range(createRangeString(request.getStart(), request.getEnd()));
     }
+    BlobPreconditions preconditions = request.getPreconditions();
+    if (preconditions != null) {
+      builder
+          .ifMatch(preconditions.getIfMatch())
+          .ifNoneMatch(preconditions.getIfNoneMatch())
+          .ifModifiedSince(preconditions.getIfModifiedSince());
+    }
     return builder.build();
   }
 
+  /**
+   * Returns the result of a conditional download that S3 answered with 304 Not Modified, or null
+   * if {@code e} is any other failure. The SDK surfaces a 304 as an exception, but to the caller
+   * it is an ordinary outcome of revalidation.
+   */
+  public DownloadResponse toNotModifiedResponse(DownloadRequest request, S3Exception e) {
+    if (!request.isConditional() || e.statusCode() != 304) {
+      return null;
+    }
+    BlobMetadata.BlobMetadataBuilder metadata =
+        BlobMetadata.builder().key(request.getKey()).versionId(request.getVersionId());
+    if (e.awsErrorDetails() != null && e.awsErrorDetails().sdkHttpResponse() != null) {
+      SdkHttpResponse response = e.awsErrorDetails().sdkHttpResponse();
+      response.firstMatchingHeader("ETag").ifPresent(metadata::eTag);
+      response.firstMatchingHeader("x-amz-version-id").ifPresent(metadata::versionId);
+      response
+          .firstMatchingHeader("Last-Modified")
+          .map(AwsTransformer::parseHttpDate)
+          .ifPresent(metadata::lastModified);
+    }
+    return DownloadResponse.notModified(request.getKey(), metadata.build());
+  }
+
+  private static Instant parseHttpDate(String value) {
+    try {
+      return DateTimeFormatter.RFC_1123_DATE_TIME.parse(value, Instant::from);
+    } catch (DateTimeParseException e) {
+      return null;
+    }
+  }
+
   /**
    * Builds a {@link DownloadFileRequest} for use with {@code S3TransferManager.downloadFile}.
    */
@@ -1080,7 +1200,7 @@ public class AwsTransformer {
     } else if (response.checksumCRC32C() != null) {
       checksumValue = response.checksumCRC32C();
     }
-    return new MultipartUploadResponse(response.eTag(), checksumValue);
+    return new MultipartUploadResponse(response.eTag(), checksumValue, response.versionId());
   }
 
   /**
@@ -59,6 +59,7 @@ public class BlobInfoIterator implements Iterator<BlobInfo> {
                     .withKey(s3Obj.key())
                     .withObjectSize(s3Obj.size())
                     .withLastModified(s3Obj.lastModified())
+                    .withETag(s3Obj.eTag())
                     .build())
         .collect(toList());
   }
@@ -2,6 +2,7 @@ package com.salesforce.multicloudj.blob.aws;
 
 import com.salesforce.multicloudj.common.aws.CommonErrorCodeMapping;
 import com.salesforce.multicloudj.common.exceptions.InvalidArgumentException;
+import com.salesforce.multicloudj.common.exceptions.ResourceConflictException;
 import com.salesforce.multicloudj.common.exceptions.ResourceNotFoundException;
 import com.salesforce.multicloudj.common.exceptions.SubstrateSdkException;
 import com.salesforce.multicloudj.common.exceptions.UnAuthorizedException;
@@ -24,6 +25,7 @@ public class ErrorCodeMapping {
     map.put("NoSuchKey", ResourceNotFoundException.class);
     map.put("NoSuchBucket", InvalidArgumentException.class);
     map.put("InvalidObjectState", UnAuthorizedException.class);
+    map.put("PreconditionFailed", ResourceConflictException.class);
     ERROR_MAPPING = Collections.unmodifiableMap(map);
   }
 
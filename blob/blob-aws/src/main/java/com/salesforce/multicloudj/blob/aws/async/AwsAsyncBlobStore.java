@@ -44,6 +44,7 @@ import java.io.IOException;
 import java.io.InputStream;
 import java.io.OutputStream;
 import java.net.URL;
+import java.nio.ByteBuffer;
 import java.nio.file.Path;
 import java.time.Duration;
 import java.util.ArrayList;
@@ -55,6 +56,7 @@ import java.util.Map;
 import java.util.concurrent.CompletableFuture;
 import java.util.concurrent.CompletionException;
 import java.util.concurrent.Executors;
+import java.util.concurrent.Flow;
 import java.util.concurrent.atomic.AtomicLong;
 import java.util.function.Consumer;
 import java.util.stream.Collectors;
@@ -92,8 +94,6 @@ import software.amazon.awssdk.transfer.s3.model.UploadDirectoryRequest;
 /** AWS implementation of AsyncBlobStore */
 public class AwsAsyncBlobStore extends AbstractAsyncBlobStore implements AwsSdkService {
 
-  private static final int MAX_OBJECTS_PER_DELETE = 1000;
-
   private final S3AsyncClient client;
   private final S3TransferManager transferManager;
   private final AwsTransformer transformer;
@@ -106,7 +106,33 @@ public class AwsAsyncBlobStore extends AbstractAsyncBlobStore implements AwsSdkS
       S3AsyncClient client,
       S3TransferManager transferManager,
       AwsTransformerSupplier transformerSupplier) {
-    super(AwsConstants.PROVIDER_ID, bucket, region, credentialsOverrider, validator);
+    this(
+        bucket,
+        region,
+        credentialsOverrider,
+        validator,
+        client,
+        transferManager,
+        transformerSupplier,
+        null);
+  }
+
+  public AwsAsyncBlobStore(
+      String bucket,
+      String region,
+      CredentialsOverrider credentialsOverrider,
+      BlobStoreValidator validator,
+      S3AsyncClient client,
+      S3TransferManager transferManager,
+      AwsTransformerSupplier transformerSupplier,
+      Integer maxBulkLookupConcurrency) {
+    super(
+        AwsConstants.PROVIDER_ID,
+        bucket,
+        region,
+        credentialsOverrider,
+        validator,
+        maxBulkLookupConcurrency);
     this.client = client;
     this.transferManager = transferManager;
     this.transformer = transformerSupplier.get(bucket);
@@ -133,6 +159,12 @@ public class AwsAsyncBlobStore extends AbstractAsyncBlobStore implements AwsSdkS
     return doUpload(uploadRequest, AsyncRequestBody.fromFile(path));
   }
 
+  @Override
+  protected CompletableFuture<UploadResponse> doUpload(
+      UploadRequest uploadRequest, Flow.Publisher<ByteBuffer> publisher) {
+    return doUpload(uploadRequest, transformer.toAsyncRequestBody(uploadRequest, publisher));
+  }
+
   /** Helper function to upload blobs */
   private CompletableFuture<UploadResponse> doUpload(
       UploadRequest uploadRequest, AsyncRequestBody asyncRequestBody) {
@@ -162,7 +194,7 @@ public class AwsAsyncBlobStore extends AbstractAsyncBlobStore implements AwsSdkS
               }
               return transformer.toDownloadResponse(request, response.response());
             });
-    return handleArchivedObjects(request, future);
+    return handleNotModified(request, handleArchivedObjects(request, future));
   }
 
   @Override
@@ -175,7 +207,7 @@ public class AwsAsyncBlobStore extends AbstractAsyncBlobStore implements AwsSdkS
               byteArray.setBytes(responseBytes.asByteArray());
               return transformer.toDownloadResponse(request, responseBytes.response());
             });
-    return handleArchivedObjects(request, future);
+    return handleNotModified(request, handleArchivedObjects(request, future));
   }
 
   @Override
@@ -205,7 +237,7 @@ public class AwsAsyncBlobStore extends AbstractAsyncBlobStore implements AwsSdkS
           .getObject(transformer.toRequest(request), destinationPath)
           .thenApply(response -> transformer.toDownloadResponse(request, response));
     }
-    return handleArchivedObjects(request, future);
+    return handleNotModified(request, handleArchivedObjects(request, future));
   }
 
   /**
@@ -224,7 +256,31 @@ public class AwsAsyncBlobStore extends AbstractAsyncBlobStore implements AwsSdkS
             responseInputStream ->
                 transformer.toDownloadResponse(
                     request, responseInputStream.response(), responseInputStream));
-    return handleArchivedObjects(request, future);
+    return handleNotModified(request, handleArchivedObjects(request, future));
+  }
+
+  /** Turns the 304 of a conditional download into a not-modified response. */
+  private CompletableFuture<DownloadResponse> handleNotModified(
+      DownloadRequest request, CompletableFuture<DownloadResponse> future) {
+    if (!request.isConditional()) {
+      return future;
+    }
+    return future.exceptionally(
+        throwable -> {
+          Throwable cause =
+              throwable instanceof CompletionException ? throwable.getCause() : throwable;
+          if (cause instanceof S3Exception) {
+            DownloadResponse notModified =
+                transformer.toNotModifiedResponse(request, (S3Exception) cause);
+            if (notModified != null) {
+              return notModified;
+            }
+          }
+          if (throwable instanceof CompletionException) {
+            throw (CompletionException) throwable;
+          }
+          throw new CompletionException(throwable);
+        });
   }
 
   private CompletableFuture<DownloadResponse> handleArchivedObjects(
@@ -336,8 +392,12 @@ public class AwsAsyncBlobStore extends AbstractAsyncBlobStore implements AwsSdkS
                       .map(CommonPrefix::prefix)
                       .collect(Collectors.toList());
 
-              return new ListBlobsPageResponse(
-                  blobs, commonPrefixes, response.isTruncated(), response.nextContinuationToken());
+              return request.trimToEndBefore(
+                  new ListBlobsPageResponse(
+                      blobs,
+                      commonPrefixes,
+                      response.isTruncated(),
+                      response.nextContinuationToken()));
             });
   }
 
@@ -354,9 +414,13 @@ public class AwsAsyncBlobStore extends AbstractAsyncBlobStore implements AwsSdkS
       MultipartUpload mpu, MultipartPart mpp) {
 
     UploadPartRequest uploadPartRequest = transformer.toUploadPartRequest(mpu, mpp);
+    // A part held in memory is sent straight from its array; only a stream needs a thread to
+    // drain it.
     AsyncRequestBody asyncRequestBody =
-        AsyncRequestBody.fromInputStream(
-            mpp.getInputStream(), mpp.getContentLength(), Executors.newSingleThreadExecutor());
+        mpp.getContent() != null
+            ? AsyncRequestBody.fromBytesUnsafe(mpp.getContent())
+            : AsyncRequestBody.fromInputStream(
+                mpp.getInputStream(), mpp.getContentLength(), Executors.newSingleThreadExecutor());
 
     return client
         .uploadPart(uploadPartRequest, asyncRequestBody)
@@ -371,7 +435,8 @@ public class AwsAsyncBlobStore extends AbstractAsyncBlobStore implements AwsSdkS
       MultipartUpload mpu, List<UploadPartResponse> parts) {
     return client
         .completeMultipartUpload(transformer.toCompleteMultipartUploadRequest(mpu, parts))
-        .thenApply(response -> new MultipartUploadResponse(response.eTag()));
+        .thenApply(
+            response -> new MultipartUploadResponse(response.eTag(), null, response.versionId()));
   }
 
   @Override
@@ -499,25 +564,6 @@ public class AwsAsyncBlobStore extends AbstractAsyncBlobStore implements AwsSdkS
     return allTransfersSucceeded ? totalBytesRequested.get() : null;
   }
 
-  @Override
-  protected CompletableFuture<Void> doDeleteDirectory(String prefix) {
-    List<CompletableFuture> futures = new ArrayList<>();
-
-    // When listed batches of blobs come in, partition them into groups, then delete them
-    Consumer<ListBlobsBatch> consumer =
-        batch -> {
-          List<List<BlobInfo>> partitionedBlobLists =
-              transformer.partitionList(batch.getBlobs(), MAX_OBJECTS_PER_DELETE);
-          for (List<BlobInfo> blobList : partitionedBlobLists) {
-            futures.add(doDelete(transformer.toBlobIdentifiers(blobList)));
-          }
-        };
-    CompletableFuture<Void> listFuture =
-        doList(ListBlobsRequest.builder().withPrefix(prefix).build(), consumer);
-    futures.add(listFuture);
-    return CompletableFuture.allOf(futures.toArray(new CompletableFuture[0]));
-  }
-
   /**
    * Returns an S3Presigner for the current credentials
    *
@@ -566,11 +612,14 @@ public class AwsAsyncBlobStore extends AbstractAsyncBlobStore implements AwsSdkS
   /** Closes the underlying S3 async client and transfer manager, releasing any resources. */
   @Override
   public void close() {
-    if (transferManager != null) {
-      transferManager.close();
-    }
-    if (client != null) {
-      client.close();
+    try {
+      if (transferManager != null) {
+        transferManager.close();
+      }
+    } finally {
+      if (client != null) {
+        client.close();
+      }
     }
   }
 
@@ -845,7 +894,8 @@ public class AwsAsyncBlobStore extends AbstractAsyncBlobStore implements AwsSdkS
           getValidator(),
           client,
           tm,
-          getTransformerSupplier());
+          getTransformerSupplier(),
+          getMaxBulkLookupConcurrency());
     }
   }
 }
@@ -6,6 +6,7 @@ import static org.junit.jupiter.api.Assertions.assertFalse;
 import static org.junit.jupiter.api.Assertions.assertInstanceOf;
 import static org.junit.jupiter.api.Assertions.assertNotNull;
 import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertSame;
 import static org.junit.jupiter.api.Assertions.assertThrows;
 import static org.junit.jupiter.api.Assertions.assertTrue;
 import static org.mockito.ArgumentMatchers.any;
@@ -14,6 +15,7 @@ import static org.mockito.Mockito.doReturn;
 import static org.mockito.Mockito.doThrow;
 import static org.mockito.Mockito.mock;
 import static org.mockito.Mockito.mockStatic;
+import static org.mockito.Mockito.never;
 import static org.mockito.Mockito.spy;
 import static org.mockito.Mockito.times;
 import static org.mockito.Mockito.verify;
@@ -22,12 +24,18 @@ import static org.mockito.Mockito.when;
 import com.salesforce.multicloudj.blob.driver.BlobIdentifier;
 import com.salesforce.multicloudj.blob.driver.BlobInfo;
 import com.salesforce.multicloudj.blob.driver.BlobMetadata;
+import com.salesforce.multicloudj.blob.driver.BlobPreconditions;
 import com.salesforce.multicloudj.blob.driver.BucketVersioningConfiguration;
 import com.salesforce.multicloudj.blob.driver.BucketVersioningStatus;
 import com.salesforce.multicloudj.blob.driver.ByteArray;
 import com.salesforce.multicloudj.blob.driver.CopyFromRequest;
 import com.salesforce.multicloudj.blob.driver.CopyRequest;
 import com.salesforce.multicloudj.blob.driver.CopyResponse;
+import com.salesforce.multicloudj.blob.driver.DirectoryDeleteRequest;
+import com.salesforce.multicloudj.blob.driver.DirectoryDownloadRequest;
+import com.salesforce.multicloudj.blob.driver.DirectoryDownloadResponse;
+import com.salesforce.multicloudj.blob.driver.DirectoryUploadRequest;
+import com.salesforce.multicloudj.blob.driver.DirectoryUploadResponse;
 import com.salesforce.multicloudj.blob.driver.DownloadRequest;
 import com.salesforce.multicloudj.blob.driver.DownloadResponse;
 import com.salesforce.multicloudj.blob.driver.ListBlobVersionsRequest;
@@ -44,12 +52,14 @@ import com.salesforce.multicloudj.blob.driver.PresignedOperation;
 import com.salesforce.multicloudj.blob.driver.PresignedUrlRequest;
 import com.salesforce.multicloudj.blob.driver.PresignedUrlResponse;
 import com.salesforce.multicloudj.blob.driver.RetentionMode;
+import com.salesforce.multicloudj.blob.driver.SharedClients;
 import com.salesforce.multicloudj.blob.driver.UploadRequest;
 import com.salesforce.multicloudj.blob.driver.UploadResponse;
 import com.salesforce.multicloudj.common.exceptions.ArchiveInfo;
 import com.salesforce.multicloudj.common.exceptions.FailedPreconditionException;
 import com.salesforce.multicloudj.common.exceptions.InvalidArgumentException;
 import com.salesforce.multicloudj.common.exceptions.ResourceNotFoundException;
+import com.salesforce.multicloudj.common.exceptions.SubstrateSdkException;
 import com.salesforce.multicloudj.common.exceptions.UnAuthorizedException;
 import com.salesforce.multicloudj.common.exceptions.UnknownException;
 import com.salesforce.multicloudj.common.retries.RetryConfig;
@@ -57,6 +67,7 @@ import com.salesforce.multicloudj.sts.model.CredentialsOverrider;
 import com.salesforce.multicloudj.sts.model.CredentialsType;
 import com.salesforce.multicloudj.sts.model.StsCredentials;
 import java.io.BufferedWriter;
+import java.io.ByteArrayInputStream;
 import java.io.ByteArrayOutputStream;
 import java.io.IOException;
 import java.io.InputStream;
@@ -64,6 +75,7 @@ import java.io.OutputStream;
 import java.net.MalformedURLException;
 import java.net.URI;
 import java.net.URL;
+import java.nio.channels.Channels;
 import java.nio.charset.StandardCharsets;
 import java.nio.file.Files;
 import java.nio.file.Path;
@@ -75,6 +87,7 @@ import java.util.List;
 import java.util.Map;
 import java.util.NoSuchElementException;
 import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
 import java.util.function.Consumer;
 import java.util.stream.Collectors;
 import java.util.stream.IntStream;
@@ -109,6 +122,7 @@ import software.amazon.awssdk.services.s3.model.CopyObjectResponse;
 import software.amazon.awssdk.services.s3.model.CopyObjectResult;
 import software.amazon.awssdk.services.s3.model.CreateMultipartUploadRequest;
 import software.amazon.awssdk.services.s3.model.CreateMultipartUploadResponse;
+import software.amazon.awssdk.services.s3.model.DeleteMarkerEntry;
 import software.amazon.awssdk.services.s3.model.DeleteObjectRequest;
 import software.amazon.awssdk.services.s3.model.DeleteObjectsRequest;
 import software.amazon.awssdk.services.s3.model.GetBucketVersioningRequest;
@@ -159,6 +173,13 @@ import software.amazon.awssdk.services.s3.presigner.model.GetObjectPresignReques
 import software.amazon.awssdk.services.s3.presigner.model.PresignedGetObjectRequest;
 import software.amazon.awssdk.services.s3.presigner.model.PresignedPutObjectRequest;
 import software.amazon.awssdk.services.s3.presigner.model.PutObjectPresignRequest;
+import software.amazon.awssdk.transfer.s3.S3TransferManager;
+import software.amazon.awssdk.transfer.s3.model.CompletedDirectoryDownload;
+import software.amazon.awssdk.transfer.s3.model.CompletedDirectoryUpload;
+import software.amazon.awssdk.transfer.s3.model.DirectoryDownload;
+import software.amazon.awssdk.transfer.s3.model.DirectoryUpload;
+import software.amazon.awssdk.transfer.s3.model.DownloadDirectoryRequest;
+import software.amazon.awssdk.transfer.s3.model.UploadDirectoryRequest;
 
 public class AwsBlobStoreTest {
 
@@ -355,6 +376,96 @@ public class AwsBlobStoreTest {
     verifyUploadTestResults(aws.doUpload(buildTestUploadRequest(), mock(InputStream.class)));
   }
 
+  private AwsBlobStore storeWithPartSize(long partSize) {
+    return new AwsBlobStore.Builder()
+        .withTransformerSupplier(transformerSupplier)
+        .withBucket("bucket-1")
+        .withRegion("us-east-2")
+        .withPartBufferSize(partSize)
+        .build();
+  }
+
+  @Test
+  void testUploadChannelOfUnknownLengthUsesMultipart() {
+    CreateMultipartUploadResponse created = mock(CreateMultipartUploadResponse.class);
+    doReturn("bucket-1").when(created).bucket();
+    doReturn("object-1").when(created).key();
+    doReturn("mpu-id").when(created).uploadId();
+    when(mockS3Client.createMultipartUpload((CreateMultipartUploadRequest) any()))
+        .thenReturn(created);
+    UploadPartResponse part = mock(UploadPartResponse.class);
+    doReturn("part-etag").when(part).eTag();
+    doReturn(part)
+        .when(mockS3Client)
+        .uploadPart(any(UploadPartRequest.class), any(RequestBody.class));
+    CompleteMultipartUploadResponse completed = mock(CompleteMultipartUploadResponse.class);
+    doReturn("complete-etag").when(completed).eTag();
+    doReturn(completed)
+        .when(mockS3Client)
+        .completeMultipartUpload((CompleteMultipartUploadRequest) any());
+    byte[] content = new byte[2500];
+
+    UploadResponse response =
+        storeWithPartSize(1000)
+            .upload(
+                UploadRequest.builder().withKey("object-1").build(),
+                Channels.newChannel(new ByteArrayInputStream(content)),
+                -1);
+
+    assertEquals("complete-etag", response.getETag());
+    ArgumentCaptor<UploadPartRequest> parts = ArgumentCaptor.forClass(UploadPartRequest.class);
+    verify(mockS3Client, times(3)).uploadPart(parts.capture(), any(RequestBody.class));
+    assertEquals(
+        List.of(1, 2, 3),
+        parts.getAllValues().stream()
+            .map(UploadPartRequest::partNumber)
+            .collect(Collectors.toList()));
+    verify(mockS3Client).completeMultipartUpload((CompleteMultipartUploadRequest) any());
+    verify(mockS3Client, never()).putObject((PutObjectRequest) any(), (RequestBody) any());
+  }
+
+  @Test
+  void testUploadShortChannelOfUnknownLengthUsesOneRequest() {
+    doReturn(buildMockPutObjectResponse())
+        .when(mockS3Client)
+        .putObject((PutObjectRequest) any(), (RequestBody) any());
+
+    storeWithPartSize(1000)
+        .upload(
+            UploadRequest.builder().withKey("object-1").build(),
+            Channels.newChannel(new ByteArrayInputStream(new byte[999])),
+            -1);
+
+    verify(mockS3Client).putObject((PutObjectRequest) any(), (RequestBody) any());
+    verify(mockS3Client, never()).createMultipartUpload((CreateMultipartUploadRequest) any());
+  }
+
+  @Test
+  void testUploadChannelOfUnknownLengthAbortsOnFailedPart() {
+    CreateMultipartUploadResponse created = mock(CreateMultipartUploadResponse.class);
+    doReturn("bucket-1").when(created).bucket();
+    doReturn("object-1").when(created).key();
+    doReturn("mpu-id").when(created).uploadId();
+    when(mockS3Client.createMultipartUpload((CreateMultipartUploadRequest) any()))
+        .thenReturn(created);
+    doThrow(S3Exception.builder().message("part failed").build())
+        .when(mockS3Client)
+        .uploadPart(any(UploadPartRequest.class), any(RequestBody.class));
+    AwsBlobStore store = storeWithPartSize(1000);
+
+    assertThrows(
+        S3Exception.class,
+        () ->
+            store.upload(
+                UploadRequest.builder().withKey("object-1").build(),
+                Channels.newChannel(new ByteArrayInputStream(new byte[2500])),
+                -1));
+
+    verify(mockS3Client).abortMultipartUpload((AbortMultipartUploadRequest) any());
+    verify(mockS3Client, never())
+        .completeMultipartUpload((CompleteMultipartUploadRequest) any());
+  }
+
   @Test
   void testDoUploadInputStreamWithoutContentLength() throws java.io.IOException {
     // contentLength is optional on UploadRequest; when omitted, the request body handed to the
@@ -946,6 +1057,29 @@ public class AwsBlobStoreTest {
     assertNull(response.getNextPageToken());
   }
 
+  @Test
+  void testDoListPageTrimsToEndBefore() {
+    ListBlobsPageRequest request =
+        ListBlobsPageRequest.builder().withStartAfter("a").withEndBefore("c").build();
+    ListObjectsV2Response mockResponse = mock(ListObjectsV2Response.class);
+    when(mockS3Client.listObjectsV2((ListObjectsV2Request) any())).thenReturn(mockResponse);
+    when(mockResponse.contents())
+        .thenReturn(
+            List.of(
+                S3Object.builder().key("b").size(1L).build(),
+                S3Object.builder().key("c").size(1L).build()));
+    when(mockResponse.commonPrefixes()).thenReturn(List.of());
+    when(mockResponse.isTruncated()).thenReturn(true);
+    when(mockResponse.nextContinuationToken()).thenReturn("next");
+
+    ListBlobsPageResponse response = aws.listPage(request);
+
+    assertEquals(1, response.getBlobs().size());
+    assertEquals("b", response.getBlobs().get(0).getKey());
+    assertFalse(response.isTruncated());
+    assertNull(response.getNextPageToken());
+  }
+
   @Test
   void testDoListPage_WithCommonPrefixes() {
     ListBlobsPageRequest request =
@@ -2075,6 +2209,38 @@ public class AwsBlobStoreTest {
     assertEquals(404, thrown.statusCode());
   }
 
+  @Test
+  void testDownload_notModifiedReturnsResponse() {
+    DownloadRequest request = new DownloadRequest.Builder()
+        .withKey("cached-key")
+        .withPreconditions(BlobPreconditions.builder().withIfNoneMatch("\"etag\"").build())
+        .build();
+    S3Exception notModified = (S3Exception) S3Exception.builder()
+        .statusCode(304)
+        .awsErrorDetails(AwsErrorDetails.builder()
+            .sdkHttpResponse(SdkHttpResponse.builder()
+                .statusCode(304)
+                .putHeader("ETag", "\"etag\"")
+                .build())
+            .build())
+        .build();
+    when(mockS3Client.getObject(
+        any(GetObjectRequest.class),
+        ArgumentMatchers.<ResponseTransformer<GetObjectResponse, ?>>any()))
+        .thenThrow(notModified);
+
+    ByteArrayOutputStream out = new ByteArrayOutputStream();
+    DownloadResponse response = aws.doDownload(request, out);
+
+    assertTrue(response.isNotModified());
+    assertEquals("\"etag\"", response.getMetadata().getETag());
+    assertEquals(0, out.size());
+    ArgumentCaptor<GetObjectRequest> captor = ArgumentCaptor.forClass(GetObjectRequest.class);
+    verify(mockS3Client).getObject(
+        captor.capture(), ArgumentMatchers.<ResponseTransformer<GetObjectResponse, ?>>any());
+    assertEquals("\"etag\"", captor.getValue().ifNoneMatch());
+  }
+
   private S3Exception mockS3ExceptionWithDeleteMarkerHeader(boolean includeHeader) {
     SdkHttpResponse sdkHttpResponse = mock(SdkHttpResponse.class);
     if (includeHeader) {
@@ -2103,6 +2269,140 @@ public class AwsBlobStoreTest {
     verify(mockS3Client, times(1)).close();
   }
 
+  @Test
+  void testStoresOnSharedClientsShareOneS3Client() {
+    SharedClients shared = new SharedClients();
+    AwsBlobStore first = sharedStore(shared, "tenant-1", "us-east-2");
+    AwsBlobStore second = sharedStore(shared, "tenant-2", "us-east-2");
+    AwsBlobStore otherRegion = sharedStore(shared, "tenant-3", "eu-west-1");
+
+    assertEquals(2, shared.size());
+    assertEquals("tenant-2", second.getBucket());
+
+    first.close();
+    verify(mockS3Client, never()).close();
+    second.close();
+    verify(mockS3Client, times(1)).close();
+    otherRegion.close();
+    verify(mockS3Client, times(2)).close();
+    assertEquals(0, shared.size());
+  }
+
+  private AwsBlobStore sharedStore(SharedClients shared, String bucket, String region) {
+    AwsBlobStore.Builder builder = new AwsBlobStore.Builder();
+    builder.withTransformerSupplier(transformerSupplier);
+    builder.withSharedClients(shared);
+    builder.withBucket(bucket);
+    builder.withRegion(region);
+    return builder.build();
+  }
+
+  @Test
+  void testDirectoryTransfersShareOneLazilyBuiltTransferManager() {
+    S3TransferManager transferManager = mock(S3TransferManager.class);
+    DirectoryUpload upload = mock(DirectoryUpload.class);
+    CompletedDirectoryUpload completedUpload = mock(CompletedDirectoryUpload.class);
+    doReturn(upload).when(transferManager).uploadDirectory(any(UploadDirectoryRequest.class));
+    doReturn(CompletableFuture.completedFuture(completedUpload)).when(upload).completionFuture();
+    doReturn(List.of()).when(completedUpload).failedTransfers();
+    DirectoryDownload download = mock(DirectoryDownload.class);
+    CompletedDirectoryDownload completedDownload = mock(CompletedDirectoryDownload.class);
+    doReturn(download).when(transferManager).downloadDirectory(any(DownloadDirectoryRequest.class));
+    doReturn(CompletableFuture.completedFuture(completedDownload))
+        .when(download)
+        .completionFuture();
+    doReturn(List.of()).when(completedDownload).failedTransfers();
+    AwsBlobStore store = directoryStore(transferManager);
+
+    DirectoryUploadResponse uploaded =
+        store.uploadDirectory(
+            DirectoryUploadRequest.builder()
+                .localSourceDirectory("/tmp/test-upload-dir")
+                .prefix("files/")
+                .includeSubFolders(true)
+                .build());
+    DirectoryDownloadResponse downloaded =
+        store.downloadDirectory(
+            DirectoryDownloadRequest.builder()
+                .prefixToDownload("files/")
+                .localDestinationDirectory("/tmp/test-download-dir")
+                .build());
+
+    assertTrue(uploaded.getFailedTransfers().isEmpty());
+    assertTrue(downloaded.getFailedTransfers().isEmpty());
+    ArgumentCaptor<UploadDirectoryRequest> request =
+        ArgumentCaptor.forClass(UploadDirectoryRequest.class);
+    verify(transferManager).uploadDirectory(request.capture());
+    assertEquals("bucket-1", request.getValue().bucket());
+    assertEquals("files/", request.getValue().s3Prefix().orElse(null));
+    verify(transferManager).downloadDirectory(any(DownloadDirectoryRequest.class));
+
+    store.close();
+    verify(transferManager).close();
+    assertThrows(
+        FailedPreconditionException.class,
+        () ->
+            store.uploadDirectory(
+                DirectoryUploadRequest.builder()
+                    .localSourceDirectory("/tmp/test-upload-dir")
+                    .prefix("files/")
+                    .build()));
+  }
+
+  @Test
+  void testDirectoryTransferFailureIsRethrown() {
+    S3TransferManager transferManager = mock(S3TransferManager.class);
+    DirectoryUpload upload = mock(DirectoryUpload.class);
+    S3Exception denied = (S3Exception) S3Exception.builder().statusCode(403).build();
+    doReturn(upload).when(transferManager).uploadDirectory(any(UploadDirectoryRequest.class));
+    doReturn(CompletableFuture.failedFuture(denied)).when(upload).completionFuture();
+    AwsBlobStore store = directoryStore(transferManager);
+
+    S3Exception thrown =
+        assertThrows(
+            S3Exception.class,
+            () ->
+                store.uploadDirectory(
+                    DirectoryUploadRequest.builder()
+                        .localSourceDirectory("/tmp/test-upload-dir")
+                        .prefix("files/")
+                        .build()));
+    assertSame(denied, thrown);
+  }
+
+  @Test
+  void testCloseReleasesS3ClientWhenTransferManagerFailsToClose() {
+    S3TransferManager transferManager = mock(S3TransferManager.class);
+    DirectoryUpload upload = mock(DirectoryUpload.class);
+    CompletedDirectoryUpload completedUpload = mock(CompletedDirectoryUpload.class);
+    doReturn(upload).when(transferManager).uploadDirectory(any(UploadDirectoryRequest.class));
+    doReturn(CompletableFuture.completedFuture(completedUpload)).when(upload).completionFuture();
+    doReturn(List.of()).when(completedUpload).failedTransfers();
+    doThrow(new IllegalStateException("stuck")).when(transferManager).close();
+    AwsBlobStore store = directoryStore(transferManager);
+    store.uploadDirectory(
+        DirectoryUploadRequest.builder()
+            .localSourceDirectory("/tmp/test-upload-dir")
+            .prefix("files/")
+            .build());
+
+    assertThrows(SubstrateSdkException.class, store::close);
+    verify(mockS3Client, times(1)).close();
+  }
+
+  private AwsBlobStore directoryStore(S3TransferManager transferManager) {
+    AwsBlobStore.Builder builder = new AwsBlobStore.Builder();
+    builder.withTransformerSupplier(transformerSupplier);
+    builder.withTransferManager(transferManager);
+    builder.withBucket("bucket-1");
+    builder.withRegion("us-east-2");
+    builder.withCredentialsOverrider(
+        new CredentialsOverrider.Builder(CredentialsType.SESSION)
+            .withSessionCredentials(new StsCredentials("key-1", "secret-1", "token-1"))
+            .build());
+    return builder.build();
+  }
+
   // ---- New overload: updateObjectRetention(String, String, ObjectRetentionConfig) ----
 
   private GetObjectRetentionResponse currentRetention(
@@ -2415,6 +2715,47 @@ public class AwsBlobStoreTest {
     assertThrows(NoSuchElementException.class, versions::next);
   }
 
+  @Test
+  void testDeleteDirectoryWithVersionsDeletesEveryVersionAndDeleteMarker() {
+    ListObjectVersionsResponse page1 =
+        ListObjectVersionsResponse.builder()
+            .versions(
+                objectVersion("dir/a", "a2", true), objectVersion("dir/a", "a1", false))
+            .build();
+    // dir/b's latest version is a delete marker, so a listing of live keys never returns it.
+    ListObjectVersionsResponse page2 =
+        ListObjectVersionsResponse.builder()
+            .versions(objectVersion("dir/b", "b1", false))
+            .deleteMarkers(
+                DeleteMarkerEntry.builder().key("dir/b").versionId("b2").isLatest(true).build())
+            .build();
+    ListObjectVersionsIterable iterable = mock(ListObjectVersionsIterable.class);
+    when(iterable.iterator()).thenReturn(List.of(page1, page2).iterator());
+    when(mockS3Client.listObjectVersionsPaginator(any(ListObjectVersionsRequest.class)))
+        .thenReturn(iterable);
+
+    aws.deleteDirectory(
+        DirectoryDeleteRequest.builder().prefix("dir/").includeVersions(true).build());
+
+    ArgumentCaptor<ListObjectVersionsRequest> listCaptor =
+        ArgumentCaptor.forClass(ListObjectVersionsRequest.class);
+    verify(mockS3Client).listObjectVersionsPaginator(listCaptor.capture());
+    assertEquals("dir/", listCaptor.getValue().prefix());
+    verify(mockS3Client, never()).listObjectsV2(any(ListObjectsV2Request.class));
+    ArgumentCaptor<DeleteObjectsRequest> deleteCaptor =
+        ArgumentCaptor.forClass(DeleteObjectsRequest.class);
+    verify(mockS3Client).deleteObjects(deleteCaptor.capture());
+    assertEquals(
+        List.of("dir/a@a2", "dir/a@a1", "dir/b@b1", "dir/b@b2"),
+        deleteCaptor.getValue().delete().objects().stream()
+            .map(object -> object.key() + "@" + object.versionId())
+            .collect(Collectors.toList()));
+  }
+
+  private static ObjectVersion objectVersion(String key, String versionId, boolean latest) {
+    return ObjectVersion.builder().key(key).versionId(versionId).size(1L).isLatest(latest).build();
+  }
+
   @Test
   void testGetBucketVersioning_enabled() {
     when(mockS3Client.getBucketVersioning(any(GetBucketVersioningRequest.class)))
@@ -12,6 +12,7 @@ import static org.mockito.Mockito.mock;
 
 import com.salesforce.multicloudj.blob.driver.BlobIdentifier;
 import com.salesforce.multicloudj.blob.driver.BlobInfo;
+import com.salesforce.multicloudj.blob.driver.BlobPreconditions;
 import com.salesforce.multicloudj.blob.driver.BucketVersioningConfiguration;
 import com.salesforce.multicloudj.blob.driver.BucketVersioningStatus;
 import com.salesforce.multicloudj.blob.driver.Checksum;
@@ -39,6 +40,7 @@ import com.salesforce.multicloudj.common.observability.OperationContext;
 import com.salesforce.multicloudj.common.retries.RetryConfig;
 import java.io.ByteArrayInputStream;
 import java.io.InputStream;
+import java.nio.ByteBuffer;
 import java.nio.file.Path;
 import java.nio.file.Paths;
 import java.time.Duration;
@@ -48,11 +50,15 @@ import java.util.Arrays;
 import java.util.List;
 import java.util.Map;
 import java.util.Optional;
+import java.util.concurrent.Flow;
+import java.util.concurrent.SubmissionPublisher;
 import java.util.concurrent.atomic.AtomicLong;
 import java.util.stream.Collectors;
 import org.junit.jupiter.api.Test;
+import software.amazon.awssdk.awscore.exception.AwsErrorDetails;
 import software.amazon.awssdk.core.async.AsyncRequestBody;
 import software.amazon.awssdk.core.sync.RequestBody;
+import software.amazon.awssdk.http.SdkHttpResponse;
 import software.amazon.awssdk.retries.api.RetryStrategy;
 import software.amazon.awssdk.services.s3.model.AbortMultipartUploadRequest;
 import software.amazon.awssdk.services.s3.model.ChecksumAlgorithm;
@@ -83,6 +89,7 @@ import software.amazon.awssdk.services.s3.model.ObjectLockRetentionMode;
 import software.amazon.awssdk.services.s3.model.PutObjectRequest;
 import software.amazon.awssdk.services.s3.model.PutObjectResponse;
 import software.amazon.awssdk.services.s3.model.PutObjectTaggingRequest;
+import software.amazon.awssdk.services.s3.model.S3Exception;
 import software.amazon.awssdk.services.s3.model.S3Object;
 import software.amazon.awssdk.services.s3.model.StorageClass;
 import software.amazon.awssdk.services.s3.model.Tag;
@@ -481,6 +488,19 @@ public class AwsTransformerTest {
     assertEquals(request.getPrefix(), actual.prefix());
     assertEquals(request.getPaginationToken(), actual.continuationToken());
     assertEquals(request.getMaxResults(), actual.maxKeys());
+    assertNull(actual.startAfter());
+  }
+
+  @Test
+  void testToListObjectsV2PageRequestWithKeyRange() {
+    ListBlobsPageRequest request =
+        ListBlobsPageRequest.builder()
+            .withStartAfter("logs/0100")
+            .withEndBefore("logs/0200")
+            .build();
+
+    ListObjectsV2Request actual = transformer.toRequest(request);
+    assertEquals("logs/0100", actual.startAfter());
   }
 
   @Test
@@ -509,6 +529,34 @@ public class AwsTransformerTest {
     assertFalse(asyncRequestBody.contentLength().isPresent());
   }
 
+  @Test
+  void testToAsyncRequestBodyPublisher() {
+    UploadRequest sized = UploadRequest.builder().withKey("key").withContentLength(17).build();
+    UploadRequest unsized = UploadRequest.builder().withKey("key").build();
+    Flow.Publisher<ByteBuffer> publisher = new SubmissionPublisher<>();
+
+    assertEquals(17L, transformer.toAsyncRequestBody(sized, publisher).contentLength().get());
+    assertFalse(transformer.toAsyncRequestBody(unsized, publisher).contentLength().isPresent());
+  }
+
+  @Test
+  void testToRequestBodyByteBufferReadsInPlace() throws Exception {
+    byte[] content = "This is test data".getBytes();
+    ByteBuffer buffer = ByteBuffer.allocateDirect(content.length);
+    buffer.put(content).flip();
+
+    RequestBody requestBody = transformer.toRequestBody(buffer);
+
+    assertEquals(content.length, requestBody.optionalContentLength().get());
+    // Each stream re-reads the buffer so the SDK can retry.
+    for (int i = 0; i < 2; i++) {
+      try (InputStream streamed = requestBody.contentStreamProvider().newStream()) {
+        assertArrayEquals(content, streamed.readAllBytes());
+      }
+    }
+    assertEquals(0, buffer.position());
+  }
+
   @Test
   void testToRequestBodyInputStreamWithContentLength() throws Exception {
     byte[] content = "This is test data".getBytes();
@@ -573,6 +621,69 @@ public class AwsTransformerTest {
     assertEquals(request.getEnd(), 500);
   }
 
+  @Test
+  void testToGetObjectRequestWithPreconditions() {
+    Instant since = Instant.parse("2026-01-01T00:00:00Z");
+    var request =
+        DownloadRequest.builder()
+            .withKey("some/key")
+            .withPreconditions(
+                BlobPreconditions.builder()
+                    .withIfNoneMatch("\"etag\"")
+                    .withIfModifiedSince(since)
+                    .build())
+            .build();
+    var actual = transformer.toRequest(request);
+    assertEquals("\"etag\"", actual.ifNoneMatch());
+    assertEquals(since, actual.ifModifiedSince());
+    assertNull(transformer.toRequest(DownloadRequest.builder().withKey("k").build()).ifNoneMatch());
+
+    var pinned =
+        DownloadRequest.builder()
+            .withKey("some/key")
+            .withRange(0L, 99L)
+            .withPreconditions(BlobPreconditions.builder().withIfMatch("\"etag\"").build())
+            .build();
+    assertEquals("\"etag\"", transformer.toRequest(pinned).ifMatch());
+  }
+
+  @Test
+  void testToNotModifiedResponse() {
+    var request =
+        DownloadRequest.builder()
+            .withKey("some/key")
+            .withPreconditions(BlobPreconditions.builder().withIfNoneMatch("\"etag\"").build())
+            .build();
+    S3Exception notModified =
+        (S3Exception)
+            S3Exception.builder()
+                .statusCode(304)
+                .awsErrorDetails(
+                    AwsErrorDetails.builder()
+                        .sdkHttpResponse(
+                            SdkHttpResponse.builder()
+                                .statusCode(304)
+                                .putHeader("ETag", "\"etag\"")
+                                .putHeader("Last-Modified", "Thu, 01 Jan 2026 00:00:00 GMT")
+                                .build())
+                        .build())
+                .build();
+
+    DownloadResponse response = transformer.toNotModifiedResponse(request, notModified);
+
+    assertTrue(response.isNotModified());
+    assertNull(response.getInputStream());
+    assertEquals("some/key", response.getKey());
+    assertEquals("\"etag\"", response.getMetadata().getETag());
+    assertEquals(Instant.parse("2026-01-01T00:00:00Z"), response.getMetadata().getLastModified());
+
+    S3Exception notFound = (S3Exception) S3Exception.builder().statusCode(404).build();
+    assertNull(transformer.toNotModifiedResponse(request, notFound));
+    assertNull(
+        transformer.toNotModifiedResponse(
+            DownloadRequest.builder().withKey("some/key").build(), notModified));
+  }
+
   @Test
   void testCreateRangeString() {
     assertEquals("bytes=0-500", transformer.createRangeString(0L, 500L));
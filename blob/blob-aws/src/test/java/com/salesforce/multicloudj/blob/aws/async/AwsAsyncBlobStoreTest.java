@@ -1861,31 +1861,28 @@ public class AwsAsyncBlobStoreTest {
   @Test
   void doDeleteDirectory() throws ExecutionException, InterruptedException {
 
-    // Arrange it so calling doList() returns these blobs via the async publisher
-    ListObjectsV2Publisher publisher = mock(ListObjectsV2Publisher.class);
+    // Arrange it so listing the prefix returns these blobs over two pages
     S3Object object1 = S3Object.builder().key("file1.txt").size(123L).build();
     S3Object object2 = S3Object.builder().key("file2.txt").size(456L).build();
     S3Object object3 = S3Object.builder().key("file3.txt").size(789L).build();
-    doAnswer(
-            invocation -> {
-              Consumer consumer = invocation.getArgument(0);
-              consumer.accept(ListObjectsV2Response.builder().contents(object1, object2).build());
-              consumer.accept(ListObjectsV2Response.builder().contents(object3).build());
-              return futureVoid();
-            })
-        .when(publisher)
-        .subscribe(any(Consumer.class));
+    when(mockS3Client.listObjectsV2(any(ListObjectsV2Request.class)))
+        .thenReturn(
+            future(
+                ListObjectsV2Response.builder()
+                    .contents(object1, object2)
+                    .isTruncated(true)
+                    .nextContinuationToken("token")
+                    .build()))
+        .thenReturn(
+            future(ListObjectsV2Response.builder().contents(object3).isTruncated(false).build()));
     DeleteObjectsResponse response = mock(DeleteObjectsResponse.class);
     when(mockS3Client.deleteObjects(any(DeleteObjectsRequest.class))).thenReturn(future(response));
-    when(mockS3Client.listObjectsV2Paginator(any(ListObjectsV2Request.class)))
-        .thenReturn(publisher);
 
     // Perform the request
-    aws.doDeleteDirectory("files").get();
+    aws.deleteDirectory("files").get();
 
-    // Verify the wiring
-    verify(mockS3Client).listObjectsV2Paginator(any(ListObjectsV2Request.class));
-    verify(publisher).subscribe(any(ConsumerWrapper.class));
+    // Verify the wiring: one delete per listed page
+    verify(mockS3Client, times(2)).listObjectsV2(any(ListObjectsV2Request.class));
     ArgumentCaptor<DeleteObjectsRequest> requestCaptor =
         ArgumentCaptor.forClass(DeleteObjectsRequest.class);
     verify(mockS3Client, times(2)).deleteObjects(requestCaptor.capture());
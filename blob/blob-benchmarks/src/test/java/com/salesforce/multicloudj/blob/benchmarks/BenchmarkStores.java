@@ -0,0 +1,77 @@
+package com.salesforce.multicloudj.blob.benchmarks;
+
+import com.salesforce.multicloudj.blob.aws.AwsBlobStore;
+import com.salesforce.multicloudj.blob.client.BucketClient;
+import com.salesforce.multicloudj.blob.driver.AbstractBlobStore;
+import com.salesforce.multicloudj.blob.inmemory.InMemoryBlobStore;
+import com.salesforce.multicloudj.common.observability.TracingPolicy;
+import java.util.Random;
+import software.amazon.awssdk.auth.credentials.AwsBasicCredentials;
+import software.amazon.awssdk.auth.credentials.StaticCredentialsProvider;
+import software.amazon.awssdk.core.checksums.RequestChecksumCalculation;
+import software.amazon.awssdk.core.checksums.ResponseChecksumValidation;
+import software.amazon.awssdk.http.apache.ApacheHttpClient;
+import software.amazon.awssdk.regions.Region;
+import software.amazon.awssdk.services.s3.S3Client;
+import software.amazon.awssdk.services.s3.S3Configuration;
+
+/** Factories for the stores and clients shared by the offline benchmarks. */
+final class BenchmarkStores {
+
+  static final String REGION = "us-west-2";
+
+  private BenchmarkStores() {}
+
+  /** Creates the in-memory bucket if needed and returns a store bound to it. */
+  static InMemoryBlobStore inMemory(String bucket) {
+    InMemoryBlobStore.createBucket(bucket);
+    return new InMemoryBlobStore.Builder().withBucket(bucket).withRegion(REGION).build();
+  }
+
+  /**
+   * Returns an {@link AwsBlobStore} talking to {@code stub} over loopback HTTP. Request checksums
+   * and chunked encoding are disabled so the SDK sends plain bodies the stub can store as is.
+   */
+  static AwsBlobStore aws(S3ProtocolStub stub, String bucket) {
+    S3Client s3Client =
+        S3Client.builder()
+            .region(Region.of(REGION))
+            .httpClient(ApacheHttpClient.builder().build())
+            .credentialsProvider(
+                StaticCredentialsProvider.create(AwsBasicCredentials.create("bench", "bench")))
+            .endpointOverride(stub.getEndpoint())
+            .requestChecksumCalculation(RequestChecksumCalculation.WHEN_REQUIRED)
+            .responseChecksumValidation(ResponseChecksumValidation.WHEN_REQUIRED)
+            .serviceConfiguration(
+                S3Configuration.builder()
+                    .pathStyleAccessEnabled(true)
+                    .chunkedEncodingEnabled(false)
+                    .build())
+            .build();
+    return new AwsBlobStore.Builder()
+        .withS3Client(s3Client)
+        .withEndpoint(stub.getEndpoint())
+        .withBucket(bucket)
+        .withRegion(REGION)
+        .build();
+  }
+
+  /** Wraps {@code store} in a {@link BucketClient} with the given tracing policy. */
+  static BucketClient client(AbstractBlobStore store, TracingPolicy tracingPolicy) {
+    return new BenchmarkBucketClient(store, tracingPolicy);
+  }
+
+  /** Deterministic pseudo-random content so runs are comparable. */
+  static byte[] content(int size) {
+    byte[] bytes = new byte[size];
+    new Random(42).nextBytes(bytes);
+    return bytes;
+  }
+
+  /** Exposes the protected constructor so benchmarks can wrap a pre-built store. */
+  private static final class BenchmarkBucketClient extends BucketClient {
+    private BenchmarkBucketClient(AbstractBlobStore store, TracingPolicy tracingPolicy) {
+      super(store, tracingPolicy);
+    }
+  }
+}
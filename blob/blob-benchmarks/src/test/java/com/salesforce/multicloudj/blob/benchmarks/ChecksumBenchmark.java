@@ -0,0 +1,102 @@
+package com.salesforce.multicloudj.blob.benchmarks;
+
+import com.salesforce.multicloudj.common.checksum.Crc32c;
+import com.salesforce.multicloudj.common.checksum.Crc64;
+import com.salesforce.multicloudj.common.checksum.Md5;
+import java.nio.ByteBuffer;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Checksums of the shared {@code common.checksum} module over heap and direct buffers.
+ *
+ * <p>{@code crc64Bytewise} is a byte-at-a-time table CRC, as the in-memory store computed before,
+ * and is the baseline the slicing-by-8 {@code crc64} is measured against. {@code crc64Combine}
+ * merges the checksums of two 1 GiB parts, as a multipart upload would for its whole object.
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@State(Scope.Benchmark)
+@Warmup(iterations = 3, time = 1, timeUnit = TimeUnit.SECONDS)
+@Measurement(iterations = 5, time = 1, timeUnit = TimeUnit.SECONDS)
+@Fork(1)
+public class ChecksumBenchmark {
+
+  private static final long[] BYTEWISE_TABLE = new long[256];
+
+  static {
+    long polynomial = Crc64.Variant.NVME.getPolynomial();
+    for (int n = 0; n < 256; n++) {
+      long crc = n;
+      for (int k = 0; k < 8; k++) {
+        crc = (crc & 1) != 0 ? (crc >>> 1) ^ polynomial : crc >>> 1;
+      }
+      BYTEWISE_TABLE[n] = crc;
+    }
+  }
+
+  @Param({"4096", "1048576"})
+  public int size;
+
+  @Param({"heap", "direct"})
+  public String buffer;
+
+  private byte[] content;
+  private ByteBuffer data;
+  private long part1;
+  private long part2;
+
+  @Setup
+  public void setup() {
+    content = BenchmarkStores.content(size);
+    data = "direct".equals(buffer) ? ByteBuffer.allocateDirect(size) : ByteBuffer.allocate(size);
+    data.put(content).flip();
+    part1 = Crc64.compute(Crc64.Variant.NVME, content);
+    part2 = Crc64.compute(Crc64.Variant.NVME, content);
+  }
+
+  @Benchmark
+  public long crc64Bytewise() {
+    long crc = -1L;
+    for (byte b : content) {
+      crc = BYTEWISE_TABLE[(int) (crc ^ b) & 0xFF] ^ (crc >>> 8);
+    }
+    return ~crc;
+  }
+
+  @Benchmark
+  public long crc64() {
+    Crc64 crc = Crc64.nvme();
+    crc.update(data.duplicate());
+    return crc.getValue();
+  }
+
+  @Benchmark
+  public long crc32c() {
+    Crc32c crc = new Crc32c();
+    crc.update(data.duplicate());
+    return crc.getValue();
+  }
+
+  @Benchmark
+  public byte[] md5() {
+    Md5 md5 = new Md5();
+    md5.update(data.duplicate());
+    return md5.digest();
+  }
+
+  @Benchmark
+  public long crc64Combine() {
+    return Crc64.combine(Crc64.Variant.NVME, part1, part2, 1L << 30);
+  }
+}
@@ -0,0 +1,104 @@
+package com.salesforce.multicloudj.blob.benchmarks;
+
+import com.salesforce.multicloudj.blob.async.driver.BlobStoreAsyncBridge;
+import com.salesforce.multicloudj.blob.client.BucketClient;
+import com.salesforce.multicloudj.blob.driver.BlobMetadata;
+import com.salesforce.multicloudj.blob.driver.UploadRequest;
+import com.salesforce.multicloudj.blob.driver.UploadResponse;
+import com.salesforce.multicloudj.blob.inmemory.InMemoryBlobStore;
+import com.salesforce.multicloudj.common.observability.TracingPolicy;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Cost the client layers add on top of a provider store.
+ *
+ * <p>The same small operations are issued directly against an {@link InMemoryBlobStore}, through
+ * a {@link BucketClient} (exception mapping plus {@code MultiCloudJLogger} tracing and MDC
+ * handling) and through a {@link BlobStoreAsyncBridge}, so the differences between the {@code
+ * store*}, {@code client*} and {@code bridge*} scores are the per-call overhead of each layer. No
+ * OpenTelemetry SDK is installed, so {@code CHILD_AND_ROOT} measures span bookkeeping against the
+ * no-op tracer.
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@State(Scope.Benchmark)
+@Warmup(iterations = 3, time = 1, timeUnit = TimeUnit.SECONDS)
+@Measurement(iterations = 5, time = 1, timeUnit = TimeUnit.SECONDS)
+@Fork(1)
+public class ClientOverheadBenchmark {
+
+  private static final String BUCKET = "bench-client-overhead";
+  private static final String KEY = "overhead/object";
+
+  @Param({"DISABLED", "CHILD_AND_ROOT"})
+  public TracingPolicy tracingPolicy;
+
+  private InMemoryBlobStore store;
+  private BucketClient client;
+  private ExecutorService executor;
+  private BlobStoreAsyncBridge bridge;
+  private UploadRequest uploadRequest;
+  private byte[] content;
+
+  @Setup
+  public void setup() {
+    store = BenchmarkStores.inMemory(BUCKET);
+    client = BenchmarkStores.client(store, tracingPolicy);
+    executor = Executors.newSingleThreadExecutor();
+    bridge = new BlobStoreAsyncBridge(store, executor);
+    content = BenchmarkStores.content(1024);
+    uploadRequest =
+        UploadRequest.builder().withKey(KEY).withContentLength(content.length).build();
+    store.upload(uploadRequest, content);
+  }
+
+  @TearDown
+  public void tearDown() {
+    executor.shutdownNow();
+    InMemoryBlobStore.clearStorage();
+  }
+
+  @Benchmark
+  public BlobMetadata storeGetMetadata() {
+    return store.getMetadata(KEY, null);
+  }
+
+  @Benchmark
+  public BlobMetadata clientGetMetadata() {
+    return client.getMetadata(KEY, null);
+  }
+
+  @Benchmark
+  public BlobMetadata bridgeGetMetadata() {
+    return bridge.getMetadata(KEY, null).join();
+  }
+
+  @Benchmark
+  public UploadResponse storeUpload() {
+    return store.upload(uploadRequest, content);
+  }
+
+  @Benchmark
+  public UploadResponse clientUpload() {
+    return client.upload(uploadRequest, content);
+  }
+
+  @Benchmark
+  public UploadResponse bridgeUpload() {
+    return bridge.upload(uploadRequest, content).join();
+  }
+}
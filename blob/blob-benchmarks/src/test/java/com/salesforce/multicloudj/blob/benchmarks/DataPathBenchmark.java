@@ -0,0 +1,113 @@
+package com.salesforce.multicloudj.blob.benchmarks;
+
+import com.salesforce.multicloudj.blob.driver.AbstractBlobStore;
+import com.salesforce.multicloudj.blob.driver.ByteArray;
+import com.salesforce.multicloudj.blob.driver.DownloadRequest;
+import com.salesforce.multicloudj.blob.driver.DownloadResponse;
+import com.salesforce.multicloudj.blob.driver.ListBlobsPageRequest;
+import com.salesforce.multicloudj.blob.driver.ListBlobsPageResponse;
+import com.salesforce.multicloudj.blob.driver.UploadRequest;
+import com.salesforce.multicloudj.blob.driver.UploadResponse;
+import com.salesforce.multicloudj.blob.inmemory.InMemoryBlobStore;
+import java.io.IOException;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Upload, download and list through a provider store, either the {@link InMemoryBlobStore} or
+ * the AWS store talking to an in-process {@link S3ProtocolStub} over loopback HTTP.
+ *
+ * <p>The {@code s3-stub} scores include the AWS SDK's marshalling, signing and HTTP client work
+ * as well as the stub's own request handling, since both run in the measured JVM; they track
+ * client-side regressions, not network performance. Uploads overwrite a fixed key so the stores
+ * do not grow during a run.
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@State(Scope.Benchmark)
+@Warmup(iterations = 3, time = 1, timeUnit = TimeUnit.SECONDS)
+@Measurement(iterations = 5, time = 1, timeUnit = TimeUnit.SECONDS)
+@Fork(1)
+public class DataPathBenchmark {
+
+  private static final String BUCKET = "bench-data-path";
+  private static final String LIST_PREFIX = "listing/";
+  private static final int LISTED_OBJECTS = 250;
+  private static final int LIST_PAGE_SIZE = 100;
+
+  @Param({"in-memory", "s3-stub"})
+  public String backend;
+
+  @Param({"1024", "1048576"})
+  public int objectSize;
+
+  private S3ProtocolStub stub;
+  private AbstractBlobStore store;
+  private byte[] content;
+  private UploadRequest uploadRequest;
+  private DownloadRequest downloadRequest;
+  private ListBlobsPageRequest listRequest;
+
+  @Setup
+  public void setup() throws IOException {
+    content = BenchmarkStores.content(objectSize);
+    if ("s3-stub".equals(backend)) {
+      stub = S3ProtocolStub.start(BUCKET);
+      store = BenchmarkStores.aws(stub, BUCKET);
+    } else {
+      store = BenchmarkStores.inMemory(BUCKET);
+    }
+    uploadRequest =
+        UploadRequest.builder().withKey("upload/object").withContentLength(objectSize).build();
+    store.upload(
+        UploadRequest.builder().withKey("download/object").withContentLength(objectSize).build(),
+        content);
+    byte[] small = BenchmarkStores.content(64);
+    for (int i = 0; i < LISTED_OBJECTS; i++) {
+      String key = String.format("%sobject-%05d", LIST_PREFIX, i);
+      store.upload(UploadRequest.builder().withKey(key).withContentLength(small.length).build(),
+          small);
+    }
+    downloadRequest = DownloadRequest.builder().withKey("download/object").build();
+    listRequest =
+        ListBlobsPageRequest.builder()
+            .withPrefix(LIST_PREFIX)
+            .withMaxResults(LIST_PAGE_SIZE)
+            .build();
+  }
+
+  @TearDown
+  public void tearDown() throws Exception {
+    store.close();
+    if (stub != null) {
+      stub.close();
+    }
+    InMemoryBlobStore.clearStorage();
+  }
+
+  @Benchmark
+  public UploadResponse upload() {
+    return store.upload(uploadRequest, content);
+  }
+
+  @Benchmark
+  public DownloadResponse download() {
+    return store.download(downloadRequest, new ByteArray());
+  }
+
+  @Benchmark
+  public ListBlobsPageResponse listPage() {
+    return store.listPage(listRequest);
+  }
+}
@@ -0,0 +1,39 @@
+package com.salesforce.multicloudj.blob.benchmarks;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.condition.EnabledIfSystemProperty;
+import org.openjdk.jmh.profile.GCProfiler;
+import org.openjdk.jmh.results.format.ResultFormatType;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.Options;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+/**
+ * Runs every offline benchmark in this module with the GC profiler attached, so each score comes
+ * with its allocation rate ({@code gc.alloc.rate.norm} is bytes allocated per operation).
+ *
+ * <p>Run with {@code mvn test -pl blob/blob-benchmarks -DrunBenchmarks=true}. Optional system
+ * properties: {@code benchmarks.include} narrows the run to benchmarks matching a regex, and
+ * {@code benchmarks.result} overrides where the JSON results are written. To refresh the
+ * committed baseline, point {@code benchmarks.result} at {@code baseline/jmh-results.json}.
+ */
+public class OfflineBlobBenchmarksTest {
+
+  @Test
+  @EnabledIfSystemProperty(named = "runBenchmarks", matches = "true")
+  public void runBenchmarks() throws RunnerException {
+    String include =
+        System.getProperty(
+            "benchmarks.include", OfflineBlobBenchmarksTest.class.getPackageName() + "\\..*");
+    Options opt =
+        new OptionsBuilder()
+            .include(include)
+            .addProfiler(GCProfiler.class)
+            .resultFormat(ResultFormatType.JSON)
+            .result(System.getProperty("benchmarks.result", "target/jmh-results.json"))
+            .build();
+
+    new Runner(opt).run();
+  }
+}
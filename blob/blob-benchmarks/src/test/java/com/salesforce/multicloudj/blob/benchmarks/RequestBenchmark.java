@@ -0,0 +1,129 @@
+package com.salesforce.multicloudj.blob.benchmarks;
+
+import com.aliyun.sdk.service.oss2.transport.BinaryData;
+import com.salesforce.multicloudj.blob.ali.AliTransformer;
+import com.salesforce.multicloudj.blob.aws.AwsTransformer;
+import com.salesforce.multicloudj.blob.driver.BlobStoreValidator;
+import com.salesforce.multicloudj.blob.driver.DownloadRequest;
+import com.salesforce.multicloudj.blob.driver.ListBlobsPageRequest;
+import com.salesforce.multicloudj.blob.driver.UploadRequest;
+import com.salesforce.multicloudj.blob.gcp.GcpTransformer;
+import com.salesforce.multicloudj.common.observability.OperationContext;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+/**
+ * CPU-only request handling that runs on every operation before any I/O: driver-side validation
+ * and translation of driver requests into AWS, GCP and Alibaba SDK requests.
+ *
+ * <p>Requests carry metadata, tags and an operation context so the metadata-stamping paths in the
+ * transformers are exercised.
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@State(Scope.Benchmark)
+@Warmup(iterations = 3, time = 1, timeUnit = TimeUnit.SECONDS)
+@Measurement(iterations = 5, time = 1, timeUnit = TimeUnit.SECONDS)
+@Fork(1)
+public class RequestBenchmark {
+
+  private static final String BUCKET = "bench-bucket";
+  private static final String KEY = "tenants/acme/reports/2024/06/summary-0001.parquet";
+
+  private BlobStoreValidator validator;
+  private AwsTransformer awsTransformer;
+  private GcpTransformer gcpTransformer;
+  private AliTransformer aliTransformer;
+  private UploadRequest uploadRequest;
+  private DownloadRequest downloadRequest;
+  private ListBlobsPageRequest listRequest;
+  private BinaryData aliBody;
+
+  @Setup
+  public void setup() {
+    validator = new BlobStoreValidator();
+    awsTransformer = new AwsTransformer(BUCKET);
+    gcpTransformer = new GcpTransformer(BUCKET);
+    aliTransformer = new AliTransformer(BUCKET);
+    OperationContext ctx =
+        OperationContext.builder()
+            .correlationId("c0ffee00-0000-4000-8000-000000000001")
+            .tenantId("acme")
+            .serviceId("reports")
+            .build();
+    uploadRequest =
+        UploadRequest.builder()
+            .withKey(KEY)
+            .withContentLength(4096)
+            .withMetadata(Map.of("owner", "reports", "schema", "v3"))
+            .withTags(Map.of("retention", "30d"))
+            .withContentType("application/octet-stream")
+            .withOperationContext(ctx)
+            .build();
+    downloadRequest =
+        DownloadRequest.builder().withKey(KEY).withRange(1024L, 2047L).build();
+    listRequest =
+        ListBlobsPageRequest.builder()
+            .withPrefix("tenants/acme/reports/")
+            .withDelimiter("/")
+            .withMaxResults(100)
+            .build();
+    aliBody = BinaryData.fromBytes(new byte[4096]);
+  }
+
+  @Benchmark
+  public void validateUpload() {
+    validator.validate(uploadRequest);
+  }
+
+  @Benchmark
+  public void validateRangedDownload() {
+    validator.validate(downloadRequest);
+  }
+
+  @Benchmark
+  public Object awsPutObjectRequest() {
+    return awsTransformer.toRequest(uploadRequest);
+  }
+
+  @Benchmark
+  public Object awsGetObjectRequest() {
+    return awsTransformer.toRequest(downloadRequest);
+  }
+
+  @Benchmark
+  public Object awsListObjectsRequest() {
+    return awsTransformer.toRequest(listRequest);
+  }
+
+  @Benchmark
+  public Object gcpBlobInfo() {
+    return gcpTransformer.toBlobInfo(uploadRequest);
+  }
+
+  @Benchmark
+  public void gcpListOptions(Blackhole blackhole) {
+    blackhole.consume(gcpTransformer.toBlobListOptions(listRequest));
+  }
+
+  @Benchmark
+  public Object aliPutObjectRequest() {
+    return aliTransformer.toPutObjectRequest(uploadRequest, aliBody);
+  }
+
+  @Benchmark
+  public Object aliGetObjectRequest() {
+    return aliTransformer.toGetObjectRequest(downloadRequest);
+  }
+}
@@ -0,0 +1,311 @@
+package com.salesforce.multicloudj.blob.benchmarks;
+
+import com.sun.net.httpserver.Headers;
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpServer;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.net.InetAddress;
+import java.net.InetSocketAddress;
+import java.net.URI;
+import java.net.URLDecoder;
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.time.Instant;
+import java.time.ZoneOffset;
+import java.time.format.DateTimeFormatter;
+import java.util.HashMap;
+import java.util.HexFormat;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.NavigableMap;
+import java.util.concurrent.ConcurrentSkipListMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+/**
+ * Minimal in-process HTTP server speaking enough of the S3 REST protocol for the AWS SDK to
+ * upload, download, head, list and delete objects in path-style buckets.
+ *
+ * <p>Only what the benchmarks exercise is implemented: PutObject, GetObject (with a single byte
+ * range), HeadObject, DeleteObject and ListObjectsV2 with prefix, max-keys and continuation
+ * tokens. Every request is accepted regardless of its signature, and every path names the one
+ * bucket the stub was created for.
+ */
+final class S3ProtocolStub implements AutoCloseable {
+
+  static {
+    // Without TCP_NODELAY small responses wait on delayed ACKs and every request takes ~40ms.
+    // The JDK server reads this once, before the first server is created.
+    System.setProperty("sun.net.httpserver.nodelay", "true");
+  }
+
+  private static final DateTimeFormatter HTTP_DATE =
+      DateTimeFormatter.RFC_1123_DATE_TIME.withZone(ZoneOffset.UTC);
+  private static final DateTimeFormatter ISO_DATE =
+      DateTimeFormatter.ISO_INSTANT.withZone(ZoneOffset.UTC);
+
+  private final String bucket;
+  private final HttpServer server;
+  private final ExecutorService executor;
+  private final NavigableMap<String, StubObject> objects = new ConcurrentSkipListMap<>();
+
+  private S3ProtocolStub(String bucket, HttpServer server, ExecutorService executor) {
+    this.bucket = bucket;
+    this.server = server;
+    this.executor = executor;
+  }
+
+  /** Starts a stub serving {@code bucket} on an ephemeral loopback port. */
+  static S3ProtocolStub start(String bucket) throws IOException {
+    HttpServer server =
+        HttpServer.create(new InetSocketAddress(InetAddress.getLoopbackAddress(), 0), 0);
+    ExecutorService executor = Executors.newCachedThreadPool();
+    S3ProtocolStub stub = new S3ProtocolStub(bucket, server, executor);
+    server.createContext("/", stub::handle);
+    server.setExecutor(executor);
+    server.start();
+    return stub;
+  }
+
+  URI getEndpoint() {
+    return URI.create("http://127.0.0.1:" + server.getAddress().getPort());
+  }
+
+  /** Stores an object directly, bypassing HTTP, so read benchmarks can be seeded cheaply. */
+  void put(String key, byte[] content) {
+    objects.put(key, new StubObject(content, etagOf(content), Instant.now(), Map.of()));
+  }
+
+  int objectCount() {
+    return objects.size();
+  }
+
+  @Override
+  public void close() {
+    server.stop(0);
+    executor.shutdownNow();
+  }
+
+  private void handle(HttpExchange exchange) throws IOException {
+    try (exchange) {
+      String path = exchange.getRequestURI().getPath();
+      String bucketPath = "/" + bucket;
+      if (!path.equals(bucketPath) && !path.startsWith(bucketPath + "/")) {
+        sendError(exchange, 404, "NoSuchBucket");
+        return;
+      }
+      String key = path.length() > bucketPath.length() + 1
+          ? path.substring(bucketPath.length() + 1)
+          : "";
+      String method = exchange.getRequestMethod();
+      if (key.isEmpty()) {
+        if ("GET".equals(method)) {
+          listObjects(exchange);
+        } else {
+          sendError(exchange, 405, "MethodNotAllowed");
+        }
+        return;
+      }
+      switch (method) {
+        case "PUT":
+          putObject(exchange, key);
+          break;
+        case "GET":
+          getObject(exchange, key, true);
+          break;
+        case "HEAD":
+          getObject(exchange, key, false);
+          break;
+        case "DELETE":
+          objects.remove(key);
+          exchange.sendResponseHeaders(204, -1);
+          break;
+        default:
+          sendError(exchange, 405, "MethodNotAllowed");
+      }
+    }
+  }
+
+  private void putObject(HttpExchange exchange, String key) throws IOException {
+    byte[] content;
+    try (InputStream body = exchange.getRequestBody()) {
+      content = body.readAllBytes();
+    }
+    Map<String, String> metadata = new HashMap<>();
+    for (Map.Entry<String, List<String>> header :
+        exchange.getRequestHeaders().entrySet()) {
+      String name = header.getKey().toLowerCase();
+      if (name.startsWith("x-amz-meta-")) {
+        metadata.put(name, header.getValue().get(0));
+      }
+    }
+    StubObject object = new StubObject(content, etagOf(content), Instant.now(), metadata);
+    objects.put(key, object);
+    exchange.getResponseHeaders().set("ETag", object.etag);
+    exchange.sendResponseHeaders(200, -1);
+  }
+
+  private void getObject(HttpExchange exchange, String key, boolean withBody)
+      throws IOException {
+    StubObject object = objects.get(key);
+    if (object == null) {
+      if (withBody) {
+        sendError(exchange, 404, "NoSuchKey");
+      } else {
+        exchange.sendResponseHeaders(404, -1);
+      }
+      return;
+    }
+    int from = 0;
+    int to = object.content.length;
+    int status = 200;
+    String range = exchange.getRequestHeaders().getFirst("Range");
+    Headers headers = exchange.getResponseHeaders();
+    if (range != null && range.startsWith("bytes=") && object.content.length > 0) {
+      String[] bounds = range.substring("bytes=".length()).split("-", 2);
+      if (bounds[0].isEmpty()) {
+        from = Math.max(0, to - Integer.parseInt(bounds[1]));
+      } else {
+        from = Integer.parseInt(bounds[0]);
+        if (!bounds[1].isEmpty()) {
+          to = Math.min(to, Integer.parseInt(bounds[1]) + 1);
+        }
+      }
+      status = 206;
+      headers.set(
+          "Content-Range", "bytes " + from + "-" + (to - 1) + "/" + object.content.length);
+    }
+    headers.set("ETag", object.etag);
+    headers.set("Last-Modified", HTTP_DATE.format(object.lastModified));
+    headers.set("Content-Type", "application/octet-stream");
+    for (Map.Entry<String, String> entry : object.metadata.entrySet()) {
+      headers.set(entry.getKey(), entry.getValue());
+    }
+    if (!withBody) {
+      headers.set("Content-Length", Integer.toString(object.content.length));
+      exchange.sendResponseHeaders(200, -1);
+      return;
+    }
+    int length = to - from;
+    exchange.sendResponseHeaders(status, length == 0 ? -1 : length);
+    if (length > 0) {
+      try (OutputStream out = exchange.getResponseBody()) {
+        out.write(object.content, from, length);
+      }
+    }
+  }
+
+  private void listObjects(HttpExchange exchange) throws IOException {
+    Map<String, String> query = parseQuery(exchange.getRequestURI().getRawQuery());
+    String prefix = query.getOrDefault("prefix", "");
+    int maxKeys = Integer.parseInt(query.getOrDefault("max-keys", "1000"));
+    String token = query.get("continuation-token");
+    NavigableMap<String, StubObject> candidates =
+        token != null ? objects.tailMap(token, false) : objects.tailMap(prefix, true);
+
+    StringBuilder xml = new StringBuilder(256);
+    xml.append("<?xml version=\"1.0\" encoding=\"UTF-8\"?>")
+        .append("<ListBucketResult xmlns=\"http://s3.amazonaws.com/doc/2006-03-01/\">")
+        .append("<Name>").append(bucket).append("</Name>")
+        .append("<Prefix>").append(escape(prefix)).append("</Prefix>")
+        .append("<MaxKeys>").append(maxKeys).append("</MaxKeys>");
+    int count = 0;
+    String lastKey = null;
+    boolean truncated = false;
+    Iterator<Map.Entry<String, StubObject>> it = candidates.entrySet().iterator();
+    while (it.hasNext()) {
+      Map.Entry<String, StubObject> entry = it.next();
+      if (!entry.getKey().startsWith(prefix)) {
+        break;
+      }
+      if (count == maxKeys) {
+        truncated = true;
+        break;
+      }
+      StubObject object = entry.getValue();
+      xml.append("<Contents><Key>").append(escape(entry.getKey())).append("</Key>")
+          .append("<LastModified>").append(ISO_DATE.format(object.lastModified))
+          .append("</LastModified>")
+          .append("<ETag>").append(escape(object.etag)).append("</ETag>")
+          .append("<Size>").append(object.content.length).append("</Size>")
+          .append("<StorageClass>STANDARD</StorageClass></Contents>");
+      lastKey = entry.getKey();
+      count++;
+    }
+    xml.append("<KeyCount>").append(count).append("</KeyCount>")
+        .append("<IsTruncated>").append(truncated).append("</IsTruncated>");
+    if (truncated) {
+      xml.append("<NextContinuationToken>").append(escape(lastKey))
+          .append("</NextContinuationToken>");
+    }
+    xml.append("</ListBucketResult>");
+    sendXml(exchange, 200, xml.toString());
+  }
+
+  private static void sendError(HttpExchange exchange, int status, String code)
+      throws IOException {
+    sendXml(exchange, status, "<?xml version=\"1.0\" encoding=\"UTF-8\"?><Error><Code>" + code
+        + "</Code><Message>" + code + "</Message></Error>");
+  }
+
+  private static void sendXml(HttpExchange exchange, int status, String body) throws IOException {
+    byte[] bytes = body.getBytes(StandardCharsets.UTF_8);
+    exchange.getResponseHeaders().set("Content-Type", "application/xml");
+    exchange.sendResponseHeaders(status, bytes.length);
+    try (OutputStream out = exchange.getResponseBody()) {
+      out.write(bytes);
+    }
+  }
+
+  private static Map<String, String> parseQuery(String rawQuery) {
+    Map<String, String> query = new HashMap<>();
+    if (rawQuery == null || rawQuery.isEmpty()) {
+      return query;
+    }
+    for (String pair : rawQuery.split("&")) {
+      int eq = pair.indexOf('=');
+      String name = eq < 0 ? pair : pair.substring(0, eq);
+      String value = eq < 0 ? "" : pair.substring(eq + 1);
+      query.put(
+          URLDecoder.decode(name, StandardCharsets.UTF_8),
+          URLDecoder.decode(value, StandardCharsets.UTF_8));
+    }
+    return query;
+  }
+
+  private static String escape(String value) {
+    return value
+        .replace("&", "&amp;")
+        .replace("<", "&lt;")
+        .replace(">", "&gt;")
+        .replace("\"", "&quot;");
+  }
+
+  private static String etagOf(byte[] content) {
+    try {
+      byte[] md5 = MessageDigest.getInstance("MD5").digest(content);
+      return "\"" + HexFormat.of().formatHex(md5) + "\"";
+    } catch (NoSuchAlgorithmException e) {
+      throw new IllegalStateException(e);
+    }
+  }
+
+  private static final class StubObject {
+    private final byte[] content;
+    private final String etag;
+    private final Instant lastModified;
+    private final Map<String, String> metadata;
+
+    private StubObject(
+        byte[] content, String etag, Instant lastModified, Map<String, String> metadata) {
+      this.content = content;
+      this.etag = etag;
+      this.lastModified = lastModified;
+      this.metadata = metadata;
+    }
+  }
+}
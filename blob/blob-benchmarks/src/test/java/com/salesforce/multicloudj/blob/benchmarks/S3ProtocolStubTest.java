@@ -0,0 +1,97 @@
+package com.salesforce.multicloudj.blob.benchmarks;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import com.salesforce.multicloudj.blob.aws.AwsBlobStore;
+import com.salesforce.multicloudj.blob.driver.BlobInfo;
+import com.salesforce.multicloudj.blob.driver.ByteArray;
+import com.salesforce.multicloudj.blob.driver.DownloadRequest;
+import com.salesforce.multicloudj.blob.driver.ListBlobsPageRequest;
+import com.salesforce.multicloudj.blob.driver.ListBlobsPageResponse;
+import com.salesforce.multicloudj.blob.driver.UploadRequest;
+import java.util.Arrays;
+import java.util.Map;
+import java.util.stream.Collectors;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+/** Keeps the S3 stub compatible with the AWS store the data-path benchmarks drive through it. */
+public class S3ProtocolStubTest {
+
+  private static final String BUCKET = "stub-bucket";
+
+  private S3ProtocolStub stub;
+  private AwsBlobStore store;
+
+  @BeforeEach
+  void setup() throws Exception {
+    stub = S3ProtocolStub.start(BUCKET);
+    store = BenchmarkStores.aws(stub, BUCKET);
+  }
+
+  @AfterEach
+  void tearDown() throws Exception {
+    store.close();
+    stub.close();
+  }
+
+  @Test
+  void testUploadDownloadAndMetadataRoundTrip() {
+    byte[] content = BenchmarkStores.content(4096);
+    store.upload(
+        UploadRequest.builder()
+            .withKey("dir/object")
+            .withContentLength(content.length)
+            .withMetadata(Map.of("owner", "bench"))
+            .build(),
+        content);
+
+    ByteArray whole = new ByteArray();
+    store.download(DownloadRequest.builder().withKey("dir/object").build(), whole);
+    assertArrayEquals(content, whole.getBytes());
+
+    ByteArray range = new ByteArray();
+    store.download(
+        DownloadRequest.builder().withKey("dir/object").withRange(100L, 199L).build(), range);
+    assertArrayEquals(Arrays.copyOfRange(content, 100, 200), range.getBytes());
+
+    assertEquals(4096L, store.getMetadata("dir/object", null).getObjectSize());
+    assertEquals("bench", store.getMetadata("dir/object", null).getMetadata().get("owner"));
+
+    store.delete("dir/object", null);
+    assertFalse(store.doesObjectExist("dir/object", null));
+  }
+
+  @Test
+  void testListPagesByPrefix() {
+    for (int i = 0; i < 5; i++) {
+      stub.put("list/object-" + i, new byte[i]);
+    }
+    stub.put("other/object", new byte[1]);
+
+    ListBlobsPageResponse first =
+        store.listPage(
+            ListBlobsPageRequest.builder().withPrefix("list/").withMaxResults(3).build());
+    assertTrue(first.isTruncated());
+    assertEquals(3, first.getBlobs().size());
+
+    ListBlobsPageResponse second =
+        store.listPage(
+            ListBlobsPageRequest.builder()
+                .withPrefix("list/")
+                .withMaxResults(3)
+                .withPaginationToken(first.getNextPageToken())
+                .build());
+    assertFalse(second.isTruncated());
+    assertNull(second.getNextPageToken());
+    assertEquals(
+        "list/object-3,list/object-4",
+        second.getBlobs().stream().map(BlobInfo::getKey).collect(Collectors.joining(",")));
+    assertEquals(4L, second.getBlobs().get(1).getObjectSize());
+  }
+}
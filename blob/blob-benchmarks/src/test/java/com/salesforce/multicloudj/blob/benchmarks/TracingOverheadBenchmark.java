@@ -0,0 +1,77 @@
+package com.salesforce.multicloudj.blob.benchmarks;
+
+import com.salesforce.multicloudj.common.observability.MultiCloudJLogger;
+import com.salesforce.multicloudj.common.observability.MultiCloudJObservability;
+import com.salesforce.multicloudj.common.observability.OperationContext;
+import com.salesforce.multicloudj.common.observability.TracingPolicy;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Function;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Per-call cost of {@link MultiCloudJLogger#traceOperation} around an operation that does no work,
+ * under each tracing policy and with MDC population on or off.
+ *
+ * <p>{@code direct} calls the operation without the logger and is the floor the other scores are
+ * compared against. No OpenTelemetry SDK or meter provider is installed, so {@code CHILD_AND_ROOT}
+ * measures span bookkeeping against the no-op tracer and no metrics are recorded.
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@State(Scope.Benchmark)
+@Warmup(iterations = 3, time = 1, timeUnit = TimeUnit.SECONDS)
+@Measurement(iterations = 5, time = 1, timeUnit = TimeUnit.SECONDS)
+@Fork(1)
+public class TracingOverheadBenchmark {
+
+  private static final Map<String, String> ATTRIBUTES = Map.of("bucket", "bench-bucket");
+  private static final OperationContext CONTEXT =
+      OperationContext.builder().correlationId("bench-correlation").build();
+  private static final Function<OperationContext, OperationContext> OPERATION = ctx -> ctx;
+
+  @Param({"DISABLED", "JOIN_ONLY", "CHILD_AND_ROOT"})
+  public TracingPolicy tracingPolicy;
+
+  @Param({"true", "false"})
+  public boolean mdc;
+
+  private MultiCloudJLogger logger;
+
+  @Setup
+  public void setup() {
+    MultiCloudJObservability.setMdcEnabled(mdc);
+    logger = new MultiCloudJLogger(tracingPolicy, "blob", "bench");
+  }
+
+  @TearDown
+  public void tearDown() {
+    MultiCloudJObservability.setMdcEnabled(true);
+  }
+
+  @Benchmark
+  public OperationContext direct() {
+    return OPERATION.apply(CONTEXT);
+  }
+
+  @Benchmark
+  public OperationContext withoutContext() {
+    return logger.traceOperation("blob.getMetadata", ATTRIBUTES, null, OPERATION);
+  }
+
+  @Benchmark
+  public OperationContext withContext() {
+    return logger.traceOperation("blob.getMetadata", ATTRIBUTES, CONTEXT, OPERATION);
+  }
+}
@@ -2,13 +2,17 @@ package com.salesforce.multicloudj.blob.async.client;
 
 import com.salesforce.multicloudj.blob.async.driver.AsyncBlobStore;
 import com.salesforce.multicloudj.blob.async.driver.AsyncBlobStoreProvider;
+import com.salesforce.multicloudj.blob.async.driver.MultipartUploader;
 import com.salesforce.multicloudj.blob.driver.BlobClientBuilder;
 import com.salesforce.multicloudj.blob.driver.BlobIdentifier;
 import com.salesforce.multicloudj.blob.driver.BlobMetadata;
+import com.salesforce.multicloudj.blob.driver.BlobPreconditions;
 import com.salesforce.multicloudj.blob.driver.BlobSpanNames;
 import com.salesforce.multicloudj.blob.driver.ByteArray;
+import com.salesforce.multicloudj.blob.driver.ByteRange;
 import com.salesforce.multicloudj.blob.driver.CopyRequest;
 import com.salesforce.multicloudj.blob.driver.CopyResponse;
+import com.salesforce.multicloudj.blob.driver.DirectoryDeleteRequest;
 import com.salesforce.multicloudj.blob.driver.DirectoryDownloadRequest;
 import com.salesforce.multicloudj.blob.driver.DirectoryDownloadResponse;
 import com.salesforce.multicloudj.blob.driver.DirectoryUploadRequest;
@@ -19,6 +23,8 @@ import com.salesforce.multicloudj.blob.driver.ListBlobsBatch;
 import com.salesforce.multicloudj.blob.driver.ListBlobsPageRequest;
 import com.salesforce.multicloudj.blob.driver.ListBlobsPageResponse;
 import com.salesforce.multicloudj.blob.driver.ListBlobsRequest;
+import com.salesforce.multicloudj.blob.driver.MultiRangeDownloadRequest;
+import com.salesforce.multicloudj.blob.driver.MultiRangeDownloadResponse;
 import com.salesforce.multicloudj.blob.driver.MultipartPart;
 import com.salesforce.multicloudj.blob.driver.MultipartUpload;
 import com.salesforce.multicloudj.blob.driver.MultipartUploadRequest;
@@ -40,6 +46,7 @@ import java.io.InputStream;
 import java.io.OutputStream;
 import java.net.URI;
 import java.net.URL;
+import java.nio.ByteBuffer;
 import java.nio.file.Path;
 import java.time.Duration;
 import java.util.Collection;
@@ -48,7 +55,9 @@ import java.util.Map;
 import java.util.Properties;
 import java.util.concurrent.CompletableFuture;
 import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Flow;
 import java.util.function.Consumer;
+import java.util.function.ToLongFunction;
 
 /** Entry point for async Client code to interact with the Blob storage. */
 public class AsyncBucketClient implements AutoCloseable {
@@ -57,6 +66,7 @@ public class AsyncBucketClient implements AutoCloseable {
 
   protected AsyncBlobStore blobStore;
   protected final MultiCloudJLogger multiCloudJLogger;
+  private volatile Map<String, String> bucketAttributes;
 
   protected AsyncBucketClient(AsyncBlobStore blobStore) {
     this(blobStore, null);
@@ -90,7 +100,11 @@ public class AsyncBucketClient implements AutoCloseable {
         uploadRequest.getOperationContext(),
         ctx ->
             uploadResponseWithCorrelationId(
-                    blobStore.upload(withResolvedContext(uploadRequest, ctx), inputStream), ctx)
+                    recordingBytes(
+                        blobStore.upload(withResolvedContext(uploadRequest, ctx), inputStream),
+                        BlobSpanNames.UPLOAD,
+                        response -> uploadRequest.getContentLength()),
+                    ctx)
                 .exceptionally(this::handleException));
   }
 
@@ -102,7 +116,11 @@ public class AsyncBucketClient implements AutoCloseable {
         uploadRequest.getOperationContext(),
         ctx ->
             uploadResponseWithCorrelationId(
-                    blobStore.upload(withResolvedContext(uploadRequest, ctx), content), ctx)
+                    recordingBytes(
+                        blobStore.upload(withResolvedContext(uploadRequest, ctx), content),
+                        BlobSpanNames.UPLOAD,
+                        response -> content.length),
+                    ctx)
                 .exceptionally(this::handleException));
   }
 
@@ -114,7 +132,11 @@ public class AsyncBucketClient implements AutoCloseable {
         uploadRequest.getOperationContext(),
         ctx ->
             uploadResponseWithCorrelationId(
-                    blobStore.upload(withResolvedContext(uploadRequest, ctx), file), ctx)
+                    recordingBytes(
+                        blobStore.upload(withResolvedContext(uploadRequest, ctx), file),
+                        BlobSpanNames.UPLOAD,
+                        response -> file.length()),
+                    ctx)
                 .exceptionally(this::handleException));
   }
 
@@ -126,7 +148,31 @@ public class AsyncBucketClient implements AutoCloseable {
         uploadRequest.getOperationContext(),
         ctx ->
             uploadResponseWithCorrelationId(
-                    blobStore.upload(withResolvedContext(uploadRequest, ctx), path), ctx)
+                    recordingBytes(
+                        blobStore.upload(withResolvedContext(uploadRequest, ctx), path),
+                        BlobSpanNames.UPLOAD,
+                        response -> path.toFile().length()),
+                    ctx)
+                .exceptionally(this::handleException));
+  }
+
+  /**
+   * Uploads the Blob content as the publisher emits it. Set the contentLength in the UploadRequest
+   * when it is known; content of unknown length is streamed in chunks or parts.
+   */
+  public CompletableFuture<UploadResponse> upload(
+      UploadRequest uploadRequest, Flow.Publisher<ByteBuffer> publisher) {
+    return multiCloudJLogger.traceAsyncOperation(
+        BlobSpanNames.UPLOAD,
+        bucketAttrs(),
+        uploadRequest.getOperationContext(),
+        ctx ->
+            uploadResponseWithCorrelationId(
+                    recordingBytes(
+                        blobStore.upload(withResolvedContext(uploadRequest, ctx), publisher),
+                        BlobSpanNames.UPLOAD,
+                        response -> uploadRequest.getContentLength()),
+                    ctx)
                 .exceptionally(this::handleException));
   }
 
@@ -139,7 +185,11 @@ public class AsyncBucketClient implements AutoCloseable {
         downloadRequest.getOperationContext(),
         ctx ->
             downloadResponseWithCorrelationId(
-                    blobStore.download(downloadRequest, outputStream), ctx)
+                    recordingBytes(
+                        blobStore.download(downloadRequest, outputStream),
+                        BlobSpanNames.DOWNLOAD,
+                        response -> downloadedBytes(downloadRequest, response)),
+                    ctx)
                 .exceptionally(this::handleException));
   }
 
@@ -151,7 +201,13 @@ public class AsyncBucketClient implements AutoCloseable {
         bucketAttrs(),
         downloadRequest.getOperationContext(),
         ctx ->
-            downloadResponseWithCorrelationId(blobStore.download(downloadRequest, byteArray), ctx)
+            downloadResponseWithCorrelationId(
+                    recordingBytes(
+                        blobStore.download(downloadRequest, byteArray),
+                        BlobSpanNames.DOWNLOAD,
+                        response ->
+                            byteArray.getBytes() != null ? byteArray.getBytes().length : -1),
+                    ctx)
                 .exceptionally(this::handleException));
   }
 
@@ -162,7 +218,12 @@ public class AsyncBucketClient implements AutoCloseable {
         bucketAttrs(),
         downloadRequest.getOperationContext(),
         ctx ->
-            downloadResponseWithCorrelationId(blobStore.download(downloadRequest, file), ctx)
+            downloadResponseWithCorrelationId(
+                    recordingBytes(
+                        blobStore.download(downloadRequest, file),
+                        BlobSpanNames.DOWNLOAD,
+                        response -> downloadedBytes(downloadRequest, response)),
+                    ctx)
                 .exceptionally(this::handleException));
   }
 
@@ -173,7 +234,12 @@ public class AsyncBucketClient implements AutoCloseable {
         bucketAttrs(),
         downloadRequest.getOperationContext(),
         ctx ->
-            downloadResponseWithCorrelationId(blobStore.download(downloadRequest, path), ctx)
+            downloadResponseWithCorrelationId(
+                    recordingBytes(
+                        blobStore.download(downloadRequest, path),
+                        BlobSpanNames.DOWNLOAD,
+                        response -> downloadedBytes(downloadRequest, response)),
+                    ctx)
                 .exceptionally(this::handleException));
   }
 
@@ -188,6 +254,32 @@ public class AsyncBucketClient implements AutoCloseable {
                 .exceptionally(this::handleException));
   }
 
+  /**
+   * Reads several byte ranges of one blob, using the default coalescing limits of {@link
+   * MultiRangeDownloadRequest}.
+   */
+  public CompletableFuture<MultiRangeDownloadResponse> downloadRanges(
+      String key, List<ByteRange> ranges) {
+    return downloadRanges(
+        MultiRangeDownloadRequest.builder().withKey(key).withRanges(ranges).build());
+  }
+
+  /**
+   * Reads several byte ranges of one blob, coalescing nearby ranges into fewer ranged GETs that
+   * are fetched concurrently. See {@link
+   * com.salesforce.multicloudj.blob.client.BucketClient#downloadRanges(MultiRangeDownloadRequest)}.
+   */
+  public CompletableFuture<MultiRangeDownloadResponse> downloadRanges(
+      MultiRangeDownloadRequest request) {
+    return multiCloudJLogger.traceAsyncOperation(
+        BlobSpanNames.DOWNLOAD_RANGES,
+        bucketAttrs(),
+        request.getOperationContext(),
+        ctx ->
+            multiRangeResponseWithCorrelationId(blobStore.downloadRanges(request), ctx)
+                .exceptionally(this::handleException));
+  }
+
   /** Deletes a single Blob from substrate-specific Blob storage */
   public CompletableFuture<Void> delete(String key, String versionId) {
     return delete(key, versionId, null);
@@ -261,6 +353,42 @@ public class AsyncBucketClient implements AutoCloseable {
                 .exceptionally(this::handleException));
   }
 
+  /**
+   * Retrieves the metadata of the Blob if it has changed since the caller's copy. The result is
+   * flagged {@link BlobMetadata#isNotModified()} when the preconditions find it unchanged.
+   *
+   * @param preconditions Revalidation preconditions. May be null.
+   * @param operationContext Per-call observability context carrying the correlation ID. May be
+   *     null, in which case tracing is treated as disabled.
+   */
+  public CompletableFuture<BlobMetadata> getMetadata(
+      String key,
+      String versionId,
+      BlobPreconditions preconditions,
+      OperationContext operationContext) {
+    return multiCloudJLogger.traceAsyncOperation(
+        BlobSpanNames.GET_METADATA,
+        bucketAttrs(),
+        operationContext,
+        ctx ->
+            blobMetadataWithCorrelationId(
+                    blobStore.getMetadata(key, versionId, preconditions), ctx)
+                .exceptionally(this::handleException));
+  }
+
+  /**
+   * Retrieves the metadata of many Blobs, issuing the lookups concurrently. Blobs that do not exist
+   * map to null.
+   */
+  public CompletableFuture<Map<BlobIdentifier, BlobMetadata>> getMetadata(
+      Collection<BlobIdentifier> objects) {
+    return multiCloudJLogger.traceAsyncOperation(
+        BlobSpanNames.GET_METADATA_BULK,
+        bucketAttrs(),
+        null,
+        ctx -> blobStore.getMetadata(objects).exceptionally(this::handleException));
+  }
+
   /** Retrieves the list of Blob in the bucket */
   public CompletableFuture<Void> list(ListBlobsRequest request, Consumer<ListBlobsBatch> consumer) {
     return multiCloudJLogger.traceAsyncOperation(
@@ -292,6 +420,45 @@ public class AsyncBucketClient implements AutoCloseable {
                 .exceptionally(this::handleException));
   }
 
+  /**
+   * Uploads the content as the publisher emits it through a multipart upload, uploading parts while
+   * the next ones fill without blocking a thread. See {@link MultipartUploader} for how parts are
+   * buffered, retried and aborted on failure.
+   */
+  public CompletableFuture<MultipartUploadResponse> uploadMultipart(
+      MultipartUploadRequest request, Flow.Publisher<ByteBuffer> publisher) {
+    return uploadMultipart(
+        request,
+        publisher,
+        MultipartUploader.DEFAULT_PART_SIZE,
+        MultipartUploader.DEFAULT_MAX_IN_FLIGHT_BYTES);
+  }
+
+  /**
+   * Uploads the content as the publisher emits it through a multipart upload.
+   *
+   * @param partSize the size of every part but the last
+   * @param maxInFlightBytes the bytes held in parts being filled or uploaded, at least {@code
+   *     partSize}; {@code maxInFlightBytes / partSize} parts upload at once
+   */
+  public CompletableFuture<MultipartUploadResponse> uploadMultipart(
+      MultipartUploadRequest request,
+      Flow.Publisher<ByteBuffer> publisher,
+      long partSize,
+      long maxInFlightBytes) {
+    MultipartUploader uploader =
+        new MultipartUploader(
+            blobStore, partSize, maxInFlightBytes, MultipartUploader.DEFAULT_MAX_ATTEMPTS);
+    return multiCloudJLogger.traceAsyncOperation(
+        BlobSpanNames.UPLOAD_MULTIPART,
+        bucketAttrs(),
+        request.getOperationContext(),
+        ctx ->
+            uploader
+                .upload(withResolvedContext(request, ctx), publisher)
+                .exceptionally(this::handleException));
+  }
+
   /** Uploads a part of the multipartUpload */
   public CompletableFuture<UploadPartResponse> uploadMultipartPart(
       MultipartUpload mpu, MultipartPart mpp) {
@@ -430,6 +597,19 @@ public class AsyncBucketClient implements AutoCloseable {
         ctx -> blobStore.doesObjectExist(key, versionId).exceptionally(this::handleException));
   }
 
+  /**
+   * Determines which of many objects exist, issuing the checks concurrently. Unversioned keys that
+   * share a prefix may be resolved by listing it rather than one request per key.
+   */
+  public CompletableFuture<Map<BlobIdentifier, Boolean>> doesObjectExist(
+      Collection<BlobIdentifier> objects) {
+    return multiCloudJLogger.traceAsyncOperation(
+        BlobSpanNames.DOES_OBJECT_EXIST_BULK,
+        bucketAttrs(),
+        null,
+        ctx -> blobStore.doesObjectExist(objects).exceptionally(this::handleException));
+  }
+
   /** Determines if the bucket exists */
   public CompletableFuture<Boolean> doesBucketExist() {
     return multiCloudJLogger.traceAsyncOperation(
@@ -474,6 +654,18 @@ public class AsyncBucketClient implements AutoCloseable {
         ctx -> blobStore.deleteDirectory(prefix).exceptionally(this::handleException));
   }
 
+  /**
+   * Deletes all blobs in the bucket which have keys that start with the request's prefix, deleting
+   * batches while the prefix is still being listed.
+   */
+  public CompletableFuture<Void> deleteDirectory(DirectoryDeleteRequest request) {
+    return multiCloudJLogger.traceAsyncOperation(
+        BlobSpanNames.DELETE_DIRECTORY,
+        bucketAttrs(),
+        null,
+        ctx -> blobStore.deleteDirectory(request).exceptionally(this::handleException));
+  }
+
   /** Closes the underlying async blob store and releases any resources. */
   @Override
   public void close() throws Exception {
@@ -484,9 +676,44 @@ public class AsyncBucketClient implements AutoCloseable {
 
   // ---- helpers ------------------------------------------------------------
 
+  /**
+   * Returns the span attributes of this client's bucket. The map is built once and reused; the
+   * bucket is still read on each call so a store whose bucket changes is reported correctly.
+   */
   private Map<String, String> bucketAttrs() {
     String b = blobStore.getBucket();
-    return b != null ? Map.of("bucket", b) : null;
+    if (b == null) {
+      return null;
+    }
+    Map<String, String> attrs = bucketAttributes;
+    if (attrs == null || !b.equals(attrs.get("bucket"))) {
+      attrs = Map.of("bucket", b);
+      bucketAttributes = attrs;
+    }
+    return attrs;
+  }
+
+  /** Records the payload bytes of {@code future}'s result once it completes successfully. */
+  private <T> CompletableFuture<T> recordingBytes(
+      CompletableFuture<T> future, String operationName, ToLongFunction<T> byteCount) {
+    return future.thenApply(
+        result -> {
+          multiCloudJLogger.recordBytes(
+              operationName, bucketAttrs(), byteCount.applyAsLong(result));
+          return result;
+        });
+  }
+
+  /** Size of a completed unranged download, or -1; see {@code BucketClient}. */
+  private static long downloadedBytes(DownloadRequest request, DownloadResponse response) {
+    if (response == null
+        || response.isNotModified()
+        || response.getMetadata() == null
+        || request.getStart() != null
+        || request.getEnd() != null) {
+      return -1;
+    }
+    return response.getMetadata().getObjectSize();
   }
 
   private static CompletableFuture<UploadResponse> uploadResponseWithCorrelationId(
@@ -513,6 +740,14 @@ public class AsyncBucketClient implements AutoCloseable {
     return future.thenApply(m -> withCorrelationId(m, ctx));
   }
 
+  private static CompletableFuture<MultiRangeDownloadResponse> multiRangeResponseWithCorrelationId(
+      CompletableFuture<MultiRangeDownloadResponse> future, OperationContext ctx) {
+    if (future == null) {
+      return CompletableFuture.completedFuture(null);
+    }
+    return future.thenApply(r -> withCorrelationId(r, ctx));
+  }
+
   private static CompletableFuture<CopyResponse> copyResponseWithCorrelationId(
       CompletableFuture<CopyResponse> future, OperationContext ctx) {
     if (future == null) {
@@ -548,6 +783,14 @@ public class AsyncBucketClient implements AutoCloseable {
     return m.toBuilder().correlationId(ctx.getCorrelationId()).build();
   }
 
+  private static MultiRangeDownloadResponse withCorrelationId(
+      MultiRangeDownloadResponse r, OperationContext ctx) {
+    if (r == null) {
+      return null;
+    }
+    return r.toBuilder().correlationId(ctx.getCorrelationId()).build();
+  }
+
   private static CopyResponse withCorrelationId(CopyResponse r, OperationContext ctx) {
     if (r == null) {
       return null;
@@ -2,10 +2,15 @@ package com.salesforce.multicloudj.blob.async.driver;
 
 import com.salesforce.multicloudj.blob.driver.BlobIdentifier;
 import com.salesforce.multicloudj.blob.driver.BlobMetadata;
+import com.salesforce.multicloudj.blob.driver.BlobPreconditions;
 import com.salesforce.multicloudj.blob.driver.BlobStoreValidator;
+import com.salesforce.multicloudj.blob.driver.BulkLookups;
 import com.salesforce.multicloudj.blob.driver.ByteArray;
+import com.salesforce.multicloudj.blob.driver.ByteRange;
 import com.salesforce.multicloudj.blob.driver.CopyRequest;
 import com.salesforce.multicloudj.blob.driver.CopyResponse;
+import com.salesforce.multicloudj.blob.driver.DirectoryDeleteRequest;
+import com.salesforce.multicloudj.blob.driver.DirectoryDeleter;
 import com.salesforce.multicloudj.blob.driver.DirectoryDownloadRequest;
 import com.salesforce.multicloudj.blob.driver.DirectoryDownloadResponse;
 import com.salesforce.multicloudj.blob.driver.DirectoryUploadRequest;
@@ -16,16 +21,22 @@ import com.salesforce.multicloudj.blob.driver.ListBlobsBatch;
 import com.salesforce.multicloudj.blob.driver.ListBlobsPageRequest;
 import com.salesforce.multicloudj.blob.driver.ListBlobsPageResponse;
 import com.salesforce.multicloudj.blob.driver.ListBlobsRequest;
+import com.salesforce.multicloudj.blob.driver.MultiRangeDownloadRequest;
+import com.salesforce.multicloudj.blob.driver.MultiRangeDownloadResponse;
 import com.salesforce.multicloudj.blob.driver.MultipartPart;
 import com.salesforce.multicloudj.blob.driver.MultipartUpload;
 import com.salesforce.multicloudj.blob.driver.MultipartUploadRequest;
 import com.salesforce.multicloudj.blob.driver.MultipartUploadResponse;
 import com.salesforce.multicloudj.blob.driver.PresignedUrlRequest;
 import com.salesforce.multicloudj.blob.driver.PresignedUrlResponse;
+import com.salesforce.multicloudj.blob.driver.PublisherInputStream;
+import com.salesforce.multicloudj.blob.driver.RangeCoalescer;
 import com.salesforce.multicloudj.blob.driver.UploadPartResponse;
 import com.salesforce.multicloudj.blob.driver.UploadRequest;
 import com.salesforce.multicloudj.blob.driver.UploadResponse;
 import com.salesforce.multicloudj.common.exceptions.InvalidArgumentException;
+import com.salesforce.multicloudj.common.exceptions.ResourceExhaustedException;
+import com.salesforce.multicloudj.common.exceptions.ResourceNotFoundException;
 import com.salesforce.multicloudj.common.exceptions.SubstrateSdkException;
 import com.salesforce.multicloudj.sts.model.CredentialsOverrider;
 import java.io.File;
@@ -33,13 +44,20 @@ import java.io.IOException;
 import java.io.InputStream;
 import java.io.OutputStream;
 import java.net.URL;
+import java.nio.ByteBuffer;
 import java.nio.file.Files;
 import java.nio.file.Path;
+import java.util.ArrayList;
 import java.util.Collection;
+import java.util.Collections;
 import java.util.List;
 import java.util.Map;
 import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Flow;
 import java.util.function.Consumer;
+import java.util.stream.Collectors;
 import lombok.Getter;
 
 /** Baseline blob store for async api calls. */
@@ -51,17 +69,34 @@ public abstract class AbstractAsyncBlobStore implements AsyncBlobStore {
   protected final CredentialsOverrider credentialsOverrider;
   protected final BlobStoreValidator validator;
 
+  /** Lookups a bulk {@code getMetadata} or {@code doesObjectExist} keeps in flight at once. */
+  protected final int maxBulkLookupConcurrency;
+
   protected AbstractAsyncBlobStore(
       String providerId,
       String bucket,
       String region,
       CredentialsOverrider credentialsOverrider,
       BlobStoreValidator validator) {
+    this(providerId, bucket, region, credentialsOverrider, validator, null);
+  }
+
+  protected AbstractAsyncBlobStore(
+      String providerId,
+      String bucket,
+      String region,
+      CredentialsOverrider credentialsOverrider,
+      BlobStoreValidator validator,
+      Integer maxBulkLookupConcurrency) {
     this.providerId = providerId;
     this.bucket = bucket;
     this.region = region;
     this.credentialsOverrider = credentialsOverrider;
     this.validator = validator;
+    this.maxBulkLookupConcurrency =
+        maxBulkLookupConcurrency == null
+            ? BulkLookups.DEFAULT_MAX_CONCURRENCY
+            : maxBulkLookupConcurrency;
   }
 
   /** {@inheritDoc} */
@@ -69,6 +104,7 @@ public abstract class AbstractAsyncBlobStore implements AsyncBlobStore {
   public CompletableFuture<UploadResponse> upload(
       UploadRequest uploadRequest, InputStream inputStream) {
     validator.validate(uploadRequest);
+    rejectCompression(uploadRequest);
     return doUpload(uploadRequest, inputStream);
   }
 
@@ -76,6 +112,7 @@ public abstract class AbstractAsyncBlobStore implements AsyncBlobStore {
   @Override
   public CompletableFuture<UploadResponse> upload(UploadRequest uploadRequest, byte[] content) {
     validator.validate(uploadRequest);
+    rejectCompression(uploadRequest);
     return doUpload(uploadRequest, content);
   }
 
@@ -83,6 +120,7 @@ public abstract class AbstractAsyncBlobStore implements AsyncBlobStore {
   @Override
   public CompletableFuture<UploadResponse> upload(UploadRequest uploadRequest, File file) {
     validator.validate(uploadRequest);
+    rejectCompression(uploadRequest);
     return doUpload(uploadRequest, file);
   }
 
@@ -90,14 +128,25 @@ public abstract class AbstractAsyncBlobStore implements AsyncBlobStore {
   @Override
   public CompletableFuture<UploadResponse> upload(UploadRequest uploadRequest, Path path) {
     validator.validate(uploadRequest);
+    rejectCompression(uploadRequest);
     return doUpload(uploadRequest, path);
   }
 
+  /** {@inheritDoc} */
+  @Override
+  public CompletableFuture<UploadResponse> upload(
+      UploadRequest uploadRequest, Flow.Publisher<ByteBuffer> publisher) {
+    validator.validate(uploadRequest);
+    rejectCompression(uploadRequest);
+    return doUpload(uploadRequest, publisher);
+  }
+
   /** {@inheritDoc} */
   @Override
   public CompletableFuture<DownloadResponse> download(
       DownloadRequest downloadRequest, OutputStream outputStream) {
     validator.validate(downloadRequest);
+    rejectDecompression(downloadRequest);
     return doDownload(downloadRequest, outputStream);
   }
 
@@ -106,6 +155,7 @@ public abstract class AbstractAsyncBlobStore implements AsyncBlobStore {
   public CompletableFuture<DownloadResponse> download(
       DownloadRequest downloadRequest, ByteArray byteArray) {
     validator.validate(downloadRequest);
+    rejectDecompression(downloadRequest);
     return doDownload(downloadRequest, byteArray);
   }
 
@@ -113,6 +163,7 @@ public abstract class AbstractAsyncBlobStore implements AsyncBlobStore {
   @Override
   public CompletableFuture<DownloadResponse> download(DownloadRequest downloadRequest, File file) {
     validator.validate(downloadRequest);
+    rejectDecompression(downloadRequest);
     return doDownload(downloadRequest, file);
   }
 
@@ -120,6 +171,7 @@ public abstract class AbstractAsyncBlobStore implements AsyncBlobStore {
   @Override
   public CompletableFuture<DownloadResponse> download(DownloadRequest downloadRequest, Path path) {
     validator.validate(downloadRequest);
+    rejectDecompression(downloadRequest);
     return doDownload(downloadRequest, path);
   }
 
@@ -127,9 +179,18 @@ public abstract class AbstractAsyncBlobStore implements AsyncBlobStore {
   @Override
   public CompletableFuture<DownloadResponse> download(DownloadRequest downloadRequest) {
     validator.validate(downloadRequest);
+    rejectDecompression(downloadRequest);
     return doDownload(downloadRequest);
   }
 
+  /** {@inheritDoc} */
+  @Override
+  public CompletableFuture<MultiRangeDownloadResponse> downloadRanges(
+      MultiRangeDownloadRequest request) {
+    validator.validate(request);
+    return doDownloadRanges(request);
+  }
+
   /** {@inheritDoc} */
   @Override
   public CompletableFuture<Void> delete(String key, String versionId) {
@@ -158,6 +219,28 @@ public abstract class AbstractAsyncBlobStore implements AsyncBlobStore {
     return doGetMetadata(key, versionId);
   }
 
+  /**
+   * {@inheritDoc}
+   *
+   * <p>The preconditions are evaluated against an ordinary metadata lookup: a metadata request
+   * transfers no content, so sending them to the store would save nothing.
+   */
+  @Override
+  public CompletableFuture<BlobMetadata> getMetadata(
+      String key, String versionId, BlobPreconditions preconditions) {
+    validator.validateKey(key);
+    CompletableFuture<BlobMetadata> metadata = doGetMetadata(key, versionId);
+    return preconditions != null ? metadata.thenApply(preconditions::evaluate) : metadata;
+  }
+
+  /** {@inheritDoc} */
+  @Override
+  public CompletableFuture<Map<BlobIdentifier, BlobMetadata>> getMetadata(
+      Collection<BlobIdentifier> objects) {
+    validator.validateBlobIdentifiers(objects);
+    return doGetMetadata(objects);
+  }
+
   /** {@inheritDoc} */
   @Override
   public CompletableFuture<Void> list(ListBlobsRequest request, Consumer<ListBlobsBatch> consumer) {
@@ -167,6 +250,7 @@ public abstract class AbstractAsyncBlobStore implements AsyncBlobStore {
   /** {@inheritDoc} */
   @Override
   public CompletableFuture<ListBlobsPageResponse> listPage(ListBlobsPageRequest request) {
+    validator.validate(request);
     return doListPage(request);
   }
 
@@ -243,6 +327,14 @@ public abstract class AbstractAsyncBlobStore implements AsyncBlobStore {
     return doDoesObjectExist(key, versionId);
   }
 
+  /** {@inheritDoc} */
+  @Override
+  public CompletableFuture<Map<BlobIdentifier, Boolean>> doesObjectExist(
+      Collection<BlobIdentifier> objects) {
+    validator.validateBlobIdentifiers(objects);
+    return doDoesObjectExist(objects);
+  }
+
   /** {@inheritDoc} */
   @Override
   public CompletableFuture<Boolean> doesBucketExist() {
@@ -269,6 +361,33 @@ public abstract class AbstractAsyncBlobStore implements AsyncBlobStore {
     return doDeleteDirectory(prefix);
   }
 
+  /** {@inheritDoc} */
+  @Override
+  public CompletableFuture<Void> deleteDirectory(DirectoryDeleteRequest request) {
+    validator.validate(request);
+    return doDeleteDirectory(request);
+  }
+
+  /**
+   * Client-side compression is implemented by the sync {@code AbstractBlobStore} only, which
+   * async stores built on {@link BlobStoreAsyncBridge} inherit. Native async stores reject it
+   * rather than store the content uncompressed.
+   */
+  private static void rejectCompression(UploadRequest uploadRequest) {
+    if (uploadRequest.getCompression() != null) {
+      throw new InvalidArgumentException(
+          "Client-side compression is not supported by this async store; use the sync client");
+    }
+  }
+
+  /** Rejects decompressing downloads, for the same reason as {@link #rejectCompression}. */
+  private static void rejectDecompression(DownloadRequest downloadRequest) {
+    if (downloadRequest.isDecompress()) {
+      throw new InvalidArgumentException(
+          "Decompressing downloads are not supported by this async store; use the sync client");
+    }
+  }
+
   protected abstract CompletableFuture<UploadResponse> doUpload(
       UploadRequest uploadRequest, InputStream inputStream);
 
@@ -281,6 +400,16 @@ public abstract class AbstractAsyncBlobStore implements AsyncBlobStore {
   protected abstract CompletableFuture<UploadResponse> doUpload(
       UploadRequest uploadRequest, Path path);
 
+  /**
+   * Provider hook for {@link #upload(UploadRequest, Flow.Publisher)}. The default implementation
+   * reads the publisher through a {@link PublisherInputStream} and hands it to {@link
+   * #doUpload(UploadRequest, InputStream)}; substrates whose SDK accepts a publisher override this.
+   */
+  protected CompletableFuture<UploadResponse> doUpload(
+      UploadRequest uploadRequest, Flow.Publisher<ByteBuffer> publisher) {
+    return doUpload(uploadRequest, new PublisherInputStream(publisher));
+  }
+
   protected abstract CompletableFuture<DownloadResponse> doDownload(
       DownloadRequest request, OutputStream outputStream);
 
@@ -295,6 +424,32 @@ public abstract class AbstractAsyncBlobStore implements AsyncBlobStore {
 
   protected abstract CompletableFuture<DownloadResponse> doDownload(DownloadRequest request);
 
+  /**
+   * Provider hook for {@link #downloadRanges(MultiRangeDownloadRequest)}. The default
+   * implementation coalesces the ranges with {@link RangeCoalescer} and issues one ranged {@link
+   * #doDownload(DownloadRequest, ByteArray)} per span, all concurrently.
+   */
+  protected CompletableFuture<MultiRangeDownloadResponse> doDownloadRanges(
+      MultiRangeDownloadRequest request) {
+    List<ByteRange> spans = RangeCoalescer.plan(request);
+    List<CompletableFuture<byte[]>> fetches =
+        spans.stream()
+            .map(
+                span -> {
+                  ByteArray bytes = new ByteArray();
+                  return doDownload(RangeCoalescer.toDownloadRequest(request, span), bytes)
+                      .thenApply(response -> bytes.getBytes());
+                })
+            .collect(Collectors.toList());
+    return CompletableFuture.allOf(fetches.toArray(new CompletableFuture<?>[0]))
+        .thenApply(
+            ignored ->
+                RangeCoalescer.slice(
+                    request,
+                    spans,
+                    fetches.stream().map(CompletableFuture::join).collect(Collectors.toList())));
+  }
+
   protected abstract CompletableFuture<Void> doDelete(String key, String versionId);
 
   protected abstract CompletableFuture<Void> doDelete(Collection<BlobIdentifier> objects);
@@ -303,6 +458,39 @@ public abstract class AbstractAsyncBlobStore implements AsyncBlobStore {
 
   protected abstract CompletableFuture<BlobMetadata> doGetMetadata(String key, String versionId);
 
+  /**
+   * Provider hook for {@link #getMetadata(Collection)}. The default implementation keeps at most
+   * {@link #maxBulkLookupConcurrency} {@link #doGetMetadata(String, String)} calls in flight.
+   * Failures that {@link #mapException} maps to {@link ResourceNotFoundException} become null
+   * entries; any other failure fails the returned future.
+   */
+  protected CompletableFuture<Map<BlobIdentifier, BlobMetadata>> doGetMetadata(
+      Collection<BlobIdentifier> objects) {
+    BulkLookups.Plan plan = BulkLookups.plan(objects, false);
+    Map<BlobIdentifier, BlobMetadata> found = new ConcurrentHashMap<>();
+    return BulkLookups.forEachAsync(
+            plan.getIndividual(),
+            maxBulkLookupConcurrency,
+            object ->
+                doGetMetadata(object.getKey(), object.getVersionId())
+                    .handle(
+                        (metadata, failure) -> {
+                          if (failure == null) {
+                            found.put(object, metadata);
+                            return null;
+                          }
+                          Throwable cause =
+                              failure instanceof CompletionException ? failure.getCause() : failure;
+                          if (mapException(cause) instanceof ResourceNotFoundException) {
+                            return null;
+                          }
+                          throw failure instanceof CompletionException
+                              ? (CompletionException) failure
+                              : new CompletionException(failure);
+                        }))
+        .thenApply(ignored -> plan.toResult(found));
+  }
+
   protected abstract CompletableFuture<Void> doList(
       ListBlobsRequest request, Consumer<ListBlobsBatch> consumer);
 
@@ -331,6 +519,36 @@ public abstract class AbstractAsyncBlobStore implements AsyncBlobStore {
 
   protected abstract CompletableFuture<Boolean> doDoesObjectExist(String key, String versionId);
 
+  /**
+   * Provider hook for {@link #doesObjectExist(Collection)}. The default implementation resolves
+   * groups of keys sharing a prefix with {@link #doListPage} as planned by {@link BulkLookups},
+   * then checks the remaining identifiers with {@link #doDoesObjectExist(String, String)}, keeping
+   * at most {@link #maxBulkLookupConcurrency} requests in flight in each phase.
+   */
+  protected CompletableFuture<Map<BlobIdentifier, Boolean>> doDoesObjectExist(
+      Collection<BlobIdentifier> objects) {
+    BulkLookups.Plan plan = BulkLookups.plan(objects, true);
+    Map<BlobIdentifier, Boolean> results = new ConcurrentHashMap<>();
+    List<BlobIdentifier> individual =
+        Collections.synchronizedList(new ArrayList<>(plan.getIndividual()));
+    return BulkLookups.forEachAsync(
+            plan.getGroups(),
+            maxBulkLookupConcurrency,
+            group ->
+                group
+                    .listAsync(this::doListPage)
+                    .thenRun(() -> individual.addAll(group.resolve(results))))
+        .thenCompose(
+            ignored ->
+                BulkLookups.forEachAsync(
+                    individual,
+                    maxBulkLookupConcurrency,
+                    object ->
+                        doDoesObjectExist(object.getKey(), object.getVersionId())
+                            .thenAccept(exists -> results.put(object, exists))))
+        .thenApply(ignored -> plan.toResult(results));
+  }
+
   protected abstract CompletableFuture<Boolean> doDoesBucketExist();
 
   protected abstract CompletableFuture<DirectoryDownloadResponse> doDownloadDirectory(
@@ -339,7 +557,39 @@ public abstract class AbstractAsyncBlobStore implements AsyncBlobStore {
   protected abstract CompletableFuture<DirectoryUploadResponse> doUploadDirectory(
       DirectoryUploadRequest directoryUploadRequest);
 
-  protected abstract CompletableFuture<Void> doDeleteDirectory(String prefix);
+  protected CompletableFuture<Void> doDeleteDirectory(String prefix) {
+    return doDeleteDirectory(DirectoryDeleteRequest.builder().prefix(prefix).build());
+  }
+
+  /**
+   * Provider hook for {@link #deleteDirectory(DirectoryDeleteRequest)}.
+   *
+   * <p>The default pages through the prefix with {@link #doListPage} and deletes each page in
+   * batches with {@link #doDelete(Collection)} through a {@link DirectoryDeleter}, fetching the
+   * next page only while the deleters keep up. Batches that {@link #mapException} maps to {@link
+   * ResourceExhaustedException} are retried with backoff. The async stores cannot list versions,
+   * so with {@code includeVersions} the returned future fails with {@link
+   * UnsupportedOperationException}.
+   */
+  protected CompletableFuture<Void> doDeleteDirectory(DirectoryDeleteRequest request) {
+    if (request.isIncludeVersions()) {
+      return CompletableFuture.failedFuture(
+          new UnsupportedOperationException(
+              "Deleting directory versions is not supported by this substrate implementation"));
+    }
+    return new DirectoryDeleter(
+            e -> mapException(e) instanceof ResourceExhaustedException,
+            DirectoryDeleter.DEFAULT_MAX_CONCURRENCY,
+            request.getProgressListener())
+        .deleteAsync(
+            token ->
+                doListPage(
+                    ListBlobsPageRequest.builder()
+                        .withPrefix(request.getPrefix())
+                        .withPaginationToken(token)
+                        .build()),
+            this::doDelete);
+  }
 
   /**
    * Resolves the local download destination; when {@link DownloadRequest#isCreateParentPath()} is
@@ -2,9 +2,11 @@ package com.salesforce.multicloudj.blob.async.driver;
 
 import com.salesforce.multicloudj.blob.driver.BlobIdentifier;
 import com.salesforce.multicloudj.blob.driver.BlobMetadata;
+import com.salesforce.multicloudj.blob.driver.BlobPreconditions;
 import com.salesforce.multicloudj.blob.driver.ByteArray;
 import com.salesforce.multicloudj.blob.driver.CopyRequest;
 import com.salesforce.multicloudj.blob.driver.CopyResponse;
+import com.salesforce.multicloudj.blob.driver.DirectoryDeleteRequest;
 import com.salesforce.multicloudj.blob.driver.DirectoryDownloadRequest;
 import com.salesforce.multicloudj.blob.driver.DirectoryDownloadResponse;
 import com.salesforce.multicloudj.blob.driver.DirectoryUploadRequest;
@@ -15,6 +17,8 @@ import com.salesforce.multicloudj.blob.driver.ListBlobsBatch;
 import com.salesforce.multicloudj.blob.driver.ListBlobsPageRequest;
 import com.salesforce.multicloudj.blob.driver.ListBlobsPageResponse;
 import com.salesforce.multicloudj.blob.driver.ListBlobsRequest;
+import com.salesforce.multicloudj.blob.driver.MultiRangeDownloadRequest;
+import com.salesforce.multicloudj.blob.driver.MultiRangeDownloadResponse;
 import com.salesforce.multicloudj.blob.driver.MultipartPart;
 import com.salesforce.multicloudj.blob.driver.MultipartUpload;
 import com.salesforce.multicloudj.blob.driver.MultipartUploadRequest;
@@ -29,11 +33,13 @@ import java.io.File;
 import java.io.InputStream;
 import java.io.OutputStream;
 import java.net.URL;
+import java.nio.ByteBuffer;
 import java.nio.file.Path;
 import java.util.Collection;
 import java.util.List;
 import java.util.Map;
 import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Flow;
 import java.util.function.Consumer;
 
 /** API for async interaction with a backing blob storage engine. */
@@ -87,6 +93,17 @@ public interface AsyncBlobStore extends SdkService, AutoCloseable {
    */
   CompletableFuture<UploadResponse> upload(UploadRequest uploadRequest, Path path);
 
+  /**
+   * Performs args validation and passes the call to substrate-specific upload method. The content
+   * is streamed as the publisher emits it; set {@link UploadRequest#getContentLength()} when it is
+   * known, otherwise substrates stream it in chunks or parts.
+   *
+   * @param uploadRequest Wrapper, containing upload data
+   * @param publisher The publisher of the blob content
+   */
+  CompletableFuture<UploadResponse> upload(
+      UploadRequest uploadRequest, Flow.Publisher<ByteBuffer> publisher);
+
   /**
    * Downloads the Blob content from substrate-specific Blob storage
    *
@@ -136,6 +153,15 @@ public interface AsyncBlobStore extends SdkService, AutoCloseable {
    */
   CompletableFuture<DownloadResponse> download(DownloadRequest downloadRequest);
 
+  /**
+   * Reads several byte ranges of one blob. Nearby ranges are coalesced into fewer ranged GETs,
+   * which are fetched concurrently and sliced back into one buffer per requested range.
+   *
+   * @param request the key, ranges and coalescing limits
+   * @return one buffer per requested range, in request order
+   */
+  CompletableFuture<MultiRangeDownloadResponse> downloadRanges(MultiRangeDownloadRequest request);
+
   /**
    * Performs args validation and passes the call to substrate-specific delete method
    *
@@ -170,6 +196,29 @@ public interface AsyncBlobStore extends SdkService, AutoCloseable {
    */
   CompletableFuture<BlobMetadata> getMetadata(String key, String versionId);
 
+  /**
+   * Retrieves the metadata of the Blob if it has changed since the caller's copy.
+   *
+   * @param key Name of the Blob, whose metadata is to be retrieved
+   * @param versionId The versionId of the blob. This value should be null unless you're targeting
+   *     a specific key/version blob.
+   * @param preconditions revalidation preconditions; may be null
+   * @return Metadata of the Blob, flagged {@link BlobMetadata#isNotModified()} when the
+   *     preconditions find it unchanged
+   */
+  CompletableFuture<BlobMetadata> getMetadata(
+      String key, String versionId, BlobPreconditions preconditions);
+
+  /**
+   * Retrieves the metadata of many Blobs, issuing the lookups concurrently.
+   *
+   * @param objects the Blobs to look up
+   * @return a future of every distinct requested identifier, in request order, mapped to its
+   *     metadata, or to null if the Blob does not exist
+   */
+  CompletableFuture<Map<BlobIdentifier, BlobMetadata>> getMetadata(
+      Collection<BlobIdentifier> objects);
+
   /**
    * Retrieves the list of Blob in the bucket
    *
@@ -265,6 +314,17 @@ public interface AsyncBlobStore extends SdkService, AutoCloseable {
    */
   CompletableFuture<Boolean> doesObjectExist(String key, String versionId);
 
+  /**
+   * Determines which of many objects exist, issuing the checks concurrently. Unversioned keys that
+   * share a prefix may be resolved by listing it rather than one request per key.
+   *
+   * @param objects the objects to check
+   * @return a future of every distinct requested identifier, in request order, mapped to whether
+   *     it exists
+   */
+  CompletableFuture<Map<BlobIdentifier, Boolean>> doesObjectExist(
+      Collection<BlobIdentifier> objects);
+
   /**
    * Determines if the bucket exists
    *
@@ -296,4 +356,12 @@ public interface AsyncBlobStore extends SdkService, AutoCloseable {
    * @param prefix The prefix of blobs that should be deleted (e.g. the directory)
    */
   CompletableFuture<Void> deleteDirectory(String prefix);
+
+  /**
+   * Deletes the content from the substrate-specific Blob storage that contains the prefix,
+   * optionally with every noncurrent version, reporting progress as batches complete
+   *
+   * @param request Wrapper, containing directory delete data
+   */
+  CompletableFuture<Void> deleteDirectory(DirectoryDeleteRequest request);
 }
@@ -4,9 +4,12 @@ import com.salesforce.multicloudj.blob.driver.AbstractBlobStore;
 import com.salesforce.multicloudj.blob.driver.BlobIdentifier;
 import com.salesforce.multicloudj.blob.driver.BlobInfo;
 import com.salesforce.multicloudj.blob.driver.BlobMetadata;
+import com.salesforce.multicloudj.blob.driver.BlobPreconditions;
 import com.salesforce.multicloudj.blob.driver.ByteArray;
+import com.salesforce.multicloudj.blob.driver.ByteRange;
 import com.salesforce.multicloudj.blob.driver.CopyRequest;
 import com.salesforce.multicloudj.blob.driver.CopyResponse;
+import com.salesforce.multicloudj.blob.driver.DirectoryDeleteRequest;
 import com.salesforce.multicloudj.blob.driver.DirectoryDownloadRequest;
 import com.salesforce.multicloudj.blob.driver.DirectoryDownloadResponse;
 import com.salesforce.multicloudj.blob.driver.DirectoryUploadRequest;
@@ -17,12 +20,16 @@ import com.salesforce.multicloudj.blob.driver.ListBlobsBatch;
 import com.salesforce.multicloudj.blob.driver.ListBlobsPageRequest;
 import com.salesforce.multicloudj.blob.driver.ListBlobsPageResponse;
 import com.salesforce.multicloudj.blob.driver.ListBlobsRequest;
+import com.salesforce.multicloudj.blob.driver.MultiRangeDownloadRequest;
+import com.salesforce.multicloudj.blob.driver.MultiRangeDownloadResponse;
 import com.salesforce.multicloudj.blob.driver.MultipartPart;
 import com.salesforce.multicloudj.blob.driver.MultipartUpload;
 import com.salesforce.multicloudj.blob.driver.MultipartUploadRequest;
 import com.salesforce.multicloudj.blob.driver.MultipartUploadResponse;
 import com.salesforce.multicloudj.blob.driver.PresignedUrlRequest;
 import com.salesforce.multicloudj.blob.driver.PresignedUrlResponse;
+import com.salesforce.multicloudj.blob.driver.PublisherInputStream;
+import com.salesforce.multicloudj.blob.driver.RangeCoalescer;
 import com.salesforce.multicloudj.blob.driver.UploadPartResponse;
 import com.salesforce.multicloudj.blob.driver.UploadRequest;
 import com.salesforce.multicloudj.blob.driver.UploadResponse;
@@ -31,6 +38,7 @@ import java.io.File;
 import java.io.InputStream;
 import java.io.OutputStream;
 import java.net.URL;
+import java.nio.ByteBuffer;
 import java.nio.file.Path;
 import java.util.ArrayList;
 import java.util.Collection;
@@ -39,6 +47,7 @@ import java.util.List;
 import java.util.Map;
 import java.util.concurrent.CompletableFuture;
 import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Flow;
 import java.util.concurrent.ForkJoinPool;
 import java.util.function.Consumer;
 import lombok.Getter;
@@ -108,6 +117,14 @@ public class BlobStoreAsyncBridge implements AsyncBlobStore {
         () -> blobStore.upload(uploadRequest, path), executorService);
   }
 
+  @Override
+  public CompletableFuture<UploadResponse> upload(
+      UploadRequest uploadRequest, Flow.Publisher<ByteBuffer> publisher) {
+    return CompletableFuture.supplyAsync(
+        () -> blobStore.upload(uploadRequest, new PublisherInputStream(publisher)),
+        executorService);
+  }
+
   @Override
   public CompletableFuture<DownloadResponse> download(
       DownloadRequest downloadRequest, OutputStream outputStream) {
@@ -140,6 +157,44 @@ public class BlobStoreAsyncBridge implements AsyncBlobStore {
         () -> blobStore.download(downloadRequest), executorService);
   }
 
+  /**
+   * Fans the coalesced spans out as separate tasks on the executor rather than delegating to the
+   * wrapped store's {@code downloadRanges}, so no executor thread blocks waiting on the others.
+   */
+  @Override
+  public CompletableFuture<MultiRangeDownloadResponse> downloadRanges(
+      MultiRangeDownloadRequest request) {
+    return CompletableFuture.supplyAsync(
+            () -> {
+              blobStore.getValidator().validate(request);
+              return RangeCoalescer.plan(request);
+            },
+            executorService)
+        .thenCompose(spans -> fetchRanges(request, spans));
+  }
+
+  private CompletableFuture<MultiRangeDownloadResponse> fetchRanges(
+      MultiRangeDownloadRequest request, List<ByteRange> spans) {
+    List<CompletableFuture<byte[]>> fetches = new ArrayList<>(spans.size());
+    for (ByteRange span : spans) {
+      fetches.add(
+          CompletableFuture.supplyAsync(
+              () -> {
+                ByteArray bytes = new ByteArray();
+                blobStore.download(RangeCoalescer.toDownloadRequest(request, span), bytes);
+                return bytes.getBytes();
+              },
+              executorService));
+    }
+    return CompletableFuture.allOf(fetches.toArray(new CompletableFuture<?>[0]))
+        .thenApply(
+            ignored -> {
+              List<byte[]> spanBytes = new ArrayList<>(fetches.size());
+              fetches.forEach(fetch -> spanBytes.add(fetch.join()));
+              return RangeCoalescer.slice(request, spans, spanBytes);
+            });
+  }
+
   @Override
   public CompletableFuture<Void> delete(String key, String versionId) {
     return CompletableFuture.runAsync(() -> blobStore.delete(key, versionId), executorService);
@@ -161,6 +216,19 @@ public class BlobStoreAsyncBridge implements AsyncBlobStore {
         () -> blobStore.getMetadata(key, versionId), executorService);
   }
 
+  @Override
+  public CompletableFuture<BlobMetadata> getMetadata(
+      String key, String versionId, BlobPreconditions preconditions) {
+    return CompletableFuture.supplyAsync(
+        () -> blobStore.getMetadata(key, versionId, preconditions), executorService);
+  }
+
+  @Override
+  public CompletableFuture<Map<BlobIdentifier, BlobMetadata>> getMetadata(
+      Collection<BlobIdentifier> objects) {
+    return CompletableFuture.supplyAsync(() -> blobStore.getMetadata(objects), executorService);
+  }
+
   @Override
   public CompletableFuture<Void> list(ListBlobsRequest request, Consumer<ListBlobsBatch> consumer) {
     return CompletableFuture.runAsync(
@@ -247,6 +315,13 @@ public class BlobStoreAsyncBridge implements AsyncBlobStore {
         () -> blobStore.doesObjectExist(key, versionId), executorService);
   }
 
+  @Override
+  public CompletableFuture<Map<BlobIdentifier, Boolean>> doesObjectExist(
+      Collection<BlobIdentifier> objects) {
+    return CompletableFuture.supplyAsync(
+        () -> blobStore.doesObjectExist(objects), executorService);
+  }
+
   @Override
   public CompletableFuture<Boolean> doesBucketExist() {
     return CompletableFuture.supplyAsync(() -> blobStore.doesBucketExist(), executorService);
@@ -276,6 +351,11 @@ public class BlobStoreAsyncBridge implements AsyncBlobStore {
     return CompletableFuture.runAsync(() -> blobStore.deleteDirectory(prefix), executorService);
   }
 
+  @Override
+  public CompletableFuture<Void> deleteDirectory(DirectoryDeleteRequest request) {
+    return CompletableFuture.runAsync(() -> blobStore.deleteDirectory(request), executorService);
+  }
+
   /** Closes the wrapped blob store and releases any resources. */
   @Override
   public void close() throws Exception {
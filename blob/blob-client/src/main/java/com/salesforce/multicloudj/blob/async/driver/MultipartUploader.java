@@ -0,0 +1,405 @@
+package com.salesforce.multicloudj.blob.async.driver;
+
+import com.salesforce.multicloudj.blob.driver.MultipartPart;
+import com.salesforce.multicloudj.blob.driver.MultipartUpload;
+import com.salesforce.multicloudj.blob.driver.MultipartUploadRequest;
+import com.salesforce.multicloudj.blob.driver.MultipartUploadResponse;
+import com.salesforce.multicloudj.blob.driver.UploadPartResponse;
+import com.salesforce.multicloudj.common.exceptions.InvalidArgumentException;
+import com.salesforce.multicloudj.common.exceptions.SubstrateSdkException;
+import java.nio.ByteBuffer;
+import java.time.Duration;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.Deque;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Flow;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Predicate;
+
+/**
+ * Uploads the content of a publisher as a multipart upload without blocking a thread on it.
+ *
+ * <p>The content is cut into parts of {@code partSize} bytes as the publisher emits it, and each
+ * part is uploaded as soon as it is full while the next one fills. The publisher is asked for more
+ * only while the parts in flight plus the part being filled stay within {@code maxInFlightBytes},
+ * so memory stays bounded however large the content is; a single emitted buffer may overshoot the
+ * limit by its own size. A part whose failure the store maps to a {@link
+ * SubstrateSdkException#isRetryable() retryable} exception is retried up to {@code maxAttempts}
+ * times with exponential backoff. Once every part is uploaded the upload is completed; if the
+ * publisher, a part or the completion fails, the publisher is cancelled, the parts in flight are
+ * let finish, and the upload is aborted so no orphaned parts are left behind.
+ *
+ * <p>Every call goes through the {@link AsyncBlobStore} multipart methods, so the engine is as
+ * non-blocking as the store: stores on a native async client drive any number of uploads from
+ * their event loop threads.
+ */
+public final class MultipartUploader {
+
+  /** Bytes per part when no part size is given. */
+  public static final long DEFAULT_PART_SIZE = 8L * 1024 * 1024;
+
+  /** Bytes buffered in parts being filled or uploaded when no limit is given. */
+  public static final long DEFAULT_MAX_IN_FLIGHT_BYTES = 8 * DEFAULT_PART_SIZE;
+
+  /** Attempts per part, the first included, when no number is given. */
+  public static final int DEFAULT_MAX_ATTEMPTS = 3;
+
+  /** Parts a multipart upload may have on S3, GCS and OSS. */
+  public static final int MAX_PARTS = 10_000;
+
+  /** Largest part size: a part is buffered in one array. */
+  public static final long MAX_PART_SIZE = 2047L * 1024 * 1024;
+
+  static final Duration DEFAULT_INITIAL_BACKOFF = Duration.ofMillis(200);
+
+  private static final long MAX_BACKOFF_MILLIS = Duration.ofSeconds(10).toMillis();
+
+  private final AsyncBlobStore store;
+  private final int partSize;
+  private final long maxInFlightBytes;
+  private final int maxAttempts;
+  private final Predicate<Throwable> retryable;
+  private final long initialBackoffMillis;
+
+  /** Creates an uploader with the default part size, in-flight limit and attempts. */
+  public MultipartUploader(AsyncBlobStore store) {
+    this(store, DEFAULT_PART_SIZE, DEFAULT_MAX_IN_FLIGHT_BYTES, DEFAULT_MAX_ATTEMPTS);
+  }
+
+  /**
+   * @param store the store to upload to
+   * @param partSize the size of every part but the last
+   * @param maxInFlightBytes the bytes buffered at most, at least {@code partSize}
+   * @param maxAttempts the attempts per part, the first included
+   */
+  public MultipartUploader(
+      AsyncBlobStore store, long partSize, long maxInFlightBytes, int maxAttempts) {
+    this(
+        store,
+        partSize,
+        maxInFlightBytes,
+        maxAttempts,
+        e -> store.mapException(e).isRetryable(),
+        DEFAULT_INITIAL_BACKOFF);
+  }
+
+  MultipartUploader(
+      AsyncBlobStore store,
+      long partSize,
+      long maxInFlightBytes,
+      int maxAttempts,
+      Predicate<Throwable> retryable,
+      Duration initialBackoff) {
+    if (partSize <= 0 || partSize > MAX_PART_SIZE) {
+      throw new InvalidArgumentException(
+          "Part size must be between 1 and " + MAX_PART_SIZE + " bytes: " + partSize);
+    }
+    if (maxInFlightBytes < partSize) {
+      throw new InvalidArgumentException(
+          "In-flight bytes must be at least the part size: " + maxInFlightBytes);
+    }
+    this.store = store;
+    this.partSize = (int) partSize;
+    this.maxInFlightBytes = maxInFlightBytes;
+    this.maxAttempts = Math.max(1, maxAttempts);
+    this.retryable = retryable;
+    this.initialBackoffMillis = initialBackoff.toMillis();
+  }
+
+  /**
+   * Uploads everything {@code source} emits as the object described by {@code request}. Empty
+   * content is uploaded as a single empty part.
+   *
+   * @return completes with the completed upload, or with the first failure once the upload has
+   *     been aborted
+   */
+  public CompletableFuture<MultipartUploadResponse> upload(
+      MultipartUploadRequest request, Flow.Publisher<ByteBuffer> source) {
+    CompletableFuture<MultipartUpload> initiated;
+    try {
+      initiated = store.initiateMultipartUpload(request);
+    } catch (RuntimeException e) {
+      initiated = CompletableFuture.failedFuture(e);
+    }
+    return initiated.thenCompose(mpu -> new Run(mpu).start(source));
+  }
+
+  /** Exponential backoff with jitter over the upper half of the interval. */
+  long backoffMillis(int attempt) {
+    long ceiling = Math.min(MAX_BACKOFF_MILLIS, initialBackoffMillis << Math.min(attempt - 1, 20));
+    return ceiling / 2 + ThreadLocalRandom.current().nextLong(ceiling / 2 + 1);
+  }
+
+  private static Throwable unwrap(Throwable t) {
+    while ((t instanceof CompletionException || t instanceof ExecutionException)
+        && t.getCause() != null) {
+      t = t.getCause();
+    }
+    return t;
+  }
+
+  /** A full part waiting to be uploaded. */
+  private static final class Part {
+    private final int number;
+    private final byte[] content;
+
+    private Part(int number, byte[] content) {
+      this.number = number;
+      this.content = content;
+    }
+  }
+
+  /** State of one upload. Guarded by its own monitor, except for {@code wip}. */
+  private final class Run implements Flow.Subscriber<ByteBuffer> {
+    private final MultipartUpload mpu;
+    private final CompletableFuture<MultipartUploadResponse> done = new CompletableFuture<>();
+    private final Deque<Part> ready = new ArrayDeque<>();
+    private final List<UploadPartResponse> uploaded = new ArrayList<>();
+    // Serializes step() and turns signals that arrive during a step into another pass of the
+    // loop rather than a nested call, so synchronously completing stores do not recurse.
+    private final AtomicInteger wip = new AtomicInteger();
+    private Flow.Subscription subscription;
+    private byte[] filling;
+    private int filled;
+    private int nextPartNumber = 1;
+    private long inFlightBytes;
+    private int inFlight;
+    private boolean requested;
+    private boolean sourceDone;
+    private boolean cancelled;
+    private boolean finished;
+    private Throwable failure;
+
+    Run(MultipartUpload mpu) {
+      this.mpu = mpu;
+    }
+
+    CompletableFuture<MultipartUploadResponse> start(Flow.Publisher<ByteBuffer> source) {
+      try {
+        source.subscribe(this);
+      } catch (RuntimeException e) {
+        onError(e);
+      }
+      return done;
+    }
+
+    @Override
+    public void onSubscribe(Flow.Subscription subscription) {
+      synchronized (this) {
+        if (this.subscription != null) {
+          subscription.cancel();
+          return;
+        }
+        this.subscription = subscription;
+      }
+      schedule();
+    }
+
+    @Override
+    public void onNext(ByteBuffer item) {
+      synchronized (this) {
+        requested = false;
+        if (failure != null) {
+          return;
+        }
+        while (item.hasRemaining()) {
+          if (filling == null) {
+            filling = new byte[partSize];
+            inFlightBytes += partSize;
+          }
+          int length = Math.min(item.remaining(), partSize - filled);
+          item.get(filling, filled, length);
+          filled += length;
+          if (filled == partSize) {
+            seal();
+          }
+        }
+      }
+      schedule();
+    }
+
+    @Override
+    public void onError(Throwable throwable) {
+      synchronized (this) {
+        requested = false;
+        sourceDone = true;
+        if (failure == null) {
+          failure = throwable;
+        }
+      }
+      schedule();
+    }
+
+    @Override
+    public void onComplete() {
+      synchronized (this) {
+        requested = false;
+        sourceDone = true;
+        if (filled > 0 || nextPartNumber == 1) {
+          seal();
+        }
+      }
+      schedule();
+    }
+
+    /** Moves the part being filled to the ready queue. Called with the monitor held. */
+    private void seal() {
+      byte[] content = filling == null ? new byte[0] : filling;
+      if (filled < content.length) {
+        inFlightBytes -= content.length - filled;
+        content = Arrays.copyOf(content, filled);
+      }
+      if (nextPartNumber > MAX_PARTS) {
+        failure =
+            new InvalidArgumentException(
+                "Content exceeds " + MAX_PARTS + " parts of " + partSize + " bytes");
+        inFlightBytes -= content.length;
+      } else {
+        ready.add(new Part(nextPartNumber++, content));
+      }
+      filling = null;
+      filled = 0;
+    }
+
+    private void schedule() {
+      if (wip.getAndIncrement() != 0) {
+        return;
+      }
+      do {
+        step();
+      } while (wip.decrementAndGet() != 0);
+    }
+
+    private void step() {
+      List<Part> toUpload = new ArrayList<>();
+      List<UploadPartResponse> toComplete = null;
+      Flow.Subscription toCancel = null;
+      Flow.Subscription toRequest = null;
+      Throwable failed = null;
+      synchronized (this) {
+        if (finished) {
+          return;
+        }
+        if (failure != null) {
+          if (!sourceDone && !cancelled && subscription != null) {
+            cancelled = true;
+            toCancel = subscription;
+          }
+          if (inFlight == 0) {
+            finished = true;
+            failed = failure;
+          }
+        } else {
+          while (!ready.isEmpty()) {
+            toUpload.add(ready.poll());
+            inFlight++;
+          }
+          if (sourceDone) {
+            if (inFlight == 0) {
+              finished = true;
+              toComplete = new ArrayList<>(uploaded);
+            }
+          } else if (subscription != null
+              && !requested
+              && (filling != null || inFlightBytes + partSize <= maxInFlightBytes)) {
+            requested = true;
+            toRequest = subscription;
+          }
+        }
+      }
+      if (toCancel != null) {
+        toCancel.cancel();
+      }
+      if (failed != null) {
+        abort(failed);
+        return;
+      }
+      if (toComplete != null) {
+        complete(toComplete);
+        return;
+      }
+      for (Part part : toUpload) {
+        startPart(part, 1);
+      }
+      if (toRequest != null) {
+        toRequest.request(1);
+      }
+    }
+
+    private void startPart(Part part, int attempt) {
+      CompletableFuture<UploadPartResponse> upload;
+      try {
+        upload = store.uploadMultipartPart(mpu, new MultipartPart(part.number, part.content));
+      } catch (RuntimeException e) {
+        upload = CompletableFuture.failedFuture(e);
+      }
+      upload.whenComplete(
+          (response, error) -> {
+            Throwable cause = error != null ? unwrap(error) : null;
+            if (cause != null && attempt < maxAttempts && retryable.test(cause)) {
+              synchronized (this) {
+                if (failure == null) {
+                  CompletableFuture.delayedExecutor(backoffMillis(attempt), TimeUnit.MILLISECONDS)
+                      .execute(() -> startPart(part, attempt + 1));
+                  return;
+                }
+              }
+            }
+            synchronized (this) {
+              inFlight--;
+              inFlightBytes -= part.content.length;
+              if (cause != null) {
+                if (failure == null) {
+                  failure = cause;
+                }
+              } else {
+                uploaded.add(response);
+              }
+            }
+            schedule();
+          });
+    }
+
+    private void complete(List<UploadPartResponse> parts) {
+      parts.sort(Comparator.comparingInt(UploadPartResponse::getPartNumber));
+      CompletableFuture<MultipartUploadResponse> completion;
+      try {
+        completion = store.completeMultipartUpload(mpu, parts);
+      } catch (RuntimeException e) {
+        completion = CompletableFuture.failedFuture(e);
+      }
+      completion.whenComplete(
+          (response, error) -> {
+            if (error != null) {
+              abort(unwrap(error));
+            } else {
+              done.complete(response);
+            }
+          });
+    }
+
+    private void abort(Throwable cause) {
+      CompletableFuture<Void> abort;
+      try {
+        abort = store.abortMultipartUpload(mpu);
+      } catch (RuntimeException e) {
+        abort = CompletableFuture.failedFuture(e);
+      }
+      abort.whenComplete(
+          (ignored, error) -> {
+            if (error != null && unwrap(error) != cause) {
+              cause.addSuppressed(unwrap(error));
+            }
+            done.completeExceptionally(cause);
+          });
+    }
+  }
+}
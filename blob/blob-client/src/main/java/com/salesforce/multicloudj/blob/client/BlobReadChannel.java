@@ -0,0 +1,184 @@
+package com.salesforce.multicloudj.blob.client;
+
+import com.salesforce.multicloudj.blob.driver.ReadChannelOptions;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.ClosedChannelException;
+import java.nio.channels.NonWritableChannelException;
+import java.nio.channels.SeekableByteChannel;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * Read-only {@link SeekableByteChannel} over a single blob version, backed by ranged GETs.
+ *
+ * <p>See {@link ReadChannelOptions} for the block, read-ahead and cache model. All methods are
+ * synchronized; the channel keeps a single position like any other {@link SeekableByteChannel}.
+ */
+final class BlobReadChannel implements SeekableByteChannel {
+
+  /** Fetches the inclusive byte range {@code [start, end]} of the object. */
+  @FunctionalInterface
+  interface RangeReader {
+    byte[] read(long start, long end);
+  }
+
+  private final long size;
+  private final int blockSize;
+  private final int initialReadAhead;
+  private final int maxReadAhead;
+  private final RangeReader reader;
+  private final Map<Long, byte[]> cache;
+
+  private long position;
+  private long lastReadEnd = -1;
+  private int readAhead;
+  private int fetchCount;
+  private boolean open = true;
+
+  BlobReadChannel(long size, ReadChannelOptions options, RangeReader reader) {
+    int cacheBlocks = Math.max(1, options.getCacheBlocks());
+    this.size = size;
+    this.blockSize = options.getBlockSizeInBytes();
+    this.initialReadAhead = Math.max(1, Math.min(options.getInitialReadAheadBlocks(), cacheBlocks));
+    this.maxReadAhead = Math.max(initialReadAhead, Math.min(options.getMaxReadAheadBlocks(),
+        cacheBlocks));
+    this.readAhead = initialReadAhead;
+    this.reader = reader;
+    this.cache =
+        new LinkedHashMap<>(16, 0.75f, true) {
+          @Override
+          protected boolean removeEldestEntry(Map.Entry<Long, byte[]> eldest) {
+            return size() > cacheBlocks;
+          }
+        };
+  }
+
+  @Override
+  public synchronized int read(ByteBuffer dst) throws IOException {
+    ensureOpen();
+    if (position >= size) {
+      return -1;
+    }
+    if (!dst.hasRemaining()) {
+      return 0;
+    }
+    if (position == lastReadEnd) {
+      readAhead = Math.min(maxReadAhead, readAhead * 2);
+    } else if (lastReadEnd >= 0) {
+      readAhead = initialReadAhead;
+    }
+
+    long lastNeededBlock = (Math.min(size, position + dst.remaining()) - 1) / blockSize;
+    int total = 0;
+    while (dst.hasRemaining() && position < size) {
+      long block = position / blockSize;
+      byte[] data = cache.get(block);
+      if (data == null) {
+        data = fetch(block, lastNeededBlock);
+      }
+      int offset = (int) (position - block * blockSize);
+      int n = Math.min(dst.remaining(), data.length - offset);
+      dst.put(data, offset, n);
+      position += n;
+      total += n;
+    }
+    lastReadEnd = position;
+    return total;
+  }
+
+  /**
+   * Fetches {@code first} and every block up to the read-ahead horizon in one ranged GET,
+   * coalescing the missing blocks of the current read with the read-ahead. Trailing blocks that
+   * are already cached are trimmed from the request.
+   *
+   * @return the bytes of block {@code first}
+   */
+  private byte[] fetch(long first, long lastNeededBlock) {
+    long lastBlock = (size - 1) / blockSize;
+    long last = Math.min(lastBlock, Math.max(lastNeededBlock, first + readAhead - 1));
+    last = Math.min(last, first + maxReadAhead - 1);
+    while (last > first && cache.containsKey(last)) {
+      last--;
+    }
+    long start = first * blockSize;
+    long end = Math.min(size, (last + 1) * blockSize) - 1;
+    byte[] bytes = reader.read(start, end);
+    fetchCount++;
+    if (bytes.length != end - start + 1) {
+      throw new IllegalStateException(
+          String.format(
+              "Ranged read returned %d bytes, expected %d", bytes.length, end - start + 1));
+    }
+
+    byte[] firstBlock = null;
+    for (long block = first; block <= last; block++) {
+      int from = (int) ((block - first) * blockSize);
+      int to = (int) Math.min(bytes.length, from + (long) blockSize);
+      byte[] data = new byte[to - from];
+      System.arraycopy(bytes, from, data, 0, data.length);
+      if (block == first) {
+        firstBlock = data;
+      }
+      cache.put(block, data);
+    }
+    return firstBlock;
+  }
+
+  @Override
+  public int write(ByteBuffer src) {
+    throw new NonWritableChannelException();
+  }
+
+  @Override
+  public synchronized long position() throws IOException {
+    ensureOpen();
+    return position;
+  }
+
+  @Override
+  public synchronized SeekableByteChannel position(long newPosition) throws IOException {
+    ensureOpen();
+    if (newPosition < 0) {
+      throw new IllegalArgumentException("Position cannot be negative: " + newPosition);
+    }
+    position = newPosition;
+    return this;
+  }
+
+  @Override
+  public synchronized long size() throws IOException {
+    ensureOpen();
+    return size;
+  }
+
+  @Override
+  public SeekableByteChannel truncate(long size) {
+    throw new NonWritableChannelException();
+  }
+
+  @Override
+  public synchronized boolean isOpen() {
+    return open;
+  }
+
+  @Override
+  public synchronized void close() {
+    open = false;
+    cache.clear();
+  }
+
+  synchronized int getFetchCount() {
+    return fetchCount;
+  }
+
+  synchronized int getReadAhead() {
+    return readAhead;
+  }
+
+  private void ensureOpen() throws ClosedChannelException {
+    if (!open) {
+      throw new ClosedChannelException();
+    }
+  }
+}
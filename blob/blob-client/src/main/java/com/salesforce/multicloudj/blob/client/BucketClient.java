@@ -4,26 +4,37 @@ import com.salesforce.multicloudj.blob.driver.AbstractBlobStore;
 import com.salesforce.multicloudj.blob.driver.BlobIdentifier;
 import com.salesforce.multicloudj.blob.driver.BlobInfo;
 import com.salesforce.multicloudj.blob.driver.BlobMetadata;
+import com.salesforce.multicloudj.blob.driver.BlobPreconditions;
 import com.salesforce.multicloudj.blob.driver.BlobSpanNames;
 import com.salesforce.multicloudj.blob.driver.BucketVersioningConfiguration;
 import com.salesforce.multicloudj.blob.driver.ByteArray;
+import com.salesforce.multicloudj.blob.driver.ByteRange;
 import com.salesforce.multicloudj.blob.driver.CopyFromRequest;
 import com.salesforce.multicloudj.blob.driver.CopyRequest;
 import com.salesforce.multicloudj.blob.driver.CopyResponse;
+import com.salesforce.multicloudj.blob.driver.DirectorySyncResponse;
 import com.salesforce.multicloudj.blob.driver.DownloadRequest;
 import com.salesforce.multicloudj.blob.driver.DownloadResponse;
+import com.salesforce.multicloudj.blob.driver.KeyRange;
 import com.salesforce.multicloudj.blob.driver.ListBlobVersionsRequest;
 import com.salesforce.multicloudj.blob.driver.ListBlobsPageRequest;
 import com.salesforce.multicloudj.blob.driver.ListBlobsPageResponse;
 import com.salesforce.multicloudj.blob.driver.ListBlobsRequest;
+import com.salesforce.multicloudj.blob.driver.MultiRangeDownloadRequest;
+import com.salesforce.multicloudj.blob.driver.MultiRangeDownloadResponse;
 import com.salesforce.multicloudj.blob.driver.MultipartPart;
 import com.salesforce.multicloudj.blob.driver.MultipartUpload;
 import com.salesforce.multicloudj.blob.driver.MultipartUploadRequest;
 import com.salesforce.multicloudj.blob.driver.MultipartUploadResponse;
 import com.salesforce.multicloudj.blob.driver.ObjectLockInfo;
 import com.salesforce.multicloudj.blob.driver.ObjectRetentionConfig;
+import com.salesforce.multicloudj.blob.driver.PrefixUsage;
+import com.salesforce.multicloudj.blob.driver.PrefixUsageRequest;
 import com.salesforce.multicloudj.blob.driver.PresignedUrlRequest;
 import com.salesforce.multicloudj.blob.driver.PresignedUrlResponse;
+import com.salesforce.multicloudj.blob.driver.ReadChannelOptions;
+import com.salesforce.multicloudj.blob.driver.SharedClients;
+import com.salesforce.multicloudj.blob.driver.SyncOptions;
 import com.salesforce.multicloudj.blob.driver.UploadPartResponse;
 import com.salesforce.multicloudj.blob.driver.UploadRequest;
 import com.salesforce.multicloudj.blob.driver.UploadResponse;
@@ -39,6 +50,9 @@ import java.io.InputStream;
 import java.io.OutputStream;
 import java.net.URI;
 import java.net.URL;
+import java.nio.ByteBuffer;
+import java.nio.channels.ReadableByteChannel;
+import java.nio.channels.SeekableByteChannel;
 import java.nio.file.Path;
 import java.time.Duration;
 import java.time.Instant;
@@ -54,6 +68,7 @@ public class BucketClient implements AutoCloseable {
 
   protected AbstractBlobStore blobStore;
   protected final MultiCloudJLogger multiCloudJLogger;
+  private volatile Map<String, String> bucketAttributes;
 
   protected BucketClient(AbstractBlobStore blobStore) {
     this(blobStore, null);
@@ -92,7 +107,9 @@ public class BucketClient implements AutoCloseable {
         ctx -> {
           UploadRequest enriched = withResolvedContext(uploadRequest, ctx);
           try {
-            return withCorrelationId(blobStore.upload(enriched, inputStream), ctx);
+            UploadResponse response = blobStore.upload(enriched, inputStream);
+            recordBytes(BlobSpanNames.UPLOAD, uploadRequest.getContentLength());
+            return withCorrelationId(response, ctx);
           } catch (Throwable t) {
             propagate(t);
             return null;
@@ -116,7 +133,9 @@ public class BucketClient implements AutoCloseable {
         ctx -> {
           UploadRequest enriched = withResolvedContext(uploadRequest, ctx);
           try {
-            return withCorrelationId(blobStore.upload(enriched, content), ctx);
+            UploadResponse response = blobStore.upload(enriched, content);
+            recordBytes(BlobSpanNames.UPLOAD, content.length);
+            return withCorrelationId(response, ctx);
           } catch (Throwable t) {
             propagate(t);
             return null;
@@ -140,7 +159,9 @@ public class BucketClient implements AutoCloseable {
         ctx -> {
           UploadRequest enriched = withResolvedContext(uploadRequest, ctx);
           try {
-            return withCorrelationId(blobStore.upload(enriched, file), ctx);
+            UploadResponse response = blobStore.upload(enriched, file);
+            recordBytes(BlobSpanNames.UPLOAD, file.length());
+            return withCorrelationId(response, ctx);
           } catch (Throwable t) {
             propagate(t);
             return null;
@@ -164,7 +185,68 @@ public class BucketClient implements AutoCloseable {
         ctx -> {
           UploadRequest enriched = withResolvedContext(uploadRequest, ctx);
           try {
-            return withCorrelationId(blobStore.upload(enriched, path), ctx);
+            UploadResponse response = blobStore.upload(enriched, path);
+            recordBytes(BlobSpanNames.UPLOAD, path.toFile().length());
+            return withCorrelationId(response, ctx);
+          } catch (Throwable t) {
+            propagate(t);
+            return null;
+          }
+        });
+  }
+
+  /**
+   * Uploads the remaining bytes of a buffer to substrate-specific Blob storage. Heap and direct
+   * buffers are read in place, without an intermediate copy; the buffer's position is not
+   * modified.
+   *
+   * @param uploadRequest Wrapper, containing upload data
+   * @param buffer The buffer that contains the blob content
+   * @return Returns an UploadResponse object that contains metadata about the blob
+   * @throws SubstrateSdkException Thrown if the operation fails
+   */
+  public UploadResponse upload(UploadRequest uploadRequest, ByteBuffer buffer) {
+    long length = buffer.remaining();
+    return multiCloudJLogger.traceOperation(
+        BlobSpanNames.UPLOAD,
+        bucketAttrs(),
+        uploadRequest.getOperationContext(),
+        ctx -> {
+          UploadRequest enriched = withResolvedContext(uploadRequest, ctx);
+          try {
+            UploadResponse response = blobStore.upload(enriched, buffer);
+            recordBytes(BlobSpanNames.UPLOAD, length);
+            return withCorrelationId(response, ctx);
+          } catch (Throwable t) {
+            propagate(t);
+            return null;
+          }
+        });
+  }
+
+  /**
+   * Uploads the content of a channel to substrate-specific Blob storage. The channel is read to
+   * its end; closing it remains the caller's responsibility.
+   *
+   * @param uploadRequest Wrapper, containing upload data
+   * @param channel The channel that contains the blob content
+   * @param contentLength The number of bytes the channel holds, or -1 if unknown. Content of
+   *     unknown length is streamed in chunks or parts.
+   * @return Returns an UploadResponse object that contains metadata about the blob
+   * @throws SubstrateSdkException Thrown if the operation fails
+   */
+  public UploadResponse upload(
+      UploadRequest uploadRequest, ReadableByteChannel channel, long contentLength) {
+    return multiCloudJLogger.traceOperation(
+        BlobSpanNames.UPLOAD,
+        bucketAttrs(),
+        uploadRequest.getOperationContext(),
+        ctx -> {
+          UploadRequest enriched = withResolvedContext(uploadRequest, ctx);
+          try {
+            UploadResponse response = blobStore.upload(enriched, channel, contentLength);
+            recordBytes(BlobSpanNames.UPLOAD, contentLength);
+            return withCorrelationId(response, ctx);
           } catch (Throwable t) {
             propagate(t);
             return null;
@@ -187,7 +269,9 @@ public class BucketClient implements AutoCloseable {
         downloadRequest.getOperationContext(),
         ctx -> {
           try {
-            return withCorrelationId(blobStore.download(downloadRequest, outputStream), ctx);
+            DownloadResponse response = blobStore.download(downloadRequest, outputStream);
+            recordBytes(BlobSpanNames.DOWNLOAD, downloadedBytes(downloadRequest, response));
+            return withCorrelationId(response, ctx);
           } catch (Throwable t) {
             propagate(t);
             return null;
@@ -210,7 +294,10 @@ public class BucketClient implements AutoCloseable {
         downloadRequest.getOperationContext(),
         ctx -> {
           try {
-            return withCorrelationId(blobStore.download(downloadRequest, byteArray), ctx);
+            DownloadResponse response = blobStore.download(downloadRequest, byteArray);
+            byte[] bytes = byteArray.getBytes();
+            recordBytes(BlobSpanNames.DOWNLOAD, bytes != null ? bytes.length : -1);
+            return withCorrelationId(response, ctx);
           } catch (Throwable t) {
             propagate(t);
             return null;
@@ -234,7 +321,9 @@ public class BucketClient implements AutoCloseable {
         downloadRequest.getOperationContext(),
         ctx -> {
           try {
-            return withCorrelationId(blobStore.download(downloadRequest, file), ctx);
+            DownloadResponse response = blobStore.download(downloadRequest, file);
+            recordBytes(BlobSpanNames.DOWNLOAD, downloadedBytes(downloadRequest, response));
+            return withCorrelationId(response, ctx);
           } catch (Throwable t) {
             propagate(t);
             return null;
@@ -258,7 +347,9 @@ public class BucketClient implements AutoCloseable {
         downloadRequest.getOperationContext(),
         ctx -> {
           try {
-            return withCorrelationId(blobStore.download(downloadRequest, path), ctx);
+            DownloadResponse response = blobStore.download(downloadRequest, path);
+            recordBytes(BlobSpanNames.DOWNLOAD, downloadedBytes(downloadRequest, response));
+            return withCorrelationId(response, ctx);
           } catch (Throwable t) {
             propagate(t);
             return null;
@@ -289,6 +380,101 @@ public class BucketClient implements AutoCloseable {
         });
   }
 
+  /**
+   * Reads several byte ranges of one blob, using the default coalescing limits of {@link
+   * MultiRangeDownloadRequest}.
+   *
+   * @param key Object name of the Blob
+   * @param ranges the inclusive byte ranges to read
+   * @return one read-only buffer per range, in the order given
+   * @throws SubstrateSdkException Thrown if the operation fails
+   */
+  public MultiRangeDownloadResponse downloadRanges(String key, List<ByteRange> ranges) {
+    return downloadRanges(
+        MultiRangeDownloadRequest.builder().withKey(key).withRanges(ranges).build());
+  }
+
+  /**
+   * Reads several byte ranges of one blob. Ranges within {@link
+   * MultiRangeDownloadRequest#getMaxGapInBytes()} of each other are coalesced into a single ranged
+   * GET, the resulting spans are fetched in parallel, and the bytes are sliced back into one buffer
+   * per requested range.
+   *
+   * @param request the key, ranges and coalescing limits
+   * @return one read-only buffer per range, in request order
+   * @throws SubstrateSdkException Thrown if the operation fails
+   */
+  public MultiRangeDownloadResponse downloadRanges(MultiRangeDownloadRequest request) {
+    return multiCloudJLogger.traceOperation(
+        BlobSpanNames.DOWNLOAD_RANGES,
+        bucketAttrs(),
+        request.getOperationContext(),
+        ctx -> {
+          try {
+            return withCorrelationId(blobStore.downloadRanges(request), ctx);
+          } catch (Throwable t) {
+            propagate(t);
+            return null;
+          }
+        });
+  }
+
+  /**
+   * Opens a read-only random-access channel over a blob, using default {@link
+   * ReadChannelOptions}.
+   *
+   * @param key Object name of the Blob
+   * @param versionId The versionId of the blob. This field is optional and should be null unless
+   *     you're targeting a specific key/version blob.
+   * @return a {@link SeekableByteChannel} backed by ranged reads of the blob
+   * @throws SubstrateSdkException Thrown if the operation fails
+   * @see #openChannel(String, String, ReadChannelOptions)
+   */
+  public SeekableByteChannel openChannel(String key, String versionId) {
+    return openChannel(key, versionId, ReadChannelOptions.builder().build());
+  }
+
+  /**
+   * Opens a read-only random-access channel over a blob. Intended for formats that read a footer
+   * or index first and then jump around the object (Parquet, ORC, Lucene segments).
+   *
+   * <p>The object's size is read once when the channel is opened, and every subsequent read is
+   * pinned to the version observed at that point. Reads are served from ranged downloads with an
+   * adaptive read-ahead window and a small block cache, see {@link ReadChannelOptions}. Each
+   * ranged fetch is traced as a {@code blob.download} operation.
+   *
+   * @param key Object name of the Blob
+   * @param versionId The versionId of the blob. This field is optional and should be null unless
+   *     you're targeting a specific key/version blob.
+   * @param options block size, read-ahead and cache tuning
+   * @return a {@link SeekableByteChannel} backed by ranged reads of the blob
+   * @throws SubstrateSdkException Thrown if the operation fails or the options are not positive
+   */
+  public SeekableByteChannel openChannel(
+      String key, String versionId, ReadChannelOptions options) {
+    try {
+      blobStore.getValidator().validate(options);
+    } catch (Throwable t) {
+      propagate(t);
+    }
+    BlobMetadata metadata = getMetadata(key, versionId);
+    String pinnedVersionId = versionId != null ? versionId : metadata.getVersionId();
+    return new BlobReadChannel(
+        metadata.getObjectSize(),
+        options,
+        (start, end) -> {
+          ByteArray bytes = new ByteArray();
+          download(
+              DownloadRequest.builder()
+                  .withKey(key)
+                  .withVersionId(pinnedVersionId)
+                  .withRange(start, end)
+                  .build(),
+              bytes);
+          return bytes.getBytes();
+        });
+  }
+
   /**
    * Deletes a single blob from substrate-specific Blob storage.
    *
@@ -449,6 +635,65 @@ public class BucketClient implements AutoCloseable {
         });
   }
 
+  /**
+   * Retrieves the metadata of the Blob if it has changed since the caller's copy.
+   *
+   * @param key Name of the Blob, whose metadata is to be retrieved
+   * @param versionId The versionId of the blob. This value should be null unless you're targeting
+   *     a specific key/version blob.
+   * @param preconditions Revalidation preconditions, typically the ETag of the caller's copy. May
+   *     be null.
+   * @param operationContext Per-call observability context carrying the correlation ID. May be
+   *     null, in which case tracing is treated as disabled.
+   * @return Metadata of the Blob, flagged {@link BlobMetadata#isNotModified()} when the
+   *     preconditions find it unchanged
+   * @throws SubstrateSdkException Thrown if the operation fails. Throws an exception if the blob
+   *     does not exist.
+   */
+  public BlobMetadata getMetadata(
+      String key,
+      String versionId,
+      BlobPreconditions preconditions,
+      OperationContext operationContext) {
+    return multiCloudJLogger.traceOperation(
+        BlobSpanNames.GET_METADATA,
+        bucketAttrs(),
+        operationContext,
+        ctx -> {
+          try {
+            return withCorrelationId(blobStore.getMetadata(key, versionId, preconditions), ctx);
+          } catch (Throwable t) {
+            propagate(t);
+            return null;
+          }
+        });
+  }
+
+  /**
+   * Retrieves the metadata of many Blobs, issuing the lookups concurrently. The number of lookups
+   * in flight is capped by {@link BlobBuilder#withMaxBulkLookupConcurrency(Integer)}.
+   *
+   * @param objects The Blobs to look up
+   * @return Every distinct requested identifier, in request order, mapped to its metadata, or to
+   *     null if the Blob does not exist
+   * @throws SubstrateSdkException Thrown if any lookup fails for a reason other than the Blob not
+   *     existing
+   */
+  public Map<BlobIdentifier, BlobMetadata> getMetadata(Collection<BlobIdentifier> objects) {
+    return multiCloudJLogger.traceOperation(
+        BlobSpanNames.GET_METADATA_BULK,
+        bucketAttrs(),
+        null,
+        ctx -> {
+          try {
+            return blobStore.getMetadata(objects);
+          } catch (Throwable t) {
+            propagate(t);
+            return null;
+          }
+        });
+  }
+
   /**
    * Retrieves the list of Blob in the bucket
    *
@@ -492,6 +737,102 @@ public class BucketClient implements AutoCloseable {
         });
   }
 
+  /**
+   * Splits the keys under a prefix into contiguous ranges holding roughly as many keys each, so
+   * that several workers can list the prefix in parallel, each with {@link
+   * ListBlobsPageRequest.Builder#withKeyRange} on its own range. Large prefixes are sampled rather
+   * than listed in full; the ranges always cover every key under the prefix exactly once.
+   *
+   * @param prefix the prefix to split, or null for the whole bucket
+   * @param ranges the number of ranges wanted; fewer are returned for small prefixes
+   * @return the ranges in key order
+   * @throws SubstrateSdkException Thrown if the operation fails
+   */
+  public List<KeyRange> splitKeyRange(String prefix, int ranges) {
+    return multiCloudJLogger.traceOperation(
+        BlobSpanNames.SPLIT_KEY_RANGE,
+        bucketAttrs(),
+        null,
+        ctx -> {
+          try {
+            return blobStore.splitKeyRange(prefix, ranges);
+          } catch (Throwable t) {
+            propagate(t);
+            return null;
+          }
+        });
+  }
+
+  /**
+   * Brings a bucket prefix up to date with a local directory, or a local directory up to date with
+   * a bucket prefix, like rsync. The directory walk and the listing of the prefix are merged as
+   * they stream, and only files that are missing or whose size, modification time or, with
+   * {@link SyncOptions#isCompareChecksums()}, MD5 differ are transferred, by parallel workers.
+   * With {@link SyncOptions#isDeleteExtraneous()}, files missing from the source side are deleted
+   * from the destination side.
+   *
+   * @param local the local directory
+   * @param prefix the key prefix the directory maps to, or null for the whole bucket
+   * @param options the direction, comparison and delete options
+   * @return DirectorySyncResponse with the transfer counts and any failed transfers or deletes
+   * @throws SubstrateSdkException Thrown if the walk or the listing fails
+   */
+  public DirectorySyncResponse syncDirectory(Path local, String prefix, SyncOptions options) {
+    return multiCloudJLogger.traceOperation(
+        BlobSpanNames.SYNC_DIRECTORY,
+        bucketAttrs(),
+        null,
+        ctx -> {
+          try {
+            return blobStore.syncDirectory(local, prefix, options);
+          } catch (Throwable t) {
+            propagate(t);
+            return null;
+          }
+        });
+  }
+
+  /**
+   * Totals the objects and bytes under a prefix per delimiter-separated sub-prefix, down to the
+   * given depth, for example per tenant under {@code "tenants/"} with depth 1. The sub-prefixes
+   * are listed concurrently.
+   *
+   * @param prefix the prefix to total, or null for the whole bucket
+   * @param depth the levels below the prefix to total by; 0 totals the prefix as a whole
+   * @return the totals of the prefix and of each sub-prefix down to the depth, each including
+   *     the objects nested below it, in key order
+   * @throws SubstrateSdkException Thrown if the operation fails
+   */
+  public List<PrefixUsage> computeUsage(String prefix, int depth) {
+    return computeUsage(PrefixUsageRequest.builder().prefix(prefix).depth(depth).build());
+  }
+
+  /**
+   * Totals the objects and bytes under a prefix per sub-prefix, optionally with the noncurrent
+   * versions of each object.
+   *
+   * @param request the prefix, depth, delimiter and whether to count noncurrent versions
+   * @return the totals of the prefix and of each sub-prefix down to the depth, each including
+   *     the objects nested below it, in key order
+   * @throws SubstrateSdkException Thrown if the operation fails
+   * @throws UnsupportedOperationException Thrown when versions are requested and the configured
+   *     provider does not implement version listing
+   */
+  public List<PrefixUsage> computeUsage(PrefixUsageRequest request) {
+    return multiCloudJLogger.traceOperation(
+        BlobSpanNames.COMPUTE_USAGE,
+        bucketAttrs(),
+        null,
+        ctx -> {
+          try {
+            return blobStore.computeUsage(request);
+          } catch (Throwable t) {
+            propagate(t);
+            return null;
+          }
+        });
+  }
+
   /**
    * Lists all available versions for a given blob key.
    *
@@ -806,6 +1147,30 @@ public class BucketClient implements AutoCloseable {
     return Boolean.TRUE.equals(result);
   }
 
+  /**
+   * Determines which of many objects exist, issuing the checks concurrently. Unversioned keys that
+   * share a prefix may be resolved by listing it rather than one request per key. The number of
+   * requests in flight is capped by {@link BlobBuilder#withMaxBulkLookupConcurrency(Integer)}.
+   *
+   * @param objects The objects to check
+   * @return Every distinct requested identifier, in request order, mapped to whether it exists
+   * @throws SubstrateSdkException Thrown if the operation fails
+   */
+  public Map<BlobIdentifier, Boolean> doesObjectExist(Collection<BlobIdentifier> objects) {
+    return multiCloudJLogger.traceOperation(
+        BlobSpanNames.DOES_OBJECT_EXIST_BULK,
+        bucketAttrs(),
+        null,
+        ctx -> {
+          try {
+            return blobStore.doesObjectExist(objects);
+          } catch (Throwable t) {
+            propagate(t);
+            return null;
+          }
+        });
+  }
+
   /**
    * Determines if the bucket exists
    *
@@ -969,9 +1334,41 @@ public class BucketClient implements AutoCloseable {
     }
   }
 
+  /**
+   * Returns the span attributes of this client's bucket. The map is built once and reused; the
+   * bucket is still read on each call so a store whose bucket changes is reported correctly.
+   */
   private Map<String, String> bucketAttrs() {
     String b = blobStore.getBucket();
-    return b != null ? Map.of("bucket", b) : null;
+    if (b == null) {
+      return null;
+    }
+    Map<String, String> attrs = bucketAttributes;
+    if (attrs == null || !b.equals(attrs.get("bucket"))) {
+      attrs = Map.of("bucket", b);
+      bucketAttributes = attrs;
+    }
+    return attrs;
+  }
+
+  private void recordBytes(String operationName, long byteCount) {
+    multiCloudJLogger.recordBytes(operationName, bucketAttrs(), byteCount);
+  }
+
+  /**
+   * Size of a completed download, or -1 when it cannot be told from the response. Ranged
+   * downloads are not counted because providers disagree on whether the reported object size is
+   * that of the object or of the range.
+   */
+  private static long downloadedBytes(DownloadRequest request, DownloadResponse response) {
+    if (response == null
+        || response.isNotModified()
+        || response.getMetadata() == null
+        || request.getStart() != null
+        || request.getEnd() != null) {
+      return -1;
+    }
+    return response.getMetadata().getObjectSize();
   }
 
   private void propagate(Throwable t) {
@@ -1005,6 +1402,14 @@ public class BucketClient implements AutoCloseable {
     return m.toBuilder().correlationId(ctx.getCorrelationId()).build();
   }
 
+  private static MultiRangeDownloadResponse withCorrelationId(
+      MultiRangeDownloadResponse r, OperationContext ctx) {
+    if (r == null) {
+      return null;
+    }
+    return r.toBuilder().correlationId(ctx.getCorrelationId()).build();
+  }
+
   private static CopyResponse withCorrelationId(CopyResponse r, OperationContext ctx) {
     if (r == null) {
       return null;
@@ -1049,6 +1454,11 @@ public class BucketClient implements AutoCloseable {
       this.blobStoreBuilder = ProviderSupplier.findProviderBuilder(providerId);
     }
 
+    /** Returns the store builder, so the client registry can key on its settings. */
+    AbstractBlobStore.Builder<?, ?> getBlobStoreBuilder() {
+      return blobStoreBuilder;
+    }
+
     /**
      * Method to supply bucket
      *
@@ -1151,6 +1561,30 @@ public class BucketClient implements AutoCloseable {
       return this;
     }
 
+    /**
+     * Method to cap the lookups a bulk getMetadata or doesObjectExist keeps in flight at once.
+     *
+     * @param maxBulkLookupConcurrency The maximum number of concurrent lookup requests
+     * @return An instance of self
+     */
+    public BlobBuilder withMaxBulkLookupConcurrency(Integer maxBulkLookupConcurrency) {
+      this.blobStoreBuilder.withMaxBulkLookupConcurrency(maxBulkLookupConcurrency);
+      return this;
+    }
+
+    /**
+     * Method to build the client on a provider client shared with other BucketClients configured
+     * alike, so that clients for many buckets share one connection pool. The shared client is
+     * closed when the last BucketClient using it is closed.
+     *
+     * @param sharedClients The clients to share, typically one instance per application
+     * @return An instance of self
+     */
+    public BlobBuilder withSharedClients(SharedClients sharedClients) {
+      this.blobStoreBuilder.withSharedClients(sharedClients);
+      return this;
+    }
+
     /**
      * Method to control whether system property values should be used for proxy configuration.
      *
@@ -0,0 +1,241 @@
+package com.salesforce.multicloudj.blob.client;
+
+import com.google.common.base.Ticker;
+import com.salesforce.multicloudj.blob.driver.AbstractBlobStore;
+import com.salesforce.multicloudj.blob.driver.SharedClients;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicBoolean;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Caches {@link BucketClient}s so that code which needs a client per request reuses one instead of
+ * building SDK clients, credential providers and transfer managers every time.
+ *
+ * <p>Clients are keyed by provider, bucket, region, endpoint, credentials and every other setting
+ * of the {@link BucketClient.BlobBuilder}; credentials overriders and retry configs are compared by
+ * identity, so callers meant to share a client should reuse the same instances. {@link #acquire}
+ * hands out a {@link Handle} on the cached client and counts it; close the handle, never the
+ * client, when done. A client no handle has referenced for the idle timeout is closed and dropped.
+ * Idle clients are swept on {@link #acquire}, at most once per idle timeout, or explicitly through
+ * {@link #evictIdle()}.
+ *
+ * <p>Building a {@link BucketClient.BlobBuilder} still looks the provider up, but a cache hit skips
+ * building the store and its SDK clients.
+ */
+public final class BucketClientRegistry implements AutoCloseable {
+
+  private static final Logger log = LoggerFactory.getLogger(BucketClientRegistry.class);
+
+  /** How long an unreferenced client is kept when no idle timeout is given. */
+  public static final Duration DEFAULT_IDLE_TIMEOUT = Duration.ofMinutes(5);
+
+  private static final BucketClientRegistry DEFAULT = new BucketClientRegistry();
+
+  private final Map<List<Object>, Entry> entries = new HashMap<>();
+  private final long idleTimeoutNanos;
+  private final Ticker ticker;
+  private long lastSweepNanos;
+  private boolean closed;
+
+  public BucketClientRegistry() {
+    this(DEFAULT_IDLE_TIMEOUT);
+  }
+
+  /**
+   * @param idleTimeout how long a client no handle references is kept before it is closed
+   */
+  public BucketClientRegistry(Duration idleTimeout) {
+    this(idleTimeout, Ticker.systemTicker());
+  }
+
+  BucketClientRegistry(Duration idleTimeout, Ticker ticker) {
+    this.idleTimeoutNanos = idleTimeout.toNanos();
+    this.ticker = ticker;
+    this.lastSweepNanos = ticker.read();
+  }
+
+  /** Returns the process-wide registry, with the default idle timeout. */
+  public static BucketClientRegistry getDefault() {
+    return DEFAULT;
+  }
+
+  /**
+   * Returns a handle on the client {@code builder} describes, building the client if none is
+   * cached. Concurrent acquisitions of an uncached client build it once.
+   *
+   * @throws IllegalStateException if the registry is closed
+   */
+  public Handle acquire(BucketClient.BlobBuilder builder) {
+    List<Object> key = key(builder.getBlobStoreBuilder());
+    List<Entry> idle = null;
+    Entry entry;
+    synchronized (this) {
+      if (closed) {
+        throw new IllegalStateException("BucketClientRegistry is closed");
+      }
+      long now = ticker.read();
+      if (now - lastSweepNanos >= idleTimeoutNanos) {
+        lastSweepNanos = now;
+        idle = removeIdle(now, idleTimeoutNanos);
+      }
+      entry = entries.computeIfAbsent(key, Entry::new);
+      entry.references++;
+    }
+    if (idle != null) {
+      closeAll(idle);
+    }
+    try {
+      return new Handle(entry, entry.client(builder));
+    } catch (RuntimeException e) {
+      release(entry);
+      throw e;
+    }
+  }
+
+  /** Closes and drops every client no handle has referenced for the idle timeout. */
+  public void evictIdle() {
+    List<Entry> idle;
+    synchronized (this) {
+      long now = ticker.read();
+      lastSweepNanos = now;
+      idle = removeIdle(now, idleTimeoutNanos);
+    }
+    closeAll(idle);
+  }
+
+  /** Returns the number of cached clients, referenced or not. */
+  public synchronized int size() {
+    return entries.size();
+  }
+
+  /**
+   * Closes every unreferenced client and refuses further acquisitions. Clients still referenced are
+   * closed when their last handle is closed.
+   */
+  @Override
+  public void close() {
+    List<Entry> idle;
+    synchronized (this) {
+      closed = true;
+      idle = removeIdle(ticker.read(), 0);
+    }
+    closeAll(idle);
+  }
+
+  private List<Entry> removeIdle(long now, long timeoutNanos) {
+    List<Entry> idle = new ArrayList<>();
+    for (Iterator<Entry> it = entries.values().iterator(); it.hasNext(); ) {
+      Entry entry = it.next();
+      if (entry.references == 0 && now - entry.releasedNanos >= timeoutNanos) {
+        it.remove();
+        idle.add(entry);
+      }
+    }
+    return idle;
+  }
+
+  private void release(Entry entry) {
+    synchronized (this) {
+      if (--entry.references > 0) {
+        return;
+      }
+      entry.releasedNanos = ticker.read();
+      if (!closed && entry.client != null) {
+        return;
+      }
+      // A client that failed to build is not worth keeping, and a closed registry keeps nothing.
+      entries.remove(entry.key, entry);
+    }
+    closeAll(List.of(entry));
+  }
+
+  private static void closeAll(List<Entry> idle) {
+    for (Entry entry : idle) {
+      BucketClient client = entry.client;
+      if (client == null) {
+        continue;
+      }
+      try {
+        client.close();
+      } catch (Exception e) {
+        log.warn("Failed to close idle BucketClient for bucket {}", client.getBucket(), e);
+      }
+    }
+  }
+
+  private static List<Object> key(AbstractBlobStore.Builder<?, ?> builder) {
+    return SharedClients.clientKey(
+        builder,
+        builder.getBucket(),
+        builder.getExecutorService(),
+        builder.getThresholdBytes(),
+        builder.getPartBufferSize(),
+        builder.getParallelUploadsEnabled(),
+        builder.getParallelDownloadsEnabled(),
+        builder.getTargetThroughputInGbps(),
+        builder.getMaxNativeMemoryLimitInBytes(),
+        builder.getInitialReadBufferSizeInBytes(),
+        builder.getMaxConcurrency(),
+        builder.getTransferManagerThreadPoolSize(),
+        builder.getTransferDirectoryMaxConcurrency(),
+        builder.getMaxBulkLookupConcurrency(),
+        builder.getSharedClients(),
+        builder.getTracingPolicy());
+  }
+
+  /** A reference to a cached client. Closing it more than once has no further effect. */
+  public final class Handle implements AutoCloseable {
+    private final Entry entry;
+    private final BucketClient client;
+    private final AtomicBoolean released = new AtomicBoolean();
+
+    private Handle(Entry entry, BucketClient client) {
+      this.entry = entry;
+      this.client = client;
+    }
+
+    /** Returns the client. Do not close it; close the handle instead. */
+    public BucketClient get() {
+      return client;
+    }
+
+    /** Releases the reference. The client stays cached until it has been idle long enough. */
+    @Override
+    public void close() {
+      if (released.compareAndSet(false, true)) {
+        release(entry);
+      }
+    }
+  }
+
+  private static final class Entry {
+    private final List<Object> key;
+    private volatile BucketClient client;
+    private int references;
+    private long releasedNanos;
+
+    private Entry(List<Object> key) {
+      this.key = key;
+    }
+
+    private BucketClient client(BucketClient.BlobBuilder builder) {
+      BucketClient built = client;
+      if (built == null) {
+        synchronized (this) {
+          built = client;
+          if (built == null) {
+            built = builder.build();
+            client = built;
+          }
+        }
+      }
+      return built;
+    }
+  }
+}
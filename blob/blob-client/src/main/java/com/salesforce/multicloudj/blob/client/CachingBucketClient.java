@@ -0,0 +1,333 @@
+package com.salesforce.multicloudj.blob.client;
+
+import com.google.common.base.Ticker;
+import com.google.common.cache.Cache;
+import com.google.common.cache.CacheBuilder;
+import com.salesforce.multicloudj.blob.driver.BlobExecutors;
+import com.salesforce.multicloudj.blob.driver.BlobMetadata;
+import com.salesforce.multicloudj.blob.driver.BlobPreconditions;
+import com.salesforce.multicloudj.blob.driver.BlockCache;
+import com.salesforce.multicloudj.blob.driver.BlockCacheOptions;
+import com.salesforce.multicloudj.blob.driver.ByteArray;
+import com.salesforce.multicloudj.blob.driver.DownloadRequest;
+import com.salesforce.multicloudj.blob.driver.DownloadResponse;
+import com.salesforce.multicloudj.common.exceptions.InvalidArgumentException;
+import com.salesforce.multicloudj.common.exceptions.ResourceConflictException;
+import com.salesforce.multicloudj.common.exceptions.SubstrateSdkException;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.ByteBuffer;
+import java.util.ArrayDeque;
+import java.util.Arrays;
+import java.util.Deque;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.Executor;
+
+/**
+ * Serves reads of a {@link BucketClient} from a {@link BlockCache}, for readers such as Parquet and
+ * ORC that fetch the same footers and column chunks over and over.
+ *
+ * <p>A read is mapped onto aligned blocks of {@link BlockCacheOptions#getBlockSizeInBytes()},
+ * cached under the object's key, ETag and block index. Cached blocks are copied out directly;
+ * missing blocks are fetched with one ranged GET each, up to {@link
+ * BlockCacheOptions#getMaxConcurrency()} at once, and written in order. Concurrent reads missing
+ * the same block share a single fetch.
+ *
+ * <p>The ETag and size of an object are looked up once and trusted for {@link
+ * BlockCacheOptions#getMetadataTtl()}, so cached blocks of an overwritten object may be served
+ * until then; {@link #invalidate(String)} forgets them early. A fetched block whose ETag differs
+ * from the one looked up is never cached: the read starts over once with fresh metadata if it has
+ * not written anything yet, and fails with {@link ResourceConflictException} otherwise.
+ *
+ * <p>Reads that ask for decompression or carry preconditions, and objects the store reports no
+ * ETag for, bypass the cache.
+ */
+public class CachingBucketClient {
+
+  private final BucketClient client;
+  private final BlockCacheOptions options;
+  private final BlockCache cache;
+  private final Executor executor;
+  private final Cache<List<String>, BlobMetadata> metadata;
+  private final ConcurrentMap<BlockKey, CompletableFuture<byte[]>> fetches =
+      new ConcurrentHashMap<>();
+
+  /** Creates a client that fetches blocks on {@link BlobExecutors#defaultExecutor()}. */
+  public CachingBucketClient(BucketClient client, BlockCacheOptions options) {
+    this(client, options, BlobExecutors.defaultExecutor());
+  }
+
+  /**
+   * @param client the bucket to read from
+   * @param options the block size, capacity and metadata lifetime
+   * @param executor runs the block fetches
+   */
+  public CachingBucketClient(BucketClient client, BlockCacheOptions options, Executor executor) {
+    this(client, options, executor, Ticker.systemTicker());
+  }
+
+  CachingBucketClient(
+      BucketClient client, BlockCacheOptions options, Executor executor, Ticker ticker) {
+    if (options.getMaxConcurrency() < 1) {
+      throw new InvalidArgumentException("maxConcurrency must be positive");
+    }
+    this.client = client;
+    this.options = options;
+    this.cache = new BlockCache(options);
+    this.executor = executor;
+    this.metadata =
+        CacheBuilder.newBuilder()
+            .maximumSize(options.getMaxMetadataEntries())
+            .expireAfterWrite(options.getMetadataTtl())
+            .ticker(ticker)
+            .build();
+  }
+
+  /** Returns the block cache, for its hit and miss counts. */
+  public BlockCache getCache() {
+    return cache;
+  }
+
+  /** Forgets the ETag and size of {@code key}, so the next read of it looks them up again. */
+  public void invalidate(String key) {
+    metadata.asMap().keySet().removeIf(cached -> cached.get(0).equals(key));
+  }
+
+  /**
+   * Downloads the requested range of the object into {@code outputStream}, from cached blocks
+   * where possible.
+   *
+   * @return the response; its metadata is the object's, as looked up
+   * @throws ResourceConflictException if the object changed after part of it was written, or
+   *     changed again while it was read a second time
+   * @throws SubstrateSdkException if looking up the object or fetching a block fails
+   */
+  public DownloadResponse download(DownloadRequest downloadRequest, OutputStream outputStream) {
+    if (downloadRequest.isDecompress() || downloadRequest.isConditional()) {
+      return client.download(downloadRequest, outputStream);
+    }
+    Progress progress = new Progress(outputStream);
+    try {
+      return read(downloadRequest, progress);
+    } catch (StaleBlockException e) {
+      invalidate(downloadRequest.getKey());
+      if (progress.written > 0) {
+        throw changed(downloadRequest);
+      }
+    }
+    try {
+      return read(downloadRequest, progress);
+    } catch (StaleBlockException e) {
+      invalidate(downloadRequest.getKey());
+      throw changed(downloadRequest);
+    }
+  }
+
+  private static ResourceConflictException changed(DownloadRequest downloadRequest) {
+    return new ResourceConflictException(
+        "Object " + downloadRequest.getKey() + " changed while it was being read");
+  }
+
+  /**
+   * Downloads the requested range of the object into {@code byteArray}. See {@link
+   * #download(DownloadRequest, OutputStream)}.
+   */
+  public DownloadResponse download(DownloadRequest downloadRequest, ByteArray byteArray) {
+    ByteArrayOutputStream out = new ByteArrayOutputStream();
+    DownloadResponse response = download(downloadRequest, out);
+    byteArray.setBytes(out.toByteArray());
+    return response;
+  }
+
+  private DownloadResponse read(DownloadRequest downloadRequest, Progress progress) {
+    String key = downloadRequest.getKey();
+    BlobMetadata object = lookup(key, downloadRequest.getVersionId());
+    String eTag = object.getETag();
+    if (eTag == null) {
+      return client.download(downloadRequest, progress.out);
+    }
+    long size = object.getObjectSize();
+    long start;
+    long end;
+    if (downloadRequest.getStart() == null && downloadRequest.getEnd() == null) {
+      start = 0;
+      end = size - 1;
+    } else if (downloadRequest.getStart() == null) {
+      start = Math.max(0, size - downloadRequest.getEnd());
+      end = size - 1;
+    } else {
+      start = downloadRequest.getStart();
+      end =
+          downloadRequest.getEnd() == null
+              ? size - 1
+              : Math.min(downloadRequest.getEnd(), size - 1);
+    }
+
+    int blockSize = cache.getBlockSize();
+    Deque<CompletableFuture<ByteBuffer>> window = new ArrayDeque<>();
+    try {
+      for (long block = start / blockSize; start <= end && block <= end / blockSize; block++) {
+        if (window.size() == options.getMaxConcurrency()) {
+          progress.write(window.poll());
+        }
+        long blockStart = block * blockSize;
+        int from = (int) (Math.max(start, blockStart) - blockStart);
+        int to = (int) (Math.min(end, blockStart + blockSize - 1) - blockStart + 1);
+        window.add(slice(downloadRequest, object, new BlockKey(key, eTag, block), from, to));
+      }
+      while (!window.isEmpty()) {
+        progress.write(window.poll());
+      }
+    } finally {
+      window.forEach(fetch -> fetch.cancel(false));
+    }
+    return DownloadResponse.builder().key(key).metadata(object).build();
+  }
+
+  /** Returns bytes {@code from} through {@code to - 1} of a block, cached or fetched. */
+  private CompletableFuture<ByteBuffer> slice(
+      DownloadRequest downloadRequest, BlobMetadata object, BlockKey block, int from, int to) {
+    byte[] cached = cache.read(block, from, to - from);
+    if (cached != null && cached.length == to - from) {
+      return CompletableFuture.completedFuture(ByteBuffer.wrap(cached));
+    }
+    return fetch(downloadRequest, object, block)
+        .thenApply(data -> ByteBuffer.wrap(data, from, Math.min(to, data.length) - from));
+  }
+
+  /** Fetches a block, or joins the fetch of it already in flight. */
+  private CompletableFuture<byte[]> fetch(
+      DownloadRequest downloadRequest, BlobMetadata object, BlockKey block) {
+    CompletableFuture<byte[]> created = new CompletableFuture<>();
+    CompletableFuture<byte[]> inFlight = fetches.putIfAbsent(block, created);
+    if (inFlight != null) {
+      return inFlight;
+    }
+    CompletableFuture.supplyAsync(() -> fetchBlock(downloadRequest, object, block), executor)
+        .whenComplete(
+            (data, error) -> {
+              fetches.remove(block, created);
+              if (error != null) {
+                created.completeExceptionally(error);
+              } else {
+                created.complete(data);
+              }
+            });
+    return created;
+  }
+
+  private byte[] fetchBlock(DownloadRequest downloadRequest, BlobMetadata object, BlockKey block) {
+    long start = block.index * cache.getBlockSize();
+    long end = Math.min(object.getObjectSize(), start + cache.getBlockSize()) - 1;
+    ByteArray bytes = new ByteArray();
+    DownloadResponse response =
+        client.download(
+            DownloadRequest.builder()
+                .withKey(block.key)
+                .withVersionId(downloadRequest.getVersionId())
+                .withRange(start, end)
+                .withKmsKeyId(downloadRequest.getKmsKeyId())
+                .withOperationContext(downloadRequest.getOperationContext())
+                .build(),
+            bytes);
+    BlobMetadata fetched = response.getMetadata();
+    if (fetched != null && fetched.getETag() != null && !sameETag(block.eTag, fetched.getETag())) {
+      throw new StaleBlockException();
+    }
+    byte[] data = bytes.getBytes() != null ? bytes.getBytes() : new byte[0];
+    cache.put(block, data);
+    return data;
+  }
+
+  private BlobMetadata lookup(String key, String versionId) {
+    List<String> cacheKey = Arrays.asList(key, versionId);
+    BlobMetadata cached = metadata.getIfPresent(cacheKey);
+    if (cached == null) {
+      cached = client.getMetadata(key, versionId);
+      metadata.put(cacheKey, cached);
+    }
+    return cached;
+  }
+
+  /** Compares ETags the way preconditions do, ignoring quotes and the weak prefix. */
+  private static boolean sameETag(String expected, String actual) {
+    return BlobPreconditions.builder()
+        .withIfNoneMatch(expected)
+        .build()
+        .isNotModified(actual, null);
+  }
+
+  private static RuntimeException unwrap(Throwable t) {
+    while (t instanceof CompletionException && t.getCause() != null) {
+      t = t.getCause();
+    }
+    if (t instanceof RuntimeException) {
+      return (RuntimeException) t;
+    }
+    if (t instanceof Error) {
+      throw (Error) t;
+    }
+    return new SubstrateSdkException(t);
+  }
+
+  /** The destination of a read and how much has been written to it. */
+  private static final class Progress {
+    private final OutputStream out;
+    private long written;
+
+    private Progress(OutputStream out) {
+      this.out = out;
+    }
+
+    private void write(CompletableFuture<ByteBuffer> slice) {
+      try {
+        ByteBuffer bytes = slice.join();
+        out.write(bytes.array(), bytes.arrayOffset() + bytes.position(), bytes.remaining());
+        written += bytes.remaining();
+      } catch (CompletionException e) {
+        throw unwrap(e);
+      } catch (IOException e) {
+        throw new SubstrateSdkException("Failed to write downloaded content", e);
+      }
+    }
+  }
+
+  /** Identifies a block of one version of an object. */
+  private static final class BlockKey {
+    private final String key;
+    private final String eTag;
+    private final long index;
+
+    private BlockKey(String key, String eTag, long index) {
+      this.key = key;
+      this.eTag = eTag;
+      this.index = index;
+    }
+
+    @Override
+    public boolean equals(Object o) {
+      if (!(o instanceof BlockKey)) {
+        return false;
+      }
+      BlockKey other = (BlockKey) o;
+      return index == other.index && key.equals(other.key) && eTag.equals(other.eTag);
+    }
+
+    @Override
+    public int hashCode() {
+      return (31 * key.hashCode() + eTag.hashCode()) * 31 + Long.hashCode(index);
+    }
+  }
+
+  /** Thrown when a fetched block belongs to another version than the one looked up. */
+  private static final class StaleBlockException extends RuntimeException {
+    private StaleBlockException() {
+      super(null, null, false, false);
+    }
+  }
+}
@@ -0,0 +1,464 @@
+package com.salesforce.multicloudj.blob.client;
+
+import com.google.common.hash.BloomFilter;
+import com.google.common.hash.Funnels;
+import com.google.common.hash.Hashing;
+import com.google.common.io.BaseEncoding;
+import com.salesforce.multicloudj.blob.driver.BlobExecutors;
+import com.salesforce.multicloudj.blob.driver.BlobInfo;
+import com.salesforce.multicloudj.blob.driver.BlobMetadata;
+import com.salesforce.multicloudj.blob.driver.ByteArray;
+import com.salesforce.multicloudj.blob.driver.DedupManifest;
+import com.salesforce.multicloudj.blob.driver.DedupOptions;
+import com.salesforce.multicloudj.blob.driver.DedupUploadResponse;
+import com.salesforce.multicloudj.blob.driver.DownloadRequest;
+import com.salesforce.multicloudj.blob.driver.DownloadResponse;
+import com.salesforce.multicloudj.blob.driver.FastCdcChunker;
+import com.salesforce.multicloudj.blob.driver.ListBlobsRequest;
+import com.salesforce.multicloudj.blob.driver.UploadRequest;
+import com.salesforce.multicloudj.blob.driver.UploadResponse;
+import com.salesforce.multicloudj.common.exceptions.InvalidArgumentException;
+import com.salesforce.multicloudj.common.exceptions.SubstrateSdkException;
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Deque;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.Executor;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReference;
+
+/**
+ * Stores content deduplicated by chunk on top of a {@link BucketClient}.
+ *
+ * <p>An upload splits the content into chunks at content-defined boundaries with {@link
+ * FastCdcChunker} and stores each chunk under its SHA-256 digest below {@link
+ * DedupOptions#getChunkPrefix()}, up to {@link DedupOptions#getMaxConcurrency()} chunks at once. A
+ * chunk already stored is not uploaded again: a local bloom filter remembers the chunks this client
+ * stored or found while listing the chunk prefix, and a chunk the filter may contain is confirmed
+ * with a HEAD request before it is skipped. Once every chunk is stored, a small {@link
+ * DedupManifest} is uploaded under the requested key, so a reader never sees a manifest naming a
+ * missing chunk.
+ *
+ * <p>A download reads the object under the key and, if it is a manifest, fetches its chunks in
+ * parallel and writes them in order, verifying each against its digest. Objects that are not
+ * manifests are passed through unchanged, so the client reads a bucket holding both.
+ *
+ * <p>Chunks are shared between objects and are not deleted with them. Removing chunks no manifest
+ * refers to is left to the bucket's owner.
+ */
+public class DedupBucketClient {
+
+  /** Metadata key marking a manifest; its value is the manifest format version. */
+  public static final String MANIFEST_METADATA_KEY = "multicloudj-dedup";
+
+  /** Metadata key under which the length of a manifest's content is recorded. */
+  public static final String CONTENT_LENGTH_METADATA_KEY = "multicloudj-dedup-size";
+
+  private static final String MANIFEST_VERSION = "1";
+
+  private final BucketClient client;
+  private final DedupOptions options;
+  private final FastCdcChunker chunker;
+  private final Executor executor;
+  private final BloomFilter<byte[]> storedChunks;
+  private volatile boolean indexed;
+
+  /** Creates a client that transfers chunks on {@link BlobExecutors#defaultExecutor()}. */
+  public DedupBucketClient(BucketClient client, DedupOptions options) {
+    this(client, options, BlobExecutors.defaultExecutor());
+  }
+
+  /**
+   * @param client the bucket to store manifests and chunks in
+   * @param options the chunking and concurrency settings
+   * @param executor runs the chunk uploads and downloads
+   */
+  public DedupBucketClient(BucketClient client, DedupOptions options, Executor executor) {
+    if (options.getMaxConcurrency() < 1 || options.getExpectedChunks() < 1) {
+      throw new InvalidArgumentException("maxConcurrency and expectedChunks must be positive");
+    }
+    this.client = client;
+    this.options = options;
+    this.chunker = new FastCdcChunker(options);
+    this.executor = executor;
+    this.storedChunks =
+        BloomFilter.create(Funnels.byteArrayFunnel(), options.getExpectedChunks(), 0.01);
+  }
+
+  /**
+   * Uploads {@code inputStream} deduplicated. The request's key, metadata, tags and content type
+   * apply to the manifest; its storage class and encryption settings apply to the chunks too.
+   *
+   * @throws InvalidArgumentException if the request asks for compression or carries a checksum
+   * @throws SubstrateSdkException if reading the content or storing a chunk or the manifest fails
+   */
+  public DedupUploadResponse upload(UploadRequest uploadRequest, InputStream inputStream) {
+    if (uploadRequest.getCompression() != null || uploadRequest.getChecksumValue() != null) {
+      throw new InvalidArgumentException(
+          "Deduplicated uploads support neither compression nor a checksum value");
+    }
+    indexExistingChunks();
+    List<DedupManifest.Chunk> chunks = new ArrayList<>();
+    Set<String> seen = new HashSet<>();
+    Semaphore permits = new Semaphore(options.getMaxConcurrency());
+    AtomicReference<Throwable> failure = new AtomicReference<>();
+    AtomicInteger uploadedChunks = new AtomicInteger();
+    AtomicLong uploadedBytes = new AtomicLong();
+    List<CompletableFuture<Void>> uploads = new ArrayList<>();
+    try {
+      Iterator<byte[]> content = chunker.chunks(inputStream);
+      while (failure.get() == null && content.hasNext()) {
+        byte[] data = content.next();
+        DedupManifest.Chunk chunk =
+            new DedupManifest.Chunk(Hashing.sha256().hashBytes(data).asBytes(), data.length);
+        chunks.add(chunk);
+        if (!seen.add(chunk.getName())) {
+          continue;
+        }
+        permits.acquireUninterruptibly();
+        uploads.add(
+            CompletableFuture.runAsync(
+                    () -> {
+                      if (storeChunk(uploadRequest, chunk, data)) {
+                        uploadedChunks.incrementAndGet();
+                        uploadedBytes.addAndGet(data.length);
+                      }
+                    },
+                    executor)
+                .whenComplete(
+                    (result, error) -> {
+                      permits.release();
+                      if (error != null) {
+                        failure.compareAndSet(null, error);
+                      }
+                    }));
+      }
+    } catch (UncheckedIOException e) {
+      failure.compareAndSet(null, new SubstrateSdkException("Failed to read upload content", e));
+    }
+    awaitQuietly(uploads);
+    if (failure.get() != null) {
+      throw unwrap(failure.get());
+    }
+
+    DedupManifest manifest = new DedupManifest(chunks);
+    byte[] bytes = manifest.toBytes();
+    Map<String, String> metadata = new HashMap<>(uploadRequest.getMetadata());
+    metadata.put(MANIFEST_METADATA_KEY, MANIFEST_VERSION);
+    metadata.put(CONTENT_LENGTH_METADATA_KEY, Long.toString(manifest.getLength()));
+    UploadResponse response =
+        client.upload(
+            uploadRequest.toBuilder()
+                .withMetadata(metadata)
+                .withContentLength(bytes.length)
+                .build(),
+            bytes);
+    return DedupUploadResponse.builder()
+        .uploadResponse(response)
+        .contentLength(manifest.getLength())
+        .chunkCount(chunks.size())
+        .uploadedChunkCount(uploadedChunks.get())
+        .uploadedBytes(uploadedBytes.get())
+        .build();
+  }
+
+  /** Uploads {@code content} deduplicated. See {@link #upload(UploadRequest, InputStream)}. */
+  public DedupUploadResponse upload(UploadRequest uploadRequest, byte[] content) {
+    return upload(uploadRequest, new ByteArrayInputStream(content));
+  }
+
+  /**
+   * Uploads the file at {@code path} deduplicated. See {@link #upload(UploadRequest, InputStream)}.
+   */
+  public DedupUploadResponse upload(UploadRequest uploadRequest, Path path) {
+    try (InputStream in = Files.newInputStream(path)) {
+      return upload(uploadRequest, in);
+    } catch (IOException e) {
+      throw new SubstrateSdkException("Failed to read upload content", e);
+    }
+  }
+
+  /**
+   * Downloads the object under the request's key into {@code outputStream}, reassembling it if it
+   * is a manifest. Byte ranges refer to the reassembled content and fetch only the chunks they
+   * overlap.
+   *
+   * @return the response of the object's lookup; for a manifest, its metadata reports the size of
+   *     the reassembled content
+   * @throws IllegalStateException if the manifest or a chunk is corrupt
+   * @throws SubstrateSdkException if reading the object or a chunk fails
+   */
+  public DownloadResponse download(DownloadRequest downloadRequest, OutputStream outputStream) {
+    if (downloadRequest.getStart() == null && downloadRequest.getEnd() == null) {
+      DownloadResponse response = client.download(downloadRequest);
+      if (response.isNotModified()) {
+        return response;
+      }
+      byte[] bytes;
+      try (InputStream in = response.getInputStream()) {
+        if (!isManifest(response.getMetadata())) {
+          in.transferTo(outputStream);
+          return response.toBuilder().inputStream(null).build();
+        }
+        bytes = in.readAllBytes();
+      } catch (IOException e) {
+        throw new SubstrateSdkException("Failed to read downloaded content", e);
+      }
+      DedupManifest manifest = DedupManifest.read(bytes);
+      writeChunks(downloadRequest, manifest, 0, manifest.getLength() - 1, outputStream);
+      return toContentResponse(response, manifest);
+    }
+
+    BlobMetadata metadata =
+        client.getMetadata(downloadRequest.getKey(), downloadRequest.getVersionId());
+    if (downloadRequest.isConditional()
+        && downloadRequest
+            .getPreconditions()
+            .isNotModified(metadata.getETag(), metadata.getLastModified())) {
+      return DownloadResponse.notModified(downloadRequest.getKey(), metadata);
+    }
+    if (!isManifest(metadata)) {
+      return client.download(downloadRequest, outputStream);
+    }
+    // Pin the version observed by the lookup so the manifest read matches its metadata even if
+    // the key is overwritten concurrently.
+    String versionId =
+        downloadRequest.getVersionId() != null
+            ? downloadRequest.getVersionId()
+            : metadata.getVersionId();
+    ByteArray bytes = new ByteArray();
+    DownloadResponse response =
+        client.download(
+            DownloadRequest.builder()
+                .withKey(downloadRequest.getKey())
+                .withVersionId(versionId)
+                .withKmsKeyId(downloadRequest.getKmsKeyId())
+                .withOperationContext(downloadRequest.getOperationContext())
+                .build(),
+            bytes);
+    DedupManifest manifest = DedupManifest.read(bytes.getBytes());
+    long length = manifest.getLength();
+    long start;
+    long end;
+    if (downloadRequest.getStart() == null) {
+      start = Math.max(0, length - downloadRequest.getEnd());
+      end = length - 1;
+    } else {
+      start = downloadRequest.getStart();
+      end =
+          downloadRequest.getEnd() == null
+              ? length - 1
+              : Math.min(downloadRequest.getEnd(), length - 1);
+    }
+    writeChunks(downloadRequest, manifest, start, end, outputStream);
+    return toContentResponse(response, manifest);
+  }
+
+  /**
+   * Downloads the object under the request's key into a new file at {@code path}. See {@link
+   * #download(DownloadRequest, OutputStream)}. A partially written file is deleted on failure.
+   *
+   * @throws SubstrateSdkException if a file already exists at {@code path}
+   */
+  public DownloadResponse download(DownloadRequest downloadRequest, Path path) {
+    try {
+      if (downloadRequest.isCreateParentPath() && path.toAbsolutePath().getParent() != null) {
+        Files.createDirectories(path.toAbsolutePath().getParent());
+      }
+    } catch (IOException e) {
+      throw new SubstrateSdkException("Failed to create parent directories of " + path, e);
+    }
+    boolean complete = false;
+    try (OutputStream out = Files.newOutputStream(path, StandardOpenOption.CREATE_NEW)) {
+      DownloadResponse response = download(downloadRequest, out);
+      complete = true;
+      return response;
+    } catch (IOException e) {
+      throw new SubstrateSdkException("Failed to write downloaded content to " + path, e);
+    } finally {
+      if (!complete) {
+        try {
+          Files.deleteIfExists(path);
+        } catch (IOException ignored) {
+          // Best effort; the failure being reported matters more.
+        }
+      }
+    }
+  }
+
+  /** Returns true if {@code metadata} describes a manifest written by this client. */
+  public static boolean isManifest(BlobMetadata metadata) {
+    return metadata != null
+        && metadata.getMetadata() != null
+        && metadata.getMetadata().containsKey(MANIFEST_METADATA_KEY);
+  }
+
+  /**
+   * Stores one chunk unless the bucket already holds it.
+   *
+   * @return true if the chunk was uploaded, false if it was already stored
+   */
+  private boolean storeChunk(UploadRequest uploadRequest, DedupManifest.Chunk chunk, byte[] data) {
+    String key = chunk.key(options.getChunkPrefix());
+    byte[] digest = chunk.getDigest();
+    if (storedChunks.mightContain(digest) && client.doesObjectExist(key, null)) {
+      return false;
+    }
+    client.upload(
+        UploadRequest.builder()
+            .withKey(key)
+            .withContentLength(data.length)
+            .withStorageClass(uploadRequest.getStorageClass())
+            .withKmsKeyId(uploadRequest.getKmsKeyId())
+            .withUseKmsManagedKey(uploadRequest.isUseKmsManagedKey())
+            .withOperationContext(uploadRequest.getOperationContext())
+            .build(),
+        data);
+    storedChunks.put(digest);
+    return true;
+  }
+
+  /**
+   * Seeds the bloom filter, once, with the chunks already below the chunk prefix, so that chunks
+   * stored by other clients are checked rather than uploaded again.
+   */
+  private void indexExistingChunks() {
+    if (indexed || !options.isIndexExistingChunks()) {
+      return;
+    }
+    synchronized (this) {
+      if (indexed) {
+        return;
+      }
+      String prefix = options.getChunkPrefix();
+      Iterator<BlobInfo> listed =
+          client.list(ListBlobsRequest.builder().withPrefix(prefix).build());
+      while (listed.hasNext()) {
+        String name = listed.next().getKey().substring(prefix.length());
+        if (name.length() == 2 * DedupManifest.DIGEST_LENGTH
+            && BaseEncoding.base16().lowerCase().canDecode(name)) {
+          storedChunks.put(BaseEncoding.base16().lowerCase().decode(name));
+        }
+      }
+      indexed = true;
+    }
+  }
+
+  /**
+   * Writes bytes {@code start} through {@code end} of the manifest's content, fetching the chunks
+   * they overlap with up to {@code maxConcurrency} fetches ahead of the one being written.
+   */
+  private void writeChunks(
+      DownloadRequest downloadRequest,
+      DedupManifest manifest,
+      long start,
+      long end,
+      OutputStream outputStream) {
+    Deque<CompletableFuture<byte[]>> window = new ArrayDeque<>();
+    Deque<int[]> slices = new ArrayDeque<>();
+    long offset = 0;
+    try {
+      for (DedupManifest.Chunk chunk : manifest.getChunks()) {
+        long chunkEnd = offset + chunk.getLength() - 1;
+        if (chunkEnd >= start && offset <= end && chunk.getLength() > 0) {
+          if (window.size() == options.getMaxConcurrency()) {
+            write(window.poll(), slices.poll(), outputStream);
+          }
+          int from = (int) (Math.max(start, offset) - offset);
+          int to = (int) (Math.min(end, chunkEnd) - offset + 1);
+          window.add(
+              CompletableFuture.supplyAsync(() -> fetchChunk(downloadRequest, chunk), executor));
+          slices.add(new int[] {from, to});
+        }
+        offset = chunkEnd + 1;
+        if (offset > end) {
+          break;
+        }
+      }
+      while (!window.isEmpty()) {
+        write(window.poll(), slices.poll(), outputStream);
+      }
+    } finally {
+      window.forEach(fetch -> fetch.cancel(false));
+    }
+  }
+
+  private static void write(CompletableFuture<byte[]> fetch, int[] slice, OutputStream out) {
+    try {
+      out.write(fetch.join(), slice[0], slice[1] - slice[0]);
+    } catch (CompletionException e) {
+      throw unwrap(e);
+    } catch (IOException e) {
+      throw new SubstrateSdkException("Failed to write downloaded content", e);
+    }
+  }
+
+  private byte[] fetchChunk(DownloadRequest downloadRequest, DedupManifest.Chunk chunk) {
+    ByteArray bytes = new ByteArray();
+    client.download(
+        DownloadRequest.builder()
+            .withKey(chunk.key(options.getChunkPrefix()))
+            .withKmsKeyId(downloadRequest.getKmsKeyId())
+            .withOperationContext(downloadRequest.getOperationContext())
+            .build(),
+        bytes);
+    byte[] data = bytes.getBytes();
+    if (data == null
+        || data.length != chunk.getLength()
+        || !Arrays.equals(chunk.getDigest(), Hashing.sha256().hashBytes(data).asBytes())) {
+      throw new IllegalStateException("Corrupt dedup chunk " + chunk.getName());
+    }
+    return data;
+  }
+
+  private static DownloadResponse toContentResponse(
+      DownloadResponse response, DedupManifest manifest) {
+    BlobMetadata metadata = response.getMetadata();
+    return response.toBuilder()
+        .inputStream(null)
+        .metadata(
+            metadata == null ? null : metadata.toBuilder().objectSize(manifest.getLength()).build())
+        .build();
+  }
+
+  private static void awaitQuietly(List<CompletableFuture<Void>> futures) {
+    for (CompletableFuture<Void> future : futures) {
+      try {
+        future.join();
+      } catch (CompletionException ignored) {
+        // Recorded by the future's completion handler.
+      }
+    }
+  }
+
+  private static RuntimeException unwrap(Throwable t) {
+    while (t instanceof CompletionException && t.getCause() != null) {
+      t = t.getCause();
+    }
+    if (t instanceof RuntimeException) {
+      return (RuntimeException) t;
+    }
+    if (t instanceof Error) {
+      throw (Error) t;
+    }
+    return new SubstrateSdkException(t);
+  }
+}
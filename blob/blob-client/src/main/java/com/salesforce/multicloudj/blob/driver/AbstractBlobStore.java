@@ -1,21 +1,39 @@
 package com.salesforce.multicloudj.blob.driver;
 
+import com.google.common.collect.Iterators;
 import com.salesforce.multicloudj.common.exceptions.InvalidArgumentException;
+import com.salesforce.multicloudj.common.exceptions.ResourceConflictException;
+import com.salesforce.multicloudj.common.exceptions.ResourceExhaustedException;
+import com.salesforce.multicloudj.common.exceptions.ResourceNotFoundException;
 import com.salesforce.multicloudj.common.exceptions.SubstrateSdkException;
 import com.salesforce.multicloudj.common.provider.Provider;
 import com.salesforce.multicloudj.sts.model.CredentialsOverrider;
+import java.io.BufferedOutputStream;
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
 import java.io.File;
 import java.io.IOException;
 import java.io.InputStream;
 import java.io.OutputStream;
 import java.net.URL;
+import java.nio.ByteBuffer;
+import java.nio.channels.Channels;
+import java.nio.channels.ReadableByteChannel;
 import java.nio.file.Files;
 import java.nio.file.Path;
 import java.time.Instant;
+import java.util.ArrayList;
 import java.util.Collection;
+import java.util.Collections;
+import java.util.HashMap;
 import java.util.Iterator;
 import java.util.List;
 import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.function.Consumer;
 import lombok.Getter;
 
 /**
@@ -24,11 +42,27 @@ import lombok.Getter;
  */
 public abstract class AbstractBlobStore implements BlobStore, AutoCloseable {
 
+  /**
+   * Trailing bytes fetched when reading the block index of a compressed blob. Covers the index of
+   * objects with up to ~8K blocks in a single request; larger indexes take a second request.
+   */
+  private static final int INDEX_TAIL_FETCH_SIZE = 64 * 1024;
+
   @Getter private final String providerId;
   @Getter protected final String bucket;
   @Getter protected final String region;
   protected final CredentialsOverrider credentialsOverrider;
-  protected final BlobStoreValidator validator;
+  @Getter protected final BlobStoreValidator validator;
+
+  /**
+   * Executor for work the template layer fans out itself (e.g. the spans of {@link
+   * #downloadRanges}). Falls back to {@link BlobExecutors#defaultExecutor()} when none was
+   * configured.
+   */
+  protected final ExecutorService executorService;
+
+  /** Lookups a bulk {@code getMetadata} or {@code doesObjectExist} keeps in flight at once. */
+  protected final int maxBulkLookupConcurrency;
 
   protected AbstractBlobStore(Builder<?, ?> builder) {
     this(
@@ -36,7 +70,9 @@ public abstract class AbstractBlobStore implements BlobStore, AutoCloseable {
         builder.getBucket(),
         builder.getRegion(),
         builder.getCredentialsOverrider(),
-        builder.getValidator());
+        builder.getValidator(),
+        builder.getExecutorService(),
+        builder.getMaxBulkLookupConcurrency());
   }
 
   public AbstractBlobStore(
@@ -45,17 +81,37 @@ public abstract class AbstractBlobStore implements BlobStore, AutoCloseable {
       String region,
       CredentialsOverrider credentials,
       BlobStoreValidator validator) {
+    this(providerId, bucket, region, credentials, validator, null, null);
+  }
+
+  private AbstractBlobStore(
+      String providerId,
+      String bucket,
+      String region,
+      CredentialsOverrider credentials,
+      BlobStoreValidator validator,
+      ExecutorService executorService,
+      Integer maxBulkLookupConcurrency) {
     this.providerId = providerId;
     this.bucket = bucket;
     this.region = region;
     this.credentialsOverrider = credentials;
     this.validator = validator;
+    this.executorService =
+        executorService == null ? BlobExecutors.defaultExecutor() : executorService;
+    this.maxBulkLookupConcurrency =
+        maxBulkLookupConcurrency == null
+            ? BulkLookups.DEFAULT_MAX_CONCURRENCY
+            : maxBulkLookupConcurrency;
   }
 
   /** {@inheritDoc} */
   @Override
   public UploadResponse upload(UploadRequest uploadRequest, InputStream inputStream) {
     validator.validate(uploadRequest);
+    if (uploadRequest.getCompression() != null) {
+      return doCompressedUpload(uploadRequest, inputStream);
+    }
     return doUpload(uploadRequest, inputStream);
   }
 
@@ -63,6 +119,9 @@ public abstract class AbstractBlobStore implements BlobStore, AutoCloseable {
   @Override
   public UploadResponse upload(UploadRequest uploadRequest, byte[] content) {
     validator.validate(uploadRequest);
+    if (uploadRequest.getCompression() != null) {
+      return doCompressedUpload(uploadRequest, content);
+    }
     return doUpload(uploadRequest, content);
   }
 
@@ -70,6 +129,9 @@ public abstract class AbstractBlobStore implements BlobStore, AutoCloseable {
   @Override
   public UploadResponse upload(UploadRequest uploadRequest, File file) {
     validator.validate(uploadRequest);
+    if (uploadRequest.getCompression() != null) {
+      return doCompressedUpload(uploadRequest, file.toPath());
+    }
     return doUpload(uploadRequest, file);
   }
 
@@ -77,13 +139,40 @@ public abstract class AbstractBlobStore implements BlobStore, AutoCloseable {
   @Override
   public UploadResponse upload(UploadRequest uploadRequest, Path path) {
     validator.validate(uploadRequest);
+    if (uploadRequest.getCompression() != null) {
+      return doCompressedUpload(uploadRequest, path);
+    }
     return doUpload(uploadRequest, path);
   }
 
+  /** {@inheritDoc} */
+  @Override
+  public UploadResponse upload(UploadRequest uploadRequest, ByteBuffer buffer) {
+    validator.validate(uploadRequest);
+    if (uploadRequest.getCompression() != null) {
+      return doCompressedUpload(uploadRequest, new ByteBufferInputStream(buffer));
+    }
+    return doUpload(uploadRequest, buffer);
+  }
+
+  /** {@inheritDoc} */
+  @Override
+  public UploadResponse upload(
+      UploadRequest uploadRequest, ReadableByteChannel channel, long contentLength) {
+    validator.validate(uploadRequest);
+    if (uploadRequest.getCompression() != null) {
+      return doCompressedUpload(uploadRequest, Channels.newInputStream(channel));
+    }
+    return doUpload(uploadRequest, channel, contentLength);
+  }
+
   /** {@inheritDoc} */
   @Override
   public DownloadResponse download(DownloadRequest downloadRequest, OutputStream outputStream) {
     validator.validate(downloadRequest);
+    if (downloadRequest.isDecompress()) {
+      return doDecompressedDownload(downloadRequest, outputStream);
+    }
     return doDownload(downloadRequest, outputStream);
   }
 
@@ -91,6 +180,9 @@ public abstract class AbstractBlobStore implements BlobStore, AutoCloseable {
   @Override
   public DownloadResponse download(DownloadRequest downloadRequest, ByteArray byteArray) {
     validator.validate(downloadRequest);
+    if (downloadRequest.isDecompress()) {
+      return doDecompressedDownload(downloadRequest, byteArray);
+    }
     return doDownload(downloadRequest, byteArray);
   }
 
@@ -98,6 +190,9 @@ public abstract class AbstractBlobStore implements BlobStore, AutoCloseable {
   @Override
   public DownloadResponse download(DownloadRequest downloadRequest, File file) {
     validator.validate(downloadRequest);
+    if (downloadRequest.isDecompress()) {
+      return doDecompressedDownload(downloadRequest, file);
+    }
     return doDownload(downloadRequest, file);
   }
 
@@ -105,6 +200,9 @@ public abstract class AbstractBlobStore implements BlobStore, AutoCloseable {
   @Override
   public DownloadResponse download(DownloadRequest downloadRequest, Path path) {
     validator.validate(downloadRequest);
+    if (downloadRequest.isDecompress()) {
+      return doDecompressedDownload(downloadRequest, path);
+    }
     return doDownload(downloadRequest, path);
   }
 
@@ -112,9 +210,19 @@ public abstract class AbstractBlobStore implements BlobStore, AutoCloseable {
   @Override
   public DownloadResponse download(DownloadRequest downloadRequest) {
     validator.validate(downloadRequest);
+    if (downloadRequest.isDecompress()) {
+      return doDecompressedDownload(downloadRequest);
+    }
     return doDownload(downloadRequest);
   }
 
+  /** {@inheritDoc} */
+  @Override
+  public MultiRangeDownloadResponse downloadRanges(MultiRangeDownloadRequest request) {
+    validator.validate(request);
+    return doDownloadRanges(request);
+  }
+
   /** {@inheritDoc} */
   @Override
   public void delete(String key, String versionId) {
@@ -150,6 +258,26 @@ public abstract class AbstractBlobStore implements BlobStore, AutoCloseable {
     return doGetMetadata(key, versionId);
   }
 
+  /**
+   * {@inheritDoc}
+   *
+   * <p>The preconditions are evaluated against an ordinary metadata lookup: a metadata request
+   * transfers no content, so sending them to the store would save nothing.
+   */
+  @Override
+  public BlobMetadata getMetadata(String key, String versionId, BlobPreconditions preconditions) {
+    validator.validateKey(key);
+    BlobMetadata metadata = doGetMetadata(key, versionId);
+    return preconditions != null ? preconditions.evaluate(metadata) : metadata;
+  }
+
+  /** {@inheritDoc} */
+  @Override
+  public Map<BlobIdentifier, BlobMetadata> getMetadata(Collection<BlobIdentifier> objects) {
+    validator.validateBlobIdentifiers(objects);
+    return doGetMetadata(objects);
+  }
+
   /** {@inheritDoc} */
   @Override
   public Iterator<BlobInfo> list(ListBlobsRequest request) {
@@ -159,9 +287,36 @@ public abstract class AbstractBlobStore implements BlobStore, AutoCloseable {
   /** {@inheritDoc} */
   @Override
   public ListBlobsPageResponse listPage(ListBlobsPageRequest request) {
+    validator.validate(request);
     return doListPage(request);
   }
 
+  /**
+   * {@inheritDoc}
+   *
+   * <p>Samples the prefix with {@link #doListPage} through a {@link KeyRangeSplitter}.
+   */
+  @Override
+  public List<KeyRange> splitKeyRange(String prefix, int ranges) {
+    if (ranges < 1) {
+      throw new InvalidArgumentException("ranges must be positive. value=" + ranges);
+    }
+    return new KeyRangeSplitter(this::doListPage).split(prefix, ranges);
+  }
+
+  /** {@inheritDoc} */
+  @Override
+  public List<PrefixUsage> computeUsage(String prefix, int depth) {
+    return computeUsage(PrefixUsageRequest.builder().prefix(prefix).depth(depth).build());
+  }
+
+  /** {@inheritDoc} */
+  @Override
+  public List<PrefixUsage> computeUsage(PrefixUsageRequest request) {
+    validator.validate(request);
+    return doComputeUsage(request);
+  }
+
   /** {@inheritDoc} */
   @Override
   public Iterator<BlobMetadata> listBlobVersions(ListBlobVersionsRequest request) {
@@ -245,6 +400,13 @@ public abstract class AbstractBlobStore implements BlobStore, AutoCloseable {
     return doDoesObjectExist(key, versionId);
   }
 
+  /** {@inheritDoc} */
+  @Override
+  public Map<BlobIdentifier, Boolean> doesObjectExist(Collection<BlobIdentifier> objects) {
+    validator.validateBlobIdentifiers(objects);
+    return doDoesObjectExist(objects);
+  }
+
   /** {@inheritDoc} */
   @Override
   public boolean doesBucketExist() {
@@ -278,6 +440,20 @@ public abstract class AbstractBlobStore implements BlobStore, AutoCloseable {
     doDeleteDirectory(prefix);
   }
 
+  /** {@inheritDoc} */
+  @Override
+  public void deleteDirectory(DirectoryDeleteRequest request) {
+    validator.validate(request);
+    doDeleteDirectory(request);
+  }
+
+  /** {@inheritDoc} */
+  @Override
+  public DirectorySyncResponse syncDirectory(Path local, String prefix, SyncOptions options) {
+    validator.validateSyncDirectory(local, options);
+    return doSyncDirectory(local, prefix, options);
+  }
+
   /**
    * {@inheritDoc}
    *
@@ -318,6 +494,37 @@ public abstract class AbstractBlobStore implements BlobStore, AutoCloseable {
 
   protected abstract UploadResponse doUpload(UploadRequest uploadRequest, Path path);
 
+  /**
+   * Provider hook for {@link #upload(UploadRequest, ByteBuffer)}. The default implementation hands
+   * a heap buffer that spans its whole array to {@link #doUpload(UploadRequest, byte[])} and
+   * streams any other buffer in place through {@link #doUpload(UploadRequest, InputStream)} with
+   * its length set. Substrates whose SDK accepts buffers directly override this.
+   */
+  protected UploadResponse doUpload(UploadRequest uploadRequest, ByteBuffer buffer) {
+    if (buffer.hasArray()
+        && buffer.arrayOffset() + buffer.position() == 0
+        && buffer.remaining() == buffer.array().length) {
+      return doUpload(uploadRequest, buffer.array());
+    }
+    return doUpload(
+        uploadRequest.toBuilder().withContentLength(buffer.remaining()).build(),
+        new ByteBufferInputStream(buffer));
+  }
+
+  /**
+   * Provider hook for {@link #upload(UploadRequest, ReadableByteChannel, long)}. The default
+   * implementation streams the channel through {@link #doUpload(UploadRequest, InputStream)},
+   * with the content length set when it is known.
+   */
+  protected UploadResponse doUpload(
+      UploadRequest uploadRequest, ReadableByteChannel channel, long contentLength) {
+    UploadRequest request =
+        contentLength >= 0
+            ? uploadRequest.toBuilder().withContentLength(contentLength).build()
+            : uploadRequest;
+    return doUpload(request, Channels.newInputStream(channel));
+  }
+
   protected abstract DownloadResponse doDownload(
       DownloadRequest downloadRequest, OutputStream outputStream);
 
@@ -330,6 +537,40 @@ public abstract class AbstractBlobStore implements BlobStore, AutoCloseable {
 
   protected abstract DownloadResponse doDownload(DownloadRequest downloadRequest);
 
+  /**
+   * Provider hook for {@link #downloadRanges(MultiRangeDownloadRequest)}.
+   *
+   * <p>The default implementation coalesces the ranges with {@link RangeCoalescer} and fetches
+   * each span with a ranged {@link #doDownload(DownloadRequest, ByteArray)}, running all but the
+   * first span on {@link #executorService}. Providers with a native multi-range read may override.
+   */
+  protected MultiRangeDownloadResponse doDownloadRanges(MultiRangeDownloadRequest request) {
+    List<ByteRange> spans = RangeCoalescer.plan(request);
+    List<CompletableFuture<byte[]>> fetches = new ArrayList<>(spans.size());
+    for (int i = 1; i < spans.size(); i++) {
+      ByteRange span = spans.get(i);
+      fetches.add(CompletableFuture.supplyAsync(() -> fetchSpan(request, span), executorService));
+    }
+    try {
+      List<byte[]> spanBytes = new ArrayList<>(spans.size());
+      spanBytes.add(fetchSpan(request, spans.get(0)));
+      for (CompletableFuture<byte[]> fetch : fetches) {
+        spanBytes.add(fetch.join());
+      }
+      return RangeCoalescer.slice(request, spans, spanBytes);
+    } catch (CompletionException e) {
+      throw e.getCause() instanceof RuntimeException ? (RuntimeException) e.getCause() : e;
+    } finally {
+      fetches.forEach(fetch -> fetch.cancel(false));
+    }
+  }
+
+  private byte[] fetchSpan(MultiRangeDownloadRequest request, ByteRange span) {
+    ByteArray bytes = new ByteArray();
+    doDownload(RangeCoalescer.toDownloadRequest(request, span), bytes);
+    return bytes.getBytes();
+  }
+
   protected abstract void doDelete(String key, String versionId);
 
   protected abstract void doDelete(Collection<BlobIdentifier> objects);
@@ -340,6 +581,69 @@ public abstract class AbstractBlobStore implements BlobStore, AutoCloseable {
 
   protected abstract BlobMetadata doGetMetadata(String key, String versionId);
 
+  /**
+   * Provider hook for {@link #getMetadata(Collection)}. The default implementation issues one
+   * {@link #doGetMetadata(String, String)} per identifier on {@link #executorService}, at most
+   * {@link #maxBulkLookupConcurrency} at a time. Failures that {@link #mapException} maps to
+   * {@link ResourceNotFoundException} become null entries; any other failure fails the call.
+   */
+  protected Map<BlobIdentifier, BlobMetadata> doGetMetadata(Collection<BlobIdentifier> objects) {
+    BulkLookups.Plan plan = BulkLookups.plan(objects, false);
+    Map<BlobIdentifier, BlobMetadata> found = new ConcurrentHashMap<>();
+    runBulkLookups(
+        plan.getIndividual(),
+        object -> {
+          BlobMetadata metadata = getMetadataIfExists(object);
+          if (metadata != null) {
+            found.put(object, metadata);
+          }
+        });
+    return plan.toResult(found);
+  }
+
+  private BlobMetadata getMetadataIfExists(BlobIdentifier object) {
+    try {
+      return doGetMetadata(object.getKey(), object.getVersionId());
+    } catch (RuntimeException e) {
+      if (mapException(e) instanceof ResourceNotFoundException) {
+        return null;
+      }
+      throw e;
+    }
+  }
+
+  /**
+   * Provider hook for {@link #doesObjectExist(Collection)}. The default implementation resolves
+   * groups of keys sharing a prefix with {@link #doListPage} as planned by {@link BulkLookups},
+   * then checks the remaining identifiers with {@link #doDoesObjectExist(String, String)}; both
+   * phases run on {@link #executorService}, at most {@link #maxBulkLookupConcurrency} at a time.
+   */
+  protected Map<BlobIdentifier, Boolean> doDoesObjectExist(Collection<BlobIdentifier> objects) {
+    BulkLookups.Plan plan = BulkLookups.plan(objects, true);
+    Map<BlobIdentifier, Boolean> results = new ConcurrentHashMap<>();
+    List<BlobIdentifier> individual =
+        Collections.synchronizedList(new ArrayList<>(plan.getIndividual()));
+    runBulkLookups(
+        plan.getGroups(),
+        group -> {
+          boolean more;
+          do {
+            more = group.accept(doListPage(group.nextPageRequest()));
+          } while (more);
+          individual.addAll(group.resolve(results));
+        });
+    runBulkLookups(
+        individual,
+        object -> results.put(object, doDoesObjectExist(object.getKey(), object.getVersionId())));
+    return plan.toResult(results);
+  }
+
+  private <T> void runBulkLookups(List<T> items, Consumer<T> lookup) {
+    // The async bridge calls the bulk lookups on executorService, so the calling thread takes its
+    // share of the lookups instead of blocking on tasks queued behind it.
+    BulkLookups.forEach(items, maxBulkLookupConcurrency, executorService, lookup);
+  }
+
   protected abstract Iterator<BlobInfo> doList(ListBlobsRequest request);
 
   protected abstract ListBlobsPageResponse doListPage(ListBlobsPageRequest request);
@@ -355,6 +659,23 @@ public abstract class AbstractBlobStore implements BlobStore, AutoCloseable {
         "List object versions is not supported by this substrate implementation");
   }
 
+  /**
+   * Provider hook listing every stored version and delete marker under {@code prefix} in one
+   * paginated listing, fetching pages as the iterator advances. Unlike {@link
+   * #doListBlobVersions}, it reaches keys whose latest version is a delete marker. Used by {@link
+   * #doDeleteDirectory(DirectoryDeleteRequest)} and {@link #doComputeUsage} when versions are
+   * included.
+   *
+   * <p>Default implementation throws {@link UnsupportedOperationException}; providers opt in by
+   * overriding this method.
+   *
+   * @param prefix the prefix to list, or null for the whole bucket
+   */
+  protected Iterator<BlobVersionInfo> doListAllVersions(String prefix) {
+    throw new UnsupportedOperationException(
+        "Listing versions by prefix is not supported by this substrate implementation");
+  }
+
   protected abstract MultipartUpload doInitiateMultipartUpload(MultipartUploadRequest request);
 
   protected abstract UploadPartResponse doUploadMultipartPart(
@@ -427,8 +748,356 @@ public abstract class AbstractBlobStore implements BlobStore, AutoCloseable {
   }
 
   protected void doDeleteDirectory(String prefix) {
-    throw new UnsupportedOperationException(
-        "Directory delete is not supported by this substrate implementation");
+    doDeleteDirectory(DirectoryDeleteRequest.builder().prefix(prefix).build());
+  }
+
+  /**
+   * Provider hook for {@link #deleteDirectory(DirectoryDeleteRequest)}.
+   *
+   * <p>The default lists the prefix with {@link #doList} and hands what it lists to a {@link
+   * DirectoryDeleter}, which deletes it in batches with {@link #doDelete(Collection)} on {@link
+   * #executorService} while the listing goes on. Batches that {@link #mapException} maps to {@link
+   * ResourceExhaustedException} are retried with backoff. With {@code includeVersions}, the prefix
+   * is listed with {@link #doListAllVersions} instead, and every version and delete marker it
+   * returns is deleted by version id.
+   */
+  protected void doDeleteDirectory(DirectoryDeleteRequest request) {
+    Iterator<BlobIdentifier> objects =
+        request.isIncludeVersions()
+            ? Iterators.transform(
+                doListAllVersions(request.getPrefix()),
+                version -> new BlobIdentifier(version.getKey(), version.getVersionId()))
+            : Iterators.transform(
+                doList(ListBlobsRequest.builder().withPrefix(request.getPrefix()).build()),
+                blob -> new BlobIdentifier(blob.getKey(), null));
+    new DirectoryDeleter(
+            e -> mapException(e) instanceof ResourceExhaustedException,
+            DirectoryDeleter.DEFAULT_MAX_CONCURRENCY,
+            request.getProgressListener())
+        .delete(objects, this::doDelete, executorService);
+  }
+
+  /**
+   * Provider hook for {@link #computeUsage(PrefixUsageRequest)}.
+   *
+   * <p>The default lists the prefix and its sub-prefixes with {@link #doListPage} through a {@link
+   * PrefixUsageAggregator} on {@link #executorService}. With {@code includeVersions}, noncurrent
+   * versions are counted from one {@link #doListAllVersions} listing of the prefix.
+   */
+  protected List<PrefixUsage> doComputeUsage(PrefixUsageRequest request) {
+    return new PrefixUsageAggregator(PrefixUsageAggregator.DEFAULT_MAX_CONCURRENCY)
+        .aggregate(request, this::doListPage, this::doListAllVersions, executorService);
+  }
+
+  /**
+   * Provider hook for {@link #syncDirectory(Path, String, SyncOptions)}.
+   *
+   * <p>The default merges a walk of the directory with a {@link #doList} of the prefix through a
+   * {@link DirectorySyncer}, which transfers files with {@link #doUpload(UploadRequest, Path)} and
+   * {@link #doDownload(DownloadRequest, Path)} and deletes objects with {@link
+   * #doDelete(Collection)} on {@link #executorService}.
+   */
+  protected DirectorySyncResponse doSyncDirectory(Path local, String prefix, SyncOptions options) {
+    return new DirectorySyncer(options.getMaxConcurrency())
+        .sync(
+            local,
+            prefix,
+            options,
+            new DirectorySyncer.Bucket() {
+              @Override
+              public Iterator<BlobInfo> list(String listPrefix) {
+                return doList(ListBlobsRequest.builder().withPrefix(listPrefix).build());
+              }
+
+              @Override
+              public void upload(String key, Path source, long size) {
+                doUpload(
+                    UploadRequest.builder().withKey(key).withContentLength(size).build(), source);
+              }
+
+              @Override
+              public void download(String key, Path destination) {
+                doDownload(DownloadRequest.builder().withKey(key).build(), destination);
+              }
+
+              @Override
+              public void delete(List<String> keys) {
+                List<BlobIdentifier> objects = new ArrayList<>(keys.size());
+                for (String key : keys) {
+                  objects.add(new BlobIdentifier(key, null));
+                }
+                doDelete(objects);
+              }
+
+              @Override
+              public byte[] md5(String key) {
+                return doGetMetadata(key, null).getMd5();
+              }
+            },
+            executorService);
+  }
+
+  /**
+   * Compresses {@code content} with the request's {@link BlobCompression} and uploads the framed
+   * result, recording the codec and uncompressed size in the object's metadata.
+   */
+  private UploadResponse doCompressedUpload(UploadRequest uploadRequest, byte[] content) {
+    ByteArrayOutputStream compressed = new ByteArrayOutputStream(content.length / 2 + 64);
+    try {
+      CompressedBlobFormat.encode(
+          new ByteArrayInputStream(content),
+          compressed,
+          uploadRequest.getCompression(),
+          executorService);
+    } catch (IOException e) {
+      throw new SubstrateSdkException("Failed to compress upload content", e);
+    }
+    byte[] bytes = compressed.toByteArray();
+    return doUpload(toCompressedRequest(uploadRequest, bytes.length, content.length), bytes);
+  }
+
+  /**
+   * Streams {@code inputStream} through the compressor into a temporary file and uploads that
+   * file. The substrates need the content length up front, which is unknown until the whole
+   * stream has been compressed.
+   */
+  private UploadResponse doCompressedUpload(UploadRequest uploadRequest, InputStream inputStream) {
+    Path spool = null;
+    try {
+      spool = Files.createTempFile("multicloudj-compressed-", ".tmp");
+      long rawLength;
+      try (OutputStream out = new BufferedOutputStream(Files.newOutputStream(spool))) {
+        rawLength =
+            CompressedBlobFormat.encode(
+                inputStream, out, uploadRequest.getCompression(), executorService);
+      }
+      UploadRequest request = toCompressedRequest(uploadRequest, Files.size(spool), rawLength);
+      return doUpload(request, spool);
+    } catch (IOException e) {
+      throw new SubstrateSdkException("Failed to compress upload content", e);
+    } finally {
+      deleteQuietly(spool);
+    }
+  }
+
+  private UploadResponse doCompressedUpload(UploadRequest uploadRequest, Path path) {
+    try (InputStream in = Files.newInputStream(path)) {
+      return doCompressedUpload(uploadRequest, in);
+    } catch (IOException e) {
+      throw new SubstrateSdkException("Failed to read upload content", e);
+    }
+  }
+
+  private static UploadRequest toCompressedRequest(
+      UploadRequest uploadRequest, long compressedLength, long rawLength) {
+    Map<String, String> metadata = new HashMap<>(uploadRequest.getMetadata());
+    metadata.put(
+        BlobCompression.CODEC_METADATA_KEY,
+        uploadRequest.getCompression().getCodec().getMetadataValue());
+    metadata.put(BlobCompression.UNCOMPRESSED_SIZE_METADATA_KEY, Long.toString(rawLength));
+    return uploadRequest.toBuilder()
+        .withMetadata(metadata)
+        .withContentLength(compressedLength)
+        .withCompression(null)
+        .build();
+  }
+
+  private static void deleteQuietly(Path path) {
+    if (path == null) {
+      return;
+    }
+    try {
+      Files.deleteIfExists(path);
+    } catch (IOException ignored) {
+      // Best effort; the file lives in the temporary directory.
+    }
+  }
+
+  private DownloadResponse doDecompressedDownload(
+      DownloadRequest downloadRequest, OutputStream outputStream) {
+    DownloadResponse response = doDecompressedDownload(downloadRequest);
+    if (response.isNotModified()) {
+      return response;
+    }
+    try (InputStream in = response.getInputStream()) {
+      in.transferTo(outputStream);
+    } catch (IOException e) {
+      throw new SubstrateSdkException("Failed to decompress downloaded content", e);
+    }
+    return response.toBuilder().inputStream(null).build();
+  }
+
+  private DownloadResponse doDecompressedDownload(
+      DownloadRequest downloadRequest, ByteArray byteArray) {
+    DownloadResponse response = doDecompressedDownload(downloadRequest);
+    if (response.isNotModified()) {
+      return response;
+    }
+    try (InputStream in = response.getInputStream()) {
+      byteArray.setBytes(in.readAllBytes());
+    } catch (IOException e) {
+      throw new SubstrateSdkException("Failed to decompress downloaded content", e);
+    }
+    return response.toBuilder().inputStream(null).build();
+  }
+
+  private DownloadResponse doDecompressedDownload(DownloadRequest downloadRequest, File file) {
+    return doDecompressedDownload(downloadRequest, file.toPath());
+  }
+
+  private DownloadResponse doDecompressedDownload(DownloadRequest downloadRequest, Path path) {
+    Path destination = createDownloadDestinationPath(downloadRequest, path);
+    DownloadResponse response = doDecompressedDownload(downloadRequest);
+    if (response.isNotModified()) {
+      return response;
+    }
+    try (InputStream in = response.getInputStream();
+        OutputStream out = Files.newOutputStream(destination)) {
+      in.transferTo(out);
+    } catch (IOException e) {
+      throw new SubstrateSdkException("Failed to decompress downloaded content", e);
+    }
+    return response.toBuilder().inputStream(null).build();
+  }
+
+  /**
+   * Downloads an object that may have been uploaded with client-side compression, returning a
+   * stream of uncompressed bytes. Full reads detect the codec from the GET response itself; ranged
+   * reads look up the metadata, read the block index from the object's tail and then fetch only
+   * the frames overlapping the requested uncompressed range. The ranged GETs are pinned to the
+   * version and ETag the lookup saw, so they fail with {@link ResourceConflictException} rather
+   * than mix frames of two objects when the key is overwritten meanwhile.
+   */
+  private DownloadResponse doDecompressedDownload(DownloadRequest downloadRequest) {
+    if (downloadRequest.getStart() == null && downloadRequest.getEnd() == null) {
+      DownloadResponse response = doDownload(downloadRequest);
+      if (codecOf(response.getMetadata()) == null) {
+        return response;
+      }
+      InputStream frames = response.getInputStream();
+      try {
+        CompressionCodec codec = CompressedBlobFormat.readHeader(frames);
+        return response.toBuilder()
+            .inputStream(
+                new CompressedBlobFormat.DecodingInputStream(frames, codec, 0, Long.MAX_VALUE))
+            .build();
+      } catch (IOException e) {
+        closeQuietly(frames);
+        throw new SubstrateSdkException("Failed to read compressed blob header", e);
+      }
+    }
+
+    BlobMetadata metadata = doGetMetadata(downloadRequest.getKey(), downloadRequest.getVersionId());
+    if (downloadRequest.isConditional()
+        && downloadRequest
+            .getPreconditions()
+            .isNotModified(metadata.getETag(), metadata.getLastModified())) {
+      return DownloadResponse.notModified(downloadRequest.getKey(), metadata);
+    }
+    if (downloadRequest.isConditional()
+        && downloadRequest.getPreconditions().isChanged(metadata.getETag())) {
+      throw new ResourceConflictException(
+          "Object " + downloadRequest.getKey() + " does not match the expected ETag");
+    }
+    CompressionCodec codec = codecOf(metadata);
+    if (codec == null) {
+      return doDownload(downloadRequest);
+    }
+    // Pin the version and ETag observed by the metadata lookup so every subsequent ranged GET
+    // reads the same object, or fails, even if it is overwritten concurrently. Unversioned
+    // buckets report no version, so the ETag is what catches an overwrite there.
+    String versionId =
+        downloadRequest.getVersionId() != null
+            ? downloadRequest.getVersionId()
+            : metadata.getVersionId();
+    String eTag = metadata.getETag();
+    long objectSize = metadata.getObjectSize();
+    byte[] tail =
+        downloadRange(
+            downloadRequest,
+            versionId,
+            eTag,
+            objectSize - Math.min(objectSize, INDEX_TAIL_FETCH_SIZE),
+            objectSize - 1);
+    int required = CompressedBlobFormat.requiredTailLength(tail);
+    if (required > tail.length) {
+      tail =
+          downloadRange(downloadRequest, versionId, eTag, objectSize - required, objectSize - 1);
+    }
+    CompressedBlobFormat.BlockIndex index = CompressedBlobFormat.readIndex(tail);
+
+    long rawLength = index.rawLength();
+    long rawStart;
+    long rawEnd;
+    if (downloadRequest.getStart() == null) {
+      rawStart = Math.max(0, rawLength - downloadRequest.getEnd());
+      rawEnd = rawLength - 1;
+    } else {
+      rawStart = downloadRequest.getStart();
+      rawEnd =
+          downloadRequest.getEnd() == null
+              ? rawLength - 1
+              : Math.min(downloadRequest.getEnd(), rawLength - 1);
+    }
+    DownloadResponse.DownloadResponseBuilder response =
+        DownloadResponse.builder().key(downloadRequest.getKey()).metadata(metadata);
+    if (rawStart > rawEnd) {
+      return response.inputStream(InputStream.nullInputStream()).build();
+    }
+    int firstBlock = index.blockContaining(rawStart);
+    int lastBlock = index.blockContaining(rawEnd);
+    DownloadResponse frames =
+        doDownload(
+            toRangeRequest(
+                downloadRequest,
+                versionId,
+                eTag,
+                index.frameStart(firstBlock),
+                index.frameEnd(lastBlock)));
+    return response
+        .inputStream(
+            new CompressedBlobFormat.DecodingInputStream(
+                frames.getInputStream(),
+                codec,
+                rawStart - index.rawOffset(firstBlock),
+                rawEnd - rawStart + 1))
+        .build();
+  }
+
+  private byte[] downloadRange(
+      DownloadRequest downloadRequest, String versionId, String eTag, long start, long end) {
+    ByteArray bytes = new ByteArray();
+    doDownload(toRangeRequest(downloadRequest, versionId, eTag, start, end), bytes);
+    return bytes.getBytes();
+  }
+
+  private static DownloadRequest toRangeRequest(
+      DownloadRequest downloadRequest, String versionId, String eTag, long start, long end) {
+    return DownloadRequest.builder()
+        .withKey(downloadRequest.getKey())
+        .withVersionId(versionId)
+        .withRange(start, end)
+        .withPreconditions(
+            eTag == null ? null : BlobPreconditions.builder().withIfMatch(eTag).build())
+        .withKmsKeyId(downloadRequest.getKmsKeyId())
+        .withOperationContext(downloadRequest.getOperationContext())
+        .build();
+  }
+
+  private static CompressionCodec codecOf(BlobMetadata metadata) {
+    if (metadata == null || metadata.getMetadata() == null) {
+      return null;
+    }
+    return CompressionCodec.fromMetadataValue(
+        metadata.getMetadata().get(BlobCompression.CODEC_METADATA_KEY));
+  }
+
+  private static void closeQuietly(InputStream in) {
+    try {
+      in.close();
+    } catch (IOException ignored) {
+      // Already failing; the original error is more useful.
+    }
   }
 
   /**
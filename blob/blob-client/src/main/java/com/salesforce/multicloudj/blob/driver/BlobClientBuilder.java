@@ -240,7 +240,7 @@ public abstract class BlobClientBuilder<C, S extends SdkService> {
   }
 
   /**
-   * Method to set maximum concurrency for directory transfers in S3 Transfer Manager
+   * Method to set maximum concurrency for directory transfers
    *
    * @param transferDirectoryMaxConcurrency The maximum number of concurrent file transfers during
    *     directory operations
@@ -252,6 +252,29 @@ public abstract class BlobClientBuilder<C, S extends SdkService> {
     return this;
   }
 
+  /**
+   * Method to set the maximum number of requests in flight during a bulk {@code getMetadata} or
+   * {@code doesObjectExist}
+   *
+   * @param maxBulkLookupConcurrency The maximum number of concurrent lookup requests
+   * @return An instance of self
+   */
+  public BlobClientBuilder<C, S> withMaxBulkLookupConcurrency(Integer maxBulkLookupConcurrency) {
+    this.storeBuilder.withMaxBulkLookupConcurrency(maxBulkLookupConcurrency);
+    return this;
+  }
+
+  /**
+   * Method to build the client on a provider client shared with other clients configured alike
+   *
+   * @param sharedClients The clients to share, typically one instance per application
+   * @return An instance of self
+   */
+  public BlobClientBuilder<C, S> withSharedClients(SharedClients sharedClients) {
+    this.storeBuilder.withSharedClients(sharedClients);
+    return this;
+  }
+
   /**
    * Method to supply retry configuration
    *
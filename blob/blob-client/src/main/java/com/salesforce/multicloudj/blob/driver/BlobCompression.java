@@ -0,0 +1,53 @@
+package com.salesforce.multicloudj.blob.driver;
+
+import java.util.zip.Deflater;
+import lombok.Builder;
+import lombok.Getter;
+
+/**
+ * Client-side compression settings for {@link UploadRequest#getCompression()}.
+ *
+ * <p>Content is split into fixed-size blocks of uncompressed data and each block is compressed
+ * independently, with up to {@code parallelism} blocks in flight. The codec is recorded in the
+ * object's metadata under {@link #CODEC_METADATA_KEY}, so a download with {@link
+ * DownloadRequest#isDecompress()} detects it without the caller restating the codec. A trailing
+ * block index lets ranged reads fetch and decode only the blocks that overlap the range.
+ *
+ * <p>Compressed objects are only readable through the SDK with decompression enabled; other
+ * readers see the framed bytes.
+ */
+@Builder
+@Getter
+public class BlobCompression {
+
+  /** Metadata key under which the codec of a compressed object is recorded. */
+  public static final String CODEC_METADATA_KEY = "multicloudj-compression";
+
+  /** Metadata key under which the uncompressed size of a compressed object is recorded. */
+  public static final String UNCOMPRESSED_SIZE_METADATA_KEY = "multicloudj-uncompressed-size";
+
+  /** Default uncompressed block size: 4 MiB. */
+  public static final int DEFAULT_BLOCK_SIZE = 4 * 1024 * 1024;
+
+  /** (Required) The codec used to compress each block. */
+  private final CompressionCodec codec;
+
+  /**
+   * (Optional) Compression level from 0 (none) to 9 (best). Defaults to the codec's default
+   * level.
+   */
+  @Builder.Default private final int level = Deflater.DEFAULT_COMPRESSION;
+
+  /**
+   * (Optional) Uncompressed bytes per block. Smaller blocks make ranged reads cheaper at some cost
+   * in ratio. Defaults to {@link #DEFAULT_BLOCK_SIZE}.
+   */
+  @Builder.Default private final int blockSizeInBytes = DEFAULT_BLOCK_SIZE;
+
+  /**
+   * (Optional) Maximum number of blocks compressed concurrently. Defaults to the number of
+   * available processors; {@code 1} compresses on the calling thread.
+   */
+  @Builder.Default
+  private final int parallelism = Runtime.getRuntime().availableProcessors();
+}
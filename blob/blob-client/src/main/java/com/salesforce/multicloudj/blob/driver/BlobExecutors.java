@@ -0,0 +1,54 @@
+package com.salesforce.multicloudj.blob.driver;
+
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * The executor blob stores and clients fan their blocking requests out on when none was configured.
+ *
+ * <p>Requests block their thread for a network round trip, so they are kept off {@link
+ * java.util.concurrent.ForkJoinPool#commonPool()}, which is sized for CPU-bound work and shared
+ * with parallel streams and the rest of the JVM. The default pool has at most {@link
+ * #DEFAULT_POOL_SIZE} daemon threads, which exit after a minute idle, and queues work beyond that.
+ * The callers already bound how much work they keep in flight.
+ */
+public final class BlobExecutors {
+
+  /** Threads in the default pool. */
+  public static final int DEFAULT_POOL_SIZE = 64;
+
+  private static final long KEEP_ALIVE_SECONDS = 60;
+
+  private BlobExecutors() {}
+
+  /** Returns the default executor, shared by every store and client of the process. */
+  public static ExecutorService defaultExecutor() {
+    return Holder.POOL;
+  }
+
+  private static final class Holder {
+
+    static final ExecutorService POOL = newPool();
+
+    private static ExecutorService newPool() {
+      AtomicInteger threads = new AtomicInteger();
+      ThreadPoolExecutor pool =
+          new ThreadPoolExecutor(
+              DEFAULT_POOL_SIZE,
+              DEFAULT_POOL_SIZE,
+              KEEP_ALIVE_SECONDS,
+              TimeUnit.SECONDS,
+              new LinkedBlockingQueue<>(),
+              task -> {
+                Thread thread = new Thread(task, "multicloudj-blob-" + threads.incrementAndGet());
+                thread.setDaemon(true);
+                return thread;
+              });
+      pool.allowCoreThreadTimeOut(true);
+      return pool;
+    }
+  }
+}
@@ -1,9 +1,13 @@
 package com.salesforce.multicloudj.blob.driver;
 
+import lombok.EqualsAndHashCode;
 import lombok.Getter;
+import lombok.ToString;
 
 /** Contains the fields necessary to uniquely identify a blob */
 @Getter
+@EqualsAndHashCode
+@ToString
 public class BlobIdentifier {
 
   private final String key;
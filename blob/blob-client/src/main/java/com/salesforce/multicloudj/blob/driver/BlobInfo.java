@@ -9,11 +9,15 @@ public class BlobInfo {
   private String key;
   private long objectSize;
   private Instant lastModified;
+  private String eTag;
+  private String versionId;
 
   private BlobInfo(Builder builder) {
     this.key = builder.key;
     this.objectSize = builder.objectSize;
     this.lastModified = builder.lastModified;
+    this.eTag = builder.eTag;
+    this.versionId = builder.versionId;
   }
 
   @Override
@@ -28,12 +32,14 @@ public class BlobInfo {
     BlobInfo blobInfo = (BlobInfo) obj;
     return objectSize == blobInfo.objectSize
         && Objects.equals(key, blobInfo.key)
-        && Objects.equals(lastModified, blobInfo.lastModified);
+        && Objects.equals(lastModified, blobInfo.lastModified)
+        && Objects.equals(eTag, blobInfo.eTag)
+        && Objects.equals(versionId, blobInfo.versionId);
   }
 
   @Override
   public int hashCode() {
-    return Objects.hash(key, objectSize, lastModified);
+    return Objects.hash(key, objectSize, lastModified, eTag, versionId);
   }
 
   public String getKey() {
@@ -48,6 +54,19 @@ public class BlobInfo {
     return lastModified;
   }
 
+  /** Returns the entity tag the listing reported, or null if the substrate does not list it. */
+  public String getETag() {
+    return eTag;
+  }
+
+  /**
+   * Returns the version the listing reported, or null if the substrate does not list versions of
+   * current objects.
+   */
+  public String getVersionId() {
+    return versionId;
+  }
+
   public static Builder builder() {
     return new Builder();
   }
@@ -56,6 +75,8 @@ public class BlobInfo {
     private String key;
     private long objectSize;
     private Instant lastModified;
+    private String eTag;
+    private String versionId;
 
     public Builder withKey(String key) {
       this.key = key;
@@ -72,6 +93,16 @@ public class BlobInfo {
       return this;
     }
 
+    public Builder withETag(String eTag) {
+      this.eTag = eTag;
+      return this;
+    }
+
+    public Builder withVersionId(String versionId) {
+      this.versionId = versionId;
+      return this;
+    }
+
     public BlobInfo build() {
       return new BlobInfo(this);
     }
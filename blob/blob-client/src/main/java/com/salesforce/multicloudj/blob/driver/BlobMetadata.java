@@ -45,6 +45,12 @@ public class BlobMetadata {
    */
   private final Checksum checksum;
 
+  /**
+   * True when a conditional lookup's {@link BlobPreconditions} found the object unchanged. Only
+   * set on results of {@code getMetadata} calls that pass preconditions.
+   */
+  private final boolean notModified;
+
   /** The correlation ID associated with the operation that produced this metadata. */
   private final String correlationId;
 }
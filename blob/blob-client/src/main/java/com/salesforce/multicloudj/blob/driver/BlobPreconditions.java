@@ -0,0 +1,129 @@
+package com.salesforce.multicloudj.blob.driver;
+
+import java.time.Instant;
+import java.time.temporal.ChronoUnit;
+import lombok.EqualsAndHashCode;
+import lombok.Getter;
+import lombok.ToString;
+
+/**
+ * Preconditions for conditional reads, with the semantics of HTTP {@code If-Match}, {@code
+ * If-None-Match} and {@code If-Modified-Since}.
+ *
+ * <p>A read whose preconditions find the object unchanged does not transfer content: it returns a
+ * result flagged as not modified instead of throwing (see {@link DownloadResponse#isNotModified()}
+ * and {@link BlobMetadata#isNotModified()}). As in HTTP, {@code ifModifiedSince} is ignored when
+ * {@code ifNoneMatch} is set. A read whose {@code ifMatch} finds the object changed fails with
+ * {@link com.salesforce.multicloudj.common.exceptions.ResourceConflictException}.
+ */
+@Getter
+@EqualsAndHashCode
+@ToString
+public class BlobPreconditions {
+
+  private final String ifMatch;
+  private final String ifNoneMatch;
+  private final Instant ifModifiedSince;
+
+  private BlobPreconditions(Builder builder) {
+    this.ifMatch = builder.ifMatch;
+    this.ifNoneMatch = builder.ifNoneMatch;
+    this.ifModifiedSince = builder.ifModifiedSince;
+  }
+
+  public static Builder builder() {
+    return new Builder();
+  }
+
+  /** Returns true if no precondition is set. */
+  public boolean isEmpty() {
+    return ifMatch == null && ifNoneMatch == null && ifModifiedSince == null;
+  }
+
+  /**
+   * Returns true if {@code ifMatch} is set and the object's current ETag, quoted or not, differs
+   * from it. An object the store reports no ETag for is not considered changed.
+   */
+  public boolean isChanged(String eTag) {
+    return ifMatch != null
+        && eTag != null
+        && !"*".equals(ifMatch)
+        && !normalizeETag(ifMatch).equals(normalizeETag(eTag));
+  }
+
+  /**
+   * Evaluates the preconditions against the current state of an object.
+   *
+   * @param eTag the object's current ETag, quoted or not
+   * @param lastModified the object's last modification time, or null if unknown
+   * @return true if the object is unchanged and its content need not be transferred
+   */
+  public boolean isNotModified(String eTag, Instant lastModified) {
+    if (ifNoneMatch != null) {
+      return "*".equals(ifNoneMatch)
+          || (eTag != null && normalizeETag(ifNoneMatch).equals(normalizeETag(eTag)));
+    }
+    if (ifModifiedSince != null && lastModified != null) {
+      // HTTP dates have second precision, so the comparison is made at that precision too.
+      return !lastModified.truncatedTo(ChronoUnit.SECONDS).isAfter(ifModifiedSince);
+    }
+    return false;
+  }
+
+  /**
+   * Returns {@code metadata} flagged {@link BlobMetadata#isNotModified()} when these preconditions
+   * find it unchanged, otherwise {@code metadata} itself.
+   */
+  public BlobMetadata evaluate(BlobMetadata metadata) {
+    if (metadata == null || !isNotModified(metadata.getETag(), metadata.getLastModified())) {
+      return metadata;
+    }
+    return metadata.toBuilder().notModified(true).build();
+  }
+
+  /** Strips the weak-validator prefix and surrounding quotes so ETags compare weakly. */
+  static String normalizeETag(String eTag) {
+    String value = eTag.startsWith("W/") ? eTag.substring(2) : eTag;
+    if (value.length() >= 2 && value.startsWith("\"") && value.endsWith("\"")) {
+      value = value.substring(1, value.length() - 1);
+    }
+    return value;
+  }
+
+  public static class Builder {
+    private String ifMatch;
+    private String ifNoneMatch;
+    private Instant ifModifiedSince;
+
+    /**
+     * The read fails when the object's current ETag differs from this one, typically the ETag of
+     * an earlier read the caller is continuing. {@code "*"} matches any existing object.
+     */
+    public Builder withIfMatch(String ifMatch) {
+      this.ifMatch = ifMatch;
+      return this;
+    }
+
+    /**
+     * The read is skipped when the object's current ETag equals this one, typically the ETag of a
+     * copy the caller already holds. {@code "*"} matches any existing object.
+     */
+    public Builder withIfNoneMatch(String ifNoneMatch) {
+      this.ifNoneMatch = ifNoneMatch;
+      return this;
+    }
+
+    /**
+     * The read is skipped when the object has not been modified after this time. Ignored when
+     * {@link #withIfNoneMatch(String)} is set.
+     */
+    public Builder withIfModifiedSince(Instant ifModifiedSince) {
+      this.ifModifiedSince = ifModifiedSince;
+      return this;
+    }
+
+    public BlobPreconditions build() {
+      return new BlobPreconditions(this);
+    }
+  }
+}
@@ -15,17 +15,22 @@ public final class BlobSpanNames {
   // Bucket-level data path.
   public static final String UPLOAD = "blob.upload";
   public static final String DOWNLOAD = "blob.download";
+  public static final String DOWNLOAD_RANGES = "blob.downloadRanges";
   public static final String DELETE = "blob.delete";
   public static final String COPY = "blob.copy";
   public static final String COPY_FROM = "blob.copyFrom";
   public static final String GET_METADATA = "blob.getMetadata";
+  public static final String GET_METADATA_BULK = "blob.getMetadataBulk";
   public static final String LIST = "blob.list";
   public static final String LIST_PAGE = "blob.listPage";
+  public static final String SPLIT_KEY_RANGE = "blob.splitKeyRange";
+  public static final String COMPUTE_USAGE = "blob.computeUsage";
   public static final String LIST_BLOB_VERSIONS = "blob.listBlobVersions";
   public static final String GET_TAGS = "blob.getTags";
   public static final String SET_TAGS = "blob.setTags";
   public static final String GENERATE_PRESIGNED_URL = "blob.generatePresignedUrl";
   public static final String DOES_OBJECT_EXIST = "blob.doesObjectExist";
+  public static final String DOES_OBJECT_EXIST_BULK = "blob.doesObjectExistBulk";
   public static final String DOES_BUCKET_EXIST = "blob.doesBucketExist";
   public static final String GET_BUCKET_VERSIONING = "blob.getBucketVersioning";
 
@@ -35,11 +40,13 @@ public final class BlobSpanNames {
   public static final String COMPLETE_MULTIPART_UPLOAD = "blob.completeMultipartUpload";
   public static final String LIST_MULTIPART_UPLOAD = "blob.listMultipartUpload";
   public static final String ABORT_MULTIPART_UPLOAD = "blob.abortMultipartUpload";
+  public static final String UPLOAD_MULTIPART = "blob.uploadMultipart";
 
   // Directory operations.
   public static final String UPLOAD_DIRECTORY = "blob.uploadDirectory";
   public static final String DOWNLOAD_DIRECTORY = "blob.downloadDirectory";
   public static final String DELETE_DIRECTORY = "blob.deleteDirectory";
+  public static final String SYNC_DIRECTORY = "blob.syncDirectory";
 
   // Object-lock operations.
   public static final String GET_OBJECT_LOCK = "blob.getObjectLock";
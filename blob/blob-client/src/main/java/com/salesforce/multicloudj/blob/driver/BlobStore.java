@@ -6,6 +6,8 @@ import java.io.File;
 import java.io.InputStream;
 import java.io.OutputStream;
 import java.net.URL;
+import java.nio.ByteBuffer;
+import java.nio.channels.ReadableByteChannel;
 import java.nio.file.Path;
 import java.util.Collection;
 import java.util.Iterator;
@@ -70,6 +72,30 @@ public interface BlobStore extends SdkService, Provider {
    */
   UploadResponse upload(UploadRequest uploadRequest, Path path);
 
+  /**
+   * Performs args validation and passes the call to substrate-specific upload method. The remaining
+   * bytes of the buffer are uploaded, read in place whether the buffer is heap or direct; its
+   * position is not modified.
+   *
+   * @param uploadRequest Wrapper, containing upload data
+   * @param buffer The buffer that contains the blob content
+   * @return Wrapper object containing the upload result data
+   */
+  UploadResponse upload(UploadRequest uploadRequest, ByteBuffer buffer);
+
+  /**
+   * Performs args validation and passes the call to substrate-specific upload method. The channel
+   * is read to its end; closing it remains the caller's responsibility.
+   *
+   * @param uploadRequest Wrapper, containing upload data
+   * @param channel The channel that contains the blob content
+   * @param contentLength The number of bytes the channel holds, or -1 if unknown. Substrates stream
+   *     content of unknown length in chunks or parts.
+   * @return Wrapper object containing the upload result data
+   */
+  UploadResponse upload(
+      UploadRequest uploadRequest, ReadableByteChannel channel, long contentLength);
+
   /**
    * Performs args validation and passes the call to substrate-specific download method
    *
@@ -115,6 +141,15 @@ public interface BlobStore extends SdkService, Provider {
    */
   DownloadResponse download(DownloadRequest downloadRequest);
 
+  /**
+   * Reads several byte ranges of one blob. Nearby ranges are coalesced into fewer ranged GETs,
+   * which are fetched in parallel and sliced back into one buffer per requested range.
+   *
+   * @param request the key, ranges and coalescing limits
+   * @return one buffer per requested range, in request order
+   */
+  MultiRangeDownloadResponse downloadRanges(MultiRangeDownloadRequest request);
+
   /**
    * Performs args validation and passes the call to substrate-specific delete method
    *
@@ -159,6 +194,27 @@ public interface BlobStore extends SdkService, Provider {
    */
   BlobMetadata getMetadata(String key, String versionId);
 
+  /**
+   * Retrieves the metadata of the Blob if it has changed since the caller's copy.
+   *
+   * @param key Name of the Blob, whose metadata is to be retrieved
+   * @param versionId The versionId of the blob. This value should be null unless you're targeting
+   *     a specific key/version blob.
+   * @param preconditions revalidation preconditions; may be null
+   * @return Metadata of the Blob, flagged {@link BlobMetadata#isNotModified()} when the
+   *     preconditions find it unchanged
+   */
+  BlobMetadata getMetadata(String key, String versionId, BlobPreconditions preconditions);
+
+  /**
+   * Retrieves the metadata of many Blobs, issuing the lookups concurrently.
+   *
+   * @param objects the Blobs to look up
+   * @return every distinct requested identifier, in request order, mapped to its metadata, or to
+   *     null if the Blob does not exist
+   */
+  Map<BlobIdentifier, BlobMetadata> getMetadata(Collection<BlobIdentifier> objects);
+
   /**
    * Retrieves the list of Blob in the bucket
    *
@@ -174,6 +230,39 @@ public interface BlobStore extends SdkService, Provider {
    */
   ListBlobsPageResponse listPage(ListBlobsPageRequest request);
 
+  /**
+   * Splits the keys under a prefix into contiguous ranges holding roughly as many keys each, for
+   * listing the prefix in parallel with {@link ListBlobsPageRequest.Builder#withKeyRange}. Large
+   * prefixes are sampled rather than listed in full, so the ranges are balanced only approximately,
+   * but together they always cover every key under the prefix exactly once.
+   *
+   * @param prefix the prefix to split, or null for the whole bucket
+   * @param ranges the number of ranges wanted; fewer are returned for small prefixes
+   * @return the ranges in key order, the first without a start and the last without an end bound
+   */
+  List<KeyRange> splitKeyRange(String prefix, int ranges);
+
+  /**
+   * Totals the objects and bytes under a prefix per delimiter-separated sub-prefix, down to the
+   * given depth, listing the sub-prefixes concurrently
+   *
+   * @param prefix the prefix to total, or null for the whole bucket
+   * @param depth the levels below the prefix to total by; 0 totals the prefix as a whole
+   * @return the totals of the prefix and of each sub-prefix down to the depth, each including
+   *     the objects nested below it, in key order
+   */
+  List<PrefixUsage> computeUsage(String prefix, int depth);
+
+  /**
+   * Totals the objects and bytes under a prefix per sub-prefix, optionally with the noncurrent
+   * versions of each object
+   *
+   * @param request the prefix usage request
+   * @return the totals of the prefix and of each sub-prefix down to the depth, each including
+   *     the objects nested below it, in key order
+   */
+  List<PrefixUsage> computeUsage(PrefixUsageRequest request);
+
   /**
    * Lists all available versions for a given blob key
    *
@@ -270,6 +359,15 @@ public interface BlobStore extends SdkService, Provider {
    */
   boolean doesObjectExist(String key, String versionId);
 
+  /**
+   * Determines which of many objects exist, issuing the checks concurrently. Unversioned keys that
+   * share a prefix may be resolved by listing it rather than one request per key.
+   *
+   * @param objects the objects to check
+   * @return every distinct requested identifier, in request order, mapped to whether it exists
+   */
+  Map<BlobIdentifier, Boolean> doesObjectExist(Collection<BlobIdentifier> objects);
+
   /**
    * Determines if the bucket exists
    *
@@ -319,6 +417,25 @@ public interface BlobStore extends SdkService, Provider {
    */
   void deleteDirectory(String prefix);
 
+  /**
+   * Deletes a directory (all objects with a given prefix) from the blob store, optionally with
+   * every noncurrent version, reporting progress as batches complete
+   *
+   * @param request the directory delete request
+   */
+  void deleteDirectory(DirectoryDeleteRequest request);
+
+  /**
+   * Brings a bucket prefix up to date with a local directory, or a local directory up to date with
+   * a bucket prefix, transferring only missing or changed files
+   *
+   * @param local the local directory
+   * @param prefix the key prefix the directory maps to, or null for the whole bucket
+   * @param options the direction, comparison and delete options
+   * @return DirectorySyncResponse with the transfer counts and any failed transfers
+   */
+  DirectorySyncResponse syncDirectory(Path local, String prefix, SyncOptions options);
+
   /**
    * Gets object lock configuration for a blob.
    *
@@ -36,6 +36,8 @@ public abstract class BlobStoreBuilder<T extends SdkService> implements SdkProvi
   private Integer maxConcurrency;
   private Integer transferManagerThreadPoolSize;
   private Integer transferDirectoryMaxConcurrency;
+  private Integer maxBulkLookupConcurrency;
+  private SharedClients sharedClients;
   private RetryConfig retryConfig;
   private Boolean useSystemPropertyProxyValues;
   private Boolean useEnvironmentVariableProxyValues;
@@ -173,9 +175,11 @@ public abstract class BlobStoreBuilder<T extends SdkService> implements SdkProvi
   /**
    * Method to supply multipart threshold in bytes.
    *
-   * <p>Provider support: AWS only. GCP does not expose a multipart threshold; parallel composite
-   * uploads are controlled by {@link #withParallelUploadsEnabled(Boolean)} and the SDK decides
-   * internally when to split.
+   * <p>Provider support: AWS, and GCP and Alibaba for uploads from a file or path, which above the
+   * threshold are sent as concurrent multipart parts (default 64 MiB); on GCP only when {@link
+   * #withParallelUploadsEnabled(Boolean)} is true. The GCP transfer manager's
+   * parallel composite uploads are controlled by {@link #withParallelUploadsEnabled(Boolean)} and
+   * the SDK decides internally when to split.
    *
    * @param thresholdBytes The threshold in bytes above which multipart upload will be used
    * @return An instance of self
@@ -188,6 +192,9 @@ public abstract class BlobStoreBuilder<T extends SdkService> implements SdkProvi
   /**
    * Method to supply multipart part buffer size in bytes
    *
+   * <p>For GCP and Alibaba file uploads this is the smallest part size (default 8 MiB); parts grow
+   * beyond it when a file would otherwise need more than 10,000 parts.
+   *
    * @param partBufferSize The buffer size in bytes for each part in a multipart upload
    * @return An instance of self
    */
@@ -198,7 +205,9 @@ public abstract class BlobStoreBuilder<T extends SdkService> implements SdkProvi
 
   /**
    * Method to enable/disable parallel uploads. Enabling this may incur additional
-   * per-part request charges depending on the provider.
+   * per-part request charges depending on the provider. Alibaba uploads large files in parallel
+   * parts unless this is set to false; GCP only when it is set to true, as its multipart API does
+   * not return the generation of the uploaded object.
    *
    * @param parallelUploadsEnabled Whether to enable parallel uploads
    * @return An instance of self
@@ -264,10 +273,11 @@ public abstract class BlobStoreBuilder<T extends SdkService> implements SdkProvi
   /**
    * Method to set maximum concurrency.
    *
-   * <p>Provider support: AWS only (S3 CRT client). GCP does not have a separate
+   * <p>Provider support: AWS (S3 CRT client). GCP does not have a separate
    * concurrency setting — under HTTP/1.1, connection count equals concurrency,
    * so {@link #withMaxConnections(Integer)} implicitly controls max concurrency.
-   * This value is ignored when using the GCP provider.
+   * GCP and Alibaba use this value only as the number of parts of a file upload in flight
+   * at once (default 8).
    *
    * @param maxConcurrency The maximum number of concurrent operations
    * @return An instance of self
@@ -290,13 +300,13 @@ public abstract class BlobStoreBuilder<T extends SdkService> implements SdkProvi
   }
 
   /**
-   * Method to set maximum concurrency for directory transfers in S3 Transfer Manager.
+   * Method to set maximum concurrency for directory transfers.
    *
-   * <p>Provider support: AWS only. GCP does not have a separate directory concurrency
-   * setting — each GCP TransferManager worker handles one file at a time with no
-   * intra-worker concurrency, so directory parallelism equals the worker pool size
-   * configured via {@link #withTransferManagerThreadPoolSize(Integer)}.
-   * This value is ignored when using the GCP provider.
+   * <p>AWS passes it to the S3 Transfer Manager. Alibaba caps the number of files its async
+   * store transfers at once. GCP does not have a separate directory concurrency setting — each
+   * GCP TransferManager worker handles one file at a time with no intra-worker concurrency, so
+   * this value sizes the worker pool unless {@link #withTransferManagerThreadPoolSize(Integer)}
+   * is also set, in which case the thread pool size wins.
    *
    * @param transferDirectoryMaxConcurrency The maximum number of concurrent file transfers during
    *     directory operations
@@ -308,6 +318,36 @@ public abstract class BlobStoreBuilder<T extends SdkService> implements SdkProvi
     return this;
   }
 
+  /**
+   * Method to set the maximum number of requests in flight during a bulk {@code getMetadata} or
+   * {@code doesObjectExist}. Defaults to {@value BulkLookups#DEFAULT_MAX_CONCURRENCY}.
+   *
+   * <p>Sync stores run the requests on the configured executor service, so their concurrency is
+   * also bounded by its parallelism.
+   *
+   * @param maxBulkLookupConcurrency The maximum number of concurrent lookup requests
+   * @return An instance of self
+   */
+  public BlobStoreBuilder<T> withMaxBulkLookupConcurrency(Integer maxBulkLookupConcurrency) {
+    this.maxBulkLookupConcurrency = maxBulkLookupConcurrency;
+    return this;
+  }
+
+  /**
+   * Method to build the store on a provider client shared with other stores, rather than on a
+   * client of its own. Stores configured alike share one client and connection pool, which is
+   * closed when the last of them is closed. Ignored when a provider client is supplied directly.
+   *
+   * <p>Provider support: the sync AWS, GCP and Alibaba stores, and the GCP async store.
+   *
+   * @param sharedClients The clients to share, typically one instance per application
+   * @return An instance of self
+   */
+  public BlobStoreBuilder<T> withSharedClients(SharedClients sharedClients) {
+    this.sharedClients = sharedClients;
+    return this;
+  }
+
   /**
    * Method to supply retry configuration
    *
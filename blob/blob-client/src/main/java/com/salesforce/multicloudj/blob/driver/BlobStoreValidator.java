@@ -2,6 +2,8 @@ package com.salesforce.multicloudj.blob.driver;
 
 import com.salesforce.multicloudj.common.exceptions.InvalidArgumentException;
 import java.net.URI;
+import java.nio.file.Files;
+import java.nio.file.Path;
 import java.time.Duration;
 import java.util.Collection;
 import java.util.Map;
@@ -41,6 +43,21 @@ public class BlobStoreValidator {
       "Ranged read boundaries cannot be negative. start=%s end=%s";
   static final String INVALID_RANGED_READ_BOUNDARIES_MSG =
       "Ranged read start cannot be larger than end. start=%s end=%s";
+  static final String INVALID_COMPRESSION_CODEC_MSG = "Compression codec cannot be null";
+  static final String INVALID_COMPRESSION_BLOCK_SIZE_MSG =
+      "Compression block size must be a positive value. value=%s";
+  static final String INVALID_COMPRESSION_LEVEL_MSG =
+      "Compression level must be between 0 and 9, or -1 for the default. value=%s";
+  static final String COMPRESSION_WITH_CHECKSUM_MSG =
+      "A checksum value cannot be supplied for a compressed upload";
+  static final String INVALID_RANGES_COLLECTION_MSG =
+      "Collection of byte ranges cannot be null or empty";
+  static final String INVALID_RANGE_GAP_MSG =
+      "Maximum coalescing gap must be a non-negative value. value=%s";
+  static final String INVALID_RANGE_SPAN_MSG =
+      "Maximum coalesced span size must be a positive value. value=%s";
+  static final String NULL_READ_CHANNEL_OPTIONS_MSG = "ReadChannelOptions cannot be null";
+  static final String INVALID_READ_CHANNEL_OPTION_MSG = "%s must be a positive value. value=%s";
   static final String NULL_RETENTION_CONFIG_MSG =
       "ObjectRetentionConfig cannot be null";
   static final String NULL_RETAIN_UNTIL_DATE_MSG =
@@ -163,12 +180,60 @@ public class BlobStoreValidator {
   }
 
   /**
-   * Validates the input request. This is identical to calling {@code validateKey(request.getKey())}
+   * Validates the input request's key and, when present, its compression settings.
    *
    * @param request the request to inspect.
    */
   public void validate(UploadRequest request) {
     validateKey(request.getKey());
+    if (request.getCompression() != null) {
+      validate(request.getCompression());
+      if (request.getChecksumValue() != null) {
+        throw new IllegalArgumentException(COMPRESSION_WITH_CHECKSUM_MSG);
+      }
+    }
+  }
+
+  /**
+   * Validates the compression settings of an upload.
+   *
+   * @param compression the settings to inspect
+   */
+  public void validate(BlobCompression compression) {
+    if (compression.getCodec() == null) {
+      throw new IllegalArgumentException(INVALID_COMPRESSION_CODEC_MSG);
+    }
+    if (compression.getBlockSizeInBytes() <= 0) {
+      throw new IllegalArgumentException(
+          String.format(INVALID_COMPRESSION_BLOCK_SIZE_MSG, compression.getBlockSizeInBytes()));
+    }
+    if (compression.getLevel() < -1 || compression.getLevel() > 9) {
+      throw new IllegalArgumentException(
+          String.format(INVALID_COMPRESSION_LEVEL_MSG, compression.getLevel()));
+    }
+  }
+
+  /**
+   * Validates the tuning of a random-access read channel: the block size, both read-ahead windows
+   * and the cache size must be positive.
+   *
+   * @param options the options to inspect
+   */
+  public void validate(ReadChannelOptions options) {
+    if (options == null) {
+      throw new IllegalArgumentException(NULL_READ_CHANNEL_OPTIONS_MSG);
+    }
+    requirePositive("blockSizeInBytes", options.getBlockSizeInBytes());
+    requirePositive("initialReadAheadBlocks", options.getInitialReadAheadBlocks());
+    requirePositive("maxReadAheadBlocks", options.getMaxReadAheadBlocks());
+    requirePositive("cacheBlocks", options.getCacheBlocks());
+  }
+
+  private static void requirePositive(String option, int value) {
+    if (value <= 0) {
+      throw new IllegalArgumentException(
+          String.format(INVALID_READ_CHANNEL_OPTION_MSG, option, value));
+    }
   }
 
   /**
@@ -181,6 +246,30 @@ public class BlobStoreValidator {
     validateRange(request.getStart(), request.getEnd());
   }
 
+  /**
+   * Validates the key, ranges and coalescing limits of a multi-range download.
+   *
+   * @param request the request to inspect.
+   */
+  public void validate(MultiRangeDownloadRequest request) {
+    validateKey(request.getKey());
+    requireNotEmpty(request.getRanges(), INVALID_RANGES_COLLECTION_MSG);
+    for (ByteRange range : request.getRanges()) {
+      if (range == null) {
+        throw new IllegalArgumentException(INVALID_RANGES_COLLECTION_MSG);
+      }
+      validateRange(range.getStart(), range.getEnd());
+    }
+    if (request.getMaxGapInBytes() < 0) {
+      throw new IllegalArgumentException(
+          String.format(INVALID_RANGE_GAP_MSG, request.getMaxGapInBytes()));
+    }
+    if (request.getMaxSpanSizeInBytes() <= 0) {
+      throw new IllegalArgumentException(
+          String.format(INVALID_RANGE_SPAN_MSG, request.getMaxSpanSizeInBytes()));
+    }
+  }
+
   /**
    * Validates the input request to ensure it has valid {srcKey, destKey, destBucket}. This is
    * identical to calling
@@ -249,6 +338,77 @@ public class BlobStoreValidator {
     }
   }
 
+  /**
+   * Validates the input request. This validates that the request is not null; a null prefix
+   * addresses the whole bucket.
+   *
+   * @param request the request to inspect.
+   */
+  public void validate(DirectoryDeleteRequest request) {
+    if (request == null) {
+      throw new IllegalArgumentException("DirectoryDeleteRequest cannot be null");
+    }
+  }
+
+  /**
+   * Validates the arguments of a directory sync. This validates that the options and their
+   * direction are set, and that the local directory exists when uploading from it.
+   *
+   * @param local the local directory.
+   * @param options the sync options.
+   */
+  public void validateSyncDirectory(Path local, SyncOptions options) {
+    if (local == null) {
+      throw new IllegalArgumentException("Local directory cannot be null");
+    }
+    if (options == null || options.getDirection() == null) {
+      throw new IllegalArgumentException("SyncOptions with a direction are required");
+    }
+    if (options.getDirection() == SyncDirection.UPLOAD && !Files.isDirectory(local)) {
+      throw new InvalidArgumentException("Local directory does not exist: " + local);
+    }
+  }
+
+  /**
+   * Validates the input request. This validates that the request is not null, that the depth is
+   * not negative and that the delimiter is not empty; a null prefix addresses the whole bucket.
+   *
+   * @param request the request to inspect.
+   */
+  public void validate(PrefixUsageRequest request) {
+    if (request == null) {
+      throw new IllegalArgumentException("PrefixUsageRequest cannot be null");
+    }
+    if (request.getDepth() < 0) {
+      throw new InvalidArgumentException(
+          "depth must not be negative. value=" + request.getDepth());
+    }
+    if (request.getDepth() > 0
+        && (request.getDelimiter() == null || request.getDelimiter().isEmpty())) {
+      throw new InvalidArgumentException("delimiter must not be empty when depth is positive");
+    }
+  }
+
+  /**
+   * Validates the input request. This validates that the request is not null and that, when both
+   * key bounds are set, {@code startAfter} sorts before {@code endBefore}.
+   *
+   * @param request the request to inspect.
+   */
+  public void validate(ListBlobsPageRequest request) {
+    if (request == null) {
+      throw new IllegalArgumentException("ListBlobsPageRequest cannot be null");
+    }
+    if (request.getStartAfter() != null
+        && request.getEndBefore() != null
+        && KeyOrder.compare(request.getStartAfter(), request.getEndBefore()) >= 0) {
+      throw new InvalidArgumentException(
+          String.format(
+              "startAfter must sort before endBefore. startAfter=%s, endBefore=%s",
+              request.getStartAfter(), request.getEndBefore()));
+    }
+  }
+
   /**
    * Validates the input key. This is identical to calling {@code validateKey(key)}
    *
@@ -0,0 +1,25 @@
+package com.salesforce.multicloudj.blob.driver;
+
+import lombok.Builder;
+import lombok.Getter;
+
+/**
+ * One entry of a prefix-wide version listing: a stored version of an object or a delete marker, as
+ * returned by {@link AbstractBlobStore#doListAllVersions(String)}.
+ */
+@Builder
+@Getter
+public class BlobVersionInfo {
+
+  private final String key;
+  private final String versionId;
+
+  /** Size of the stored version; zero for a delete marker. */
+  private final long objectSize;
+
+  /** True for the current entry of its key, whether a stored version or a delete marker. */
+  private final boolean latest;
+
+  /** True when the entry is a delete marker rather than a stored version. */
+  private final boolean deleteMarker;
+}
@@ -0,0 +1,370 @@
+package com.salesforce.multicloudj.blob.driver;
+
+import com.salesforce.multicloudj.common.exceptions.InvalidArgumentException;
+import java.nio.ByteBuffer;
+import java.util.ArrayDeque;
+import java.util.Deque;
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * A size-bounded cache of fixed-size blocks held off-heap, with W-TinyLFU admission.
+ *
+ * <p>Blocks live in slots of direct buffers, allocated in slabs as the cache fills, so cached
+ * bytes add nothing to the Java heap or to garbage collection. Entries are split between a small
+ * LRU window (1% of the slots) and a main region divided into probation and protected segments
+ * (20% and 80%). A new block enters the window; the block the window pushes out only replaces the
+ * main region's least recently used block if it has been requested more often, as estimated by a
+ * count-min sketch of 4-bit counters that are halved periodically so old popularity fades. A hit in
+ * probation promotes the block to protected. A scan of blocks read once therefore passes through
+ * the window without displacing blocks that are read repeatedly, such as file footers.
+ *
+ * <p>All operations take one lock; a read copies only the requested slice of a block out of the
+ * slot while holding it.
+ */
+public final class BlockCache {
+
+  private static final int SLAB_BYTES = 64 * 1024 * 1024;
+  private static final int WINDOW = 0;
+  private static final int PROBATION = 1;
+  private static final int PROTECTED = 2;
+
+  private final int blockSize;
+  private final int slotCount;
+  private final int slotsPerSlab;
+  private final ByteBuffer[] slabs;
+  private final Deque<Integer> freeSlots = new ArrayDeque<>();
+  private final Map<Object, Node> index = new HashMap<>();
+  private final Queue window = new Queue();
+  private final Queue probation = new Queue();
+  private final Queue protectedQueue = new Queue();
+  private final int windowCapacity;
+  private final int mainCapacity;
+  private final int protectedCapacity;
+  private final FrequencySketch sketch;
+  private int nextSlot;
+  private long hits;
+  private long misses;
+  private long evictions;
+
+  /**
+   * @param capacityInBytes the bytes the cache may hold, rounded down to whole blocks
+   * @param blockSize the size of a block; stored blocks may be shorter
+   * @throws InvalidArgumentException if the capacity does not hold at least one block
+   */
+  public BlockCache(long capacityInBytes, int blockSize) {
+    if (blockSize <= 0 || capacityInBytes < blockSize) {
+      throw new InvalidArgumentException(
+          String.format(
+              "Block cache capacity %d must hold at least one block of %d bytes",
+              capacityInBytes, blockSize));
+    }
+    this.blockSize = blockSize;
+    this.slotCount = (int) Math.min(capacityInBytes / blockSize, Integer.MAX_VALUE - 8);
+    this.slotsPerSlab = Math.max(1, Math.min(slotCount, SLAB_BYTES / blockSize));
+    this.slabs = new ByteBuffer[(slotCount + slotsPerSlab - 1) / slotsPerSlab];
+    this.windowCapacity = Math.max(1, slotCount / 100);
+    this.mainCapacity = slotCount - windowCapacity;
+    this.protectedCapacity = mainCapacity * 4 / 5;
+    this.sketch = new FrequencySketch(slotCount);
+  }
+
+  public BlockCache(BlockCacheOptions options) {
+    this(options.getCapacityInBytes(), options.getBlockSizeInBytes());
+  }
+
+  public int getBlockSize() {
+    return blockSize;
+  }
+
+  /**
+   * Copies up to {@code length} bytes of the block cached under {@code key}, starting at {@code
+   * offset} within it, into {@code destination}. Counts as a request for the block whether or not
+   * it is cached.
+   *
+   * @return the number of bytes copied, or -1 if the block is not cached
+   */
+  public synchronized int read(
+      Object key, int offset, byte[] destination, int destinationOffset, int length) {
+    sketch.increment(key.hashCode());
+    Node node = index.get(key);
+    if (node == null) {
+      misses++;
+      return -1;
+    }
+    hits++;
+    onHit(node);
+    int count = Math.max(0, Math.min(length, node.length - offset));
+    slab(node.slot).get(position(node.slot) + offset, destination, destinationOffset, count);
+    return count;
+  }
+
+  /**
+   * Returns a copy of up to {@code length} bytes of the block cached under {@code key}, starting
+   * at {@code offset} within it. Counts as a request for the block whether or not it is cached.
+   *
+   * @return the bytes, or null if the block is not cached
+   */
+  public synchronized byte[] read(Object key, int offset, int length) {
+    sketch.increment(key.hashCode());
+    Node node = index.get(key);
+    if (node == null) {
+      misses++;
+      return null;
+    }
+    hits++;
+    onHit(node);
+    byte[] copy = new byte[Math.max(0, Math.min(length, node.length - offset))];
+    slab(node.slot).get(position(node.slot) + offset, copy, 0, copy.length);
+    return copy;
+  }
+
+  /**
+   * Caches {@code block} under {@code key}, unless a block is already cached under it. When the
+   * cache is full this may evict another block, or not keep this one.
+   *
+   * @throws InvalidArgumentException if the block is larger than the block size
+   */
+  public synchronized void put(Object key, byte[] block) {
+    if (block.length > blockSize) {
+      throw new InvalidArgumentException(
+          String.format("Block of %d bytes exceeds block size %d", block.length, blockSize));
+    }
+    if (index.containsKey(key)) {
+      return;
+    }
+    Node node = new Node(key);
+    index.put(key, node);
+    window.addFirst(node);
+    while (window.size > windowCapacity) {
+      admit(window.removeLast());
+    }
+    node.slot = takeSlot();
+    node.length = block.length;
+    slab(node.slot).put(position(node.slot), block, 0, block.length);
+  }
+
+  /** Returns the number of cached blocks. */
+  public synchronized int size() {
+    return index.size();
+  }
+
+  /** Returns the number of reads served from the cache. */
+  public synchronized long getHitCount() {
+    return hits;
+  }
+
+  /** Returns the number of reads of blocks that were not cached. */
+  public synchronized long getMissCount() {
+    return misses;
+  }
+
+  /** Returns the number of blocks evicted or refused to make room. */
+  public synchronized long getEvictionCount() {
+    return evictions;
+  }
+
+  /** Drops every cached block; the off-heap slabs stay allocated for reuse. */
+  public synchronized void clear() {
+    for (Node node : index.values()) {
+      if (node.slot >= 0) {
+        freeSlots.push(node.slot);
+      }
+    }
+    index.clear();
+    window.clear();
+    probation.clear();
+    protectedQueue.clear();
+  }
+
+  /**
+   * Moves the block the window pushed out into the main region: directly while there is room,
+   * otherwise only if the sketch estimates it more popular than main's least recently used block,
+   * which is then evicted in its place.
+   */
+  private void admit(Node candidate) {
+    if (probation.size + protectedQueue.size < mainCapacity) {
+      probation.addFirst(candidate);
+      return;
+    }
+    Node victim = probation.last != null ? probation.last : protectedQueue.last;
+    if (victim == null
+        || sketch.frequency(candidate.key.hashCode()) <= sketch.frequency(victim.key.hashCode())) {
+      evict(candidate);
+      return;
+    }
+    (victim.queue == PROBATION ? probation : protectedQueue).remove(victim);
+    evict(victim);
+    probation.addFirst(candidate);
+  }
+
+  private void onHit(Node node) {
+    if (node.queue == WINDOW) {
+      window.moveToFirst(node);
+    } else if (node.queue == PROTECTED) {
+      protectedQueue.moveToFirst(node);
+    } else {
+      probation.remove(node);
+      protectedQueue.addFirst(node);
+      if (protectedQueue.size > protectedCapacity && protectedQueue.size > 1) {
+        probation.addFirst(protectedQueue.removeLast());
+      }
+    }
+  }
+
+  private void evict(Node node) {
+    index.remove(node.key);
+    if (node.slot >= 0) {
+      freeSlots.push(node.slot);
+    }
+    evictions++;
+  }
+
+  private int takeSlot() {
+    Integer free = freeSlots.poll();
+    return free != null ? free : nextSlot++;
+  }
+
+  private ByteBuffer slab(int slot) {
+    int slab = slot / slotsPerSlab;
+    if (slabs[slab] == null) {
+      int slots = Math.min(slotsPerSlab, slotCount - slab * slotsPerSlab);
+      slabs[slab] = ByteBuffer.allocateDirect(slots * blockSize);
+    }
+    return slabs[slab];
+  }
+
+  private int position(int slot) {
+    return (slot % slotsPerSlab) * blockSize;
+  }
+
+  private static final class Node {
+    private final Object key;
+    private int slot = -1;
+    private int length;
+    private int queue;
+    private Node previous;
+    private Node next;
+
+    private Node(Object key) {
+      this.key = key;
+    }
+  }
+
+  /** A doubly-linked LRU list of nodes, most recently used first. */
+  private final class Queue {
+    private Node first;
+    private Node last;
+    private int size;
+
+    private void addFirst(Node node) {
+      node.queue = this == window ? WINDOW : this == probation ? PROBATION : PROTECTED;
+      node.previous = null;
+      node.next = first;
+      if (first != null) {
+        first.previous = node;
+      } else {
+        last = node;
+      }
+      first = node;
+      size++;
+    }
+
+    private Node removeLast() {
+      Node node = last;
+      remove(node);
+      return node;
+    }
+
+    private void remove(Node node) {
+      if (node.previous != null) {
+        node.previous.next = node.next;
+      } else {
+        first = node.next;
+      }
+      if (node.next != null) {
+        node.next.previous = node.previous;
+      } else {
+        last = node.previous;
+      }
+      node.previous = null;
+      node.next = null;
+      size--;
+    }
+
+    private void moveToFirst(Node node) {
+      if (node != first) {
+        remove(node);
+        addFirst(node);
+      }
+    }
+
+    private void clear() {
+      first = null;
+      last = null;
+      size = 0;
+    }
+  }
+
+  /**
+   * Count-min sketch of 4-bit counters, sixteen to a long, four per key. Once as many increments
+   * as ten times the cache's entries have been recorded, every counter is halved.
+   */
+  static final class FrequencySketch {
+    private static final long[] SEEDS = {
+      0xc3a5c85c97cb3127L, 0xb492b66fbe98f273L, 0x9ae16a3b2f90404fL, 0xcbf29ce484222325L
+    };
+    private static final long RESET_MASK = 0x7777777777777777L;
+
+    private final long[] table;
+    private final int sampleSize;
+    private int additions;
+
+    FrequencySketch(int maximumSize) {
+      int length = Integer.highestOneBit(Math.max(8, Math.min(maximumSize, 1 << 26)) - 1) << 1;
+      this.table = new long[length];
+      this.sampleSize = 10 * Math.max(1, maximumSize);
+    }
+
+    int frequency(int hashCode) {
+      int frequency = 15;
+      for (int i = 0; i < SEEDS.length; i++) {
+        long hash = hash(hashCode, i);
+        frequency = Math.min(frequency, (int) (table[index(hash)] >>> shift(hash)) & 0xF);
+      }
+      return frequency;
+    }
+
+    void increment(int hashCode) {
+      boolean added = false;
+      for (int i = 0; i < SEEDS.length; i++) {
+        long hash = hash(hashCode, i);
+        int index = index(hash);
+        int shift = shift(hash);
+        if (((table[index] >>> shift) & 0xF) < 15) {
+          table[index] += 1L << shift;
+          added = true;
+        }
+      }
+      if (added && ++additions >= sampleSize) {
+        for (int i = 0; i < table.length; i++) {
+          table[i] = (table[i] >>> 1) & RESET_MASK;
+        }
+        additions /= 2;
+      }
+    }
+
+    private long hash(int hashCode, int row) {
+      long hash = (hashCode + SEEDS[row]) * SEEDS[(row + 1) % SEEDS.length];
+      return hash ^ (hash >>> 29);
+    }
+
+    private int index(long hash) {
+      return (int) (hash >>> 32) & (table.length - 1);
+    }
+
+    private int shift(long hash) {
+      return (int) (hash & 15) << 2;
+    }
+  }
+}
@@ -0,0 +1,42 @@
+package com.salesforce.multicloudj.blob.driver;
+
+import java.time.Duration;
+import lombok.Builder;
+import lombok.Getter;
+
+/**
+ * Settings of a block cache in front of ranged reads, see {@code CachingBucketClient}.
+ *
+ * <p>Objects are read in aligned blocks of {@code blockSizeInBytes}, cached off-heap under the
+ * object's key, ETag and block index up to {@code capacityInBytes}. The ETag of an object is looked
+ * up once and trusted for {@code metadataTtl}; a read within it may return content of a version
+ * overwritten meanwhile.
+ */
+@Builder
+@Getter
+public class BlockCacheOptions {
+
+  /** Default block size: 1 MiB. */
+  public static final int DEFAULT_BLOCK_SIZE = 1024 * 1024;
+
+  /** Default cache capacity: 256 MiB. */
+  public static final long DEFAULT_CAPACITY = 256L * 1024 * 1024;
+
+  /** (Optional) Size of a cached block. Defaults to {@link #DEFAULT_BLOCK_SIZE}. */
+  @Builder.Default private final int blockSizeInBytes = DEFAULT_BLOCK_SIZE;
+
+  /**
+   * (Optional) Off-heap bytes the cache may hold, rounded down to whole blocks. Defaults to {@link
+   * #DEFAULT_CAPACITY}.
+   */
+  @Builder.Default private final long capacityInBytes = DEFAULT_CAPACITY;
+
+  /** (Optional) Block fetches one read keeps in flight at once. Defaults to 8. */
+  @Builder.Default private final int maxConcurrency = 8;
+
+  /** (Optional) How long the ETag and size of an object are trusted. Defaults to 10 seconds. */
+  @Builder.Default private final Duration metadataTtl = Duration.ofSeconds(10);
+
+  /** (Optional) Objects whose ETag and size are remembered at once. Defaults to 10,000. */
+  @Builder.Default private final int maxMetadataEntries = 10_000;
+}
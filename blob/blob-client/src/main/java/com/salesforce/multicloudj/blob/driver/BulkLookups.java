@@ -0,0 +1,378 @@
+package com.salesforce.multicloudj.blob.driver;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.NavigableSet;
+import java.util.Set;
+import java.util.TreeSet;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executor;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.function.Consumer;
+import java.util.function.Function;
+import lombok.Getter;
+
+/**
+ * Plans bulk existence and metadata lookups. Shared by the sync and async stores so both resolve
+ * identically.
+ *
+ * <p>Every identifier costs one metadata request, except that unversioned keys are grouped by
+ * parent prefix and the existence of a group of at least {@value #LIST_MIN_GROUP_SIZE} keys is
+ * resolved by listing, one page covering up to {@value #LIST_PAGE_SIZE} keys. A group lists at most
+ * one page per {@value #KEYS_PER_LIST_PAGE} of its keys and falls back to metadata requests for
+ * whatever the budget did not reach, so a sparse group in a large prefix costs little more than
+ * checking its keys one by one. Listing relies on the store returning keys in UTF-8 byte order,
+ * as S3, GCS and OSS do: a key the listing has passed without returning does not exist.
+ */
+public final class BulkLookups {
+
+  /** Lookups in flight at once when the store builder does not set a limit. */
+  public static final int DEFAULT_MAX_CONCURRENCY = 32;
+
+  /** Minimum number of keys sharing a parent prefix for their existence to be listed. */
+  public static final int LIST_MIN_GROUP_SIZE = 100;
+
+  /** Keys requested per list page. */
+  public static final int LIST_PAGE_SIZE = 1000;
+
+  /** Keys of a group per list page the group may spend. */
+  static final int KEYS_PER_LIST_PAGE = 10;
+
+  private BulkLookups() {}
+
+  /**
+   * Splits the distinct identifiers into listable groups and identifiers to look up one by one.
+   *
+   * @param objects the identifiers to look up; duplicates are looked up once
+   * @param allowListing whether groups may be resolved by listing. Listing only tells existence,
+   *     so metadata lookups pass false.
+   */
+  public static Plan plan(Collection<BlobIdentifier> objects, boolean allowListing) {
+    Set<BlobIdentifier> distinct = new LinkedHashSet<>(objects);
+    List<BlobIdentifier> individual = new ArrayList<>();
+    List<ListGroup> groups = new ArrayList<>();
+    if (!allowListing) {
+      individual.addAll(distinct);
+      return new Plan(distinct, individual, groups);
+    }
+    Map<String, List<String>> byParent = new LinkedHashMap<>();
+    for (BlobIdentifier object : distinct) {
+      if (object.getVersionId() != null) {
+        individual.add(object);
+      } else {
+        String key = object.getKey();
+        byParent
+            .computeIfAbsent(key.substring(0, key.lastIndexOf('/') + 1), p -> new ArrayList<>())
+            .add(key);
+      }
+    }
+    for (List<String> keys : byParent.values()) {
+      if (keys.size() >= LIST_MIN_GROUP_SIZE) {
+        groups.add(new ListGroup(keys));
+      } else {
+        keys.forEach(key -> individual.add(new BlobIdentifier(key, null)));
+      }
+    }
+    return new Plan(distinct, individual, groups);
+  }
+
+  /**
+   * Runs {@code task} for every item with at most {@code maxConcurrency} futures outstanding. The
+   * returned future fails with the first failure, after which no further items are started.
+   */
+  public static <T> CompletableFuture<Void> forEachAsync(
+      List<T> items, int maxConcurrency, Function<T, CompletableFuture<?>> task) {
+    CompletableFuture<Void> done = new CompletableFuture<>();
+    if (items.isEmpty()) {
+      done.complete(null);
+      return done;
+    }
+    int lanes = Math.min(Math.max(1, maxConcurrency), items.size());
+    AtomicInteger next = new AtomicInteger();
+    AtomicInteger running = new AtomicInteger(lanes);
+    for (int lane = 0; lane < lanes; lane++) {
+      runLane(items, task, next, running, done);
+    }
+    return done;
+  }
+
+  /**
+   * Runs {@code task} for every item on the calling thread and up to {@code maxConcurrency - 1}
+   * helpers submitted to {@code executor}, and returns once every item has run. The first failure
+   * is rethrown after the started items finish, and no further items are started after it.
+   *
+   * <p>The caller claims items itself rather than waiting on the helpers, and withdraws helpers
+   * the executor has not started by the time it runs out of items. The call therefore completes
+   * even when it runs on a thread of {@code executor} and every other thread is busy.
+   */
+  public static <T> void forEach(
+      List<T> items, int maxConcurrency, Executor executor, Consumer<T> task) {
+    if (items.isEmpty()) {
+      return;
+    }
+    AtomicInteger next = new AtomicInteger();
+    AtomicReference<RuntimeException> failure = new AtomicReference<>();
+    Runnable drain =
+        () -> {
+          int index;
+          while (failure.get() == null && (index = next.getAndIncrement()) < items.size()) {
+            try {
+              task.accept(items.get(index));
+            } catch (RuntimeException e) {
+              failure.compareAndSet(null, e);
+            }
+          }
+        };
+    int helperCount = Math.min(Math.max(1, maxConcurrency), items.size()) - 1;
+    List<Helper> helpers = new ArrayList<>(helperCount);
+    for (int i = 0; i < helperCount; i++) {
+      Helper helper = new Helper(drain);
+      try {
+        executor.execute(helper);
+      } catch (RejectedExecutionException e) {
+        break;
+      }
+      helpers.add(helper);
+    }
+    drain.run();
+    helpers.forEach(Helper::withdrawOrAwait);
+    if (failure.get() != null) {
+      throw failure.get();
+    }
+  }
+
+  /** A helper of {@link #forEach} that runs only if claimed before the caller withdraws it. */
+  private static final class Helper implements Runnable {
+    private final Runnable drain;
+    private final AtomicBoolean claimed = new AtomicBoolean();
+    private final CompletableFuture<Void> done = new CompletableFuture<>();
+
+    Helper(Runnable drain) {
+      this.drain = drain;
+    }
+
+    @Override
+    public void run() {
+      if (!claimed.compareAndSet(false, true)) {
+        return;
+      }
+      try {
+        drain.run();
+      } finally {
+        done.complete(null);
+      }
+    }
+
+    void withdrawOrAwait() {
+      if (!claimed.compareAndSet(false, true)) {
+        done.join();
+      }
+    }
+  }
+
+  private static <T> void runLane(
+      List<T> items,
+      Function<T, CompletableFuture<?>> task,
+      AtomicInteger next,
+      AtomicInteger running,
+      CompletableFuture<Void> done) {
+    // Loops while tasks complete synchronously, so a store answering from memory does not recurse
+    // once per item.
+    while (!done.isDone()) {
+      int index = next.getAndIncrement();
+      if (index >= items.size()) {
+        if (running.decrementAndGet() == 0) {
+          done.complete(null);
+        }
+        return;
+      }
+      CompletableFuture<?> future;
+      try {
+        future = task.apply(items.get(index));
+      } catch (RuntimeException e) {
+        done.completeExceptionally(e);
+        return;
+      }
+      if (!future.isDone()) {
+        future.whenComplete(
+            (result, failure) -> {
+              if (failure != null) {
+                done.completeExceptionally(failure);
+              } else {
+                runLane(items, task, next, running, done);
+              }
+            });
+        return;
+      }
+      if (future.isCompletedExceptionally()) {
+        future.whenComplete((result, failure) -> done.completeExceptionally(failure));
+        return;
+      }
+    }
+  }
+
+  /** The identifiers of a bulk lookup, split by how they are resolved. */
+  @Getter
+  public static final class Plan {
+    private final Set<BlobIdentifier> distinct;
+    private final List<BlobIdentifier> individual;
+    private final List<ListGroup> groups;
+
+    private Plan(
+        Set<BlobIdentifier> distinct, List<BlobIdentifier> individual, List<ListGroup> groups) {
+      this.distinct = distinct;
+      this.individual = individual;
+      this.groups = groups;
+    }
+
+    /** Returns every distinct identifier, in request order, mapped through {@code results}. */
+    public <V> Map<BlobIdentifier, V> toResult(Map<BlobIdentifier, V> results) {
+      Map<BlobIdentifier, V> ordered = new LinkedHashMap<>(distinct.size() * 4 / 3 + 1);
+      distinct.forEach(object -> ordered.put(object, results.get(object)));
+      return ordered;
+    }
+  }
+
+  /**
+   * Unversioned keys sharing a parent prefix whose existence is resolved by listing their longest
+   * common prefix. Pages are fed in order through {@link #accept}; not thread-safe.
+   */
+  public static final class ListGroup {
+    private final NavigableSet<String> keys = new TreeSet<>(KeyOrder.UTF8);
+    private final Set<String> found = new HashSet<>();
+    @Getter private final String prefix;
+    private final int pageBudget;
+    private int pagesListed;
+    private String lastListed;
+    private boolean complete;
+    @Getter private String nextPageToken;
+
+    ListGroup(List<String> groupKeys) {
+      keys.addAll(groupKeys);
+      this.prefix = commonPrefix(keys.first(), keys.last());
+      this.pageBudget = Math.max(1, keys.size() / KEYS_PER_LIST_PAGE);
+    }
+
+    /** Returns the request for the next page to list. */
+    public ListBlobsPageRequest nextPageRequest() {
+      return ListBlobsPageRequest.builder()
+          .withPrefix(prefix)
+          .withMaxResults(LIST_PAGE_SIZE)
+          .withPaginationToken(nextPageToken)
+          .build();
+    }
+
+    /**
+     * Records a listed page.
+     *
+     * @return true if another page should be listed
+     */
+    public boolean accept(ListBlobsPageResponse page) {
+      pagesListed++;
+      if (page.getBlobs() != null) {
+        for (BlobInfo blob : page.getBlobs()) {
+          String key = blob.getKey();
+          if (keys.contains(key)) {
+            found.add(key);
+          }
+          if (lastListed == null || KeyOrder.compare(key, lastListed) > 0) {
+            lastListed = key;
+          }
+        }
+      }
+      nextPageToken = page.getNextPageToken();
+      complete = !page.isTruncated();
+      return !complete
+          && nextPageToken != null
+          && pagesListed < pageBudget
+          && found.size() < keys.size()
+          && (lastListed == null || KeyOrder.compare(lastListed, keys.last()) < 0);
+    }
+
+    /**
+     * Records the existence of every key the listing decided into {@code results} and returns the
+     * identifiers of keys it did not reach.
+     */
+    public List<BlobIdentifier> resolve(Map<BlobIdentifier, Boolean> results) {
+      List<BlobIdentifier> unresolved = new ArrayList<>();
+      for (String key : keys) {
+        BlobIdentifier object = new BlobIdentifier(key, null);
+        if (found.contains(key)) {
+          results.put(object, true);
+        } else if (complete || (lastListed != null && KeyOrder.compare(key, lastListed) <= 0)) {
+          results.put(object, false);
+        } else {
+          unresolved.add(object);
+        }
+      }
+      return unresolved;
+    }
+
+    /**
+     * Lists pages through {@code lister} until {@link #accept} asks for no more. Pages that
+     * complete synchronously are consumed in a loop rather than by recursion.
+     */
+    public CompletableFuture<Void> listAsync(
+        Function<ListBlobsPageRequest, CompletableFuture<ListBlobsPageResponse>> lister) {
+      CompletableFuture<Void> done = new CompletableFuture<>();
+      listNext(lister, done);
+      return done;
+    }
+
+    private void listNext(
+        Function<ListBlobsPageRequest, CompletableFuture<ListBlobsPageResponse>> lister,
+        CompletableFuture<Void> done) {
+      while (true) {
+        CompletableFuture<ListBlobsPageResponse> page;
+        try {
+          page = lister.apply(nextPageRequest());
+        } catch (RuntimeException e) {
+          done.completeExceptionally(e);
+          return;
+        }
+        if (!page.isDone()) {
+          page.whenComplete(
+              (response, failure) -> {
+                if (failure != null) {
+                  done.completeExceptionally(failure);
+                } else if (accept(response)) {
+                  listNext(lister, done);
+                } else {
+                  done.complete(null);
+                }
+              });
+          return;
+        }
+        if (page.isCompletedExceptionally()) {
+          page.whenComplete((response, failure) -> done.completeExceptionally(failure));
+          return;
+        }
+        if (!accept(page.join())) {
+          done.complete(null);
+          return;
+        }
+      }
+    }
+
+    private static String commonPrefix(String a, String b) {
+      int length = 0;
+      int max = Math.min(a.length(), b.length());
+      while (length < max && a.charAt(length) == b.charAt(length)) {
+        length++;
+      }
+      // Never split a surrogate pair.
+      if (length > 0 && Character.isHighSurrogate(a.charAt(length - 1))) {
+        length--;
+      }
+      return a.substring(0, length);
+    }
+  }
+}
@@ -0,0 +1,33 @@
+package com.salesforce.multicloudj.blob.driver;
+
+import lombok.EqualsAndHashCode;
+import lombok.Getter;
+import lombok.ToString;
+
+/** An inclusive byte range {@code [start, end]} within a blob. */
+@Getter
+@EqualsAndHashCode
+@ToString
+public class ByteRange {
+
+  private final long start;
+  private final long end;
+
+  private ByteRange(long start, long end) {
+    this.start = start;
+    this.end = end;
+  }
+
+  /**
+   * Creates a range covering bytes {@code start} through {@code end}, both inclusive, matching the
+   * semantics of {@link DownloadRequest.Builder#withRange(Long, Long)}.
+   */
+  public static ByteRange of(long start, long end) {
+    return new ByteRange(start, end);
+  }
+
+  /** Returns the number of bytes covered by this range. */
+  public long length() {
+    return end - start + 1;
+  }
+}
@@ -0,0 +1,322 @@
+package com.salesforce.multicloudj.blob.driver;
+
+import java.io.ByteArrayOutputStream;
+import java.io.DataOutputStream;
+import java.io.EOFException;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InterruptedIOException;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.util.ArrayDeque;
+import java.util.Arrays;
+import java.util.Deque;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Executor;
+import java.util.concurrent.FutureTask;
+
+/**
+ * Block framing for client-side compressed blobs.
+ *
+ * <pre>
+ * header : magic "MCJC" (4) | version (1) | codec id (1) | reserved (2) | block size (4)
+ * frame  : compressed length (4) | uncompressed length (4) | compressed bytes
+ *          ... repeated, terminated by a frame header with compressed length -1
+ * index  : (compressed length (4) | uncompressed length (4)) per frame
+ * footer : frame count (4) | total uncompressed length (8) | magic "MCJI" (4)
+ * </pre>
+ *
+ * <p>Sequential readers only need the inline frame headers. Ranged readers fetch the tail of the
+ * object, rebuild frame offsets from the index and request just the frames covering the range.
+ */
+final class CompressedBlobFormat {
+
+  static final int MAGIC = 0x4D434A43;
+  static final int INDEX_MAGIC = 0x4D434A49;
+  static final int VERSION = 1;
+  static final int HEADER_SIZE = 12;
+  static final int FRAME_HEADER_SIZE = 8;
+  static final int INDEX_ENTRY_SIZE = 8;
+  static final int FOOTER_SIZE = 16;
+  static final int END_OF_FRAMES = -1;
+
+  private CompressedBlobFormat() {}
+
+  /**
+   * Compresses {@code in} into {@code out}, compressing up to {@code parallelism} blocks at once on
+   * {@code executor}. Frames are always written in input order; a block the executor has not
+   * started by the time its frame is due is compressed on the calling thread, so encoding also
+   * completes when called from one of the executor's own threads.
+   *
+   * @return the total number of uncompressed bytes consumed
+   */
+  static long encode(
+      InputStream in, OutputStream out, BlobCompression compression, Executor executor)
+      throws IOException {
+    CompressionCodec codec = compression.getCodec();
+    int blockSize = compression.getBlockSizeInBytes();
+    int level = compression.getLevel();
+    int window = Math.max(1, compression.getParallelism());
+
+    DataOutputStream data = new DataOutputStream(out);
+    data.writeInt(MAGIC);
+    data.writeByte(VERSION);
+    data.writeByte(codec.getId());
+    data.writeShort(0);
+    data.writeInt(blockSize);
+
+    ByteArrayOutputStream indexBytes = new ByteArrayOutputStream();
+    DataOutputStream index = new DataOutputStream(indexBytes);
+    Deque<FutureTask<byte[]>> pending = new ArrayDeque<>();
+    Deque<Integer> pendingRawLengths = new ArrayDeque<>();
+    long rawTotal = 0;
+    int frames = 0;
+    try {
+      while (true) {
+        byte[] block = in.readNBytes(blockSize);
+        if (block.length == 0) {
+          break;
+        }
+        rawTotal += block.length;
+        pendingRawLengths.add(block.length);
+        FutureTask<byte[]> compress =
+            new FutureTask<>(() -> codec.compress(block, 0, block.length, level));
+        pending.add(compress);
+        if (window > 1) {
+          executor.execute(compress);
+        }
+        if (pending.size() >= window) {
+          writeFrame(data, index, pending.poll(), pendingRawLengths.poll());
+          frames++;
+        }
+        if (block.length < blockSize) {
+          break;
+        }
+      }
+      while (!pending.isEmpty()) {
+        writeFrame(data, index, pending.poll(), pendingRawLengths.poll());
+        frames++;
+      }
+    } finally {
+      pending.forEach(future -> future.cancel(false));
+    }
+
+    data.writeInt(END_OF_FRAMES);
+    data.writeInt(0);
+    indexBytes.writeTo(data);
+    data.writeInt(frames);
+    data.writeLong(rawTotal);
+    data.writeInt(INDEX_MAGIC);
+    data.flush();
+    return rawTotal;
+  }
+
+  private static void writeFrame(
+      DataOutputStream data,
+      DataOutputStream index,
+      FutureTask<byte[]> compressed,
+      int rawLength)
+      throws IOException {
+    // Does nothing if the executor has already started the block.
+    compressed.run();
+    byte[] frame;
+    try {
+      frame = compressed.get();
+    } catch (InterruptedException e) {
+      Thread.currentThread().interrupt();
+      throw new InterruptedIOException("Interrupted while compressing a block");
+    } catch (ExecutionException e) {
+      Throwable cause = e.getCause();
+      if (cause instanceof UncheckedIOException) {
+        throw ((UncheckedIOException) cause).getCause();
+      }
+      if (cause instanceof Error) {
+        throw (Error) cause;
+      }
+      if (cause instanceof RuntimeException) {
+        throw (RuntimeException) cause;
+      }
+      throw new IOException("Failed to compress a block", cause);
+    }
+    data.writeInt(frame.length);
+    data.writeInt(rawLength);
+    data.write(frame);
+    index.writeInt(frame.length);
+    index.writeInt(rawLength);
+  }
+
+  /**
+   * Reads and validates the header at the start of a compressed object.
+   *
+   * @return the codec recorded in the header
+   */
+  static CompressionCodec readHeader(InputStream in) throws IOException {
+    ByteBuffer header = ByteBuffer.wrap(readFully(in, HEADER_SIZE));
+    if (header.getInt() != MAGIC) {
+      throw new IllegalStateException("Object is not in the compressed blob format");
+    }
+    int version = header.get();
+    if (version != VERSION) {
+      throw new IllegalStateException("Unsupported compressed blob format version: " + version);
+    }
+    return CompressionCodec.fromId(header.get());
+  }
+
+  /**
+   * Returns the number of trailing bytes needed to parse the index, given at least the last
+   * {@link #FOOTER_SIZE} bytes of the object.
+   */
+  static int requiredTailLength(byte[] tail) {
+    ByteBuffer footer = ByteBuffer.wrap(tail, tail.length - FOOTER_SIZE, FOOTER_SIZE);
+    int frames = footer.getInt();
+    footer.getLong();
+    if (footer.getInt() != INDEX_MAGIC) {
+      throw new IllegalStateException("Compressed blob index is missing or corrupt");
+    }
+    return FOOTER_SIZE + frames * INDEX_ENTRY_SIZE;
+  }
+
+  /** Parses the block index from the trailing bytes of a compressed object. */
+  static BlockIndex readIndex(byte[] tail) {
+    int required = requiredTailLength(tail);
+    if (tail.length < required) {
+      throw new IllegalStateException("Compressed blob index is truncated");
+    }
+    ByteBuffer buffer = ByteBuffer.wrap(tail, tail.length - required, required);
+    int frames = (required - FOOTER_SIZE) / INDEX_ENTRY_SIZE;
+    long[] frameOffsets = new long[frames + 1];
+    long[] rawOffsets = new long[frames + 1];
+    frameOffsets[0] = HEADER_SIZE;
+    for (int i = 0; i < frames; i++) {
+      int compressedLength = buffer.getInt();
+      int rawLength = buffer.getInt();
+      frameOffsets[i + 1] = frameOffsets[i] + FRAME_HEADER_SIZE + compressedLength;
+      rawOffsets[i + 1] = rawOffsets[i] + rawLength;
+    }
+    return new BlockIndex(frameOffsets, rawOffsets);
+  }
+
+  private static byte[] readFully(InputStream in, int length) throws IOException {
+    byte[] bytes = in.readNBytes(length);
+    if (bytes.length != length) {
+      throw new EOFException("Unexpected end of compressed blob");
+    }
+    return bytes;
+  }
+
+  /** Frame and uncompressed offsets of every block, used to map a raw range onto frames. */
+  static final class BlockIndex {
+    private final long[] frameOffsets;
+    private final long[] rawOffsets;
+
+    BlockIndex(long[] frameOffsets, long[] rawOffsets) {
+      this.frameOffsets = frameOffsets;
+      this.rawOffsets = rawOffsets;
+    }
+
+    int blockCount() {
+      return rawOffsets.length - 1;
+    }
+
+    long rawLength() {
+      return rawOffsets[rawOffsets.length - 1];
+    }
+
+    /** Index of the block containing uncompressed offset {@code rawOffset}. */
+    int blockContaining(long rawOffset) {
+      int pos = Arrays.binarySearch(rawOffsets, 0, blockCount(), rawOffset);
+      return pos >= 0 ? pos : -pos - 2;
+    }
+
+    long rawOffset(int block) {
+      return rawOffsets[block];
+    }
+
+    /** Object offset of the first byte of the frame header of {@code block}. */
+    long frameStart(int block) {
+      return frameOffsets[block];
+    }
+
+    /** Object offset of the last byte of {@code block}'s frame. */
+    long frameEnd(int block) {
+      return frameOffsets[block + 1] - 1;
+    }
+  }
+
+  /**
+   * Streams uncompressed bytes out of a sequence of frames, discarding the first {@code skip}
+   * bytes and stopping after {@code limit} bytes (or at the end-of-frames marker).
+   */
+  static final class DecodingInputStream extends InputStream {
+    private final InputStream frames;
+    private final CompressionCodec codec;
+    private long skip;
+    private long remaining;
+    private byte[] block = new byte[0];
+    private int position;
+    private boolean finished;
+
+    DecodingInputStream(InputStream frames, CompressionCodec codec, long skip, long limit) {
+      this.frames = frames;
+      this.codec = codec;
+      this.skip = skip;
+      this.remaining = limit;
+    }
+
+    @Override
+    public int read() throws IOException {
+      byte[] one = new byte[1];
+      int n = read(one, 0, 1);
+      return n == -1 ? -1 : one[0] & 0xFF;
+    }
+
+    @Override
+    public int read(byte[] b, int off, int len) throws IOException {
+      if (len == 0) {
+        return 0;
+      }
+      if (remaining == 0 || !fill()) {
+        return -1;
+      }
+      int n = (int) Math.min(Math.min(len, block.length - position), remaining);
+      System.arraycopy(block, position, b, off, n);
+      position += n;
+      remaining -= n;
+      return n;
+    }
+
+    private boolean fill() throws IOException {
+      while (position == block.length) {
+        if (finished) {
+          return false;
+        }
+        ByteBuffer header = ByteBuffer.wrap(in(FRAME_HEADER_SIZE));
+        int compressedLength = header.getInt();
+        int rawLength = header.getInt();
+        if (compressedLength == END_OF_FRAMES) {
+          finished = true;
+          return false;
+        }
+        byte[] compressed = in(compressedLength);
+        try {
+          block = codec.decompress(compressed, rawLength);
+        } catch (UncheckedIOException e) {
+          throw e.getCause();
+        }
+        position = (int) Math.min(skip, block.length);
+        skip -= position;
+      }
+      return true;
+    }
+
+    private byte[] in(int length) throws IOException {
+      return readFully(frames, length);
+    }
+
+    @Override
+    public void close() throws IOException {
+      frames.close();
+    }
+  }
+}
@@ -0,0 +1,158 @@
+package com.salesforce.multicloudj.blob.driver;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.UncheckedIOException;
+import java.util.zip.DataFormatException;
+import java.util.zip.Deflater;
+import java.util.zip.GZIPInputStream;
+import java.util.zip.GZIPOutputStream;
+import java.util.zip.Inflater;
+
+/**
+ * Compression codecs supported by the client-side compression layer (see {@link BlobCompression}).
+ *
+ * <p>Each codec compresses a single block independently of every other block, which is what lets
+ * blocks be compressed in parallel and lets ranged reads decode only the blocks they touch. The
+ * {@link #getId() id} is written into the block framing and {@link #getMetadataValue() metadata
+ * value} is recorded on the stored object, so neither may change once objects have been written.
+ */
+public enum CompressionCodec {
+
+  /** Gzip members (RFC 1952); each block is a complete gzip member. */
+  GZIP(1, "gzip") {
+    @Override
+    byte[] compress(byte[] src, int offset, int length, int level) {
+      ByteArrayOutputStream out = new ByteArrayOutputStream(Math.max(64, length / 2));
+      try (GZIPOutputStream gzip = new LeveledGzipOutputStream(out, level)) {
+        gzip.write(src, offset, length);
+      } catch (IOException e) {
+        throw new UncheckedIOException(e);
+      }
+      return out.toByteArray();
+    }
+
+    @Override
+    byte[] decompress(byte[] src, int rawLength) {
+      byte[] raw = new byte[rawLength];
+      try (InputStream in = new GZIPInputStream(new ByteArrayInputStream(src))) {
+        int read = in.readNBytes(raw, 0, rawLength);
+        if (read != rawLength) {
+          throw new IllegalStateException(
+              String.format("Corrupt gzip block: expected %d bytes, got %d", rawLength, read));
+        }
+      } catch (IOException e) {
+        throw new UncheckedIOException(e);
+      }
+      return raw;
+    }
+  },
+
+  /** Raw zlib streams (RFC 1950); lower framing overhead than {@link #GZIP}. */
+  DEFLATE(2, "deflate") {
+    @Override
+    byte[] compress(byte[] src, int offset, int length, int level) {
+      Deflater deflater = new Deflater(level);
+      try {
+        deflater.setInput(src, offset, length);
+        deflater.finish();
+        ByteArrayOutputStream out = new ByteArrayOutputStream(Math.max(64, length / 2));
+        byte[] buffer = new byte[8192];
+        while (!deflater.finished()) {
+          int n = deflater.deflate(buffer);
+          out.write(buffer, 0, n);
+        }
+        return out.toByteArray();
+      } finally {
+        deflater.end();
+      }
+    }
+
+    @Override
+    byte[] decompress(byte[] src, int rawLength) {
+      Inflater inflater = new Inflater();
+      try {
+        inflater.setInput(src);
+        byte[] raw = new byte[rawLength];
+        int read = 0;
+        while (read < rawLength && !inflater.finished()) {
+          int n = inflater.inflate(raw, read, rawLength - read);
+          if (n == 0 && (inflater.needsInput() || inflater.needsDictionary())) {
+            break;
+          }
+          read += n;
+        }
+        if (read != rawLength) {
+          throw new IllegalStateException(
+              String.format("Corrupt deflate block: expected %d bytes, got %d", rawLength, read));
+        }
+        return raw;
+      } catch (DataFormatException e) {
+        throw new IllegalStateException("Corrupt deflate block", e);
+      } finally {
+        inflater.end();
+      }
+    }
+  };
+
+  private final int id;
+  private final String metadataValue;
+
+  CompressionCodec(int id, String metadataValue) {
+    this.id = id;
+    this.metadataValue = metadataValue;
+  }
+
+  /** Returns the identifier written into the block framing header. */
+  public int getId() {
+    return id;
+  }
+
+  /** Returns the value recorded under {@link BlobCompression#CODEC_METADATA_KEY}. */
+  public String getMetadataValue() {
+    return metadataValue;
+  }
+
+  /**
+   * Compresses one block.
+   *
+   * @param level a {@link Deflater} level, or {@link Deflater#DEFAULT_COMPRESSION}
+   */
+  abstract byte[] compress(byte[] src, int offset, int length, int level);
+
+  /** Decompresses one block whose uncompressed length is known from the framing. */
+  abstract byte[] decompress(byte[] src, int rawLength);
+
+  /**
+   * Resolves a codec from the value recorded in object metadata.
+   *
+   * @return the codec, or {@code null} if {@code value} is null or not a known codec
+   */
+  public static CompressionCodec fromMetadataValue(String value) {
+    for (CompressionCodec codec : values()) {
+      if (codec.metadataValue.equalsIgnoreCase(String.valueOf(value))) {
+        return codec;
+      }
+    }
+    return null;
+  }
+
+  static CompressionCodec fromId(int id) {
+    for (CompressionCodec codec : values()) {
+      if (codec.id == id) {
+        return codec;
+      }
+    }
+    throw new IllegalStateException("Unknown compression codec id: " + id);
+  }
+
+  /** {@link GZIPOutputStream} does not expose the level; its deflater is a protected field. */
+  private static final class LeveledGzipOutputStream extends GZIPOutputStream {
+    LeveledGzipOutputStream(ByteArrayOutputStream out, int level) throws IOException {
+      super(out);
+      def.setLevel(level);
+    }
+  }
+}
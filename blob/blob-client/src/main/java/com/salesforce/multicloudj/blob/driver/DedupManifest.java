@@ -0,0 +1,136 @@
+package com.salesforce.multicloudj.blob.driver;
+
+import com.google.common.io.BaseEncoding;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * The object stored under a deduplicated key: the ordered list of chunks its content is made of,
+ * each named by the SHA-256 digest of its bytes.
+ *
+ * <p>Layout, big-endian:
+ *
+ * <pre>
+ * "MCJD" | version (1) | reserved (3) | content length (8) | chunk count (4)
+ * then per chunk: length (4) | SHA-256 (32)
+ * </pre>
+ */
+public final class DedupManifest {
+
+  /** Length in bytes of a chunk digest. */
+  public static final int DIGEST_LENGTH = 32;
+
+  private static final byte[] MAGIC = "MCJD".getBytes(StandardCharsets.US_ASCII);
+  private static final byte VERSION = 1;
+  private static final int HEADER_LENGTH = 20;
+  private static final int ENTRY_LENGTH = 4 + DIGEST_LENGTH;
+
+  private final List<Chunk> chunks;
+  private final long length;
+
+  public DedupManifest(List<Chunk> chunks) {
+    this.chunks = Collections.unmodifiableList(new ArrayList<>(chunks));
+    long total = 0;
+    for (Chunk chunk : chunks) {
+      total += chunk.getLength();
+    }
+    this.length = total;
+  }
+
+  /** The chunks in content order; a chunk repeated in the content is listed each time. */
+  public List<Chunk> getChunks() {
+    return chunks;
+  }
+
+  /** The length of the reassembled content. */
+  public long getLength() {
+    return length;
+  }
+
+  public byte[] toBytes() {
+    ByteBuffer buffer = ByteBuffer.allocate(HEADER_LENGTH + chunks.size() * ENTRY_LENGTH);
+    buffer.put(MAGIC).put(VERSION).put(new byte[3]).putLong(length).putInt(chunks.size());
+    for (Chunk chunk : chunks) {
+      buffer.putInt(chunk.getLength()).put(chunk.digest);
+    }
+    return buffer.array();
+  }
+
+  /**
+   * Parses a manifest written by {@link #toBytes()}.
+   *
+   * @throws IllegalStateException if the bytes are not a manifest or are truncated
+   */
+  public static DedupManifest read(byte[] bytes) {
+    ByteBuffer buffer = ByteBuffer.wrap(bytes);
+    byte[] magic = new byte[MAGIC.length];
+    if (bytes.length < HEADER_LENGTH
+        || !Arrays.equals(MAGIC, getBytes(buffer, magic))
+        || buffer.get() != VERSION) {
+      throw new IllegalStateException("Not a dedup manifest");
+    }
+    buffer.position(buffer.position() + 3);
+    long length = buffer.getLong();
+    int count = buffer.getInt();
+    if (count < 0 || buffer.remaining() != (long) count * ENTRY_LENGTH) {
+      throw new IllegalStateException("Corrupt dedup manifest: truncated chunk list");
+    }
+    List<Chunk> chunks = new ArrayList<>(count);
+    for (int i = 0; i < count; i++) {
+      int chunkLength = buffer.getInt();
+      if (chunkLength < 0) {
+        throw new IllegalStateException("Corrupt dedup manifest: negative chunk length");
+      }
+      chunks.add(new Chunk(getBytes(buffer, new byte[DIGEST_LENGTH]), chunkLength));
+    }
+    DedupManifest manifest = new DedupManifest(chunks);
+    if (manifest.getLength() != length) {
+      throw new IllegalStateException(
+          String.format(
+              "Corrupt dedup manifest: chunks add up to %d bytes, expected %d",
+              manifest.getLength(), length));
+    }
+    return manifest;
+  }
+
+  private static byte[] getBytes(ByteBuffer buffer, byte[] into) {
+    buffer.get(into);
+    return into;
+  }
+
+  /** One chunk of content: its SHA-256 digest and length. */
+  public static final class Chunk {
+    private final byte[] digest;
+    private final int length;
+
+    public Chunk(byte[] digest, int length) {
+      if (digest.length != DIGEST_LENGTH) {
+        throw new IllegalArgumentException("Chunk digest must be " + DIGEST_LENGTH + " bytes");
+      }
+      this.digest = digest.clone();
+      this.length = length;
+    }
+
+    public byte[] getDigest() {
+      return digest.clone();
+    }
+
+    public int getLength() {
+      return length;
+    }
+
+    /** Returns the digest in lowercase hex. */
+    public String getName() {
+      return BaseEncoding.base16().lowerCase().encode(digest);
+    }
+
+    /** Returns the key the chunk is stored under, below {@code prefix}. */
+    public String key(String prefix) {
+      return prefix + getName();
+    }
+  }
+}
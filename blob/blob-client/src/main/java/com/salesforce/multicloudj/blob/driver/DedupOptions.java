@@ -0,0 +1,54 @@
+package com.salesforce.multicloudj.blob.driver;
+
+import lombok.Builder;
+import lombok.Getter;
+
+/**
+ * Settings of a deduplicating client, see {@code DedupBucketClient}.
+ *
+ * <p>Chunk boundaries depend on the three chunk sizes, so content is only shared between uploads
+ * made with the same sizes. Keep them fixed for a bucket once it holds deduplicated objects.
+ */
+@Builder
+@Getter
+public class DedupOptions {
+
+  /** Default smallest chunk: 256 KiB. */
+  public static final int DEFAULT_MIN_CHUNK_SIZE = 256 * 1024;
+
+  /** Default average chunk: 1 MiB. */
+  public static final int DEFAULT_AVERAGE_CHUNK_SIZE = 1024 * 1024;
+
+  /** Default largest chunk: 4 MiB. */
+  public static final int DEFAULT_MAX_CHUNK_SIZE = 4 * 1024 * 1024;
+
+  /** Default key prefix under which chunks are stored. */
+  public static final String DEFAULT_CHUNK_PREFIX = ".multicloudj/chunks/";
+
+  /** (Optional) Smallest chunk in bytes, except for the last chunk of a payload. */
+  @Builder.Default private final int minChunkSize = DEFAULT_MIN_CHUNK_SIZE;
+
+  /** (Optional) Chunk size the chunker aims for on average; rounded to a power of two. */
+  @Builder.Default private final int averageChunkSize = DEFAULT_AVERAGE_CHUNK_SIZE;
+
+  /** (Optional) Largest chunk in bytes. Up to this many bytes are held per chunk in flight. */
+  @Builder.Default private final int maxChunkSize = DEFAULT_MAX_CHUNK_SIZE;
+
+  /** (Optional) Key prefix under which chunks are stored by their SHA-256 digest. */
+  @Builder.Default private final String chunkPrefix = DEFAULT_CHUNK_PREFIX;
+
+  /** (Optional) Chunk uploads or downloads in flight at once. */
+  @Builder.Default private final int maxConcurrency = 8;
+
+  /**
+   * (Optional) Chunks the local bloom filter is sized for at a 1% false positive rate. Beyond it
+   * the rate rises and more chunks are checked with a HEAD request.
+   */
+  @Builder.Default private final int expectedChunks = 1_000_000;
+
+  /**
+   * (Optional) List the chunk prefix once, before the first upload, to learn which chunks the
+   * bucket already holds. Without it, chunks stored by other clients are uploaded again.
+   */
+  @Builder.Default private final boolean indexExistingChunks = true;
+}
@@ -0,0 +1,25 @@
+package com.salesforce.multicloudj.blob.driver;
+
+import lombok.Builder;
+import lombok.Getter;
+
+/** The outcome of a deduplicated upload. */
+@Builder
+@Getter
+public class DedupUploadResponse {
+
+  /** The response of the manifest upload, stored under the requested key. */
+  private final UploadResponse uploadResponse;
+
+  /** The length of the uploaded content. */
+  private final long contentLength;
+
+  /** The chunks the content was split into. */
+  private final int chunkCount;
+
+  /** The chunks that were not yet stored and were uploaded. */
+  private final int uploadedChunkCount;
+
+  /** The bytes of the uploaded chunks; the rest of the content was already stored. */
+  private final long uploadedBytes;
+}
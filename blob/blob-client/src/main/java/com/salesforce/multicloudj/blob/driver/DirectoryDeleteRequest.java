@@ -0,0 +1,25 @@
+package com.salesforce.multicloudj.blob.driver;
+
+import java.util.function.LongConsumer;
+import lombok.Builder;
+import lombok.Getter;
+
+/** Wrapper object for directory delete data */
+@Builder
+@Getter
+public class DirectoryDeleteRequest {
+  /** Prefix of the objects to delete. Null deletes every object in the bucket. */
+  private final String prefix;
+
+  /**
+   * Also delete every noncurrent version and delete marker under the prefix, including those of
+   * keys whose latest version is a delete marker. Requires a store that lists versions by prefix.
+   */
+  private final boolean includeVersions;
+
+  /**
+   * Receives the running total of deleted objects (or versions) after each batch completes. It is
+   * called from the deleting threads, so it must be thread safe.
+   */
+  private final LongConsumer progressListener;
+}
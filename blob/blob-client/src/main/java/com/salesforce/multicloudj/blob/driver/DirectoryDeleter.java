@@ -0,0 +1,384 @@
+package com.salesforce.multicloudj.blob.driver;
+
+import com.salesforce.multicloudj.common.exceptions.SubstrateSdkException;
+import java.time.Duration;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Deque;
+import java.util.Iterator;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Executor;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.function.Consumer;
+import java.util.function.Function;
+import java.util.function.LongConsumer;
+import java.util.function.Predicate;
+
+/**
+ * Deletes the objects under a prefix while the prefix is still being listed. Shared by the sync and
+ * async stores.
+ *
+ * <p>The lister groups keys into batches of up to {@value #MAX_KEYS_PER_BATCH}, the most S3, GCS
+ * and OSS accept in one batch delete, and keeps at most {@code maxConcurrency} batches
+ * outstanding. Because of that bound, listing never runs far ahead of deletion and memory stays
+ * flat however many objects the prefix holds. A batch that fails as throttled is retried up to
+ * {@value #MAX_ATTEMPTS} times with exponential backoff. Any other failure stops the listing, and
+ * the delete fails once the batches in flight have finished.
+ */
+public final class DirectoryDeleter {
+
+  /** Keys per batch delete request. */
+  public static final int MAX_KEYS_PER_BATCH = 1000;
+
+  /** Batch deletes in flight at once. */
+  public static final int DEFAULT_MAX_CONCURRENCY = 8;
+
+  /** Attempts per batch, the first included, when the batch keeps failing as throttled. */
+  static final int MAX_ATTEMPTS = 5;
+
+  static final Duration DEFAULT_INITIAL_BACKOFF = Duration.ofMillis(200);
+
+  private static final long MAX_BACKOFF_MILLIS = Duration.ofSeconds(10).toMillis();
+
+  private final Predicate<Throwable> throttled;
+  private final int maxConcurrency;
+  private final LongConsumer progressListener;
+  private final long initialBackoffMillis;
+  private final AtomicLong deleted = new AtomicLong();
+
+  /**
+   * @param throttled tells whether a failed batch was throttled and should be retried
+   * @param maxConcurrency the number of batch deletes in flight at once
+   * @param progressListener receives the running total of deleted objects, or null
+   */
+  public DirectoryDeleter(
+      Predicate<Throwable> throttled, int maxConcurrency, LongConsumer progressListener) {
+    this(throttled, maxConcurrency, progressListener, DEFAULT_INITIAL_BACKOFF);
+  }
+
+  DirectoryDeleter(
+      Predicate<Throwable> throttled,
+      int maxConcurrency,
+      LongConsumer progressListener,
+      Duration initialBackoff) {
+    this.throttled = throttled;
+    this.maxConcurrency = Math.max(1, maxConcurrency);
+    this.progressListener = progressListener;
+    this.initialBackoffMillis = initialBackoff.toMillis();
+  }
+
+  /** Returns the number of objects deleted so far. */
+  public long getDeletedCount() {
+    return deleted.get();
+  }
+
+  /**
+   * Deletes {@code objects}, listing on the calling thread and deleting on {@code executor}.
+   * Returns once every listed object has been deleted.
+   *
+   * <p>While {@code maxConcurrency} batches are outstanding the calling thread waits for the
+   * oldest, deleting it itself if {@code executor} has not started it yet. The delete therefore
+   * completes even when it runs on {@code executor} and every thread of it is busy, including with
+   * other directory deletes.
+   *
+   * @param objects the objects to delete, typically a lazy listing
+   * @param deleteBatch deletes one batch of at most {@value #MAX_KEYS_PER_BATCH} objects
+   * @param executor runs the deleters
+   */
+  public void delete(
+      Iterator<BlobIdentifier> objects,
+      Consumer<List<BlobIdentifier>> deleteBatch,
+      Executor executor) {
+    AtomicReference<RuntimeException> failure = new AtomicReference<>();
+    Deque<BatchDelete> window = new ArrayDeque<>(maxConcurrency);
+    try {
+      List<BlobIdentifier> batch = new ArrayList<>(MAX_KEYS_PER_BATCH);
+      while (failure.get() == null && objects.hasNext()) {
+        if (Thread.currentThread().isInterrupted()) {
+          throw new SubstrateSdkException("Interrupted while deleting directory");
+        }
+        batch.add(objects.next());
+        if (batch.size() == MAX_KEYS_PER_BATCH) {
+          submit(new BatchDelete(batch, deleteBatch, failure), window, executor);
+          batch = new ArrayList<>(MAX_KEYS_PER_BATCH);
+        }
+      }
+      if (!batch.isEmpty()) {
+        submit(new BatchDelete(batch, deleteBatch, failure), window, executor);
+      }
+    } catch (RuntimeException e) {
+      failure.compareAndSet(null, e);
+    } finally {
+      while (!window.isEmpty()) {
+        window.poll().await();
+      }
+    }
+    if (failure.get() != null) {
+      throw failure.get();
+    }
+  }
+
+  private void submit(BatchDelete delete, Deque<BatchDelete> window, Executor executor) {
+    if (window.size() == maxConcurrency) {
+      window.poll().await();
+    }
+    window.add(delete);
+    try {
+      executor.execute(delete);
+    } catch (RejectedExecutionException e) {
+      delete.run();
+    }
+  }
+
+  /**
+   * Deletes every object {@code listPage} returns, requesting the next page only while fewer than
+   * {@code maxConcurrency} batches are waiting to be deleted.
+   *
+   * @param listPage lists the page after the given pagination token, which is null for the first
+   *     page
+   * @param deleteBatch deletes one batch of at most {@value #MAX_KEYS_PER_BATCH} objects
+   */
+  public CompletableFuture<Void> deleteAsync(
+      Function<String, CompletableFuture<ListBlobsPageResponse>> listPage,
+      Function<List<BlobIdentifier>, CompletableFuture<Void>> deleteBatch) {
+    return new AsyncRun(listPage, deleteBatch).start();
+  }
+
+  private void deleteWithRetry(
+      List<BlobIdentifier> batch, Consumer<List<BlobIdentifier>> deleteBatch) {
+    for (int attempt = 1; ; attempt++) {
+      try {
+        deleteBatch.accept(batch);
+        break;
+      } catch (RuntimeException e) {
+        if (attempt >= MAX_ATTEMPTS || !throttled.test(e)) {
+          throw e;
+        }
+        try {
+          Thread.sleep(backoffMillis(attempt));
+        } catch (InterruptedException interrupted) {
+          Thread.currentThread().interrupt();
+          throw e;
+        }
+      }
+    }
+    reportProgress(batch.size());
+  }
+
+  private void reportProgress(int count) {
+    if (progressListener == null) {
+      deleted.addAndGet(count);
+      return;
+    }
+    // Deleters finish concurrently; report under the lock so the listener never sees the total
+    // go backwards.
+    synchronized (deleted) {
+      progressListener.accept(deleted.addAndGet(count));
+    }
+  }
+
+  /** Exponential backoff with jitter over the upper half of the interval. */
+  long backoffMillis(int attempt) {
+    long ceiling = Math.min(MAX_BACKOFF_MILLIS, initialBackoffMillis << Math.min(attempt - 1, 20));
+    return ceiling / 2 + ThreadLocalRandom.current().nextLong(ceiling / 2 + 1);
+  }
+
+  private static List<List<BlobIdentifier>> toBatches(List<BlobInfo> blobs) {
+    List<List<BlobIdentifier>> batches = new ArrayList<>();
+    for (int start = 0; start < blobs.size(); start += MAX_KEYS_PER_BATCH) {
+      int end = Math.min(blobs.size(), start + MAX_KEYS_PER_BATCH);
+      List<BlobIdentifier> batch = new ArrayList<>(end - start);
+      for (BlobInfo blob : blobs.subList(start, end)) {
+        batch.add(new BlobIdentifier(blob.getKey(), null));
+      }
+      batches.add(batch);
+    }
+    return batches;
+  }
+
+  private static Throwable unwrap(Throwable t) {
+    while ((t instanceof CompletionException || t instanceof ExecutionException)
+        && t.getCause() != null) {
+      t = t.getCause();
+    }
+    return t;
+  }
+
+  /**
+   * One batch of a sync delete, run by whichever of the executor and the lister claims it first.
+   */
+  private final class BatchDelete implements Runnable {
+    private final List<BlobIdentifier> batch;
+    private final Consumer<List<BlobIdentifier>> deleteBatch;
+    private final AtomicReference<RuntimeException> failure;
+    private final AtomicBoolean claimed = new AtomicBoolean();
+    private final CompletableFuture<Void> done = new CompletableFuture<>();
+
+    BatchDelete(
+        List<BlobIdentifier> batch,
+        Consumer<List<BlobIdentifier>> deleteBatch,
+        AtomicReference<RuntimeException> failure) {
+      this.batch = batch;
+      this.deleteBatch = deleteBatch;
+      this.failure = failure;
+    }
+
+    @Override
+    public void run() {
+      if (!claimed.compareAndSet(false, true)) {
+        return;
+      }
+      try {
+        // After a failure the batches already submitted are skipped, not deleted.
+        if (failure.get() == null) {
+          deleteWithRetry(batch, deleteBatch);
+        }
+      } catch (RuntimeException e) {
+        failure.compareAndSet(null, e);
+      } finally {
+        done.complete(null);
+      }
+    }
+
+    /** Runs the batch on the calling thread if no executor thread has started it, then waits. */
+    void await() {
+      run();
+      done.join();
+    }
+  }
+
+  /** State of one async delete. Guarded by its own monitor, except for {@code wip}. */
+  private final class AsyncRun {
+    private final Function<String, CompletableFuture<ListBlobsPageResponse>> listPage;
+    private final Function<List<BlobIdentifier>, CompletableFuture<Void>> deleteBatch;
+    private final CompletableFuture<Void> done = new CompletableFuture<>();
+    private final Deque<List<BlobIdentifier>> queue = new ArrayDeque<>();
+    // Serializes step() and turns completions that arrive during a step into another pass of the
+    // loop rather than a nested call, so synchronously completing stores do not recurse.
+    private final AtomicInteger wip = new AtomicInteger();
+    private String nextToken;
+    private boolean listing;
+    private boolean listed;
+    private int inFlight;
+    private Throwable failure;
+
+    AsyncRun(
+        Function<String, CompletableFuture<ListBlobsPageResponse>> listPage,
+        Function<List<BlobIdentifier>, CompletableFuture<Void>> deleteBatch) {
+      this.listPage = listPage;
+      this.deleteBatch = deleteBatch;
+    }
+
+    CompletableFuture<Void> start() {
+      schedule();
+      return done;
+    }
+
+    private void schedule() {
+      if (wip.getAndIncrement() != 0) {
+        return;
+      }
+      do {
+        step();
+      } while (wip.decrementAndGet() != 0);
+    }
+
+    private void step() {
+      List<List<BlobIdentifier>> toDelete = new ArrayList<>();
+      String listFrom = null;
+      boolean startList = false;
+      boolean finished = false;
+      Throwable failed = null;
+      synchronized (this) {
+        if (failure != null) {
+          failed = inFlight == 0 && !listing ? failure : null;
+        } else {
+          while (inFlight < maxConcurrency && !queue.isEmpty()) {
+            toDelete.add(queue.poll());
+            inFlight++;
+          }
+          if (!listing && !listed && queue.size() < maxConcurrency) {
+            listing = true;
+            startList = true;
+            listFrom = nextToken;
+          }
+          finished = listed && queue.isEmpty() && inFlight == 0;
+        }
+      }
+      if (failed != null) {
+        done.completeExceptionally(failed);
+        return;
+      }
+      if (finished) {
+        done.complete(null);
+        return;
+      }
+      for (List<BlobIdentifier> batch : toDelete) {
+        startDelete(batch, 1);
+      }
+      if (startList) {
+        startList(listFrom);
+      }
+    }
+
+    private void startList(String token) {
+      CompletableFuture<ListBlobsPageResponse> page;
+      try {
+        page = listPage.apply(token);
+      } catch (RuntimeException e) {
+        page = CompletableFuture.failedFuture(e);
+      }
+      page.whenComplete(
+          (response, error) -> {
+            synchronized (this) {
+              listing = false;
+              if (error != null) {
+                failure = failure != null ? failure : unwrap(error);
+              } else {
+                queue.addAll(toBatches(response.getBlobs()));
+                nextToken = response.getNextPageToken();
+                listed = !response.isTruncated() || nextToken == null;
+              }
+            }
+            schedule();
+          });
+    }
+
+    private void startDelete(List<BlobIdentifier> batch, int attempt) {
+      CompletableFuture<Void> deletion;
+      try {
+        deletion = deleteBatch.apply(batch);
+      } catch (RuntimeException e) {
+        deletion = CompletableFuture.failedFuture(e);
+      }
+      deletion.whenComplete(
+          (result, error) -> {
+            Throwable cause = error != null ? unwrap(error) : null;
+            if (cause != null && attempt < MAX_ATTEMPTS && throttled.test(cause)) {
+              CompletableFuture.delayedExecutor(backoffMillis(attempt), TimeUnit.MILLISECONDS)
+                  .execute(() -> startDelete(batch, attempt + 1));
+              return;
+            }
+            if (cause == null) {
+              reportProgress(batch.size());
+            }
+            synchronized (this) {
+              inFlight--;
+              if (cause != null && failure == null) {
+                failure = cause;
+              }
+            }
+            schedule();
+          });
+    }
+  }
+}
@@ -0,0 +1,22 @@
+package com.salesforce.multicloudj.blob.driver;
+
+import java.util.List;
+import lombok.Builder;
+import lombok.Getter;
+
+/** Wrapper object for directory sync result data */
+@Builder
+@Getter
+public class DirectorySyncResponse {
+  /** Files uploaded or downloaded because they were missing or changed on the destination. */
+  private final long transferredCount;
+
+  /** Files found unchanged and left alone. */
+  private final long unchangedCount;
+
+  /** Extraneous objects or local files deleted. */
+  private final long deletedCount;
+
+  private final long totalBytesTransferred;
+  private final List<FailedBlobSync> failedTransfers;
+}
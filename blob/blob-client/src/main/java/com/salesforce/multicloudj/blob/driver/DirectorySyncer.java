@@ -0,0 +1,437 @@
+package com.salesforce.multicloudj.blob.driver;
+
+import com.salesforce.multicloudj.common.checksum.Md5;
+import com.salesforce.multicloudj.common.exceptions.InvalidArgumentException;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.DirectoryStream;
+import java.nio.file.Files;
+import java.nio.file.LinkOption;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.attribute.BasicFileAttributes;
+import java.nio.file.attribute.FileTime;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Deque;
+import java.util.Iterator;
+import java.util.List;
+import java.util.NoSuchElementException;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.Executor;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Brings a bucket prefix up to date with a local directory, or the other way round, transferring
+ * only the files that are missing or changed. Shared by the stores through {@link
+ * AbstractBlobStore#syncDirectory(Path, String, SyncOptions)}.
+ *
+ * <p>The local directory is walked depth first with the entries of each directory sorted so that
+ * files come out in the same order as the listing of the prefix, by the UTF-8 bytes of their keys.
+ * The walk and the listing are then merged in one pass, like {@link ListingDiff}, so memory holds
+ * the entries of the directories on the current path and never a map of the whole tree. A file on
+ * both sides is unchanged if the sizes match and, when uploading, the local file is no newer than
+ * the object, or, when downloading, the times agree within {@link #MODIFY_WINDOW}; downloaded files
+ * take the object's last-modified time so the next sync finds them unchanged. With {@link
+ * SyncOptions#isCompareChecksums()}, MD5 digests are compared instead of times where the store
+ * reports one.
+ *
+ * <p>The merge runs on the calling thread and hands transfers and deletes to {@code executor}, at
+ * most {@code maxConcurrency} at a time. Downloads are written beside their destination and moved
+ * into place when complete. A failed transfer or delete is recorded in the response and the sync
+ * goes on; a failed walk or listing fails the sync once the work in flight has finished. Symbolic
+ * links and other special files are skipped.
+ */
+public final class DirectorySyncer {
+
+  /** Largest difference between a downloaded file's time and its object's that counts as equal. */
+  static final Duration MODIFY_WINDOW = Duration.ofSeconds(1);
+
+  /** Suffix of the files downloads are written to before they are moved into place. */
+  static final String PARTIAL_SUFFIX = ".mcj-partial";
+
+  private static final int BUFFER_SIZE = 64 * 1024;
+
+  /** The bucket side of a sync, implemented by the store. */
+  public interface Bucket {
+
+    /** Lists the objects under {@code prefix} in ascending key order. */
+    Iterator<BlobInfo> list(String prefix);
+
+    void upload(String key, Path source, long size);
+
+    void download(String key, Path destination);
+
+    /** Deletes at most {@value DirectoryDeleter#MAX_KEYS_PER_BATCH} objects. */
+    void delete(List<String> keys);
+
+    /** Returns the MD5 digest of the object, or null if the store does not report one. */
+    byte[] md5(String key);
+  }
+
+  private final int maxConcurrency;
+  private final Semaphore permits;
+  private final AtomicLong transferred = new AtomicLong();
+  private final AtomicLong unchanged = new AtomicLong();
+  private final AtomicLong deleted = new AtomicLong();
+  private final AtomicLong bytes = new AtomicLong();
+  private final ConcurrentLinkedQueue<FailedBlobSync> failures = new ConcurrentLinkedQueue<>();
+
+  /**
+   * @param maxConcurrency the number of transfers and deletes in flight at once
+   */
+  public DirectorySyncer(int maxConcurrency) {
+    this.maxConcurrency = Math.max(1, maxConcurrency);
+    this.permits = new Semaphore(this.maxConcurrency);
+  }
+
+  /**
+   * Syncs {@code root} with the objects under {@code prefix} in the direction of {@code options}.
+   * Returns once every transfer and delete has finished.
+   *
+   * @param root the local directory; created when downloading if it does not exist
+   * @param prefix the key prefix the directory maps to, or null for the whole bucket; {@code /}
+   *     is appended if it does not end with one
+   * @param options the direction and comparison options
+   * @param bucket lists, transfers and deletes objects
+   * @param executor runs the transfers and deletes
+   */
+  public DirectorySyncResponse sync(
+      Path root, String prefix, SyncOptions options, Bucket bucket, Executor executor) {
+    String base =
+        prefix == null || prefix.isEmpty() || prefix.endsWith("/") ? prefix : prefix + "/";
+    String keyBase = base == null ? "" : base;
+    boolean upload = options.getDirection() == SyncDirection.UPLOAD;
+    RuntimeException failure = null;
+    try {
+      if (!upload) {
+        Files.createDirectories(root);
+      }
+      Iterator<LocalFile> local = new LocalWalk(root);
+      Iterator<BlobInfo> remote = bucket.list(base);
+      List<String> toDelete = new ArrayList<>();
+      LocalFile file = local.hasNext() ? local.next() : null;
+      BlobInfo blob = nextObject(remote, keyBase);
+      while (file != null || blob != null) {
+        int order;
+        if (file == null) {
+          order = 1;
+        } else if (blob == null) {
+          order = -1;
+        } else {
+          order =
+              KeyOrder.compare(file.key, blob.getKey().substring(keyBase.length()));
+        }
+        if (order < 0) {
+          LocalFile source = file;
+          if (upload) {
+            submit(() -> upload(bucket, keyBase + source.key, source), executor);
+          } else if (options.isDeleteExtraneous()) {
+            submit(() -> deleteLocal(keyBase + source.key, source.path), executor);
+          }
+          file = local.hasNext() ? local.next() : null;
+        } else if (order > 0) {
+          BlobInfo object = blob;
+          if (!upload) {
+            submit(() -> download(bucket, root, keyBase, object), executor);
+          } else if (options.isDeleteExtraneous()) {
+            toDelete.add(object.getKey());
+            if (toDelete.size() == DirectoryDeleter.MAX_KEYS_PER_BATCH) {
+              List<String> batch = toDelete;
+              submit(() -> deleteRemote(bucket, batch), executor);
+              toDelete = new ArrayList<>();
+            }
+          }
+          blob = nextObject(remote, keyBase);
+        } else {
+          LocalFile source = file;
+          BlobInfo object = blob;
+          if (!options.isCompareChecksums() || source.size != object.getObjectSize()) {
+            // Decided from the listing alone, so unchanged files cost no task.
+            if (!changed(bucket, source, object, options)) {
+              unchanged.incrementAndGet();
+            } else if (upload) {
+              submit(() -> upload(bucket, object.getKey(), source), executor);
+            } else {
+              submit(() -> download(bucket, root, keyBase, object), executor);
+            }
+          } else {
+            submit(
+                () -> {
+                  boolean changed;
+                  try {
+                    changed = changed(bucket, source, object, options);
+                  } catch (RuntimeException e) {
+                    failures.add(
+                        FailedBlobSync.builder()
+                            .key(object.getKey())
+                            .path(source.path)
+                            .exception(e)
+                            .build());
+                    return;
+                  }
+                  if (!changed) {
+                    unchanged.incrementAndGet();
+                  } else if (upload) {
+                    upload(bucket, object.getKey(), source);
+                  } else {
+                    download(bucket, root, keyBase, object);
+                  }
+                },
+                executor);
+          }
+          file = local.hasNext() ? local.next() : null;
+          blob = nextObject(remote, keyBase);
+        }
+      }
+      if (!toDelete.isEmpty()) {
+        List<String> batch = toDelete;
+        submit(() -> deleteRemote(bucket, batch), executor);
+      }
+    } catch (IOException e) {
+      failure = new UncheckedIOException(e);
+    } catch (RuntimeException e) {
+      failure = e;
+    } finally {
+      permits.acquireUninterruptibly(maxConcurrency);
+      permits.release(maxConcurrency);
+    }
+    if (failure != null) {
+      throw failure;
+    }
+    return DirectorySyncResponse.builder()
+        .transferredCount(transferred.get())
+        .unchangedCount(unchanged.get())
+        .deletedCount(deleted.get())
+        .totalBytesTransferred(bytes.get())
+        .failedTransfers(new ArrayList<>(failures))
+        .build();
+  }
+
+  /** Returns the next listed object that maps to a file, skipping directory markers. */
+  private static BlobInfo nextObject(Iterator<BlobInfo> remote, String keyBase) {
+    while (remote.hasNext()) {
+      BlobInfo blob = remote.next();
+      String key = blob.getKey();
+      if (key.startsWith(keyBase) && key.length() > keyBase.length() && !key.endsWith("/")) {
+        return blob;
+      }
+    }
+    return null;
+  }
+
+  private void submit(Runnable task, Executor executor) {
+    permits.acquireUninterruptibly();
+    try {
+      CompletableFuture.runAsync(task, executor).whenComplete((result, error) -> permits.release());
+    } catch (RuntimeException e) {
+      permits.release();
+      throw e;
+    }
+  }
+
+  private boolean changed(Bucket bucket, LocalFile file, BlobInfo blob, SyncOptions options) {
+    if (file.size != blob.getObjectSize()) {
+      return true;
+    }
+    if (options.isCompareChecksums()) {
+      byte[] remote = bucket.md5(blob.getKey());
+      if (remote != null) {
+        return !Arrays.equals(remote, md5(file.path));
+      }
+    }
+    Instant remote = blob.getLastModified();
+    if (remote == null) {
+      return true;
+    }
+    if (options.getDirection() == SyncDirection.UPLOAD) {
+      return file.lastModified.isAfter(remote);
+    }
+    return Duration.between(file.lastModified, remote).abs().compareTo(MODIFY_WINDOW) > 0;
+  }
+
+  private void upload(Bucket bucket, String key, LocalFile file) {
+    try {
+      bucket.upload(key, file.path, file.size);
+      transferred.incrementAndGet();
+      bytes.addAndGet(file.size);
+    } catch (RuntimeException e) {
+      failures.add(FailedBlobSync.builder().key(key).path(file.path).exception(e).build());
+    }
+  }
+
+  private void download(Bucket bucket, Path root, String keyBase, BlobInfo blob) {
+    String key = blob.getKey();
+    Path target = root.resolve(key.substring(keyBase.length())).normalize();
+    Path partial = null;
+    try {
+      if (!target.startsWith(root.normalize()) || target.equals(root.normalize())) {
+        throw new InvalidArgumentException("Key maps outside the local directory: " + key);
+      }
+      Files.createDirectories(target.getParent());
+      String suffix = Long.toHexString(ThreadLocalRandom.current().nextLong());
+      partial = target.resolveSibling("." + target.getFileName() + "." + suffix + PARTIAL_SUFFIX);
+      bucket.download(key, partial);
+      Files.move(
+          partial, target, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+      if (blob.getLastModified() != null) {
+        Files.setLastModifiedTime(target, FileTime.from(blob.getLastModified()));
+      }
+      transferred.incrementAndGet();
+      bytes.addAndGet(blob.getObjectSize());
+    } catch (IOException | RuntimeException e) {
+      failures.add(FailedBlobSync.builder().key(key).path(target).exception(e).build());
+      if (partial != null) {
+        try {
+          Files.deleteIfExists(partial);
+        } catch (IOException ignored) {
+          // The partial file is skipped by later syncs and can be removed by hand.
+        }
+      }
+    }
+  }
+
+  private void deleteLocal(String key, Path path) {
+    try {
+      Files.delete(path);
+      deleted.incrementAndGet();
+    } catch (IOException e) {
+      failures.add(FailedBlobSync.builder().key(key).path(path).exception(e).build());
+    }
+  }
+
+  private void deleteRemote(Bucket bucket, List<String> keys) {
+    try {
+      bucket.delete(keys);
+      deleted.addAndGet(keys.size());
+    } catch (RuntimeException e) {
+      for (String key : keys) {
+        failures.add(FailedBlobSync.builder().key(key).exception(e).build());
+      }
+    }
+  }
+
+  static byte[] md5(Path path) {
+    try (InputStream in = Files.newInputStream(path)) {
+      Md5 digest = new Md5();
+      byte[] buffer = new byte[BUFFER_SIZE];
+      for (int read = in.read(buffer); read >= 0; read = in.read(buffer)) {
+        digest.update(buffer, 0, read);
+      }
+      return digest.digest();
+    } catch (IOException e) {
+      throw new UncheckedIOException(e);
+    }
+  }
+
+  /** A regular file found by the walk, with its key relative to the synced directory. */
+  static final class LocalFile {
+    private final String key;
+    private final Path path;
+    private final long size;
+    private final Instant lastModified;
+
+    private LocalFile(String key, Path path, BasicFileAttributes attributes) {
+      this.key = key;
+      this.path = path;
+      this.size = attributes.size();
+      this.lastModified = attributes.lastModifiedTime().toInstant();
+    }
+
+    String getKey() {
+      return key;
+    }
+  }
+
+  /**
+   * Walks a directory depth first, yielding its regular files in key order. Each directory's
+   * entries are read and sorted when the walk enters it, comparing a subdirectory as its name
+   * followed by {@code /}, which is where its files fall among its siblings in key order.
+   */
+  static final class LocalWalk implements Iterator<LocalFile> {
+    private final Deque<Iterator<Entry>> stack = new ArrayDeque<>();
+    private final Deque<String> keyPrefixes = new ArrayDeque<>();
+    private LocalFile next;
+
+    LocalWalk(Path root) throws IOException {
+      if (Files.isDirectory(root, LinkOption.NOFOLLOW_LINKS)) {
+        enter(root, "");
+      }
+    }
+
+    @Override
+    public boolean hasNext() {
+      while (next == null && !stack.isEmpty()) {
+        Iterator<Entry> entries = stack.peek();
+        if (!entries.hasNext()) {
+          stack.pop();
+          keyPrefixes.pop();
+          continue;
+        }
+        Entry entry = entries.next();
+        String key = keyPrefixes.peek() + entry.name;
+        try {
+          if (entry.attributes.isDirectory()) {
+            enter(entry.path, key);
+          } else {
+            next = new LocalFile(key, entry.path, entry.attributes);
+          }
+        } catch (IOException e) {
+          throw new UncheckedIOException(e);
+        }
+      }
+      return next != null;
+    }
+
+    @Override
+    public LocalFile next() {
+      if (!hasNext()) {
+        throw new NoSuchElementException();
+      }
+      LocalFile file = next;
+      next = null;
+      return file;
+    }
+
+    private void enter(Path directory, String keyPrefix) throws IOException {
+      List<Entry> entries = new ArrayList<>();
+      try (DirectoryStream<Path> children = Files.newDirectoryStream(directory)) {
+        for (Path child : children) {
+          String name = child.getFileName().toString();
+          BasicFileAttributes attributes =
+              Files.readAttributes(child, BasicFileAttributes.class, LinkOption.NOFOLLOW_LINKS);
+          if (attributes.isDirectory()) {
+            entries.add(new Entry(name + "/", child, attributes));
+          } else if (attributes.isRegularFile() && !name.endsWith(PARTIAL_SUFFIX)) {
+            entries.add(new Entry(name, child, attributes));
+          }
+        }
+      }
+      entries.sort((left, right) -> Arrays.compareUnsigned(left.sortKey, right.sortKey));
+      stack.push(entries.iterator());
+      keyPrefixes.push(keyPrefix);
+    }
+
+    private static final class Entry {
+      private final String name;
+      private final byte[] sortKey;
+      private final Path path;
+      private final BasicFileAttributes attributes;
+
+      private Entry(String name, Path path, BasicFileAttributes attributes) {
+        this.name = name;
+        this.sortKey = name.getBytes(StandardCharsets.UTF_8);
+        this.path = path;
+        this.attributes = attributes;
+      }
+    }
+  }
+}
@@ -15,6 +15,13 @@ public class DownloadRequest {
   private final boolean parallelDownload;
   private final boolean createParentPath;
   private final boolean checkArchived;
+  private final boolean decompress;
+
+  /**
+   * (Optional) Revalidation preconditions. When they find the object unchanged, no content is
+   * transferred and the response is flagged {@link DownloadResponse#isNotModified()}.
+   */
+  private final BlobPreconditions preconditions;
 
   /**
    * (Optional) Per-call observability context carrying the correlation ID. The correlation ID is
@@ -33,6 +40,13 @@ public class DownloadRequest {
     this.createParentPath = builder.createParentPath;
     this.operationContext = builder.operationContext;
     this.checkArchived = builder.checkArchived;
+    this.decompress = builder.decompress;
+    this.preconditions = builder.preconditions;
+  }
+
+  /** Returns true if the request carries preconditions that may skip the download. */
+  public boolean isConditional() {
+    return preconditions != null && !preconditions.isEmpty();
   }
 
   public static Builder builder() {
@@ -49,6 +63,8 @@ public class DownloadRequest {
     private boolean createParentPath;
     private OperationContext operationContext;
     private boolean checkArchived;
+    private boolean decompress;
+    private BlobPreconditions preconditions;
 
     /** Specifies the key of the Blob to download. */
     public Builder withKey(String key) {
@@ -156,6 +172,30 @@ public class DownloadRequest {
       return this;
     }
 
+    /**
+     * (Optional) If true, objects uploaded with {@link UploadRequest#getCompression()} are
+     * decompressed while they are downloaded; the codec is detected from the object's metadata
+     * and objects without it are returned unchanged. A ranged read addresses uncompressed offsets
+     * and fetches only the compressed blocks that cover it, at the cost of a metadata lookup and
+     * an index read. Disables provider-specific parallel download. Native async stores reject it.
+     * Defaults to false.
+     */
+    public Builder withDecompress(boolean decompress) {
+      this.decompress = decompress;
+      return this;
+    }
+
+    /**
+     * (Optional) Revalidation preconditions, for example the ETag of a copy the caller already
+     * holds. When the object is unchanged the download returns a response flagged {@link
+     * DownloadResponse#isNotModified()} without transferring content, and nothing is written to
+     * the destination.
+     */
+    public Builder withPreconditions(BlobPreconditions preconditions) {
+      this.preconditions = preconditions;
+      return this;
+    }
+
     public DownloadRequest build() {
       return new DownloadRequest(this);
     }
@@ -16,10 +16,27 @@ public class DownloadResponse {
   private final BlobMetadata metadata;
   private final InputStream inputStream;
 
+  /**
+   * True when the request's {@link BlobPreconditions} found the object unchanged. No content was
+   * transferred: {@link #getInputStream()} is null, nothing was written to the destination, and
+   * {@link #getMetadata()} carries only what the store reported alongside the result.
+   */
+  private final boolean notModified;
+
   // BucketClient rebuilds this response to stamp the correlationId; excluding the field from
   // equals/hashCode keeps the rebuilt copy equal to the underlying provider response (e.g. for
   // mock-based tests), and excluding it from toString avoids leaking observability metadata.
   @EqualsAndHashCode.Exclude
   @ToString.Exclude
   private final String correlationId;
+
+  /**
+   * Returns the result of a conditional download that found {@code key} unchanged.
+   *
+   * @param key the object key
+   * @param metadata whatever metadata the store reported with the result; may be null
+   */
+  public static DownloadResponse notModified(String key, BlobMetadata metadata) {
+    return DownloadResponse.builder().key(key).metadata(metadata).notModified(true).build();
+  }
 }
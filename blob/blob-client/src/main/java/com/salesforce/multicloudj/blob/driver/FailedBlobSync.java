@@ -0,0 +1,14 @@
+package com.salesforce.multicloudj.blob.driver;
+
+import java.nio.file.Path;
+import lombok.Builder;
+import lombok.Getter;
+
+/** An object representing a failed transfer or delete of a directory sync */
+@Builder
+@Getter
+public class FailedBlobSync {
+  private final String key;
+  private final Path path;
+  private final Throwable exception;
+}
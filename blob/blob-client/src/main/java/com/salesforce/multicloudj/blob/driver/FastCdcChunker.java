@@ -0,0 +1,155 @@
+package com.salesforce.multicloudj.blob.driver;
+
+import com.salesforce.multicloudj.common.exceptions.InvalidArgumentException;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.UncheckedIOException;
+import java.util.Arrays;
+import java.util.Iterator;
+import java.util.NoSuchElementException;
+import java.util.SplittableRandom;
+
+/**
+ * Splits content into variable-size chunks at content-defined boundaries with the FastCDC
+ * algorithm, so that an insertion or deletion only changes the chunks around it and the rest of
+ * the content still yields the same chunks.
+ *
+ * <p>A gear hash rolls over the bytes of a chunk, shifting left by one bit per byte, so its top
+ * bits depend on the last 64 bytes. The first {@code minSize} bytes of a chunk are skipped. Up to
+ * the average size a boundary needs the top {@code log2(average) + 1} bits to be zero, and after
+ * it only the top {@code log2(average) - 1}, which keeps chunk sizes close to the average
+ * (normalized chunking). A chunk ends at {@code maxSize} if no boundary is found first.
+ *
+ * <p>The gear table is generated from a fixed seed so that every process cuts the same content
+ * the same way.
+ */
+public final class FastCdcChunker {
+
+  private static final long[] GEAR = new long[256];
+
+  static {
+    SplittableRandom random = new SplittableRandom(0x4D434A4443444331L);
+    for (int i = 0; i < GEAR.length; i++) {
+      GEAR[i] = random.nextLong();
+    }
+  }
+
+  private final int minSize;
+  private final int averageSize;
+  private final int maxSize;
+  private final long strictMask;
+  private final long looseMask;
+
+  /**
+   * @param minSize the smallest chunk, except for the last one
+   * @param averageSize the size chunks average to, rounded to the nearest power of two
+   * @param maxSize the largest chunk
+   * @throws InvalidArgumentException unless {@code 0 < minSize <= averageSize <= maxSize}
+   */
+  public FastCdcChunker(int minSize, int averageSize, int maxSize) {
+    if (minSize <= 0 || minSize > averageSize || averageSize > maxSize) {
+      throw new InvalidArgumentException(
+          String.format(
+              "Chunk sizes must satisfy 0 < min <= average <= max. min=%d, average=%d, max=%d",
+              minSize, averageSize, maxSize));
+    }
+    int bits = Math.max(2, (int) Math.round(Math.log(averageSize) / Math.log(2)));
+    this.minSize = minSize;
+    this.averageSize = averageSize;
+    this.maxSize = maxSize;
+    this.strictMask = topBits(Math.min(63, bits + 1));
+    this.looseMask = topBits(bits - 1);
+  }
+
+  public FastCdcChunker(DedupOptions options) {
+    this(options.getMinChunkSize(), options.getAverageChunkSize(), options.getMaxChunkSize());
+  }
+
+  public int getMaxSize() {
+    return maxSize;
+  }
+
+  /**
+   * Returns the length of the chunk that starts at {@code offset}, given the {@code length} bytes
+   * available there. With fewer than {@code maxSize} bytes available and no boundary among them,
+   * all of them are returned, which is only a complete chunk at the end of the content.
+   */
+  int cut(byte[] buffer, int offset, int length) {
+    if (length <= minSize) {
+      return length;
+    }
+    int end = Math.min(length, maxSize);
+    int normal = Math.min(end, averageSize);
+    long hash = 0;
+    int i = minSize;
+    for (; i < normal; i++) {
+      hash = (hash << 1) + GEAR[buffer[offset + i] & 0xFF];
+      if ((hash & strictMask) == 0) {
+        return i + 1;
+      }
+    }
+    for (; i < end; i++) {
+      hash = (hash << 1) + GEAR[buffer[offset + i] & 0xFF];
+      if ((hash & looseMask) == 0) {
+        return i + 1;
+      }
+    }
+    return end;
+  }
+
+  /**
+   * Returns the chunks of {@code in}, read lazily; at most {@code maxSize} bytes are buffered. Read
+   * failures surface as {@link UncheckedIOException}. The stream is not closed.
+   */
+  public Iterator<byte[]> chunks(InputStream in) {
+    return new ChunkIterator(in);
+  }
+
+  private static long topBits(int bits) {
+    return bits <= 0 ? 0 : -1L << (64 - bits);
+  }
+
+  private final class ChunkIterator implements Iterator<byte[]> {
+    private final InputStream in;
+    private final byte[] buffer = new byte[maxSize];
+    private int filled;
+    private boolean eof;
+
+    private ChunkIterator(InputStream in) {
+      this.in = in;
+    }
+
+    @Override
+    public boolean hasNext() {
+      fill();
+      return filled > 0;
+    }
+
+    @Override
+    public byte[] next() {
+      if (!hasNext()) {
+        throw new NoSuchElementException();
+      }
+      int length = cut(buffer, 0, filled);
+      byte[] chunk = Arrays.copyOf(buffer, length);
+      System.arraycopy(buffer, length, buffer, 0, filled - length);
+      filled -= length;
+      return chunk;
+    }
+
+    private void fill() {
+      try {
+        while (!eof && filled < buffer.length) {
+          int read = in.read(buffer, filled, buffer.length - filled);
+          if (read < 0) {
+            eof = true;
+          } else {
+            filled += read;
+          }
+        }
+      } catch (IOException e) {
+        throw new UncheckedIOException(e);
+      }
+    }
+  }
+}
@@ -0,0 +1,38 @@
+package com.salesforce.multicloudj.blob.driver;
+
+import java.util.Comparator;
+
+/**
+ * The order S3, GCS and OSS list keys in: by the unsigned bytes of their UTF-8 encoding, which is
+ * code point order. It differs from {@link String#compareTo(String)}, which compares UTF-16 code
+ * units, for keys that mix characters above U+FFFF with characters from U+E000 to U+FFFF. Key
+ * bounds, range splits and merges of listings must all compare with it to agree with the stores.
+ */
+public final class KeyOrder {
+
+  /** Compares keys with {@link #compare(String, String)}. */
+  public static final Comparator<String> UTF8 = KeyOrder::compare;
+
+  private KeyOrder() {}
+
+  /**
+   * Compares two keys in UTF-8 byte order without encoding them. Up to the first differing code
+   * unit the orders agree; there a surrogate, which belongs to a character above U+FFFF, sorts
+   * after any other code unit.
+   */
+  public static int compare(String left, String right) {
+    int length = Math.min(left.length(), right.length());
+    for (int i = 0; i < length; i++) {
+      char a = left.charAt(i);
+      char b = right.charAt(i);
+      if (a != b) {
+        boolean surrogateA = Character.isSurrogate(a);
+        if (surrogateA != Character.isSurrogate(b)) {
+          return surrogateA ? 1 : -1;
+        }
+        return a - b;
+      }
+    }
+    return left.length() - right.length();
+  }
+}
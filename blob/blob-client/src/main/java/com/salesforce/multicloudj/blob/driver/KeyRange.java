@@ -0,0 +1,35 @@
+package com.salesforce.multicloudj.blob.driver;
+
+import lombok.EqualsAndHashCode;
+import lombok.Getter;
+import lombok.ToString;
+
+/**
+ * A range of keys {@code (startAfter, endBefore)}, both bounds exclusive and either one open when
+ * null. Pass the bounds to {@link ListBlobsPageRequest.Builder#withStartAfter(String)} and {@link
+ * ListBlobsPageRequest.Builder#withEndBefore(String)} to list the keys in the range.
+ */
+@Getter
+@EqualsAndHashCode
+@ToString
+public class KeyRange {
+
+  private final String startAfter;
+  private final String endBefore;
+
+  private KeyRange(String startAfter, String endBefore) {
+    this.startAfter = startAfter;
+    this.endBefore = endBefore;
+  }
+
+  /** Creates the range of keys after {@code startAfter} and before {@code endBefore}. */
+  public static KeyRange of(String startAfter, String endBefore) {
+    return new KeyRange(startAfter, endBefore);
+  }
+
+  /** Returns whether {@code key} lies within this range. */
+  public boolean contains(String key) {
+    return (startAfter == null || KeyOrder.compare(key, startAfter) > 0)
+        && (endBefore == null || KeyOrder.compare(key, endBefore) < 0);
+  }
+}
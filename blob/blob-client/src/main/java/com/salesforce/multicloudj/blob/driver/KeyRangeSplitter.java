@@ -0,0 +1,292 @@
+package com.salesforce.multicloudj.blob.driver;
+
+import java.math.BigInteger;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.function.Function;
+
+/**
+ * Splits the keys under a prefix into contiguous {@link KeyRange}s holding roughly as many keys
+ * each, so that a bucket can be scanned by several listers at once. Shared by the stores through
+ * {@link AbstractBlobStore#splitKeyRange(String, int)}.
+ *
+ * <p>A prefix whose keys fit in one page is split exactly. Larger prefixes are sampled with at most
+ * {@code probes} further pages. The key space after the first key is kept as a list of segments,
+ * each with the page listed from its start; a page that reaches the next segment counts its segment
+ * exactly, and otherwise the count is extrapolated from the page's key density. Each probe splits
+ * the unlisted part of the segment with the largest extrapolated count and lists a page from the
+ * split point, so probes concentrate where keys are dense and skewed prefixes such as
+ * date-partitioned ones still split evenly to within the sampling error. Boundaries are placed at
+ * the count quantiles, on a sampled key where one is known and on an interpolated key otherwise.
+ *
+ * <p>Key positions are read from the first {@value #DIGITS} characters after the prefix as base-95
+ * digits of printable ASCII. Ranges cover the prefix without gaps or overlaps whatever the
+ * estimate: boundary {@code b} ends one range with {@code endBefore = b + "\0"}, the first key
+ * after {@code b}, and starts the next with {@code startAfter = b}. Fewer ranges than requested are
+ * returned when the prefix holds too few distinct keys.
+ */
+public final class KeyRangeSplitter {
+
+  /** Pages listed, beyond the first, to sample a prefix that does not fit in one page. */
+  public static final int DEFAULT_PROBES = 64;
+
+  /** Keys per listed page. */
+  public static final int DEFAULT_PAGE_SIZE = 1000;
+
+  /** Leading characters after the prefix that make up a key's position. */
+  static final int DIGITS = 32;
+
+  private static final int RADIX = 95;
+  private static final char FIRST_CHAR = ' ';
+  private static final BigInteger BIG_RADIX = BigInteger.valueOf(RADIX);
+  private static final BigInteger SPACE = BIG_RADIX.pow(DIGITS);
+  private static final int FRACTION_BITS = 30;
+
+  private final Function<ListBlobsPageRequest, ListBlobsPageResponse> lister;
+  private final int probes;
+  private final int pageSize;
+
+  /**
+   * @param lister lists one page of keys; honours prefix, start bound and maximum results
+   */
+  public KeyRangeSplitter(Function<ListBlobsPageRequest, ListBlobsPageResponse> lister) {
+    this(lister, DEFAULT_PROBES, DEFAULT_PAGE_SIZE);
+  }
+
+  KeyRangeSplitter(
+      Function<ListBlobsPageRequest, ListBlobsPageResponse> lister, int probes, int pageSize) {
+    this.lister = lister;
+    this.probes = Math.max(0, probes);
+    this.pageSize = Math.max(1, pageSize);
+  }
+
+  /**
+   * Splits the keys under {@code prefix} into at most {@code ranges} ranges, in key order. The
+   * first range has no start bound and the last no end bound.
+   *
+   * @param prefix the prefix to split, or null for the whole bucket
+   * @param ranges the number of ranges wanted
+   */
+  public List<KeyRange> split(String prefix, int ranges) {
+    String base = prefix == null ? "" : prefix;
+    ListBlobsPageResponse firstPage = list(prefix, null);
+    List<String> first = keys(firstPage);
+    if (ranges <= 1 || first.isEmpty()) {
+      return List.of(KeyRange.of(null, null));
+    }
+    List<String> boundaries = new ArrayList<>();
+    if (!firstPage.isTruncated()) {
+      for (int i = 1; i < ranges; i++) {
+        int rank = (int) ((long) i * first.size() / ranges);
+        addBoundary(boundaries, rank > 0 ? first.get(rank - 1) : null);
+      }
+      return toRanges(boundaries);
+    }
+
+    List<Segment> segments = new ArrayList<>();
+    segments.add(Segment.of(base, position(base, first.get(0)), SPACE, first, false));
+    for (int probe = 0; probe < probes; probe++) {
+      int widest = -1;
+      for (int i = 0; i < segments.size(); i++) {
+        Segment segment = segments.get(i);
+        if (segment.divisible() && (widest < 0 || segment.count > segments.get(widest).count)) {
+          widest = i;
+        }
+      }
+      if (widest < 0) {
+        break;
+      }
+      Segment segment = segments.get(widest);
+      BigInteger mid = segment.probePoint();
+      ListBlobsPageResponse page = list(prefix, key(base, mid));
+      segments.set(widest, Segment.of(base, segment.start, mid, segment.keys, segment.complete));
+      segments.add(
+          widest + 1, Segment.of(base, mid, segment.end, keys(page), !page.isTruncated()));
+    }
+
+    double total = 0;
+    for (Segment segment : segments) {
+      total += segment.count;
+    }
+    int index = 0;
+    double before = 0;
+    for (int i = 1; i < ranges; i++) {
+      double target = total * i / ranges;
+      while (index < segments.size() - 1 && before + segments.get(index).count < target) {
+        before += segments.get(index++).count;
+      }
+      addBoundary(boundaries, segments.get(index).keyAtRank(base, target - before));
+    }
+    return toRanges(boundaries);
+  }
+
+  /**
+   * A stretch {@code [start, end)} of key positions with the keys listed from its start, the first
+   * at {@code first} and the last at {@code last}. Unless {@code complete}, keys past the last
+   * listed one were not listed and {@code count} is estimated from the density of the listed keys.
+   */
+  private static final class Segment {
+    private final BigInteger start;
+    private final BigInteger end;
+    private final List<String> keys;
+    private final BigInteger first;
+    private final BigInteger last;
+    private final boolean complete;
+    private final double count;
+
+    private Segment(
+        BigInteger start,
+        BigInteger end,
+        List<String> keys,
+        BigInteger first,
+        BigInteger last,
+        boolean complete) {
+      this.start = start;
+      this.end = end;
+      this.keys = keys;
+      this.first = first;
+      this.last = last;
+      this.complete = complete;
+      if (complete || keys.isEmpty()) {
+        this.count = keys.size();
+      } else {
+        // Measured from the first key, not the start: a page listed from a point in a gap between
+        // clusters would otherwise count the gap as sparse keys.
+        double covered = unlisted().subtract(first).doubleValue();
+        double unlisted = end.subtract(unlisted()).doubleValue();
+        this.count = keys.size() + keys.size() * unlisted / covered;
+      }
+    }
+
+    /**
+     * Builds the segment from a page listed from {@code start}, dropping keys at or past {@code
+     * end}. The segment is complete if the page was the last one or reached {@code end}.
+     */
+    private static Segment of(
+        String base, BigInteger start, BigInteger end, List<String> page, boolean lastPage) {
+      String endKey = end.compareTo(SPACE) >= 0 ? null : key(base, end);
+      List<String> keys = new ArrayList<>(page.size());
+      boolean complete = lastPage;
+      for (String key : page) {
+        if (endKey != null && KeyOrder.compare(key, endKey) >= 0) {
+          complete = true;
+          break;
+        }
+        keys.add(key);
+      }
+      BigInteger first = start;
+      BigInteger last = start;
+      if (!keys.isEmpty()) {
+        BigInteger max = end.subtract(BigInteger.ONE);
+        first = position(base, keys.get(0)).max(start).min(max);
+        last = position(base, keys.get(keys.size() - 1)).max(first).min(max);
+      }
+      return new Segment(start, end, keys, first, last, complete);
+    }
+
+    /** Whether the unlisted part of the segment can be bisected further. */
+    private boolean divisible() {
+      return !complete && end.subtract(unlisted()).compareTo(BigInteger.ONE) > 0;
+    }
+
+    /**
+     * Returns where to list the next page of this segment: past the listed keys by the geometric
+     * mean of their width and the unlisted width, or halfway through the unlisted part if that is
+     * nearer. On evenly spread keys this bisects; past a dense cluster it closes in on the end of
+     * the cluster in a few probes where bisection would take one per halving.
+     */
+    private BigInteger probePoint() {
+      BigInteger from = unlisted();
+      BigInteger remaining = end.subtract(from);
+      BigInteger covered = from.subtract(first);
+      BigInteger step = covered.multiply(remaining).sqrt().min(remaining.shiftRight(1));
+      return from.add(step.max(BigInteger.ONE));
+    }
+
+    /** The first position not covered by the listed keys. */
+    private BigInteger unlisted() {
+      return keys.isEmpty() ? start : last.add(BigInteger.ONE);
+    }
+
+    /** Returns the key at 1-based {@code rank} within the segment, listed or interpolated. */
+    private String keyAtRank(String base, double rank) {
+      if (rank <= keys.size()) {
+        int index = (int) Math.ceil(rank) - 1;
+        return index >= 0 ? keys.get(index) : null;
+      }
+      double fraction = Math.min(1, (rank - keys.size()) / Math.max(1, count - keys.size()));
+      BigInteger from = unlisted();
+      BigInteger offset =
+          end.subtract(from)
+              .multiply(BigInteger.valueOf((long) (fraction * (1L << FRACTION_BITS))))
+              .shiftRight(FRACTION_BITS);
+      return key(base, from.add(offset));
+    }
+  }
+
+  private ListBlobsPageResponse list(String prefix, String startAfter) {
+    ListBlobsPageRequest.Builder builder =
+        ListBlobsPageRequest.builder().withPrefix(prefix).withMaxResults(pageSize);
+    if (startAfter != null && !startAfter.isEmpty()) {
+      builder.withStartAfter(startAfter);
+    }
+    return lister.apply(builder.build());
+  }
+
+  private static List<String> keys(ListBlobsPageResponse page) {
+    List<String> keys = new ArrayList<>(page.getBlobs().size());
+    for (BlobInfo blob : page.getBlobs()) {
+      keys.add(blob.getKey());
+    }
+    return keys;
+  }
+
+  private static void addBoundary(List<String> boundaries, String boundary) {
+    if (boundary == null) {
+      return;
+    }
+    if (boundaries.isEmpty()
+        || KeyOrder.compare(boundary, boundaries.get(boundaries.size() - 1)) > 0) {
+      boundaries.add(boundary);
+    }
+  }
+
+  private static List<KeyRange> toRanges(List<String> boundaries) {
+    List<KeyRange> ranges = new ArrayList<>(boundaries.size() + 1);
+    String startAfter = null;
+    for (String boundary : boundaries) {
+      ranges.add(KeyRange.of(startAfter, boundary + '\0'));
+      startAfter = boundary;
+    }
+    ranges.add(KeyRange.of(startAfter, null));
+    return ranges;
+  }
+
+  /** Reads the characters after {@code base} as base-95 digits, padding short keys with zeros. */
+  static BigInteger position(String base, String key) {
+    BigInteger position = BigInteger.ZERO;
+    for (int i = 0; i < DIGITS; i++) {
+      int index = base.length() + i;
+      int digit = index < key.length() ? key.charAt(index) - FIRST_CHAR : 0;
+      digit = Math.max(0, Math.min(RADIX - 1, digit));
+      position = position.multiply(BIG_RADIX).add(BigInteger.valueOf(digit));
+    }
+    return position;
+  }
+
+  /** Returns the shortest key under {@code base} whose position is {@code position}. */
+  static String key(String base, BigInteger position) {
+    char[] digits = new char[DIGITS];
+    BigInteger rest = position.max(BigInteger.ZERO).min(SPACE.subtract(BigInteger.ONE));
+    for (int i = DIGITS - 1; i >= 0; i--) {
+      BigInteger[] divided = rest.divideAndRemainder(BIG_RADIX);
+      digits[i] = (char) (FIRST_CHAR + divided[1].intValue());
+      rest = divided[0];
+    }
+    int length = DIGITS;
+    while (length > 0 && digits[length - 1] == FIRST_CHAR) {
+      length--;
+    }
+    return base + new String(digits, 0, length);
+  }
+}
@@ -1,6 +1,8 @@
 package com.salesforce.multicloudj.blob.driver;
 
 import com.salesforce.multicloudj.common.observability.OperationContext;
+import java.util.List;
+import java.util.stream.Collectors;
 import lombok.Getter;
 
 /** Request object for paginated list operations */
@@ -12,6 +14,15 @@ public class ListBlobsPageRequest {
   private final String paginationToken;
   private final Integer maxResults;
 
+  /**
+   * (Optional parameter) Lists only keys after this one, which is itself excluded. Ignored by
+   * substrates once a pagination token is given, since the token already resumes past it.
+   */
+  private final String startAfter;
+
+  /** (Optional parameter) Lists only keys before this one, which is itself excluded. */
+  private final String endBefore;
+
   /**
    * (Optional parameter) Per-call observability context carrying the correlation ID. The
    * correlation ID is never auto-generated; when it is null or missing it defaults to an empty
@@ -24,9 +35,35 @@ public class ListBlobsPageRequest {
     this.delimiter = builder.delimiter;
     this.paginationToken = builder.paginationToken;
     this.maxResults = builder.maxResults;
+    this.startAfter = builder.startAfter;
+    this.endBefore = builder.endBefore;
     this.operationContext = builder.operationContext;
   }
 
+  /**
+   * Drops the blobs and common prefixes at or past {@link #getEndBefore()} from {@code page}, for
+   * substrates that list in key order but cannot bound a listing at its end. A page that reached
+   * the bound is the last one.
+   */
+  public ListBlobsPageResponse trimToEndBefore(ListBlobsPageResponse page) {
+    if (endBefore == null) {
+      return page;
+    }
+    List<BlobInfo> blobs =
+        page.getBlobs().stream()
+            .filter(blob -> KeyOrder.compare(blob.getKey(), endBefore) < 0)
+            .collect(Collectors.toList());
+    List<String> commonPrefixes =
+        page.getCommonPrefixes().stream()
+            .filter(prefix -> KeyOrder.compare(prefix, endBefore) < 0)
+            .collect(Collectors.toList());
+    if (blobs.size() == page.getBlobs().size()
+        && commonPrefixes.size() == page.getCommonPrefixes().size()) {
+      return page;
+    }
+    return new ListBlobsPageResponse(blobs, commonPrefixes, false, null);
+  }
+
   public static Builder builder() {
     return new Builder();
   }
@@ -36,6 +73,8 @@ public class ListBlobsPageRequest {
     private String delimiter;
     private String paginationToken;
     private Integer maxResults;
+    private String startAfter;
+    private String endBefore;
     private OperationContext operationContext;
 
     public Builder withPrefix(String prefix) {
@@ -58,6 +97,23 @@ public class ListBlobsPageRequest {
       return this;
     }
 
+    public Builder withStartAfter(String startAfter) {
+      this.startAfter = startAfter;
+      return this;
+    }
+
+    public Builder withEndBefore(String endBefore) {
+      this.endBefore = endBefore;
+      return this;
+    }
+
+    /** Bounds the listing to the keys of {@code range}. */
+    public Builder withKeyRange(KeyRange range) {
+      this.startAfter = range.getStartAfter();
+      this.endBefore = range.getEndBefore();
+      return this;
+    }
+
     /**
      * Sets the per-call observability context carrying the correlation ID. The correlation ID is
      * never auto-generated; if not set (or if the context's correlation ID is null/empty) it
@@ -0,0 +1,157 @@
+package com.salesforce.multicloudj.blob.driver;
+
+import java.util.Iterator;
+import java.util.NoSuchElementException;
+import java.util.Objects;
+
+/**
+ * Compares two listings in one streaming pass, for example two {@link ListingSnapshot}s of the same
+ * prefix taken a day apart, or a snapshot and the live {@link BlobStore#list} of the prefix. Both
+ * listings must be in ascending key order by UTF-8 bytes, which is how snapshots are stored and
+ * how the substrates list; only the current blob of each side is held in memory.
+ *
+ * <p>A key listed on both sides is {@link Type#CHANGED} if its size or last-modified time differ,
+ * or if its entity tag or version differ where both sides report one.
+ */
+public final class ListingDiff {
+
+  /** How a key differs between the two listings. */
+  public enum Type {
+    /** Listed only in the later listing. */
+    ADDED,
+    /** Listed only in the earlier listing. */
+    REMOVED,
+    /** Listed in both, with different attributes. */
+    CHANGED
+  }
+
+  /** One differing key, with the blob as each listing reported it. */
+  public static final class Change {
+    private final Type type;
+    private final BlobInfo before;
+    private final BlobInfo after;
+
+    Change(Type type, BlobInfo before, BlobInfo after) {
+      this.type = type;
+      this.before = before;
+      this.after = after;
+    }
+
+    public Type getType() {
+      return type;
+    }
+
+    public String getKey() {
+      return after != null ? after.getKey() : before.getKey();
+    }
+
+    /** Returns the blob in the earlier listing, or null if it was {@link Type#ADDED}. */
+    public BlobInfo getBefore() {
+      return before;
+    }
+
+    /** Returns the blob in the later listing, or null if it was {@link Type#REMOVED}. */
+    public BlobInfo getAfter() {
+      return after;
+    }
+
+    @Override
+    public String toString() {
+      return type + " " + getKey();
+    }
+  }
+
+  private ListingDiff() {}
+
+  /**
+   * Returns the keys that differ between {@code before} and {@code after}, in key order. The
+   * listings are consumed as the result is iterated.
+   *
+   * @throws IllegalStateException from the result's iterator if a listing is out of key order
+   */
+  public static Iterator<Change> diff(Iterator<BlobInfo> before, Iterator<BlobInfo> after) {
+    return new Merge(before, after);
+  }
+
+  /** Whether a key listed on both sides has changed. */
+  static boolean changed(BlobInfo before, BlobInfo after) {
+    return before.getObjectSize() != after.getObjectSize()
+        || !Objects.equals(before.getLastModified(), after.getLastModified())
+        || differ(before.getETag(), after.getETag())
+        || differ(before.getVersionId(), after.getVersionId());
+  }
+
+  private static boolean differ(String before, String after) {
+    return before != null && after != null && !before.equals(after);
+  }
+
+  private static final class Merge implements Iterator<Change> {
+    private final Side before;
+    private final Side after;
+    private Change next;
+
+    private Merge(Iterator<BlobInfo> before, Iterator<BlobInfo> after) {
+      this.before = new Side(before, "earlier");
+      this.after = new Side(after, "later");
+    }
+
+    @Override
+    public boolean hasNext() {
+      while (next == null && (before.head != null || after.head != null)) {
+        int order;
+        if (before.head == null) {
+          order = 1;
+        } else if (after.head == null) {
+          order = -1;
+        } else {
+          order = KeyOrder.compare(before.head.getKey(), after.head.getKey());
+        }
+        if (order < 0) {
+          next = new Change(Type.REMOVED, before.take(), null);
+        } else if (order > 0) {
+          next = new Change(Type.ADDED, null, after.take());
+        } else {
+          BlobInfo earlier = before.take();
+          BlobInfo later = after.take();
+          if (changed(earlier, later)) {
+            next = new Change(Type.CHANGED, earlier, later);
+          }
+        }
+      }
+      return next != null;
+    }
+
+    @Override
+    public Change next() {
+      if (!hasNext()) {
+        throw new NoSuchElementException();
+      }
+      Change change = next;
+      next = null;
+      return change;
+    }
+  }
+
+  /** One listing with its current blob, checked to be in key order as it advances. */
+  private static final class Side {
+    private final Iterator<BlobInfo> listing;
+    private final String name;
+    private BlobInfo head;
+
+    private Side(Iterator<BlobInfo> listing, String name) {
+      this.listing = listing;
+      this.name = name;
+      this.head = listing.hasNext() ? listing.next() : null;
+    }
+
+    private BlobInfo take() {
+      BlobInfo taken = head;
+      head = listing.hasNext() ? listing.next() : null;
+      if (head != null && KeyOrder.compare(taken.getKey(), head.getKey()) >= 0) {
+        throw new IllegalStateException(
+            "The " + name + " listing is not in ascending key order at key: " + head.getKey());
+      }
+      return taken;
+    }
+  }
+}
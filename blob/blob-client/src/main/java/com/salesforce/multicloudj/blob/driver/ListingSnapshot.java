@@ -0,0 +1,503 @@
+package com.salesforce.multicloudj.blob.driver;
+
+import com.salesforce.multicloudj.common.exceptions.InvalidArgumentException;
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.EOFException;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Iterator;
+import java.util.List;
+import java.util.NoSuchElementException;
+import java.util.zip.CRC32;
+import java.util.zip.Deflater;
+
+/**
+ * A bucket or prefix listing saved to a local file, sorted by key, so that listings of hundreds of
+ * millions of objects can be kept and compared with {@link ListingDiff} in constant memory.
+ *
+ * <pre>
+ * header : magic "MCJS" (4) | version (1) | codec id (1) | reserved (2)
+ * block  : compressed length (4) | uncompressed length (4) | entries (4) | CRC32 (4) | bytes
+ *          ... repeated, terminated by a block header with compressed length -1
+ * index  : (first key length (4) | first key | block offset (8)) per block
+ * footer : index offset (8) | blocks (4) | entries (8) | magic "MCJT" (4)
+ * </pre>
+ *
+ * <p>Blocks hold about {@value #DEFAULT_BLOCK_SIZE} bytes of entries before compression. Within a
+ * block each key is stored as the length it shares with the previous key and the remaining bytes;
+ * the first key of every block is stored whole, so any block decodes on its own. Entries carry the
+ * size, last-modified time, entity tag and version of the listed object. The sparse index of first
+ * keys is read only by {@link #read(String)}; a full scan streams the blocks front to back.
+ *
+ * <p>Keys are ordered by their UTF-8 bytes, the order S3, GCS and OSS list in, so a listing can be
+ * written as it is read: {@code ListingSnapshot.write(file, bucketClient.list(request))}.
+ */
+public final class ListingSnapshot {
+
+  /** Uncompressed bytes of entries per block. */
+  public static final int DEFAULT_BLOCK_SIZE = 64 * 1024;
+
+  static final int MAGIC = 0x4D434A53;
+  static final int FOOTER_MAGIC = 0x4D434A54;
+  static final int VERSION = 1;
+  static final int HEADER_SIZE = 8;
+  static final int BLOCK_HEADER_SIZE = 16;
+  static final int FOOTER_SIZE = 24;
+  static final int END_OF_BLOCKS = -1;
+
+  private static final int HAS_LAST_MODIFIED = 1;
+  private static final int HAS_ETAG = 2;
+  private static final int HAS_VERSION_ID = 4;
+
+  private final Path file;
+  private final CompressionCodec codec;
+  private final long indexOffset;
+  private final int blocks;
+  private final long entries;
+  private volatile SparseIndex index;
+
+  private ListingSnapshot(
+      Path file, CompressionCodec codec, long indexOffset, int blocks, long entries) {
+    this.file = file;
+    this.codec = codec;
+    this.indexOffset = indexOffset;
+    this.blocks = blocks;
+    this.entries = entries;
+  }
+
+  /**
+   * Writes {@code listing} to {@code file}, replacing it, with {@link CompressionCodec#DEFLATE}.
+   *
+   * @param listing blobs in ascending key order, as {@link BlobStore#list} returns them
+   * @throws InvalidArgumentException if the listing is not in ascending key order
+   */
+  public static ListingSnapshot write(Path file, Iterator<BlobInfo> listing) throws IOException {
+    try (Writer writer = new Writer(file, CompressionCodec.DEFLATE, DEFAULT_BLOCK_SIZE)) {
+      while (listing.hasNext()) {
+        writer.add(listing.next());
+      }
+      writer.commit();
+    }
+    return open(file);
+  }
+
+  /** Opens a snapshot written by {@link #write} or a {@link Writer}. */
+  public static ListingSnapshot open(Path file) throws IOException {
+    try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ)) {
+      long length = channel.size();
+      if (length < HEADER_SIZE + FOOTER_SIZE) {
+        throw new IllegalStateException("Not a listing snapshot: " + file);
+      }
+      ByteBuffer header = readAt(channel, 0, HEADER_SIZE);
+      if (header.getInt() != MAGIC) {
+        throw new IllegalStateException("Not a listing snapshot: " + file);
+      }
+      int version = header.get();
+      if (version != VERSION) {
+        throw new IllegalStateException("Unsupported listing snapshot version: " + version);
+      }
+      CompressionCodec codec = CompressionCodec.fromId(header.get());
+      ByteBuffer footer = readAt(channel, length - FOOTER_SIZE, FOOTER_SIZE);
+      long indexOffset = footer.getLong();
+      int blocks = footer.getInt();
+      long entries = footer.getLong();
+      if (footer.getInt() != FOOTER_MAGIC) {
+        throw new IllegalStateException("Listing snapshot is truncated or corrupt: " + file);
+      }
+      return new ListingSnapshot(file, codec, indexOffset, blocks, entries);
+    }
+  }
+
+  public Path getFile() {
+    return file;
+  }
+
+  /** Returns the number of listed blobs. */
+  public long size() {
+    return entries;
+  }
+
+  /** Returns a cursor over every blob, in key order. Close it when done. */
+  public Cursor read() throws IOException {
+    return new Cursor(HEADER_SIZE, null);
+  }
+
+  /**
+   * Returns a cursor over the blobs whose keys sort after {@code startAfter}, in key order. Only
+   * the sparse index and the block holding {@code startAfter} are read to find the first one.
+   */
+  public Cursor read(String startAfter) throws IOException {
+    if (startAfter == null) {
+      return read();
+    }
+    byte[] after = utf8(startAfter);
+    SparseIndex sparse = index();
+    int low = 0;
+    int high = sparse.firstKeys.size() - 1;
+    int block = 0;
+    while (low <= high) {
+      int mid = (low + high) >>> 1;
+      if (Arrays.compareUnsigned(sparse.firstKeys.get(mid), after) <= 0) {
+        block = mid;
+        low = mid + 1;
+      } else {
+        high = mid - 1;
+      }
+    }
+    long offset = sparse.firstKeys.isEmpty() ? HEADER_SIZE : sparse.offsets[block];
+    return new Cursor(offset, after);
+  }
+
+  private SparseIndex index() throws IOException {
+    SparseIndex loaded = index;
+    if (loaded == null) {
+      synchronized (this) {
+        loaded = index;
+        if (loaded == null) {
+          loaded = readIndex();
+          index = loaded;
+        }
+      }
+    }
+    return loaded;
+  }
+
+  private SparseIndex readIndex() throws IOException {
+    List<byte[]> firstKeys = new ArrayList<>(blocks);
+    long[] offsets = new long[blocks];
+    try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ)) {
+      channel.position(indexOffset);
+      DataInputStream in =
+          new DataInputStream(new BufferedInputStream(Channels.newInputStream(channel)));
+      for (int i = 0; i < blocks; i++) {
+        byte[] key = new byte[in.readInt()];
+        in.readFully(key);
+        firstKeys.add(key);
+        offsets[i] = in.readLong();
+      }
+    }
+    return new SparseIndex(firstKeys, offsets);
+  }
+
+  private static byte[] utf8(String value) {
+    return value.getBytes(StandardCharsets.UTF_8);
+  }
+
+  private static ByteBuffer readAt(FileChannel channel, long position, int length)
+      throws IOException {
+    ByteBuffer buffer = ByteBuffer.allocate(length);
+    while (buffer.hasRemaining()) {
+      if (channel.read(buffer, position + buffer.position()) < 0) {
+        throw new EOFException("Unexpected end of listing snapshot");
+      }
+    }
+    return buffer.flip();
+  }
+
+  private static final class SparseIndex {
+    private final List<byte[]> firstKeys;
+    private final long[] offsets;
+
+    private SparseIndex(List<byte[]> firstKeys, long[] offsets) {
+      this.firstKeys = firstKeys;
+      this.offsets = offsets;
+    }
+  }
+
+  /**
+   * Writes a snapshot entry by entry. The file appears under its name only on {@link #commit()};
+   * until then entries go to a temporary file beside it, which {@link #close()} removes if the
+   * snapshot was not committed.
+   */
+  public static final class Writer implements AutoCloseable {
+    private final Path file;
+    private final Path temp;
+    private final CompressionCodec codec;
+    private final int blockSize;
+    private final DataOutputStream out;
+    private final ByteArrayOutputStream indexBytes = new ByteArrayOutputStream();
+    private final DataOutputStream index = new DataOutputStream(indexBytes);
+    private final ByteArrayOutputStream block = new ByteArrayOutputStream();
+    private long offset = HEADER_SIZE;
+    private int blocks;
+    private int blockEntries;
+    private long entries;
+    private byte[] previousKey;
+    private boolean committed;
+    private boolean closed;
+
+    /**
+     * @param file where the snapshot is written
+     * @param codec compresses each block
+     * @param blockSize uncompressed bytes of entries per block
+     */
+    public Writer(Path file, CompressionCodec codec, int blockSize) throws IOException {
+      this.file = file;
+      this.codec = codec;
+      this.blockSize = Math.max(1, blockSize);
+      Path parent = file.toAbsolutePath().getParent();
+      this.temp = Files.createTempFile(parent, file.getFileName().toString(), ".tmp");
+      this.out = new DataOutputStream(new BufferedOutputStream(Files.newOutputStream(temp)));
+      out.writeInt(MAGIC);
+      out.writeByte(VERSION);
+      out.writeByte(codec.getId());
+      out.writeShort(0);
+    }
+
+    /**
+     * Appends a blob.
+     *
+     * @throws InvalidArgumentException if its key does not sort after the previous one
+     */
+    public void add(BlobInfo blob) throws IOException {
+      byte[] key = utf8(blob.getKey());
+      if (previousKey != null && Arrays.compareUnsigned(key, previousKey) <= 0) {
+        throw new InvalidArgumentException(
+            "Listing is not in ascending key order at key: " + blob.getKey());
+      }
+      int shared = 0;
+      if (blockEntries == 0) {
+        index.writeInt(key.length);
+        index.write(key);
+        index.writeLong(offset);
+      } else {
+        int max = Math.min(key.length, previousKey.length);
+        while (shared < max && key[shared] == previousKey[shared]) {
+          shared++;
+        }
+      }
+      writeVarLong(block, shared);
+      writeVarLong(block, key.length - shared);
+      block.write(key, shared, key.length - shared);
+      writeVarLong(block, blob.getObjectSize());
+      int flags = (blob.getLastModified() != null ? HAS_LAST_MODIFIED : 0)
+          | (blob.getETag() != null ? HAS_ETAG : 0)
+          | (blob.getVersionId() != null ? HAS_VERSION_ID : 0);
+      block.write(flags);
+      if (blob.getLastModified() != null) {
+        long seconds = blob.getLastModified().getEpochSecond();
+        writeVarLong(block, (seconds << 1) ^ (seconds >> 63));
+        writeVarLong(block, blob.getLastModified().getNano());
+      }
+      if (blob.getETag() != null) {
+        writeString(block, blob.getETag());
+      }
+      if (blob.getVersionId() != null) {
+        writeString(block, blob.getVersionId());
+      }
+      previousKey = key;
+      blockEntries++;
+      entries++;
+      if (block.size() >= blockSize) {
+        flushBlock();
+      }
+    }
+
+    /** Finishes the snapshot and moves it under its name, replacing any file already there. */
+    public void commit() throws IOException {
+      if (closed) {
+        throw new IllegalStateException("Snapshot writer is closed");
+      }
+      flushBlock();
+      out.writeInt(END_OF_BLOCKS);
+      out.writeInt(0);
+      out.writeInt(0);
+      out.writeInt(0);
+      long indexOffset = offset + BLOCK_HEADER_SIZE;
+      indexBytes.writeTo(out);
+      out.writeLong(indexOffset);
+      out.writeInt(blocks);
+      out.writeLong(entries);
+      out.writeInt(FOOTER_MAGIC);
+      out.close();
+      closed = true;
+      Files.move(
+          temp, file, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+      committed = true;
+    }
+
+    @Override
+    public void close() throws IOException {
+      if (!closed) {
+        closed = true;
+        out.close();
+      }
+      if (!committed) {
+        Files.deleteIfExists(temp);
+      }
+    }
+
+    private void flushBlock() throws IOException {
+      if (blockEntries == 0) {
+        return;
+      }
+      byte[] raw = block.toByteArray();
+      byte[] compressed = codec.compress(raw, 0, raw.length, Deflater.DEFAULT_COMPRESSION);
+      CRC32 crc = new CRC32();
+      crc.update(compressed);
+      out.writeInt(compressed.length);
+      out.writeInt(raw.length);
+      out.writeInt(blockEntries);
+      out.writeInt((int) crc.getValue());
+      out.write(compressed);
+      offset += BLOCK_HEADER_SIZE + compressed.length;
+      blocks++;
+      blockEntries = 0;
+      block.reset();
+    }
+
+    private static void writeString(ByteArrayOutputStream out, String value) {
+      byte[] bytes = utf8(value);
+      writeVarLong(out, bytes.length);
+      out.write(bytes, 0, bytes.length);
+    }
+
+    private static void writeVarLong(ByteArrayOutputStream out, long value) {
+      while ((value & ~0x7FL) != 0) {
+        out.write((int) ((value & 0x7F) | 0x80));
+        value >>>= 7;
+      }
+      out.write((int) value);
+    }
+  }
+
+  /**
+   * Streams the blobs of a snapshot in key order, decoding one block at a time. I/O failures
+   * surface from {@link #hasNext()} and {@link #next()} as {@link UncheckedIOException}.
+   */
+  public final class Cursor implements Iterator<BlobInfo>, AutoCloseable {
+    private final DataInputStream in;
+    private final byte[] startAfter;
+    private ByteBuffer block;
+    private int remaining;
+    private byte[] key = new byte[0];
+    private BlobInfo next;
+    private boolean done;
+
+    private Cursor(long offset, byte[] startAfter) throws IOException {
+      FileChannel channel = FileChannel.open(file, StandardOpenOption.READ);
+      channel.position(offset);
+      this.in =
+          new DataInputStream(new BufferedInputStream(Channels.newInputStream(channel), 1 << 16));
+      this.startAfter = startAfter;
+    }
+
+    @Override
+    public boolean hasNext() {
+      if (next != null) {
+        return true;
+      }
+      try {
+        while (!done) {
+          BlobInfo blob = decode();
+          if (blob == null) {
+            done = true;
+          } else if (startAfter == null || Arrays.compareUnsigned(key, startAfter) > 0) {
+            next = blob;
+            return true;
+          }
+        }
+        return false;
+      } catch (IOException e) {
+        throw new UncheckedIOException(e);
+      }
+    }
+
+    @Override
+    public BlobInfo next() {
+      if (!hasNext()) {
+        throw new NoSuchElementException();
+      }
+      BlobInfo blob = next;
+      next = null;
+      return blob;
+    }
+
+    @Override
+    public void close() throws IOException {
+      in.close();
+    }
+
+    private BlobInfo decode() throws IOException {
+      if (remaining == 0 && !nextBlock()) {
+        return null;
+      }
+      remaining--;
+      int shared = (int) readVarLong(block);
+      byte[] current = new byte[shared + (int) readVarLong(block)];
+      System.arraycopy(key, 0, current, 0, shared);
+      block.get(current, shared, current.length - shared);
+      key = current;
+      BlobInfo.Builder builder =
+          BlobInfo.builder()
+              .withKey(new String(current, StandardCharsets.UTF_8))
+              .withObjectSize(readVarLong(block));
+      int flags = block.get();
+      if ((flags & HAS_LAST_MODIFIED) != 0) {
+        long zigzag = readVarLong(block);
+        long seconds = (zigzag >>> 1) ^ -(zigzag & 1);
+        builder.withLastModified(Instant.ofEpochSecond(seconds, readVarLong(block)));
+      }
+      if ((flags & HAS_ETAG) != 0) {
+        builder.withETag(readString(block));
+      }
+      if ((flags & HAS_VERSION_ID) != 0) {
+        builder.withVersionId(readString(block));
+      }
+      return builder.build();
+    }
+
+    private boolean nextBlock() throws IOException {
+      int compressedLength = in.readInt();
+      int rawLength = in.readInt();
+      int count = in.readInt();
+      int checksum = in.readInt();
+      if (compressedLength == END_OF_BLOCKS) {
+        return false;
+      }
+      byte[] compressed = new byte[compressedLength];
+      in.readFully(compressed);
+      CRC32 crc = new CRC32();
+      crc.update(compressed);
+      if ((int) crc.getValue() != checksum) {
+        throw new IllegalStateException("Listing snapshot block is corrupt: " + file);
+      }
+      block = ByteBuffer.wrap(codec.decompress(compressed, rawLength));
+      remaining = count;
+      key = new byte[0];
+      return count > 0 || nextBlock();
+    }
+
+    private String readString(ByteBuffer buffer) {
+      byte[] bytes = new byte[(int) readVarLong(buffer)];
+      buffer.get(bytes);
+      return new String(bytes, StandardCharsets.UTF_8);
+    }
+
+    private long readVarLong(ByteBuffer buffer) {
+      long value = 0;
+      for (int shift = 0; ; shift += 7) {
+        byte b = buffer.get();
+        value |= (long) (b & 0x7F) << shift;
+        if (b >= 0) {
+          return value;
+        }
+      }
+    }
+  }
+}
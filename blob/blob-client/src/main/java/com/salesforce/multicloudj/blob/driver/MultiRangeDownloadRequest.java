@@ -0,0 +1,134 @@
+package com.salesforce.multicloudj.blob.driver;
+
+import com.salesforce.multicloudj.common.observability.OperationContext;
+import java.util.List;
+import lombok.Getter;
+
+/**
+ * Request for reading many byte ranges of one blob via {@link
+ * BlobStore#downloadRanges(MultiRangeDownloadRequest)}.
+ *
+ * <p>Ranges separated by at most {@code maxGapInBytes} are coalesced into a single ranged GET, as
+ * long as the merged span does not exceed {@code maxSpanSizeInBytes}; the bytes in the gaps are
+ * fetched and discarded. The merged spans are fetched in parallel.
+ */
+@Getter
+public class MultiRangeDownloadRequest {
+
+  /** Default gap below which neighbouring ranges are fetched together: 256 KiB. */
+  public static final long DEFAULT_MAX_GAP_IN_BYTES = 256 * 1024;
+
+  /** Default upper bound on a coalesced span: 16 MiB. */
+  public static final long DEFAULT_MAX_SPAN_SIZE_IN_BYTES = 16 * 1024 * 1024;
+
+  private final String key;
+  private final String versionId;
+  private final List<ByteRange> ranges;
+  private final long maxGapInBytes;
+  private final long maxSpanSizeInBytes;
+  private final String kmsKeyId;
+
+  /**
+   * (Optional) Per-call observability context carrying the correlation ID. The correlation ID is
+   * never auto-generated; when it is null or missing it defaults to an empty string and tracing is
+   * treated as disabled. When supplied, it is echoed back via the response.
+   */
+  private final OperationContext operationContext;
+
+  private MultiRangeDownloadRequest(Builder builder) {
+    this.key = builder.key;
+    this.versionId = builder.versionId;
+    this.ranges = builder.ranges == null ? null : List.copyOf(builder.ranges);
+    this.maxGapInBytes = builder.maxGapInBytes;
+    this.maxSpanSizeInBytes = builder.maxSpanSizeInBytes;
+    this.kmsKeyId = builder.kmsKeyId;
+    this.operationContext = builder.operationContext;
+  }
+
+  public static Builder builder() {
+    return new Builder();
+  }
+
+  /** Returns a builder pre-populated with this request's values. */
+  public Builder toBuilder() {
+    return new Builder()
+        .withKey(key)
+        .withVersionId(versionId)
+        .withRanges(ranges)
+        .withMaxGapInBytes(maxGapInBytes)
+        .withMaxSpanSizeInBytes(maxSpanSizeInBytes)
+        .withKmsKeyId(kmsKeyId)
+        .withOperationContext(operationContext);
+  }
+
+  public static class Builder {
+    private String key;
+    private String versionId;
+    private List<ByteRange> ranges;
+    private long maxGapInBytes = DEFAULT_MAX_GAP_IN_BYTES;
+    private long maxSpanSizeInBytes = DEFAULT_MAX_SPAN_SIZE_IN_BYTES;
+    private String kmsKeyId;
+    private OperationContext operationContext;
+
+    /** Specifies the key of the Blob to read. */
+    public Builder withKey(String key) {
+      this.key = key;
+      return this;
+    }
+
+    /** (Optional) Specifies the versionId of the blob to read. */
+    public Builder withVersionId(String versionId) {
+      this.versionId = versionId;
+      return this;
+    }
+
+    /**
+     * Specifies the ranges to read. Ranges may be unordered and may overlap; the response returns
+     * one buffer per range in the order given here.
+     */
+    public Builder withRanges(List<ByteRange> ranges) {
+      this.ranges = ranges;
+      return this;
+    }
+
+    /**
+     * (Optional) Largest gap between two ranges that is still fetched in a single request.
+     * Defaults to {@link #DEFAULT_MAX_GAP_IN_BYTES}; {@code 0} only merges adjacent or
+     * overlapping ranges.
+     */
+    public Builder withMaxGapInBytes(long maxGapInBytes) {
+      this.maxGapInBytes = maxGapInBytes;
+      return this;
+    }
+
+    /**
+     * (Optional) Largest span a coalesced request may cover. A single range larger than this is
+     * still fetched in one request. Defaults to {@link #DEFAULT_MAX_SPAN_SIZE_IN_BYTES}.
+     */
+    public Builder withMaxSpanSizeInBytes(long maxSpanSizeInBytes) {
+      this.maxSpanSizeInBytes = maxSpanSizeInBytes;
+      return this;
+    }
+
+    /** (Optional) KMS key needed to read a blob encrypted with a customer-managed key. */
+    public Builder withKmsKeyId(String kmsKeyId) {
+      this.kmsKeyId = kmsKeyId;
+      return this;
+    }
+
+    /**
+     * Sets the per-call observability context carrying the correlation ID.
+     *
+     * @param operationContext the observability context
+     * @return this builder
+     */
+    public Builder withOperationContext(OperationContext operationContext) {
+      this.operationContext = operationContext;
+      return this;
+    }
+
+    public MultiRangeDownloadRequest build() {
+      return new MultiRangeDownloadRequest(this);
+    }
+  }
+}
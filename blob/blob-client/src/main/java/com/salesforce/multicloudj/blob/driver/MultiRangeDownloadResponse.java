@@ -0,0 +1,41 @@
+package com.salesforce.multicloudj.blob.driver;
+
+import java.nio.ByteBuffer;
+import java.util.List;
+import java.util.function.BiConsumer;
+import lombok.Builder;
+import lombok.EqualsAndHashCode;
+import lombok.Getter;
+import lombok.ToString;
+
+/** Result of {@link BlobStore#downloadRanges(MultiRangeDownloadRequest)}. */
+@Builder(toBuilder = true)
+@Getter
+@EqualsAndHashCode
+@ToString
+public class MultiRangeDownloadResponse {
+  private final String key;
+
+  /** The requested ranges, in request order. */
+  private final List<ByteRange> ranges;
+
+  /**
+   * One read-only buffer per requested range, in request order. A buffer is shorter than its range
+   * when the range extends past the end of the blob.
+   */
+  @ToString.Exclude private final List<ByteBuffer> buffers;
+
+  /** Number of ranged GETs issued after coalescing. */
+  private final int requestCount;
+
+  @EqualsAndHashCode.Exclude
+  @ToString.Exclude
+  private final String correlationId;
+
+  /** Invokes {@code consumer} with each requested range and its buffer, in request order. */
+  public void forEach(BiConsumer<ByteRange, ByteBuffer> consumer) {
+    for (int i = 0; i < ranges.size(); i++) {
+      consumer.accept(ranges.get(i), buffers.get(i).duplicate());
+    }
+  }
+}
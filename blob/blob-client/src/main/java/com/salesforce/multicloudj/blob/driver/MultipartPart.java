@@ -13,8 +13,14 @@ public class MultipartPart {
   private final long contentLength;
   private final String checksumValue;
 
+  /**
+   * The part's bytes when it was built from an array, otherwise null. Stores whose async client
+   * takes a byte body send it directly instead of draining {@link #getInputStream()} on a thread.
+   */
+  private final byte[] content;
+
   public MultipartPart(final int partNumber, final byte[] content) {
-    this(partNumber, new ByteArrayInputStream(content), content.length, null);
+    this(partNumber, content, null);
   }
 
   public MultipartPart(final int partNumber, final InputStream inputStream,
@@ -23,15 +29,22 @@ public class MultipartPart {
   }
 
   public MultipartPart(final int partNumber, final byte[] content, final String checksumValue) {
-    this(partNumber, new ByteArrayInputStream(content), content.length, checksumValue);
+    this(partNumber, new ByteArrayInputStream(content), content.length, checksumValue, content);
   }
 
   public MultipartPart(final int partNumber, final InputStream inputStream,
                        final long contentLength, final String checksumValue) {
+    this(partNumber, inputStream, contentLength, checksumValue, null);
+  }
+
+  private MultipartPart(final int partNumber, final InputStream inputStream,
+                        final long contentLength, final String checksumValue,
+                        final byte[] content) {
     this.partNumber = partNumber;
     this.inputStream = inputStream;
     this.contentLength = contentLength;
     this.checksumValue = checksumValue;
+    this.content = content;
   }
 
 }
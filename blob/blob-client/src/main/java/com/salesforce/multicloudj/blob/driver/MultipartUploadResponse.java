@@ -9,13 +9,22 @@ public class MultipartUploadResponse {
   private final String etag;
   private final String checksumValue;
 
+  /** The versionId of the assembled object, or null if the bucket is not versioned. */
+  private final String versionId;
+
   public MultipartUploadResponse(final String etag) {
     this(etag, null);
   }
 
   public MultipartUploadResponse(final String etag, final String checksumValue) {
+    this(etag, checksumValue, null);
+  }
+
+  public MultipartUploadResponse(
+      final String etag, final String checksumValue, final String versionId) {
     this.etag = etag;
     this.checksumValue = checksumValue;
+    this.versionId = versionId;
   }
 
 }
@@ -0,0 +1,256 @@
+package com.salesforce.multicloudj.blob.driver;
+
+import com.salesforce.multicloudj.common.exceptions.SubstrateSdkException;
+import java.io.EOFException;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.channels.ReadableByteChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.List;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.Executor;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+
+/**
+ * Uploads a large file as multipart parts that are read and sent concurrently. Used by stores whose
+ * SDK has no transfer manager for file uploads.
+ *
+ * <p>All parts read from one {@link FileChannel} with positional reads, so the reads share no file
+ * position and need no locking. At most {@code maxConcurrency} parts are in flight, each held in
+ * memory once while it is sent. The part size starts at the configured minimum and grows, in whole
+ * MiB, until the file fits in {@value #MAX_PARTS} parts, the limit S3, GCS and OSS share. If a part
+ * fails, no further parts are started and the multipart upload is aborted.
+ *
+ * <p>Streams of unknown length go through the same multipart hooks one part at a time, at the
+ * minimum part size, so only the part being sent is held in memory rather than the whole stream.
+ */
+public final class ParallelFileUploader {
+
+  /** Smallest file uploaded in parts when the store builder does not set a threshold. */
+  public static final long DEFAULT_THRESHOLD_BYTES = 64L * 1024 * 1024;
+
+  /** Smallest part size when the store builder does not set a part buffer size. */
+  public static final long DEFAULT_MINIMUM_PART_SIZE = 8L * 1024 * 1024;
+
+  /** Parts in flight at once when the store builder does not set a limit. */
+  public static final int DEFAULT_MAX_CONCURRENCY = 8;
+
+  /** Most parts a multipart upload may have. */
+  static final int MAX_PARTS = 10_000;
+
+  private static final long MIB = 1L << 20;
+
+  /** Largest part size, in whole MiB, so that a part fits in one array. */
+  static final long MAX_PART_SIZE = 2047 * MIB;
+
+  private final long thresholdBytes;
+  private final long minimumPartSize;
+  private final int maxConcurrency;
+  private final Executor executor;
+
+  /**
+   * @param thresholdBytes the smallest file to upload in parts, or null for the default
+   * @param minimumPartSize the smallest part size, or null for the default
+   * @param maxConcurrency the number of parts in flight at once, or null for the default
+   * @param executor runs the part reads and uploads, or null for {@link
+   *     BlobExecutors#defaultExecutor()}
+   */
+  public ParallelFileUploader(
+      Long thresholdBytes, Long minimumPartSize, Integer maxConcurrency, Executor executor) {
+    this.thresholdBytes = thresholdBytes == null ? DEFAULT_THRESHOLD_BYTES : thresholdBytes;
+    this.minimumPartSize =
+        Math.min(
+            MAX_PART_SIZE, minimumPartSize == null ? DEFAULT_MINIMUM_PART_SIZE : minimumPartSize);
+    this.maxConcurrency =
+        Math.max(1, maxConcurrency == null ? DEFAULT_MAX_CONCURRENCY : maxConcurrency);
+    this.executor = executor == null ? BlobExecutors.defaultExecutor() : executor;
+  }
+
+  /**
+   * Returns an uploader configured from the store builder, or null when the builder disabled
+   * parallel uploads.
+   */
+  public static ParallelFileUploader from(BlobStoreBuilder<?> builder, Executor executor) {
+    if (Boolean.FALSE.equals(builder.getParallelUploadsEnabled())) {
+      return null;
+    }
+    return new ParallelFileUploader(
+        builder.getThresholdBytes(),
+        builder.getPartBufferSize(),
+        builder.getMaxConcurrency(),
+        executor);
+  }
+
+  /**
+   * Tells whether a file of {@code size} bytes should be uploaded in parts. Requests that carry a
+   * checksum or storage class stay on the single request path, as multipart uploads cannot honor
+   * either.
+   */
+  public boolean appliesTo(UploadRequest request, long size) {
+    return size >= thresholdBytes
+        && size > minimumPartSize
+        && request.getChecksumValue() == null
+        && request.getChecksumAlgorithm() == null
+        && request.getStorageClass() == null;
+  }
+
+  /**
+   * Tells whether a stream of unknown length should be uploaded in parts. As for files, requests
+   * that carry a checksum or storage class stay on the single request path.
+   */
+  public boolean appliesToStream(UploadRequest request) {
+    return request.getChecksumValue() == null
+        && request.getChecksumAlgorithm() == null
+        && request.getStorageClass() == null;
+  }
+
+  /** Returns the part size for a file of {@code size} bytes. */
+  long partSize(long size) {
+    long fitting = (size + MAX_PARTS - 1) / MAX_PARTS;
+    long partSize = fitting <= minimumPartSize ? minimumPartSize : (fitting + MIB - 1) / MIB * MIB;
+    if (partSize > MAX_PART_SIZE) {
+      throw new IllegalArgumentException("File is too large for a multipart upload: " + size);
+    }
+    return partSize;
+  }
+
+  /**
+   * Uploads the {@code size} bytes of {@code path} as a multipart upload through the hooks of
+   * {@code store}.
+   */
+  public UploadResponse upload(
+      AbstractBlobStore store, UploadRequest request, Path path, long size) {
+    long partSize = partSize(size);
+    int partCount = (int) ((size + partSize - 1) / partSize);
+    try (FileChannel channel = FileChannel.open(path, StandardOpenOption.READ)) {
+      MultipartUpload mpu = store.doInitiateMultipartUpload(toMultipartUploadRequest(request));
+      ConcurrentLinkedQueue<UploadPartResponse> parts = new ConcurrentLinkedQueue<>();
+      List<Integer> partNumbers =
+          IntStream.rangeClosed(1, partCount).boxed().collect(Collectors.toList());
+      MultipartUploadResponse response;
+      try {
+        // Parts run on the calling thread plus helpers on the executor, so an upload started from
+        // a thread of that executor, as the async bridge does, cannot wait on parts queued behind
+        // it.
+        BulkLookups.forEach(
+            partNumbers,
+            maxConcurrency,
+            executor,
+            partNumber -> {
+              long position = (partNumber - 1) * partSize;
+              byte[] content = read(channel, position, Math.min(partSize, size - position));
+              parts.add(store.doUploadMultipartPart(mpu, new MultipartPart(partNumber, content)));
+            });
+        List<UploadPartResponse> sorted = new ArrayList<>(parts);
+        sorted.sort(Comparator.comparingInt(UploadPartResponse::getPartNumber));
+        response = store.doCompleteMultipartUpload(mpu, sorted);
+      } catch (RuntimeException e) {
+        abort(store, mpu, e);
+        throw e;
+      }
+      return toUploadResponse(request, response);
+    } catch (IOException e) {
+      throw new SubstrateSdkException("Request failed while uploading from path", e);
+    }
+  }
+
+  /**
+   * Uploads {@code channel}, whose length is unknown, as a multipart upload through the hooks of
+   * {@code store}, reading and sending one part at a time on the calling thread. A stream that
+   * ends within its first part is uploaded with a single request instead.
+   */
+  public UploadResponse upload(
+      AbstractBlobStore store, UploadRequest request, ReadableByteChannel channel) {
+    byte[] content = read(channel, minimumPartSize);
+    if (content.length < minimumPartSize) {
+      return store.doUpload(request, content);
+    }
+    MultipartUpload mpu = store.doInitiateMultipartUpload(toMultipartUploadRequest(request));
+    List<UploadPartResponse> parts = new ArrayList<>();
+    MultipartUploadResponse response;
+    try {
+      while (content.length > 0) {
+        if (parts.size() == MAX_PARTS) {
+          throw new IllegalArgumentException(
+              "Stream is too large for a multipart upload of " + minimumPartSize + "-byte parts");
+        }
+        parts.add(store.doUploadMultipartPart(mpu, new MultipartPart(parts.size() + 1, content)));
+        content = content.length < minimumPartSize ? new byte[0] : read(channel, minimumPartSize);
+      }
+      response = store.doCompleteMultipartUpload(mpu, parts);
+    } catch (RuntimeException e) {
+      abort(store, mpu, e);
+      throw e;
+    }
+    return toUploadResponse(request, response);
+  }
+
+  private static UploadResponse toUploadResponse(
+      UploadRequest request, MultipartUploadResponse response) {
+    return UploadResponse.builder()
+        .key(request.getKey())
+        .versionId(response.getVersionId())
+        .eTag(response.getEtag())
+        .checksumValue(response.getChecksumValue())
+        .build();
+  }
+
+  /** Reads up to {@code length} bytes, fewer only when the channel ends first. */
+  private static byte[] read(ReadableByteChannel channel, long length) {
+    ByteBuffer buffer = ByteBuffer.allocate((int) length);
+    try {
+      while (buffer.hasRemaining()) {
+        if (channel.read(buffer) < 0) {
+          break;
+        }
+      }
+    } catch (IOException e) {
+      throw new SubstrateSdkException("Failed to read upload stream", e);
+    }
+    return buffer.position() == buffer.capacity()
+        ? buffer.array()
+        : Arrays.copyOf(buffer.array(), buffer.position());
+  }
+
+  private static byte[] read(FileChannel channel, long position, long length) {
+    byte[] content = new byte[(int) length];
+    ByteBuffer buffer = ByteBuffer.wrap(content);
+    try {
+      while (buffer.hasRemaining()) {
+        if (channel.read(buffer, position + buffer.position()) < 0) {
+          throw new EOFException("File ended at " + (position + buffer.position()));
+        }
+      }
+    } catch (IOException e) {
+      throw new SubstrateSdkException("Failed to read file part at " + position, e);
+    }
+    return content;
+  }
+
+  private static void abort(AbstractBlobStore store, MultipartUpload mpu, RuntimeException cause) {
+    try {
+      store.doAbortMultipartUpload(mpu);
+    } catch (RuntimeException e) {
+      cause.addSuppressed(e);
+    }
+  }
+
+  private static MultipartUploadRequest toMultipartUploadRequest(UploadRequest request) {
+    return new MultipartUploadRequest.Builder()
+        .withKey(request.getKey())
+        .withMetadata(request.getMetadata())
+        .withTags(request.getTags())
+        .withKmsKeyId(request.getKmsKeyId())
+        .withUseKmsManagedKey(request.isUseKmsManagedKey())
+        .withObjectLock(request.getObjectLock())
+        .withContentType(request.getContentType())
+        .withOperationContext(request.getOperationContext())
+        .build();
+  }
+}
@@ -0,0 +1,40 @@
+package com.salesforce.multicloudj.blob.driver;
+
+import lombok.EqualsAndHashCode;
+import lombok.Getter;
+import lombok.ToString;
+
+/**
+ * Object count and byte total of the objects under one prefix, nested prefixes included, as
+ * computed by computeUsage.
+ */
+@Getter
+@EqualsAndHashCode
+@ToString
+public class PrefixUsage {
+  private final String prefix;
+  private final long objectCount;
+  private final long totalBytes;
+
+  /**
+   * Noncurrent versions under the prefix, deleted objects included; zero unless versions were
+   * requested. Delete markers are not counted.
+   */
+  private final long noncurrentVersionCount;
+
+  /** Bytes held by the noncurrent versions; zero unless versions were requested. */
+  private final long noncurrentBytes;
+
+  public PrefixUsage(
+      String prefix,
+      long objectCount,
+      long totalBytes,
+      long noncurrentVersionCount,
+      long noncurrentBytes) {
+    this.prefix = prefix;
+    this.objectCount = objectCount;
+    this.totalBytes = totalBytes;
+    this.noncurrentVersionCount = noncurrentVersionCount;
+    this.noncurrentBytes = noncurrentBytes;
+  }
+}
@@ -0,0 +1,390 @@
+package com.salesforce.multicloudj.blob.driver;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.Deque;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.Executor;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.function.Function;
+
+/**
+ * Totals the objects and bytes under a prefix per sub-prefix, down to a given depth, listing the
+ * sub-prefixes concurrently. Shared by the stores through {@link
+ * AbstractBlobStore#computeUsage(PrefixUsageRequest)}.
+ *
+ * <p>Each level above the requested depth is listed with the delimiter, which yields the objects
+ * directly under the level and the sub-prefixes below it; each sub-prefix at the requested depth
+ * is listed flat. Every listing is one task, at most {@code maxConcurrency} run at once, and the
+ * calling thread schedules them as the sub-prefixes are discovered. Rather than wait on a listing
+ * the executor has not started, the calling thread runs it itself, so the call also completes when
+ * made from one of the executor's own threads, as the async stores do. A task keeps only running
+ * totals of the page it is reading, and the totals per prefix are kept in arrays indexed by the
+ * prefix's slot, so memory grows with the number of prefixes, not objects. The first failed
+ * listing stops new ones from starting, and the call fails once the listings in flight finish.
+ *
+ * <p>Noncurrent versions, when requested, come from one more task that lists every version under
+ * the prefix at once and totals the noncurrent ones by the deepest sub-prefix they fall in. This
+ * also reaches keys whose latest version is a delete marker, which the object listings skip.
+ *
+ * <p>Once every listing has finished, the totals of each sub-prefix are added to those of its
+ * ancestors, as {@code du} does. A prefix therefore reports the same totals whatever the depth,
+ * and a prefix holding only nested objects is still reported.
+ */
+public final class PrefixUsageAggregator {
+
+  /** Listings in flight at once. */
+  public static final int DEFAULT_MAX_CONCURRENCY = 16;
+
+  /** Keys per listed page. */
+  public static final int DEFAULT_PAGE_SIZE = 1000;
+
+  private static final int INITIAL_SLOTS = 64;
+
+  private final int maxConcurrency;
+  private final int pageSize;
+
+  /**
+   * @param maxConcurrency the number of listings in flight at once
+   */
+  public PrefixUsageAggregator(int maxConcurrency) {
+    this(maxConcurrency, DEFAULT_PAGE_SIZE);
+  }
+
+  PrefixUsageAggregator(int maxConcurrency, int pageSize) {
+    this.maxConcurrency = Math.max(1, maxConcurrency);
+    this.pageSize = Math.max(1, pageSize);
+  }
+
+  /**
+   * Totals the objects under the request's prefix, listing on {@code executor}. Returns once every
+   * sub-prefix has been listed.
+   *
+   * @param request the prefix, depth and delimiter to aggregate by
+   * @param listPage lists one page; honours prefix, delimiter, pagination token and maximum results
+   * @param listVersions lists every version and delete marker under a prefix, or the whole bucket
+   *     for null; used only when the request includes versions
+   * @param executor runs the listings, or null for {@link BlobExecutors#defaultExecutor()}
+   * @return the totals of the prefix and of each sub-prefix down to the depth, each including
+   *     the objects nested below it, in key order; prefixes without objects or noncurrent versions
+   *     are left out and the prefix of the whole bucket is the empty string
+   */
+  public List<PrefixUsage> aggregate(
+      PrefixUsageRequest request,
+      Function<ListBlobsPageRequest, ListBlobsPageResponse> listPage,
+      Function<String, Iterator<BlobVersionInfo>> listVersions,
+      Executor executor) {
+    Executor listings = executor == null ? BlobExecutors.defaultExecutor() : executor;
+    Totals totals = new Totals();
+    Deque<Listing> pending = new ArrayDeque<>();
+    Deque<Listing> submitted = new ArrayDeque<>();
+    BlockingQueue<Listing> finished = new LinkedBlockingQueue<>();
+    String base = request.getPrefix() == null ? "" : request.getPrefix();
+    pending.add(new Scan(request, listPage, totals.slot(base, -1), base, 0));
+    VersionScan versions = null;
+    if (request.isIncludeVersions()) {
+      versions = new VersionScan(request, listVersions, base);
+      pending.add(versions);
+    }
+    RuntimeException failure = null;
+    int inFlight = 0;
+    while (inFlight > 0 || (failure == null && !pending.isEmpty())) {
+      while (failure == null && inFlight < maxConcurrency && !pending.isEmpty()) {
+        Listing listing = pending.poll();
+        inFlight++;
+        submitted.add(listing);
+        listings.execute(
+            () -> {
+              if (listing.claim()) {
+                finished.add(listing);
+              }
+            });
+      }
+      Listing listing = nextFinished(submitted, finished);
+      inFlight--;
+      if (listing.error != null) {
+        failure = failure != null ? failure : unwrap(listing.error);
+        continue;
+      }
+      if (listing instanceof Scan) {
+        Scan scan = (Scan) listing;
+        totals.add(scan);
+        for (String child : scan.children) {
+          pending.add(
+              new Scan(request, listPage, totals.slot(child, scan.slot), child, scan.level + 1));
+        }
+      }
+    }
+    if (failure != null) {
+      throw failure;
+    }
+    if (versions != null) {
+      // Every live sub-prefix has its slot by now; prefixes holding only noncurrent versions get
+      // theirs here, after their parents.
+      versions.noncurrent.forEach(
+          (prefix, counts) ->
+              totals.addNoncurrent(totals.slotOf(prefix, request.getDelimiter()), counts));
+    }
+    return totals.toUsage();
+  }
+
+  /**
+   * Running totals per prefix, in parallel arrays indexed by the prefix's slot. A prefix gets its
+   * slot after its parent's, which {@link #toUsage()} relies on to roll the totals up.
+   */
+  private static final class Totals {
+    private final List<String> prefixes = new ArrayList<>();
+    private final Map<String, Integer> slots = new HashMap<>();
+    private int[] parents = new int[INITIAL_SLOTS];
+    private long[] objects = new long[INITIAL_SLOTS];
+    private long[] bytes = new long[INITIAL_SLOTS];
+    private long[] versions = new long[INITIAL_SLOTS];
+    private long[] versionBytes = new long[INITIAL_SLOTS];
+
+    private int slot(String prefix, int parent) {
+      int slot = prefixes.size();
+      prefixes.add(prefix);
+      slots.put(prefix, slot);
+      if (slot == objects.length) {
+        int capacity = slot * 2;
+        parents = Arrays.copyOf(parents, capacity);
+        objects = Arrays.copyOf(objects, capacity);
+        bytes = Arrays.copyOf(bytes, capacity);
+        versions = Arrays.copyOf(versions, capacity);
+        versionBytes = Arrays.copyOf(versionBytes, capacity);
+      }
+      parents[slot] = parent;
+      return slot;
+    }
+
+    /**
+     * Returns the slot of {@code prefix}, a sub-prefix of the first slot's, adding it and any
+     * missing ancestors first.
+     */
+    private int slotOf(String prefix, String delimiter) {
+      Integer slot = slots.get(prefix);
+      if (slot != null) {
+        return slot;
+      }
+      String base = prefixes.get(0);
+      int cut = prefix.lastIndexOf(delimiter, prefix.length() - delimiter.length() - 1);
+      String parent = cut < base.length() ? base : prefix.substring(0, cut + delimiter.length());
+      return slot(prefix, slotOf(parent, delimiter));
+    }
+
+    private void addNoncurrent(int slot, long[] counts) {
+      versions[slot] += counts[0];
+      versionBytes[slot] += counts[1];
+    }
+
+    private void add(Scan scan) {
+      objects[scan.slot] += scan.objects;
+      bytes[scan.slot] += scan.bytes;
+    }
+
+    private List<PrefixUsage> toUsage() {
+      // Children come after their parents, so one backward pass rolls every level up.
+      for (int slot = prefixes.size() - 1; slot > 0; slot--) {
+        int parent = parents[slot];
+        objects[parent] += objects[slot];
+        bytes[parent] += bytes[slot];
+        versions[parent] += versions[slot];
+        versionBytes[parent] += versionBytes[slot];
+      }
+      List<PrefixUsage> usage = new ArrayList<>();
+      for (int slot = 0; slot < prefixes.size(); slot++) {
+        if (objects[slot] > 0 || versions[slot] > 0) {
+          usage.add(
+              new PrefixUsage(
+                  prefixes.get(slot),
+                  objects[slot],
+                  bytes[slot],
+                  versions[slot],
+                  versionBytes[slot]));
+        }
+      }
+      usage.sort(Comparator.comparing(PrefixUsage::getPrefix, KeyOrder.UTF8));
+      return usage;
+    }
+  }
+
+  /**
+   * One listing task. Its fields are written by the listing thread and read by the scheduling
+   * thread after it is handed over.
+   */
+  private abstract static class Listing {
+    private final AtomicBoolean claimed = new AtomicBoolean();
+    private Throwable error;
+
+    abstract void run();
+
+    /** Runs the listing unless another thread has claimed it, returning whether this one did. */
+    private boolean claim() {
+      if (!claimed.compareAndSet(false, true)) {
+        return false;
+      }
+      try {
+        run();
+      } catch (Throwable t) {
+        error = t;
+      }
+      return true;
+    }
+  }
+
+  /** Lists one prefix, with the delimiter above the requested depth and flat at it. */
+  private final class Scan extends Listing {
+    private final PrefixUsageRequest request;
+    private final Function<ListBlobsPageRequest, ListBlobsPageResponse> listPage;
+    private final int slot;
+    private final String prefix;
+    private final int level;
+    private final List<String> children = new ArrayList<>();
+    private long objects;
+    private long bytes;
+
+    private Scan(
+        PrefixUsageRequest request,
+        Function<ListBlobsPageRequest, ListBlobsPageResponse> listPage,
+        int slot,
+        String prefix,
+        int level) {
+      this.request = request;
+      this.listPage = listPage;
+      this.slot = slot;
+      this.prefix = prefix;
+      this.level = level;
+    }
+
+    @Override
+    void run() {
+      boolean flat = level >= request.getDepth();
+      String token = null;
+      ListBlobsPageResponse page;
+      do {
+        page =
+            listPage.apply(
+                ListBlobsPageRequest.builder()
+                    .withPrefix(prefix.isEmpty() ? null : prefix)
+                    .withDelimiter(flat ? null : request.getDelimiter())
+                    .withPaginationToken(token)
+                    .withMaxResults(pageSize)
+                    .build());
+        for (BlobInfo blob : page.getBlobs()) {
+          objects++;
+          bytes += blob.getObjectSize();
+        }
+        if (!flat && page.getCommonPrefixes() != null) {
+          children.addAll(page.getCommonPrefixes());
+        }
+        token = page.getNextPageToken();
+      } while (page.isTruncated() && token != null);
+    }
+  }
+
+  /**
+   * Lists every version under the prefix and totals the noncurrent ones, delete markers left out,
+   * by the deepest sub-prefix within the requested depth that holds them.
+   */
+  private static final class VersionScan extends Listing {
+    private final PrefixUsageRequest request;
+    private final Function<String, Iterator<BlobVersionInfo>> listVersions;
+    private final String base;
+    private final Map<String, long[]> noncurrent = new HashMap<>();
+
+    private VersionScan(
+        PrefixUsageRequest request,
+        Function<String, Iterator<BlobVersionInfo>> listVersions,
+        String base) {
+      this.request = request;
+      this.listVersions = listVersions;
+      this.base = base;
+    }
+
+    @Override
+    void run() {
+      Iterator<BlobVersionInfo> listed = listVersions.apply(base.isEmpty() ? null : base);
+      while (listed.hasNext()) {
+        BlobVersionInfo version = listed.next();
+        if (version.isLatest() || version.isDeleteMarker()) {
+          continue;
+        }
+        long[] counts = noncurrent.computeIfAbsent(prefixOf(version.getKey()), p -> new long[2]);
+        counts[0]++;
+        counts[1] += version.getObjectSize();
+      }
+    }
+
+    private String prefixOf(String key) {
+      String delimiter = request.getDelimiter();
+      int end = base.length();
+      for (int level = 0; level < request.getDepth(); level++) {
+        int next = key.indexOf(delimiter, end);
+        if (next < 0) {
+          break;
+        }
+        end = next + delimiter.length();
+      }
+      return key.substring(0, end);
+    }
+  }
+
+  private static RuntimeException unwrap(Throwable t) {
+    while (t instanceof CompletionException && t.getCause() != null) {
+      t = t.getCause();
+    }
+    if (t instanceof RuntimeException) {
+      return (RuntimeException) t;
+    }
+    if (t instanceof Error) {
+      throw (Error) t;
+    }
+    return new CompletionException(t);
+  }
+
+  /**
+   * Returns the next finished listing, running submitted listings the executor has not started on
+   * the calling thread and waiting only once every submitted listing is running elsewhere.
+   */
+  private static Listing nextFinished(Deque<Listing> submitted, BlockingQueue<Listing> finished) {
+    while (!submitted.isEmpty() && submitted.peek().claimed.get()) {
+      submitted.poll();
+    }
+    Listing listing = finished.poll();
+    while (listing == null) {
+      Listing next = submitted.poll();
+      if (next == null) {
+        return takeUninterruptibly(finished);
+      }
+      if (next.claim()) {
+        listing = next;
+      }
+    }
+    return listing;
+  }
+
+  private static <T> T takeUninterruptibly(BlockingQueue<T> queue) {
+    boolean interrupted = false;
+    try {
+      while (true) {
+        try {
+          return queue.take();
+        } catch (InterruptedException e) {
+          interrupted = true;
+        }
+      }
+    } finally {
+      if (interrupted) {
+        Thread.currentThread().interrupt();
+      }
+    }
+  }
+}
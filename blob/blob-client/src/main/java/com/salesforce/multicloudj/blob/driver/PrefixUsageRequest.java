@@ -0,0 +1,30 @@
+package com.salesforce.multicloudj.blob.driver;
+
+import lombok.Builder;
+import lombok.Getter;
+
+/** Wrapper object for prefix usage aggregation data */
+@Builder
+@Getter
+public class PrefixUsageRequest {
+  /** Prefix whose objects are counted. Null counts every object in the bucket. */
+  private final String prefix;
+
+  /**
+   * Delimiter-separated levels below {@link #prefix} to aggregate by. With depth 1 and prefix
+   * {@code "tenants/"}, objects are totalled per {@code "tenants/<tenant>/"}; depth 0 totals the
+   * whole prefix. Every prefix down to the depth is reported, and its totals include the objects
+   * in the prefixes below it.
+   */
+  private final int depth;
+
+  /** (Optional) Separates the levels of a key. Defaults to {@code "/"}. */
+  @Builder.Default private final String delimiter = "/";
+
+  /**
+   * Also count the noncurrent versions under the prefix, including those of keys whose latest
+   * version is a delete marker. This costs one version listing of the whole prefix. Requires a
+   * store that lists versions by prefix.
+   */
+  private final boolean includeVersions;
+}
@@ -0,0 +1,141 @@
+package com.salesforce.multicloudj.blob.driver;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InterruptedIOException;
+import java.nio.ByteBuffer;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.Flow;
+import java.util.concurrent.LinkedBlockingQueue;
+
+/**
+ * Blocking {@link InputStream} over a {@link Flow.Publisher} of {@link ByteBuffer}s, for stores
+ * whose SDK only streams from an {@code InputStream}. Buffers are read in place as they arrive and
+ * at most {@value #PREFETCH} are requested ahead of the reader, so a fast publisher cannot run
+ * ahead of the upload.
+ *
+ * <p>The publisher is subscribed on the first read. Closing the stream cancels the subscription.
+ */
+public final class PublisherInputStream extends InputStream {
+
+  static final int PREFETCH = 2;
+
+  private static final Object COMPLETE = new Object();
+
+  private final Flow.Publisher<ByteBuffer> publisher;
+  private final BlockingQueue<Object> signals = new LinkedBlockingQueue<>();
+  private Flow.Subscription subscription;
+  private boolean subscribed;
+  private ByteBuffer current;
+  private boolean done;
+
+  public PublisherInputStream(Flow.Publisher<ByteBuffer> publisher) {
+    this.publisher = publisher;
+  }
+
+  @Override
+  public int read() throws IOException {
+    ByteBuffer buffer = nextBuffer();
+    return buffer == null ? -1 : buffer.get() & 0xFF;
+  }
+
+  @Override
+  public int read(byte[] b, int off, int len) throws IOException {
+    if (len == 0) {
+      return 0;
+    }
+    ByteBuffer buffer = nextBuffer();
+    if (buffer == null) {
+      return -1;
+    }
+    int n = Math.min(len, buffer.remaining());
+    buffer.get(b, off, n);
+    return n;
+  }
+
+  @Override
+  public int available() {
+    return current != null ? current.remaining() : 0;
+  }
+
+  @Override
+  public void close() {
+    done = true;
+    Flow.Subscription s;
+    synchronized (this) {
+      s = subscription;
+    }
+    if (s != null) {
+      s.cancel();
+    }
+  }
+
+  /** Returns a buffer with bytes remaining, or null at the end of the stream. */
+  private ByteBuffer nextBuffer() throws IOException {
+    while (current == null || !current.hasRemaining()) {
+      if (done) {
+        return null;
+      }
+      if (current != null) {
+        current = null;
+        request(1);
+      }
+      if (!subscribed) {
+        subscribed = true;
+        publisher.subscribe(new Subscriber());
+      }
+      Object signal;
+      try {
+        signal = signals.take();
+      } catch (InterruptedException e) {
+        Thread.currentThread().interrupt();
+        throw new InterruptedIOException("Interrupted while waiting for upload content");
+      }
+      if (signal == COMPLETE) {
+        done = true;
+        return null;
+      }
+      if (signal instanceof Throwable) {
+        done = true;
+        throw new IOException("Upload content publisher failed", (Throwable) signal);
+      }
+      current = (ByteBuffer) signal;
+    }
+    return current;
+  }
+
+  private void request(long n) {
+    Flow.Subscription s;
+    synchronized (this) {
+      s = subscription;
+    }
+    if (s != null) {
+      s.request(n);
+    }
+  }
+
+  private final class Subscriber implements Flow.Subscriber<ByteBuffer> {
+    @Override
+    public void onSubscribe(Flow.Subscription s) {
+      synchronized (PublisherInputStream.this) {
+        subscription = s;
+      }
+      s.request(PREFETCH);
+    }
+
+    @Override
+    public void onNext(ByteBuffer item) {
+      signals.add(item);
+    }
+
+    @Override
+    public void onError(Throwable throwable) {
+      signals.add(throwable);
+    }
+
+    @Override
+    public void onComplete() {
+      signals.add(COMPLETE);
+    }
+  }
+}
@@ -0,0 +1,96 @@
+package com.salesforce.multicloudj.blob.driver;
+
+import java.nio.ByteBuffer;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.stream.Collectors;
+
+/**
+ * Plans the ranged GETs for a {@link MultiRangeDownloadRequest} and slices the fetched spans back
+ * into per-range buffers. Shared by the sync and async stores so both coalesce identically.
+ */
+public final class RangeCoalescer {
+
+  private RangeCoalescer() {}
+
+  /**
+   * Merges the request's ranges into spans: ranges are visited in start order and folded into the
+   * current span while the gap to it is at most {@code maxGapInBytes} and the merged span stays
+   * within {@code maxSpanSizeInBytes}.
+   */
+  public static List<ByteRange> plan(MultiRangeDownloadRequest request) {
+    List<ByteRange> sorted =
+        request.getRanges().stream()
+            .sorted(Comparator.comparingLong(ByteRange::getStart))
+            .collect(Collectors.toList());
+    List<ByteRange> spans = new ArrayList<>();
+    long spanStart = sorted.get(0).getStart();
+    long spanEnd = sorted.get(0).getEnd();
+    for (ByteRange range : sorted.subList(1, sorted.size())) {
+      long mergedEnd = Math.max(spanEnd, range.getEnd());
+      boolean near = range.getStart() - spanEnd - 1 <= request.getMaxGapInBytes();
+      if (near && mergedEnd - spanStart + 1 <= request.getMaxSpanSizeInBytes()) {
+        spanEnd = mergedEnd;
+      } else {
+        spans.add(ByteRange.of(spanStart, spanEnd));
+        spanStart = range.getStart();
+        spanEnd = range.getEnd();
+      }
+    }
+    spans.add(ByteRange.of(spanStart, spanEnd));
+    return spans;
+  }
+
+  /** Builds the ranged download request that fetches one planned span. */
+  public static DownloadRequest toDownloadRequest(
+      MultiRangeDownloadRequest request, ByteRange span) {
+    return DownloadRequest.builder()
+        .withKey(request.getKey())
+        .withVersionId(request.getVersionId())
+        .withRange(span.getStart(), span.getEnd())
+        .withKmsKeyId(request.getKmsKeyId())
+        .withOperationContext(request.getOperationContext())
+        .build();
+  }
+
+  /**
+   * Slices the fetched spans into one read-only buffer per requested range, without copying.
+   *
+   * @param spans the spans returned by {@link #plan}
+   * @param spanBytes the bytes fetched for each span; may be shorter than the span at end of blob
+   */
+  public static MultiRangeDownloadResponse slice(
+      MultiRangeDownloadRequest request, List<ByteRange> spans, List<byte[]> spanBytes) {
+    List<ByteBuffer> buffers =
+        request.getRanges().stream()
+            .map(range -> sliceOne(range, spans, spanBytes))
+            .collect(Collectors.toList());
+    return MultiRangeDownloadResponse.builder()
+        .key(request.getKey())
+        .ranges(request.getRanges())
+        .buffers(buffers)
+        .requestCount(spans.size())
+        .build();
+  }
+
+  private static ByteBuffer sliceOne(
+      ByteRange range, List<ByteRange> spans, List<byte[]> spanBytes) {
+    // Spans are sorted and disjoint, so the covering span is the last one starting at or before
+    // the range.
+    int low = 0;
+    int high = spans.size() - 1;
+    while (low < high) {
+      int mid = (low + high + 1) >>> 1;
+      if (spans.get(mid).getStart() <= range.getStart()) {
+        low = mid;
+      } else {
+        high = mid - 1;
+      }
+    }
+    byte[] bytes = spanBytes.get(low);
+    int offset = (int) Math.min(bytes.length, range.getStart() - spans.get(low).getStart());
+    int length = (int) Math.min(bytes.length - offset, range.length());
+    return ByteBuffer.wrap(bytes, offset, length).slice().asReadOnlyBuffer();
+  }
+}
@@ -0,0 +1,34 @@
+package com.salesforce.multicloudj.blob.driver;
+
+import lombok.Builder;
+import lombok.Getter;
+
+/**
+ * Tuning for the random-access channel returned by {@code BucketClient.openChannel}.
+ *
+ * <p>The channel reads the object in aligned blocks of {@code blockSizeInBytes}. A miss fetches
+ * the missing blocks of the read plus a read-ahead window in a single ranged GET. The window
+ * starts at {@code initialReadAheadBlocks}, doubles on every sequential read up to {@code
+ * maxReadAheadBlocks}, and collapses back to the initial size on a random seek. Fetched blocks are
+ * kept in an LRU cache of {@code cacheBlocks} entries so footer-then-column access patterns do not
+ * re-fetch the same bytes.
+ */
+@Builder
+@Getter
+public class ReadChannelOptions {
+
+  /** (Optional) Size of a cached block. Defaults to 128 KiB. */
+  @Builder.Default private final int blockSizeInBytes = 128 * 1024;
+
+  /** (Optional) Read-ahead window after a random seek, in blocks. Defaults to 1. */
+  @Builder.Default private final int initialReadAheadBlocks = 1;
+
+  /**
+   * (Optional) Upper bound for the read-ahead window during sequential reads, in blocks. Capped at
+   * {@link #cacheBlocks}. Defaults to 64 (8 MiB with the default block size).
+   */
+  @Builder.Default private final int maxReadAheadBlocks = 64;
+
+  /** (Optional) Number of blocks retained in the LRU cache. Defaults to 64. */
+  @Builder.Default private final int cacheBlocks = 64;
+}
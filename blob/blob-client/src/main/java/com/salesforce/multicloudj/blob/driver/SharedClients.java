@@ -0,0 +1,145 @@
+package com.salesforce.multicloudj.blob.driver;
+
+import com.salesforce.multicloudj.common.exceptions.SubstrateSdkException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.function.Supplier;
+
+/**
+ * Provider clients shared by the stores of many buckets, so that the stores share one client and
+ * its connection pool instead of opening one each. Pass the same instance to the builder of every
+ * store that should share through {@link BlobStoreBuilder#withSharedClients(SharedClients)}.
+ *
+ * <p>Stores share a client when their builders agree on every setting that shapes it: provider,
+ * region, endpoint, proxy, connection pool, timeouts, credentials, retries and any provider
+ * specific client setting. The bucket is bound per store and never part of the client. A store
+ * whose builder sets something differently gets a client of its own, which it shares in turn with
+ * the stores configured like it. Credentials overriders and retry configs are compared by
+ * identity, so stores meant to share should be given the same instances.
+ *
+ * <p>Each store holds a reference to its client, and the client is closed when the last store
+ * using it is closed.
+ */
+public final class SharedClients {
+
+  private final Map<List<Object>, Entry> clients = new HashMap<>();
+
+  /**
+   * Returns a reference to the client for {@code key}, building it with {@code factory} if no
+   * store holds one. The client is built while other acquisitions wait, so a burst of stores
+   * configured alike builds it once.
+   */
+  public synchronized <C extends AutoCloseable> Lease<C> acquire(
+      List<Object> key, Supplier<C> factory) {
+    Entry entry = clients.get(key);
+    if (entry == null) {
+      entry = new Entry(factory.get());
+      clients.put(key, entry);
+    }
+    entry.references++;
+    return new Lease<>(key, entry);
+  }
+
+  /** Returns the number of distinct clients currently open. */
+  public synchronized int size() {
+    return clients.size();
+  }
+
+  /**
+   * Returns the key of the client a store built by {@code builder} uses: the settings shared by
+   * every provider, followed by {@code providerSettings}.
+   */
+  public static List<Object> clientKey(BlobStoreBuilder<?> builder, Object... providerSettings) {
+    List<Object> key =
+        new ArrayList<>(
+            Arrays.asList(
+                builder.getProviderId(),
+                builder.getRegion(),
+                builder.getEndpoint(),
+                builder.getProxyEndpoint(),
+                builder.getMaxConnections(),
+                builder.getSocketTimeout(),
+                builder.getIdleConnectionTimeout(),
+                new Identity(builder.getCredentialsOverrider()),
+                new Identity(builder.getRetryConfig()),
+                builder.getUseSystemPropertyProxyValues(),
+                builder.getUseEnvironmentVariableProxyValues(),
+                builder.getQuotaProjectId()));
+    key.addAll(Arrays.asList(providerSettings));
+    return key;
+  }
+
+  private void release(List<Object> key, Entry entry) {
+    synchronized (this) {
+      if (--entry.references > 0) {
+        return;
+      }
+      clients.remove(key);
+    }
+    if (entry.client == null) {
+      return;
+    }
+    try {
+      entry.client.close();
+    } catch (Exception e) {
+      throw new SubstrateSdkException("Failed to close shared client", e);
+    }
+  }
+
+  /** A store's reference to a shared client. Closing it more than once has no further effect. */
+  public final class Lease<C extends AutoCloseable> implements AutoCloseable {
+    private final List<Object> key;
+    private final Entry entry;
+    private final AtomicBoolean closed = new AtomicBoolean();
+
+    private Lease(List<Object> key, Entry entry) {
+      this.key = key;
+      this.entry = entry;
+    }
+
+    @SuppressWarnings("unchecked")
+    public C get() {
+      return (C) entry.client;
+    }
+
+    /** Releases the reference, closing the client if this was the last one. */
+    @Override
+    public void close() {
+      if (closed.compareAndSet(false, true)) {
+        release(key, entry);
+      }
+    }
+  }
+
+  private static final class Entry {
+    private final AutoCloseable client;
+    private int references;
+
+    private Entry(AutoCloseable client) {
+      this.client = client;
+    }
+  }
+
+  /** Compares the wrapped value by identity. */
+  private static final class Identity {
+    private final Object value;
+
+    private Identity(Object value) {
+      this.value = value;
+    }
+
+    @Override
+    public boolean equals(Object other) {
+      return other instanceof Identity && ((Identity) other).value == value;
+    }
+
+    @Override
+    public int hashCode() {
+      return System.identityHashCode(value);
+    }
+  }
+}
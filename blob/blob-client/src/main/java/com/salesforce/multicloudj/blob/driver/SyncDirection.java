@@ -0,0 +1,9 @@
+package com.salesforce.multicloudj.blob.driver;
+
+/** Which side of a directory sync is brought up to date with the other. */
+public enum SyncDirection {
+  /** Uploads local files to the bucket prefix. */
+  UPLOAD,
+  /** Downloads objects under the bucket prefix to the local directory. */
+  DOWNLOAD
+}
@@ -0,0 +1,35 @@
+package com.salesforce.multicloudj.blob.driver;
+
+import lombok.Builder;
+import lombok.Getter;
+
+/** Options of a directory sync between a local directory and a bucket prefix */
+@Builder
+@Getter
+public class SyncOptions {
+  /** Transfers and deletes in flight at once when the options do not set a limit. */
+  public static final int DEFAULT_MAX_CONCURRENCY = 16;
+
+  /** (Required) Whether to upload local changes or download remote ones. */
+  private final SyncDirection direction;
+
+  /**
+   * (Optional) Compare the MD5 of files that match in size with the MD5 the store reports, rather
+   * than their modification times. This reads every such file and fetches its object's metadata,
+   * so it is slower but catches edits that kept the size and time. Objects for which the store
+   * reports no MD5, such as multipart uploads, fall back to the time comparison.
+   */
+  private final boolean compareChecksums;
+
+  /**
+   * (Optional) Delete files on the destination side that do not exist on the source side: objects
+   * under the prefix when uploading, local files when downloading.
+   */
+  private final boolean deleteExtraneous;
+
+  /**
+   * (Optional) Transfers and deletes in flight at once. Defaults to {@link
+   * #DEFAULT_MAX_CONCURRENCY}.
+   */
+  @Builder.Default private final int maxConcurrency = DEFAULT_MAX_CONCURRENCY;
+}
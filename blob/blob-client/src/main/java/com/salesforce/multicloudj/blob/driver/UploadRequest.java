@@ -65,6 +65,15 @@ public class UploadRequest {
    */
   private final String contentType;
 
+  /**
+   * (Optional parameter) Client-side compression applied to the content before it is uploaded. The
+   * codec is recorded in the object's metadata so downloads with decompression enabled detect it.
+   * Cannot be combined with {@link #checksumValue}, which would describe the uncompressed bytes.
+   * Supported by the sync stores and the async stores bridged to them; native async stores reject
+   * it.
+   */
+  private final BlobCompression compression;
+
   /**
    * (Optional parameter) Per-call observability context carrying the correlation ID. The
    * correlation ID is never auto-generated; when it is null or missing it defaults to an empty
@@ -87,6 +96,7 @@ public class UploadRequest {
         ? builder.checksumAlgorithm
         : (builder.checksumValue != null ? ChecksumMethod.CRC32C : null);
     this.contentType = builder.contentType;
+    this.compression = builder.compression;
     this.operationContext = builder.operationContext;
   }
 
@@ -117,6 +127,7 @@ public class UploadRequest {
         .withChecksumValue(checksumValue)
         .withChecksumAlgorithm(checksumAlgorithm)
         .withContentType(contentType)
+        .withCompression(compression)
         .withOperationContext(operationContext);
   }
 
@@ -132,6 +143,7 @@ public class UploadRequest {
     private String checksumValue;
     private ChecksumMethod checksumAlgorithm;
     private String contentType;
+    private BlobCompression compression;
     private OperationContext operationContext;
 
     public Builder withKey(String key) {
@@ -190,6 +202,12 @@ public class UploadRequest {
       return this;
     }
 
+    /** See {@link UploadRequest#compression}. */
+    public Builder withCompression(BlobCompression compression) {
+      this.compression = compression;
+      return this;
+    }
+
     /**
      * Sets the per-call observability context carrying the correlation ID. The correlation ID is
      * never auto-generated; if not set (or if the context's correlation ID is null/empty) it
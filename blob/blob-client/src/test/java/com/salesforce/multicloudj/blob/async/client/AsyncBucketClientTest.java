@@ -26,6 +26,7 @@ import com.salesforce.multicloudj.blob.async.driver.AsyncBlobStoreProvider;
 import com.salesforce.multicloudj.blob.driver.BlobIdentifier;
 import com.salesforce.multicloudj.blob.driver.BlobMetadata;
 import com.salesforce.multicloudj.blob.driver.ByteArray;
+import com.salesforce.multicloudj.blob.driver.ByteRange;
 import com.salesforce.multicloudj.blob.driver.Checksum;
 import com.salesforce.multicloudj.blob.driver.ChecksumMethod;
 import com.salesforce.multicloudj.blob.driver.CopyRequest;
@@ -41,6 +42,8 @@ import com.salesforce.multicloudj.blob.driver.ListBlobsBatch;
 import com.salesforce.multicloudj.blob.driver.ListBlobsPageRequest;
 import com.salesforce.multicloudj.blob.driver.ListBlobsPageResponse;
 import com.salesforce.multicloudj.blob.driver.ListBlobsRequest;
+import com.salesforce.multicloudj.blob.driver.MultiRangeDownloadRequest;
+import com.salesforce.multicloudj.blob.driver.MultiRangeDownloadResponse;
 import com.salesforce.multicloudj.blob.driver.MultipartPart;
 import com.salesforce.multicloudj.blob.driver.MultipartUpload;
 import com.salesforce.multicloudj.blob.driver.MultipartUploadRequest;
@@ -64,6 +67,7 @@ import java.io.File;
 import java.io.InputStream;
 import java.io.OutputStream;
 import java.net.URI;
+import java.nio.ByteBuffer;
 import java.nio.file.Path;
 import java.nio.file.Paths;
 import java.time.Duration;
@@ -764,6 +768,30 @@ public class AsyncBucketClientTest {
     assertEquals("req-abc-123", actual.getCorrelationId());
   }
 
+  @Test
+  void testDownloadRangesStampsCorrelationId() throws ExecutionException, InterruptedException {
+    MultiRangeDownloadResponse fromDriver =
+        MultiRangeDownloadResponse.builder()
+            .key("object-1")
+            .ranges(List.of(ByteRange.of(0, 1)))
+            .buffers(List.of(ByteBuffer.wrap(new byte[] {1, 2})))
+            .requestCount(1)
+            .build();
+    when(mockBlobStore.downloadRanges(any())).thenReturn(future(fromDriver));
+    MultiRangeDownloadRequest request =
+        MultiRangeDownloadRequest.builder()
+            .withKey("object-1")
+            .withRanges(List.of(ByteRange.of(0, 1)))
+            .withOperationContext(fullContext())
+            .build();
+
+    MultiRangeDownloadResponse actual = client.downloadRanges(request).get();
+
+    assertEquals("req-abc-123", actual.getCorrelationId());
+    assertEquals(fromDriver.getBuffers(), actual.getBuffers());
+    assertEquals(1, actual.getRequestCount());
+  }
+
   @Test
   void testGetTagsWithOperationContext() throws ExecutionException, InterruptedException {
     Map<String, String> captured = new HashMap<>();
@@ -1167,7 +1195,7 @@ public class AsyncBucketClientTest {
   @Test
   void testDeleteDirectory() throws ExecutionException, InterruptedException {
     String prefix = "files";
-    when(mockBlobStore.deleteDirectory(any())).thenReturn(futureVoid());
+    when(mockBlobStore.deleteDirectory(anyString())).thenReturn(futureVoid());
     client.deleteDirectory(prefix).get();
     verify(mockBlobStore, times(1)).deleteDirectory(eq(prefix));
   }
@@ -2,6 +2,7 @@ package com.salesforce.multicloudj.blob.async.driver;
 
 import static org.junit.jupiter.api.Assertions.assertEquals;
 import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertInstanceOf;
 import static org.junit.jupiter.api.Assertions.assertNotNull;
 import static org.junit.jupiter.api.Assertions.assertNull;
 import static org.junit.jupiter.api.Assertions.assertThrows;
@@ -14,16 +15,21 @@ import static org.mockito.Mockito.times;
 import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
 
+import com.salesforce.multicloudj.blob.driver.BlobCompression;
 import com.salesforce.multicloudj.blob.driver.BlobIdentifier;
+import com.salesforce.multicloudj.blob.driver.BlobInfo;
 import com.salesforce.multicloudj.blob.driver.BlobStoreValidator;
 import com.salesforce.multicloudj.blob.driver.ByteArray;
+import com.salesforce.multicloudj.blob.driver.CompressionCodec;
 import com.salesforce.multicloudj.blob.driver.CopyRequest;
+import com.salesforce.multicloudj.blob.driver.DirectoryDeleteRequest;
 import com.salesforce.multicloudj.blob.driver.DirectoryDownloadRequest;
 import com.salesforce.multicloudj.blob.driver.DirectoryDownloadResponse;
 import com.salesforce.multicloudj.blob.driver.DirectoryUploadRequest;
 import com.salesforce.multicloudj.blob.driver.DirectoryUploadResponse;
 import com.salesforce.multicloudj.blob.driver.DownloadRequest;
 import com.salesforce.multicloudj.blob.driver.ListBlobsBatch;
+import com.salesforce.multicloudj.blob.driver.ListBlobsPageResponse;
 import com.salesforce.multicloudj.blob.driver.ListBlobsRequest;
 import com.salesforce.multicloudj.blob.driver.MultipartPart;
 import com.salesforce.multicloudj.blob.driver.MultipartUpload;
@@ -42,10 +48,12 @@ import java.io.InputStream;
 import java.io.OutputStream;
 import java.nio.file.Path;
 import java.time.Duration;
+import java.util.ArrayList;
 import java.util.Collection;
 import java.util.List;
 import java.util.Map;
 import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
 import java.util.concurrent.ExecutionException;
 import java.util.function.Consumer;
 import org.junit.jupiter.api.BeforeEach;
@@ -120,6 +128,31 @@ public class AbstractAsyncBlobStoreTest {
     assertEquals(inputStream, contentCaptor.getValue());
   }
 
+  @Test
+  void testRejectsCompressionAndDecompression() {
+    UploadRequest compressed =
+        getTestUploadRequest().toBuilder()
+            .withCompression(BlobCompression.builder().codec(CompressionCodec.GZIP).build())
+            .build();
+    DownloadRequest decompressed =
+        DownloadRequest.builder().withKey("object-1").withDecompress(true).build();
+
+    assertThrows(
+        InvalidArgumentException.class, () -> mockBlobStore.upload(compressed, new byte[1]));
+    assertThrows(
+        InvalidArgumentException.class,
+        () -> mockBlobStore.upload(compressed, new ByteArrayInputStream(new byte[1])));
+    assertThrows(
+        InvalidArgumentException.class,
+        () -> mockBlobStore.download(decompressed, OutputStream.nullOutputStream()));
+    assertThrows(
+        InvalidArgumentException.class,
+        () -> mockBlobStore.download(decompressed, new ByteArray()));
+    assertThrows(InvalidArgumentException.class, () -> mockBlobStore.download(decompressed));
+    verify(mockBlobStore, times(0)).doUpload(any(), any(byte[].class));
+    verify(mockBlobStore, times(0)).doDownload(any());
+  }
+
   @Test
   void testDoUploadFileByteArray() {
     byte[] content = new byte[1024];
@@ -603,6 +636,48 @@ public class AbstractAsyncBlobStoreTest {
     verify(mockBlobStore).doDeleteDirectory(prefix);
   }
 
+  @Test
+  void testDeleteDirectory_WithRequestPipelinesListedPages() {
+    ListBlobsPageResponse first =
+        new ListBlobsPageResponse(
+            List.of(BlobInfo.builder().withKey("files/a").build()), true, "next");
+    ListBlobsPageResponse second =
+        new ListBlobsPageResponse(
+            List.of(
+                BlobInfo.builder().withKey("files/b").build(),
+                BlobInfo.builder().withKey("files/c").build()),
+            false,
+            null);
+    when(mockBlobStore.doListPage(any()))
+        .thenReturn(CompletableFuture.completedFuture(first))
+        .thenReturn(CompletableFuture.completedFuture(second));
+    List<Long> progress = new ArrayList<>();
+
+    DirectoryDeleteRequest request =
+        DirectoryDeleteRequest.builder().prefix("files/").progressListener(progress::add).build();
+    mockBlobStore.deleteDirectory(request).join();
+
+    verify(mockBlobStore).doDelete(List.of(new BlobIdentifier("files/a", null)));
+    verify(mockBlobStore)
+        .doDelete(
+            List.of(new BlobIdentifier("files/b", null), new BlobIdentifier("files/c", null)));
+    assertEquals(List.of(1L, 3L), progress);
+  }
+
+  @Test
+  void testDeleteDirectory_WithVersionsUnsupported() {
+    DirectoryDeleteRequest request =
+        DirectoryDeleteRequest.builder().prefix("files/").includeVersions(true).build();
+
+    CompletableFuture<Void> result = mockBlobStore.deleteDirectory(request);
+
+    CompletionException thrown = assertThrows(CompletionException.class, result::join);
+    assertInstanceOf(UnsupportedOperationException.class, thrown.getCause());
+    assertThrows(
+        IllegalArgumentException.class,
+        () -> mockBlobStore.deleteDirectory((DirectoryDeleteRequest) null));
+  }
+
   @Test
   void testUploadDirectory_WithNullResponse() {
     DirectoryUploadRequest request =
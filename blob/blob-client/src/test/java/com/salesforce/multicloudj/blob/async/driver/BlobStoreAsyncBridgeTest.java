@@ -2,6 +2,7 @@ package com.salesforce.multicloudj.blob.async.driver;
 
 import static org.junit.jupiter.api.Assertions.assertEquals;
 import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertSame;
 import static org.junit.jupiter.api.Assertions.assertThrows;
 import static org.junit.jupiter.api.Assertions.assertTrue;
 import static org.mockito.ArgumentMatchers.any;
@@ -9,6 +10,7 @@ import static org.mockito.Mockito.doNothing;
 import static org.mockito.Mockito.doReturn;
 import static org.mockito.Mockito.doThrow;
 import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
 import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
 
@@ -16,7 +18,9 @@ import com.salesforce.multicloudj.blob.driver.AbstractBlobStore;
 import com.salesforce.multicloudj.blob.driver.BlobIdentifier;
 import com.salesforce.multicloudj.blob.driver.BlobInfo;
 import com.salesforce.multicloudj.blob.driver.BlobMetadata;
+import com.salesforce.multicloudj.blob.driver.BlobStoreValidator;
 import com.salesforce.multicloudj.blob.driver.ByteArray;
+import com.salesforce.multicloudj.blob.driver.ByteRange;
 import com.salesforce.multicloudj.blob.driver.CopyRequest;
 import com.salesforce.multicloudj.blob.driver.CopyResponse;
 import com.salesforce.multicloudj.blob.driver.DirectoryDownloadRequest;
@@ -25,6 +29,7 @@ import com.salesforce.multicloudj.blob.driver.DownloadRequest;
 import com.salesforce.multicloudj.blob.driver.DownloadResponse;
 import com.salesforce.multicloudj.blob.driver.ListBlobsBatch;
 import com.salesforce.multicloudj.blob.driver.ListBlobsRequest;
+import com.salesforce.multicloudj.blob.driver.MultiRangeDownloadRequest;
 import com.salesforce.multicloudj.blob.driver.MultipartPart;
 import com.salesforce.multicloudj.blob.driver.MultipartUpload;
 import com.salesforce.multicloudj.blob.driver.MultipartUploadRequest;
@@ -107,6 +112,27 @@ class BlobStoreAsyncBridgeTest {
     assertEquals(executorService, asyncWrapper.getExecutorService());
   }
 
+  @Test
+  void testDownloadRangesValidatesWithTheStoreValidator() {
+    BlobStoreValidator validator = mock(BlobStoreValidator.class);
+    MultiRangeDownloadRequest request =
+        MultiRangeDownloadRequest.builder()
+            .withKey(TEST_KEY)
+            .withRanges(List.of(ByteRange.of(0, 9)))
+            .build();
+    IllegalArgumentException rejected = new IllegalArgumentException("rejected by the store");
+    when(mockBlobStore.getValidator()).thenReturn(validator);
+    doThrow(rejected).when(validator).validate(request);
+
+    ExecutionException thrown =
+        assertThrows(
+            ExecutionException.class,
+            () -> asyncWrapper.downloadRanges(request).get(5, TimeUnit.SECONDS));
+
+    assertSame(rejected, thrown.getCause());
+    verify(mockBlobStore, never()).download(any(DownloadRequest.class), any(ByteArray.class));
+  }
+
   @Test
   void testUploadWithInputStream() throws Exception {
     // Given
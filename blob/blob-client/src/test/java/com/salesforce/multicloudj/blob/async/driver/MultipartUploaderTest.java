@@ -0,0 +1,281 @@
+package com.salesforce.multicloudj.blob.async.driver;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import com.salesforce.multicloudj.blob.driver.MultipartPart;
+import com.salesforce.multicloudj.blob.driver.MultipartUpload;
+import com.salesforce.multicloudj.blob.driver.MultipartUploadRequest;
+import com.salesforce.multicloudj.blob.driver.MultipartUploadResponse;
+import com.salesforce.multicloudj.blob.driver.UploadPartResponse;
+import com.salesforce.multicloudj.common.exceptions.InvalidArgumentException;
+import com.salesforce.multicloudj.common.exceptions.ResourceExhaustedException;
+import java.nio.ByteBuffer;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Flow;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Predicate;
+import java.util.stream.Collectors;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+
+class MultipartUploaderTest {
+
+  private final MultipartUpload mpu =
+      MultipartUpload.builder().bucket("bucket-1").key("big").id("upload-1").build();
+  private final MultipartUploadRequest request =
+      new MultipartUploadRequest.Builder().withKey("big").build();
+  private AsyncBlobStore store;
+
+  /** Emits its chunks one per requested item, on the requesting thread. */
+  private static class ChunkPublisher implements Flow.Publisher<ByteBuffer> {
+    private final List<byte[]> chunks;
+    private final RuntimeException failure;
+    private final AtomicInteger emitted = new AtomicInteger();
+    private volatile boolean cancelled;
+
+    ChunkPublisher(List<byte[]> chunks, RuntimeException failure) {
+      this.chunks = chunks;
+      this.failure = failure;
+    }
+
+    @Override
+    public void subscribe(Flow.Subscriber<? super ByteBuffer> subscriber) {
+      subscriber.onSubscribe(
+          new Flow.Subscription() {
+            @Override
+            public void request(long n) {
+              for (long i = 0; i < n && !cancelled; i++) {
+                int next = emitted.getAndIncrement();
+                if (next < chunks.size()) {
+                  subscriber.onNext(ByteBuffer.wrap(chunks.get(next)));
+                } else if (next == chunks.size()) {
+                  if (failure != null) {
+                    subscriber.onError(failure);
+                  } else {
+                    subscriber.onComplete();
+                  }
+                }
+              }
+            }
+
+            @Override
+            public void cancel() {
+              cancelled = true;
+            }
+          });
+    }
+  }
+
+  @BeforeEach
+  void setUp() {
+    store = mock(AsyncBlobStore.class);
+    when(store.initiateMultipartUpload(any())).thenReturn(CompletableFuture.completedFuture(mpu));
+    when(store.completeMultipartUpload(any(), any()))
+        .thenReturn(CompletableFuture.completedFuture(new MultipartUploadResponse("etag-1")));
+    when(store.abortMultipartUpload(any())).thenReturn(CompletableFuture.completedFuture(null));
+  }
+
+  private MultipartUploader uploader(long partSize, long maxInFlightBytes) {
+    return uploader(partSize, maxInFlightBytes, e -> false);
+  }
+
+  private MultipartUploader uploader(
+      long partSize, long maxInFlightBytes, Predicate<Throwable> retryable) {
+    return new MultipartUploader(
+        store, partSize, maxInFlightBytes, 3, retryable, Duration.ofMillis(1));
+  }
+
+  private static List<byte[]> chunks(int count, int size) {
+    List<byte[]> chunks = new ArrayList<>();
+    for (int i = 0; i < count; i++) {
+      byte[] chunk = new byte[size];
+      for (int j = 0; j < size; j++) {
+        chunk[j] = (byte) (i * size + j);
+      }
+      chunks.add(chunk);
+    }
+    return chunks;
+  }
+
+  private static CompletableFuture<UploadPartResponse> uploaded(MultipartPart part) {
+    return CompletableFuture.completedFuture(
+        new UploadPartResponse(
+            part.getPartNumber(), "etag-" + part.getPartNumber(), part.getContentLength()));
+  }
+
+  @Test
+  void testPipelinesPartsWithinInFlightLimit() throws Exception {
+    Map<Integer, CompletableFuture<UploadPartResponse>> pending = new ConcurrentHashMap<>();
+    Map<Integer, MultipartPart> received = new ConcurrentHashMap<>();
+    when(store.uploadMultipartPart(any(), any()))
+        .thenAnswer(
+            invocation -> {
+              MultipartPart part = invocation.getArgument(1);
+              received.put(part.getPartNumber(), part);
+              CompletableFuture<UploadPartResponse> future = new CompletableFuture<>();
+              pending.put(part.getPartNumber(), future);
+              return future;
+            });
+    ChunkPublisher source = new ChunkPublisher(chunks(5, 4), null);
+
+    CompletableFuture<MultipartUploadResponse> result = uploader(4, 8).upload(request, source);
+
+    assertEquals(2, pending.size());
+    assertEquals(2, source.emitted.get());
+    for (int part = 1; part <= 5; part++) {
+      pending.get(part).complete(uploaded(received.get(part)).join());
+    }
+    assertEquals("etag-1", result.get(5, TimeUnit.SECONDS).getEtag());
+    for (int part = 1; part <= 5; part++) {
+      assertArrayEquals(
+          chunks(5, 4).get(part - 1), received.get(part).getInputStream().readAllBytes());
+    }
+
+    @SuppressWarnings("unchecked")
+    ArgumentCaptor<List<UploadPartResponse>> parts = ArgumentCaptor.forClass(List.class);
+    verify(store).completeMultipartUpload(any(), parts.capture());
+    assertEquals(
+        List.of(1, 2, 3, 4, 5),
+        parts.getValue().stream()
+            .map(UploadPartResponse::getPartNumber)
+            .collect(Collectors.toList()));
+  }
+
+  @Test
+  void testChunksAreCutIntoPartsAcrossBoundaries() throws Exception {
+    List<Integer> sizes = new ArrayList<>();
+    when(store.uploadMultipartPart(any(), any()))
+        .thenAnswer(
+            invocation -> {
+              MultipartPart part = invocation.getArgument(1);
+              sizes.add((int) part.getContentLength());
+              return uploaded(part);
+            });
+
+    uploader(4, 16).upload(request, new ChunkPublisher(chunks(3, 3), null)).get();
+
+    assertEquals(List.of(4, 4, 1), sizes);
+  }
+
+  @Test
+  void testRetriesFailedPart() throws Exception {
+    AtomicInteger attempts = new AtomicInteger();
+    RuntimeException throttled = new IllegalStateException("slow down");
+    when(store.uploadMultipartPart(any(), any()))
+        .thenAnswer(
+            invocation -> {
+              MultipartPart part = invocation.getArgument(1);
+              if (part.getPartNumber() == 2 && attempts.incrementAndGet() == 1) {
+                return CompletableFuture.failedFuture(throttled);
+              }
+              return uploaded(part);
+            });
+
+    MultipartUploadResponse response =
+        uploader(4, 8, e -> e == throttled)
+            .upload(request, new ChunkPublisher(chunks(3, 4), null))
+            .get(5, TimeUnit.SECONDS);
+
+    assertEquals("etag-1", response.getEtag());
+    assertEquals(2, attempts.get());
+    verify(store, never()).abortMultipartUpload(any());
+  }
+
+  @Test
+  void testRetriesWhatTheStoreMapsAsRetryable() throws Exception {
+    AtomicInteger attempts = new AtomicInteger();
+    RuntimeException throttled = new IllegalStateException("slow down");
+    when(store.mapException(any())).thenReturn(new ResourceExhaustedException("throttled"));
+    when(store.uploadMultipartPart(any(), any()))
+        .thenAnswer(
+            invocation -> {
+              MultipartPart part = invocation.getArgument(1);
+              return attempts.incrementAndGet() == 1
+                  ? CompletableFuture.failedFuture(throttled)
+                  : uploaded(part);
+            });
+
+    new MultipartUploader(store, 4, 8, 2)
+        .upload(request, new ChunkPublisher(chunks(1, 4), null))
+        .get(5, TimeUnit.SECONDS);
+
+    assertEquals(2, attempts.get());
+    verify(store).mapException(throttled);
+  }
+
+  @Test
+  void testFailedPartCancelsSourceAndAborts() {
+    RuntimeException denied = new IllegalStateException("denied");
+    when(store.uploadMultipartPart(any(), any()))
+        .thenAnswer(
+            invocation -> {
+              MultipartPart part = invocation.getArgument(1);
+              return part.getPartNumber() == 2
+                  ? CompletableFuture.failedFuture(denied)
+                  : uploaded(part);
+            });
+    ChunkPublisher source = new ChunkPublisher(chunks(10, 4), null);
+
+    ExecutionException thrown =
+        assertThrows(
+            ExecutionException.class, () -> uploader(4, 8).upload(request, source).get());
+
+    assertSame(denied, thrown.getCause());
+    assertTrue(source.cancelled);
+    assertTrue(source.emitted.get() < 10);
+    verify(store).abortMultipartUpload(mpu);
+    verify(store, never()).completeMultipartUpload(any(), any());
+  }
+
+  @Test
+  void testSourceFailureAborts() {
+    RuntimeException broken = new IllegalStateException("broken pipe");
+    when(store.uploadMultipartPart(any(), any()))
+        .thenAnswer(invocation -> uploaded(invocation.getArgument(1)));
+
+    ExecutionException thrown =
+        assertThrows(
+            ExecutionException.class,
+            () -> uploader(4, 8).upload(request, new ChunkPublisher(chunks(2, 4), broken)).get());
+
+    assertSame(broken, thrown.getCause());
+    verify(store).abortMultipartUpload(mpu);
+    verify(store, never()).completeMultipartUpload(any(), any());
+  }
+
+  @Test
+  void testEmptySourceUploadsOneEmptyPart() throws Exception {
+    ArgumentCaptor<MultipartPart> parts = ArgumentCaptor.forClass(MultipartPart.class);
+    when(store.uploadMultipartPart(any(), parts.capture()))
+        .thenAnswer(invocation -> uploaded(invocation.getArgument(1)));
+
+    uploader(4, 8).upload(request, new ChunkPublisher(List.of(), null)).get();
+
+    assertEquals(1, parts.getAllValues().size());
+    assertEquals(0, parts.getValue().getContentLength());
+    assertNotNull(parts.getValue().getContent());
+  }
+
+  @Test
+  void testRejectsInFlightLimitBelowPartSize() {
+    assertThrows(InvalidArgumentException.class, () -> uploader(8, 4));
+  }
+}
@@ -0,0 +1,113 @@
+package com.salesforce.multicloudj.blob.client;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+import com.salesforce.multicloudj.blob.driver.ReadChannelOptions;
+import java.nio.ByteBuffer;
+import java.nio.channels.ClosedChannelException;
+import java.nio.channels.NonWritableChannelException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+public class BlobReadChannelTest {
+
+  private static final int BLOCK = 16;
+
+  private byte[] object;
+  private List<long[]> requests;
+  private BlobReadChannel channel;
+
+  @BeforeEach
+  void setup() {
+    object = new byte[1000];
+    for (int i = 0; i < object.length; i++) {
+      object[i] = (byte) i;
+    }
+    requests = new ArrayList<>();
+    channel =
+        new BlobReadChannel(
+            object.length,
+            ReadChannelOptions.builder()
+                .blockSizeInBytes(BLOCK)
+                .initialReadAheadBlocks(1)
+                .maxReadAheadBlocks(8)
+                .cacheBlocks(16)
+                .build(),
+            (start, end) -> {
+              requests.add(new long[] {start, end});
+              return Arrays.copyOfRange(object, (int) start, (int) end + 1);
+            });
+  }
+
+  private byte[] readAt(long position, int length) throws Exception {
+    channel.position(position);
+    ByteBuffer buffer = ByteBuffer.allocate(length);
+    while (buffer.hasRemaining() && channel.read(buffer) > 0) {
+      // keep reading
+    }
+    return Arrays.copyOf(buffer.array(), buffer.position());
+  }
+
+  @Test
+  void testRandomReadsReturnObjectBytes() throws Exception {
+    assertArrayEquals(Arrays.copyOfRange(object, 990, 1000), readAt(990, 10));
+    assertArrayEquals(Arrays.copyOfRange(object, 5, 45), readAt(5, 40));
+    assertArrayEquals(Arrays.copyOfRange(object, 500, 501), readAt(500, 1));
+    assertEquals(1000, channel.size());
+  }
+
+  @Test
+  void testReadPastEndReturnsMinusOne() throws Exception {
+    channel.position(1000);
+    assertEquals(-1, channel.read(ByteBuffer.allocate(4)));
+    assertArrayEquals(Arrays.copyOfRange(object, 996, 1000), readAt(996, 10));
+  }
+
+  @Test
+  void testCachedBlocksAreNotRefetched() throws Exception {
+    readAt(990, 10);
+    readAt(100, 10);
+    int fetches = channel.getFetchCount();
+    readAt(992, 4);
+    readAt(104, 4);
+    assertEquals(fetches, channel.getFetchCount());
+  }
+
+  @Test
+  void testReadAheadGrowsOnSequentialReadsAndResetsOnSeek() throws Exception {
+    channel.position(0);
+    for (int i = 0; i < 5; i++) {
+      channel.read(ByteBuffer.allocate(BLOCK));
+    }
+    assertEquals(8, channel.getReadAhead());
+    // Sequential reads are served by progressively larger spans, so fewer GETs than blocks.
+    assertEquals(3, channel.getFetchCount());
+
+    readAt(600, 4);
+    assertEquals(1, channel.getReadAhead());
+  }
+
+  @Test
+  void testMissingBlocksOfOneReadAreCoalesced() throws Exception {
+    byte[] bytes = readAt(40, 100);
+    assertArrayEquals(Arrays.copyOfRange(object, 40, 140), bytes);
+    assertEquals(1, requests.size());
+    assertEquals(32, requests.get(0)[0]);
+    assertEquals(143, requests.get(0)[1]);
+  }
+
+  @Test
+  void testWriteAndClose() throws Exception {
+    assertThrows(NonWritableChannelException.class, () -> channel.write(ByteBuffer.allocate(1)));
+    assertThrows(NonWritableChannelException.class, () -> channel.truncate(0));
+    channel.close();
+    assertFalse(channel.isOpen());
+    assertThrows(ClosedChannelException.class, () -> channel.read(ByteBuffer.allocate(1)));
+  }
+}
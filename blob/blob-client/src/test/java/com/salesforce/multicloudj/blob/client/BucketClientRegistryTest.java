@@ -0,0 +1,163 @@
+package com.salesforce.multicloudj.blob.client;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotSame;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.mockito.Mockito.mockStatic;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.spy;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+
+import com.google.common.base.Ticker;
+import com.salesforce.multicloudj.blob.driver.AbstractBlobStore;
+import com.salesforce.multicloudj.blob.driver.TestBlobStore;
+import com.salesforce.multicloudj.sts.model.CredentialsOverrider;
+import com.salesforce.multicloudj.sts.model.CredentialsType;
+import com.salesforce.multicloudj.sts.model.StsCredentials;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.MockedStatic;
+
+class BucketClientRegistryTest {
+
+  private static final Duration IDLE_TIMEOUT = Duration.ofMinutes(1);
+
+  private final List<AbstractBlobStore> built = new ArrayList<>();
+  private final AtomicBoolean failBuild = new AtomicBoolean();
+  private final AtomicLong nanos = new AtomicLong();
+  private final Ticker ticker =
+      new Ticker() {
+        @Override
+        public long read() {
+          return nanos.get();
+        }
+      };
+  private final CredentialsOverrider credentials =
+      new CredentialsOverrider.Builder(CredentialsType.SESSION)
+          .withSessionCredentials(new StsCredentials("keyId", "keySecret", "token"))
+          .build();
+
+  private MockedStatic<ProviderSupplier> providerSupplier;
+  private BucketClientRegistry registry;
+
+  private class RecordingBuilder extends TestBlobStore.Builder {
+    @Override
+    public TestBlobStore build() {
+      if (failBuild.get()) {
+        throw new IllegalStateException("no credentials");
+      }
+      TestBlobStore store = spy(super.build());
+      built.add(store);
+      return store;
+    }
+  }
+
+  @BeforeEach
+  void setup() {
+    providerSupplier = mockStatic(ProviderSupplier.class);
+    providerSupplier
+        .when(() -> ProviderSupplier.findProviderBuilder("test"))
+        .thenAnswer(invocation -> new RecordingBuilder());
+    registry = new BucketClientRegistry(IDLE_TIMEOUT, ticker);
+  }
+
+  @AfterEach
+  void teardown() {
+    providerSupplier.close();
+  }
+
+  private BucketClient.BlobBuilder builder(String bucket) {
+    return BucketClient.builder("test")
+        .withBucket(bucket)
+        .withRegion("us-west-1")
+        .withCredentialsOverrider(credentials)
+        .withMaxConnections(100);
+  }
+
+  @Test
+  void testSameSettingsReuseOneClient() {
+    BucketClientRegistry.Handle first = registry.acquire(builder("bucket-1"));
+    BucketClientRegistry.Handle second = registry.acquire(builder("bucket-1"));
+
+    assertSame(first.get(), second.get());
+    assertEquals(1, built.size());
+    assertEquals(1, registry.size());
+  }
+
+  @Test
+  void testDifferingSettingsGetTheirOwnClients() {
+    BucketClientRegistry.Handle first = registry.acquire(builder("bucket-1"));
+    BucketClientRegistry.Handle otherBucket = registry.acquire(builder("bucket-2"));
+    BucketClientRegistry.Handle otherPool =
+        registry.acquire(builder("bucket-1").withMaxConnections(10));
+
+    assertNotSame(first.get(), otherBucket.get());
+    assertNotSame(first.get(), otherPool.get());
+    assertEquals("bucket-2", otherBucket.get().getBucket());
+    assertEquals(3, registry.size());
+  }
+
+  @Test
+  void testEvictsOnlyClientsIdleForTheTimeout() throws Exception {
+    BucketClientRegistry.Handle idle = registry.acquire(builder("idle"));
+    BucketClientRegistry.Handle busy = registry.acquire(builder("busy"));
+    idle.close();
+    idle.close();
+
+    nanos.addAndGet(IDLE_TIMEOUT.toNanos() - 1);
+    registry.evictIdle();
+    assertEquals(2, registry.size());
+
+    nanos.addAndGet(1);
+    registry.evictIdle();
+    assertEquals(1, registry.size());
+    verify(built.get(0), times(1)).close();
+    verify(built.get(1), never()).close();
+    assertSame(busy.get(), registry.acquire(builder("busy")).get());
+  }
+
+  @Test
+  void testAcquireSweepsIdleClients() throws Exception {
+    registry.acquire(builder("idle")).close();
+
+    nanos.addAndGet(IDLE_TIMEOUT.toNanos());
+    registry.acquire(builder("fresh"));
+
+    verify(built.get(0)).close();
+    assertEquals(1, registry.size());
+  }
+
+  @Test
+  void testCloseLeavesReferencedClientsUntilReleased() throws Exception {
+    registry.acquire(builder("idle")).close();
+    BucketClientRegistry.Handle busy = registry.acquire(builder("busy"));
+
+    registry.close();
+    verify(built.get(0)).close();
+    verify(built.get(1), never()).close();
+    assertThrows(IllegalStateException.class, () -> registry.acquire(builder("busy")));
+
+    busy.close();
+    verify(built.get(1)).close();
+    assertEquals(0, registry.size());
+  }
+
+  @Test
+  void testFailedBuildIsNotCached() {
+    failBuild.set(true);
+    assertThrows(IllegalStateException.class, () -> registry.acquire(builder("bucket-1")));
+    assertEquals(0, registry.size());
+
+    failBuild.set(false);
+    registry.acquire(builder("bucket-1"));
+    assertEquals(1, built.size());
+  }
+}
@@ -16,6 +16,7 @@ import static org.mockito.Mockito.doReturn;
 import static org.mockito.Mockito.doThrow;
 import static org.mockito.Mockito.mock;
 import static org.mockito.Mockito.mockStatic;
+import static org.mockito.Mockito.never;
 import static org.mockito.Mockito.times;
 import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
@@ -23,29 +24,41 @@ import static org.mockito.Mockito.when;
 import com.salesforce.multicloudj.blob.driver.AbstractBlobStore;
 import com.salesforce.multicloudj.blob.driver.BlobIdentifier;
 import com.salesforce.multicloudj.blob.driver.BlobMetadata;
+import com.salesforce.multicloudj.blob.driver.BlobStoreValidator;
 import com.salesforce.multicloudj.blob.driver.ByteArray;
+import com.salesforce.multicloudj.blob.driver.ByteRange;
 import com.salesforce.multicloudj.blob.driver.Checksum;
 import com.salesforce.multicloudj.blob.driver.ChecksumMethod;
 import com.salesforce.multicloudj.blob.driver.CopyRequest;
 import com.salesforce.multicloudj.blob.driver.CopyResponse;
+import com.salesforce.multicloudj.blob.driver.DirectorySyncResponse;
 import com.salesforce.multicloudj.blob.driver.DownloadRequest;
 import com.salesforce.multicloudj.blob.driver.DownloadResponse;
+import com.salesforce.multicloudj.blob.driver.KeyRange;
 import com.salesforce.multicloudj.blob.driver.ListBlobVersionsRequest;
 import com.salesforce.multicloudj.blob.driver.ListBlobsPageRequest;
 import com.salesforce.multicloudj.blob.driver.ListBlobsPageResponse;
 import com.salesforce.multicloudj.blob.driver.ListBlobsRequest;
+import com.salesforce.multicloudj.blob.driver.MultiRangeDownloadRequest;
+import com.salesforce.multicloudj.blob.driver.MultiRangeDownloadResponse;
 import com.salesforce.multicloudj.blob.driver.MultipartPart;
 import com.salesforce.multicloudj.blob.driver.MultipartUpload;
 import com.salesforce.multicloudj.blob.driver.MultipartUploadRequest;
 import com.salesforce.multicloudj.blob.driver.ObjectLockConfiguration;
 import com.salesforce.multicloudj.blob.driver.ObjectLockInfo;
+import com.salesforce.multicloudj.blob.driver.PrefixUsage;
+import com.salesforce.multicloudj.blob.driver.PrefixUsageRequest;
 import com.salesforce.multicloudj.blob.driver.PresignedOperation;
 import com.salesforce.multicloudj.blob.driver.PresignedUrlRequest;
 import com.salesforce.multicloudj.blob.driver.PresignedUrlResponse;
+import com.salesforce.multicloudj.blob.driver.ReadChannelOptions;
 import com.salesforce.multicloudj.blob.driver.RetentionMode;
+import com.salesforce.multicloudj.blob.driver.SyncDirection;
+import com.salesforce.multicloudj.blob.driver.SyncOptions;
 import com.salesforce.multicloudj.blob.driver.UploadPartResponse;
 import com.salesforce.multicloudj.blob.driver.UploadRequest;
 import com.salesforce.multicloudj.blob.driver.UploadResponse;
+import com.salesforce.multicloudj.common.exceptions.SubstrateSdkException;
 import com.salesforce.multicloudj.common.exceptions.UnAuthorizedException;
 import com.salesforce.multicloudj.common.observability.OperationContext;
 import com.salesforce.multicloudj.common.retries.RetryConfig;
@@ -57,10 +70,13 @@ import java.io.IOException;
 import java.io.InputStream;
 import java.io.OutputStream;
 import java.net.URI;
+import java.nio.ByteBuffer;
+import java.nio.channels.SeekableByteChannel;
 import java.nio.file.Path;
 import java.nio.file.Paths;
 import java.time.Duration;
 import java.time.Instant;
+import java.util.Arrays;
 import java.util.Collections;
 import java.util.HashMap;
 import java.util.Iterator;
@@ -84,6 +100,7 @@ public class BucketClientTest {
   void setup() {
     mockBlobStore = mock(AbstractBlobStore.class);
     doReturn(new UnAuthorizedException()).when(mockBlobStore).mapException(any());
+    doReturn(new BlobStoreValidator()).when(mockBlobStore).getValidator();
     providerSupplier = mockStatic(ProviderSupplier.class);
     AbstractBlobStore.Builder mockBuilder = mock(AbstractBlobStore.Builder.class);
     when(mockBuilder.build()).thenReturn(mockBlobStore);
@@ -233,6 +250,74 @@ public class BucketClientTest {
     verify(mockBlobStore, times(1)).download(eq(request), eq(byteArray));
   }
 
+  @Test
+  void testOpenChannelRejectsNonPositiveOptions() {
+    assertThrows(
+        SubstrateSdkException.class,
+        () ->
+            client.openChannel(
+                "object-1", null, ReadChannelOptions.builder().blockSizeInBytes(0).build()));
+    verify(mockBlobStore).mapException(any(IllegalArgumentException.class));
+    verify(mockBlobStore, never()).getMetadata(any(), any());
+  }
+
+  @Test
+  void testOpenChannelPinsVersionAndReadsRanges() throws IOException {
+    when(mockBlobStore.getMetadata(any(), any()))
+        .thenReturn(BlobMetadata.builder().key("object-1").versionId("v7").objectSize(10).build());
+    doAnswer(
+            invocation -> {
+              DownloadRequest request = invocation.getArgument(0);
+              byte[] bytes = new byte[(int) (request.getEnd() - request.getStart() + 1)];
+              Arrays.fill(bytes, (byte) 'x');
+              ((ByteArray) invocation.getArgument(1)).setBytes(bytes);
+              return null;
+            })
+        .when(mockBlobStore)
+        .download(any(), any(ByteArray.class));
+
+    try (SeekableByteChannel channel = client.openChannel("object-1", null)) {
+      assertEquals(10, channel.size());
+      ByteBuffer buffer = ByteBuffer.allocate(4);
+      channel.position(6);
+      assertEquals(4, channel.read(buffer));
+      assertEquals(-1, channel.read(ByteBuffer.allocate(1)));
+    }
+    verify(mockBlobStore)
+        .download(
+            argThat(
+                r ->
+                    "object-1".equals(r.getKey())
+                        && "v7".equals(r.getVersionId())
+                        && r.getStart() == 0
+                        && r.getEnd() == 9),
+            any(ByteArray.class));
+  }
+
+  @Test
+  void testDownloadRangesDelegatesWithCorrelationId() {
+    MultiRangeDownloadResponse stored =
+        MultiRangeDownloadResponse.builder()
+            .key("object-1")
+            .ranges(List.of(ByteRange.of(0, 1)))
+            .buffers(List.of(ByteBuffer.wrap(new byte[] {1, 2})))
+            .requestCount(1)
+            .build();
+    when(mockBlobStore.downloadRanges(any())).thenReturn(stored);
+
+    MultiRangeDownloadRequest request =
+        MultiRangeDownloadRequest.builder()
+            .withKey("object-1")
+            .withRanges(List.of(ByteRange.of(0, 1)))
+            .withOperationContext(OperationContext.builder().correlationId("corr-1").build())
+            .build();
+    MultiRangeDownloadResponse response = client.downloadRanges(request);
+
+    verify(mockBlobStore).downloadRanges(request);
+    assertEquals("corr-1", response.getCorrelationId());
+    assertSame(stored.getBuffers(), response.getBuffers());
+  }
+
   @Test
   void testDownloadFile() {
     File file = new File("fake.txt");
@@ -882,6 +967,36 @@ public class BucketClientTest {
     assertContextPropagated(captured);
   }
 
+  @Test
+  void testSplitKeyRange() {
+    List<KeyRange> expected = List.of(KeyRange.of(null, "m\0"), KeyRange.of("m", null));
+    doReturn(expected).when(mockBlobStore).splitKeyRange("prefix/", 2);
+
+    assertEquals(expected, client.splitKeyRange("prefix/", 2));
+    verify(mockBlobStore, times(1)).splitKeyRange("prefix/", 2);
+  }
+
+  @Test
+  void testSyncDirectory() {
+    Path local = Path.of("artifacts");
+    SyncOptions options = SyncOptions.builder().direction(SyncDirection.UPLOAD).build();
+    DirectorySyncResponse expected = DirectorySyncResponse.builder().transferredCount(3).build();
+    doReturn(expected).when(mockBlobStore).syncDirectory(local, "models/", options);
+
+    assertEquals(expected, client.syncDirectory(local, "models/", options));
+    verify(mockBlobStore, times(1)).syncDirectory(local, "models/", options);
+  }
+
+  @Test
+  void testComputeUsage() {
+    List<PrefixUsage> expected = List.of(new PrefixUsage("tenants/a/", 2, 10, 0, 0));
+    PrefixUsageRequest request = PrefixUsageRequest.builder().prefix("tenants/").depth(1).build();
+    doReturn(expected).when(mockBlobStore).computeUsage(request);
+
+    assertEquals(expected, client.computeUsage(request));
+    verify(mockBlobStore, times(1)).computeUsage(request);
+  }
+
   /**
    * The initiateMultipartUpload path carries the resolved OperationContext into the request that is
    * forwarded to the driver, so the driver observes a request whose context correlationId has been
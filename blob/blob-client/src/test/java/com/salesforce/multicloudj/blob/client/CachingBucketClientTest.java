@@ -0,0 +1,212 @@
+package com.salesforce.multicloudj.blob.client;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.isNull;
+import static org.mockito.Mockito.doAnswer;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+import com.google.common.base.Ticker;
+import com.salesforce.multicloudj.blob.driver.BlobMetadata;
+import com.salesforce.multicloudj.blob.driver.BlockCacheOptions;
+import com.salesforce.multicloudj.blob.driver.ByteArray;
+import com.salesforce.multicloudj.blob.driver.DownloadRequest;
+import com.salesforce.multicloudj.blob.driver.DownloadResponse;
+import com.salesforce.multicloudj.common.exceptions.ResourceConflictException;
+import java.io.ByteArrayOutputStream;
+import java.io.OutputStream;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+class CachingBucketClientTest {
+
+  private static final int BLOCK = 1024;
+
+  private final ExecutorService executor = Executors.newFixedThreadPool(4);
+  private final BucketClient bucket = mock(BucketClient.class);
+  private final AtomicInteger gets = new AtomicInteger();
+  private final AtomicInteger heads = new AtomicInteger();
+  private final AtomicLong nanos = new AtomicLong();
+  private final Ticker ticker =
+      new Ticker() {
+        @Override
+        public long read() {
+          return nanos.get();
+        }
+      };
+  private volatile byte[] content = random(10_000, 1);
+  private volatile String eTag = "\"v1\"";
+  private volatile CountDownLatch gate = new CountDownLatch(0);
+
+  @BeforeEach
+  void setUp() {
+    when(bucket.getMetadata(anyString(), isNull()))
+        .thenAnswer(
+            invocation -> {
+              heads.incrementAndGet();
+              return metadata();
+            });
+    when(bucket.download(any(DownloadRequest.class), any(ByteArray.class)))
+        .thenAnswer(
+            invocation -> {
+              gets.incrementAndGet();
+              gate.await(5, TimeUnit.SECONDS);
+              DownloadRequest request = invocation.getArgument(0);
+              byte[] data = content;
+              int end = (int) Math.min(request.getEnd() + 1, data.length);
+              ((ByteArray) invocation.getArgument(1))
+                  .setBytes(Arrays.copyOfRange(data, request.getStart().intValue(), end));
+              return DownloadResponse.builder().key(request.getKey()).metadata(metadata()).build();
+            });
+  }
+
+  @AfterEach
+  void tearDown() {
+    executor.shutdownNow();
+  }
+
+  private BlobMetadata metadata() {
+    return BlobMetadata.builder().key("data.parquet").eTag(eTag).objectSize(content.length).build();
+  }
+
+  private static byte[] random(int length, long seed) {
+    byte[] bytes = new byte[length];
+    new Random(seed).nextBytes(bytes);
+    return bytes;
+  }
+
+  private CachingBucketClient client() {
+    return new CachingBucketClient(
+        bucket,
+        BlockCacheOptions.builder()
+            .blockSizeInBytes(BLOCK)
+            .capacityInBytes(64 * BLOCK)
+            .maxConcurrency(3)
+            .metadataTtl(Duration.ofSeconds(10))
+            .build(),
+        executor,
+        ticker);
+  }
+
+  private static byte[] read(CachingBucketClient client, Long start, Long end) {
+    DownloadRequest.Builder request = DownloadRequest.builder().withKey("data.parquet");
+    if (start != null || end != null) {
+      request.withRange(start, end);
+    }
+    ByteArrayOutputStream out = new ByteArrayOutputStream();
+    client.download(request.build(), out);
+    return out.toByteArray();
+  }
+
+  @Test
+  void testRepeatedRangesAreServedFromCache() {
+    CachingBucketClient client = client();
+
+    assertArrayEquals(Arrays.copyOfRange(content, 9000, 10_000), read(client, null, 1000L));
+    assertArrayEquals(Arrays.copyOfRange(content, 1500, 4600), read(client, 1500L, 4599L));
+    assertEquals(2 + 4, gets.get());
+
+    for (int i = 0; i < 100; i++) {
+      assertArrayEquals(Arrays.copyOfRange(content, 9000, 10_000), read(client, null, 1000L));
+      assertArrayEquals(Arrays.copyOfRange(content, 2000, 2100), read(client, 2000L, 2099L));
+    }
+    assertArrayEquals(content, read(client, null, null));
+
+    assertEquals(2 + 4 + 4, gets.get());
+    assertEquals(1, heads.get());
+    assertEquals(4 * 100 + 6, client.getCache().getHitCount());
+  }
+
+  @Test
+  void testConcurrentMissesShareOneFetch() throws Exception {
+    CachingBucketClient client = client();
+    read(client, 0L, 0L);
+    gate = new CountDownLatch(1);
+    gets.set(0);
+    List<CompletableFuture<byte[]>> readers = new ArrayList<>();
+    for (int i = 0; i < 8; i++) {
+      readers.add(CompletableFuture.supplyAsync(() -> read(client, 5000L, 5100L)));
+    }
+    Thread.sleep(200);
+    gate.countDown();
+
+    for (CompletableFuture<byte[]> reader : readers) {
+      assertArrayEquals(Arrays.copyOfRange(content, 5000, 5101), reader.get(5, TimeUnit.SECONDS));
+    }
+    assertEquals(1, gets.get());
+  }
+
+  @Test
+  void testMetadataExpiresAndNewVersionIsRead() {
+    CachingBucketClient client = client();
+    assertArrayEquals(Arrays.copyOfRange(content, 0, 100), read(client, 0L, 99L));
+
+    byte[] old = content;
+    content = random(10_000, 2);
+    eTag = "\"v2\"";
+    assertArrayEquals(Arrays.copyOfRange(old, 0, 100), read(client, 0L, 99L));
+
+    nanos.addAndGet(Duration.ofSeconds(11).toNanos());
+    assertArrayEquals(Arrays.copyOfRange(content, 0, 100), read(client, 0L, 99L));
+    assertEquals(2, heads.get());
+  }
+
+  @Test
+  void testOverwriteDuringReadStartsOverOrFails() {
+    CachingBucketClient client = client();
+    assertArrayEquals(Arrays.copyOfRange(content, 0, 10), read(client, 0L, 9L));
+    content = random(10_000, 3);
+    eTag = "\"v3\"";
+
+    assertArrayEquals(Arrays.copyOfRange(content, 5000, 5010), read(client, 5000L, 5009L));
+    assertEquals(2, heads.get());
+
+    read(client, 0L, 0L);
+    eTag = "\"v4\"";
+    content = random(10_000, 4);
+    OutputStream sink = new ByteArrayOutputStream();
+    assertThrows(
+        ResourceConflictException.class,
+        () ->
+            client.download(
+                DownloadRequest.builder().withKey("data.parquet").withRange(0L, 3000L).build(),
+                sink));
+  }
+
+  @Test
+  void testObjectChangingAgainOnTheSecondReadFails() {
+    doAnswer(
+            invocation -> {
+              heads.incrementAndGet();
+              return BlobMetadata.builder()
+                  .key("data.parquet")
+                  .eTag("\"stale\"")
+                  .objectSize(content.length)
+                  .build();
+            })
+        .when(bucket)
+        .getMetadata(anyString(), isNull());
+    CachingBucketClient client = client();
+
+    assertThrows(ResourceConflictException.class, () -> read(client, 0L, 99L));
+    assertEquals(2, heads.get());
+    assertEquals(0, client.getCache().size());
+  }
+}
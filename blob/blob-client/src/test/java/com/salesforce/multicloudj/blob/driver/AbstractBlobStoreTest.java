@@ -2,6 +2,7 @@ package com.salesforce.multicloudj.blob.driver;
 
 import static org.junit.jupiter.api.Assertions.assertEquals;
 import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertSame;
 import static org.junit.jupiter.api.Assertions.assertThrows;
 import static org.junit.jupiter.api.Assertions.assertTrue;
 import static org.mockito.ArgumentMatchers.any;
@@ -15,19 +16,28 @@ import static org.mockito.Mockito.spy;
 import static org.mockito.Mockito.times;
 import static org.mockito.Mockito.verify;
 
+import com.salesforce.multicloudj.blob.async.driver.BlobStoreAsyncBridge;
 import com.salesforce.multicloudj.common.exceptions.InvalidArgumentException;
 import com.salesforce.multicloudj.sts.model.CredentialsOverrider;
 import com.salesforce.multicloudj.sts.model.CredentialsType;
 import com.salesforce.multicloudj.sts.model.StsCredentials;
+import java.io.ByteArrayInputStream;
 import java.io.File;
+import java.io.IOException;
 import java.io.InputStream;
 import java.io.OutputStream;
+import java.nio.ByteBuffer;
+import java.nio.channels.Channels;
+import java.nio.channels.ReadableByteChannel;
 import java.nio.file.Path;
 import java.nio.file.Paths;
 import java.time.Duration;
 import java.util.List;
 import java.util.Map;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
 import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.TimeUnit;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.io.TempDir;
@@ -98,6 +108,41 @@ public class AbstractBlobStoreTest {
     assertNotNull(blobStore.validator);
   }
 
+  @Test
+  void testDefaultsToTheSharedBlobExecutor() throws Exception {
+    AbstractBlobStore blobStore = new TestBlobStore.Builder().withBucket("bucket-1").build();
+
+    assertSame(BlobExecutors.defaultExecutor(), blobStore.executorService);
+    Thread worker = blobStore.executorService.submit(Thread::currentThread).get();
+    assertTrue(worker.isDaemon());
+    assertTrue(worker.getName().startsWith("multicloudj-blob-"));
+  }
+
+  @Test
+  void testBulkLookupsThroughTheAsyncBridgeCompleteOnASingleThread() throws Exception {
+    ExecutorService executor = Executors.newSingleThreadExecutor();
+    try {
+      AbstractBlobStore blobStore =
+          new TestBlobStore.Builder().withBucket("bucket-1").withExecutorService(executor).build();
+      BlobStoreAsyncBridge bridge = new BlobStoreAsyncBridge(blobStore, executor);
+      List<BlobIdentifier> objects =
+          List.of(
+              new BlobIdentifier("a", null),
+              new BlobIdentifier("b", null),
+              new BlobIdentifier("c", "v1"));
+
+      Map<BlobIdentifier, Boolean> exists =
+          bridge.doesObjectExist(objects).get(10, TimeUnit.SECONDS);
+      Map<BlobIdentifier, BlobMetadata> metadata =
+          bridge.getMetadata(objects).get(10, TimeUnit.SECONDS);
+
+      assertEquals(List.of(false, false, false), List.copyOf(exists.values()));
+      assertEquals(objects, List.copyOf(metadata.keySet()));
+    } finally {
+      executor.shutdownNow();
+    }
+  }
+
   private UploadRequest getTestUploadRequest() {
     Map<String, String> metadata = Map.of("key-1", "value-1");
     Map<String, String> tags = Map.of("tag-1", "tag-value-1");
@@ -185,6 +230,53 @@ public class AbstractBlobStoreTest {
     assertEquals("tag-value-1", actualUploadRequest.getTags().get("tag-1"));
   }
 
+  @Test
+  void testUploadHeapByteBufferPassesBackingArray() {
+    byte[] content = "heap buffer content".getBytes();
+    mockBlobStore.upload(getTestUploadRequest(), ByteBuffer.wrap(content));
+
+    verify(validator, times(1)).validate(any(UploadRequest.class));
+    verify(mockBlobStore, times(1)).doUpload(any(UploadRequest.class), eq(content));
+  }
+
+  @Test
+  void testUploadDirectByteBufferStreamsInPlace() throws IOException {
+    ByteBuffer buffer = ByteBuffer.allocateDirect(16);
+    buffer.put("direct content".getBytes()).flip();
+    ArgumentCaptor<UploadRequest> requestCaptor = ArgumentCaptor.forClass(UploadRequest.class);
+    ArgumentCaptor<InputStream> inputStreamCaptor = ArgumentCaptor.forClass(InputStream.class);
+    mockBlobStore.upload(getTestUploadRequest(), buffer);
+
+    verify(mockBlobStore, times(1)).doUpload(requestCaptor.capture(), inputStreamCaptor.capture());
+    assertEquals(14, requestCaptor.getValue().getContentLength());
+    assertEquals("direct content", new String(inputStreamCaptor.getValue().readAllBytes()));
+    assertEquals(0, buffer.position());
+  }
+
+  @Test
+  void testUploadChannelOfUnknownLength() throws IOException {
+    ReadableByteChannel channel =
+        Channels.newChannel(new ByteArrayInputStream("channel content".getBytes()));
+    UploadRequest request = UploadRequest.builder().withKey("object-1").build();
+    ArgumentCaptor<UploadRequest> requestCaptor = ArgumentCaptor.forClass(UploadRequest.class);
+    ArgumentCaptor<InputStream> inputStreamCaptor = ArgumentCaptor.forClass(InputStream.class);
+    mockBlobStore.upload(request, channel, -1);
+
+    verify(mockBlobStore, times(1)).doUpload(requestCaptor.capture(), inputStreamCaptor.capture());
+    assertEquals(0, requestCaptor.getValue().getContentLength());
+    assertEquals("channel content", new String(inputStreamCaptor.getValue().readAllBytes()));
+  }
+
+  @Test
+  void testUploadChannelOfKnownLength() {
+    ReadableByteChannel channel = Channels.newChannel(new ByteArrayInputStream(new byte[8]));
+    ArgumentCaptor<UploadRequest> requestCaptor = ArgumentCaptor.forClass(UploadRequest.class);
+    mockBlobStore.upload(UploadRequest.builder().withKey("object-1").build(), channel, 8);
+
+    verify(mockBlobStore, times(1)).doUpload(requestCaptor.capture(), any(InputStream.class));
+    assertEquals(8, requestCaptor.getValue().getContentLength());
+  }
+
   @Test
   void testDoDownloadOutputStream() {
     OutputStream contentOutput = mock(OutputStream.class);
@@ -101,4 +101,20 @@ public class BlobInfoTest {
 
     assertNotEquals(blobInfo1, blobInfo2);
   }
+
+  @Test
+  void testEqualsWithETagAndVersion() {
+    BlobInfo blobInfo1 =
+        BlobInfo.builder().withKey("test-key").withETag("etag-1").withVersionId("v1").build();
+    BlobInfo blobInfo2 =
+        BlobInfo.builder().withKey("test-key").withETag("etag-1").withVersionId("v1").build();
+    BlobInfo blobInfo3 =
+        BlobInfo.builder().withKey("test-key").withETag("etag-2").withVersionId("v1").build();
+
+    assertEquals("etag-1", blobInfo1.getETag());
+    assertEquals("v1", blobInfo1.getVersionId());
+    assertEquals(blobInfo1, blobInfo2);
+    assertEquals(blobInfo1.hashCode(), blobInfo2.hashCode());
+    assertNotEquals(blobInfo1, blobInfo3);
+  }
 }
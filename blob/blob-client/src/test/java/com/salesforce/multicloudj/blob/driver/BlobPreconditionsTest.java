@@ -0,0 +1,88 @@
+package com.salesforce.multicloudj.blob.driver;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.time.Instant;
+import org.junit.jupiter.api.Test;
+
+public class BlobPreconditionsTest {
+
+  private static final Instant MODIFIED = Instant.parse("2026-01-01T10:00:00.750Z");
+
+  @Test
+  void testEmpty() {
+    BlobPreconditions preconditions = BlobPreconditions.builder().build();
+    assertTrue(preconditions.isEmpty());
+    assertFalse(preconditions.isNotModified("etag", MODIFIED));
+    assertFalse(DownloadRequest.builder().withKey("k").withPreconditions(preconditions).build()
+        .isConditional());
+  }
+
+  @Test
+  void testIfNoneMatchComparesWeakly() {
+    BlobPreconditions preconditions = BlobPreconditions.builder().withIfNoneMatch("abc").build();
+    assertTrue(preconditions.isNotModified("\"abc\"", null));
+    assertTrue(preconditions.isNotModified("W/\"abc\"", null));
+    assertFalse(preconditions.isNotModified("\"abd\"", null));
+    assertFalse(preconditions.isNotModified(null, null));
+  }
+
+  @Test
+  void testIfNoneMatchWildcard() {
+    BlobPreconditions preconditions = BlobPreconditions.builder().withIfNoneMatch("*").build();
+    assertTrue(preconditions.isNotModified("anything", null));
+  }
+
+  @Test
+  void testIfMatchFlagsChangedETags() {
+    BlobPreconditions preconditions = BlobPreconditions.builder().withIfMatch("\"abc\"").build();
+    assertFalse(preconditions.isEmpty());
+    assertFalse(preconditions.isChanged("abc"));
+    assertTrue(preconditions.isChanged("\"abd\""));
+    assertFalse(preconditions.isChanged(null));
+    assertFalse(preconditions.isNotModified("abc", MODIFIED));
+    assertFalse(BlobPreconditions.builder().withIfMatch("*").build().isChanged("abd"));
+    assertFalse(BlobPreconditions.builder().build().isChanged("abd"));
+  }
+
+  @Test
+  void testIfModifiedSinceUsesSecondPrecision() {
+    BlobPreconditions notModified =
+        BlobPreconditions.builder()
+            .withIfModifiedSince(Instant.parse("2026-01-01T10:00:00Z"))
+            .build();
+    assertTrue(notModified.isNotModified("etag", MODIFIED));
+    assertFalse(notModified.isNotModified("etag", null));
+
+    BlobPreconditions modified =
+        BlobPreconditions.builder()
+            .withIfModifiedSince(Instant.parse("2026-01-01T09:59:59Z"))
+            .build();
+    assertFalse(modified.isNotModified("etag", MODIFIED));
+  }
+
+  @Test
+  void testIfNoneMatchTakesPrecedenceOverIfModifiedSince() {
+    BlobPreconditions preconditions =
+        BlobPreconditions.builder()
+            .withIfNoneMatch("old")
+            .withIfModifiedSince(MODIFIED.plusSeconds(60))
+            .build();
+    assertFalse(preconditions.isNotModified("new", MODIFIED));
+  }
+
+  @Test
+  void testEvaluateFlagsUnchangedMetadata() {
+    BlobMetadata metadata = BlobMetadata.builder().key("k").eTag("abc").build();
+    BlobPreconditions matching = BlobPreconditions.builder().withIfNoneMatch("abc").build();
+    BlobPreconditions other = BlobPreconditions.builder().withIfNoneMatch("xyz").build();
+
+    BlobMetadata evaluated = matching.evaluate(metadata);
+    assertTrue(evaluated.isNotModified());
+    assertEquals("abc", evaluated.getETag());
+    assertSame(metadata, other.evaluate(metadata));
+  }
+}
@@ -9,6 +9,7 @@ import static org.mockito.Mockito.verify;
 import com.salesforce.multicloudj.common.exceptions.InvalidArgumentException;
 import java.net.URI;
 import java.net.URISyntaxException;
+import java.nio.file.Path;
 import java.time.Duration;
 import java.util.ArrayList;
 import java.util.Arrays;
@@ -161,6 +162,109 @@ public class BlobStoreValidatorTest {
     verify(v).validateKey(key);
   }
 
+  @Test
+  void testValidateUploadCompression() {
+    var request =
+        new UploadRequest.Builder()
+            .withKey("logs.json")
+            .withCompression(BlobCompression.builder().codec(CompressionCodec.GZIP).build())
+            .build();
+    validator.validate(request);
+
+    var withChecksum = request.toBuilder().withChecksumValue("AAAAAA==").build();
+    var e = assertThrows(IllegalArgumentException.class, () -> validator.validate(withChecksum));
+    assertEquals("A checksum value cannot be supplied for a compressed upload", e.getMessage());
+
+    e =
+        assertThrows(
+            IllegalArgumentException.class,
+            () -> validator.validate(BlobCompression.builder().build()));
+    assertEquals("Compression codec cannot be null", e.getMessage());
+
+    e =
+        assertThrows(
+            IllegalArgumentException.class,
+            () ->
+                validator.validate(
+                    BlobCompression.builder()
+                        .codec(CompressionCodec.DEFLATE)
+                        .blockSizeInBytes(0)
+                        .build()));
+    assertEquals("Compression block size must be a positive value. value=0", e.getMessage());
+
+    e =
+        assertThrows(
+            IllegalArgumentException.class,
+            () ->
+                validator.validate(
+                    BlobCompression.builder().codec(CompressionCodec.DEFLATE).level(10).build()));
+    assertEquals(
+        "Compression level must be between 0 and 9, or -1 for the default. value=10",
+        e.getMessage());
+  }
+
+  @Test
+  void testValidateReadChannelOptions() {
+    validator.validate(ReadChannelOptions.builder().build());
+
+    var e =
+        assertThrows(
+            IllegalArgumentException.class,
+            () -> validator.validate((ReadChannelOptions) null));
+    assertEquals("ReadChannelOptions cannot be null", e.getMessage());
+
+    e =
+        assertThrows(
+            IllegalArgumentException.class,
+            () -> validator.validate(ReadChannelOptions.builder().blockSizeInBytes(0).build()));
+    assertEquals("blockSizeInBytes must be a positive value. value=0", e.getMessage());
+
+    e =
+        assertThrows(
+            IllegalArgumentException.class,
+            () ->
+                validator.validate(
+                    ReadChannelOptions.builder().initialReadAheadBlocks(-1).build()));
+    assertEquals("initialReadAheadBlocks must be a positive value. value=-1", e.getMessage());
+
+    e =
+        assertThrows(
+            IllegalArgumentException.class,
+            () -> validator.validate(ReadChannelOptions.builder().maxReadAheadBlocks(0).build()));
+    assertEquals("maxReadAheadBlocks must be a positive value. value=0", e.getMessage());
+
+    e =
+        assertThrows(
+            IllegalArgumentException.class,
+            () -> validator.validate(ReadChannelOptions.builder().cacheBlocks(0).build()));
+    assertEquals("cacheBlocks must be a positive value. value=0", e.getMessage());
+  }
+
+  @Test
+  void testValidateMultiRangeDownload() {
+    var request =
+        MultiRangeDownloadRequest.builder()
+            .withKey("index.bin")
+            .withRanges(List.of(ByteRange.of(0, 9), ByteRange.of(100, 199)))
+            .build();
+    validator.validate(request);
+
+    var empty = request.toBuilder().withRanges(List.of()).build();
+    var e = assertThrows(IllegalArgumentException.class, () -> validator.validate(empty));
+    assertEquals("Collection of byte ranges cannot be null or empty", e.getMessage());
+
+    var negativeGap = request.toBuilder().withMaxGapInBytes(-1).build();
+    e = assertThrows(IllegalArgumentException.class, () -> validator.validate(negativeGap));
+    assertEquals("Maximum coalescing gap must be a non-negative value. value=-1", e.getMessage());
+
+    var zeroSpan = request.toBuilder().withMaxSpanSizeInBytes(0).build();
+    e = assertThrows(IllegalArgumentException.class, () -> validator.validate(zeroSpan));
+    assertEquals("Maximum coalesced span size must be a positive value. value=0", e.getMessage());
+
+    var inverted = request.toBuilder().withRanges(List.of(ByteRange.of(10, 5))).build();
+    assertThrows(IllegalArgumentException.class, () -> validator.validate(inverted));
+  }
+
   @Test
   void testValidateDownload() {
     var key = "some/path/to/file.txt";
@@ -355,6 +459,50 @@ public class BlobStoreValidatorTest {
     }
   }
 
+  @Test
+  void testValidateListBlobsPageRequest() {
+    validator.validate(ListBlobsPageRequest.builder().build());
+    validator.validate(
+        ListBlobsPageRequest.builder().withStartAfter("a").withEndBefore("b").build());
+    assertThrows(
+        IllegalArgumentException.class, () -> validator.validate((ListBlobsPageRequest) null));
+    assertThrows(
+        InvalidArgumentException.class,
+        () ->
+            validator.validate(
+                ListBlobsPageRequest.builder().withKeyRange(KeyRange.of("b", "b")).build()));
+  }
+
+  @Test
+  void testValidateSyncDirectory() {
+    SyncOptions upload = SyncOptions.builder().direction(SyncDirection.UPLOAD).build();
+    SyncOptions download = SyncOptions.builder().direction(SyncDirection.DOWNLOAD).build();
+    Path missing = Path.of("target", "no-such-directory");
+
+    validator.validateSyncDirectory(Path.of("."), upload);
+    validator.validateSyncDirectory(missing, download);
+    assertThrows(
+        IllegalArgumentException.class, () -> validator.validateSyncDirectory(null, upload));
+    assertThrows(
+        IllegalArgumentException.class,
+        () -> validator.validateSyncDirectory(missing, SyncOptions.builder().build()));
+    assertThrows(
+        InvalidArgumentException.class, () -> validator.validateSyncDirectory(missing, upload));
+  }
+
+  @Test
+  void testValidatePrefixUsageRequest() {
+    validator.validate(PrefixUsageRequest.builder().depth(2).build());
+    assertThrows(
+        IllegalArgumentException.class, () -> validator.validate((PrefixUsageRequest) null));
+    assertThrows(
+        InvalidArgumentException.class,
+        () -> validator.validate(PrefixUsageRequest.builder().depth(-1).build()));
+    assertThrows(
+        InvalidArgumentException.class,
+        () -> validator.validate(PrefixUsageRequest.builder().depth(1).delimiter("").build()));
+  }
+
   @Test
   void testValidateMaxConnections() {
     validator.validateMaxConnections(10);
@@ -0,0 +1,117 @@
+package com.salesforce.multicloudj.blob.driver;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import com.salesforce.multicloudj.common.exceptions.InvalidArgumentException;
+import java.util.Arrays;
+import org.junit.jupiter.api.Test;
+
+class BlockCacheTest {
+
+  private static byte[] block(int fill, int length) {
+    byte[] bytes = new byte[length];
+    Arrays.fill(bytes, (byte) fill);
+    return bytes;
+  }
+
+  private static boolean cached(BlockCache cache, Object key) {
+    return cache.read(key, 0, new byte[1], 0, 1) >= 0;
+  }
+
+  @Test
+  void testReadsSlicesOfCachedBlocks() {
+    BlockCache cache = new BlockCache(16 * 1024, 1024);
+    byte[] data = new byte[1000];
+    for (int i = 0; i < data.length; i++) {
+      data[i] = (byte) i;
+    }
+    cache.put("a", data);
+
+    byte[] slice = new byte[20];
+    assertEquals(20, cache.read("a", 100, slice, 0, 20));
+    assertArrayEquals(Arrays.copyOfRange(data, 100, 120), slice);
+    assertEquals(10, cache.read("a", 990, new byte[50], 0, 50));
+    assertEquals(-1, cache.read("b", 0, slice, 0, 20));
+    assertArrayEquals(Arrays.copyOfRange(data, 100, 120), cache.read("a", 100, 20));
+    assertEquals(10, cache.read("a", 990, 50).length);
+    assertNull(cache.read("b", 0, 20));
+    assertEquals(4, cache.getHitCount());
+    assertEquals(2, cache.getMissCount());
+  }
+
+  @Test
+  void testStaysWithinCapacity() {
+    BlockCache cache = new BlockCache(10 * 64, 64);
+
+    for (int i = 0; i < 100; i++) {
+      cache.put(i, block(i, 64));
+    }
+
+    assertEquals(10, cache.size());
+    assertEquals(90, cache.getEvictionCount());
+    for (int i = 0; i < 100; i++) {
+      byte[] first = new byte[1];
+      if (cache.read(i, 0, first, 0, 1) == 1) {
+        assertEquals((byte) i, first[0]);
+      }
+    }
+  }
+
+  @Test
+  void testScanDoesNotFlushFrequentlyReadBlocks() {
+    BlockCache cache = new BlockCache(100 * 64, 64);
+    for (int hot = 0; hot < 20; hot++) {
+      cache.read("hot" + hot, 0, new byte[1], 0, 1);
+      cache.put("hot" + hot, block(hot, 64));
+    }
+    for (int round = 0; round < 5; round++) {
+      for (int hot = 0; hot < 20; hot++) {
+        cache.read("hot" + hot, 0, new byte[1], 0, 1);
+      }
+    }
+
+    for (int scan = 0; scan < 1000; scan++) {
+      cached(cache, "scan" + scan);
+      cache.put("scan" + scan, block(scan, 64));
+    }
+
+    int survivors = 0;
+    for (int hot = 0; hot < 20; hot++) {
+      survivors += cached(cache, "hot" + hot) ? 1 : 0;
+    }
+    assertEquals(20, survivors);
+    assertTrue(cache.size() <= 100);
+  }
+
+  @Test
+  void testSketchAgesCounts() {
+    BlockCache.FrequencySketch sketch = new BlockCache.FrequencySketch(16);
+    for (int i = 0; i < 12; i++) {
+      sketch.increment(42);
+    }
+    assertEquals(12, sketch.frequency(42));
+    assertEquals(0, sketch.frequency(7));
+
+    for (int i = 0; i < 160; i++) {
+      sketch.increment(1000 + i);
+    }
+    assertTrue(sketch.frequency(42) < 12, "frequency never halved");
+  }
+
+  @Test
+  void testRejectsInvalidSizes() {
+    assertThrows(InvalidArgumentException.class, () -> new BlockCache(100, 1024));
+    BlockCache cache = new BlockCache(4096, 1024);
+    assertThrows(InvalidArgumentException.class, () -> cache.put("a", new byte[1025]));
+
+    cache.put("a", block(1, 10));
+    cache.clear();
+    assertEquals(0, cache.size());
+    cache.put("b", block(2, 10));
+    assertTrue(cached(cache, "b"));
+  }
+}
@@ -0,0 +1,238 @@
+package com.salesforce.multicloudj.blob.driver;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+import org.junit.jupiter.api.Test;
+
+class BulkLookupsTest {
+
+  private static List<BlobIdentifier> keys(String prefix, int count) {
+    return IntStream.range(0, count)
+        .mapToObj(i -> new BlobIdentifier(String.format("%s%04d", prefix, i), null))
+        .collect(Collectors.toList());
+  }
+
+  private static ListBlobsPageResponse page(List<String> keys, boolean truncated, String token) {
+    List<BlobInfo> blobs =
+        keys.stream()
+            .map(key -> BlobInfo.builder().withKey(key).build())
+            .collect(Collectors.toList());
+    return new ListBlobsPageResponse(blobs, truncated, token);
+  }
+
+  @Test
+  void testPlanGroupsLargePrefixesOnly() {
+    List<BlobIdentifier> objects = new ArrayList<>(keys("logs/a-", 150));
+    objects.addAll(keys("small/", 5));
+    objects.add(new BlobIdentifier("logs/a-0001", "v1"));
+    objects.add(objects.get(0));
+
+    BulkLookups.Plan plan = BulkLookups.plan(objects, true);
+
+    assertEquals(156, plan.getDistinct().size());
+    assertEquals(1, plan.getGroups().size());
+    assertEquals("logs/a-0", plan.getGroups().get(0).getPrefix());
+    assertEquals(6, plan.getIndividual().size());
+    assertTrue(plan.getIndividual().contains(new BlobIdentifier("logs/a-0001", "v1")));
+  }
+
+  @Test
+  void testPlanWithoutListing() {
+    BulkLookups.Plan plan = BulkLookups.plan(keys("logs/", 150), false);
+
+    assertTrue(plan.getGroups().isEmpty());
+    assertEquals(150, plan.getIndividual().size());
+  }
+
+  @Test
+  void testToResultKeepsRequestOrderAndMissingEntries() {
+    List<BlobIdentifier> objects =
+        List.of(new BlobIdentifier("b", null), new BlobIdentifier("a", null));
+    BulkLookups.Plan plan = BulkLookups.plan(objects, false);
+
+    Map<BlobIdentifier, Boolean> result =
+        plan.toResult(Map.of(new BlobIdentifier("a", null), true));
+
+    assertEquals(objects, new ArrayList<>(result.keySet()));
+    assertNull(result.get(objects.get(0)));
+    assertTrue(result.get(objects.get(1)));
+  }
+
+  @Test
+  void testListGroupResolvesKeysPassedByTheListing() {
+    BulkLookups.ListGroup group = BulkLookups.plan(keys("dir/", 100), true).getGroups().get(0);
+    List<String> listed = new ArrayList<>();
+    for (int i = 0; i < 50; i += 2) {
+      listed.add(String.format("dir/%04d", i));
+    }
+
+    assertTrue(group.accept(page(listed, true, "token-1")));
+    assertEquals("token-1", group.nextPageRequest().getPaginationToken());
+
+    Map<BlobIdentifier, Boolean> results = new HashMap<>();
+    List<BlobIdentifier> unresolved = group.resolve(results);
+
+    assertEquals(49, results.size());
+    assertTrue(results.get(new BlobIdentifier("dir/0000", null)));
+    assertFalse(results.get(new BlobIdentifier("dir/0001", null)));
+    assertEquals(51, unresolved.size());
+    assertEquals(new BlobIdentifier("dir/0049", null), unresolved.get(0));
+  }
+
+  @Test
+  void testListGroupStopsWhenListingIsComplete() {
+    BulkLookups.ListGroup group = BulkLookups.plan(keys("dir/", 100), true).getGroups().get(0);
+
+    assertFalse(group.accept(page(List.of("dir/0003"), false, null)));
+
+    Map<BlobIdentifier, Boolean> results = new HashMap<>();
+    assertTrue(group.resolve(results).isEmpty());
+    assertEquals(100, results.size());
+    assertEquals(1, results.values().stream().filter(Boolean::booleanValue).count());
+  }
+
+  @Test
+  void testListGroupStopsAtPageBudget() {
+    BulkLookups.ListGroup group = BulkLookups.plan(keys("dir/", 100), true).getGroups().get(0);
+    int pages = 0;
+    boolean more = true;
+    while (more) {
+      more = group.accept(page(List.of("dir/0000-" + pages), true, "token"));
+      pages++;
+    }
+
+    assertEquals(100 / BulkLookups.KEYS_PER_LIST_PAGE, pages);
+  }
+
+  @Test
+  void testListAsyncConsumesSynchronousPages() {
+    BulkLookups.ListGroup group = BulkLookups.plan(keys("dir/", 2000), true).getGroups().get(0);
+    AtomicInteger requests = new AtomicInteger();
+
+    group
+        .listAsync(
+            request -> {
+              int n = requests.getAndIncrement();
+              List<String> listed = new ArrayList<>();
+              for (int i = n * 10; i < n * 10 + 10; i++) {
+                listed.add(String.format("dir/%04d", i));
+              }
+              return CompletableFuture.completedFuture(page(listed, true, "token-" + n));
+            })
+        .join();
+
+    assertEquals(200, requests.get());
+  }
+
+  @Test
+  void testForEachAsyncBoundsConcurrency() {
+    List<Integer> items = IntStream.range(0, 50).boxed().collect(Collectors.toList());
+    List<CompletableFuture<Void>> pending = new ArrayList<>();
+    AtomicInteger maxInFlight = new AtomicInteger();
+
+    CompletableFuture<Void> done =
+        BulkLookups.forEachAsync(
+            items,
+            4,
+            item -> {
+              CompletableFuture<Void> future = new CompletableFuture<>();
+              synchronized (pending) {
+                pending.add(future);
+                maxInFlight.accumulateAndGet(
+                    (int) pending.stream().filter(f -> !f.isDone()).count(), Math::max);
+              }
+              return future;
+            });
+
+    for (int i = 0; i < items.size(); i++) {
+      CompletableFuture<Void> next;
+      synchronized (pending) {
+        next = pending.get(i);
+      }
+      next.complete(null);
+    }
+
+    done.join();
+    assertEquals(4, maxInFlight.get());
+  }
+
+  @Test
+  void testForEachAsyncFailsOnFirstFailure() {
+    RuntimeException failure = new RuntimeException("boom");
+    AtomicInteger started = new AtomicInteger();
+
+    CompletableFuture<Void> done =
+        BulkLookups.forEachAsync(
+            IntStream.range(0, 10).boxed().collect(Collectors.toList()),
+            1,
+            item -> {
+              started.incrementAndGet();
+              return item == 2
+                  ? CompletableFuture.failedFuture(failure)
+                  : CompletableFuture.completedFuture(null);
+            });
+
+    CompletionException thrown = assertThrows(CompletionException.class, done::join);
+    assertSame(failure, thrown.getCause());
+    assertEquals(3, started.get());
+  }
+
+  @Test
+  void testForEachCompletesOnItsOwnSingleThreadExecutor() throws Exception {
+    ExecutorService executor = Executors.newSingleThreadExecutor();
+    try {
+      List<Integer> items = IntStream.range(0, 20).boxed().collect(Collectors.toList());
+      List<Integer> seen = Collections.synchronizedList(new ArrayList<>());
+
+      executor
+          .submit(() -> BulkLookups.forEach(items, 4, executor, seen::add))
+          .get(10, TimeUnit.SECONDS);
+
+      assertEquals(items, seen);
+    } finally {
+      executor.shutdownNow();
+    }
+  }
+
+  @Test
+  void testForEachRethrowsFirstFailureAndStopsStartingItems() {
+    RuntimeException failure = new RuntimeException("boom");
+    AtomicInteger started = new AtomicInteger();
+
+    RuntimeException thrown =
+        assertThrows(
+            RuntimeException.class,
+            () ->
+                BulkLookups.forEach(
+                    IntStream.range(0, 10).boxed().collect(Collectors.toList()),
+                    1,
+                    Runnable::run,
+                    item -> {
+                      started.incrementAndGet();
+                      if (item == 2) {
+                        throw failure;
+                      }
+                    }));
+
+    assertSame(failure, thrown);
+    assertEquals(3, started.get());
+  }
+}
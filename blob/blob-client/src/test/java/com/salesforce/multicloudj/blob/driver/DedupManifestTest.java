@@ -0,0 +1,47 @@
+package com.salesforce.multicloudj.blob.driver;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+import java.util.Arrays;
+import java.util.List;
+import org.junit.jupiter.api.Test;
+
+class DedupManifestTest {
+
+  private static DedupManifest.Chunk chunk(int fill, int length) {
+    byte[] digest = new byte[DedupManifest.DIGEST_LENGTH];
+    Arrays.fill(digest, (byte) fill);
+    return new DedupManifest.Chunk(digest, length);
+  }
+
+  @Test
+  void testRoundTrip() {
+    DedupManifest manifest =
+        new DedupManifest(List.of(chunk(1, 100), chunk(0xAB, 5), chunk(1, 100)));
+
+    DedupManifest read = DedupManifest.read(manifest.toBytes());
+
+    assertEquals(205, read.getLength());
+    assertEquals(3, read.getChunks().size());
+    assertArrayEquals(chunk(0xAB, 5).getDigest(), read.getChunks().get(1).getDigest());
+    assertEquals(
+        "chunks/" + "ab".repeat(DedupManifest.DIGEST_LENGTH),
+        read.getChunks().get(1).key("chunks/"));
+    assertEquals(0, DedupManifest.read(new DedupManifest(List.of()).toBytes()).getLength());
+  }
+
+  @Test
+  void testRejectsCorruptManifests() {
+    byte[] bytes = new DedupManifest(List.of(chunk(1, 100), chunk(2, 50))).toBytes();
+
+    assertThrows(
+        IllegalStateException.class, () -> DedupManifest.read("not a manifest".getBytes()));
+    assertThrows(
+        IllegalStateException.class,
+        () -> DedupManifest.read(Arrays.copyOf(bytes, bytes.length - 1)));
+    bytes[bytes.length - 1 - DedupManifest.DIGEST_LENGTH] = 51;
+    assertThrows(IllegalStateException.class, () -> DedupManifest.read(bytes));
+  }
+}
@@ -0,0 +1,203 @@
+package com.salesforce.multicloudj.blob.driver;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+
+class DirectoryDeleterTest {
+
+  private static class ThrottledException extends RuntimeException {}
+
+  private final ExecutorService executor = Executors.newFixedThreadPool(4);
+
+  @AfterEach
+  void tearDown() {
+    executor.shutdownNow();
+  }
+
+  private static DirectoryDeleter deleter(int maxConcurrency, AtomicLong progress) {
+    return new DirectoryDeleter(
+        e -> e instanceof ThrottledException, maxConcurrency, progress::set, Duration.ofMillis(1));
+  }
+
+  private static List<BlobIdentifier> ids(int count) {
+    return IntStream.range(0, count)
+        .mapToObj(i -> new BlobIdentifier("dir/" + i, null))
+        .collect(Collectors.toList());
+  }
+
+  private static ListBlobsPageResponse page(int from, int count, String nextToken) {
+    List<BlobInfo> blobs =
+        IntStream.range(from, from + count)
+            .mapToObj(i -> BlobInfo.builder().withKey("dir/" + i).build())
+            .collect(Collectors.toList());
+    return new ListBlobsPageResponse(blobs, nextToken != null, nextToken);
+  }
+
+  @Test
+  void testDeletesInBatchesAndReportsProgress() {
+    List<List<BlobIdentifier>> batches = Collections.synchronizedList(new ArrayList<>());
+    AtomicLong progress = new AtomicLong();
+
+    DirectoryDeleter deleter = deleter(3, progress);
+    deleter.delete(ids(2500).iterator(), batches::add, executor);
+
+    assertEquals(3, batches.size());
+    assertEquals(
+        List.of(500, 1000, 1000),
+        batches.stream().map(List::size).sorted().collect(Collectors.toList()));
+    assertEquals(2500, deleter.getDeletedCount());
+    assertEquals(2500, progress.get());
+  }
+
+  @Test
+  void testCompletesWhenRunningOnItsOwnExecutor() throws Exception {
+    ExecutorService single = Executors.newSingleThreadExecutor();
+    ExecutorService pool = Executors.newFixedThreadPool(2);
+    try {
+      AtomicLong deleted = new AtomicLong();
+      DirectoryDeleter deleter = deleter(DirectoryDeleter.DEFAULT_MAX_CONCURRENCY, deleted);
+      single
+          .submit(() -> deleter.delete(ids(20_000).iterator(), batch -> {}, single))
+          .get(30, TimeUnit.SECONDS);
+      assertEquals(20_000, deleted.get());
+
+      // As many deletes as threads, each deleting on the pool it runs on.
+      List<Future<?>> deletes = new ArrayList<>();
+      for (int i = 0; i < 2; i++) {
+        DirectoryDeleter concurrent = deleter(4, new AtomicLong());
+        deletes.add(pool.submit(() -> concurrent.delete(ids(9000).iterator(), b -> {}, pool)));
+      }
+      for (Future<?> delete : deletes) {
+        delete.get(30, TimeUnit.SECONDS);
+      }
+    } finally {
+      single.shutdownNow();
+      pool.shutdownNow();
+    }
+  }
+
+  @Test
+  void testRetriesThrottledBatches() {
+    AtomicInteger calls = new AtomicInteger();
+    AtomicLong progress = new AtomicLong();
+
+    deleter(2, progress)
+        .delete(
+            ids(10).iterator(),
+            batch -> {
+              if (calls.incrementAndGet() < DirectoryDeleter.MAX_ATTEMPTS) {
+                throw new ThrottledException();
+              }
+            },
+            executor);
+
+    assertEquals(DirectoryDeleter.MAX_ATTEMPTS, calls.get());
+    assertEquals(10, progress.get());
+  }
+
+  @Test
+  void testFailureStopsListing() {
+    RuntimeException failure = new IllegalStateException("denied");
+    AtomicInteger listed = new AtomicInteger();
+    List<BlobIdentifier> objects = ids(100_000);
+
+    RuntimeException thrown =
+        assertThrows(
+            RuntimeException.class,
+            () ->
+                deleter(2, new AtomicLong())
+                    .delete(
+                        objects.stream().peek(id -> listed.incrementAndGet()).iterator(),
+                        batch -> {
+                          throw failure;
+                        },
+                        executor));
+
+    assertSame(failure, thrown);
+    assertTrue(listed.get() < objects.size());
+  }
+
+  @Test
+  void testDeleteAsyncListsAheadOnlyWhileDeletersKeepUp() {
+    List<CompletableFuture<Void>> pending = new ArrayList<>();
+    List<String> tokens = new ArrayList<>();
+    AtomicLong progress = new AtomicLong();
+
+    CompletableFuture<Void> done =
+        deleter(2, progress)
+            .deleteAsync(
+                token -> {
+                  tokens.add(token);
+                  int n = tokens.size() - 1;
+                  return CompletableFuture.completedFuture(
+                      page(n * 1000, 1000, n < 9 ? "token-" + (n + 1) : null));
+                },
+                batch -> {
+                  CompletableFuture<Void> future = new CompletableFuture<>();
+                  pending.add(future);
+                  return future;
+                });
+
+    // Two batches deleting and two queued: listing waits for the deleters.
+    assertEquals(2, pending.size());
+    assertEquals(4, tokens.size());
+
+    for (int i = 0; i < 10; i++) {
+      pending.get(i).complete(null);
+    }
+
+    done.join();
+    assertEquals(10, tokens.size());
+    assertEquals("token-9", tokens.get(9));
+    assertEquals(10_000, progress.get());
+  }
+
+  @Test
+  void testDeleteAsyncRetriesThrottledBatches() {
+    AtomicInteger calls = new AtomicInteger();
+
+    deleter(2, new AtomicLong())
+        .deleteAsync(
+            token -> CompletableFuture.completedFuture(page(0, 10, null)),
+            batch ->
+                calls.incrementAndGet() < 3
+                    ? CompletableFuture.failedFuture(new ThrottledException())
+                    : CompletableFuture.completedFuture(null))
+        .join();
+
+    assertEquals(3, calls.get());
+  }
+
+  @Test
+  void testDeleteAsyncFailsOnListingFailure() {
+    RuntimeException failure = new IllegalStateException("denied");
+
+    CompletableFuture<Void> done =
+        deleter(2, new AtomicLong())
+            .deleteAsync(
+                token -> CompletableFuture.failedFuture(failure),
+                batch -> CompletableFuture.completedFuture(null));
+
+    CompletionException thrown = assertThrows(CompletionException.class, done::join);
+    assertSame(failure, thrown.getCause());
+  }
+}
@@ -0,0 +1,278 @@
+package com.salesforce.multicloudj.blob.driver;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.attribute.FileTime;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.NavigableMap;
+import java.util.concurrent.ConcurrentSkipListMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicInteger;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+class DirectorySyncerTest {
+
+  @TempDir Path root;
+
+  private final ExecutorService executor = Executors.newFixedThreadPool(4);
+  private final FakeBucket bucket = new FakeBucket();
+
+  @AfterEach
+  void tearDown() {
+    executor.shutdownNow();
+  }
+
+  /** Objects with their content and upload time; lists in key order like a substrate. */
+  private static final class FakeBucket implements DirectorySyncer.Bucket {
+    private final NavigableMap<String, byte[]> contents = new ConcurrentSkipListMap<>();
+    private final Map<String, Instant> times = new ConcurrentSkipListMap<>();
+    private final AtomicInteger uploads = new AtomicInteger();
+    private final AtomicInteger downloads = new AtomicInteger();
+    private final AtomicInteger md5Lookups = new AtomicInteger();
+    private Instant now = Instant.parse("2030-01-01T00:00:00Z");
+
+    void put(String key, String content) {
+      contents.put(key, content.getBytes(StandardCharsets.UTF_8));
+      times.put(key, now);
+    }
+
+    @Override
+    public Iterator<BlobInfo> list(String prefix) {
+      List<BlobInfo> blobs = new ArrayList<>();
+      for (Map.Entry<String, byte[]> entry : contents.entrySet()) {
+        if (prefix == null || entry.getKey().startsWith(prefix)) {
+          blobs.add(
+              BlobInfo.builder()
+                  .withKey(entry.getKey())
+                  .withObjectSize(entry.getValue().length)
+                  .withLastModified(times.get(entry.getKey()))
+                  .build());
+        }
+      }
+      return blobs.iterator();
+    }
+
+    @Override
+    public void upload(String key, Path source, long size) {
+      uploads.incrementAndGet();
+      try {
+        contents.put(key, Files.readAllBytes(source));
+      } catch (IOException e) {
+        throw new UncheckedIOException(e);
+      }
+      times.put(key, now);
+    }
+
+    @Override
+    public void download(String key, Path destination) {
+      downloads.incrementAndGet();
+      try {
+        Files.write(destination, contents.get(key));
+      } catch (IOException e) {
+        throw new UncheckedIOException(e);
+      }
+    }
+
+    @Override
+    public void delete(List<String> keys) {
+      keys.forEach(contents::remove);
+    }
+
+    @Override
+    public byte[] md5(String key) {
+      md5Lookups.incrementAndGet();
+      try {
+        Path file = Files.createTempFile("md5", null);
+        Files.write(file, contents.get(key));
+        byte[] md5 = DirectorySyncer.md5(file);
+        Files.delete(file);
+        return md5;
+      } catch (IOException e) {
+        throw new UncheckedIOException(e);
+      }
+    }
+  }
+
+  private Path write(String relative, String content, Instant modified) throws IOException {
+    Path file = root.resolve(relative);
+    Files.createDirectories(file.getParent());
+    Files.writeString(file, content);
+    Files.setLastModifiedTime(file, FileTime.from(modified));
+    return file;
+  }
+
+  private DirectorySyncResponse sync(String prefix, SyncOptions.SyncOptionsBuilder options) {
+    return new DirectorySyncer(3).sync(root, prefix, options.build(), bucket, executor);
+  }
+
+  private static SyncOptions.SyncOptionsBuilder upload() {
+    return SyncOptions.builder().direction(SyncDirection.UPLOAD);
+  }
+
+  private static SyncOptions.SyncOptionsBuilder download() {
+    return SyncOptions.builder().direction(SyncDirection.DOWNLOAD);
+  }
+
+  @Test
+  void testWalkFollowsKeyOrder() throws IOException {
+    Instant time = Instant.parse("2029-01-01T00:00:00Z");
+    for (String name : List.of("a/b", "a-b", "a.txt", "a0", "a/c/d", "b", "~", "z")) {
+      write(name, name, time);
+    }
+
+    List<String> keys = new ArrayList<>();
+    new DirectorySyncer.LocalWalk(root).forEachRemaining(file -> keys.add(file.getKey()));
+
+    List<String> sorted = new ArrayList<>(keys);
+    sorted.sort(KeyOrder.UTF8);
+    assertEquals(sorted, keys);
+    assertEquals(List.of("a-b", "a.txt", "a/b", "a/c/d", "a0", "b", "z", "~"), keys);
+  }
+
+  @Test
+  void testUploadsOnlyMissingAndChangedFiles() throws IOException {
+    Instant old = Instant.parse("2029-01-01T00:00:00Z");
+    write("same.txt", "same", old);
+    write("dir/grown.txt", "grown!", old);
+    write("dir/new.txt", "new", old);
+    write("touched.txt", "abcd", Instant.parse("2031-01-01T00:00:00Z"));
+    bucket.put("data/same.txt", "same");
+    bucket.put("data/dir/grown.txt", "grown");
+    bucket.put("data/touched.txt", "wxyz");
+    bucket.put("data/stale.txt", "stale");
+    bucket.now = Instant.parse("2032-01-01T00:00:00Z");
+
+    DirectorySyncResponse response = sync("data", upload());
+
+    assertEquals(3, response.getTransferredCount());
+    assertEquals(1, response.getUnchangedCount());
+    assertEquals(0, response.getDeletedCount());
+    assertEquals(13, response.getTotalBytesTransferred());
+    assertTrue(response.getFailedTransfers().isEmpty());
+    assertEquals("new", new String(bucket.contents.get("data/dir/new.txt")));
+    assertEquals("abcd", new String(bucket.contents.get("data/touched.txt")));
+    assertTrue(bucket.contents.containsKey("data/stale.txt"));
+
+    DirectorySyncResponse again = sync("data/", upload().deleteExtraneous(true));
+
+    assertEquals(0, again.getTransferredCount());
+    assertEquals(4, again.getUnchangedCount());
+    assertEquals(1, again.getDeletedCount());
+    assertFalse(bucket.contents.containsKey("data/stale.txt"));
+  }
+
+  @Test
+  void testDownloadsAndKeepsObjectTimes() throws IOException {
+    bucket.put("data/a.txt", "alpha");
+    bucket.put("data/nested/b.txt", "beta");
+    bucket.put("data/nested/", "");
+    bucket.put("other/c.txt", "gamma");
+    write("extra.txt", "extra", Instant.parse("2029-01-01T00:00:00Z"));
+
+    DirectorySyncResponse response = sync("data/", download().deleteExtraneous(true));
+
+    assertEquals(2, response.getTransferredCount());
+    assertEquals(1, response.getDeletedCount());
+    assertEquals("beta", Files.readString(root.resolve("nested/b.txt")));
+    assertEquals(bucket.now, Files.getLastModifiedTime(root.resolve("a.txt")).toInstant());
+    assertFalse(Files.exists(root.resolve("extra.txt")));
+    try (var files = Files.list(root.resolve("nested"))) {
+      assertEquals(1, files.count());
+    }
+
+    DirectorySyncResponse again = sync("data/", download());
+
+    assertEquals(0, again.getTransferredCount());
+    assertEquals(2, again.getUnchangedCount());
+    assertEquals(2, bucket.downloads.get());
+  }
+
+  @Test
+  void testComparesChecksumsWhenAsked() throws IOException {
+    Instant old = Instant.parse("2029-01-01T00:00:00Z");
+    write("same.txt", "same", old);
+    write("edited.txt", "abcd", old);
+    bucket.put("same.txt", "same");
+    bucket.put("edited.txt", "wxyz");
+
+    assertEquals(2, sync(null, upload()).getUnchangedCount());
+
+    DirectorySyncResponse response = sync(null, upload().compareChecksums(true));
+
+    assertEquals(1, response.getTransferredCount());
+    assertEquals(1, response.getUnchangedCount());
+    assertEquals(2, bucket.md5Lookups.get());
+    assertArrayEquals("abcd".getBytes(StandardCharsets.UTF_8), bucket.contents.get("edited.txt"));
+  }
+
+  @Test
+  void testRecordsFailedTransfersAndGoesOn() throws IOException {
+    Instant old = Instant.parse("2029-01-01T00:00:00Z");
+    write("a.txt", "a", old);
+    write("b.txt", "b", old);
+    DirectorySyncer.Bucket failing =
+        new DirectorySyncer.Bucket() {
+          @Override
+          public Iterator<BlobInfo> list(String prefix) {
+            return bucket.list(prefix);
+          }
+
+          @Override
+          public void upload(String key, Path source, long size) {
+            if (key.equals("a.txt")) {
+              throw new IllegalStateException("denied");
+            }
+            bucket.upload(key, source, size);
+          }
+
+          @Override
+          public void download(String key, Path destination) {
+            bucket.download(key, destination);
+          }
+
+          @Override
+          public void delete(List<String> keys) {
+            bucket.delete(keys);
+          }
+
+          @Override
+          public byte[] md5(String key) {
+            return bucket.md5(key);
+          }
+        };
+
+    DirectorySyncResponse response =
+        new DirectorySyncer(2).sync(root, null, upload().build(), failing, executor);
+
+    assertEquals(1, response.getTransferredCount());
+    assertEquals(1, response.getFailedTransfers().size());
+    assertEquals("a.txt", response.getFailedTransfers().get(0).getKey());
+    assertEquals("denied", response.getFailedTransfers().get(0).getException().getMessage());
+  }
+
+  @Test
+  void testSkipsKeysOutsideTheDirectory() {
+    bucket.put("data/../escape.txt", "x");
+
+    DirectorySyncResponse response = sync("data/", download());
+
+    assertEquals(0, response.getTransferredCount());
+    assertEquals(1, response.getFailedTransfers().size());
+    assertFalse(Files.exists(root.resolveSibling("escape.txt")));
+  }
+}
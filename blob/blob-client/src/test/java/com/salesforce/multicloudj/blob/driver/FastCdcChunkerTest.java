@@ -0,0 +1,108 @@
+package com.salesforce.multicloudj.blob.driver;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import com.salesforce.multicloudj.common.exceptions.InvalidArgumentException;
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Random;
+import java.util.Set;
+import org.junit.jupiter.api.Test;
+
+class FastCdcChunkerTest {
+
+  private final FastCdcChunker chunker = new FastCdcChunker(2048, 8192, 32768);
+
+  private static byte[] random(int length, long seed) {
+    byte[] bytes = new byte[length];
+    new Random(seed).nextBytes(bytes);
+    return bytes;
+  }
+
+  private List<byte[]> chunk(byte[] content) {
+    List<byte[]> chunks = new ArrayList<>();
+    chunker.chunks(new ByteArrayInputStream(content)).forEachRemaining(chunks::add);
+    return chunks;
+  }
+
+  @Test
+  void testChunksCoverContentWithinSizeBounds() throws IOException {
+    byte[] content = random(1_000_000, 1);
+
+    List<byte[]> chunks = chunk(content);
+
+    ByteArrayOutputStream joined = new ByteArrayOutputStream();
+    long total = 0;
+    for (int i = 0; i < chunks.size(); i++) {
+      int length = chunks.get(i).length;
+      assertTrue(length <= 32768, "chunk " + i + " is " + length + " bytes");
+      assertTrue(length >= 2048 || i == chunks.size() - 1, "chunk " + i + " is " + length);
+      joined.write(chunks.get(i));
+      total += length;
+    }
+    assertArrayEquals(content, joined.toByteArray());
+    long average = total / chunks.size();
+    assertTrue(average > 4096 && average < 16384, "average chunk is " + average + " bytes");
+  }
+
+  @Test
+  void testInsertionOnlyChangesNearbyChunks() {
+    byte[] original = random(500_000, 2);
+    byte[] edited = new byte[original.length + 10];
+    System.arraycopy(original, 0, edited, 0, 250_000);
+    System.arraycopy(original, 250_000, edited, 250_010, 250_000);
+
+    Set<ByteBuffer> before = new HashSet<>();
+    chunk(original).forEach(chunk -> before.add(ByteBuffer.wrap(chunk)));
+    List<byte[]> after = chunk(edited);
+    long changed = after.stream().filter(chunk -> !before.contains(ByteBuffer.wrap(chunk))).count();
+
+    assertTrue(changed <= 3, changed + " of " + after.size() + " chunks changed");
+  }
+
+  @Test
+  void testReadsShortAndEmptyStreams() {
+    assertEquals(List.of(), chunk(new byte[0]));
+    assertEquals(1, chunk(new byte[100]).size());
+
+    byte[] content = random(100_000, 3);
+    InputStream trickle =
+        new ByteArrayInputStream(content) {
+          @Override
+          public synchronized int read(byte[] b, int off, int len) {
+            return super.read(b, off, Math.min(len, 7));
+          }
+        };
+    List<byte[]> chunks = new ArrayList<>();
+    chunker.chunks(trickle).forEachRemaining(chunks::add);
+    assertEquals(chunk(content).size(), chunks.size());
+  }
+
+  @Test
+  void testRejectsInvalidSizesAndSurfacesReadFailures() {
+    assertThrows(InvalidArgumentException.class, () -> new FastCdcChunker(0, 8, 16));
+    assertThrows(InvalidArgumentException.class, () -> new FastCdcChunker(16, 8, 32));
+    assertThrows(InvalidArgumentException.class, () -> new FastCdcChunker(4, 64, 32));
+
+    Iterator<byte[]> chunks =
+        chunker.chunks(
+            new InputStream() {
+              @Override
+              public int read() throws IOException {
+                throw new IOException("disk");
+              }
+            });
+    assertThrows(UncheckedIOException.class, chunks::hasNext);
+  }
+}
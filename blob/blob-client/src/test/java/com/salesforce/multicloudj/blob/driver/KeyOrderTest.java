@@ -0,0 +1,56 @@
+package com.salesforce.multicloudj.blob.driver;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+import java.util.Random;
+import org.junit.jupiter.api.Test;
+
+class KeyOrderTest {
+
+  /** Code units around the UTF-8 and UTF-16 boundaries; high surrogates get a low one added. */
+  private static final char[] ALPHABET = {
+    'a', 'b', '/', '~', '\u00e9', '\ud7ff', '\ue000', '\uffff', '\ud83d', '\udbff' // BMP edges
+  };
+
+  private static String randomKey(Random random) {
+    StringBuilder key = new StringBuilder();
+    int length = random.nextInt(6);
+    while (key.length() < length) {
+      char c = ALPHABET[random.nextInt(ALPHABET.length)];
+      key.append(c);
+      if (Character.isHighSurrogate(c)) {
+        key.append(random.nextBoolean() ? '\ude00' : '\udfff'); // low surrogate
+      }
+    }
+    return key.toString();
+  }
+
+  @Test
+  void testMatchesUtf8ByteOrder() {
+    Random random = new Random(7);
+    for (int i = 0; i < 100_000; i++) {
+      String left = randomKey(random);
+      String right = randomKey(random);
+      int expected =
+          Arrays.compareUnsigned(
+              left.getBytes(StandardCharsets.UTF_8), right.getBytes(StandardCharsets.UTF_8));
+      assertEquals(
+          Integer.signum(expected),
+          Integer.signum(KeyOrder.compare(left, right)),
+          () -> left + " vs " + right);
+    }
+  }
+
+  @Test
+  void testDiffersFromUtf16OrderAboveTheBmp() {
+    String privateUse = "\ue000"; // U+E000, three UTF-8 bytes
+    String emoji = "\ud83d\ude00"; // U+1F600, four UTF-8 bytes
+
+    assertTrue(privateUse.compareTo(emoji) > 0);
+    assertTrue(KeyOrder.compare(privateUse, emoji) < 0);
+    assertTrue(KeyOrder.UTF8.compare("a", "ab") < 0);
+  }
+}
@@ -0,0 +1,153 @@
+package com.salesforce.multicloudj.blob.driver;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.math.BigInteger;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.NavigableSet;
+import java.util.Random;
+import java.util.TreeSet;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.stream.Collectors;
+import org.junit.jupiter.api.Test;
+
+class KeyRangeSplitterTest {
+
+  private final NavigableSet<String> keys = new TreeSet<>(KeyOrder.UTF8);
+  private final AtomicInteger listings = new AtomicInteger();
+
+  /** Lists {@link #keys} the way a substrate does, honouring prefix, bounds and page size. */
+  private ListBlobsPageResponse list(ListBlobsPageRequest request) {
+    listings.incrementAndGet();
+    String prefix = request.getPrefix() == null ? "" : request.getPrefix();
+    NavigableSet<String> from =
+        request.getStartAfter() == null ? keys : keys.tailSet(request.getStartAfter(), false);
+    List<BlobInfo> blobs = new ArrayList<>();
+    boolean truncated = false;
+    for (String key : from) {
+      if (request.getEndBefore() != null && KeyOrder.compare(key, request.getEndBefore()) >= 0) {
+        break;
+      }
+      if (!key.startsWith(prefix)) {
+        if (KeyOrder.compare(key, prefix) > 0) {
+          break;
+        }
+        continue;
+      }
+      if (blobs.size() == request.getMaxResults()) {
+        truncated = true;
+        break;
+      }
+      blobs.add(BlobInfo.builder().withKey(key).build());
+    }
+    return new ListBlobsPageResponse(blobs, truncated, null);
+  }
+
+  private List<List<String>> partition(String prefix, List<KeyRange> ranges) {
+    List<List<String>> parts = new ArrayList<>();
+    for (KeyRange range : ranges) {
+      parts.add(
+          keys.stream()
+              .filter(key -> key.startsWith(prefix) && range.contains(key))
+              .collect(Collectors.toList()));
+    }
+    return parts;
+  }
+
+  private static BigInteger position(String key) {
+    return KeyRangeSplitter.position("p/", key);
+  }
+
+  @Test
+  void testSmallPrefixIsSplitExactly() {
+    for (int i = 0; i < 10; i++) {
+      keys.add("logs/" + i);
+    }
+    keys.add("other");
+
+    List<KeyRange> ranges = new KeyRangeSplitter(this::list).split("logs/", 3);
+
+    assertEquals(3, ranges.size());
+    assertNull(ranges.get(0).getStartAfter());
+    assertNull(ranges.get(2).getEndBefore());
+    assertEquals(
+        List.of(
+            List.of("logs/0", "logs/1", "logs/2"),
+            List.of("logs/3", "logs/4", "logs/5"),
+            List.of("logs/6", "logs/7", "logs/8", "logs/9")),
+        partition("logs/", ranges));
+  }
+
+  @Test
+  void testFewKeysGiveFewerRanges() {
+    keys.add("a");
+    keys.add("b");
+
+    assertEquals(2, new KeyRangeSplitter(this::list).split(null, 8).size());
+    assertEquals(
+        List.of(KeyRange.of(null, null)), new KeyRangeSplitter(this::list).split("none/", 8));
+  }
+
+  @Test
+  void testSkewedPrefixIsSampledIntoBalancedRanges() {
+    // Most keys crowd into a few narrow stretches of the key space.
+    Random random = new Random(42);
+    for (int i = 0; i < 15_000; i++) {
+      keys.add(String.format("data/2024-01-%02d/%06d", 1 + random.nextInt(3), random.nextInt()));
+    }
+    for (int i = 0; i < 5_000; i++) {
+      keys.add(String.format("data/%c%08x", (char) ('a' + random.nextInt(26)), random.nextInt()));
+    }
+    int total = keys.size();
+
+    List<KeyRange> ranges = new KeyRangeSplitter(this::list, 48, 200).split("data/", 8);
+
+    assertEquals(8, ranges.size());
+    List<List<String>> parts = partition("data/", ranges);
+    assertEquals(total, parts.stream().mapToInt(List::size).sum());
+    for (List<String> part : parts) {
+      assertTrue(part.size() < total / 8 * 2, "unbalanced range of " + part.size());
+      assertTrue(part.size() > total / 8 / 2, "unbalanced range of " + part.size());
+    }
+    assertTrue(listings.get() < 100, "listed " + listings.get() + " pages");
+  }
+
+  @Test
+  void testPositionsFollowKeyOrder() {
+    assertEquals(BigInteger.ZERO, KeyRangeSplitter.position("p/", "p/"));
+    assertTrue(position("p/a").compareTo(position("p/b")) < 0);
+    assertTrue(position("p/b").compareTo(position("p/ba")) < 0);
+    assertTrue(position("p/2024-01-01/a").compareTo(position("p/2024-01-01/b")) < 0);
+    assertEquals("p/2024-01-01/a", KeyRangeSplitter.key("p/", position("p/2024-01-01/a")));
+  }
+
+  @Test
+  void testTrimToEndBefore() {
+    ListBlobsPageResponse page =
+        new ListBlobsPageResponse(
+            List.of(
+                BlobInfo.builder().withKey("a").build(), BlobInfo.builder().withKey("c").build()),
+            List.of("b/", "d/"),
+            true,
+            "token");
+
+    ListBlobsPageResponse inRange =
+        ListBlobsPageRequest.builder().withEndBefore("e").build().trimToEndBefore(page);
+    ListBlobsPageResponse trimmed =
+        ListBlobsPageRequest.builder()
+            .withKeyRange(KeyRange.of(null, "c"))
+            .build()
+            .trimToEndBefore(page);
+
+    assertSame(page, inRange);
+    assertEquals(List.of("a"), trimmed.getBlobs().stream().map(BlobInfo::getKey).toList());
+    assertEquals(List.of("b/"), trimmed.getCommonPrefixes());
+    assertFalse(trimmed.isTruncated());
+    assertNull(trimmed.getNextPageToken());
+  }
+}
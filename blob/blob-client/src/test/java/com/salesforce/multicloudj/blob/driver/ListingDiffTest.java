@@ -0,0 +1,97 @@
+package com.salesforce.multicloudj.blob.driver;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+import java.io.IOException;
+import java.nio.file.Path;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+class ListingDiffTest {
+
+  @TempDir Path tempDir;
+
+  private static BlobInfo blob(String key, long size, String eTag) {
+    return BlobInfo.builder()
+        .withKey(key)
+        .withObjectSize(size)
+        .withLastModified(Instant.ofEpochSecond(1_700_000_000L))
+        .withETag(eTag)
+        .build();
+  }
+
+  private static List<String> describe(Iterator<ListingDiff.Change> changes) {
+    List<String> described = new ArrayList<>();
+    changes.forEachRemaining(change -> described.add(change.toString()));
+    return described;
+  }
+
+  @Test
+  void testReportsAddedRemovedAndChangedKeys() {
+    List<BlobInfo> before =
+        List.of(blob("a", 1, "e1"), blob("b", 2, "e2"), blob("c", 3, "e3"), blob("d", 4, "e4"));
+    List<BlobInfo> after =
+        List.of(blob("b", 2, "e2"), blob("c", 3, "e9"), blob("d", 5, "e4"), blob("e", 6, "e6"));
+
+    List<ListingDiff.Change> changes = new ArrayList<>();
+    ListingDiff.diff(before.iterator(), after.iterator()).forEachRemaining(changes::add);
+
+    assertEquals(
+        List.of("REMOVED a", "CHANGED c", "CHANGED d", "ADDED e"),
+        describe(changes.iterator()));
+    assertNull(changes.get(0).getAfter());
+    assertNull(changes.get(3).getBefore());
+    assertEquals("e3", changes.get(1).getBefore().getETag());
+    assertEquals("e9", changes.get(1).getAfter().getETag());
+  }
+
+  @Test
+  void testMissingETagIsNotAChange() {
+    List<BlobInfo> before = List.of(blob("a", 1, "e1"));
+    List<BlobInfo> after = List.of(blob("a", 1, null));
+
+    assertEquals(List.of(), describe(ListingDiff.diff(before.iterator(), after.iterator())));
+  }
+
+  @Test
+  void testDiffsSnapshotAgainstLiveListing() throws IOException {
+    List<BlobInfo> yesterday = new ArrayList<>();
+    List<BlobInfo> today = new ArrayList<>();
+    for (int i = 0; i < 3000; i++) {
+      String key = String.format("k/%05d", i);
+      if (i % 100 != 7) {
+        yesterday.add(blob(key, i, "e" + i));
+      }
+      if (i % 100 != 42) {
+        today.add(blob(key, i, i % 500 == 3 ? "new" : "e" + i));
+      }
+    }
+    ListingSnapshot snapshot =
+        ListingSnapshot.write(tempDir.resolve("yesterday.snap"), yesterday.iterator());
+
+    List<String> changes;
+    try (ListingSnapshot.Cursor cursor = snapshot.read()) {
+      changes = describe(ListingDiff.diff(cursor, today.iterator()));
+    }
+
+    assertEquals(30 + 30 + 6, changes.size());
+    assertEquals(
+        List.of("CHANGED k/00003", "ADDED k/00007", "REMOVED k/00042"), changes.subList(0, 3));
+  }
+
+  @Test
+  void testRejectsUnsortedListing() {
+    List<BlobInfo> before = List.of(blob("a", 1, null));
+    List<BlobInfo> after = List.of(blob("c", 1, null), blob("b", 1, null));
+
+    assertThrows(
+        IllegalStateException.class,
+        () -> describe(ListingDiff.diff(before.iterator(), after.iterator())));
+  }
+}
@@ -0,0 +1,139 @@
+package com.salesforce.multicloudj.blob.driver;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import com.salesforce.multicloudj.common.exceptions.InvalidArgumentException;
+import java.io.IOException;
+import java.io.RandomAccessFile;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+import java.util.stream.Collectors;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+class ListingSnapshotTest {
+
+  @TempDir Path tempDir;
+
+  private static List<BlobInfo> listing(int count) {
+    List<BlobInfo> blobs = new ArrayList<>();
+    for (int i = 0; i < count; i++) {
+      BlobInfo.Builder builder =
+          BlobInfo.builder().withKey(String.format("logs/%06d", i)).withObjectSize(i * 31L);
+      if (i % 3 != 0) {
+        builder.withLastModified(Instant.ofEpochSecond(1_700_000_000L + i, i));
+      }
+      if (i % 5 != 0) {
+        builder.withETag("etag-" + i);
+      }
+      if (i % 7 == 0) {
+        builder.withVersionId(Integer.toString(i));
+      }
+      blobs.add(builder.build());
+    }
+    return blobs;
+  }
+
+  private static List<BlobInfo> readAll(ListingSnapshot.Cursor cursor) throws IOException {
+    List<BlobInfo> blobs = new ArrayList<>();
+    try (cursor) {
+      cursor.forEachRemaining(blobs::add);
+    }
+    return blobs;
+  }
+
+  private ListingSnapshot write(Path file, List<BlobInfo> blobs, int blockSize)
+      throws IOException {
+    try (ListingSnapshot.Writer writer =
+        new ListingSnapshot.Writer(file, CompressionCodec.GZIP, blockSize)) {
+      for (BlobInfo blob : blobs) {
+        writer.add(blob);
+      }
+      writer.commit();
+    }
+    return ListingSnapshot.open(file);
+  }
+
+  @Test
+  void testRoundTripsAcrossBlocks() throws IOException {
+    List<BlobInfo> blobs = listing(5000);
+    Path file = tempDir.resolve("listing.snap");
+
+    ListingSnapshot snapshot = ListingSnapshot.write(file, blobs.iterator());
+
+    assertEquals(5000, snapshot.size());
+    assertEquals(blobs, readAll(snapshot.read()));
+    assertTrue(Files.size(file) < 5000 * 20, "snapshot takes " + Files.size(file) + " bytes");
+    try (var files = Files.list(tempDir)) {
+      assertEquals(List.of(file), files.collect(Collectors.toList()));
+    }
+  }
+
+  @Test
+  void testReadsFromKeyThroughSparseIndex() throws IOException {
+    List<BlobInfo> blobs = listing(2000);
+    ListingSnapshot snapshot = write(tempDir.resolve("listing.snap"), blobs, 512);
+
+    assertEquals(blobs.subList(1235, 2000), readAll(snapshot.read("logs/001234")));
+    assertEquals(blobs.subList(1235, 2000), readAll(snapshot.read("logs/001234-")));
+    assertEquals(blobs, readAll(snapshot.read("a")));
+    assertEquals(List.of(), readAll(snapshot.read("z")));
+  }
+
+  @Test
+  void testEmptyListing() throws IOException {
+    ListingSnapshot snapshot =
+        ListingSnapshot.write(tempDir.resolve("empty.snap"), List.<BlobInfo>of().iterator());
+
+    assertEquals(0, snapshot.size());
+    assertFalse(snapshot.read().hasNext());
+    assertFalse(snapshot.read("a").hasNext());
+  }
+
+  @Test
+  void testKeysAreOrderedByUtf8Bytes() throws IOException {
+    // U+FF5E sorts before U+1F600 in UTF-8 but after its surrogate pair in UTF-16.
+    List<BlobInfo> blobs =
+        List.of(
+            BlobInfo.builder().withKey("a").build(),
+            BlobInfo.builder().withKey("a～").build(),
+            BlobInfo.builder().withKey("a😀").build());
+
+    ListingSnapshot snapshot = write(tempDir.resolve("utf8.snap"), blobs, 1);
+
+    assertEquals(blobs, readAll(snapshot.read()));
+    assertEquals(blobs.subList(2, 3), readAll(snapshot.read("a～")));
+  }
+
+  @Test
+  void testRejectsUnsortedListing() {
+    Path file = tempDir.resolve("unsorted.snap");
+    Iterator<BlobInfo> blobs =
+        List.of(BlobInfo.builder().withKey("b").build(), BlobInfo.builder().withKey("a").build())
+            .iterator();
+
+    assertThrows(InvalidArgumentException.class, () -> ListingSnapshot.write(file, blobs));
+    assertFalse(Files.exists(file));
+  }
+
+  @Test
+  void testDetectsCorruption() throws IOException {
+    Path file = tempDir.resolve("listing.snap");
+    ListingSnapshot snapshot = ListingSnapshot.write(file, listing(100).iterator());
+    try (RandomAccessFile raw = new RandomAccessFile(file.toFile(), "rw")) {
+      raw.seek(ListingSnapshot.HEADER_SIZE + ListingSnapshot.BLOCK_HEADER_SIZE + 4);
+      raw.write(raw.read() ^ 0xFF);
+    }
+
+    assertThrows(IllegalStateException.class, () -> readAll(snapshot.read()));
+    Files.write(file, new byte[64]);
+    assertThrows(IllegalStateException.class, () -> ListingSnapshot.open(file));
+  }
+}
@@ -0,0 +1,163 @@
+package com.salesforce.multicloudj.blob.driver;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.doAnswer;
+import static org.mockito.Mockito.doReturn;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.spy;
+import static org.mockito.Mockito.verify;
+
+import java.io.ByteArrayOutputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.stream.Collectors;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.mockito.ArgumentCaptor;
+
+class ParallelFileUploaderTest {
+
+  private static final long MIB = 1024 * 1024;
+
+  @TempDir Path tempDir;
+
+  private final ExecutorService executor = Executors.newFixedThreadPool(8);
+  private AbstractBlobStore store;
+  private final MultipartUpload mpu =
+      MultipartUpload.builder().bucket("bucket-1").key("big").id("upload-1").build();
+
+  @BeforeEach
+  void setUp() {
+    store = spy(new TestBlobStore.Builder().withBucket("bucket-1").withRegion("local").build());
+    doReturn(mpu).when(store).doInitiateMultipartUpload(any());
+    doReturn(new MultipartUploadResponse("etag-1", null, "version-1"))
+        .when(store)
+        .doCompleteMultipartUpload(any(), any());
+  }
+
+  @AfterEach
+  void tearDown() {
+    executor.shutdownNow();
+  }
+
+  private Path file(int size) throws Exception {
+    byte[] content = new byte[size];
+    new Random(42).nextBytes(content);
+    Path path = tempDir.resolve("file-" + size);
+    Files.write(path, content);
+    return path;
+  }
+
+  @Test
+  void testPartSizeGrowsToFitPartLimit() {
+    ParallelFileUploader uploader = new ParallelFileUploader(null, null, null, executor);
+
+    assertEquals(ParallelFileUploader.DEFAULT_MINIMUM_PART_SIZE, uploader.partSize(100 * MIB));
+    long hundredGb = 100L * 1024 * MIB;
+    long partSize = uploader.partSize(hundredGb);
+    assertEquals(11 * MIB, partSize);
+    assertTrue((hundredGb + partSize - 1) / partSize <= ParallelFileUploader.MAX_PARTS);
+    assertThrows(
+        IllegalArgumentException.class,
+        () -> uploader.partSize(ParallelFileUploader.MAX_PART_SIZE * 10_001));
+  }
+
+  @Test
+  void testAppliesOnlyToLargeFilesWithoutChecksumOrStorageClass() {
+    ParallelFileUploader uploader = new ParallelFileUploader(100L, 10L, 2, executor);
+    UploadRequest request = UploadRequest.builder().withKey("big").build();
+
+    assertTrue(uploader.appliesTo(request, 100));
+    assertFalse(uploader.appliesTo(request, 99));
+    assertFalse(
+        uploader.appliesTo(request.toBuilder().withChecksumValue("AAAAAA==").build(), 100));
+    assertFalse(uploader.appliesTo(request.toBuilder().withStorageClass("COLD").build(), 100));
+  }
+
+  @Test
+  void testUploadsPositionalPartsConcurrentlyAndCompletesInOrder() throws Exception {
+    Path path = file(10_000);
+    Map<Integer, byte[]> received = new ConcurrentHashMap<>();
+    AtomicInteger inFlight = new AtomicInteger();
+    AtomicInteger maxInFlight = new AtomicInteger();
+    doAnswer(
+            invocation -> {
+              int now = inFlight.incrementAndGet();
+              maxInFlight.accumulateAndGet(now, Math::max);
+              MultipartPart part = invocation.getArgument(1);
+              received.put(part.getPartNumber(), part.getInputStream().readAllBytes());
+              Thread.sleep(5);
+              inFlight.decrementAndGet();
+              return new UploadPartResponse(
+                  part.getPartNumber(), "etag-" + part.getPartNumber(), part.getContentLength());
+            })
+        .when(store)
+        .doUploadMultipartPart(any(), any());
+
+    UploadResponse response =
+        new ParallelFileUploader(0L, 1000L, 3, executor)
+            .upload(store, UploadRequest.builder().withKey("big").build(), path, 10_000);
+
+    assertEquals("big", response.getKey());
+    assertEquals("etag-1", response.getETag());
+    assertEquals("version-1", response.getVersionId());
+    assertEquals(10, received.size());
+    assertTrue(maxInFlight.get() <= 3);
+    ByteArrayOutputStream joined = new ByteArrayOutputStream();
+    for (int i = 1; i <= 10; i++) {
+      joined.write(received.get(i));
+    }
+    assertArrayEquals(Files.readAllBytes(path), joined.toByteArray());
+
+    @SuppressWarnings("unchecked")
+    ArgumentCaptor<List<UploadPartResponse>> parts = ArgumentCaptor.forClass(List.class);
+    verify(store).doCompleteMultipartUpload(any(), parts.capture());
+    assertEquals(
+        List.of(1, 2, 3, 4, 5, 6, 7, 8, 9, 10),
+        parts.getValue().stream()
+            .map(UploadPartResponse::getPartNumber)
+            .collect(Collectors.toList()));
+  }
+
+  @Test
+  void testFailedPartAbortsUpload() throws Exception {
+    Path path = file(5_000);
+    RuntimeException failure = new IllegalStateException("denied");
+    doAnswer(
+            invocation -> {
+              MultipartPart part = invocation.getArgument(1);
+              if (part.getPartNumber() == 2) {
+                throw failure;
+              }
+              return new UploadPartResponse(part.getPartNumber(), "etag", 1000);
+            })
+        .when(store)
+        .doUploadMultipartPart(any(), any());
+
+    RuntimeException thrown =
+        assertThrows(
+            RuntimeException.class,
+            () ->
+                new ParallelFileUploader(0L, 1000L, 1, executor)
+                    .upload(store, UploadRequest.builder().withKey("big").build(), path, 5_000));
+
+    assertSame(failure, thrown);
+    verify(store).doAbortMultipartUpload(mpu);
+    verify(store, never()).doCompleteMultipartUpload(any(), any());
+  }
+}
@@ -0,0 +1,230 @@
+package com.salesforce.multicloudj.blob.driver;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.NavigableMap;
+import java.util.TreeMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+
+class PrefixUsageAggregatorTest {
+
+  private final NavigableMap<String, Long> sizes = new TreeMap<>();
+  private final List<BlobVersionInfo> versions = new ArrayList<>();
+  private final List<String> versionListings = new ArrayList<>();
+  private final ExecutorService executor = Executors.newFixedThreadPool(4);
+  private final AtomicInteger running = new AtomicInteger();
+  private final AtomicInteger maxRunning = new AtomicInteger();
+
+  @AfterEach
+  void tearDown() {
+    executor.shutdownNow();
+  }
+
+  /**
+   * Lists {@link #sizes} the way a substrate does, honouring prefix, delimiter, page size and a
+   * pagination token holding the last key listed.
+   */
+  private ListBlobsPageResponse list(ListBlobsPageRequest request) {
+    maxRunning.accumulateAndGet(running.incrementAndGet(), Math::max);
+    try {
+      Thread.sleep(1);
+    } catch (InterruptedException e) {
+      Thread.currentThread().interrupt();
+    }
+    String prefix = request.getPrefix() == null ? "" : request.getPrefix();
+    String delimiter = request.getDelimiter();
+    String after = request.getPaginationToken();
+    List<BlobInfo> blobs = new ArrayList<>();
+    List<String> prefixes = new ArrayList<>();
+    String last = null;
+    boolean truncated = false;
+    for (Map.Entry<String, Long> entry : sizes.tailMap(prefix, true).entrySet()) {
+      String key = entry.getKey();
+      if (!key.startsWith(prefix)) {
+        break;
+      }
+      int folded = delimiter == null ? -1 : key.indexOf(delimiter, prefix.length());
+      String name = folded < 0 ? key : key.substring(0, folded + delimiter.length());
+      if ((after != null && name.compareTo(after) <= 0) || name.equals(last)) {
+        continue;
+      }
+      if (blobs.size() + prefixes.size() == request.getMaxResults()) {
+        truncated = true;
+        break;
+      }
+      if (folded < 0) {
+        blobs.add(BlobInfo.builder().withKey(key).withObjectSize(entry.getValue()).build());
+      } else {
+        prefixes.add(name);
+      }
+      last = name;
+    }
+    running.decrementAndGet();
+    return new ListBlobsPageResponse(blobs, prefixes, truncated, truncated ? last : null);
+  }
+
+  private List<PrefixUsage> aggregate(PrefixUsageRequest request) {
+    return new PrefixUsageAggregator(3, 7)
+        .aggregate(request, this::list, this::versions, executor);
+  }
+
+  private Iterator<BlobVersionInfo> versions(String prefix) {
+    versionListings.add(prefix);
+    return versions.stream()
+        .filter(version -> prefix == null || version.getKey().startsWith(prefix))
+        .iterator();
+  }
+
+  private void addVersion(String key, long size, boolean latest, boolean deleteMarker) {
+    versions.add(
+        BlobVersionInfo.builder()
+            .key(key)
+            .versionId(String.valueOf(versions.size()))
+            .objectSize(size)
+            .latest(latest)
+            .deleteMarker(deleteMarker)
+            .build());
+  }
+
+  private void addTenants() {
+    for (int tenant = 0; tenant < 5; tenant++) {
+      for (int i = 0; i < 20; i++) {
+        sizes.put(String.format("tenants/t%d/%s/%02d", tenant, i % 2 == 0 ? "a" : "b", i), 10L);
+      }
+    }
+    sizes.put("tenants/README", 3L);
+    sizes.put("other/x", 1000L);
+  }
+
+  @Test
+  void testTotalsEachSubPrefix() {
+    addTenants();
+
+    List<PrefixUsage> usage =
+        aggregate(PrefixUsageRequest.builder().prefix("tenants/").depth(1).build());
+
+    List<PrefixUsage> expected = new ArrayList<>();
+    expected.add(new PrefixUsage("tenants/", 101, 1003, 0, 0));
+    for (int tenant = 0; tenant < 5; tenant++) {
+      expected.add(new PrefixUsage("tenants/t" + tenant + "/", 20, 200, 0, 0));
+    }
+    assertEquals(expected, usage);
+    assertTrue(maxRunning.get() > 1, "listings never overlapped");
+    assertTrue(maxRunning.get() <= 3, maxRunning.get() + " listings overlapped");
+  }
+
+  @Test
+  void testCompletesWhenCalledFromItsOwnSingleThreadExecutor() throws Exception {
+    addTenants();
+    addVersion("tenants/t0/a/00", 4, false, false);
+    ExecutorService single = Executors.newSingleThreadExecutor();
+    try {
+      PrefixUsageRequest request =
+          PrefixUsageRequest.builder().prefix("tenants/").depth(2).includeVersions(true).build();
+
+      List<PrefixUsage> usage =
+          single
+              .submit(
+                  () ->
+                      new PrefixUsageAggregator(3, 7)
+                          .aggregate(request, this::list, this::versions, single))
+              .get(10, TimeUnit.SECONDS);
+
+      assertEquals(new PrefixUsage("tenants/", 101, 1003, 1, 4), usage.get(0));
+      assertEquals(16, usage.size());
+    } finally {
+      single.shutdownNow();
+    }
+  }
+
+  @Test
+  void testTotalsToDepth() {
+    addTenants();
+
+    List<PrefixUsage> usage = aggregate(PrefixUsageRequest.builder().depth(3).build());
+
+    // The bucket, other/, tenants/, five tenants and two sub-prefixes of each.
+    assertEquals(18, usage.size());
+    assertEquals(new PrefixUsage("", 102, 2003, 0, 0), usage.get(0));
+    assertEquals(new PrefixUsage("other/", 1, 1000, 0, 0), usage.get(1));
+    assertEquals(new PrefixUsage("tenants/", 101, 1003, 0, 0), usage.get(2));
+    assertEquals(new PrefixUsage("tenants/t0/", 20, 200, 0, 0), usage.get(3));
+    assertEquals(new PrefixUsage("tenants/t0/a/", 10, 100, 0, 0), usage.get(4));
+    assertEquals(
+        List.of(new PrefixUsage("", 102, 2003, 0, 0)),
+        aggregate(PrefixUsageRequest.builder().depth(0).build()));
+  }
+
+  @Test
+  void testCountsNoncurrentVersions() {
+    sizes.put("logs/a", 10L);
+    sizes.put("logs/b", 20L);
+    addVersion("logs/a", 10, true, false);
+    addVersion("logs/a", 4, false, false);
+    addVersion("logs/b", 20, true, false);
+    addVersion("logs/b", 4, false, false);
+
+    assertEquals(
+        List.of(new PrefixUsage("logs/", 2, 30, 2, 8)),
+        aggregate(
+            PrefixUsageRequest.builder().prefix("logs/").depth(0).includeVersions(true).build()));
+    assertEquals(List.of("logs/"), versionListings);
+  }
+
+  @Test
+  void testCountsNoncurrentVersionsOfDeletedKeys() {
+    addTenants();
+    addVersion("tenants/t0/a/00", 10, true, false);
+    addVersion("tenants/t0/a/00", 6, false, false);
+    // Deleted: its latest entry is a delete marker, so no object listing returns the key.
+    addVersion("tenants/t9/gone", 0, true, true);
+    addVersion("tenants/t9/gone", 7, false, false);
+    addVersion("tenants/t9/gone", 5, false, false);
+
+    List<PrefixUsage> usage =
+        aggregate(
+            PrefixUsageRequest.builder().prefix("tenants/").depth(1).includeVersions(true).build());
+
+    assertEquals(new PrefixUsage("tenants/", 101, 1003, 3, 18), usage.get(0));
+    assertEquals(new PrefixUsage("tenants/t0/", 20, 200, 1, 6), usage.get(1));
+    assertEquals(new PrefixUsage("tenants/t9/", 0, 0, 2, 12), usage.get(usage.size() - 1));
+    assertEquals(7, usage.size());
+    assertEquals(List.of("tenants/"), versionListings);
+  }
+
+  @Test
+  void testFailedListingFailsAggregation() {
+    addTenants();
+    RuntimeException denied = new IllegalStateException("denied");
+
+    RuntimeException thrown =
+        assertThrows(
+            RuntimeException.class,
+            () ->
+                new PrefixUsageAggregator(2, 7)
+                    .aggregate(
+                        PrefixUsageRequest.builder().prefix("tenants/").depth(1).build(),
+                        request -> {
+                          if ("tenants/t3/".equals(request.getPrefix())) {
+                            throw denied;
+                          }
+                          return list(request);
+                        },
+                        this::versions,
+                        executor));
+
+    assertSame(denied, thrown);
+  }
+}
@@ -0,0 +1,121 @@
+package com.salesforce.multicloudj.blob.driver;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.util.concurrent.Flow;
+import java.util.concurrent.SubmissionPublisher;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
+import org.junit.jupiter.api.Test;
+
+class PublisherInputStreamTest {
+
+  @Test
+  void testReadsBuffersInOrder() throws IOException {
+    try (SubmissionPublisher<ByteBuffer> publisher = new SubmissionPublisher<>()) {
+      InputStream in = new PublisherInputStream(publisher);
+      Thread producer =
+          new Thread(
+              () -> {
+                while (publisher.getNumberOfSubscribers() == 0) {
+                  Thread.onSpinWait();
+                }
+                publisher.submit(ByteBuffer.wrap("hello ".getBytes(StandardCharsets.UTF_8)));
+                publisher.submit(ByteBuffer.allocate(0));
+                ByteBuffer direct = ByteBuffer.allocateDirect(5);
+                direct.put("world".getBytes(StandardCharsets.UTF_8)).flip();
+                publisher.submit(direct);
+                publisher.close();
+              });
+      producer.start();
+
+      assertEquals("hello world", new String(in.readAllBytes(), StandardCharsets.UTF_8));
+      assertEquals(-1, in.read());
+    }
+  }
+
+  @Test
+  void testBoundsOutstandingDemand() throws IOException {
+    AtomicLong requested = new AtomicLong();
+    Flow.Publisher<ByteBuffer> publisher =
+        subscriber ->
+            subscriber.onSubscribe(
+                new Flow.Subscription() {
+                  private long emitted;
+
+                  @Override
+                  public void request(long n) {
+                    requested.addAndGet(n);
+                    for (long i = 0; i < n && emitted < 10; i++, emitted++) {
+                      subscriber.onNext(ByteBuffer.wrap(new byte[] {(byte) emitted}));
+                    }
+                    if (emitted == 10) {
+                      subscriber.onComplete();
+                    }
+                  }
+
+                  @Override
+                  public void cancel() {}
+                });
+
+    InputStream in = new PublisherInputStream(publisher);
+    assertEquals(0, in.read());
+    assertTrue(requested.get() <= PublisherInputStream.PREFETCH);
+
+    byte[] rest = in.readAllBytes();
+    assertArrayEquals(new byte[] {1, 2, 3, 4, 5, 6, 7, 8, 9}, rest);
+  }
+
+  @Test
+  void testPublisherFailureSurfacesAsIoException() {
+    Flow.Publisher<ByteBuffer> publisher =
+        subscriber -> {
+          subscriber.onSubscribe(
+              new Flow.Subscription() {
+                @Override
+                public void request(long n) {}
+
+                @Override
+                public void cancel() {}
+              });
+          subscriber.onError(new IllegalStateException("boom"));
+        };
+
+    IOException thrown =
+        assertThrows(IOException.class, () -> new PublisherInputStream(publisher).read());
+    assertEquals("boom", thrown.getCause().getMessage());
+  }
+
+  @Test
+  void testCloseCancelsSubscription() throws IOException {
+    AtomicBoolean cancelled = new AtomicBoolean();
+    Flow.Publisher<ByteBuffer> publisher =
+        subscriber ->
+            subscriber.onSubscribe(
+                new Flow.Subscription() {
+                  @Override
+                  public void request(long n) {
+                    subscriber.onNext(ByteBuffer.wrap(new byte[] {42}));
+                  }
+
+                  @Override
+                  public void cancel() {
+                    cancelled.set(true);
+                  }
+                });
+
+    InputStream in = new PublisherInputStream(publisher);
+    assertEquals(42, in.read());
+    in.close();
+
+    assertTrue(cancelled.get());
+    assertEquals(-1, in.read());
+  }
+}
@@ -0,0 +1,92 @@
+package com.salesforce.multicloudj.blob.driver;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+import java.nio.ByteBuffer;
+import java.util.Arrays;
+import java.util.List;
+import java.util.stream.Collectors;
+import org.junit.jupiter.api.Test;
+
+public class RangeCoalescerTest {
+
+  private static MultiRangeDownloadRequest request(long gap, long maxSpan, ByteRange... ranges) {
+    return MultiRangeDownloadRequest.builder()
+        .withKey("object-1")
+        .withRanges(Arrays.asList(ranges))
+        .withMaxGapInBytes(gap)
+        .withMaxSpanSizeInBytes(maxSpan)
+        .build();
+  }
+
+  @Test
+  void testPlanMergesRangesWithinGap() {
+    List<ByteRange> spans =
+        RangeCoalescer.plan(
+            request(
+                10,
+                1_000,
+                ByteRange.of(100, 109),
+                ByteRange.of(0, 9),
+                ByteRange.of(20, 29),
+                ByteRange.of(41, 49)));
+    assertEquals(List.of(ByteRange.of(0, 29), ByteRange.of(41, 49), ByteRange.of(100, 109)),
+        spans);
+  }
+
+  @Test
+  void testPlanMergesOverlappingAndAdjacentRangesWithZeroGap() {
+    List<ByteRange> spans =
+        RangeCoalescer.plan(
+            request(0, 1_000, ByteRange.of(0, 9), ByteRange.of(5, 14), ByteRange.of(15, 20),
+                ByteRange.of(22, 30)));
+    assertEquals(List.of(ByteRange.of(0, 20), ByteRange.of(22, 30)), spans);
+  }
+
+  @Test
+  void testPlanRespectsMaxSpanSize() {
+    List<ByteRange> spans =
+        RangeCoalescer.plan(
+            request(100, 25, ByteRange.of(0, 9), ByteRange.of(10, 19), ByteRange.of(20, 29),
+                ByteRange.of(30, 99)));
+    assertEquals(
+        List.of(ByteRange.of(0, 19), ByteRange.of(20, 29), ByteRange.of(30, 99)), spans);
+  }
+
+  @Test
+  void testSliceReturnsBuffersInRequestOrder() {
+    byte[] object = new byte[200];
+    for (int i = 0; i < object.length; i++) {
+      object[i] = (byte) i;
+    }
+    MultiRangeDownloadRequest request =
+        request(10, 1_000, ByteRange.of(150, 159), ByteRange.of(0, 4), ByteRange.of(3, 12));
+    List<ByteRange> spans = RangeCoalescer.plan(request);
+    List<byte[]> spanBytes =
+        spans.stream()
+            .map(s -> Arrays.copyOfRange(object, (int) s.getStart(), (int) s.getEnd() + 1))
+            .collect(Collectors.toList());
+
+    MultiRangeDownloadResponse response = RangeCoalescer.slice(request, spans, spanBytes);
+
+    assertEquals(2, response.getRequestCount());
+    assertArrayEquals(Arrays.copyOfRange(object, 150, 160), toBytes(response.getBuffers().get(0)));
+    assertArrayEquals(Arrays.copyOfRange(object, 0, 5), toBytes(response.getBuffers().get(1)));
+    assertArrayEquals(Arrays.copyOfRange(object, 3, 13), toBytes(response.getBuffers().get(2)));
+  }
+
+  @Test
+  void testSliceTruncatesRangesPastEndOfBlob() {
+    MultiRangeDownloadRequest request = request(0, 1_000, ByteRange.of(5, 19));
+    MultiRangeDownloadResponse response =
+        RangeCoalescer.slice(request, RangeCoalescer.plan(request), List.of(new byte[8]));
+    assertEquals(8, response.getBuffers().get(0).remaining());
+  }
+
+  private static byte[] toBytes(ByteBuffer buffer) {
+    byte[] bytes = new byte[buffer.remaining()];
+    buffer.duplicate().get(bytes);
+    return bytes;
+  }
+}
@@ -0,0 +1,101 @@
+package com.salesforce.multicloudj.blob.driver;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotEquals;
+import static org.junit.jupiter.api.Assertions.assertNotSame;
+import static org.junit.jupiter.api.Assertions.assertSame;
+
+import com.salesforce.multicloudj.common.retries.RetryConfig;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+import org.junit.jupiter.api.Test;
+
+class SharedClientsTest {
+
+  private static class Client implements AutoCloseable {
+    private final AtomicInteger closes = new AtomicInteger();
+
+    @Override
+    public void close() {
+      closes.incrementAndGet();
+    }
+  }
+
+  private static TestBlobStore.Builder builder(String bucket) {
+    TestBlobStore.Builder builder = new TestBlobStore.Builder();
+    builder.withBucket(bucket).withRegion("us-west-2").withMaxConnections(64);
+    return builder;
+  }
+
+  @Test
+  void testStoresConfiguredAlikeShareOneClient() {
+    SharedClients shared = new SharedClients();
+    AtomicInteger built = new AtomicInteger();
+
+    SharedClients.Lease<Client> first =
+        shared.acquire(
+            SharedClients.clientKey(builder("tenant-1")),
+            () -> {
+              built.incrementAndGet();
+              return new Client();
+            });
+    SharedClients.Lease<Client> second =
+        shared.acquire(SharedClients.clientKey(builder("tenant-2")), Client::new);
+
+    assertSame(first.get(), second.get());
+    assertEquals(1, built.get());
+    assertEquals(1, shared.size());
+  }
+
+  @Test
+  void testDifferingSettingGetsItsOwnClient() {
+    SharedClients shared = new SharedClients();
+    TestBlobStore.Builder other = builder("tenant-2");
+    other.withMaxConnections(8);
+
+    SharedClients.Lease<Client> first =
+        shared.acquire(SharedClients.clientKey(builder("tenant-1")), Client::new);
+    SharedClients.Lease<Client> second =
+        shared.acquire(SharedClients.clientKey(other), Client::new);
+
+    assertNotSame(first.get(), second.get());
+    assertEquals(2, shared.size());
+    assertNotEquals(
+        SharedClients.clientKey(builder("a"), 1), SharedClients.clientKey(builder("a"), 2));
+  }
+
+  @Test
+  void testRetryConfigsAreComparedByIdentity() {
+    RetryConfig retryConfig = RetryConfig.builder().maxAttempts(3).build();
+    TestBlobStore.Builder first = builder("tenant-1");
+    first.withRetryConfig(retryConfig);
+    TestBlobStore.Builder second = builder("tenant-2");
+    second.withRetryConfig(retryConfig);
+    TestBlobStore.Builder third = builder("tenant-3");
+    third.withRetryConfig(RetryConfig.builder().maxAttempts(3).build());
+
+    assertEquals(SharedClients.clientKey(first), SharedClients.clientKey(second));
+    assertNotEquals(SharedClients.clientKey(first), SharedClients.clientKey(third));
+  }
+
+  @Test
+  void testClientClosesWithLastReference() {
+    SharedClients shared = new SharedClients();
+    List<Object> key = SharedClients.clientKey(builder("tenant-1"));
+    SharedClients.Lease<Client> first = shared.acquire(key, Client::new);
+    SharedClients.Lease<Client> second = shared.acquire(key, Client::new);
+    Client client = first.get();
+
+    first.close();
+    first.close();
+    assertEquals(0, client.closes.get());
+    assertEquals(1, shared.size());
+
+    second.close();
+    assertEquals(1, client.closes.get());
+    assertEquals(0, shared.size());
+
+    SharedClients.Lease<Client> reopened = shared.acquire(key, Client::new);
+    assertNotSame(client, reopened.get());
+  }
+}
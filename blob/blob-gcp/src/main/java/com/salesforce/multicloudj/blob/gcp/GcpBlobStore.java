@@ -48,6 +48,7 @@ import com.salesforce.multicloudj.blob.driver.AbstractBlobStore;
 import com.salesforce.multicloudj.blob.driver.BlobIdentifier;
 import com.salesforce.multicloudj.blob.driver.BlobMetadata;
 import com.salesforce.multicloudj.blob.driver.BlobStoreBuilder;
+import com.salesforce.multicloudj.blob.driver.BlobVersionInfo;
 import com.salesforce.multicloudj.blob.driver.BucketVersioningConfiguration;
 import com.salesforce.multicloudj.blob.driver.ByteArray;
 import com.salesforce.multicloudj.blob.driver.ChecksumMethod;
@@ -74,16 +75,19 @@ import com.salesforce.multicloudj.blob.driver.ObjectLockConfiguration;
 import com.salesforce.multicloudj.blob.driver.ObjectLockInfo;
 import com.salesforce.multicloudj.blob.driver.ObjectRetentionConfig;
 import com.salesforce.multicloudj.blob.driver.ObjectRetentionRules;
+import com.salesforce.multicloudj.blob.driver.ParallelFileUploader;
 import com.salesforce.multicloudj.blob.driver.PresignedOperation;
 import com.salesforce.multicloudj.blob.driver.PresignedUrlRequest;
 import com.salesforce.multicloudj.blob.driver.PresignedUrlResponse;
 import com.salesforce.multicloudj.blob.driver.RetentionMode;
+import com.salesforce.multicloudj.blob.driver.SharedClients;
 import com.salesforce.multicloudj.blob.driver.UploadRequest;
 import com.salesforce.multicloudj.blob.driver.UploadResponse;
 import com.salesforce.multicloudj.common.exceptions.ArchiveInfo;
 import com.salesforce.multicloudj.common.exceptions.ExceptionHandler;
 import com.salesforce.multicloudj.common.exceptions.FailedPreconditionException;
 import com.salesforce.multicloudj.common.exceptions.InvalidArgumentException;
+import com.salesforce.multicloudj.common.exceptions.ResourceConflictException;
 import com.salesforce.multicloudj.common.exceptions.ResourceNotFoundException;
 import com.salesforce.multicloudj.common.exceptions.SubstrateSdkException;
 import com.salesforce.multicloudj.common.exceptions.UnSupportedOperationException;
@@ -143,6 +147,11 @@ public class GcpBlobStore extends AbstractBlobStore {
   private final MultipartUploadClient multipartUploadClient;
   private final TransferManager transferManager;
   private final GcpTransformer transformer;
+  private final ParallelFileUploader parallelFileUploader;
+
+  /** This store's reference to clients shared with other stores, or null if it owns them. */
+  private final SharedClients.Lease<SharedGcpClients> clientLease;
+
   private static final String TAG_PREFIX = "gcp-tag-";
   private static final String RESPONSE_CONTENT_DISPOSITION = "response-content-disposition";
 
@@ -155,11 +164,28 @@ public class GcpBlobStore extends AbstractBlobStore {
       Storage storage,
       MultipartUploadClient mpuClient,
       TransferManager transferManager) {
+    this(builder, storage, mpuClient, transferManager, null);
+  }
+
+  private GcpBlobStore(
+      Builder builder,
+      Storage storage,
+      MultipartUploadClient mpuClient,
+      TransferManager transferManager,
+      SharedClients.Lease<SharedGcpClients> clientLease) {
     super(builder);
     this.storage = storage;
     this.multipartUploadClient = mpuClient;
     this.transferManager = transferManager;
+    this.clientLease = clientLease;
     this.transformer = builder.transformerSupplier.get(bucket);
+    // The XML multipart API does not return the new object's generation, so files go up in
+    // parallel parts only when the builder asks for it; by default they keep the single request
+    // path, whose response carries the generation as the versionId.
+    this.parallelFileUploader =
+        Boolean.TRUE.equals(builder.getParallelUploadsEnabled())
+            ? ParallelFileUploader.from(builder, executorService)
+            : null;
   }
 
   @Override
@@ -220,6 +246,12 @@ public class GcpBlobStore extends AbstractBlobStore {
   protected UploadResponse doUpload(UploadRequest uploadRequest, Path path) {
     rejectUnsupportedChecksum(uploadRequest.getChecksumAlgorithm());
     try {
+      // createFrom streams the file through one resumable upload; large files go up as
+      // concurrent XML multipart parts instead.
+      long size = path.toFile().length();
+      if (parallelFileUploader != null && parallelFileUploader.appliesTo(uploadRequest, size)) {
+        return parallelFileUploader.upload(this, uploadRequest, path, size);
+      }
       Blob blob =
           storage.createFrom(
               transformer.toBlobInfo(uploadRequest),
@@ -236,6 +268,15 @@ public class GcpBlobStore extends AbstractBlobStore {
       DownloadRequest downloadRequest, OutputStream outputStream) {
     BlobId blobId = transformer.toBlobId(downloadRequest);
     Blob blob = getRequiredBlobForDownload(downloadRequest, blobId);
+    DownloadResponse notModified = notModifiedResponse(downloadRequest, blob);
+    if (notModified != null) {
+      return notModified;
+    }
+    return streamTo(downloadRequest, blobId, blob, outputStream);
+  }
+
+  private DownloadResponse streamTo(
+      DownloadRequest downloadRequest, BlobId blobId, Blob blob, OutputStream outputStream) {
     // Parallel download uses Transfer Manager / file paths only; OutputStream downloads always use
     // ReadChannel streaming (parallelDownload is ignored for this overload).
     try (ReadChannel reader = storage.reader(blobId);
@@ -267,6 +308,10 @@ public class GcpBlobStore extends AbstractBlobStore {
   protected DownloadResponse doDownload(DownloadRequest downloadRequest) {
     BlobId blobId = transformer.toBlobId(downloadRequest);
     Blob blob = getRequiredBlobForDownload(downloadRequest, blobId);
+    DownloadResponse notModified = notModifiedResponse(downloadRequest, blob);
+    if (notModified != null) {
+      return notModified;
+    }
     try {
       ReadChannel reader = blob.reader();
       applyRange(reader, downloadRequest, blob);
@@ -324,8 +369,15 @@ public class GcpBlobStore extends AbstractBlobStore {
         && downloadRequest.getEnd() == null) {
       return doParallelDownload(downloadRequest, destinationPath);
     }
+    BlobId blobId = transformer.toBlobId(downloadRequest);
+    Blob blob = getRequiredBlobForDownload(downloadRequest, blobId);
+    // Checked before opening the destination so an unchanged object leaves the file untouched.
+    DownloadResponse notModified = notModifiedResponse(downloadRequest, blob);
+    if (notModified != null) {
+      return notModified;
+    }
     try (OutputStream outputStream = Files.newOutputStream(destinationPath)) {
-      return doDownload(downloadRequest, outputStream);
+      return streamTo(downloadRequest, blobId, blob, outputStream);
     } catch (IOException e) {
       throw new SubstrateSdkException("Request failed while saving content to path", e);
     }
@@ -340,6 +392,10 @@ public class GcpBlobStore extends AbstractBlobStore {
   private DownloadResponse doParallelDownload(DownloadRequest downloadRequest, Path destination) {
     BlobId blobId = transformer.toBlobId(downloadRequest);
     Blob blob = getRequiredBlobForDownload(downloadRequest, blobId);
+    DownloadResponse notModified = notModifiedResponse(downloadRequest, blob);
+    if (notModified != null) {
+      return notModified;
+    }
     ParallelTmPaths tmPaths = computeParallelTmPaths(downloadRequest, destination);
     if (transferManager == null || tmPaths == null) {
       return downloadBlobToPath(blob, destination);
@@ -536,18 +592,25 @@ public class GcpBlobStore extends AbstractBlobStore {
       @Override
       public com.salesforce.multicloudj.blob.driver.BlobInfo next() {
         Blob blob = blobIterator.next();
-        return com.salesforce.multicloudj.blob.driver.BlobInfo.builder()
-            .withKey(blob.getName())
-            .withObjectSize(blob.getSize())
-            .withLastModified(
-                blob.getUpdateTimeOffsetDateTime() != null
-                    ? blob.getUpdateTimeOffsetDateTime().toInstant()
-                    : null)
-            .build();
+        return toListedBlobInfo(blob);
       }
     };
   }
 
+  /** Converts a listed object; the generation is reported as its version. */
+  private static com.salesforce.multicloudj.blob.driver.BlobInfo toListedBlobInfo(Blob blob) {
+    return com.salesforce.multicloudj.blob.driver.BlobInfo.builder()
+        .withKey(blob.getName())
+        .withObjectSize(blob.getSize())
+        .withLastModified(
+            blob.getUpdateTimeOffsetDateTime() != null
+                ? blob.getUpdateTimeOffsetDateTime().toInstant()
+                : null)
+        .withETag(blob.getEtag())
+        .withVersionId(blob.getGeneration() != null ? blob.getGeneration().toString() : null)
+        .build();
+  }
+
   /**
    * Lists a single page of objects in the bucket with pagination support
    *
@@ -566,15 +629,7 @@ public class GcpBlobStore extends AbstractBlobStore {
       if (blob.isDirectory()) {
         commonPrefixes.add(blob.getName());
       } else {
-        blobs.add(
-            com.salesforce.multicloudj.blob.driver.BlobInfo.builder()
-                .withKey(blob.getName())
-                .withObjectSize(blob.getSize())
-                .withLastModified(
-                    blob.getUpdateTimeOffsetDateTime() != null
-                        ? blob.getUpdateTimeOffsetDateTime().toInstant()
-                        : null)
-                .build());
+        blobs.add(toListedBlobInfo(blob));
       }
     }
 
@@ -624,6 +679,31 @@ public class GcpBlobStore extends AbstractBlobStore {
     };
   }
 
+  /**
+   * Lists every generation under the prefix with one paginated {@code versions(true)} listing,
+   * fetching pages as the iterator advances. GCS keeps no delete markers: a noncurrent generation
+   * carries the time it was replaced or deleted, and the live generation has none.
+   */
+  @Override
+  protected Iterator<BlobVersionInfo> doListAllVersions(String prefix) {
+    List<Storage.BlobListOption> listOptions = new ArrayList<>();
+    if (prefix != null) {
+      listOptions.add(Storage.BlobListOption.prefix(prefix));
+    }
+    listOptions.add(Storage.BlobListOption.versions(true));
+    Iterable<Blob> blobs =
+        storage.list(getBucket(), listOptions.toArray(new Storage.BlobListOption[0])).iterateAll();
+    return Iterators.transform(
+        blobs.iterator(),
+        blob ->
+            BlobVersionInfo.builder()
+                .key(blob.getName())
+                .versionId(blob.getGeneration() != null ? blob.getGeneration().toString() : null)
+                .objectSize(blob.getSize() != null ? blob.getSize() : 0L)
+                .latest(blob.getDeleteTimeOffsetDateTime() == null)
+                .build());
+  }
+
   @Override
   protected MultipartUpload doInitiateMultipartUpload(MultipartUploadRequest request) {
     rejectUnsupportedChecksum(request.getChecksumAlgorithm());
@@ -836,6 +916,33 @@ public class GcpBlobStore extends AbstractBlobStore {
         "Blob not found: " + blobId.getBucket() + "/" + blobId.getName());
   }
 
+  /**
+   * Evaluates the preconditions of a conditional download against the blob every download already
+   * fetches, so revalidation costs no extra request. GCS has no If-Modified-Since and its
+   * If-None-Match surfaces as a failed read, so the comparison is made here rather than sent. Nor
+   * can a GCS read carry an ETag to match, so If-Match is checked here too; the read that follows
+   * is pinned to the generation of this blob.
+   *
+   * @return a not-modified response, or null if the content should be read
+   * @throws ResourceConflictException if the If-Match precondition finds the blob changed
+   */
+  private DownloadResponse notModifiedResponse(DownloadRequest downloadRequest, Blob blob) {
+    if (!downloadRequest.isConditional()) {
+      return null;
+    }
+    BlobMetadata metadata = transformer.toBlobMetadata(blob);
+    if (downloadRequest.getPreconditions().isChanged(metadata.getETag())) {
+      throw new ResourceConflictException(
+          "Object " + downloadRequest.getKey() + " does not match the expected ETag");
+    }
+    if (!downloadRequest
+        .getPreconditions()
+        .isNotModified(metadata.getETag(), metadata.getLastModified())) {
+      return null;
+    }
+    return DownloadResponse.notModified(downloadRequest.getKey(), metadata);
+  }
+
   private void handleArchived(BlobId blobId) {
     Page<Blob> versions = storage.list(
         blobId.getBucket(),
@@ -1057,12 +1164,6 @@ public class GcpBlobStore extends AbstractBlobStore {
     return transformer.toBucketVersioningConfiguration(bucketObj.versioningEnabled());
   }
 
-  /**
-   * Maximum number of objects that can be deleted in a single batch operation. GCP supports up to
-   * 1000 objects per batch delete.
-   */
-  private static final int MAX_OBJECTS_PER_BATCH_DELETE = 1000;
-
   @Override
   protected DirectoryUploadResponse doUploadDirectory(
       DirectoryUploadRequest directoryUploadRequest) {
@@ -1244,48 +1345,6 @@ public class GcpBlobStore extends AbstractBlobStore {
     }
   }
 
-  @Override
-  protected void doDeleteDirectory(String prefix) {
-    try {
-      // List all blobs with the given prefix and delete them in batches
-      Storage.BlobListOption[] options =
-          prefix != null
-              ? new Storage.BlobListOption[] {Storage.BlobListOption.prefix(prefix)}
-              : new Storage.BlobListOption[0];
-
-      List<Blob> blobs = new ArrayList<>();
-      for (Blob blob : storage.list(getBucket(), options).getValues()) {
-        blobs.add(blob);
-      }
-
-      // Convert GCP Blob objects to DriverBlobInfo objects for partitioning
-      var blobInfos = new ArrayList<com.salesforce.multicloudj.blob.driver.BlobInfo>();
-      for (Blob blob : blobs) {
-        blobInfos.add(
-            com.salesforce.multicloudj.blob.driver.BlobInfo.builder()
-                .withKey(blob.getName())
-                .withObjectSize(blob.getSize())
-                .build());
-      }
-
-      // Partition the blobs into smaller chunks for batch deletion
-      var partitionedBlobLists = transformer.partitionList(blobInfos, MAX_OBJECTS_PER_BATCH_DELETE);
-
-      // Delete each partition
-      for (var blobList : partitionedBlobLists) {
-        List<BlobId> blobIds =
-            blobList.stream()
-                .map(blobInfo -> BlobId.of(getBucket(), blobInfo.getKey()))
-                .collect(Collectors.toList());
-
-        storage.delete(blobIds);
-      }
-
-    } catch (Exception e) {
-      throw new SubstrateSdkException("Failed to delete directory", e);
-    }
-  }
-
   /** Gets object lock configuration for a blob. */
   @Override
   public ObjectLockInfo getObjectLock(String key, String versionId) {
@@ -1512,9 +1571,16 @@ public class GcpBlobStore extends AbstractBlobStore {
     return ExceptionHandler.build(exceptionClass, t, GcpRetryClassifier.classify(t));
   }
 
-  /** Closes the underlying GCP Storage clients and releases any resources. */
+  /**
+   * Closes the underlying GCP Storage clients and releases any resources. Shared clients are only
+   * closed once the last store using them is closed.
+   */
   @Override
   public void close() {
+    if (clientLease != null) {
+      clientLease.close();
+      return;
+    }
     try {
       if (transferManager != null) {
         transferManager.close();
@@ -1527,6 +1593,28 @@ public class GcpBlobStore extends AbstractBlobStore {
     }
   }
 
+  /** The clients a store uses, shared by stores configured alike. */
+  private static final class SharedGcpClients implements AutoCloseable {
+    private final Storage storage;
+    private final MultipartUploadClient mpuClient;
+    private final TransferManager transferManager;
+
+    private SharedGcpClients(
+        Storage storage, MultipartUploadClient mpuClient, TransferManager transferManager) {
+      this.storage = storage;
+      this.mpuClient = mpuClient;
+      this.transferManager = transferManager;
+    }
+
+    @Override
+    public void close() throws Exception {
+      if (transferManager != null) {
+        transferManager.close();
+      }
+      storage.close();
+    }
+  }
+
   @Getter
   public static class Builder extends AbstractBlobStore.Builder<GcpBlobStore, Builder> {
 
@@ -1714,12 +1802,18 @@ public class GcpBlobStore extends AbstractBlobStore {
       TransferManagerConfig.Builder configBuilder =
           TransferManagerConfig.newBuilder().setStorageOptions(options);
 
-      // Map transferManagerThreadPoolSize -> setMaxWorkers.
+      // Map transferManagerThreadPoolSize -> setMaxWorkers, falling back to
+      // transferDirectoryMaxConcurrency: each worker transfers one file at a time, so the worker
+      // count is the number of files a directory operation keeps in flight.
       // Unset, GCS defaults maxWorkers to 2 x availableProcessors. When raising this for
       // directory-heavy workloads, also raise withMaxConnections (see buildHttpClient): extra
       // workers only help if the single-route Apache connection pool can serve them concurrently.
-      if (builder.getTransferManagerThreadPoolSize() != null) {
-        configBuilder.setMaxWorkers(builder.getTransferManagerThreadPoolSize());
+      Integer maxWorkers =
+          builder.getTransferManagerThreadPoolSize() != null
+              ? builder.getTransferManagerThreadPoolSize()
+              : builder.getTransferDirectoryMaxConcurrency();
+      if (maxWorkers != null) {
+        configBuilder.setMaxWorkers(maxWorkers);
       }
 
       // Map partBufferSize -> setPerWorkerBufferSize. GCP API takes int, so guard against overflow.
@@ -1788,6 +1882,12 @@ public class GcpBlobStore extends AbstractBlobStore {
 
     @Override
     public GcpBlobStore build() {
+      if (storage == null
+          && mpuClient == null
+          && transferManager == null
+          && getSharedClients() != null) {
+        return buildOnSharedClients();
+      }
       Storage storage = this.storage;
       MultipartUploadClient mpuClient = this.mpuClient;
       TransferManager transferManager = this.transferManager;
@@ -1802,5 +1902,31 @@ public class GcpBlobStore extends AbstractBlobStore {
       }
       return new GcpBlobStore(this, storage, mpuClient, transferManager);
     }
+
+    private GcpBlobStore buildOnSharedClients() {
+      // The transfer manager is part of the shared clients, so its settings must match too.
+      List<Object> key =
+          SharedClients.clientKey(
+              this,
+              getTransferManagerThreadPoolSize(),
+              getTransferDirectoryMaxConcurrency(),
+              getPartBufferSize(),
+              getParallelDownloadsEnabled(),
+              getParallelUploadsEnabled());
+      SharedClients.Lease<SharedGcpClients> lease =
+          getSharedClients()
+              .acquire(
+                  key,
+                  () -> {
+                    Storage shared = buildStorage(this);
+                    return new SharedGcpClients(
+                        shared,
+                        buildMultipartUploadClient(this),
+                        buildTransferManager(this, shared));
+                  });
+      SharedGcpClients clients = lease.get();
+      return new GcpBlobStore(
+          this, clients.storage, clients.mpuClient, clients.transferManager, lease);
+    }
   }
 }
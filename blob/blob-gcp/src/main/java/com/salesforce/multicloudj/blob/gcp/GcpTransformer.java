@@ -387,6 +387,15 @@ public class GcpTransformer {
       options.add(Storage.BlobListOption.pageSize(request.getMaxResults().longValue()));
     }
 
+    // GCS offsets are [startOffset, endOffset); key + '\0' is the first name after the key.
+    if (request.getStartAfter() != null) {
+      options.add(Storage.BlobListOption.startOffset(request.getStartAfter() + '\0'));
+    }
+
+    if (request.getEndBefore() != null) {
+      options.add(Storage.BlobListOption.endOffset(request.getEndBefore()));
+    }
+
     return options.toArray(new Storage.BlobListOption[0]);
   }
 
@@ -61,6 +61,8 @@ import com.google.cloud.storage.transfermanager.UploadResult;
 import com.google.common.io.ByteStreams;
 import com.salesforce.multicloudj.blob.driver.BlobIdentifier;
 import com.salesforce.multicloudj.blob.driver.BlobMetadata;
+import com.salesforce.multicloudj.blob.driver.BlobPreconditions;
+import com.salesforce.multicloudj.blob.driver.BlobVersionInfo;
 import com.salesforce.multicloudj.blob.driver.BucketVersioningConfiguration;
 import com.salesforce.multicloudj.blob.driver.BucketVersioningStatus;
 import com.salesforce.multicloudj.blob.driver.ByteArray;
@@ -130,6 +132,7 @@ import java.util.Map;
 import java.util.NoSuchElementException;
 import java.util.concurrent.ForkJoinPool;
 import java.util.concurrent.TimeUnit;
+import java.util.stream.Collectors;
 import org.apache.commons.lang3.tuple.ImmutablePair;
 import org.apache.http.impl.client.CloseableHttpClient;
 import org.apache.http.impl.conn.PoolingHttpClientConnectionManager;
@@ -275,6 +278,21 @@ class GcpBlobStoreTest {
     assertEquals(TEST_BUCKET, store.getBucket());
   }
 
+  @Test
+  void testTransferDirectoryMaxConcurrencySizesWorkerPool() {
+    // Without transferManagerThreadPoolSize, buildTransferManager falls back to
+    // transferDirectoryMaxConcurrency for the worker count.
+    GcpBlobStore store =
+        (GcpBlobStore)
+            new GcpBlobStore.Builder()
+                .withBucket(TEST_BUCKET)
+                .withTransferDirectoryMaxConcurrency(4)
+                .build();
+
+    assertNotNull(store);
+    assertEquals(TEST_BUCKET, store.getBucket());
+  }
+
   @Test
   void testPartBufferSizeOverflowRejected() {
     // partBufferSize is a Long in the cross-cloud builder but GCP's setPerWorkerBufferSize
@@ -400,6 +418,72 @@ class GcpBlobStoreTest {
     verify(mockTransformer).toUploadResponse(mockBlob);
   }
 
+  @Test
+  void testDoUpload_LargePathUploadsPartsInParallel() throws IOException {
+    Path testFile = tempDir.resolve("large.bin");
+    Files.write(testFile, new byte[2500]);
+    GcpBlobStore.Builder builder =
+        (GcpBlobStore.Builder)
+            new GcpBlobStore.Builder()
+                .withStorage(mockStorage)
+                .withTransformerSupplier(mockTransformerSupplier)
+                .withBucket(TEST_BUCKET)
+                .withThresholdBytes(1000L)
+                .withPartBufferSize(1000L)
+                .withParallelUploadsEnabled(true);
+    GcpBlobStore store = new GcpBlobStore(builder, mockStorage, mpuClient, mockTransferManager);
+    when(mpuClient.createMultipartUpload(any(CreateMultipartUploadRequest.class)))
+        .thenReturn(CreateMultipartUploadResponse.builder().uploadId("upload-id").build());
+    when(mpuClient.uploadPart(any(UploadPartRequest.class), any(RequestBody.class)))
+        .thenReturn(UploadPartResponse.builder().eTag("part-etag").build());
+    when(mpuClient.completeMultipartUpload(any(CompleteMultipartUploadRequest.class)))
+        .thenReturn(CompleteMultipartUploadResponse.builder().etag("complete-etag").build());
+
+    UploadResponse response =
+        store.upload(UploadRequest.builder().withKey(TEST_KEY).build(), testFile);
+
+    assertEquals(TEST_KEY, response.getKey());
+    assertEquals("complete-etag", response.getETag());
+    verify(mpuClient, Mockito.times(3))
+        .uploadPart(any(UploadPartRequest.class), any(RequestBody.class));
+    ArgumentCaptor<CompleteMultipartUploadRequest> captor =
+        ArgumentCaptor.forClass(CompleteMultipartUploadRequest.class);
+    verify(mpuClient).completeMultipartUpload(captor.capture());
+    assertEquals(3, captor.getValue().multipartUpload().parts().size());
+    verify(mockStorage, never())
+        .createFrom(any(BlobInfo.class), any(Path.class), any(Storage.BlobWriteOption[].class));
+  }
+
+  @Test
+  void testDoUpload_LargePathKeepsSingleRequestByDefault() throws IOException {
+    Path testFile = tempDir.resolve("large.bin");
+    Files.write(testFile, new byte[2500]);
+    GcpBlobStore.Builder builder =
+        (GcpBlobStore.Builder)
+            new GcpBlobStore.Builder()
+                .withStorage(mockStorage)
+                .withTransformerSupplier(mockTransformerSupplier)
+                .withBucket(TEST_BUCKET)
+                .withThresholdBytes(1000L)
+                .withPartBufferSize(1000L);
+    GcpBlobStore store = new GcpBlobStore(builder, mockStorage, mpuClient, mockTransferManager);
+    UploadRequest uploadRequest = UploadRequest.builder().withKey(TEST_KEY).build();
+    when(mockTransformer.toBlobInfo(uploadRequest)).thenReturn(mockBlobInfo);
+    when(mockTransformer.getBlobWriteOptions(uploadRequest))
+        .thenReturn(new Storage.BlobWriteOption[0]);
+    when(mockStorage.createFrom(
+        eq(mockBlobInfo), eq(testFile), any(Storage.BlobWriteOption[].class)))
+        .thenReturn(mockBlob);
+    when(mockTransformer.toUploadResponse(mockBlob))
+        .thenReturn(UploadResponse.builder().key(TEST_KEY).versionId(TEST_VERSION_ID).build());
+
+    UploadResponse response = store.upload(uploadRequest, testFile);
+
+    // The multipart API returns no generation, so only the single request reports the version.
+    assertEquals(TEST_VERSION_ID, response.getVersionId());
+    verify(mpuClient, never()).createMultipartUpload(any(CreateMultipartUploadRequest.class));
+  }
+
   @Test
   void testDoUpload_WithPath() throws IOException {
     // Given
@@ -648,6 +732,53 @@ class GcpBlobStoreTest {
     }
   }
 
+  @Test
+  void testDoDownload_WithPath_NotModifiedSkipsRead() {
+    Path testFile = tempDir.resolve("cached.txt");
+    DownloadRequest downloadRequest =
+        DownloadRequest.builder()
+            .withKey(TEST_KEY)
+            .withPreconditions(BlobPreconditions.builder().withIfNoneMatch("etag-1").build())
+            .build();
+    BlobMetadata metadata = BlobMetadata.builder().key(TEST_KEY).eTag("etag-1").build();
+
+    when(mockTransformer.toBlobId(downloadRequest)).thenReturn(mockBlobId);
+    when(mockStorage.get(mockBlobId)).thenReturn(mockBlob);
+    when(mockTransformer.toBlobMetadata(mockBlob)).thenReturn(metadata);
+
+    DownloadResponse response = gcpBlobStore.doDownload(downloadRequest, testFile);
+
+    assertTrue(response.isNotModified());
+    assertEquals(metadata, response.getMetadata());
+    assertFalse(Files.exists(testFile));
+    verify(mockStorage, never()).reader(any(BlobId.class));
+  }
+
+  @Test
+  void testDoDownload_WithOutputStream_ModifiedReadsContent() {
+    try (MockedStatic<ByteStreams> ignored = Mockito.mockStatic(ByteStreams.class)) {
+      DownloadRequest downloadRequest =
+          DownloadRequest.builder()
+              .withKey(TEST_KEY)
+              .withPreconditions(BlobPreconditions.builder().withIfNoneMatch("etag-0").build())
+              .build();
+      DownloadResponse expectedResponse = DownloadResponse.builder().key(TEST_KEY).build();
+
+      when(mockTransformer.toBlobId(downloadRequest)).thenReturn(mockBlobId);
+      when(mockStorage.get(mockBlobId)).thenReturn(mockBlob);
+      when(mockStorage.reader(mockBlobId)).thenReturn(mockReadChannel);
+      when(mockTransformer.toBlobMetadata(mockBlob))
+          .thenReturn(BlobMetadata.builder().key(TEST_KEY).eTag("etag-1").build());
+      when(mockTransformer.toDownloadResponse(mockBlob)).thenReturn(expectedResponse);
+
+      DownloadResponse response =
+          gcpBlobStore.doDownload(downloadRequest, new ByteArrayOutputStream());
+
+      assertEquals(expectedResponse, response);
+      verify(mockStorage).reader(mockBlobId);
+    }
+  }
+
   @Test
   void testDoDownload_WithPathAndCreateParentPath() {
     try (MockedStatic<ByteStreams> ignored = Mockito.mockStatic(ByteStreams.class)) {
@@ -2851,29 +2982,23 @@ class GcpBlobStoreTest {
     when(blob2.getSize()).thenReturn(2048L);
 
     Page<Blob> mockPage = mock(Page.class);
-    when(mockPage.getValues()).thenReturn(List.of(blob1, blob2));
+    when(mockPage.iterateAll()).thenReturn(List.of(blob1, blob2));
     when(mockStorage.list(eq(TEST_BUCKET), any(Storage.BlobListOption[].class)))
         .thenReturn(mockPage);
-
-    // Mock transformer partitioning
-    List<com.salesforce.multicloudj.blob.driver.BlobInfo> blobInfos =
-        List.of(
-            com.salesforce.multicloudj.blob.driver.BlobInfo.builder()
-                .withKey("uploads/file1.txt")
-                .withObjectSize(1024L)
-                .build(),
-            com.salesforce.multicloudj.blob.driver.BlobInfo.builder()
-                .withKey("uploads/file2.txt")
-                .withObjectSize(2048L)
-                .build());
-    when(mockTransformer.partitionList(any(), eq(1000))).thenReturn(List.of(blobInfos));
+    when(mockTransformer.toBlobId(eq(TEST_BUCKET), any(), any()))
+        .thenAnswer(invocation -> BlobId.of(TEST_BUCKET, invocation.getArgument(1)));
 
     // When
     gcpBlobStore.deleteDirectory(prefix);
 
     // Then
-    verify(mockStorage).list(eq(TEST_BUCKET), any(Storage.BlobListOption[].class));
-    verify(mockStorage).delete(any(List.class));
+    ArgumentCaptor<List<BlobId>> deleteCaptor = ArgumentCaptor.forClass(List.class);
+    verify(mockStorage).delete(deleteCaptor.capture());
+    assertEquals(
+        List.of(
+            BlobId.of(TEST_BUCKET, "uploads/file1.txt"),
+            BlobId.of(TEST_BUCKET, "uploads/file2.txt")),
+        deleteCaptor.getValue());
   }
 
   @Test
@@ -2883,41 +3008,29 @@ class GcpBlobStoreTest {
 
     // Create a large list of blobs (more than batch size)
     List<Blob> largeList = new ArrayList<>();
-    List<com.salesforce.multicloudj.blob.driver.BlobInfo> blobInfos = new ArrayList<>();
-
     for (int i = 0; i < 2500; i++) {
       Blob mockBlob = mock(Blob.class);
       when(mockBlob.getName()).thenReturn("uploads/file" + i + ".txt");
       when(mockBlob.getSize()).thenReturn(1024L);
       largeList.add(mockBlob);
-
-      blobInfos.add(
-          com.salesforce.multicloudj.blob.driver.BlobInfo.builder()
-              .withKey("uploads/file" + i + ".txt")
-              .withObjectSize(1024L)
-              .build());
     }
 
     Page<Blob> mockPage = mock(Page.class);
-    when(mockPage.getValues()).thenReturn(largeList);
+    when(mockPage.iterateAll()).thenReturn(largeList);
     when(mockStorage.list(eq(TEST_BUCKET), any(Storage.BlobListOption[].class)))
         .thenReturn(mockPage);
-
-    // Mock transformer to return partitioned lists (3 batches for 2500 items)
-    List<List<com.salesforce.multicloudj.blob.driver.BlobInfo>> partitions =
-        List.of(
-            blobInfos.subList(0, 1000),
-            blobInfos.subList(1000, 2000),
-            blobInfos.subList(2000, 2500));
-    when(mockTransformer.partitionList(any(), eq(1000))).thenReturn(partitions);
+    when(mockTransformer.toBlobId(eq(TEST_BUCKET), any(), any()))
+        .thenAnswer(invocation -> BlobId.of(TEST_BUCKET, invocation.getArgument(1)));
 
     // When
     gcpBlobStore.deleteDirectory(prefix);
 
-    // Then
-    verify(mockStorage).list(eq(TEST_BUCKET), any(Storage.BlobListOption[].class));
-    verify(mockStorage, Mockito.times(3))
-        .delete(any(List.class)); // Should be called 3 times for 3 batches
+    // Then: deleted in batches of at most 1000 while the listing is consumed
+    ArgumentCaptor<List<BlobId>> deleteCaptor = ArgumentCaptor.forClass(List.class);
+    verify(mockStorage, Mockito.times(3)).delete(deleteCaptor.capture());
+    assertEquals(
+        List.of(500, 1000, 1000),
+        deleteCaptor.getAllValues().stream().map(List::size).sorted().collect(Collectors.toList()));
   }
 
   @Test
@@ -2926,16 +3039,15 @@ class GcpBlobStoreTest {
     String prefix = null;
 
     Page<Blob> mockPage = mock(Page.class);
-    when(mockPage.getValues()).thenReturn(List.of());
+    when(mockPage.iterateAll()).thenReturn(List.of());
     when(mockStorage.list(eq(TEST_BUCKET), any(Storage.BlobListOption[].class)))
         .thenReturn(mockPage);
 
-    when(mockTransformer.partitionList(any(), eq(1000))).thenReturn(List.of());
-
     // When & Then - should not throw exception
     gcpBlobStore.deleteDirectory(prefix);
 
     verify(mockStorage).list(eq(TEST_BUCKET), any(Storage.BlobListOption[].class));
+    verify(mockStorage, Mockito.never()).delete(any(List.class));
   }
 
   @Test
@@ -4723,6 +4835,40 @@ class GcpBlobStoreTest {
   }
 
 
+  @Test
+  void testDoListAllVersionsListsThePrefixOnce() {
+    Blob live = mock(Blob.class);
+    when(live.getName()).thenReturn("dir/a");
+    when(live.getGeneration()).thenReturn(2L);
+    when(live.getSize()).thenReturn(20L);
+    // A deleted object leaves only noncurrent generations, each stamped with its delete time.
+    Blob noncurrent = mock(Blob.class);
+    when(noncurrent.getName()).thenReturn("dir/b");
+    when(noncurrent.getGeneration()).thenReturn(1L);
+    when(noncurrent.getSize()).thenReturn(10L);
+    when(noncurrent.getDeleteTimeOffsetDateTime()).thenReturn(OffsetDateTime.now());
+    @SuppressWarnings("unchecked")
+    Page<Blob> page = mock(Page.class);
+    when(page.iterateAll()).thenReturn(List.of(live, noncurrent));
+    when(mockStorage.list(eq(TEST_BUCKET), any(Storage.BlobListOption[].class))).thenReturn(page);
+
+    List<BlobVersionInfo> versions = new ArrayList<>();
+    gcpBlobStore.doListAllVersions("dir/").forEachRemaining(versions::add);
+
+    assertEquals(2, versions.size());
+    assertEquals("dir/a", versions.get(0).getKey());
+    assertEquals("2", versions.get(0).getVersionId());
+    assertTrue(versions.get(0).isLatest());
+    assertEquals("dir/b", versions.get(1).getKey());
+    assertEquals(10L, versions.get(1).getObjectSize());
+    assertFalse(versions.get(1).isLatest());
+    verify(mockStorage)
+        .list(
+            TEST_BUCKET,
+            Storage.BlobListOption.prefix("dir/"),
+            Storage.BlobListOption.versions(true));
+  }
+
   @Test
   void testDoListBlobVersions() {
     String key = TEST_KEY;
@@ -1014,6 +1014,21 @@ class GcpTransformerTest {
     assertEquals(4, actual.length);
   }
 
+  @Test
+  void testToBlobListOptionsWithKeyRange() {
+    ListBlobsPageRequest request =
+        ListBlobsPageRequest.builder()
+            .withStartAfter("logs/0100")
+            .withEndBefore("logs/0200")
+            .build();
+
+    List<Storage.BlobListOption> actual = List.of(transformer.toBlobListOptions(request));
+
+    assertEquals(2, actual.size());
+    assertTrue(actual.contains(Storage.BlobListOption.startOffset("logs/0100\0")));
+    assertTrue(actual.contains(Storage.BlobListOption.endOffset("logs/0200")));
+  }
+
   @Test
   void testToBlobListOptions_WithNullValues() {
     ListBlobsPageRequest request = ListBlobsPageRequest.builder().build();
@@ -11,12 +11,20 @@ import static org.mockito.ArgumentMatchers.anyInt;
 import static org.mockito.Mockito.doNothing;
 import static org.mockito.Mockito.doReturn;
 import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.times;
 import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
 
 import com.google.api.gax.paging.Page;
 import com.google.cloud.storage.Blob;
+import com.google.cloud.storage.MultipartUploadClient;
+import com.google.cloud.storage.RequestBody;
 import com.google.cloud.storage.Storage;
+import com.google.cloud.storage.multipartupload.model.CompleteMultipartUploadRequest;
+import com.google.cloud.storage.multipartupload.model.CompleteMultipartUploadResponse;
+import com.google.cloud.storage.multipartupload.model.CreateMultipartUploadRequest;
+import com.google.cloud.storage.multipartupload.model.CreateMultipartUploadResponse;
+import com.google.cloud.storage.multipartupload.model.UploadPartRequest;
 import com.salesforce.multicloudj.blob.driver.AbstractBlobStore;
 import com.salesforce.multicloudj.blob.driver.BlobIdentifier;
 import com.salesforce.multicloudj.blob.driver.BlobInfo;
@@ -52,6 +60,7 @@ import java.io.ByteArrayInputStream;
 import java.io.ByteArrayOutputStream;
 import java.io.File;
 import java.net.URL;
+import java.nio.file.Files;
 import java.nio.file.Path;
 import java.nio.file.Paths;
 import java.time.Duration;
@@ -71,6 +80,7 @@ import org.junit.jupiter.api.AfterEach;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
+import org.junit.jupiter.api.io.TempDir;
 import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
 import org.mockito.junit.jupiter.MockitoSettings;
@@ -146,6 +156,54 @@ class GcpAsyncBlobStoreTest {
     assertEquals(TEST_BUCKET, store.getBucket());
   }
 
+  @Test
+  void testParallelPathUploadCompletesOnASingleThreadExecutor(@TempDir Path tempDir)
+      throws Exception {
+    Path file = tempDir.resolve("large.bin");
+    Files.write(file, new byte[2500]);
+    ExecutorService executor = Executors.newSingleThreadExecutor();
+    MultipartUploadClient mpuClient = mock(MultipartUploadClient.class);
+    when(mockTransformerSupplier.get(TEST_BUCKET)).thenReturn(mock(GcpTransformer.class));
+    when(mpuClient.createMultipartUpload(any(CreateMultipartUploadRequest.class)))
+        .thenReturn(CreateMultipartUploadResponse.builder().uploadId("upload-id").build());
+    when(mpuClient.uploadPart(any(UploadPartRequest.class), any(RequestBody.class)))
+        .thenReturn(
+            com.google.cloud.storage.multipartupload.model.UploadPartResponse.builder()
+                .eTag("part-etag")
+                .build());
+    when(mpuClient.completeMultipartUpload(any(CompleteMultipartUploadRequest.class)))
+        .thenReturn(CompleteMultipartUploadResponse.builder().etag("complete-etag").build());
+    try {
+      GcpBlobStore.Builder builder =
+          (GcpBlobStore.Builder)
+              new GcpBlobStore.Builder()
+                  .withStorage(mockStorage)
+                  .withTransformerSupplier(mockTransformerSupplier)
+                  .withBucket(TEST_BUCKET)
+                  .withExecutorService(executor)
+                  .withThresholdBytes(1000L)
+                  .withPartBufferSize(1000L)
+                  .withMaxConcurrency(4)
+                  .withParallelUploadsEnabled(true);
+      GcpAsyncBlobStore asyncStore =
+          new GcpAsyncBlobStore(
+              new GcpBlobStore(builder, mockStorage, mpuClient, null),
+              executor,
+              mockStorage,
+              mockTransformerSupplier);
+
+      UploadResponse response =
+          asyncStore
+              .upload(UploadRequest.builder().withKey(TEST_KEY).build(), file)
+              .get(10, TimeUnit.SECONDS);
+
+      assertEquals("complete-etag", response.getETag());
+      verify(mpuClient, times(3)).uploadPart(any(UploadPartRequest.class), any(RequestBody.class));
+    } finally {
+      executor.shutdownNow();
+    }
+  }
+
   @Test
   void testConstructorWithNullExecutor() {
     GcpAsyncBlobStore asyncStore =
@@ -821,7 +879,7 @@ class GcpAsyncBlobStoreTest {
 
     assertDoesNotThrow(
         () -> {
-          CompletableFuture<Void> future = gcpAsyncBlobStore.deleteDirectory(null);
+          CompletableFuture<Void> future = gcpAsyncBlobStore.deleteDirectory((String) null);
           future.get(5, TimeUnit.SECONDS);
         });
   }
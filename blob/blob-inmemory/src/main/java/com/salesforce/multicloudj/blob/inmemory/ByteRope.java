@@ -0,0 +1,157 @@
+package com.salesforce.multicloudj.blob.inmemory;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.io.SequenceInputStream;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.zip.Checksum;
+
+/**
+ * Immutable byte sequence made of one or more shared segments.
+ *
+ * <p>Multipart uploads complete by concatenating their parts into a rope rather than copying them
+ * into one array, and ranged reads return a view over the same segments. Bytes are only copied
+ * when a caller asks for a contiguous array that does not already exist.
+ */
+final class ByteRope {
+
+  static final ByteRope EMPTY = new ByteRope(new byte[0][], new long[] {0}, 0, 0);
+
+  private final byte[][] segments;
+  /** {@code starts[i]} is the rope offset of {@code segments[i]}; the last entry is the total. */
+  private final long[] starts;
+
+  private final long offset;
+  private final long length;
+
+  private ByteRope(byte[][] segments, long[] starts, long offset, long length) {
+    this.segments = segments;
+    this.starts = starts;
+    this.offset = offset;
+    this.length = length;
+  }
+
+  /** Wraps {@code bytes} without copying; the caller must not modify the array afterwards. */
+  static ByteRope wrap(byte[] bytes) {
+    return new ByteRope(new byte[][] {bytes}, new long[] {0, bytes.length}, 0, bytes.length);
+  }
+
+  /** Concatenates {@code parts} without copying; the caller must not modify them afterwards. */
+  static ByteRope concat(List<byte[]> parts) {
+    byte[][] segments = parts.toArray(new byte[0][]);
+    long[] starts = new long[segments.length + 1];
+    for (int i = 0; i < segments.length; i++) {
+      starts[i + 1] = starts[i] + segments[i].length;
+    }
+    return new ByteRope(segments, starts, 0, starts[segments.length]);
+  }
+
+  long length() {
+    return length;
+  }
+
+  /** Returns a view of bytes {@code [from, to)} sharing this rope's segments. */
+  ByteRope slice(long from, long to) {
+    if (from < 0 || to > length || from > to) {
+      throw new IndexOutOfBoundsException(
+          "Invalid slice [" + from + ", " + to + ") of rope with length " + length);
+    }
+    if (from == 0 && to == length) {
+      return this;
+    }
+    return new ByteRope(segments, starts, offset + from, to - from);
+  }
+
+  /**
+   * Returns the bytes as one array. When the view covers exactly one whole segment that segment is
+   * returned as is, so callers must treat the result as read-only.
+   */
+  byte[] toByteArray() {
+    int first = segmentAt(offset);
+    if (segments.length > 0
+        && offset == starts[first]
+        && length == segments[first].length) {
+      return segments[first];
+    }
+    if (length > Integer.MAX_VALUE - 8) {
+      throw new IllegalStateException("Blob is too large to materialize: " + length);
+    }
+    byte[] result = new byte[(int) length];
+    int[] position = {0};
+    forEachSegment((bytes, off, len) -> {
+      System.arraycopy(bytes, off, result, position[0], len);
+      position[0] += len;
+    });
+    return result;
+  }
+
+  void writeTo(OutputStream out) throws IOException {
+    for (int i = segmentAt(offset); i < segments.length && starts[i] < offset + length; i++) {
+      int off = (int) Math.max(0, offset - starts[i]);
+      int end = (int) Math.min(segments[i].length, offset + length - starts[i]);
+      if (end > off) {
+        out.write(segments[i], off, end - off);
+      }
+    }
+  }
+
+  InputStream newInputStream() {
+    List<InputStream> streams = new ArrayList<>();
+    forEachSegment((bytes, off, len) -> streams.add(new ByteArrayInputStream(bytes, off, len)));
+    if (streams.size() == 1) {
+      return streams.get(0);
+    }
+    return new SequenceInputStream(Collections.enumeration(streams));
+  }
+
+  /** Feeds every byte of the view into {@code checksum}. */
+  void update(Checksum checksum) {
+    forEachSegment(checksum::update);
+  }
+
+  /** Equivalent to {@link Arrays#hashCode(byte[])} over the bytes of the view. */
+  int contentHashCode() {
+    int[] hash = {1};
+    forEachSegment((bytes, off, len) -> {
+      int h = hash[0];
+      for (int i = off; i < off + len; i++) {
+        h = 31 * h + bytes[i];
+      }
+      hash[0] = h;
+    });
+    return hash[0];
+  }
+
+  private void forEachSegment(SegmentConsumer consumer) {
+    for (int i = segmentAt(offset); i < segments.length && starts[i] < offset + length; i++) {
+      int off = (int) Math.max(0, offset - starts[i]);
+      int end = (int) Math.min(segments[i].length, offset + length - starts[i]);
+      if (end > off) {
+        consumer.accept(segments[i], off, end - off);
+      }
+    }
+  }
+
+  /** Index of the segment containing rope offset {@code position}. */
+  private int segmentAt(long position) {
+    int pos = Arrays.binarySearch(starts, 0, segments.length, position);
+    if (pos >= 0) {
+      // Skip empty segments that share a start offset with the next one.
+      while (pos + 1 < segments.length && starts[pos + 1] == position) {
+        pos++;
+      }
+      return pos;
+    }
+    return Math.max(0, -pos - 2);
+  }
+
+  @FunctionalInterface
+  private interface SegmentConsumer {
+    void accept(byte[] bytes, int offset, int length);
+  }
+}
@@ -1,21 +1,23 @@
 package com.salesforce.multicloudj.blob.inmemory;
 
 import com.google.auto.service.AutoService;
-import com.google.common.collect.Lists;
 import com.salesforce.multicloudj.blob.driver.AbstractBlobStore;
 import com.salesforce.multicloudj.blob.driver.BlobIdentifier;
 import com.salesforce.multicloudj.blob.driver.BlobInfo;
 import com.salesforce.multicloudj.blob.driver.BlobMetadata;
+import com.salesforce.multicloudj.blob.driver.BlobPreconditions;
+import com.salesforce.multicloudj.blob.driver.BlobSpanNames;
+import com.salesforce.multicloudj.blob.driver.BlobVersionInfo;
 import com.salesforce.multicloudj.blob.driver.BucketVersioningConfiguration;
 import com.salesforce.multicloudj.blob.driver.BucketVersioningStatus;
 import com.salesforce.multicloudj.blob.driver.ByteArray;
-import com.salesforce.multicloudj.blob.driver.Checksum;
 import com.salesforce.multicloudj.blob.driver.ChecksumMethod;
 import com.salesforce.multicloudj.blob.driver.CopyFromRequest;
 import com.salesforce.multicloudj.blob.driver.CopyRequest;
 import com.salesforce.multicloudj.blob.driver.CopyResponse;
 import com.salesforce.multicloudj.blob.driver.DownloadRequest;
 import com.salesforce.multicloudj.blob.driver.DownloadResponse;
+import com.salesforce.multicloudj.blob.driver.KeyOrder;
 import com.salesforce.multicloudj.blob.driver.ListBlobsPageRequest;
 import com.salesforce.multicloudj.blob.driver.ListBlobsPageResponse;
 import com.salesforce.multicloudj.blob.driver.ListBlobsRequest;
@@ -34,16 +36,17 @@ import com.salesforce.multicloudj.blob.driver.RetentionMode;
 import com.salesforce.multicloudj.blob.driver.UploadPartResponse;
 import com.salesforce.multicloudj.blob.driver.UploadRequest;
 import com.salesforce.multicloudj.blob.driver.UploadResponse;
+import com.salesforce.multicloudj.common.checksum.Crc64;
+import com.salesforce.multicloudj.common.checksum.Md5;
 import com.salesforce.multicloudj.common.exceptions.ArchiveInfo;
 import com.salesforce.multicloudj.common.exceptions.ExceptionHandler;
 import com.salesforce.multicloudj.common.exceptions.InvalidArgumentException;
+import com.salesforce.multicloudj.common.exceptions.ResourceConflictException;
 import com.salesforce.multicloudj.common.exceptions.ResourceNotFoundException;
 import com.salesforce.multicloudj.common.exceptions.SubstrateSdkException;
 import com.salesforce.multicloudj.common.exceptions.UnknownException;
 import com.salesforce.multicloudj.common.observability.OperationContext;
 import com.salesforce.multicloudj.common.observability.SdkLoggingMetadataKeys;
-import java.io.ByteArrayInputStream;
-import java.io.ByteArrayOutputStream;
 import java.io.File;
 import java.io.IOException;
 import java.io.InputStream;
@@ -58,14 +61,12 @@ import java.time.Instant;
 import java.util.ArrayList;
 import java.util.Base64;
 import java.util.Collection;
+import java.util.Collections;
 import java.util.Comparator;
 import java.util.HashMap;
-import java.util.HashSet;
 import java.util.Iterator;
 import java.util.List;
 import java.util.Map;
-import java.util.Set;
-import java.util.TreeMap;
 import java.util.UUID;
 import java.util.concurrent.ConcurrentHashMap;
 import java.util.stream.Collectors;
@@ -96,18 +97,10 @@ public class InMemoryBlobStore extends AbstractBlobStore {
    */
   public static final String TENANT_ID_METADATA_KEY = SdkLoggingMetadataKeys.TENANT_ID;
 
-  // Shared storage across all instances - key is "bucket:key:versionId"
-  private static final Map<String, StoredBlob> STORAGE = new ConcurrentHashMap<>();
-  // Track latest version for each key - key is "bucket:key", value is versionId
-  private static final Map<String, String> LATEST_VERSIONS = new ConcurrentHashMap<>();
-  // Tags are per version - key is "bucket:key:versionId"
-  private static final Map<String, Map<String, String>> TAGS = new ConcurrentHashMap<>();
-  // Object lock info per version - key is "bucket:key:versionId"
-  private static final Map<String, ObjectLockInfo> OBJECT_LOCKS = new ConcurrentHashMap<>();
+  // Shared across all instances so stores built for the same bucket see the same objects.
+  static final Map<String, InMemoryBucket> BUCKETS = new ConcurrentHashMap<>();
   private static final Map<String, MultipartUploadState> MULTIPART_UPLOADS =
       new ConcurrentHashMap<>();
-  // Track bucket metadata - key is bucket name
-  static final Map<String, BucketMetadata> BUCKETS = new ConcurrentHashMap<>();
 
   public InMemoryBlobStore() {
     this(new Builder());
@@ -134,15 +127,9 @@ public class InMemoryBlobStore extends AbstractBlobStore {
 
   @Override
   protected UploadResponse doUpload(UploadRequest uploadRequest, InputStream inputStream) {
-    validateBucketExists();
+    requireBucket();
     try {
-      ByteArrayOutputStream baos = new ByteArrayOutputStream();
-      byte[] buffer = new byte[8192];
-      int bytesRead;
-      while ((bytesRead = inputStream.read(buffer)) != -1) {
-        baos.write(buffer, 0, bytesRead);
-      }
-      return doUpload(uploadRequest, baos.toByteArray());
+      return doUpload(uploadRequest, inputStream.readAllBytes());
     } catch (SubstrateSdkException e) {
       throw e;
     } catch (Exception e) {
@@ -177,12 +164,10 @@ public class InMemoryBlobStore extends AbstractBlobStore {
 
   @Override
   protected UploadResponse doUpload(UploadRequest uploadRequest, byte[] content) {
-    validateBucketExists();
+    InMemoryBucket store = beginRequest(BlobSpanNames.UPLOAD);
     validateChecksum(uploadRequest, content);
-    String baseKey = getStorageKey(uploadRequest.getKey());
-    String etag = generateEtag(content);
+    transfer(store, content.length);
     String versionId = UUID.randomUUID().toString();
-    String versionedKey = baseKey + ":" + versionId;
 
     // Copy the application-supplied metadata and stamp the SDK's correlation id, service id and
     // tenant id on it so the values persist with the stored blob alongside the user's metadata.
@@ -191,33 +176,20 @@ public class InMemoryBlobStore extends AbstractBlobStore {
 
     StoredBlob blob =
         new StoredBlob(
-            content, etag, versionId, Instant.now(), metadata, uploadRequest.getContentType());
-
-    STORAGE.put(versionedKey, blob);
-    LATEST_VERSIONS.put(baseKey, versionId);
-
-    // Store tags if provided
-    if (uploadRequest.getTags() != null && !uploadRequest.getTags().isEmpty()) {
-      TAGS.put(versionedKey, new HashMap<>(uploadRequest.getTags()));
-    }
-
-    // Store object lock configuration if provided
-    if (uploadRequest.getObjectLock() != null) {
-      ObjectLockConfiguration lockConfig = uploadRequest.getObjectLock();
-      OBJECT_LOCKS.put(
-          versionedKey,
-          ObjectLockInfo.builder()
-              .mode(lockConfig.getMode())
-              .retainUntilDate(lockConfig.getRetainUntilDate())
-              .legalHold(lockConfig.isLegalHold())
-              .useEventBasedHold(lockConfig.getUseEventBasedHold())
-              .build());
-    }
+            uploadRequest.getKey(),
+            ByteRope.wrap(content),
+            versionId,
+            Instant.now(),
+            metadata,
+            uploadRequest.getContentType(),
+            uploadRequest.getTags(),
+            toObjectLockInfo(uploadRequest.getObjectLock()));
+    store.put(blob);
 
     return UploadResponse.builder()
         .key(uploadRequest.getKey())
         .versionId(versionId)
-        .eTag(etag)
+        .eTag(blob.getEtag())
         .checksumValue(uploadRequest.getChecksumValue())
         .build();
   }
@@ -249,33 +221,17 @@ public class InMemoryBlobStore extends AbstractBlobStore {
   @Override
   protected DownloadResponse doDownload(
       DownloadRequest downloadRequest, OutputStream outputStream) {
-    validateBucketExists();
-    String baseKey = getStorageKey(downloadRequest.getKey());
-    String versionId = downloadRequest.getVersionId();
-
-    // If no version specified, get the latest version
-    if (versionId == null) {
-      versionId = LATEST_VERSIONS.get(baseKey);
-    }
-
-    if (versionId == null) {
-      checkIfArchived(downloadRequest);
-      throw new ResourceNotFoundException("Blob not found: " + downloadRequest.getKey());
-    }
-
-    String versionedKey = baseKey + ":" + versionId;
-    StoredBlob blob = STORAGE.get(versionedKey);
-
-    if (blob == null) {
-      throw new ResourceNotFoundException(
-          "Blob version not found: " + downloadRequest.getKey() + " version: " + versionId);
+    StoredBlob blob = resolveForDownload(downloadRequest);
+    DownloadResponse notModified = notModifiedResponse(downloadRequest, blob);
+    if (notModified != null) {
+      return notModified;
     }
-
     try {
-      byte[] data =
+      ByteRope data =
           extractRange(blob.getData(), downloadRequest.getStart(), downloadRequest.getEnd());
-      outputStream.write(data);
-      return buildDownloadResponse(downloadRequest.getKey(), blob, data.length);
+      transfer(BUCKETS.get(bucket), data.length());
+      data.writeTo(outputStream);
+      return buildDownloadResponse(downloadRequest.getKey(), blob, data.length(), null);
     } catch (Exception e) {
       throw new UnknownException("Failed to download blob", e);
     }
@@ -283,32 +239,16 @@ public class InMemoryBlobStore extends AbstractBlobStore {
 
   @Override
   protected DownloadResponse doDownload(DownloadRequest downloadRequest, ByteArray byteArray) {
-    validateBucketExists();
-    String baseKey = getStorageKey(downloadRequest.getKey());
-    String versionId = downloadRequest.getVersionId();
-
-    // If no version specified, get the latest version
-    if (versionId == null) {
-      versionId = LATEST_VERSIONS.get(baseKey);
+    StoredBlob blob = resolveForDownload(downloadRequest);
+    DownloadResponse notModified = notModifiedResponse(downloadRequest, blob);
+    if (notModified != null) {
+      return notModified;
     }
-
-    if (versionId == null) {
-      checkIfArchived(downloadRequest);
-      throw new ResourceNotFoundException("Blob not found: " + downloadRequest.getKey());
-    }
-
-    String versionedKey = baseKey + ":" + versionId;
-    StoredBlob blob = STORAGE.get(versionedKey);
-
-    if (blob == null) {
-      throw new ResourceNotFoundException(
-          "Blob version not found: " + downloadRequest.getKey() + " version: " + versionId);
-    }
-
-    byte[] data =
+    ByteRope data =
         extractRange(blob.getData(), downloadRequest.getStart(), downloadRequest.getEnd());
-    byteArray.setBytes(data);
-    return buildDownloadResponse(downloadRequest.getKey(), blob, data.length);
+    transfer(BUCKETS.get(bucket), data.length());
+    byteArray.setBytes(data.toByteArray());
+    return buildDownloadResponse(downloadRequest.getKey(), blob, data.length(), null);
   }
 
   @Override
@@ -322,34 +262,20 @@ public class InMemoryBlobStore extends AbstractBlobStore {
 
   @Override
   protected DownloadResponse doDownload(DownloadRequest downloadRequest, Path path) {
-    validateBucketExists();
-    String baseKey = getStorageKey(downloadRequest.getKey());
-    String versionId = downloadRequest.getVersionId();
-
-    // If no version specified, get the latest version
-    if (versionId == null) {
-      versionId = LATEST_VERSIONS.get(baseKey);
-    }
-
-    if (versionId == null) {
-      checkIfArchived(downloadRequest);
-      throw new ResourceNotFoundException("Blob not found: " + downloadRequest.getKey());
-    }
-
-    String versionedKey = baseKey + ":" + versionId;
-    StoredBlob blob = STORAGE.get(versionedKey);
-
-    if (blob == null) {
-      throw new ResourceNotFoundException(
-          "Blob version not found: " + downloadRequest.getKey() + " version: " + versionId);
+    StoredBlob blob = resolveForDownload(downloadRequest);
+    DownloadResponse notModified = notModifiedResponse(downloadRequest, blob);
+    if (notModified != null) {
+      return notModified;
     }
-
     try {
-      byte[] data =
+      ByteRope data =
           extractRange(blob.getData(), downloadRequest.getStart(), downloadRequest.getEnd());
+      transfer(BUCKETS.get(bucket), data.length());
       Path destinationPath = createDownloadDestinationPath(downloadRequest, path);
-      Files.write(destinationPath, data);
-      return buildDownloadResponse(downloadRequest.getKey(), blob, data.length);
+      try (OutputStream out = Files.newOutputStream(destinationPath)) {
+        data.writeTo(out);
+      }
+      return buildDownloadResponse(downloadRequest.getKey(), blob, data.length(), null);
     } catch (Exception e) {
       throw new UnknownException("Failed to download blob to path", e);
     }
@@ -379,54 +305,28 @@ public class InMemoryBlobStore extends AbstractBlobStore {
 
   @Override
   protected DownloadResponse doDownload(DownloadRequest downloadRequest) {
-    validateBucketExists();
-    String baseKey = getStorageKey(downloadRequest.getKey());
-    String versionId = downloadRequest.getVersionId();
-
-    // If no version specified, get the latest version
-    if (versionId == null) {
-      versionId = LATEST_VERSIONS.get(baseKey);
-    }
-
-    if (versionId == null) {
-      checkIfArchived(downloadRequest);
-      throw new ResourceNotFoundException("Blob not found: " + downloadRequest.getKey());
+    StoredBlob blob = resolveForDownload(downloadRequest);
+    DownloadResponse notModified = notModifiedResponse(downloadRequest, blob);
+    if (notModified != null) {
+      return notModified;
     }
-
-    String versionedKey = baseKey + ":" + versionId;
-    StoredBlob blob = STORAGE.get(versionedKey);
-
-    if (blob == null) {
-      throw new ResourceNotFoundException(
-          "Blob version not found: " + downloadRequest.getKey() + " version: " + versionId);
-    }
-
-    byte[] data =
+    ByteRope data =
         extractRange(blob.getData(), downloadRequest.getStart(), downloadRequest.getEnd());
-    InputStream inputStream = new ByteArrayInputStream(data);
-    return buildDownloadResponse(downloadRequest.getKey(), blob, data.length, inputStream);
+    transfer(BUCKETS.get(bucket), data.length());
+    return buildDownloadResponse(
+        downloadRequest.getKey(), blob, data.length(), data.newInputStream());
   }
 
   @Override
   protected void doDelete(String key, String versionId) {
-    validateBucketExists();
-    String baseKey = getStorageKey(key);
+    InMemoryBucket store = beginRequest(BlobSpanNames.DELETE);
 
     // If version ID is provided, delete only that version
     if (versionId != null) {
-      String versionedKey = baseKey + ":" + versionId;
-      STORAGE.remove(versionedKey);
-      TAGS.remove(versionedKey);
-      OBJECT_LOCKS.remove(versionedKey);
-
-      // If deleting the latest version, clear the latest version tracker
-      String latestVersion = LATEST_VERSIONS.get(baseKey);
-      if (versionId.equals(latestVersion)) {
-        LATEST_VERSIONS.remove(baseKey);
-      }
+      store.deleteVersion(key, versionId);
     } else {
-      // Simulate a delete marker: remove from LATEST_VERSIONS but keep data in STORAGE
-      LATEST_VERSIONS.remove(baseKey);
+      // Simulate a delete marker: hide the key but keep its versions
+      store.deleteLatest(key);
     }
   }
 
@@ -439,51 +339,27 @@ public class InMemoryBlobStore extends AbstractBlobStore {
 
   @Override
   protected CopyResponse doCopy(CopyRequest request) {
-    validateBucketExists();
+    InMemoryBucket store = beginRequest(BlobSpanNames.COPY);
     // Also validate destination bucket exists
-    if (!BUCKETS.containsKey(request.getDestBucket())) {
+    InMemoryBucket destination = BUCKETS.get(request.getDestBucket());
+    if (destination == null) {
       throw new ResourceNotFoundException(
           "Destination bucket not found: " + request.getDestBucket());
     }
 
-    String srcBaseKey = getStorageKey(request.getSrcKey());
-    String srcVersionId = request.getSrcVersionId();
-
-    // If no version specified, get the latest version
-    if (srcVersionId == null) {
-      srcVersionId = LATEST_VERSIONS.get(srcBaseKey);
-    }
-
-    if (srcVersionId == null) {
-      throw new ResourceNotFoundException("Source blob not found: " + request.getSrcKey());
-    }
-
-    String srcVersionedKey = srcBaseKey + ":" + srcVersionId;
-    StoredBlob sourceBlob = STORAGE.get(srcVersionedKey);
-
+    StoredBlob sourceBlob = store.get(request.getSrcKey(), request.getSrcVersionId());
     if (sourceBlob == null) {
       throw new ResourceNotFoundException("Source blob not found: " + request.getSrcKey());
     }
 
-    // Copy to destination (could be different bucket)
-    String destBaseKey = request.getDestBucket() + ":" + request.getDestKey();
-    String newVersionId = UUID.randomUUID().toString();
-    String destVersionedKey = destBaseKey + ":" + newVersionId;
+    // Stored content is immutable, so the copy shares it rather than cloning the bytes
     StoredBlob destBlob =
-        new StoredBlob(
-            sourceBlob.getData().clone(),
-            sourceBlob.getEtag(),
-            newVersionId,
-            Instant.now(),
-            sourceBlob.getMetadata(),
-            sourceBlob.getContentType());
-
-    STORAGE.put(destVersionedKey, destBlob);
-    LATEST_VERSIONS.put(destBaseKey, newVersionId);
+        sourceBlob.copyTo(request.getDestKey(), UUID.randomUUID().toString(), Instant.now());
+    destination.put(destBlob);
 
     return CopyResponse.builder()
         .key(request.getDestKey())
-        .versionId(newVersionId)
+        .versionId(destBlob.getVersionId())
         .eTag(destBlob.getEtag())
         .lastModified(destBlob.getLastModified())
         .build();
@@ -491,47 +367,23 @@ public class InMemoryBlobStore extends AbstractBlobStore {
 
   @Override
   protected CopyResponse doCopyFrom(CopyFromRequest request) {
-    validateBucketExists();
-
-    String srcBaseKey = request.getSrcBucket() + ":" + request.getSrcKey();
-    String srcVersionId = request.getSrcVersionId();
-
-    // If no version specified, get the latest version
-    if (srcVersionId == null) {
-      srcVersionId = LATEST_VERSIONS.get(srcBaseKey);
-    }
-
-    if (srcVersionId == null) {
-      throw new ResourceNotFoundException(
-          "Source blob not found: " + request.getSrcBucket() + "/" + request.getSrcKey());
-    }
-
-    String srcVersionedKey = srcBaseKey + ":" + srcVersionId;
-    StoredBlob sourceBlob = STORAGE.get(srcVersionedKey);
+    InMemoryBucket store = beginRequest(BlobSpanNames.COPY_FROM);
 
+    InMemoryBucket source = BUCKETS.get(request.getSrcBucket());
+    StoredBlob sourceBlob =
+        source != null ? source.get(request.getSrcKey(), request.getSrcVersionId()) : null;
     if (sourceBlob == null) {
       throw new ResourceNotFoundException(
           "Source blob not found: " + request.getSrcBucket() + "/" + request.getSrcKey());
     }
 
-    String destBaseKey = getStorageKey(request.getDestKey());
-    String newVersionId = UUID.randomUUID().toString();
-    String destVersionedKey = destBaseKey + ":" + newVersionId;
     StoredBlob destBlob =
-        new StoredBlob(
-            sourceBlob.getData().clone(),
-            sourceBlob.getEtag(),
-            newVersionId,
-            Instant.now(),
-            sourceBlob.getMetadata(),
-            sourceBlob.getContentType());
-
-    STORAGE.put(destVersionedKey, destBlob);
-    LATEST_VERSIONS.put(destBaseKey, newVersionId);
+        sourceBlob.copyTo(request.getDestKey(), UUID.randomUUID().toString(), Instant.now());
+    store.put(destBlob);
 
     return CopyResponse.builder()
         .key(request.getDestKey())
-        .versionId(newVersionId)
+        .versionId(destBlob.getVersionId())
         .eTag(destBlob.getEtag())
         .lastModified(destBlob.getLastModified())
         .build();
@@ -539,187 +391,122 @@ public class InMemoryBlobStore extends AbstractBlobStore {
 
   @Override
   protected BlobMetadata doGetMetadata(String key, String versionId) {
-    validateBucketExists();
-    String baseKey = getStorageKey(key);
-
-    // If no version specified, get the latest version
-    if (versionId == null) {
-      versionId = LATEST_VERSIONS.get(baseKey);
-    }
-
-    if (versionId == null) {
-      throw new ResourceNotFoundException("Blob not found: " + key);
-    }
-
-    String versionedKey = baseKey + ":" + versionId;
-    StoredBlob blob = STORAGE.get(versionedKey);
-
-    if (blob == null) {
-      throw new ResourceNotFoundException(
-          "Blob version not found: " + key + " version: " + versionId);
-    }
-
-    return BlobMetadata.builder()
-        .key(key)
-        .versionId(blob.getVersionId())
-        .eTag(blob.getEtag())
-        .objectSize((long) blob.getData().length)
-        .metadata(blob.getMetadata())
-        .lastModified(blob.getLastModified())
-        .createdTime(blob.getLastModified())
-        .contentType(blob.getContentType())
-        .objectLockInfo(OBJECT_LOCKS.get(versionedKey))
-        .checksum(toDriverChecksum(blob.getData()))
-        .build();
-  }
-
-  private Checksum toDriverChecksum(byte[] data) {
-    return Checksum.builder()
-        .algorithm(ChecksumMethod.CRC32C)
-        .value(computeCrc32cChecksum(data))
-        .build();
+    StoredBlob blob = beginRequest(BlobSpanNames.GET_METADATA).require(key, versionId);
+    return toBlobMetadata(key, blob, blob.size());
   }
 
   @Override
   protected Iterator<BlobInfo> doList(ListBlobsRequest request) {
-    validateBucketExists();
+    InMemoryBucket store = beginRequest(BlobSpanNames.LIST);
     String prefix = request.getPrefix() != null ? request.getPrefix() : "";
     String delimiter = request.getDelimiter();
 
-    // List only latest versions
-    List<BlobInfo> blobs =
-        LATEST_VERSIONS.entrySet().stream()
-            .filter(entry -> entry.getKey().startsWith(bucket + ":"))
-            .filter(
-                entry -> {
-                  String key = entry.getKey().substring((bucket + ":").length());
-                  if (!key.startsWith(prefix)) {
-                    return false;
-                  }
-                  // If delimiter is specified, filter out keys containing the delimiter after the
-                  // prefix
-                  if (delimiter != null && !delimiter.isEmpty()) {
-                    String keyAfterPrefix = key.substring(prefix.length());
-                    return !keyAfterPrefix.contains(delimiter);
-                  }
-                  return true;
-                })
-            .map(
-                entry -> {
-                  String key = entry.getKey().substring((bucket + ":").length());
-                  String versionId = entry.getValue();
-                  String versionedKey = entry.getKey() + ":" + versionId;
-                  StoredBlob blob = STORAGE.get(versionedKey);
-                  if (blob == null) {
-                    return null;
-                  }
-                  return new BlobInfo.Builder()
-                      .withKey(key)
-                      .withObjectSize((long) blob.getData().length)
-                      .withLastModified(blob.getLastModified())
-                      .build();
-                })
-            .filter(blobInfo -> blobInfo != null)
-            .sorted(Comparator.comparing(BlobInfo::getKey))
-            .collect(Collectors.toList());
-
+    // List only latest versions; the index is already sorted by key
+    List<BlobInfo> blobs = new ArrayList<>();
+    for (StoredBlob blob : store.latestWithPrefix(prefix).values()) {
+      // If delimiter is specified, filter out keys containing the delimiter after the prefix
+      if (delimiter != null
+          && !delimiter.isEmpty()
+          && blob.getKey().indexOf(delimiter, prefix.length()) >= 0) {
+        continue;
+      }
+      blobs.add(toBlobInfo(blob));
+    }
     return blobs.iterator();
   }
 
   @Override
   protected ListBlobsPageResponse doListPage(ListBlobsPageRequest request) {
-    validateBucketExists();
+    InMemoryBucket store = beginRequest(BlobSpanNames.LIST_PAGE);
     String prefix = request.getPrefix() != null ? request.getPrefix() : "";
     String delimiter = request.getDelimiter();
     int maxKeys = request.getMaxResults() != null ? request.getMaxResults() : 1000;
     String continuationToken = request.getPaginationToken();
 
-    // Step 1: collect all matching blob keys -> StoredBlob from latest versions
-    TreeMap<String, StoredBlob> matchingBlobs = new TreeMap<>();
-    for (Map.Entry<String, String> entry : LATEST_VERSIONS.entrySet()) {
-      if (!entry.getKey().startsWith(bucket + ":")) {
-        continue;
-      }
-      String key = entry.getKey().substring((bucket + ":").length());
-      if (!key.startsWith(prefix)) {
+    String startAfter = request.getStartAfter();
+    String endBefore = request.getEndBefore();
+
+    // Step 1: build the sorted entry list from the latest versions under the prefix and within the
+    // key range. Keys that fold under a delimiter become one common-prefix entry (with a null
+    // blob). All keys sharing a common prefix are contiguous in key order and sort after the prefix
+    // itself, so comparing with the previous entry is enough to deduplicate.
+    List<String> entryNames = new ArrayList<>();
+    List<StoredBlob> entryBlobs = new ArrayList<>();
+    for (StoredBlob blob : store.latestWithPrefix(prefix).values()) {
+      String key = blob.getKey();
+      if ((startAfter != null && KeyOrder.compare(key, startAfter) <= 0)
+          || (endBefore != null && KeyOrder.compare(key, endBefore) >= 0)) {
         continue;
       }
-      String versionedKey = entry.getKey() + ":" + entry.getValue();
-      StoredBlob blob = STORAGE.get(versionedKey);
-      if (blob != null) {
-        matchingBlobs.put(key, blob);
-      }
-    }
-
-    // Step 2: build a unified sorted entry list.
-    // Each entry is (entryString -> isCommonPrefix).
-    // For keys that fold under a delimiter: entryString is the common prefix string.
-    // For direct blob keys: entryString is the key itself.
-    // TreeMap keeps lexicographic order; common prefixes are deduplicated.
-    TreeMap<String, Boolean> allEntries = new TreeMap<>();
-    Set<String> seenPrefixes = new HashSet<>();
-
-    for (String key : matchingBlobs.keySet()) {
       if (delimiter != null && !delimiter.isEmpty()) {
-        String keyAfterPrefix = key.substring(prefix.length());
-        int delimIdx = keyAfterPrefix.indexOf(delimiter);
+        int delimIdx = key.indexOf(delimiter, prefix.length());
         if (delimIdx >= 0) {
-          // Key folds into a common prefix entry
-          String commonPrefix =
-              prefix + keyAfterPrefix.substring(0, delimIdx + delimiter.length());
-          if (seenPrefixes.add(commonPrefix)) {
-            allEntries.put(commonPrefix, true);
+          String commonPrefix = key.substring(0, delimIdx + delimiter.length());
+          int last = entryNames.size() - 1;
+          if (last < 0 || entryBlobs.get(last) != null
+              || !entryNames.get(last).equals(commonPrefix)) {
+            entryNames.add(commonPrefix);
+            entryBlobs.add(null);
           }
           continue;
         }
       }
-      // Direct blob entry
-      allEntries.put(key, false);
+      entryNames.add(key);
+      entryBlobs.add(blob);
     }
 
-    // Step 3: apply continuation token — skip all entries up to and including the token
-    List<Map.Entry<String, Boolean>> sortedEntries = new ArrayList<>(allEntries.entrySet());
+    // Step 2: apply continuation token — skip all entries up to and including the token
     int startIndex = 0;
     if (continuationToken != null) {
-      for (int i = 0; i < sortedEntries.size(); i++) {
-        if (sortedEntries.get(i).getKey().equals(continuationToken)) {
-          startIndex = i + 1;
-          break;
-        }
+      int tokenIndex = Collections.binarySearch(entryNames, continuationToken, KeyOrder.UTF8);
+      if (tokenIndex >= 0) {
+        startIndex = tokenIndex + 1;
       }
     }
 
-    // Step 4: apply combined maxKeys budget across both blobs and common prefixes
-    int endIndex = Math.min(startIndex + maxKeys, sortedEntries.size());
-    List<Map.Entry<String, Boolean>> pageEntries = sortedEntries.subList(startIndex, endIndex);
-
-    // Step 5: split page entries into blobs and common prefixes
+    // Step 3: apply combined maxKeys budget across both blobs and common prefixes
+    int endIndex = Math.min(startIndex + maxKeys, entryNames.size());
     List<BlobInfo> blobs = new ArrayList<>();
     List<String> commonPrefixes = new ArrayList<>();
-    for (Map.Entry<String, Boolean> entry : pageEntries) {
-      if (entry.getValue()) {
-        commonPrefixes.add(entry.getKey());
+    for (int i = startIndex; i < endIndex; i++) {
+      StoredBlob blob = entryBlobs.get(i);
+      if (blob == null) {
+        commonPrefixes.add(entryNames.get(i));
       } else {
-        StoredBlob stored = matchingBlobs.get(entry.getKey());
-        blobs.add(
-            new BlobInfo.Builder()
-                .withKey(entry.getKey())
-                .withObjectSize((long) stored.getData().length)
-                .withLastModified(stored.getLastModified())
-                .build());
+        blobs.add(toBlobInfo(blob));
       }
     }
 
-    boolean isTruncated = endIndex < sortedEntries.size();
-    String nextToken =
-        isTruncated ? pageEntries.get(pageEntries.size() - 1).getKey() : null;
+    boolean isTruncated = endIndex < entryNames.size();
+    String nextToken = isTruncated ? entryNames.get(endIndex - 1) : null;
 
     return new ListBlobsPageResponse(blobs, commonPrefixes, isTruncated, nextToken);
   }
 
+  /**
+   * Lists every retained version under the prefix. Deleting a key without a version only hides
+   * it, so the versions of a deleted key are listed as noncurrent; no delete markers are stored.
+   */
+  @Override
+  protected Iterator<BlobVersionInfo> doListAllVersions(String prefix) {
+    InMemoryBucket store = beginRequest(BlobSpanNames.LIST_BLOB_VERSIONS);
+    List<BlobVersionInfo> listed = new ArrayList<>();
+    for (StoredBlob blob : store.versionsWithPrefix(prefix != null ? prefix : "")) {
+      StoredBlob latest = store.getLatest(blob.getKey());
+      listed.add(
+          BlobVersionInfo.builder()
+              .key(blob.getKey())
+              .versionId(blob.getVersionId())
+              .objectSize(blob.size())
+              .latest(latest != null && blob.getVersionId().equals(latest.getVersionId()))
+              .build());
+    }
+    return listed.iterator();
+  }
+
   @Override
   protected MultipartUpload doInitiateMultipartUpload(MultipartUploadRequest request) {
-    validateBucketExists();
+    beginRequest(BlobSpanNames.INITIATE_MULTIPART_UPLOAD);
     String uploadId = UUID.randomUUID().toString();
 
     // Stamp the SDK's correlation id, service id and tenant id onto the metadata so they persist
@@ -755,17 +542,14 @@ public class InMemoryBlobStore extends AbstractBlobStore {
       throw new ResourceNotFoundException("Multipart upload not found: " + mpu.getId());
     }
 
+    InMemoryBucket store = BUCKETS.get(bucket);
+    simulate(store, BlobSpanNames.UPLOAD_MULTIPART_PART);
     try {
-      ByteArrayOutputStream baos = new ByteArrayOutputStream();
-      byte[] buffer = new byte[8192];
-      int bytesRead;
-      while ((bytesRead = mpp.getInputStream().read(buffer)) != -1) {
-        baos.write(buffer, 0, bytesRead);
-      }
-
-      byte[] partData = baos.toByteArray();
-      String etag = generateEtag(partData);
-      String checksumValue = computeCrc32cChecksum(partData);
+      byte[] partData = mpp.getInputStream().readAllBytes();
+      transfer(store, partData.length);
+      ByteRope part = ByteRope.wrap(partData);
+      String etag = StoredBlob.etagOf(part);
+      String checksumValue = StoredBlob.crc32cValueOf(part);
 
       state.addPart(mpp.getPartNumber(), partData, etag);
 
@@ -778,6 +562,7 @@ public class InMemoryBlobStore extends AbstractBlobStore {
   @Override
   protected MultipartUploadResponse doCompleteMultipartUpload(
       MultipartUpload mpu, List<UploadPartResponse> parts) {
+    simulate(BUCKETS.get(bucket), BlobSpanNames.COMPLETE_MULTIPART_UPLOAD);
     MultipartUploadState state = MULTIPART_UPLOADS.get(mpu.getId());
 
     if (state == null) {
@@ -792,7 +577,7 @@ public class InMemoryBlobStore extends AbstractBlobStore {
       }
       // Validate ETag matches
       if (!partData.getEtag().equals(part.getEtag())) {
-        throw new com.salesforce.multicloudj.common.exceptions.InvalidArgumentException(
+        throw new InvalidArgumentException(
             "ETag mismatch for part "
                 + part.getPartNumber()
                 + ": expected "
@@ -802,9 +587,10 @@ public class InMemoryBlobStore extends AbstractBlobStore {
       }
     }
 
-    // Combine all parts in order
-    ByteArrayOutputStream combined = new ByteArrayOutputStream();
+    InMemoryBucket store = requireBucket();
     try {
+      // Chain the parts in order into a rope; the part arrays are shared, not copied
+      List<byte[]> segments = new ArrayList<>(parts.size());
       for (UploadPartResponse part :
           parts.stream()
               .sorted(Comparator.comparingInt(UploadPartResponse::getPartNumber))
@@ -813,40 +599,25 @@ public class InMemoryBlobStore extends AbstractBlobStore {
         if (partDataBytes == null) {
           throw new ResourceNotFoundException("Part not found: " + part.getPartNumber());
         }
-        combined.write(partDataBytes);
+        segments.add(partDataBytes);
       }
 
-      byte[] finalData = combined.toByteArray();
-      String etag = generateEtag(finalData);
-      String versionId = UUID.randomUUID().toString();
-
-      String baseKey = getStorageKey(mpu.getKey());
-      String versionedKey = baseKey + ":" + versionId;
       StoredBlob blob =
           new StoredBlob(
-              finalData, etag, versionId, Instant.now(), state.getMetadata(),
-              state.getContentType());
-
-      STORAGE.put(versionedKey, blob);
-      LATEST_VERSIONS.put(baseKey, versionId);
-
-      // Store object lock configuration if provided on the multipart upload
-      if (mpu.getObjectLock() != null) {
-        ObjectLockConfiguration lockConfig = mpu.getObjectLock();
-        OBJECT_LOCKS.put(
-            versionedKey,
-            ObjectLockInfo.builder()
-                .mode(lockConfig.getMode())
-                .retainUntilDate(lockConfig.getRetainUntilDate())
-                .legalHold(lockConfig.isLegalHold())
-                .useEventBasedHold(lockConfig.getUseEventBasedHold())
-                .build());
-      }
+              mpu.getKey(),
+              ByteRope.concat(segments),
+              UUID.randomUUID().toString(),
+              Instant.now(),
+              new HashMap<>(state.getMetadata()),
+              state.getContentType(),
+              null,
+              toObjectLockInfo(mpu.getObjectLock()));
+      store.put(blob);
 
       MULTIPART_UPLOADS.remove(mpu.getId());
-      String checksumValue = computeCrc32cChecksum(finalData);
 
-      return new MultipartUploadResponse(etag, checksumValue);
+      return new MultipartUploadResponse(
+          blob.getEtag(), blob.getChecksum().getValue(), blob.getVersionId());
     } catch (Exception e) {
       throw new UnknownException("Failed to complete multipart upload", e);
     }
@@ -854,6 +625,7 @@ public class InMemoryBlobStore extends AbstractBlobStore {
 
   @Override
   protected List<UploadPartResponse> doListMultipartUpload(MultipartUpload mpu) {
+    simulate(BUCKETS.get(bucket), BlobSpanNames.LIST_MULTIPART_UPLOAD);
     MultipartUploadState state = MULTIPART_UPLOADS.get(mpu.getId());
 
     if (state == null) {
@@ -871,37 +643,20 @@ public class InMemoryBlobStore extends AbstractBlobStore {
 
   @Override
   protected void doAbortMultipartUpload(MultipartUpload mpu) {
-    validateBucketExists();
+    beginRequest(BlobSpanNames.ABORT_MULTIPART_UPLOAD);
     MULTIPART_UPLOADS.remove(mpu.getId());
   }
 
   @Override
   protected Map<String, String> doGetTags(String key) {
-    validateBucketExists();
-    String baseKey = getStorageKey(key);
-    String versionId = LATEST_VERSIONS.get(baseKey);
-
-    if (versionId == null) {
-      return new HashMap<>();
-    }
-
-    String versionedKey = baseKey + ":" + versionId;
-    Map<String, String> tags = TAGS.get(versionedKey);
-    return tags != null ? new HashMap<>(tags) : new HashMap<>();
+    StoredBlob blob = beginRequest(BlobSpanNames.GET_TAGS).getLatest(key);
+    // Callers own the returned map, so hand out a mutable copy of the immutable stored tags
+    return blob != null ? new HashMap<>(blob.getTags()) : new HashMap<>();
   }
 
   @Override
   protected void doSetTags(String key, Map<String, String> tags) {
-    validateBucketExists();
-    String baseKey = getStorageKey(key);
-    String versionId = LATEST_VERSIONS.get(baseKey);
-
-    if (versionId == null) {
-      throw new ResourceNotFoundException("Blob not found: " + key);
-    }
-
-    String versionedKey = baseKey + ":" + versionId;
-    TAGS.put(versionedKey, new HashMap<>(tags));
+    beginRequest(BlobSpanNames.SET_TAGS).update(key, null, blob -> blob.withTags(tags));
   }
 
   @Override
@@ -934,31 +689,32 @@ public class InMemoryBlobStore extends AbstractBlobStore {
 
   @Override
   protected boolean doDoesObjectExist(String key, String versionId) {
-    validateBucketExists();
-    String baseKey = getStorageKey(key);
+    InMemoryBucket store = beginRequest(BlobSpanNames.DOES_OBJECT_EXIST);
 
     // If version ID is provided, check for that specific version
     if (versionId != null) {
-      String versionedKey = baseKey + ":" + versionId;
-      return STORAGE.containsKey(versionedKey);
+      return store.hasVersion(key, versionId);
     }
 
-    // Otherwise, check if any version exists (check latest version tracker)
-    return LATEST_VERSIONS.containsKey(baseKey);
+    // Otherwise, check if the key has a live latest version
+    return store.getLatest(key) != null;
   }
 
   @Override
   protected boolean doDoesBucketExist() {
-    return BUCKETS.containsKey(bucket);
+    InMemoryBucket store = BUCKETS.get(bucket);
+    simulate(store, BlobSpanNames.DOES_BUCKET_EXIST);
+    return store != null;
   }
 
   @Override
   protected BucketVersioningConfiguration doGetBucketVersioning() {
-    BucketMetadata metadata = BUCKETS.get(bucket);
-    if (metadata == null) {
+    InMemoryBucket store = BUCKETS.get(bucket);
+    simulate(store, BlobSpanNames.GET_BUCKET_VERSIONING);
+    if (store == null) {
       throw new ResourceNotFoundException("Bucket does not exist: " + bucket);
     }
-    return BucketVersioningConfiguration.of(metadata.getVersioningStatus());
+    return BucketVersioningConfiguration.of(store.getVersioningStatus());
   }
 
   @Override
@@ -968,26 +724,100 @@ public class InMemoryBlobStore extends AbstractBlobStore {
 
   // Helper methods
 
-  private void checkIfArchived(DownloadRequest downloadRequest) {
+  /**
+   * Resolves the blob a download reads: the requested version, or the latest one when no version
+   * is given.
+   */
+  private StoredBlob resolveForDownload(DownloadRequest downloadRequest) {
+    InMemoryBucket store = beginRequest(BlobSpanNames.DOWNLOAD);
+    String versionId = downloadRequest.getVersionId();
+    StoredBlob blob = store.get(downloadRequest.getKey(), versionId);
+    if (blob != null) {
+      return blob;
+    }
+    if (versionId == null) {
+      checkIfArchived(store, downloadRequest);
+      throw new ResourceNotFoundException("Blob not found: " + downloadRequest.getKey());
+    }
+    throw new ResourceNotFoundException(
+        "Blob version not found: " + downloadRequest.getKey() + " version: " + versionId);
+  }
+
+  /**
+   * Returns a not-modified response if the preconditions of {@code downloadRequest} find {@code
+   * blob} unchanged, else null. No content is transferred, so no bandwidth is simulated.
+   *
+   * @throws ResourceConflictException if the If-Match precondition finds {@code blob} changed
+   */
+  private static DownloadResponse notModifiedResponse(
+      DownloadRequest downloadRequest, StoredBlob blob) {
+    if (!downloadRequest.isConditional()) {
+      return null;
+    }
+    BlobPreconditions preconditions = downloadRequest.getPreconditions();
+    if (preconditions.isChanged(blob.getEtag())) {
+      throw new ResourceConflictException(
+          "Object " + downloadRequest.getKey() + " does not match the expected ETag");
+    }
+    if (!preconditions.isNotModified(blob.getEtag(), blob.getLastModified())) {
+      return null;
+    }
+    return DownloadResponse.notModified(
+        downloadRequest.getKey(), toBlobMetadata(downloadRequest.getKey(), blob, blob.size()));
+  }
+
+  private void checkIfArchived(InMemoryBucket store, DownloadRequest downloadRequest) {
     if (!downloadRequest.isCheckArchived()) {
       return;
     }
-    String baseKey = getStorageKey(downloadRequest.getKey());
-    for (String storageKey : STORAGE.keySet()) {
-      if (storageKey.startsWith(baseKey + ":")) {
-        String versionId = storageKey.substring((baseKey + ":").length());
-        throw new ResourceNotFoundException(
-            "Object is archived (delete marker): " + downloadRequest.getKey(),
-            null,
-            ArchiveInfo.builder().archived(true).versionId(versionId).build());
-      }
+    StoredBlob retained = store.findAnyVersion(downloadRequest.getKey());
+    if (retained != null) {
+      throw new ResourceNotFoundException(
+          "Object is archived (delete marker): " + downloadRequest.getKey(),
+          null,
+          ArchiveInfo.builder().archived(true).versionId(retained.getVersionId()).build());
     }
   }
 
-  private void validateBucketExists() {
-    if (!BUCKETS.containsKey(bucket)) {
+  /** Validates that the bucket exists and applies its simulation to one request. */
+  private InMemoryBucket beginRequest(String operation) {
+    InMemoryBucket store = requireBucket();
+    simulate(store, operation);
+    return store;
+  }
+
+  private static void simulate(InMemoryBucket store, String operation) {
+    InMemorySimulator simulator = store != null ? store.getSimulator() : null;
+    if (simulator != null) {
+      simulator.beforeRequest(operation);
+    }
+  }
+
+  private static void transfer(InMemoryBucket store, long bytes) {
+    InMemorySimulator simulator = store != null ? store.getSimulator() : null;
+    if (simulator != null) {
+      simulator.transfer(bytes);
+    }
+  }
+
+  private InMemoryBucket requireBucket() {
+    InMemoryBucket store = BUCKETS.get(bucket);
+    if (store == null) {
       throw new ResourceNotFoundException("Bucket not found: " + bucket);
     }
+    return store;
+  }
+
+  private static ObjectLockInfo toObjectLockInfo(ObjectLockConfiguration lockConfig) {
+    if (lockConfig == null) {
+      return null;
+    }
+    return ObjectLockInfo.builder()
+        .mode(lockConfig.getMode())
+        .retainUntilDate(lockConfig.getRetainUntilDate())
+        .legalHold(lockConfig.isLegalHold())
+        .useEventBasedHold(lockConfig.getUseEventBasedHold())
+        .build();
   }
 
   private void validateChecksum(UploadRequest uploadRequest, byte[] content) {
@@ -1006,7 +836,7 @@ public class InMemoryBlobStore extends AbstractBlobStore {
       // CRC32C is the in-memory provider's default, and the cloud-agnostic default when no
       // algorithm is set. The in-memory provider validates every algorithm because it computes
       // them locally and depends on no cloud SDK.
-      actual = computeCrc32cChecksum(content);
+      actual = StoredBlob.crc32cValueOf(ByteRope.wrap(content));
     }
     if (!actual.equals(uploadRequest.getChecksumValue())) {
       throw new InvalidArgumentException(
@@ -1015,34 +845,8 @@ public class InMemoryBlobStore extends AbstractBlobStore {
     }
   }
 
-  private String getStorageKey(String key) {
-    return bucket + ":" + key;
-  }
-
-  private String generateEtag(byte[] data) {
-    return "\"" + Integer.toHexString(java.util.Arrays.hashCode(data)) + "\"";
-  }
-
-  private String computeCrc32cChecksum(byte[] data) {
-    java.util.zip.CRC32C crc32c = new java.util.zip.CRC32C();
-    crc32c.update(data);
-    long value = crc32c.getValue();
-    byte[] checksumBytes = new byte[4];
-    checksumBytes[0] = (byte) (value >> 24);
-    checksumBytes[1] = (byte) (value >> 16);
-    checksumBytes[2] = (byte) (value >> 8);
-    checksumBytes[3] = (byte) value;
-    return Base64.getEncoder().encodeToString(checksumBytes);
-  }
-
   private String computeMd5Checksum(byte[] data) {
-    try {
-      byte[] digest = MessageDigest.getInstance("MD5").digest(data);
-      return Base64.getEncoder().encodeToString(digest);
-    } catch (NoSuchAlgorithmException e) {
-      // MD5 is a standard algorithm guaranteed by the JDK; this should never happen.
-      throw new IllegalStateException("MD5 algorithm not available", e);
-    }
+    return Base64.getEncoder().encodeToString(Md5.compute(data));
   }
 
   private String computeSha256Checksum(byte[] data) {
@@ -1056,36 +860,31 @@ public class InMemoryBlobStore extends AbstractBlobStore {
   }
 
   private String computeCrc64Checksum(byte[] data) {
-    long value = Crc64.compute(data);
-    byte[] checksumBytes = new byte[8];
-    for (int i = 0; i < 8; i++) {
-      checksumBytes[i] = (byte) (value >>> (56 - 8 * i));
-    }
-    return Base64.getEncoder().encodeToString(checksumBytes);
+    long value = Crc64.compute(Crc64.Variant.NVME, data);
+    return Base64.getEncoder().encodeToString(Crc64.toBytes(value));
   }
 
-  private byte[] extractRange(byte[] data, Long start, Long end) {
-    int dataLength = data.length;
+  private ByteRope extractRange(ByteRope data, Long start, Long end) {
+    long dataLength = data.length();
 
     // No range specified, return entire data
     if (start == null && end == null) {
       return data;
     }
 
-    int startPos;
-    int endPos;
+    long startPos;
+    long endPos;
 
     if (start == null) {
       // Last 'end' bytes - if end exceeds data length, return entire data
-      int requestedEnd = end.intValue();
-      if (requestedEnd >= dataLength) {
+      if (end >= dataLength) {
         return data;
       }
-      startPos = Math.max(0, dataLength - requestedEnd);
+      startPos = Math.max(0, dataLength - end);
       endPos = dataLength;
     } else if (end == null) {
       // From 'start' to end
-      startPos = start.intValue();
+      startPos = start;
       // Validate that start is within bounds
       if (startPos >= dataLength) {
         throw new ResourceNotFoundException(
@@ -1097,9 +896,9 @@ public class InMemoryBlobStore extends AbstractBlobStore {
       endPos = dataLength;
     } else {
       // From 'start' to 'end' (inclusive)
-      startPos = start.intValue();
+      startPos = start;
       // If end exceeds data length, adjust to data length
-      endPos = Math.min(end.intValue() + 1, dataLength);
+      endPos = Math.min(end + 1, dataLength);
 
       // Validate that start is within bounds
       if (startPos >= dataLength) {
@@ -1113,182 +912,103 @@ public class InMemoryBlobStore extends AbstractBlobStore {
 
     // Validate range is valid
     if (startPos < 0 || startPos >= endPos) {
-      return new byte[0];
+      return ByteRope.EMPTY;
     }
 
-    byte[] result = new byte[endPos - startPos];
-    System.arraycopy(data, startPos, result, 0, endPos - startPos);
-    return result;
+    return data.slice(startPos, endPos);
   }
 
-  private DownloadResponse buildDownloadResponse(String key, StoredBlob blob, int contentLength) {
-    String versionedKey = getStorageKey(key) + ":" + blob.getVersionId();
-    return DownloadResponse.builder()
+  private static BlobInfo toBlobInfo(StoredBlob blob) {
+    return new BlobInfo.Builder()
+        .withKey(blob.getKey())
+        .withObjectSize(blob.size())
+        .withLastModified(blob.getLastModified())
+        .withETag(blob.getEtag())
+        .withVersionId(blob.getVersionId())
+        .build();
+  }
+
+  private static BlobMetadata toBlobMetadata(String key, StoredBlob blob, long objectSize) {
+    return BlobMetadata.builder()
         .key(key)
-        .metadata(
-            BlobMetadata.builder()
-                .key(key)
-                .versionId(blob.getVersionId())
-                .eTag(blob.getEtag())
-                .objectSize((long) contentLength)
-                .metadata(blob.getMetadata())
-                .lastModified(blob.getLastModified())
-                .createdTime(blob.getLastModified())
-                .contentType(blob.getContentType())
-                .objectLockInfo(OBJECT_LOCKS.get(versionedKey))
-                .checksum(toDriverChecksum(blob.getData()))
-                .build())
+        .versionId(blob.getVersionId())
+        .eTag(blob.getEtag())
+        .objectSize(objectSize)
+        .metadata(blob.getMetadata())
+        .lastModified(blob.getLastModified())
+        .createdTime(blob.getLastModified())
+        .contentType(blob.getContentType())
+        .objectLockInfo(blob.getObjectLock())
+        .checksum(blob.getChecksum())
         .build();
   }
 
   private DownloadResponse buildDownloadResponse(
-      String key, StoredBlob blob, int contentLength, InputStream inputStream) {
-    String versionedKey = getStorageKey(key) + ":" + blob.getVersionId();
+      String key, StoredBlob blob, long contentLength, InputStream inputStream) {
     return DownloadResponse.builder()
         .key(key)
-        .metadata(
-            BlobMetadata.builder()
-                .key(key)
-                .versionId(blob.getVersionId())
-                .eTag(blob.getEtag())
-                .objectSize((long) contentLength)
-                .metadata(blob.getMetadata())
-                .lastModified(blob.getLastModified())
-                .createdTime(blob.getLastModified())
-                .contentType(blob.getContentType())
-                .objectLockInfo(OBJECT_LOCKS.get(versionedKey))
-                .checksum(toDriverChecksum(blob.getData()))
-                .build())
+        .metadata(toBlobMetadata(key, blob, contentLength))
         .inputStream(inputStream)
         .build();
   }
 
-  /**
-   * Resolves the versioned storage key for a blob, validating that the bucket and blob exist.
-   * If versionId is null, resolves to the latest version.
-   */
-  private String resolveVersionedKey(String key, String versionId) {
-    validateBucketExists();
-    String baseKey = getStorageKey(key);
-
-    String resolvedVersionId = versionId;
-    if (resolvedVersionId == null) {
-      resolvedVersionId = LATEST_VERSIONS.get(baseKey);
-    }
-
-    if (resolvedVersionId == null) {
-      throw new ResourceNotFoundException("Blob not found: " + key);
-    }
-
-    String versionedKey = baseKey + ":" + resolvedVersionId;
-    if (!STORAGE.containsKey(versionedKey)) {
-      throw new ResourceNotFoundException(
-          "Blob version not found: " + key + " version: " + resolvedVersionId);
-    }
-
-    return versionedKey;
-  }
-
   @Override
   public ObjectLockInfo getObjectLock(String key, String versionId) {
-    return OBJECT_LOCKS.get(resolveVersionedKey(key, versionId));
+    return beginRequest(BlobSpanNames.GET_OBJECT_LOCK).require(key, versionId).getObjectLock();
   }
 
   @Override
   public void updateObjectRetention(String key, String versionId, Instant retainUntilDate) {
-    String versionedKey = resolveVersionedKey(key, versionId);
-    ObjectLockInfo existing = OBJECT_LOCKS.get(versionedKey);
-
-    OBJECT_LOCKS.put(
-        versionedKey,
-        ObjectLockInfo.builder()
-            .mode(existing != null ? existing.getMode() : null)
-            .retainUntilDate(retainUntilDate)
-            .legalHold(existing != null && existing.isLegalHold())
-            .useEventBasedHold(existing != null ? existing.getUseEventBasedHold() : null)
-            .build());
+    beginRequest(BlobSpanNames.UPDATE_OBJECT_RETENTION).update(key, versionId, blob -> {
+      ObjectLockInfo existing = blob.getObjectLock();
+      return blob.withObjectLock(
+          ObjectLockInfo.builder()
+              .mode(existing != null ? existing.getMode() : null)
+              .retainUntilDate(retainUntilDate)
+              .legalHold(existing != null && existing.isLegalHold())
+              .useEventBasedHold(existing != null ? existing.getUseEventBasedHold() : null)
+              .build());
+    });
   }
 
   @Override
   protected void doUpdateObjectRetention(
       String key, String versionId, ObjectRetentionConfig config) {
-    String versionedKey = resolveVersionedKey(key, versionId);
-    ObjectLockInfo existing = OBJECT_LOCKS.get(versionedKey);
-
-    RetentionMode currentMode = existing != null ? existing.getMode() : null;
-    Instant currentRetainUntil = existing != null ? existing.getRetainUntilDate() : null;
-
-    RetentionMode resolvedMode =
-        ObjectRetentionRules.resolveAndValidate(currentMode, currentRetainUntil, config);
-
-    // Legal hold and useEventBasedHold are preserved across retention updates — they have their
-    // own dedicated APIs and must not be cleared by this call.
-    OBJECT_LOCKS.put(
-        versionedKey,
-        ObjectLockInfo.builder()
-            .mode(resolvedMode)
-            .retainUntilDate(config.getRetainUntilDate())
-            .legalHold(existing != null && existing.isLegalHold())
-            .useEventBasedHold(existing != null ? existing.getUseEventBasedHold() : null)
-            .build());
+    beginRequest(BlobSpanNames.UPDATE_OBJECT_RETENTION).update(key, versionId, blob -> {
+      ObjectLockInfo existing = blob.getObjectLock();
+      RetentionMode currentMode = existing != null ? existing.getMode() : null;
+      Instant currentRetainUntil = existing != null ? existing.getRetainUntilDate() : null;
+
+      RetentionMode resolvedMode =
+          ObjectRetentionRules.resolveAndValidate(currentMode, currentRetainUntil, config);
+
+      // Legal hold and useEventBasedHold are preserved across retention updates — they have their
+      // own dedicated APIs and must not be cleared by this call.
+      return blob.withObjectLock(
+          ObjectLockInfo.builder()
+              .mode(resolvedMode)
+              .retainUntilDate(config.getRetainUntilDate())
+              .legalHold(existing != null && existing.isLegalHold())
+              .useEventBasedHold(existing != null ? existing.getUseEventBasedHold() : null)
+              .build());
+    });
   }
 
   @Override
   public void updateLegalHold(String key, String versionId, boolean legalHold) {
-    String versionedKey = resolveVersionedKey(key, versionId);
-    ObjectLockInfo existing = OBJECT_LOCKS.get(versionedKey);
-
-    OBJECT_LOCKS.put(
-        versionedKey,
-        ObjectLockInfo.builder()
-            .mode(existing != null ? existing.getMode() : null)
-            .retainUntilDate(existing != null ? existing.getRetainUntilDate() : null)
-            .legalHold(legalHold)
-            .useEventBasedHold(existing != null ? existing.getUseEventBasedHold() : null)
-            .build());
+    beginRequest(BlobSpanNames.UPDATE_LEGAL_HOLD).update(key, versionId, blob -> {
+      ObjectLockInfo existing = blob.getObjectLock();
+      return blob.withObjectLock(
+          ObjectLockInfo.builder()
+              .mode(existing != null ? existing.getMode() : null)
+              .retainUntilDate(existing != null ? existing.getRetainUntilDate() : null)
+              .legalHold(legalHold)
+              .useEventBasedHold(existing != null ? existing.getUseEventBasedHold() : null)
+              .build());
+    });
   }
 
-  // Inner classes for storage
-
-  @Getter
-  static class BucketMetadata {
-    private final Instant creationDate;
-    private final BucketVersioningStatus versioningStatus;
-
-    public BucketMetadata(Instant creationDate) {
-      this(creationDate, BucketVersioningStatus.UNVERSIONED);
-    }
-
-    public BucketMetadata(Instant creationDate, BucketVersioningStatus versioningStatus) {
-      this.creationDate = creationDate;
-      this.versioningStatus = versioningStatus;
-    }
-  }
-
-  @Getter
-  private static class StoredBlob {
-    private final byte[] data;
-    private final String etag;
-    private final String versionId;
-    private final Instant lastModified;
-    private final Map<String, String> metadata;
-    private final String contentType;
-
-    public StoredBlob(
-        byte[] data,
-        String etag,
-        String versionId,
-        Instant lastModified,
-        Map<String, String> metadata,
-        String contentType) {
-      this.data = data;
-      this.etag = etag;
-      this.versionId = versionId;
-      this.lastModified = lastModified;
-      this.metadata = metadata != null ? new HashMap<>(metadata) : new HashMap<>();
-      this.contentType = contentType;
-    }
-  }
+  // Inner classes for multipart state
 
   @Getter
   private static class PartData {
@@ -1352,7 +1072,7 @@ public class InMemoryBlobStore extends AbstractBlobStore {
    * @param bucketName the name of the bucket to create
    */
   public static void createBucket(String bucketName) {
-    BUCKETS.putIfAbsent(bucketName, new BucketMetadata(Instant.now()));
+    createBucket(bucketName, BucketVersioningStatus.UNVERSIONED);
   }
 
   /**
@@ -1362,15 +1082,26 @@ public class InMemoryBlobStore extends AbstractBlobStore {
    * @param versioningStatus the initial versioning status for the bucket
    */
   public static void createBucket(String bucketName, BucketVersioningStatus versioningStatus) {
-    BUCKETS.putIfAbsent(bucketName, new BucketMetadata(Instant.now(), versioningStatus));
+    BUCKETS.putIfAbsent(bucketName, new InMemoryBucket(Instant.now(), versioningStatus));
+  }
+
+  /**
+   * Enables simulated latency, bandwidth, throttling and transient failures for every client of a
+   * bucket, replacing any previous simulation. See {@link InMemorySimulation}.
+   *
+   * @param bucketName the name of an existing bucket
+   * @param simulation the simulation to apply, or null to disable it
+   */
+  public static void configureSimulation(String bucketName, InMemorySimulation simulation) {
+    InMemoryBucket store = BUCKETS.get(bucketName);
+    if (store == null) {
+      throw new ResourceNotFoundException("Bucket not found: " + bucketName);
+    }
+    store.setSimulator(simulation != null ? new InMemorySimulator(simulation) : null);
   }
 
   /** Clears all in-memory storage including buckets, blobs, tags, and multipart uploads. */
   public static void clearStorage() {
-    STORAGE.clear();
-    LATEST_VERSIONS.clear();
-    TAGS.clear();
-    OBJECT_LOCKS.clear();
     MULTIPART_UPLOADS.clear();
     BUCKETS.clear();
   }
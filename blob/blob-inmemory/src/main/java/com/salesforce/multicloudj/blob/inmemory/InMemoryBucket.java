@@ -0,0 +1,182 @@
+package com.salesforce.multicloudj.blob.inmemory;
+
+import com.salesforce.multicloudj.blob.driver.BucketVersioningStatus;
+import com.salesforce.multicloudj.blob.driver.KeyOrder;
+import com.salesforce.multicloudj.common.exceptions.ResourceNotFoundException;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.NavigableMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentSkipListMap;
+import java.util.function.UnaryOperator;
+import lombok.Getter;
+import lombok.Setter;
+import lombok.Value;
+
+/**
+ * State of one in-memory bucket.
+ *
+ * <p>Every version lives in {@link #versions}, keyed by a {@link VersionKey}; the latest version
+ * of each key is also indexed in a sorted map so listings scan only the requested prefix.
+ * Readers are lock-free. Writers that touch both maps take one of a fixed set of striped locks
+ * chosen by object key, so the two views stay consistent for that key while unrelated keys never
+ * contend.
+ */
+final class InMemoryBucket {
+
+  private static final int LOCK_STRIPES = 64;
+
+  @Getter private final Instant creationDate;
+  @Getter private final BucketVersioningStatus versioningStatus;
+
+  private final Map<VersionKey, StoredBlob> versions = new ConcurrentHashMap<>();
+  private final ConcurrentSkipListMap<String, StoredBlob> latest =
+      new ConcurrentSkipListMap<>(KeyOrder.UTF8);
+  private final Object[] locks = new Object[LOCK_STRIPES];
+
+  /** Simulation applied to requests against this bucket, or null when disabled. */
+  @Getter @Setter private volatile InMemorySimulator simulator;
+
+  InMemoryBucket(Instant creationDate, BucketVersioningStatus versioningStatus) {
+    this.creationDate = creationDate;
+    this.versioningStatus = versioningStatus;
+    for (int i = 0; i < locks.length; i++) {
+      locks[i] = new Object();
+    }
+  }
+
+  /** Composite key of one stored version. */
+  @Value
+  static class VersionKey {
+    String key;
+    String versionId;
+  }
+
+  /** Returns the latest version of {@code key}, or null when it has none. */
+  StoredBlob getLatest(String key) {
+    return latest.get(key);
+  }
+
+  /** Returns the given version of {@code key}, or the latest one when {@code versionId} is null. */
+  StoredBlob get(String key, String versionId) {
+    return versionId == null ? latest.get(key) : versions.get(new VersionKey(key, versionId));
+  }
+
+  boolean hasVersion(String key, String versionId) {
+    return versions.containsKey(new VersionKey(key, versionId));
+  }
+
+  /** Returns any retained version of {@code key}, used to report delete-marked objects. */
+  StoredBlob findAnyVersion(String key) {
+    for (StoredBlob blob : versions.values()) {
+      if (blob.getKey().equals(key)) {
+        return blob;
+      }
+    }
+    return null;
+  }
+
+  /** Every retained version whose key starts with {@code prefix}, in key order, newest first. */
+  List<StoredBlob> versionsWithPrefix(String prefix) {
+    List<StoredBlob> matching = new ArrayList<>();
+    for (StoredBlob blob : versions.values()) {
+      if (blob.getKey().startsWith(prefix)) {
+        matching.add(blob);
+      }
+    }
+    matching.sort(
+        Comparator.comparing(StoredBlob::getKey, KeyOrder.UTF8)
+            .thenComparing(StoredBlob::getLastModified, Comparator.reverseOrder()));
+    return matching;
+  }
+
+  /** Live objects whose key starts with {@code prefix}, in key order. */
+  NavigableMap<String, StoredBlob> latestWithPrefix(String prefix) {
+    // The exclusive upper bound is the smallest string greater than every key with the prefix.
+    // In UTF-8 order surrogates sort after U+FFFF, which makes U+DFFF the greatest code unit.
+    int end = prefix.length();
+    while (end > 0 && prefix.charAt(end - 1) == Character.MAX_LOW_SURROGATE) {
+      end--;
+    }
+    if (end == 0) {
+      return latest.tailMap(prefix, true);
+    }
+    char last = prefix.charAt(end - 1);
+    char next = last == Character.MAX_VALUE ? Character.MIN_SURROGATE : (char) (last + 1);
+    return latest.subMap(prefix, true, prefix.substring(0, end - 1) + next, false);
+  }
+
+  /** Stores {@code blob} as the new latest version of its key. */
+  void put(StoredBlob blob) {
+    synchronized (lockFor(blob.getKey())) {
+      versions.put(new VersionKey(blob.getKey(), blob.getVersionId()), blob);
+      latest.put(blob.getKey(), blob);
+    }
+  }
+
+  /** Removes one version, clearing the latest pointer when it pointed at that version. */
+  void deleteVersion(String key, String versionId) {
+    synchronized (lockFor(key)) {
+      versions.remove(new VersionKey(key, versionId));
+      StoredBlob current = latest.get(key);
+      if (current != null && versionId.equals(current.getVersionId())) {
+        latest.remove(key);
+      }
+    }
+  }
+
+  /** Simulates a delete marker: the key disappears but its versions are retained. */
+  void deleteLatest(String key) {
+    synchronized (lockFor(key)) {
+      latest.remove(key);
+    }
+  }
+
+  /**
+   * Atomically replaces a stored version with {@code update.apply(current)}.
+   *
+   * @param versionId the version to update, or null for the latest one
+   * @return the updated blob
+   * @throws ResourceNotFoundException if the key or version does not exist
+   */
+  StoredBlob update(String key, String versionId, UnaryOperator<StoredBlob> update) {
+    synchronized (lockFor(key)) {
+      StoredBlob current = require(key, versionId);
+      StoredBlob updated = update.apply(current);
+      versions.put(new VersionKey(key, current.getVersionId()), updated);
+      if (latest.get(key) == current) {
+        latest.put(key, updated);
+      }
+      return updated;
+    }
+  }
+
+  /**
+   * Returns the given version of {@code key}, or the latest one when {@code versionId} is null.
+   *
+   * @throws ResourceNotFoundException if the key or version does not exist
+   */
+  StoredBlob require(String key, String versionId) {
+    if (versionId == null) {
+      StoredBlob blob = latest.get(key);
+      if (blob == null) {
+        throw new ResourceNotFoundException("Blob not found: " + key);
+      }
+      return blob;
+    }
+    StoredBlob blob = versions.get(new VersionKey(key, versionId));
+    if (blob == null) {
+      throw new ResourceNotFoundException(
+          "Blob version not found: " + key + " version: " + versionId);
+    }
+    return blob;
+  }
+
+  private Object lockFor(String key) {
+    int h = key.hashCode();
+    return locks[(h ^ (h >>> 16)) & (LOCK_STRIPES - 1)];
+  }
+}
@@ -0,0 +1,60 @@
+package com.salesforce.multicloudj.blob.inmemory;
+
+import java.util.Collections;
+import java.util.Map;
+import lombok.Builder;
+import lombok.Getter;
+
+/**
+ * Makes an in-memory bucket behave like a remote object store, for load tests that run without a
+ * cloud. Applied per bucket via {@link InMemoryBlobStore#configureSimulation}.
+ *
+ * <p>Every request to the bucket is first checked against the request-rate limit and rejected
+ * with {@link com.salesforce.multicloudj.common.exceptions.ResourceExhaustedException} when it is
+ * exceeded, as the cloud providers' throttling errors are mapped. Admitted requests then wait for
+ * a latency drawn from the operation's {@link LatencyDistribution}, may fail with a retryable
+ * {@link com.salesforce.multicloudj.common.exceptions.UnknownException} at {@code
+ * transientFailureRate}, and finally wait for their payload to cross a connection capped at
+ * {@code bandwidthBytesPerSecond}.
+ *
+ * <p>All randomness comes from a single generator seeded with {@code seed}, so a single-threaded
+ * workload replays identically. Concurrent workloads draw from the same sequence, but the order in
+ * which threads draw depends on scheduling.
+ */
+@Builder
+@Getter
+public class InMemorySimulation {
+
+  /** (Optional) Seed for latency sampling and failure injection. Defaults to 0. */
+  @Builder.Default private final long seed = 0L;
+
+  /** (Optional) Latency applied to operations without an entry in {@link #operationLatencies}. */
+  private final LatencyDistribution defaultLatency;
+
+  /**
+   * (Optional) Per-operation latency, keyed by the operation's span name in {@link
+   * com.salesforce.multicloudj.blob.driver.BlobSpanNames}, e.g. {@code "blob.download"}.
+   */
+  @Builder.Default
+  private final Map<String, LatencyDistribution> operationLatencies = Collections.emptyMap();
+
+  /** (Optional) Per-request transfer rate for payload bytes. 0, the default, is unlimited. */
+  private final long bandwidthBytesPerSecond;
+
+  /** (Optional) Sustained request rate admitted by the bucket. 0, the default, is unlimited. */
+  private final double requestsPerSecond;
+
+  /**
+   * (Optional) Requests admitted back to back before the rate limit applies. Defaults to one
+   * second's worth of {@link #requestsPerSecond}.
+   */
+  private final int burstRequests;
+
+  /** (Optional) Probability in [0, 1] that an admitted request fails. Defaults to 0. */
+  private final double transientFailureRate;
+
+  /** Returns the latency distribution for {@code operation}, or null when none is configured. */
+  public LatencyDistribution latencyFor(String operation) {
+    return operationLatencies.getOrDefault(operation, defaultLatency);
+  }
+}
@@ -0,0 +1,122 @@
+package com.salesforce.multicloudj.blob.inmemory;
+
+import com.salesforce.multicloudj.common.exceptions.ResourceExhaustedException;
+import com.salesforce.multicloudj.common.exceptions.UnknownException;
+import java.time.Duration;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+import java.util.function.LongSupplier;
+
+/** Applies an {@link InMemorySimulation} to the requests of one bucket. */
+final class InMemorySimulator {
+
+  /** Blocks the calling thread; replaced in tests to observe the simulated delays. */
+  @FunctionalInterface
+  interface Sleeper {
+    void sleep(long nanos);
+  }
+
+  private static final Sleeper THREAD_SLEEPER =
+      nanos -> {
+        try {
+          TimeUnit.NANOSECONDS.sleep(nanos);
+        } catch (InterruptedException e) {
+          Thread.currentThread().interrupt();
+        }
+      };
+
+  private final InMemorySimulation simulation;
+  private final Random random;
+  private final LongSupplier nanoClock;
+  private final Sleeper sleeper;
+  private final double burst;
+
+  private double tokens;
+  private long lastRefillNanos;
+
+  InMemorySimulator(InMemorySimulation simulation) {
+    this(simulation, System::nanoTime, THREAD_SLEEPER);
+  }
+
+  InMemorySimulator(InMemorySimulation simulation, LongSupplier nanoClock, Sleeper sleeper) {
+    validate(simulation);
+    this.simulation = simulation;
+    this.random = new Random(simulation.getSeed());
+    this.nanoClock = nanoClock;
+    this.sleeper = sleeper;
+    this.burst =
+        simulation.getBurstRequests() > 0
+            ? simulation.getBurstRequests()
+            : Math.max(1, Math.ceil(simulation.getRequestsPerSecond()));
+    this.tokens = burst;
+    this.lastRefillNanos = nanoClock.getAsLong();
+  }
+
+  private static void validate(InMemorySimulation simulation) {
+    if (simulation.getBandwidthBytesPerSecond() < 0) {
+      throw new IllegalArgumentException(
+          "Simulated bandwidth cannot be negative: " + simulation.getBandwidthBytesPerSecond());
+    }
+    if (simulation.getRequestsPerSecond() < 0) {
+      throw new IllegalArgumentException(
+          "Simulated request rate cannot be negative: " + simulation.getRequestsPerSecond());
+    }
+    if (simulation.getTransientFailureRate() < 0 || simulation.getTransientFailureRate() > 1) {
+      throw new IllegalArgumentException(
+          "Simulated failure rate must be between 0 and 1: "
+              + simulation.getTransientFailureRate());
+    }
+  }
+
+  /**
+   * Admits one request for {@code operation}: enforces the rate limit, waits for the sampled
+   * latency and injects a transient failure when one is drawn.
+   *
+   * @throws ResourceExhaustedException if the request rate limit is exceeded
+   * @throws UnknownException if a transient failure is injected
+   */
+  void beforeRequest(String operation) {
+    Duration latency;
+    boolean fail;
+    synchronized (this) {
+      if (!tryAcquire()) {
+        throw new ResourceExhaustedException(
+            "Simulated request rate exceeded for " + operation + ": please reduce your request"
+                + " rate");
+      }
+      LatencyDistribution distribution = simulation.latencyFor(operation);
+      latency = distribution != null ? distribution.sample(random) : Duration.ZERO;
+      fail = simulation.getTransientFailureRate() > 0
+          && random.nextDouble() < simulation.getTransientFailureRate();
+    }
+    if (!latency.isZero() && !latency.isNegative()) {
+      sleeper.sleep(latency.toNanos());
+    }
+    if (fail) {
+      throw new UnknownException("Simulated transient failure for " + operation);
+    }
+  }
+
+  /** Waits for {@code bytes} of payload to cross a connection at the simulated bandwidth. */
+  void transfer(long bytes) {
+    long bandwidth = simulation.getBandwidthBytesPerSecond();
+    if (bandwidth > 0 && bytes > 0) {
+      sleeper.sleep((long) (bytes * (double) TimeUnit.SECONDS.toNanos(1) / bandwidth));
+    }
+  }
+
+  private boolean tryAcquire() {
+    double rate = simulation.getRequestsPerSecond();
+    if (rate <= 0) {
+      return true;
+    }
+    long now = nanoClock.getAsLong();
+    tokens = Math.min(burst, tokens + (now - lastRefillNanos) * rate / TimeUnit.SECONDS.toNanos(1));
+    lastRefillNanos = now;
+    if (tokens < 1) {
+      return false;
+    }
+    tokens -= 1;
+    return true;
+  }
+}
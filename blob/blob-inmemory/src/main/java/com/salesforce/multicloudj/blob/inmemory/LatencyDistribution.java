@@ -0,0 +1,88 @@
+package com.salesforce.multicloudj.blob.inmemory;
+
+import java.time.Duration;
+import java.util.Map;
+import java.util.NavigableMap;
+import java.util.Random;
+
+/**
+ * Source of simulated request latencies for {@link InMemorySimulation}.
+ *
+ * <p>Implementations draw from the supplied {@link Random}, which is seeded by the simulation, so
+ * a single-threaded workload sees the same latencies on every run.
+ */
+@FunctionalInterface
+public interface LatencyDistribution {
+
+  /** Draws the latency of one request. */
+  Duration sample(Random random);
+
+  /** Every request takes exactly {@code latency}. */
+  static LatencyDistribution fixed(Duration latency) {
+    return random -> latency;
+  }
+
+  /**
+   * Latencies drawn from a normal distribution, truncated at zero.
+   *
+   * @param mean the mean latency
+   * @param standardDeviation the standard deviation of the latency
+   */
+  static LatencyDistribution normal(Duration mean, Duration standardDeviation) {
+    long meanNanos = mean.toNanos();
+    long stdDevNanos = standardDeviation.toNanos();
+    return random ->
+        Duration.ofNanos(Math.max(0, Math.round(meanNanos + random.nextGaussian() * stdDevNanos)));
+  }
+
+  /**
+   * Replays a latency histogram, such as one exported from production metrics.
+   *
+   * <p>Each entry maps a bucket's upper bound to the number of requests observed in it; a bucket
+   * spans from the previous upper bound (or zero) to its own. A bucket is chosen with probability
+   * proportional to its count and the latency is drawn uniformly within it.
+   *
+   * @param countsByUpperBound observed request counts keyed by bucket upper bound
+   */
+  static LatencyDistribution histogram(NavigableMap<Duration, Long> countsByUpperBound) {
+    if (countsByUpperBound.isEmpty()) {
+      throw new IllegalArgumentException("Latency histogram must have at least one bucket");
+    }
+    long[] upperNanos = new long[countsByUpperBound.size()];
+    long[] cumulative = new long[countsByUpperBound.size()];
+    int i = 0;
+    long total = 0;
+    for (Map.Entry<Duration, Long> bucket : countsByUpperBound.entrySet()) {
+      if (bucket.getValue() < 0) {
+        throw new IllegalArgumentException(
+            "Latency histogram counts cannot be negative: " + bucket.getValue());
+      }
+      total += bucket.getValue();
+      upperNanos[i] = bucket.getKey().toNanos();
+      cumulative[i] = total;
+      i++;
+    }
+    if (total == 0) {
+      throw new IllegalArgumentException("Latency histogram must contain at least one sample");
+    }
+    long samples = total;
+    return random -> {
+      long target = (long) (random.nextDouble() * samples);
+      // First bucket whose cumulative count exceeds the target; empty buckets are never chosen.
+      int low = 0;
+      int high = cumulative.length - 1;
+      while (low < high) {
+        int mid = (low + high) >>> 1;
+        if (cumulative[mid] > target) {
+          high = mid;
+        } else {
+          low = mid + 1;
+        }
+      }
+      int bucket = low;
+      long lower = bucket == 0 ? 0 : upperNanos[bucket - 1];
+      long upper = upperNanos[bucket];
+      return Duration.ofNanos(lower + (long) (random.nextDouble() * (upper - lower)));
+    };
+  }
+}
@@ -0,0 +1,129 @@
+package com.salesforce.multicloudj.blob.inmemory;
+
+import com.salesforce.multicloudj.blob.driver.Checksum;
+import com.salesforce.multicloudj.blob.driver.ChecksumMethod;
+import com.salesforce.multicloudj.blob.driver.ObjectLockInfo;
+import com.salesforce.multicloudj.common.checksum.Crc32c;
+import java.time.Instant;
+import java.util.Base64;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.Map;
+import lombok.Getter;
+
+/**
+ * One immutable version of a blob held by {@link InMemoryBucket}.
+ *
+ * <p>Tag and object-lock updates never mutate a stored version; they produce a copy via {@link
+ * #withTags} or {@link #withObjectLock} that shares the content and metadata, and the bucket swaps
+ * it in under the key's lock. Readers therefore never need to copy maps defensively, and the etag
+ * and CRC32C checksum are computed once when the version is created.
+ */
+@Getter
+final class StoredBlob {
+  private final String key;
+  private final ByteRope data;
+  private final String etag;
+  private final String versionId;
+  private final Instant lastModified;
+  private final Map<String, String> metadata;
+  private final String contentType;
+  private final Map<String, String> tags;
+  private final ObjectLockInfo objectLock;
+  private final Checksum checksum;
+
+  /**
+   * Creates a new version. Takes ownership of {@code metadata}, which the caller must not modify
+   * afterwards; {@code tags} is copied.
+   */
+  StoredBlob(
+      String key,
+      ByteRope data,
+      String versionId,
+      Instant lastModified,
+      Map<String, String> metadata,
+      String contentType,
+      Map<String, String> tags,
+      ObjectLockInfo objectLock) {
+    this(
+        key,
+        data,
+        etagOf(data),
+        versionId,
+        lastModified,
+        metadata == null || metadata.isEmpty()
+            ? Collections.emptyMap()
+            : Collections.unmodifiableMap(metadata),
+        contentType,
+        immutableCopy(tags),
+        objectLock,
+        crc32cOf(data));
+  }
+
+  private StoredBlob(
+      String key,
+      ByteRope data,
+      String etag,
+      String versionId,
+      Instant lastModified,
+      Map<String, String> metadata,
+      String contentType,
+      Map<String, String> tags,
+      ObjectLockInfo objectLock,
+      Checksum checksum) {
+    this.key = key;
+    this.data = data;
+    this.etag = etag;
+    this.versionId = versionId;
+    this.lastModified = lastModified;
+    this.metadata = metadata;
+    this.contentType = contentType;
+    this.tags = tags;
+    this.objectLock = objectLock;
+    this.checksum = checksum;
+  }
+
+  long size() {
+    return data.length();
+  }
+
+  StoredBlob withTags(Map<String, String> tags) {
+    return new StoredBlob(key, data, etag, versionId, lastModified, metadata, contentType,
+        immutableCopy(tags), objectLock, checksum);
+  }
+
+  StoredBlob withObjectLock(ObjectLockInfo objectLock) {
+    return new StoredBlob(key, data, etag, versionId, lastModified, metadata, contentType, tags,
+        objectLock, checksum);
+  }
+
+  /**
+   * Returns a new version of this blob's content and metadata stored under {@code key}. Tags and
+   * object lock settings are not carried over, matching a server-side copy.
+   */
+  StoredBlob copyTo(String key, String versionId, Instant lastModified) {
+    return new StoredBlob(key, data, etag, versionId, lastModified, metadata, contentType,
+        Collections.emptyMap(), null, checksum);
+  }
+
+  static String etagOf(ByteRope data) {
+    return "\"" + Integer.toHexString(data.contentHashCode()) + "\"";
+  }
+
+  static String crc32cValueOf(ByteRope data) {
+    Crc32c crc32c = new Crc32c();
+    data.update(crc32c);
+    return Base64.getEncoder().encodeToString(crc32c.digest());
+  }
+
+  private static Checksum crc32cOf(ByteRope data) {
+    return Checksum.builder().algorithm(ChecksumMethod.CRC32C).value(crc32cValueOf(data)).build();
+  }
+
+  private static Map<String, String> immutableCopy(Map<String, String> source) {
+    if (source == null || source.isEmpty()) {
+      return Collections.emptyMap();
+    }
+    return Collections.unmodifiableMap(new HashMap<>(source));
+  }
+}
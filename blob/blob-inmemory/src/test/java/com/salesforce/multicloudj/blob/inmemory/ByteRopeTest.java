@@ -0,0 +1,85 @@
+package com.salesforce.multicloudj.blob.inmemory;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+import java.io.ByteArrayOutputStream;
+import java.io.InputStream;
+import java.util.Arrays;
+import java.util.List;
+import java.util.zip.CRC32C;
+import org.junit.jupiter.api.Test;
+
+class ByteRopeTest {
+
+  private static final byte[] CONTENT = "the quick brown fox jumps over the lazy dog".getBytes();
+
+  /** Splits CONTENT into uneven segments, including an empty one. */
+  private static ByteRope rope() {
+    return ByteRope.concat(
+        List.of(
+            Arrays.copyOfRange(CONTENT, 0, 4),
+            new byte[0],
+            Arrays.copyOfRange(CONTENT, 4, 20),
+            Arrays.copyOfRange(CONTENT, 20, 21),
+            Arrays.copyOfRange(CONTENT, 21, CONTENT.length)));
+  }
+
+  @Test
+  void testConcatenationMatchesContent() throws Exception {
+    ByteRope rope = rope();
+    assertEquals(CONTENT.length, rope.length());
+    assertArrayEquals(CONTENT, rope.toByteArray());
+
+    ByteArrayOutputStream out = new ByteArrayOutputStream();
+    rope.writeTo(out);
+    assertArrayEquals(CONTENT, out.toByteArray());
+
+    try (InputStream in = rope.newInputStream()) {
+      assertArrayEquals(CONTENT, in.readAllBytes());
+    }
+  }
+
+  @Test
+  void testSlicesAcrossSegmentBoundaries() throws Exception {
+    ByteRope rope = rope();
+    for (int from = 0; from <= CONTENT.length; from++) {
+      for (int to = from; to <= CONTENT.length; to++) {
+        byte[] expected = Arrays.copyOfRange(CONTENT, from, to);
+        ByteRope slice = rope.slice(from, to);
+        assertArrayEquals(expected, slice.toByteArray());
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        slice.writeTo(out);
+        assertArrayEquals(expected, out.toByteArray());
+        try (InputStream in = slice.newInputStream()) {
+          assertArrayEquals(expected, in.readAllBytes());
+        }
+      }
+    }
+    assertArrayEquals(
+        Arrays.copyOfRange(CONTENT, 6, 10), rope.slice(2, 30).slice(4, 8).toByteArray());
+    assertThrows(IndexOutOfBoundsException.class, () -> rope.slice(5, CONTENT.length + 1));
+  }
+
+  @Test
+  void testHashAndChecksumMatchContiguousArray() {
+    ByteRope rope = rope();
+    assertEquals(Arrays.hashCode(CONTENT), rope.contentHashCode());
+
+    CRC32C expected = new CRC32C();
+    expected.update(CONTENT);
+    CRC32C actual = new CRC32C();
+    rope.update(actual);
+    assertEquals(expected.getValue(), actual.getValue());
+  }
+
+  @Test
+  void testWholeSingleSegmentIsNotCopied() {
+    byte[] bytes = CONTENT.clone();
+    assertSame(bytes, ByteRope.wrap(bytes).toByteArray());
+    assertSame(bytes, ByteRope.concat(List.of(new byte[0], bytes)).slice(0, bytes.length)
+        .toByteArray());
+  }
+}
@@ -0,0 +1,88 @@
+package com.salesforce.multicloudj.blob.inmemory;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+import com.salesforce.multicloudj.blob.async.driver.BlobStoreAsyncBridge;
+import com.salesforce.multicloudj.blob.driver.ByteArray;
+import com.salesforce.multicloudj.blob.driver.DownloadRequest;
+import com.salesforce.multicloudj.blob.driver.UploadRequest;
+import java.io.ByteArrayInputStream;
+import java.nio.ByteBuffer;
+import java.nio.channels.Channels;
+import java.nio.charset.StandardCharsets;
+import java.util.concurrent.SubmissionPublisher;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+/** Tests uploads from buffers, channels and publishers against the in-memory store. */
+class InMemoryBlobStoreBufferUploadTest {
+
+  private static final byte[] CONTENT =
+      "content held outside the heap".getBytes(StandardCharsets.UTF_8);
+
+  private InMemoryBlobStore store;
+
+  @BeforeEach
+  void setUp() {
+    store = new InMemoryBlobStore.Builder().withBucket("buffer-bucket").withRegion("local").build();
+    InMemoryBlobStore.createBucket("buffer-bucket");
+  }
+
+  private byte[] read(String key) {
+    ByteArray byteArray = new ByteArray();
+    store.download(DownloadRequest.builder().withKey(key).build(), byteArray);
+    return byteArray.getBytes();
+  }
+
+  @Test
+  void testUploadDirectByteBuffer() {
+    ByteBuffer buffer = ByteBuffer.allocateDirect(CONTENT.length + 4);
+    buffer.position(2);
+    buffer.put(CONTENT).flip().position(2);
+
+    store.upload(UploadRequest.builder().withKey("direct").build(), buffer);
+
+    assertArrayEquals(CONTENT, read("direct"));
+    assertEquals(2, buffer.position());
+  }
+
+  @Test
+  void testUploadHeapByteBufferSlice() {
+    byte[] padded = new byte[CONTENT.length + 8];
+    System.arraycopy(CONTENT, 0, padded, 4, CONTENT.length);
+
+    store.upload(
+        UploadRequest.builder().withKey("slice").build(),
+        ByteBuffer.wrap(padded, 4, CONTENT.length));
+
+    assertArrayEquals(CONTENT, read("slice"));
+  }
+
+  @Test
+  void testUploadChannelOfUnknownLength() {
+    store.upload(
+        UploadRequest.builder().withKey("channel").build(),
+        Channels.newChannel(new ByteArrayInputStream(CONTENT)),
+        -1);
+
+    assertArrayEquals(CONTENT, read("channel"));
+  }
+
+  @Test
+  void testUploadPublisherThroughAsyncBridge() {
+    BlobStoreAsyncBridge async = new BlobStoreAsyncBridge(store, null);
+    try (SubmissionPublisher<ByteBuffer> publisher = new SubmissionPublisher<>()) {
+      var upload = async.upload(UploadRequest.builder().withKey("published").build(), publisher);
+      while (publisher.getNumberOfSubscribers() == 0) {
+        Thread.onSpinWait();
+      }
+      publisher.submit(ByteBuffer.wrap(CONTENT, 0, 10));
+      publisher.submit(ByteBuffer.wrap(CONTENT, 10, CONTENT.length - 10));
+      publisher.close();
+      upload.join();
+    }
+
+    assertArrayEquals(CONTENT, read("published"));
+  }
+}
@@ -0,0 +1,121 @@
+package com.salesforce.multicloudj.blob.inmemory;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import com.salesforce.multicloudj.blob.async.driver.BlobStoreAsyncBridge;
+import com.salesforce.multicloudj.blob.driver.BlobIdentifier;
+import com.salesforce.multicloudj.blob.driver.BlobMetadata;
+import com.salesforce.multicloudj.blob.driver.UploadRequest;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+/** Tests bulk existence and metadata lookups against the in-memory store. */
+class InMemoryBlobStoreBulkLookupTest {
+
+  private InMemoryBlobStore store;
+
+  @BeforeEach
+  void setUp() {
+    store =
+        new InMemoryBlobStore.Builder()
+            .withBucket("bulk-bucket")
+            .withRegion("local")
+            .withMaxBulkLookupConcurrency(4)
+            .build();
+    InMemoryBlobStore.createBucket("bulk-bucket");
+  }
+
+  private void put(String key) {
+    store.upload(
+        UploadRequest.builder().withKey(key).build(), key.getBytes(StandardCharsets.UTF_8));
+  }
+
+  private static BlobIdentifier id(String key) {
+    return new BlobIdentifier(key, null);
+  }
+
+  @Test
+  void testDoesObjectExistResolvesListedGroupAndIndividualKeys() {
+    List<BlobIdentifier> objects = new ArrayList<>();
+    for (int i = 0; i < 300; i++) {
+      String key = String.format("data/part-%05d", i);
+      if (i % 3 == 0) {
+        put(key);
+      }
+      objects.add(id(key));
+    }
+    put("data/part-zz-unrequested");
+    put("other/present");
+    objects.add(id("other/present"));
+    objects.add(id("other/absent"));
+
+    Map<BlobIdentifier, Boolean> result = store.doesObjectExist(objects);
+
+    assertEquals(objects, new ArrayList<>(result.keySet()));
+    for (int i = 0; i < 300; i++) {
+      assertEquals(i % 3 == 0, result.get(objects.get(i)), objects.get(i).getKey());
+    }
+    assertTrue(result.get(id("other/present")));
+    assertFalse(result.get(id("other/absent")));
+  }
+
+  @Test
+  void testDoesObjectExistFallsBackPastPageBudget() {
+    List<BlobIdentifier> objects = new ArrayList<>();
+    for (int i = 0; i < 5000; i++) {
+      put(String.format("dense/%05d", i));
+    }
+    for (int i = 0; i < 100; i++) {
+      objects.add(id(String.format("dense/%05d", i * 50)));
+    }
+    objects.add(id("dense/99999"));
+
+    Map<BlobIdentifier, Boolean> result = store.doesObjectExist(objects);
+
+    assertEquals(101, result.size());
+    assertEquals(100, result.values().stream().filter(Boolean::booleanValue).count());
+    assertFalse(result.get(id("dense/99999")));
+  }
+
+  @Test
+  void testGetMetadataMapsMissingBlobsToNull() {
+    put("meta/a");
+    put("meta/b");
+    List<BlobIdentifier> objects = List.of(id("meta/b"), id("meta/missing"), id("meta/a"));
+
+    Map<BlobIdentifier, BlobMetadata> result = store.getMetadata(objects);
+
+    assertEquals(objects, new ArrayList<>(result.keySet()));
+    assertEquals("meta/b", result.get(id("meta/b")).getKey());
+    assertNull(result.get(id("meta/missing")));
+    assertEquals(6, result.get(id("meta/a")).getObjectSize());
+  }
+
+  @Test
+  void testBulkLookupsThroughAsyncBridge() {
+    put("async/a");
+    BlobStoreAsyncBridge async = new BlobStoreAsyncBridge(store, null);
+    List<BlobIdentifier> objects = List.of(id("async/a"), id("async/b"));
+
+    Map<BlobIdentifier, Boolean> exists = async.doesObjectExist(objects).join();
+    Map<BlobIdentifier, BlobMetadata> metadata = async.getMetadata(objects).join();
+
+    assertTrue(exists.get(id("async/a")));
+    assertFalse(exists.get(id("async/b")));
+    assertEquals("async/a", metadata.get(id("async/a")).getKey());
+    assertNull(metadata.get(id("async/b")));
+  }
+
+  @Test
+  void testEmptyCollectionIsRejected() {
+    assertThrows(IllegalArgumentException.class, () -> store.doesObjectExist(List.of()));
+  }
+}
@@ -0,0 +1,70 @@
+package com.salesforce.multicloudj.blob.inmemory;
+
+import static org.junit.jupiter.api.Assertions.assertDoesNotThrow;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+import com.salesforce.multicloudj.blob.driver.ChecksumMethod;
+import com.salesforce.multicloudj.blob.driver.UploadRequest;
+import com.salesforce.multicloudj.common.exceptions.InvalidArgumentException;
+import java.nio.charset.StandardCharsets;
+import java.util.Base64;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+
+/** Tests validation of caller-supplied checksums against published check values. */
+class InMemoryBlobStoreChecksumTest {
+
+  private static final String BUCKET = "checksum-bucket";
+  private static final byte[] CHECK = "123456789".getBytes(StandardCharsets.US_ASCII);
+
+  @BeforeAll
+  static void createBucket() {
+    InMemoryBlobStore.createBucket(BUCKET);
+  }
+
+  private static void upload(ChecksumMethod algorithm, byte[] checksum) {
+    new InMemoryBlobStore.Builder()
+        .withBucket(BUCKET)
+        .withRegion("local")
+        .build()
+        .upload(
+            UploadRequest.builder()
+                .withKey("check-" + algorithm)
+                .withChecksumAlgorithm(algorithm)
+                .withChecksumValue(Base64.getEncoder().encodeToString(checksum))
+                .build(),
+            CHECK);
+  }
+
+  private static byte[] bytes(int... values) {
+    byte[] bytes = new byte[values.length];
+    for (int i = 0; i < values.length; i++) {
+      bytes[i] = (byte) values[i];
+    }
+    return bytes;
+  }
+
+  @Test
+  void testAcceptsPublishedCheckValues() {
+    assertDoesNotThrow(
+        () ->
+            upload(ChecksumMethod.CRC64, bytes(0xAE, 0x8B, 0x14, 0x86, 0x0A, 0x79, 0x98, 0x88)));
+    assertDoesNotThrow(() -> upload(ChecksumMethod.CRC32C, bytes(0xE3, 0x06, 0x92, 0x83)));
+    assertDoesNotThrow(
+        () ->
+            upload(
+                ChecksumMethod.MD5,
+                bytes(
+                    0x25, 0xf9, 0xe7, 0x94, 0x32, 0x3b, 0x45, 0x38, 0x85, 0xf5, 0x18, 0x1f, 0x1b,
+                    0x62, 0x4d, 0x0b)));
+  }
+
+  @Test
+  void testRejectsOtherCrc64Variants() {
+    // CRC-64/ECMA-182 of the same input; the store validates CRC-64/NVME.
+    assertThrows(
+        InvalidArgumentException.class,
+        () ->
+            upload(ChecksumMethod.CRC64, bytes(0x6C, 0x40, 0xDF, 0x5F, 0x0B, 0x49, 0x73, 0x47)));
+  }
+}
@@ -0,0 +1,234 @@
+package com.salesforce.multicloudj.blob.inmemory;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import com.salesforce.multicloudj.blob.async.driver.BlobStoreAsyncBridge;
+import com.salesforce.multicloudj.blob.driver.BlobCompression;
+import com.salesforce.multicloudj.blob.driver.BlobMetadata;
+import com.salesforce.multicloudj.blob.driver.ByteArray;
+import com.salesforce.multicloudj.blob.driver.CompressionCodec;
+import com.salesforce.multicloudj.blob.driver.DownloadRequest;
+import com.salesforce.multicloudj.blob.driver.DownloadResponse;
+import com.salesforce.multicloudj.blob.driver.UploadRequest;
+import com.salesforce.multicloudj.common.exceptions.ResourceConflictException;
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Arrays;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+/** Round-trip tests for client-side compression through {@link InMemoryBlobStore}. */
+class InMemoryBlobStoreCompressionTest {
+
+  private static final int BLOCK_SIZE = 1024;
+
+  private InMemoryBlobStore store;
+  private byte[] content;
+
+  @BeforeEach
+  void setUp() {
+    store = new InMemoryBlobStore.Builder().withBucket("bucket-1").withRegion("local").build();
+    InMemoryBlobStore.createBucket("bucket-1");
+    StringBuilder json = new StringBuilder();
+    for (int i = 0; i < 500; i++) {
+      json.append("{\"id\":").append(i).append(",\"level\":\"INFO\",\"msg\":\"request ok\"}\n");
+    }
+    content = json.toString().getBytes(StandardCharsets.UTF_8);
+  }
+
+  private UploadRequest request(String key, CompressionCodec codec) {
+    return UploadRequest.builder()
+        .withKey(key)
+        .withCompression(
+            BlobCompression.builder()
+                .codec(codec)
+                .level(6)
+                .blockSizeInBytes(BLOCK_SIZE)
+                .parallelism(4)
+                .build())
+        .build();
+  }
+
+  private byte[] download(DownloadRequest request) {
+    ByteArray bytes = new ByteArray();
+    store.download(request, bytes);
+    return bytes.getBytes();
+  }
+
+  @Test
+  void testRoundTripRecordsCodecAndShrinksObject() {
+    for (CompressionCodec codec : CompressionCodec.values()) {
+      String key = "logs-" + codec.getMetadataValue() + ".json";
+      store.upload(request(key, codec), content);
+
+      BlobMetadata metadata = store.getMetadata(key, null);
+      assertEquals(codec.getMetadataValue(),
+          metadata.getMetadata().get(BlobCompression.CODEC_METADATA_KEY));
+      assertEquals(String.valueOf(content.length),
+          metadata.getMetadata().get(BlobCompression.UNCOMPRESSED_SIZE_METADATA_KEY));
+      assertTrue(metadata.getObjectSize() < content.length / 4);
+
+      byte[] roundTrip =
+          download(DownloadRequest.builder().withKey(key).withDecompress(true).build());
+      assertArrayEquals(content, roundTrip);
+    }
+  }
+
+  @Test
+  void testDownloadWithoutDecompressReturnsFramedBytes() {
+    store.upload(request("logs.json", CompressionCodec.GZIP), content);
+
+    byte[] raw = download(DownloadRequest.builder().withKey("logs.json").build());
+    assertEquals(store.getMetadata("logs.json", null).getObjectSize(), raw.length);
+  }
+
+  @Test
+  void testRangedReadsMapToUncompressedOffsets() {
+    store.upload(request("logs.json", CompressionCodec.DEFLATE), content);
+
+    long[][] ranges = {{0, 10}, {BLOCK_SIZE - 5, BLOCK_SIZE + 5}, {3000, 9000}, {0, 0}};
+    for (long[] range : ranges) {
+      byte[] slice = download(
+          DownloadRequest.builder()
+              .withKey("logs.json")
+              .withRange(range[0], range[1])
+              .withDecompress(true)
+              .build());
+      assertArrayEquals(
+          Arrays.copyOfRange(content, (int) range[0], (int) range[1] + 1), slice);
+    }
+
+    byte[] suffix = download(
+        DownloadRequest.builder().withKey("logs.json").withRange(null, 100L).withDecompress(true)
+            .build());
+    assertArrayEquals(Arrays.copyOfRange(content, content.length - 100, content.length), suffix);
+
+    byte[] fromOffset = download(
+        DownloadRequest.builder().withKey("logs.json").withRange(20000L, null).withDecompress(true)
+            .build());
+    assertArrayEquals(Arrays.copyOfRange(content, 20000, content.length), fromOffset);
+
+    byte[] pastEnd = download(
+        DownloadRequest.builder().withKey("logs.json").withRange(content.length + 10L, null)
+            .withDecompress(true).build());
+    assertEquals(0, pastEnd.length);
+  }
+
+  @Test
+  void testStreamingUploadAndInputStreamDownload() throws Exception {
+    store.upload(request("stream.json", CompressionCodec.GZIP), new ByteArrayInputStream(content));
+
+    DownloadResponse response = store.download(
+        DownloadRequest.builder().withKey("stream.json").withDecompress(true).build());
+    try (InputStream in = response.getInputStream()) {
+      assertArrayEquals(content, in.readAllBytes());
+    }
+  }
+
+  @Test
+  void testFileUploadAndPathDownload(@TempDir Path dir) throws Exception {
+    Path source = Files.write(dir.resolve("source.json"), content);
+    store.upload(request("file.json", CompressionCodec.GZIP), source);
+
+    Path target = dir.resolve("target.json");
+    store.download(
+        DownloadRequest.builder().withKey("file.json").withDecompress(true).build(), target);
+    assertArrayEquals(content, Files.readAllBytes(target));
+  }
+
+  @Test
+  void testDecompressPassesThroughUncompressedObjects() {
+    store.upload(UploadRequest.builder().withKey("plain.txt").build(), content);
+
+    ByteArrayOutputStream out = new ByteArrayOutputStream();
+    store.download(
+        DownloadRequest.builder().withKey("plain.txt").withDecompress(true).build(), out);
+    assertArrayEquals(content, out.toByteArray());
+
+    byte[] slice = download(
+        DownloadRequest.builder().withKey("plain.txt").withRange(5L, 9L).withDecompress(true)
+            .build());
+    assertArrayEquals(Arrays.copyOfRange(content, 5, 10), slice);
+  }
+
+  @Test
+  void testRangedReadFailsWhenOverwrittenAfterLookup() {
+    // Stands in for an unversioned bucket: the lookup reports no version to pin, and the object is
+    // overwritten right after it, before the ranged GETs.
+    AtomicBoolean overwritten = new AtomicBoolean();
+    InMemoryBlobStore.Builder builder = new InMemoryBlobStore.Builder();
+    builder.withBucket("bucket-1").withRegion("local");
+    InMemoryBlobStore racing =
+        new InMemoryBlobStore(builder) {
+          @Override
+          protected BlobMetadata doGetMetadata(String key, String versionId) {
+            BlobMetadata metadata = super.doGetMetadata(key, versionId);
+            if (overwritten.compareAndSet(false, true)) {
+              upload(request(key, CompressionCodec.GZIP), Arrays.copyOf(content, 100));
+            }
+            return metadata.toBuilder().versionId(null).build();
+          }
+        };
+    racing.upload(request("logs.json", CompressionCodec.GZIP), content);
+
+    assertThrows(
+        ResourceConflictException.class,
+        () ->
+            racing.download(
+                DownloadRequest.builder()
+                    .withKey("logs.json")
+                    .withRange(0L, 10L)
+                    .withDecompress(true)
+                    .build(),
+                new ByteArray()));
+  }
+
+  @Test
+  void testCompressesOnTheStoreExecutorThroughTheAsyncBridge() throws Exception {
+    ExecutorService executor = Executors.newSingleThreadExecutor();
+    try {
+      InMemoryBlobStore.Builder builder = new InMemoryBlobStore.Builder();
+      builder.withBucket("bucket-1").withRegion("local").withExecutorService(executor);
+      BlobStoreAsyncBridge bridge = new BlobStoreAsyncBridge(builder.build(), executor);
+
+      bridge
+          .upload(request("logs.json", CompressionCodec.GZIP), content)
+          .get(10, TimeUnit.SECONDS);
+
+      assertArrayEquals(
+          content,
+          download(DownloadRequest.builder().withKey("logs.json").withDecompress(true).build()));
+    } finally {
+      executor.shutdownNow();
+    }
+  }
+
+  @Test
+  void testEmptyContent() {
+    store.upload(request("empty.json", CompressionCodec.GZIP), new byte[0]);
+
+    assertEquals(0,
+        download(DownloadRequest.builder().withKey("empty.json").withDecompress(true).build())
+            .length);
+  }
+
+  @Test
+  void testCompressionRejectsChecksumValue() {
+    UploadRequest request = request("logs.json", CompressionCodec.GZIP).toBuilder()
+        .withChecksumValue("AAAAAA==")
+        .build();
+    assertThrows(IllegalArgumentException.class, () -> store.upload(request, content));
+  }
+}
@@ -0,0 +1,142 @@
+package com.salesforce.multicloudj.blob.inmemory;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import com.salesforce.multicloudj.blob.async.driver.BlobStoreAsyncBridge;
+import com.salesforce.multicloudj.blob.driver.BlobMetadata;
+import com.salesforce.multicloudj.blob.driver.BlobPreconditions;
+import com.salesforce.multicloudj.blob.driver.ByteArray;
+import com.salesforce.multicloudj.blob.driver.DownloadRequest;
+import com.salesforce.multicloudj.blob.driver.DownloadResponse;
+import com.salesforce.multicloudj.blob.driver.UploadRequest;
+import com.salesforce.multicloudj.blob.driver.UploadResponse;
+import com.salesforce.multicloudj.common.exceptions.ResourceConflictException;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.temporal.ChronoUnit;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+/** Tests conditional downloads and metadata lookups against the in-memory store. */
+class InMemoryBlobStoreConditionalTest {
+
+  private static final byte[] CONTENT = "cached content".getBytes(StandardCharsets.UTF_8);
+
+  private InMemoryBlobStore store;
+  private String eTag;
+
+  @BeforeEach
+  void setUp() {
+    store = new InMemoryBlobStore.Builder().withBucket("bucket-1").withRegion("local").build();
+    InMemoryBlobStore.createBucket("bucket-1");
+    UploadResponse upload = store.upload(UploadRequest.builder().withKey("doc").build(), CONTENT);
+    eTag = upload.getETag();
+  }
+
+  private static DownloadRequest conditional(BlobPreconditions preconditions) {
+    return DownloadRequest.builder().withKey("doc").withPreconditions(preconditions).build();
+  }
+
+  @Test
+  void testMatchingETagSkipsContent() {
+    ByteArray byteArray = new ByteArray();
+    DownloadResponse response =
+        store.download(
+            conditional(BlobPreconditions.builder().withIfNoneMatch(eTag).build()), byteArray);
+
+    assertTrue(response.isNotModified());
+    assertEquals(eTag, response.getMetadata().getETag());
+    assertNull(byteArray.getBytes());
+  }
+
+  @Test
+  void testChangedETagDownloadsContent() {
+    ByteArray byteArray = new ByteArray();
+    DownloadResponse response =
+        store.download(
+            conditional(BlobPreconditions.builder().withIfNoneMatch("stale").build()), byteArray);
+
+    assertFalse(response.isNotModified());
+    assertArrayEquals(CONTENT, byteArray.getBytes());
+  }
+
+  @Test
+  void testIfMatch() {
+    ByteArray byteArray = new ByteArray();
+    store.download(conditional(BlobPreconditions.builder().withIfMatch(eTag).build()), byteArray);
+    assertArrayEquals(CONTENT, byteArray.getBytes());
+
+    assertThrows(
+        ResourceConflictException.class,
+        () ->
+            store.download(
+                conditional(BlobPreconditions.builder().withIfMatch("stale").build()),
+                new ByteArray()));
+  }
+
+  @Test
+  void testIfModifiedSince() throws IOException {
+    BlobMetadata metadata = store.getMetadata("doc", null);
+    DownloadResponse unchanged =
+        store.download(
+            conditional(
+                BlobPreconditions.builder()
+                    .withIfModifiedSince(metadata.getLastModified().plusSeconds(1))
+                    .build()));
+    assertTrue(unchanged.isNotModified());
+    assertNull(unchanged.getInputStream());
+
+    DownloadResponse changed =
+        store.download(
+            conditional(
+                BlobPreconditions.builder()
+                    .withIfModifiedSince(
+                        metadata.getLastModified().truncatedTo(ChronoUnit.SECONDS).minusSeconds(1))
+                    .build()));
+    assertFalse(changed.isNotModified());
+    assertArrayEquals(CONTENT, changed.getInputStream().readAllBytes());
+  }
+
+  @Test
+  void testNotModifiedLeavesDestinationFileUntouched(@TempDir Path dir) {
+    Path destination = dir.resolve("doc");
+    DownloadResponse response =
+        store.download(
+            conditional(BlobPreconditions.builder().withIfNoneMatch(eTag).build()), destination);
+
+    assertTrue(response.isNotModified());
+    assertFalse(Files.exists(destination));
+  }
+
+  @Test
+  void testConditionalGetMetadata() {
+    BlobMetadata unchanged =
+        store.getMetadata("doc", null, BlobPreconditions.builder().withIfNoneMatch(eTag).build());
+    BlobMetadata changed =
+        store.getMetadata(
+            "doc", null, BlobPreconditions.builder().withIfNoneMatch("stale").build());
+
+    assertTrue(unchanged.isNotModified());
+    assertEquals(CONTENT.length, unchanged.getObjectSize());
+    assertFalse(changed.isNotModified());
+    assertFalse(store.getMetadata("doc", null, null).isNotModified());
+  }
+
+  @Test
+  void testConditionalGetMetadataThroughAsyncBridge() {
+    BlobStoreAsyncBridge bridge = new BlobStoreAsyncBridge(store, null);
+    BlobMetadata metadata =
+        bridge
+            .getMetadata("doc", null, BlobPreconditions.builder().withIfNoneMatch(eTag).build())
+            .join();
+    assertTrue(metadata.isNotModified());
+  }
+}
@@ -0,0 +1,87 @@
+package com.salesforce.multicloudj.blob.inmemory;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import com.salesforce.multicloudj.blob.async.driver.BlobStoreAsyncBridge;
+import com.salesforce.multicloudj.blob.driver.DirectoryDeleteRequest;
+import com.salesforce.multicloudj.blob.driver.ListBlobsRequest;
+import com.salesforce.multicloudj.blob.driver.UploadRequest;
+import java.util.concurrent.atomic.AtomicLong;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+/** Tests the pipelined directory delete against the in-memory store. */
+class InMemoryBlobStoreDirectoryDeleteTest {
+
+  private InMemoryBlobStore store;
+
+  @BeforeEach
+  void setUp() {
+    store =
+        new InMemoryBlobStore.Builder().withBucket("delete-bucket").withRegion("local").build();
+    InMemoryBlobStore.createBucket("delete-bucket");
+  }
+
+  private String put(String key) {
+    return store
+        .upload(UploadRequest.builder().withKey(key).build(), new byte[] {1})
+        .getVersionId();
+  }
+
+  private long count(String prefix) {
+    long count = 0;
+    var it = store.list(ListBlobsRequest.builder().withPrefix(prefix).build());
+    while (it.hasNext()) {
+      it.next();
+      count++;
+    }
+    return count;
+  }
+
+  @Test
+  void testDeletesPrefixInBatchesAndReportsProgress() {
+    for (int i = 0; i < 2500; i++) {
+      put(String.format("tenant/%05d", i));
+    }
+    put("other/keep");
+    AtomicLong progress = new AtomicLong();
+
+    store.deleteDirectory(
+        DirectoryDeleteRequest.builder().prefix("tenant/").progressListener(progress::set).build());
+
+    assertEquals(0, count("tenant/"));
+    assertEquals(1, count("other/"));
+    assertEquals(2500, progress.get());
+  }
+
+  @Test
+  void testDeleteDirectoryByPrefixThroughAsyncBridge() {
+    put("async/a");
+    put("async/b");
+    put("asynchronous");
+
+    new BlobStoreAsyncBridge(store, null).deleteDirectory("async/").join();
+
+    assertEquals(0, count("async/"));
+    assertTrue(store.doesObjectExist("asynchronous", null));
+  }
+
+  @Test
+  void testIncludeVersionsDeletesVersionsOfDeletedKeys() {
+    String first = put("versioned/a");
+    String second = put("versioned/a");
+    String hidden = put("versioned/b");
+    store.delete("versioned/b", null);
+    String kept = put("other/keep");
+
+    store.deleteDirectory(
+        DirectoryDeleteRequest.builder().prefix("versioned/").includeVersions(true).build());
+
+    assertFalse(store.doesObjectExist("versioned/a", first));
+    assertFalse(store.doesObjectExist("versioned/a", second));
+    assertFalse(store.doesObjectExist("versioned/b", hidden));
+    assertTrue(store.doesObjectExist("other/keep", kept));
+  }
+}
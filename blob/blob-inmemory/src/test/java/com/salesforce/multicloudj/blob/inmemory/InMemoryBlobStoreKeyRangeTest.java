@@ -0,0 +1,125 @@
+package com.salesforce.multicloudj.blob.inmemory;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import com.salesforce.multicloudj.blob.driver.BlobInfo;
+import com.salesforce.multicloudj.blob.driver.KeyRange;
+import com.salesforce.multicloudj.blob.driver.ListBlobsPageRequest;
+import com.salesforce.multicloudj.blob.driver.ListBlobsPageResponse;
+import com.salesforce.multicloudj.blob.driver.UploadRequest;
+import com.salesforce.multicloudj.common.exceptions.InvalidArgumentException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.stream.Collectors;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+/** Tests key-bounded listing and key-range splitting against the in-memory store. */
+class InMemoryBlobStoreKeyRangeTest {
+
+  private static final String BUCKET = "key-range-bucket";
+  private static final int KEYS = 3000;
+
+  private InMemoryBlobStore store;
+
+  @BeforeAll
+  static void createBucket() {
+    InMemoryBlobStore.createBucket(BUCKET);
+    InMemoryBlobStore store =
+        new InMemoryBlobStore.Builder().withBucket(BUCKET).withRegion("local").build();
+    for (int i = 0; i < KEYS; i++) {
+      store.upload(
+          UploadRequest.builder().withKey(String.format("scan/%05d", i)).build(), new byte[] {1});
+    }
+    store.upload(UploadRequest.builder().withKey("scan-other").build(), new byte[] {1});
+  }
+
+  @BeforeEach
+  void setUp() {
+    store = new InMemoryBlobStore.Builder().withBucket(BUCKET).withRegion("local").build();
+  }
+
+  private List<String> listAll(ListBlobsPageRequest.Builder builder) {
+    List<String> keys = new ArrayList<>();
+    String token = null;
+    do {
+      ListBlobsPageResponse page = store.listPage(builder.withPaginationToken(token).build());
+      page.getBlobs().stream().map(BlobInfo::getKey).forEach(keys::add);
+      token = page.getNextPageToken();
+    } while (token != null);
+    return keys;
+  }
+
+  @Test
+  void testListsOnlyKeysBetweenBounds() {
+    ListBlobsPageResponse page =
+        store.listPage(
+            ListBlobsPageRequest.builder()
+                .withPrefix("scan/")
+                .withStartAfter("scan/00010")
+                .withEndBefore("scan/00013")
+                .build());
+
+    assertEquals(
+        List.of("scan/00011", "scan/00012"),
+        page.getBlobs().stream().map(BlobInfo::getKey).collect(Collectors.toList()));
+    assertFalse(page.isTruncated());
+  }
+
+  @Test
+  void testRejectsEmptyRange() {
+    assertThrows(
+        InvalidArgumentException.class,
+        () ->
+            store.listPage(
+                ListBlobsPageRequest.builder().withKeyRange(KeyRange.of("b", "a")).build()));
+  }
+
+  @Test
+  void testSplitRangesListEveryKeyOnce() {
+    List<KeyRange> ranges = store.splitKeyRange("scan/", 4);
+
+    assertEquals(4, ranges.size());
+    List<String> keys = new ArrayList<>();
+    for (KeyRange range : ranges) {
+      List<String> part =
+          listAll(
+              ListBlobsPageRequest.builder()
+                  .withPrefix("scan/")
+                  .withMaxResults(400)
+                  .withKeyRange(range));
+      assertTrue(Math.abs(part.size() - KEYS / 4) < KEYS / 40, range + " holds " + part.size());
+      keys.addAll(part);
+    }
+    assertEquals(
+        listAll(ListBlobsPageRequest.builder().withPrefix("scan/").withMaxResults(1000)), keys);
+  }
+
+  @Test
+  void testListsAndBoundsInUtf8Order() {
+    // U+E000 sorts before U+1F600 in UTF-8, though its UTF-16 code unit is the greater.
+    String privateUse = "utf8/\uE000"; // U+E000
+    String emoji = "utf8/\uD83D\uDE00"; // U+1F600
+    for (String key : List.of(emoji, privateUse)) {
+      store.upload(UploadRequest.builder().withKey(key).build(), new byte[] {1});
+    }
+
+    assertEquals(
+        List.of(privateUse, emoji),
+        listAll(ListBlobsPageRequest.builder().withPrefix("utf8/").withMaxResults(1)));
+    assertEquals(
+        List.of(emoji),
+        listAll(ListBlobsPageRequest.builder().withPrefix("utf8/").withStartAfter(privateUse)));
+    assertEquals(
+        List.of(privateUse),
+        listAll(
+            ListBlobsPageRequest.builder()
+                .withPrefix("utf8/")
+                .withKeyRange(KeyRange.of("utf8/", emoji))));
+    assertTrue(KeyRange.of(privateUse, null).contains(emoji));
+  }
+}
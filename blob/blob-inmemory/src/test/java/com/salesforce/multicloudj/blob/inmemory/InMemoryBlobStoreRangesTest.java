@@ -0,0 +1,106 @@
+package com.salesforce.multicloudj.blob.inmemory;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import com.salesforce.multicloudj.blob.async.driver.BlobStoreAsyncBridge;
+import com.salesforce.multicloudj.blob.driver.ByteRange;
+import com.salesforce.multicloudj.blob.driver.MultiRangeDownloadRequest;
+import com.salesforce.multicloudj.blob.driver.MultiRangeDownloadResponse;
+import com.salesforce.multicloudj.blob.driver.UploadRequest;
+import java.nio.ByteBuffer;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.CompletionException;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+/** Tests {@code downloadRanges} against the in-memory store, directly and through the bridge. */
+class InMemoryBlobStoreRangesTest {
+
+  private InMemoryBlobStore store;
+  private byte[] content;
+  private MultiRangeDownloadRequest request;
+
+  @BeforeEach
+  void setUp() {
+    store = new InMemoryBlobStore.Builder().withBucket("bucket-1").withRegion("local").build();
+    InMemoryBlobStore.createBucket("bucket-1");
+    content = new byte[100_000];
+    for (int i = 0; i < content.length; i++) {
+      content[i] = (byte) (i * 31);
+    }
+    store.upload(UploadRequest.builder().withKey("index.bin").build(), content);
+
+    List<ByteRange> ranges = new ArrayList<>();
+    for (int i = 0; i < 50; i++) {
+      long start = (i * 7919L) % (content.length - 64);
+      ranges.add(ByteRange.of(start, start + 63));
+    }
+    request =
+        MultiRangeDownloadRequest.builder()
+            .withKey("index.bin")
+            .withRanges(ranges)
+            .withMaxGapInBytes(4096)
+            .build();
+  }
+
+  private void assertSlices(MultiRangeDownloadResponse response) {
+    assertEquals(request.getRanges().size(), response.getBuffers().size());
+    response.forEach(
+        (range, buffer) -> {
+          byte[] bytes = new byte[buffer.remaining()];
+          buffer.get(bytes);
+          assertArrayEquals(
+              Arrays.copyOfRange(content, (int) range.getStart(), (int) range.getEnd() + 1),
+              bytes);
+        });
+  }
+
+  @Test
+  void testDownloadRangesCoalescesAndSlices() {
+    MultiRangeDownloadResponse response = store.downloadRanges(request);
+    assertSlices(response);
+    assertTrue(response.getRequestCount() < request.getRanges().size());
+  }
+
+  @Test
+  void testDownloadRangesThroughAsyncBridge() {
+    BlobStoreAsyncBridge bridge = new BlobStoreAsyncBridge(store, null);
+    assertSlices(bridge.downloadRanges(request).join());
+  }
+
+  @Test
+  void testRangePastEndIsTruncated() {
+    MultiRangeDownloadResponse response =
+        store.downloadRanges(
+            MultiRangeDownloadRequest.builder()
+                .withKey("index.bin")
+                .withRanges(List.of(ByteRange.of(content.length - 10, content.length + 10)))
+                .build());
+    ByteBuffer buffer = response.getBuffers().get(0);
+    assertEquals(10, buffer.remaining());
+  }
+
+  @Test
+  void testInvalidRequestsAreRejected() {
+    MultiRangeDownloadRequest empty =
+        MultiRangeDownloadRequest.builder().withKey("index.bin").withRanges(List.of()).build();
+    assertThrows(IllegalArgumentException.class, () -> store.downloadRanges(empty));
+
+    BlobStoreAsyncBridge bridge = new BlobStoreAsyncBridge(store, null);
+    CompletionException e =
+        assertThrows(CompletionException.class, () -> bridge.downloadRanges(empty).join());
+    assertEquals(IllegalArgumentException.class, e.getCause().getClass());
+
+    MultiRangeDownloadRequest inverted =
+        MultiRangeDownloadRequest.builder()
+            .withKey("index.bin")
+            .withRanges(List.of(ByteRange.of(10, 5)))
+            .build();
+    assertThrows(IllegalArgumentException.class, () -> store.downloadRanges(inverted));
+  }
+}
@@ -0,0 +1,66 @@
+package com.salesforce.multicloudj.blob.inmemory;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import com.salesforce.multicloudj.blob.driver.DirectorySyncResponse;
+import com.salesforce.multicloudj.blob.driver.SyncDirection;
+import com.salesforce.multicloudj.blob.driver.SyncOptions;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.attribute.FileTime;
+import java.time.Instant;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+/** Tests directory sync in both directions against the in-memory store. */
+class InMemoryBlobStoreSyncTest {
+
+  private static final String BUCKET = "sync-bucket";
+  private static final SyncOptions UPLOAD =
+      SyncOptions.builder().direction(SyncDirection.UPLOAD).build();
+  private static final SyncOptions DOWNLOAD =
+      SyncOptions.builder().direction(SyncDirection.DOWNLOAD).deleteExtraneous(true).build();
+
+  @TempDir Path source;
+  @TempDir Path copy;
+
+  @BeforeAll
+  static void createBucket() {
+    InMemoryBlobStore.createBucket(BUCKET);
+  }
+
+  private static InMemoryBlobStore store() {
+    return new InMemoryBlobStore.Builder().withBucket(BUCKET).withRegion("local").build();
+  }
+
+  @Test
+  void testRoundTripTransfersOnlyChanges() throws IOException {
+    Instant old = Instant.now().minusSeconds(3600);
+    for (int i = 0; i < 50; i++) {
+      Path file = source.resolve(String.format("model/layer%02d/weights.bin", i));
+      Files.createDirectories(file.getParent());
+      Files.write(file, new byte[] {(byte) i, 1, 2});
+      Files.setLastModifiedTime(file, FileTime.from(old));
+    }
+    Files.writeString(copy.resolve("leftover.txt"), "stale");
+
+    assertEquals(50, store().syncDirectory(source, "artifacts", UPLOAD).getTransferredCount());
+    assertEquals(50, store().syncDirectory(copy, "artifacts", DOWNLOAD).getTransferredCount());
+    assertFalse(Files.exists(copy.resolve("leftover.txt")));
+
+    Files.writeString(source.resolve("model/layer07/weights.bin"), "retrained");
+    DirectorySyncResponse upload = store().syncDirectory(source, "artifacts", UPLOAD);
+    DirectorySyncResponse download = store().syncDirectory(copy, "artifacts", DOWNLOAD);
+
+    assertEquals(1, upload.getTransferredCount());
+    assertEquals(49, upload.getUnchangedCount());
+    assertEquals(1, download.getTransferredCount());
+    assertEquals(49, download.getUnchangedCount());
+    assertEquals("retrained", Files.readString(copy.resolve("model/layer07/weights.bin")));
+    assertTrue(download.getFailedTransfers().isEmpty());
+  }
+}
@@ -0,0 +1,87 @@
+package com.salesforce.multicloudj.blob.inmemory;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+import com.salesforce.multicloudj.blob.driver.PrefixUsage;
+import com.salesforce.multicloudj.blob.driver.PrefixUsageRequest;
+import com.salesforce.multicloudj.blob.driver.UploadRequest;
+import com.salesforce.multicloudj.common.exceptions.InvalidArgumentException;
+import java.util.List;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+
+/** Tests prefix usage aggregation against the in-memory store. */
+class InMemoryBlobStoreUsageTest {
+
+  private static final String BUCKET = "usage-bucket";
+
+  private static InMemoryBlobStore store;
+
+  @BeforeAll
+  static void createBucket() {
+    InMemoryBlobStore.createBucket(BUCKET);
+    store = new InMemoryBlobStore.Builder().withBucket(BUCKET).withRegion("local").build();
+    for (int tenant = 0; tenant < 3; tenant++) {
+      for (int i = 0; i <= tenant * 1000; i++) {
+        store.upload(
+            UploadRequest.builder().withKey(String.format("tenants/t%d/%04d", tenant, i)).build(),
+            new byte[tenant + 1]);
+      }
+    }
+    store.upload(UploadRequest.builder().withKey("tenants/index").build(), new byte[7]);
+  }
+
+  @Test
+  void testTotalsPerTenant() {
+    assertEquals(
+        List.of(
+            new PrefixUsage("tenants/", 3004, 8013, 0, 0),
+            new PrefixUsage("tenants/t0/", 1, 1, 0, 0),
+            new PrefixUsage("tenants/t1/", 1001, 2002, 0, 0),
+            new PrefixUsage("tenants/t2/", 2001, 6003, 0, 0)),
+        store.computeUsage("tenants/", 1));
+  }
+
+  @Test
+  void testTotalsWholeBucket() {
+    assertEquals(List.of(new PrefixUsage("", 3004, 8013, 0, 0)), store.computeUsage(null, 0));
+  }
+
+  @Test
+  void testTotalsOfAPrefixDoNotDependOnDepth() {
+    assertEquals(
+        List.of(new PrefixUsage("tenants/", 3004, 8013, 0, 0)),
+        store.computeUsage("tenants/", 0));
+    // The bucket holds no objects directly but is reported with everything nested below it.
+    assertEquals(
+        List.of(
+            new PrefixUsage("", 3004, 8013, 0, 0),
+            new PrefixUsage("tenants/", 3004, 8013, 0, 0)),
+        store.computeUsage(null, 1));
+  }
+
+  @Test
+  void testCountsNoncurrentVersionsOfDeletedKeys() {
+    InMemoryBlobStore.createBucket("usage-versions-bucket");
+    InMemoryBlobStore versioned =
+        new InMemoryBlobStore.Builder()
+            .withBucket("usage-versions-bucket")
+            .withRegion("local")
+            .build();
+    versioned.upload(UploadRequest.builder().withKey("logs/a").build(), new byte[3]);
+    versioned.upload(UploadRequest.builder().withKey("logs/a").build(), new byte[5]);
+    versioned.upload(UploadRequest.builder().withKey("logs/old/b").build(), new byte[4]);
+    versioned.delete("logs/old/b", null);
+
+    assertEquals(
+        List.of(new PrefixUsage("logs/", 1, 5, 2, 7), new PrefixUsage("logs/old/", 0, 0, 1, 4)),
+        versioned.computeUsage(
+            PrefixUsageRequest.builder().prefix("logs/").depth(1).includeVersions(true).build()));
+  }
+
+  @Test
+  void testRejectsNegativeDepth() {
+    assertThrows(InvalidArgumentException.class, () -> store.computeUsage("tenants/", -1));
+  }
+}
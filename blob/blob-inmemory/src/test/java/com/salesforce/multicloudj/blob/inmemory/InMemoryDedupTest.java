@@ -0,0 +1,142 @@
+package com.salesforce.multicloudj.blob.inmemory;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import com.salesforce.multicloudj.blob.client.BucketClient;
+import com.salesforce.multicloudj.blob.client.DedupBucketClient;
+import com.salesforce.multicloudj.blob.driver.DedupOptions;
+import com.salesforce.multicloudj.blob.driver.DedupUploadResponse;
+import com.salesforce.multicloudj.blob.driver.DownloadRequest;
+import com.salesforce.multicloudj.blob.driver.DownloadResponse;
+import com.salesforce.multicloudj.blob.driver.ListBlobsRequest;
+import com.salesforce.multicloudj.blob.driver.UploadRequest;
+import java.io.ByteArrayOutputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+import java.util.Random;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+
+/** Tests deduplicated uploads and their reassembly against the in-memory store. */
+class InMemoryDedupTest {
+
+  private static final String BUCKET = "dedup-bucket";
+
+  private final BucketClient bucket =
+      BucketClient.builder("memory").withBucket(BUCKET).withRegion("local").build();
+
+  @BeforeAll
+  static void createBucket() {
+    InMemoryBlobStore.createBucket(BUCKET);
+  }
+
+  private static DedupOptions options(String chunkPrefix) {
+    return DedupOptions.builder()
+        .minChunkSize(2048)
+        .averageChunkSize(8192)
+        .maxChunkSize(32768)
+        .chunkPrefix(chunkPrefix)
+        .maxConcurrency(4)
+        .expectedChunks(10_000)
+        .build();
+  }
+
+  private static byte[] random(int length, long seed) {
+    byte[] bytes = new byte[length];
+    new Random(seed).nextBytes(bytes);
+    return bytes;
+  }
+
+  private static UploadRequest request(String key) {
+    return UploadRequest.builder().withKey(key).build();
+  }
+
+  private static byte[] download(DedupBucketClient client, String key, Long start, Long end) {
+    ByteArrayOutputStream out = new ByteArrayOutputStream();
+    DownloadRequest.Builder request = DownloadRequest.builder().withKey(key);
+    if (start != null || end != null) {
+      request.withRange(start, end);
+    }
+    client.download(request.build(), out);
+    return out.toByteArray();
+  }
+
+  private static byte[] download(DedupBucketClient client, String key) {
+    return download(client, key, null, null);
+  }
+
+  @Test
+  void testSecondVersionUploadsOnlyChangedChunks() {
+    DedupBucketClient client = new DedupBucketClient(bucket, options("versions/"));
+    byte[] first = random(600_000, 1);
+    byte[] second = new byte[first.length + 3];
+    System.arraycopy(first, 0, second, 0, 300_000);
+    System.arraycopy(first, 300_000, second, 300_003, 300_000);
+
+    DedupUploadResponse v1 = client.upload(request("images/v1.img"), first);
+    DedupUploadResponse v2 = client.upload(request("images/v2.img"), second);
+
+    assertEquals(first.length, v1.getContentLength());
+    assertEquals(v1.getChunkCount(), v1.getUploadedChunkCount());
+    assertEquals(first.length, v1.getUploadedBytes());
+    assertTrue(v2.getUploadedChunkCount() <= 3, v2.getUploadedChunkCount() + " chunks uploaded");
+    assertTrue(v2.getUploadedBytes() < second.length / 10);
+    assertTrue(bucket.getMetadata("images/v2.img", null).getObjectSize() < 5000);
+
+    ByteArrayOutputStream out = new ByteArrayOutputStream();
+    DownloadResponse response =
+        client.download(DownloadRequest.builder().withKey("images/v1.img").build(), out);
+    assertEquals(first.length, response.getMetadata().getObjectSize());
+    assertArrayEquals(first, out.toByteArray());
+    assertArrayEquals(second, download(client, "images/v2.img"));
+  }
+
+  @Test
+  void testRangedReadsFetchOverlappingChunks() {
+    DedupBucketClient client = new DedupBucketClient(bucket, options("ranges/"));
+    byte[] content = random(200_000, 2);
+    client.upload(request("ranged.bin"), content);
+
+    long[][] ranges = {{0, 0}, {5000, 70_000}, {199_990, 250_000}};
+    for (long[] range : ranges) {
+      int end = (int) Math.min(range[1] + 1, content.length);
+      assertArrayEquals(
+          Arrays.copyOfRange(content, (int) range[0], end),
+          download(client, "ranged.bin", range[0], range[1]));
+    }
+    assertArrayEquals(
+        Arrays.copyOfRange(content, content.length - 10, content.length),
+        download(client, "ranged.bin", null, 10L));
+  }
+
+  @Test
+  void testNewClientFindsStoredChunksAndPassesThroughPlainObjects() {
+    byte[] content = random(100_000, 3);
+    new DedupBucketClient(bucket, options("shared/")).upload(request("shared/a.bin"), content);
+    bucket.upload(request("plain.txt"), "plain".getBytes(StandardCharsets.UTF_8));
+
+    DedupBucketClient fresh = new DedupBucketClient(bucket, options("shared/"));
+    DedupUploadResponse copy = fresh.upload(request("shared/b.bin"), content);
+
+    assertEquals(0, copy.getUploadedChunkCount());
+    assertArrayEquals(content, download(fresh, "shared/b.bin"));
+    assertEquals("plain", new String(download(fresh, "plain.txt"), StandardCharsets.UTF_8));
+    assertEquals("lai", new String(download(fresh, "plain.txt", 1L, 3L), StandardCharsets.UTF_8));
+    assertFalse(DedupBucketClient.isManifest(bucket.getMetadata("plain.txt", null)));
+  }
+
+  @Test
+  void testCorruptChunkFailsDownload() {
+    DedupBucketClient client = new DedupBucketClient(bucket, options("corrupt/"));
+    client.upload(request("corrupt.bin"), random(50_000, 4));
+    String chunkKey =
+        bucket.list(ListBlobsRequest.builder().withPrefix("corrupt/").build()).next().getKey();
+    bucket.upload(request(chunkKey), new byte[] {1, 2, 3});
+
+    assertThrows(IllegalStateException.class, () -> download(client, "corrupt.bin"));
+  }
+}
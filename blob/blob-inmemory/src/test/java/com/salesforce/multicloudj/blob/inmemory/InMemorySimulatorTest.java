@@ -0,0 +1,163 @@
+package com.salesforce.multicloudj.blob.inmemory;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import com.salesforce.multicloudj.blob.driver.BlobSpanNames;
+import com.salesforce.multicloudj.blob.driver.ByteArray;
+import com.salesforce.multicloudj.blob.driver.DownloadRequest;
+import com.salesforce.multicloudj.blob.driver.UploadRequest;
+import com.salesforce.multicloudj.common.exceptions.ResourceExhaustedException;
+import com.salesforce.multicloudj.common.exceptions.UnknownException;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.TreeMap;
+import java.util.concurrent.TimeUnit;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+
+class InMemorySimulatorTest {
+
+  private long now;
+  private final List<Long> sleeps = new ArrayList<>();
+
+  private InMemorySimulator simulator(InMemorySimulation simulation) {
+    return new InMemorySimulator(simulation, () -> now, sleeps::add);
+  }
+
+  @AfterEach
+  void tearDown() {
+    InMemoryBlobStore.clearStorage();
+  }
+
+  @Test
+  void testPerOperationLatency() {
+    InMemorySimulator simulator =
+        simulator(
+            InMemorySimulation.builder()
+                .defaultLatency(LatencyDistribution.fixed(Duration.ofMillis(5)))
+                .operationLatencies(
+                    Map.of(BlobSpanNames.UPLOAD, LatencyDistribution.fixed(Duration.ofMillis(40))))
+                .build());
+
+    simulator.beforeRequest(BlobSpanNames.DOWNLOAD);
+    simulator.beforeRequest(BlobSpanNames.UPLOAD);
+
+    assertEquals(List.of(TimeUnit.MILLISECONDS.toNanos(5), TimeUnit.MILLISECONDS.toNanos(40)),
+        sleeps);
+  }
+
+  @Test
+  void testSeededSamplingIsReproducible() {
+    InMemorySimulation simulation =
+        InMemorySimulation.builder()
+            .seed(42)
+            .defaultLatency(
+                LatencyDistribution.normal(Duration.ofMillis(20), Duration.ofMillis(5)))
+            .transientFailureRate(0.3)
+            .build();
+
+    List<String> first = run(simulator(simulation));
+    List<Long> firstSleeps = new ArrayList<>(sleeps);
+    sleeps.clear();
+    List<String> second = run(simulator(simulation));
+
+    assertEquals(first, second);
+    assertEquals(firstSleeps, sleeps);
+    assertTrue(first.contains("fail") && first.contains("ok"));
+  }
+
+  private static List<String> run(InMemorySimulator simulator) {
+    List<String> outcomes = new ArrayList<>();
+    for (int i = 0; i < 50; i++) {
+      try {
+        simulator.beforeRequest(BlobSpanNames.GET_METADATA);
+        outcomes.add("ok");
+      } catch (UnknownException e) {
+        outcomes.add("fail");
+      }
+    }
+    return outcomes;
+  }
+
+  @Test
+  void testHistogramSamplesStayWithinObservedBuckets() {
+    TreeMap<Duration, Long> histogram = new TreeMap<>();
+    histogram.put(Duration.ofMillis(10), 90L);
+    histogram.put(Duration.ofMillis(50), 0L);
+    histogram.put(Duration.ofMillis(200), 10L);
+    LatencyDistribution distribution = LatencyDistribution.histogram(histogram);
+
+    Random random = new Random(7);
+    int slow = 0;
+    for (int i = 0; i < 10_000; i++) {
+      long millis = distribution.sample(random).toMillis();
+      assertTrue(millis < 10 || (millis >= 50 && millis < 200), "sampled " + millis);
+      if (millis >= 50) {
+        slow++;
+      }
+    }
+    assertTrue(slow > 800 && slow < 1200, "slow samples: " + slow);
+  }
+
+  @Test
+  void testRateLimitRejectsWithResourceExhaustedAndRefills() {
+    InMemorySimulator simulator =
+        simulator(InMemorySimulation.builder().requestsPerSecond(10).burstRequests(2).build());
+
+    simulator.beforeRequest(BlobSpanNames.LIST);
+    simulator.beforeRequest(BlobSpanNames.LIST);
+    assertThrows(ResourceExhaustedException.class,
+        () -> simulator.beforeRequest(BlobSpanNames.LIST));
+
+    now += TimeUnit.MILLISECONDS.toNanos(100);
+    simulator.beforeRequest(BlobSpanNames.LIST);
+    assertThrows(ResourceExhaustedException.class,
+        () -> simulator.beforeRequest(BlobSpanNames.LIST));
+  }
+
+  @Test
+  void testBandwidthCapDelaysTransfers() {
+    InMemorySimulator simulator =
+        simulator(InMemorySimulation.builder().bandwidthBytesPerSecond(1_000_000).build());
+
+    simulator.transfer(250_000);
+
+    assertEquals(List.of(TimeUnit.MILLISECONDS.toNanos(250)), sleeps);
+  }
+
+  @Test
+  void testInvalidSimulationIsRejected() {
+    assertThrows(IllegalArgumentException.class,
+        () -> simulator(InMemorySimulation.builder().transientFailureRate(1.5).build()));
+    assertThrows(IllegalArgumentException.class,
+        () -> simulator(InMemorySimulation.builder().requestsPerSecond(-1).build()));
+    assertThrows(IllegalArgumentException.class,
+        () -> LatencyDistribution.histogram(new TreeMap<>()));
+  }
+
+  @Test
+  void testStoreAppliesBucketSimulation() {
+    InMemoryBlobStore.createBucket("simulated-bucket");
+    InMemoryBlobStore store =
+        new InMemoryBlobStore.Builder()
+            .withBucket("simulated-bucket")
+            .withRegion("local")
+            .build();
+    store.upload(UploadRequest.builder().withKey("k").build(), new byte[] {1, 2, 3});
+
+    InMemoryBlobStore.configureSimulation(
+        "simulated-bucket", InMemorySimulation.builder().transientFailureRate(1).build());
+    DownloadRequest request = DownloadRequest.builder().withKey("k").build();
+    assertThrows(UnknownException.class, () -> store.download(request, new ByteArray()));
+
+    InMemoryBlobStore.configureSimulation("simulated-bucket", null);
+    ByteArray bytes = new ByteArray();
+    store.download(request, bytes);
+    assertEquals(3, bytes.getBytes().length);
+  }
+}
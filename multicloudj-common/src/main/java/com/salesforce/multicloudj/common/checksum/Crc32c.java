@@ -0,0 +1,73 @@
+package com.salesforce.multicloudj.common.checksum;
+
+import java.nio.ByteBuffer;
+import java.util.zip.CRC32C;
+import java.util.zip.Checksum;
+
+/**
+ * Streaming CRC-32C backed by {@link CRC32C}, which the JVM accelerates with the CPU's CRC32
+ * instructions, with {@link #combine} for merging the values of parts computed in parallel.
+ *
+ * <p>Instances are not thread-safe.
+ */
+public final class Crc32c implements Checksum {
+
+  private static final long POLYNOMIAL = 0x82F63B78L;
+
+  private final CRC32C crc = new CRC32C();
+
+  /** Returns the CRC-32C of {@code data}. */
+  public static long compute(byte[] data) {
+    CRC32C crc = new CRC32C();
+    crc.update(data, 0, data.length);
+    return crc.getValue();
+  }
+
+  /**
+   * Returns the CRC of two adjacent pieces of content from the CRC of each.
+   *
+   * @param crc1 the value of the first piece
+   * @param crc2 the value of the second piece
+   * @param length2 the length in bytes of the second piece
+   */
+  public static long combine(long crc1, long crc2, long length2) {
+    return CrcCombine.combine(32, POLYNOMIAL, crc1, crc2, length2);
+  }
+
+  /** Returns {@code value} as four big-endian bytes, the form providers encode in base64. */
+  public static byte[] toBytes(long value) {
+    return new byte[] {(byte) (value >>> 24), (byte) (value >>> 16), (byte) (value >>> 8),
+        (byte) value};
+  }
+
+  @Override
+  public void update(int b) {
+    crc.update(b);
+  }
+
+  @Override
+  public void update(byte[] b, int off, int len) {
+    crc.update(b, off, len);
+  }
+
+  /** Consumes the remaining bytes of {@code buffer}, heap or direct, and advances its position. */
+  @Override
+  public void update(ByteBuffer buffer) {
+    crc.update(buffer);
+  }
+
+  @Override
+  public long getValue() {
+    return crc.getValue();
+  }
+
+  /** Returns the current value as four big-endian bytes. */
+  public byte[] digest() {
+    return toBytes(getValue());
+  }
+
+  @Override
+  public void reset() {
+    crc.reset();
+  }
+}
@@ -0,0 +1,187 @@
+package com.salesforce.multicloudj.common.checksum;
+
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.VarHandle;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.util.zip.Checksum;
+
+/**
+ * Streaming CRC-64 with slicing-by-8: eight bytes are folded into the register per step through
+ * eight lookup tables, instead of one byte per step through one table.
+ *
+ * <p>Both supported variants are reflected, start from all ones and are inverted at the end; they
+ * differ only in polynomial. {@link Variant#NVME} is the CRC-64/NVME that S3 reports as {@code
+ * CRC64NVME}; {@link Variant#XZ} is the CRC-64/XZ (ECMA-182, reflected) that OSS reports. Values
+ * of adjacent parts combine into the value of the whole with {@link #combine}.
+ *
+ * <p>Instances are not thread-safe.
+ */
+public final class Crc64 implements Checksum {
+
+  private static final VarHandle LONGS =
+      MethodHandles.byteArrayViewVarHandle(long[].class, ByteOrder.LITTLE_ENDIAN);
+
+  /** A CRC-64 polynomial and its lookup tables. */
+  public enum Variant {
+    /** CRC-64/NVME; check value of {@code "123456789"} is {@code 0xAE8B14860A799888}. */
+    NVME(0x9A6C9329AC4BC9B5L),
+    /** CRC-64/XZ; check value of {@code "123456789"} is {@code 0x995DC9BBDF1939FA}. */
+    XZ(0xC96C5795D7870F42L);
+
+    private final long polynomial;
+    private final long[][] tables = new long[8][256];
+
+    Variant(long polynomial) {
+      this.polynomial = polynomial;
+      for (int b = 0; b < 256; b++) {
+        long crc = b;
+        for (int i = 0; i < 8; i++) {
+          crc = (crc & 1) != 0 ? (crc >>> 1) ^ polynomial : crc >>> 1;
+        }
+        tables[0][b] = crc;
+      }
+      for (int t = 1; t < 8; t++) {
+        for (int b = 0; b < 256; b++) {
+          long previous = tables[t - 1][b];
+          tables[t][b] = (previous >>> 8) ^ tables[0][(int) (previous & 0xFF)];
+        }
+      }
+    }
+
+    /** Returns the reflected polynomial. */
+    public long getPolynomial() {
+      return polynomial;
+    }
+  }
+
+  private final Variant variant;
+  private final long[] t0;
+  private final long[] t1;
+  private final long[] t2;
+  private final long[] t3;
+  private final long[] t4;
+  private final long[] t5;
+  private final long[] t6;
+  private final long[] t7;
+  private long register = -1L;
+
+  public Crc64(Variant variant) {
+    this.variant = variant;
+    this.t0 = variant.tables[0];
+    this.t1 = variant.tables[1];
+    this.t2 = variant.tables[2];
+    this.t3 = variant.tables[3];
+    this.t4 = variant.tables[4];
+    this.t5 = variant.tables[5];
+    this.t6 = variant.tables[6];
+    this.t7 = variant.tables[7];
+  }
+
+  /** Returns a new CRC-64/NVME. */
+  public static Crc64 nvme() {
+    return new Crc64(Variant.NVME);
+  }
+
+  /** Returns the CRC-64 of {@code data} with the given variant. */
+  public static long compute(Variant variant, byte[] data) {
+    Crc64 crc = new Crc64(variant);
+    crc.update(data, 0, data.length);
+    return crc.getValue();
+  }
+
+  /**
+   * Returns the CRC of two adjacent pieces of content from the CRC of each.
+   *
+   * @param crc1 the value of the first piece
+   * @param crc2 the value of the second piece
+   * @param length2 the length in bytes of the second piece
+   */
+  public static long combine(Variant variant, long crc1, long crc2, long length2) {
+    return CrcCombine.combine(64, variant.polynomial, crc1, crc2, length2);
+  }
+
+  /** Returns {@code value} as eight big-endian bytes, the form providers encode in base64. */
+  public static byte[] toBytes(long value) {
+    byte[] bytes = new byte[8];
+    for (int i = 0; i < 8; i++) {
+      bytes[i] = (byte) (value >>> (56 - 8 * i));
+    }
+    return bytes;
+  }
+
+  public Variant getVariant() {
+    return variant;
+  }
+
+  @Override
+  public void update(int b) {
+    register = (register >>> 8) ^ t0[(int) ((register ^ b) & 0xFF)];
+  }
+
+  @Override
+  public void update(byte[] b, int off, int len) {
+    if (off < 0 || len < 0 || off > b.length - len) {
+      throw new ArrayIndexOutOfBoundsException();
+    }
+    long crc = register;
+    int end = off + len;
+    int i = off;
+    for (int limit = end - 7; i < limit; i += 8) {
+      crc = fold(crc ^ (long) LONGS.get(b, i));
+    }
+    for (; i < end; i++) {
+      crc = (crc >>> 8) ^ t0[(int) ((crc ^ b[i]) & 0xFF)];
+    }
+    register = crc;
+  }
+
+  /** Consumes the remaining bytes of {@code buffer}, heap or direct, and advances its position. */
+  @Override
+  public void update(ByteBuffer buffer) {
+    int position = buffer.position();
+    int limit = buffer.limit();
+    if (buffer.hasArray()) {
+      update(buffer.array(), buffer.arrayOffset() + position, limit - position);
+      buffer.position(limit);
+      return;
+    }
+    ByteBuffer le = buffer.duplicate().order(ByteOrder.LITTLE_ENDIAN);
+    long crc = register;
+    int i = position;
+    for (; i + 8 <= limit; i += 8) {
+      crc = fold(crc ^ le.getLong(i));
+    }
+    for (; i < limit; i++) {
+      crc = (crc >>> 8) ^ t0[(int) ((crc ^ buffer.get(i)) & 0xFF)];
+    }
+    register = crc;
+    buffer.position(limit);
+  }
+
+  @Override
+  public long getValue() {
+    return ~register;
+  }
+
+  /** Returns the current value as eight big-endian bytes. */
+  public byte[] digest() {
+    return toBytes(getValue());
+  }
+
+  @Override
+  public void reset() {
+    register = -1L;
+  }
+
+  private long fold(long x) {
+    return t7[(int) (x & 0xFF)]
+        ^ t6[(int) ((x >>> 8) & 0xFF)]
+        ^ t5[(int) ((x >>> 16) & 0xFF)]
+        ^ t4[(int) ((x >>> 24) & 0xFF)]
+        ^ t3[(int) ((x >>> 32) & 0xFF)]
+        ^ t2[(int) ((x >>> 40) & 0xFF)]
+        ^ t1[(int) ((x >>> 48) & 0xFF)]
+        ^ t0[(int) (x >>> 56)];
+  }
+}
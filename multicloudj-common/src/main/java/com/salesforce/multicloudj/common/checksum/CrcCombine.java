@@ -0,0 +1,73 @@
+package com.salesforce.multicloudj.common.checksum;
+
+/**
+ * Combines the CRCs of two adjacent pieces of content into the CRC of their concatenation, for
+ * reflected CRCs whose initial value equals their final XOR, with the zero-operator method of
+ * zlib's {@code crc32_combine} generalized to any width up to 64 bits. Takes O(log n) steps of
+ * {@code width x width} GF(2) matrix work, independent of the content.
+ */
+final class CrcCombine {
+
+  private CrcCombine() {}
+
+  /**
+   * @param width the CRC width in bits, at most 64
+   * @param polynomial the reflected polynomial
+   * @param crc1 the CRC of the first piece
+   * @param crc2 the CRC of the second piece
+   * @param length2 the length in bytes of the second piece
+   */
+  static long combine(int width, long polynomial, long crc1, long crc2, long length2) {
+    if (length2 < 0) {
+      throw new IllegalArgumentException("length2 must not be negative: " + length2);
+    }
+    if (length2 == 0) {
+      return crc1;
+    }
+    long[] even = new long[width];
+    long[] odd = new long[width];
+    // The operator for one zero bit.
+    odd[0] = polynomial;
+    long row = 1;
+    for (int n = 1; n < width; n++) {
+      odd[n] = row;
+      row <<= 1;
+    }
+    // Two, then four zero bits; the loop starts at one zero byte.
+    square(even, odd);
+    square(odd, even);
+    long length = length2;
+    do {
+      square(even, odd);
+      if ((length & 1) != 0) {
+        crc1 = times(even, crc1);
+      }
+      length >>>= 1;
+      if (length == 0) {
+        break;
+      }
+      square(odd, even);
+      if ((length & 1) != 0) {
+        crc1 = times(odd, crc1);
+      }
+      length >>>= 1;
+    } while (length != 0);
+    return crc1 ^ crc2;
+  }
+
+  private static long times(long[] matrix, long vector) {
+    long sum = 0;
+    for (int i = 0; vector != 0; i++, vector >>>= 1) {
+      if ((vector & 1) != 0) {
+        sum ^= matrix[i];
+      }
+    }
+    return sum;
+  }
+
+  private static void square(long[] square, long[] matrix) {
+    for (int n = 0; n < matrix.length; n++) {
+      square[n] = times(matrix, matrix[n]);
+    }
+  }
+}
@@ -0,0 +1,59 @@
+package com.salesforce.multicloudj.common.checksum;
+
+import java.nio.ByteBuffer;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.List;
+
+/**
+ * Streaming MD5 over byte arrays and heap or direct {@link ByteBuffer}s.
+ *
+ * <p>Unlike a CRC, the MD5 of a whole cannot be derived from the MD5s of its parts. {@link
+ * #combine(List)} instead builds the composite digest S3 reports for multipart objects: the MD5 of
+ * the concatenated part digests.
+ *
+ * <p>Instances are not thread-safe.
+ */
+public final class Md5 {
+
+  private final MessageDigest digest = newDigest();
+
+  /** Returns the MD5 of {@code data}. */
+  public static byte[] compute(byte[] data) {
+    return newDigest().digest(data);
+  }
+
+  /** Returns the MD5 of the concatenation of {@code partDigests}, in order. */
+  public static byte[] combine(List<byte[]> partDigests) {
+    MessageDigest composite = newDigest();
+    partDigests.forEach(composite::update);
+    return composite.digest();
+  }
+
+  public void update(byte[] b, int off, int len) {
+    digest.update(b, off, len);
+  }
+
+  /** Consumes the remaining bytes of {@code buffer} and advances its position. */
+  public void update(ByteBuffer buffer) {
+    digest.update(buffer);
+  }
+
+  /** Returns the digest of everything consumed and resets for new content. */
+  public byte[] digest() {
+    return digest.digest();
+  }
+
+  public void reset() {
+    digest.reset();
+  }
+
+  private static MessageDigest newDigest() {
+    try {
+      return MessageDigest.getInstance("MD5");
+    } catch (NoSuchAlgorithmException e) {
+      // MD5 is a standard algorithm guaranteed by the JDK; this should never happen.
+      throw new IllegalStateException("MD5 algorithm not available", e);
+    }
+  }
+}
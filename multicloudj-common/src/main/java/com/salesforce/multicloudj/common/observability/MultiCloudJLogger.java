@@ -1,12 +1,12 @@
 package com.salesforce.multicloudj.common.observability;
 
 import io.opentelemetry.api.GlobalOpenTelemetry;
+import io.opentelemetry.api.common.Attributes;
 import io.opentelemetry.api.trace.Span;
 import io.opentelemetry.api.trace.SpanBuilder;
 import io.opentelemetry.api.trace.StatusCode;
 import io.opentelemetry.api.trace.Tracer;
 import io.opentelemetry.context.Scope;
-import java.util.HashMap;
 import java.util.Map;
 import java.util.concurrent.CompletableFuture;
 import java.util.concurrent.CompletionException;
@@ -28,6 +28,16 @@ import org.slf4j.MDC;
  * <p>Three policies are supported (see {@link TracingPolicy}). Under {@code DISABLED} or {@code
  * JOIN_ONLY}-with-no-parent, no span is created but {@code correlation_id}, {@code sdk_service}
  * and {@code sdk_provider} are still populated in MDC so application logs can be correlated.
+ *
+ * <p>The no-span path is built to cost close to nothing: MDC is only touched when {@link
+ * MultiCloudJObservability#isMdcEnabled()} held at construction, a missing {@link
+ * OperationContext} resolves to a shared instance rather than a fresh one, and debug messages are
+ * only formatted when debug logging is on. With MDC and metrics off, wrapping an operation
+ * allocates nothing.
+ *
+ * <p>Independently of the tracing policy, every operation records latency, in-flight and error
+ * metrics (see {@link OperationMetrics}) when a meter provider is configured in {@link
+ * MultiCloudJObservability} at construction time; otherwise metric recording is skipped entirely.
  */
 public class MultiCloudJLogger {
 
@@ -49,9 +59,15 @@ public class MultiCloudJLogger {
   static final String ATTR_TENANT_ID = "tenant_id";
   static final String ATTR_SERVICE_ID = "service_id";
 
+  /** Context of calls made without one; its correlation id is empty, never generated. */
+  private static final OperationContext NO_CONTEXT =
+      OperationContext.builder().correlationId("").build();
+
   private final TracingPolicy policy;
   private final String serviceName;
   private final String providerId;
+  private final OperationMetrics metrics;
+  private final boolean mdcEnabled;
 
   /**
    * Creates a logger for a service client.
@@ -64,6 +80,8 @@ public class MultiCloudJLogger {
     this.policy = policy != null ? policy : MultiCloudJObservability.getDefaultTracingPolicy();
     this.serviceName = serviceName;
     this.providerId = providerId;
+    this.metrics = OperationMetrics.create(serviceName, providerId);
+    this.mdcEnabled = MultiCloudJObservability.isMdcEnabled();
   }
 
   /**
@@ -86,6 +104,7 @@ public class MultiCloudJLogger {
       Function<OperationContext, T> operation) {
     OperationContext effectiveContext = resolveContext(operationContext);
     String bucket = bucketFrom(attributes);
+    Attributes metricAttributes = metricAttributes(operationName, bucket);
 
     // Policy decision matrix (see TracingPolicy):
     //   DISABLED         | (any)        -> no span, quiet MDC only
@@ -94,32 +113,38 @@ public class MultiCloudJLogger {
     //   CHILD_AND_ROOT   | no parent    -> root span,  full MDC
     //   CHILD_AND_ROOT   | has parent   -> child span, full MDC
     if (policy == TracingPolicy.DISABLED) {
-      return executeQuietly(effectiveContext, bucket, operationName, operation);
+      return executeQuietly(
+          effectiveContext, bucket, operationName, metricAttributes, operation);
     }
     boolean hasParent = Span.current().getSpanContext().isValid();
     if (!hasParent && policy == TracingPolicy.JOIN_ONLY) {
-      return executeQuietly(effectiveContext, bucket, operationName, operation);
+      return executeQuietly(
+          effectiveContext, bucket, operationName, metricAttributes, operation);
     }
 
     Span span = startSpan(operationName, attributes, effectiveContext, hasParent);
     long startTime = System.nanoTime();
-    Map<String, String> previousMdc = snapshotMdc();
+    String[] previousMdc = snapshotMdc();
+    metricsStarted(metricAttributes);
+    RuntimeException failure = null;
 
     try (Scope ignored = span.makeCurrent()) {
       setMdc(span, effectiveContext);
       try {
         log.debug("{} started [bucket={}]", operationName, bucket);
         T result = operation.apply(effectiveContext);
-        long durationMs = (System.nanoTime() - startTime) / 1_000_000;
-        log.debug("{} completed [bucket={}, duration={}ms]", operationName, bucket, durationMs);
+        logCompleted(operationName, bucket, startTime);
         return result;
       } catch (RuntimeException e) {
+        failure = e;
         long durationMs = (System.nanoTime() - startTime) / 1_000_000;
         span.recordException(e);
         span.setStatus(StatusCode.ERROR, e.getMessage());
         log.error("{} failed [bucket={}, duration={}ms]", operationName, bucket, durationMs, e);
         throw e;
       } finally {
+        // Recorded while the span is current so the latency sample can carry an exemplar.
+        metricsFinished(metricAttributes, startTime, failure);
         restoreMdc(previousMdc);
       }
     } finally {
@@ -171,18 +196,22 @@ public class MultiCloudJLogger {
       Function<OperationContext, CompletableFuture<T>> operation) {
     OperationContext effectiveContext = resolveContext(operationContext);
     String bucket = bucketFrom(attributes);
+    Attributes metricAttributes = metricAttributes(operationName, bucket);
 
     if (policy == TracingPolicy.DISABLED) {
-      return executeAsyncQuietly(effectiveContext, bucket, operationName, operation);
+      return executeAsyncQuietly(
+          effectiveContext, bucket, operationName, metricAttributes, operation);
     }
     boolean hasParent = Span.current().getSpanContext().isValid();
     if (!hasParent && policy == TracingPolicy.JOIN_ONLY) {
-      return executeAsyncQuietly(effectiveContext, bucket, operationName, operation);
+      return executeAsyncQuietly(
+          effectiveContext, bucket, operationName, metricAttributes, operation);
     }
 
     Span span = startSpan(operationName, attributes, effectiveContext, hasParent);
     long startTime = System.nanoTime();
-    Map<String, String> previousMdc = snapshotMdc();
+    String[] previousMdc = snapshotMdc();
+    metricsStarted(metricAttributes);
 
     CompletableFuture<T> future;
     try (Scope ignored = span.makeCurrent()) {
@@ -191,6 +220,7 @@ public class MultiCloudJLogger {
         log.debug("{} started [bucket={}]", operationName, bucket);
         future = operation.apply(effectiveContext);
       } catch (RuntimeException e) {
+        metricsFinished(metricAttributes, startTime, e);
         long durationMs = (System.nanoTime() - startTime) / 1_000_000;
         span.recordException(e);
         span.setStatus(StatusCode.ERROR, e.getMessage());
@@ -203,6 +233,7 @@ public class MultiCloudJLogger {
     }
 
     if (future == null) {
+      metricsFinished(metricAttributes, startTime, null);
       span.end();
       return null;
     }
@@ -213,10 +244,12 @@ public class MultiCloudJLogger {
           // Snapshot the completing thread's MDC; whenComplete may run on a different
           // thread than the one that called traceAsyncOperation, so the snapshot taken
           // above is irrelevant here.
-          Map<String, String> completionPreviousMdc = snapshotMdc();
+          String[] completionPreviousMdc = snapshotMdc();
           try (Scope ignored = span.makeCurrent()) {
             setMdc(span, effectiveContext);
             try {
+              metricsFinished(
+                  metricAttributes, startTime, throwable != null ? unwrap(throwable) : null);
               if (throwable != null) {
                 Throwable cause = unwrap(throwable);
                 span.recordException(cause);
@@ -225,9 +258,7 @@ public class MultiCloudJLogger {
                     "{} failed [bucket={}, duration={}ms]",
                     operationName, bucket, durationMs, cause);
               } else {
-                log.debug(
-                    "{} completed [bucket={}, duration={}ms]",
-                    operationName, bucket, durationMs);
+                logCompleted(operationName, bucket, startTime);
               }
             } finally {
               restoreMdc(completionPreviousMdc);
@@ -269,21 +300,25 @@ public class MultiCloudJLogger {
       OperationContext effectiveContext,
       String bucket,
       String operationName,
+      Attributes metricAttributes,
       Function<OperationContext, T> operation) {
     long startTime = System.nanoTime();
-    Map<String, String> previousMdc = snapshotMdc();
+    String[] previousMdc = snapshotMdc();
     setQuietMdc(effectiveContext);
+    metricsStarted(metricAttributes);
+    RuntimeException failure = null;
     try {
       log.debug("{} started [bucket={}]", operationName, bucket);
       T result = operation.apply(effectiveContext);
-      long durationMs = (System.nanoTime() - startTime) / 1_000_000;
-      log.debug("{} completed [bucket={}, duration={}ms]", operationName, bucket, durationMs);
+      logCompleted(operationName, bucket, startTime);
       return result;
     } catch (RuntimeException e) {
+      failure = e;
       long durationMs = (System.nanoTime() - startTime) / 1_000_000;
       log.error("{} failed [bucket={}, duration={}ms]", operationName, bucket, durationMs, e);
       throw e;
     } finally {
+      metricsFinished(metricAttributes, startTime, failure);
       restoreMdc(previousMdc);
     }
   }
@@ -292,15 +327,18 @@ public class MultiCloudJLogger {
       OperationContext effectiveContext,
       String bucket,
       String operationName,
+      Attributes metricAttributes,
       Function<OperationContext, CompletableFuture<T>> operation) {
     long startTime = System.nanoTime();
-    Map<String, String> previousMdc = snapshotMdc();
+    String[] previousMdc = snapshotMdc();
     setQuietMdc(effectiveContext);
+    metricsStarted(metricAttributes);
     CompletableFuture<T> future;
     try {
       log.debug("{} started [bucket={}]", operationName, bucket);
       future = operation.apply(effectiveContext);
     } catch (RuntimeException e) {
+      metricsFinished(metricAttributes, startTime, e);
       long durationMs = (System.nanoTime() - startTime) / 1_000_000;
       log.error("{} failed [bucket={}, duration={}ms]", operationName, bucket, durationMs, e);
       throw e;
@@ -308,13 +346,16 @@ public class MultiCloudJLogger {
       restoreMdc(previousMdc);
     }
     if (future == null) {
+      metricsFinished(metricAttributes, startTime, null);
       return null;
     }
     return future.whenComplete(
         (result, throwable) -> {
           long durationMs = (System.nanoTime() - startTime) / 1_000_000;
+          metricsFinished(
+              metricAttributes, startTime, throwable != null ? unwrap(throwable) : null);
           // Fresh snapshot for the completing thread; see traceAsyncOperation for rationale.
-          Map<String, String> completionPreviousMdc = snapshotMdc();
+          String[] completionPreviousMdc = snapshotMdc();
           setQuietMdc(effectiveContext);
           try {
             if (throwable != null) {
@@ -323,9 +364,7 @@ public class MultiCloudJLogger {
                   "{} failed [bucket={}, duration={}ms]",
                   operationName, bucket, durationMs, cause);
             } else {
-              log.debug(
-                  "{} completed [bucket={}, duration={}ms]",
-                  operationName, bucket, durationMs);
+              logCompleted(operationName, bucket, startTime);
             }
           } finally {
             restoreMdc(completionPreviousMdc);
@@ -333,11 +372,47 @@ public class MultiCloudJLogger {
         });
   }
 
-  private OperationContext resolveContext(OperationContext context) {
-    if (context == null) {
-      return OperationContext.builder().correlationId("").build();
+  /**
+   * Records payload bytes moved by an operation, such as the size of an upload or download. A
+   * no-op when no meter provider is configured or {@code byteCount} is negative.
+   *
+   * @param operationName the span name of the operation
+   * @param attributes the attributes the operation was traced with; may be {@code null}
+   * @param byteCount the number of bytes transferred
+   */
+  public void recordBytes(String operationName, Map<String, String> attributes, long byteCount) {
+    if (metrics == null || byteCount < 0) {
+      return;
+    }
+    metrics.transferred(metrics.attributes(operationName, bucketFrom(attributes)), byteCount);
+  }
+
+  private Attributes metricAttributes(String operationName, String bucket) {
+    return metrics != null ? metrics.attributes(operationName, bucket) : null;
+  }
+
+  private void metricsStarted(Attributes metricAttributes) {
+    if (metricAttributes != null) {
+      metrics.started(metricAttributes);
+    }
+  }
+
+  private void metricsFinished(Attributes metricAttributes, long startTime, Throwable failure) {
+    if (metricAttributes != null) {
+      metrics.finished(metricAttributes, startTime, failure);
+    }
+  }
+
+  private static OperationContext resolveContext(OperationContext context) {
+    return context != null ? context : NO_CONTEXT;
+  }
+
+  /** Guarded so the varargs array and boxed duration are only created when debug is on. */
+  private static void logCompleted(String operationName, String bucket, long startTime) {
+    if (log.isDebugEnabled()) {
+      long durationMs = (System.nanoTime() - startTime) / 1_000_000;
+      log.debug("{} completed [bucket={}, duration={}ms]", operationName, bucket, durationMs);
     }
-    return context;
   }
 
   private static String bucketFrom(Map<String, String> attributes) {
@@ -349,6 +424,9 @@ public class MultiCloudJLogger {
   }
 
   private void setMdc(Span span, OperationContext effectiveContext) {
+    if (!mdcEnabled) {
+      return;
+    }
     MDC.put(MDC_TRACE_ID, span.getSpanContext().getTraceId());
     MDC.put(MDC_SPAN_ID, span.getSpanContext().getSpanId());
     MDC.put(MDC_CORRELATION_ID, effectiveContext.getCorrelationId());
@@ -363,6 +441,9 @@ public class MultiCloudJLogger {
   }
 
   private void setQuietMdc(OperationContext effectiveContext) {
+    if (!mdcEnabled) {
+      return;
+    }
     MDC.put(MDC_CORRELATION_ID, effectiveContext.getCorrelationId());
     MDC.put(MDC_SDK_SERVICE, serviceName);
     MDC.put(MDC_SDK_PROVIDER, providerId);
@@ -388,22 +469,31 @@ public class MultiCloudJLogger {
    *
    * <p>Only SDK-managed keys are touched; any other MDC entries (including ones the lambda
    * itself sets) pass through unchanged.
+   *
+   * @return the prior values indexed like {@link #SDK_MDC_KEYS}, or {@code null} when MDC is
+   *     disabled for this logger
    */
-  private static Map<String, String> snapshotMdc() {
-    Map<String, String> snapshot = new HashMap<>();
-    for (String key : SDK_MDC_KEYS) {
-      snapshot.put(key, MDC.get(key));
+  private String[] snapshotMdc() {
+    if (!mdcEnabled) {
+      return null;
+    }
+    String[] snapshot = new String[SDK_MDC_KEYS.length];
+    for (int i = 0; i < SDK_MDC_KEYS.length; i++) {
+      snapshot[i] = MDC.get(SDK_MDC_KEYS[i]);
     }
     return snapshot;
   }
 
   /** Restores the SDK-managed MDC keys to their pre-call values. */
-  private static void restoreMdc(Map<String, String> previousMdc) {
-    for (Map.Entry<String, String> entry : previousMdc.entrySet()) {
-      if (entry.getValue() == null) {
-        MDC.remove(entry.getKey());
+  private static void restoreMdc(String[] previousMdc) {
+    if (previousMdc == null) {
+      return;
+    }
+    for (int i = 0; i < SDK_MDC_KEYS.length; i++) {
+      if (previousMdc[i] == null) {
+        MDC.remove(SDK_MDC_KEYS[i]);
       } else {
-        MDC.put(entry.getKey(), entry.getValue());
+        MDC.put(SDK_MDC_KEYS[i], previousMdc[i]);
       }
     }
   }
@@ -1,15 +1,37 @@
 package com.salesforce.multicloudj.common.observability;
 
+import io.opentelemetry.api.GlobalOpenTelemetry;
+import io.opentelemetry.api.metrics.MeterProvider;
+import org.slf4j.MDC;
+import org.slf4j.helpers.NOPMDCAdapter;
+
 /**
  * Holds process-wide observability defaults for the SDK.
  *
  * <p>The global default tracing policy is consulted when a client is built without an explicit
  * per-client policy. Resolution order is: per-client policy &gt; global default &gt; {@link
  * TracingPolicy#DISABLED}.
+ *
+ * <p>Operation metrics are recorded through the meter provider set with {@link
+ * #setMeterProvider(MeterProvider)} or, failing that, the one registered with {@link
+ * GlobalOpenTelemetry}. Like the tracing policy, the provider is resolved when a client is built,
+ * so it must be configured before clients are created; clients built while no provider is
+ * configured record no metrics at all.
+ *
+ * <p>Clients populate SLF4J's MDC with {@code correlation_id}, {@code trace_id} and related keys
+ * around each operation. That is skipped when the bound logging backend has no MDC support, and
+ * can be switched off with {@link #setMdcEnabled(boolean)} by applications that do not log these
+ * keys; this setting is also read when a client is built.
  */
 public final class MultiCloudJObservability {
 
+  /** Default limit on distinct {@code bucket} metric attribute values. */
+  public static final int DEFAULT_MAX_METRIC_BUCKETS = 100;
+
   private static volatile TracingPolicy defaultPolicy = TracingPolicy.DISABLED;
+  private static volatile MeterProvider meterProvider;
+  private static volatile int maxMetricBuckets = DEFAULT_MAX_METRIC_BUCKETS;
+  private static volatile boolean mdcEnabled = true;
 
   private MultiCloudJObservability() {}
 
@@ -31,4 +53,70 @@ public final class MultiCloudJObservability {
   public static TracingPolicy getDefaultTracingPolicy() {
     return defaultPolicy;
   }
+
+  /**
+   * Sets the meter provider used for operation metrics of clients built afterwards. {@code null}
+   * falls back to the {@link GlobalOpenTelemetry} provider, if one has been registered.
+   *
+   * @param provider the meter provider
+   */
+  public static void setMeterProvider(MeterProvider provider) {
+    meterProvider = provider;
+  }
+
+  /**
+   * Returns the meter provider new clients record metrics with.
+   *
+   * @return the explicitly set provider, else the global one if registered, else {@code null}
+   */
+  public static MeterProvider getMeterProvider() {
+    MeterProvider provider = meterProvider;
+    if (provider != null) {
+      return provider;
+    }
+    // isSet() rather than get(): get() would install a no-op global as a side effect and prevent
+    // the application from registering its own SDK later.
+    return GlobalOpenTelemetry.isSet() ? GlobalOpenTelemetry.getMeterProvider() : null;
+  }
+
+  /**
+   * Bounds the cardinality of the {@code bucket} metric attribute. Once this many distinct buckets
+   * have been seen, further buckets are reported as {@code _other}; {@code 0} omits the attribute.
+   *
+   * @param max the maximum number of distinct bucket values, or {@code 0} to drop the attribute
+   */
+  public static void setMaxMetricBuckets(int max) {
+    if (max < 0) {
+      throw new IllegalArgumentException("Maximum metric buckets cannot be negative: " + max);
+    }
+    maxMetricBuckets = max;
+  }
+
+  /**
+   * Returns the limit on distinct {@code bucket} metric attribute values.
+   *
+   * @return the limit, {@code 0} when the attribute is dropped
+   */
+  public static int getMaxMetricBuckets() {
+    return maxMetricBuckets;
+  }
+
+  /**
+   * Enables or disables MDC population by clients built afterwards. Enabled by default.
+   *
+   * @param enabled whether clients should populate MDC around operations
+   */
+  public static void setMdcEnabled(boolean enabled) {
+    mdcEnabled = enabled;
+  }
+
+  /**
+   * Returns whether new clients populate MDC: enabled with {@link #setMdcEnabled(boolean)} and
+   * backed by a logging binding that supports MDC.
+   *
+   * @return {@code true} if MDC is populated around operations
+   */
+  public static boolean isMdcEnabled() {
+    return mdcEnabled && !(MDC.getMDCAdapter() instanceof NOPMDCAdapter);
+  }
 }
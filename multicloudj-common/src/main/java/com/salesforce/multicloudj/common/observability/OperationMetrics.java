@@ -0,0 +1,192 @@
+package com.salesforce.multicloudj.common.observability;
+
+import com.salesforce.multicloudj.common.exceptions.SubstrateSdkException;
+import io.opentelemetry.api.common.AttributeKey;
+import io.opentelemetry.api.common.Attributes;
+import io.opentelemetry.api.common.AttributesBuilder;
+import io.opentelemetry.api.metrics.DoubleHistogram;
+import io.opentelemetry.api.metrics.LongCounter;
+import io.opentelemetry.api.metrics.LongUpDownCounter;
+import io.opentelemetry.api.metrics.Meter;
+import io.opentelemetry.api.metrics.MeterProvider;
+import java.util.List;
+import java.util.Objects;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+
+/**
+ * OpenTelemetry metric instruments for the operations of one client, recorded by {@link
+ * MultiCloudJLogger} around every traced operation.
+ *
+ * <ul>
+ *   <li>{@value #DURATION} - histogram of operation latency in seconds. It is recorded while the
+ *       operation's span is current, so an SDK with exemplars enabled links slow buckets to
+ *       traces.
+ *   <li>{@value #ACTIVE} - operations currently in flight.
+ *   <li>{@value #ERRORS} - failed operations by {@code error.type}, the simple class name of the
+ *       {@link SubstrateSdkException} subtype, and {@code error.retryable}.
+ *   <li>{@value #BYTES} - payload bytes moved by data-path operations.
+ * </ul>
+ *
+ * <p>Every measurement carries {@code operation}, {@code sdk_service}, {@code sdk_provider} and,
+ * subject to {@link MultiCloudJObservability#setMaxMetricBuckets(int)}, {@code bucket}. Attribute
+ * sets are built once per operation and reused, so recording allocates nothing on the steady
+ * path.
+ */
+final class OperationMetrics {
+
+  static final String INSTRUMENTATION_NAME = "com.salesforce.multicloudj";
+
+  static final String DURATION = "multicloudj.operation.duration";
+  static final String ACTIVE = "multicloudj.operation.active";
+  static final String ERRORS = "multicloudj.operation.errors";
+  static final String BYTES = "multicloudj.operation.bytes";
+
+  static final AttributeKey<String> OPERATION = AttributeKey.stringKey("operation");
+  static final AttributeKey<String> SDK_SERVICE = AttributeKey.stringKey("sdk_service");
+  static final AttributeKey<String> SDK_PROVIDER = AttributeKey.stringKey("sdk_provider");
+  static final AttributeKey<String> BUCKET = AttributeKey.stringKey("bucket");
+  static final AttributeKey<String> ERROR_TYPE = AttributeKey.stringKey("error.type");
+  static final AttributeKey<Boolean> ERROR_RETRYABLE = AttributeKey.booleanKey("error.retryable");
+
+  /** Bucket attribute value reported once the distinct-bucket limit is reached. */
+  static final String OTHER_BUCKET = "_other";
+
+  private static final List<Double> DURATION_BOUNDARIES =
+      List.of(
+          0.001, 0.0025, 0.005, 0.01, 0.025, 0.05, 0.1, 0.25, 0.5, 1.0, 2.5, 5.0, 10.0, 30.0,
+          60.0);
+
+  /** Buckets admitted under the cardinality limit, shared by every client in the process. */
+  private static final Set<String> ADMITTED_BUCKETS = ConcurrentHashMap.newKeySet();
+
+  private final DoubleHistogram duration;
+  private final LongUpDownCounter active;
+  private final LongCounter errors;
+  private final LongCounter bytes;
+  private final Attributes clientAttributes;
+  private final ConcurrentMap<String, OperationAttributes> attributesByOperation =
+      new ConcurrentHashMap<>();
+
+  OperationMetrics(Meter meter, String serviceName, String providerId) {
+    this.duration =
+        meter
+            .histogramBuilder(DURATION)
+            .setDescription("Duration of SDK operations")
+            .setUnit("s")
+            .setExplicitBucketBoundariesAdvice(DURATION_BOUNDARIES)
+            .build();
+    this.active =
+        meter
+            .upDownCounterBuilder(ACTIVE)
+            .setDescription("SDK operations currently in flight")
+            .setUnit("{operation}")
+            .build();
+    this.errors =
+        meter
+            .counterBuilder(ERRORS)
+            .setDescription("Failed SDK operations")
+            .setUnit("{error}")
+            .build();
+    this.bytes =
+        meter
+            .counterBuilder(BYTES)
+            .setDescription("Payload bytes transferred by SDK operations")
+            .setUnit("By")
+            .build();
+    AttributesBuilder builder = Attributes.builder();
+    if (serviceName != null) {
+      builder.put(SDK_SERVICE, serviceName);
+    }
+    if (providerId != null) {
+      builder.put(SDK_PROVIDER, providerId);
+    }
+    this.clientAttributes = builder.build();
+  }
+
+  /**
+   * Returns the metrics of a client, or {@code null} when no meter provider is configured so
+   * callers can skip metric work entirely.
+   */
+  static OperationMetrics create(String serviceName, String providerId) {
+    MeterProvider provider = MultiCloudJObservability.getMeterProvider();
+    if (provider == null || provider == MeterProvider.noop()) {
+      return null;
+    }
+    return new OperationMetrics(provider.get(INSTRUMENTATION_NAME), serviceName, providerId);
+  }
+
+  /** Returns the cached attribute set of {@code operationName} against {@code bucket}. */
+  Attributes attributes(String operationName, String bucket) {
+    OperationAttributes cached = attributesByOperation.get(operationName);
+    if (cached != null && Objects.equals(cached.bucket, bucket)) {
+      return cached.attributes;
+    }
+    AttributesBuilder builder = clientAttributes.toBuilder().put(OPERATION, operationName);
+    String bucketValue = boundedBucket(bucket);
+    if (bucketValue != null) {
+      builder.put(BUCKET, bucketValue);
+    }
+    Attributes attributes = builder.build();
+    attributesByOperation.put(operationName, new OperationAttributes(bucket, attributes));
+    return attributes;
+  }
+
+  void started(Attributes attributes) {
+    active.add(1, attributes);
+  }
+
+  /**
+   * Records the end of an operation started at {@code startNanos}.
+   *
+   * @param failure the exception the operation failed with, or {@code null} on success
+   */
+  void finished(Attributes attributes, long startNanos, Throwable failure) {
+    duration.record((System.nanoTime() - startNanos) / 1e9, attributes);
+    active.add(-1, attributes);
+    if (failure != null) {
+      AttributesBuilder builder =
+          attributes.toBuilder().put(ERROR_TYPE, failure.getClass().getSimpleName());
+      if (failure instanceof SubstrateSdkException) {
+        builder.put(ERROR_RETRYABLE, ((SubstrateSdkException) failure).isRetryable());
+      }
+      errors.add(1, builder.build());
+    }
+  }
+
+  void transferred(Attributes attributes, long byteCount) {
+    bytes.add(byteCount, attributes);
+  }
+
+  private static String boundedBucket(String bucket) {
+    int max = MultiCloudJObservability.getMaxMetricBuckets();
+    if (bucket == null || max == 0) {
+      return null;
+    }
+    if (ADMITTED_BUCKETS.contains(bucket)) {
+      return bucket;
+    }
+    // Racing clients may admit a few buckets past the limit; the bound only needs to be loose.
+    if (ADMITTED_BUCKETS.size() < max) {
+      ADMITTED_BUCKETS.add(bucket);
+      return bucket;
+    }
+    return OTHER_BUCKET;
+  }
+
+  /** Forgets admitted buckets; for tests that exercise the cardinality limit. */
+  static void resetAdmittedBuckets() {
+    ADMITTED_BUCKETS.clear();
+  }
+
+  private static final class OperationAttributes {
+    private final String bucket;
+    private final Attributes attributes;
+
+    private OperationAttributes(String bucket, Attributes attributes) {
+      this.bucket = bucket;
+      this.attributes = attributes;
+    }
+  }
+}
@@ -0,0 +1,39 @@
+package com.salesforce.multicloudj.common.checksum;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.util.Random;
+import org.junit.jupiter.api.Test;
+
+class Crc32cTest {
+
+  @Test
+  void testMatchesPublishedCheckValue() {
+    long check = Crc32c.compute("123456789".getBytes(StandardCharsets.US_ASCII));
+
+    assertEquals(0xE3069283L, check);
+    assertArrayEquals(new byte[] {(byte) 0xE3, 0x06, (byte) 0x92, (byte) 0x83},
+        Crc32c.toBytes(check));
+  }
+
+  @Test
+  void testCombinesPartsIntoWholeObjectValue() {
+    byte[] data = new byte[50_000];
+    new Random(1).nextBytes(data);
+    long whole = Crc32c.compute(data);
+    for (int split : new int[] {0, 1, 8191, data.length}) {
+      Crc32c first = new Crc32c();
+      first.update(ByteBuffer.wrap(data, 0, split));
+      Crc32c second = new Crc32c();
+      ByteBuffer direct = ByteBuffer.allocateDirect(data.length - split);
+      direct.put(data, split, data.length - split).flip();
+      second.update(direct);
+
+      assertEquals(
+          whole, Crc32c.combine(first.getValue(), second.getValue(), data.length - split));
+    }
+  }
+}
@@ -0,0 +1,95 @@
+package com.salesforce.multicloudj.common.checksum;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+import java.util.Random;
+import org.junit.jupiter.api.Test;
+
+class Crc64Test {
+
+  private static final byte[] CHECK = "123456789".getBytes(StandardCharsets.US_ASCII);
+
+  /** Bit-at-a-time reference for the reflected, all-ones-initialized, inverted variants. */
+  private static long reference(long polynomial, byte[] data) {
+    long crc = -1L;
+    for (byte b : data) {
+      crc ^= b & 0xFF;
+      for (int i = 0; i < 8; i++) {
+        crc = (crc & 1) != 0 ? (crc >>> 1) ^ polynomial : crc >>> 1;
+      }
+    }
+    return ~crc;
+  }
+
+  @Test
+  void testMatchesPublishedCheckValues() {
+    assertEquals(0xAE8B14860A799888L, Crc64.compute(Crc64.Variant.NVME, CHECK));
+    assertEquals(0x995DC9BBDF1939FAL, Crc64.compute(Crc64.Variant.XZ, CHECK));
+    assertEquals(0L, Crc64.compute(Crc64.Variant.NVME, new byte[0]));
+  }
+
+  @Test
+  void testSlicedUpdatesMatchReferenceForEveryLengthAndAlignment() {
+    byte[] data = new byte[300];
+    new Random(1).nextBytes(data);
+    for (Crc64.Variant variant : Crc64.Variant.values()) {
+      for (int off = 0; off < 9; off++) {
+        for (int len = 0; len < data.length - off; len += 7) {
+          byte[] slice = Arrays.copyOfRange(data, off, off + len);
+          Crc64 crc = new Crc64(variant);
+          crc.update(data, off, len);
+          assertEquals(reference(variant.getPolynomial(), slice), crc.getValue());
+        }
+      }
+    }
+  }
+
+  @Test
+  void testByteBuffersAndSingleBytesAgreeWithArrays() {
+    byte[] data = new byte[10_000];
+    new Random(2).nextBytes(data);
+    long expected = Crc64.compute(Crc64.Variant.NVME, data);
+
+    ByteBuffer direct = ByteBuffer.allocateDirect(data.length + 3);
+    direct.position(3);
+    direct.put(data).position(3);
+    Crc64 fromDirect = Crc64.nvme();
+    fromDirect.update(direct);
+    assertEquals(expected, fromDirect.getValue());
+    assertEquals(direct.limit(), direct.position());
+
+    Crc64 fromHeap = Crc64.nvme();
+    fromHeap.update(ByteBuffer.wrap(data, 0, 5000));
+    for (int i = 5000; i < data.length; i++) {
+      fromHeap.update(data[i]);
+    }
+    assertEquals(expected, fromHeap.getValue());
+    assertArrayEquals(Crc64.toBytes(expected), fromHeap.digest());
+
+    fromHeap.reset();
+    fromHeap.update(CHECK, 0, CHECK.length);
+    assertEquals(0xAE8B14860A799888L, fromHeap.getValue());
+  }
+
+  @Test
+  void testCombinesPartsIntoWholeObjectValue() {
+    byte[] data = new byte[100_000];
+    new Random(3).nextBytes(data);
+    for (Crc64.Variant variant : Crc64.Variant.values()) {
+      long whole = Crc64.compute(variant, data);
+      for (int split : new int[] {0, 1, 4096, 77_777, data.length}) {
+        Crc64 first = new Crc64(variant);
+        first.update(data, 0, split);
+        Crc64 second = new Crc64(variant);
+        second.update(data, split, data.length - split);
+        assertEquals(
+            whole,
+            Crc64.combine(variant, first.getValue(), second.getValue(), data.length - split));
+      }
+    }
+  }
+}
@@ -0,0 +1,39 @@
+package com.salesforce.multicloudj.common.checksum;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.util.HexFormat;
+import java.util.List;
+import org.junit.jupiter.api.Test;
+
+class Md5Test {
+
+  @Test
+  void testStreamsArraysAndBuffers() {
+    byte[] data = "The quick brown fox jumps over the lazy dog".getBytes(StandardCharsets.US_ASCII);
+    Md5 md5 = new Md5();
+    md5.update(data, 0, 10);
+    ByteBuffer rest = ByteBuffer.allocateDirect(data.length - 10);
+    rest.put(data, 10, data.length - 10).flip();
+    md5.update(rest);
+
+    byte[] digest = md5.digest();
+
+    assertEquals("9e107d9d372bb6826bd81d3542a419d6", HexFormat.of().formatHex(digest));
+    assertArrayEquals(digest, Md5.compute(data));
+  }
+
+  @Test
+  void testCombineBuildsCompositeOfPartDigests() {
+    byte[] first = Md5.compute(new byte[] {1});
+    byte[] second = Md5.compute(new byte[] {2});
+    byte[] concatenated = new byte[32];
+    System.arraycopy(first, 0, concatenated, 0, 16);
+    System.arraycopy(second, 0, concatenated, 16, 16);
+
+    assertArrayEquals(Md5.compute(concatenated), Md5.combine(List.of(first, second)));
+  }
+}
@@ -8,10 +8,18 @@ import static org.junit.jupiter.api.Assertions.assertSame;
 import static org.junit.jupiter.api.Assertions.assertThrows;
 import static org.junit.jupiter.api.Assertions.assertTrue;
 
+import com.salesforce.multicloudj.common.exceptions.ResourceExhaustedException;
+import com.salesforce.multicloudj.common.exceptions.ResourceNotFoundException;
 import io.opentelemetry.api.common.AttributeKey;
+import io.opentelemetry.api.common.Attributes;
+import io.opentelemetry.api.common.AttributesBuilder;
+import io.opentelemetry.api.metrics.MeterProvider;
 import io.opentelemetry.api.trace.Span;
 import io.opentelemetry.api.trace.StatusCode;
 import io.opentelemetry.context.Scope;
+import io.opentelemetry.sdk.metrics.data.HistogramPointData;
+import io.opentelemetry.sdk.metrics.data.LongPointData;
+import io.opentelemetry.sdk.metrics.data.MetricData;
 import io.opentelemetry.sdk.testing.junit5.OpenTelemetryExtension;
 import io.opentelemetry.sdk.trace.data.SpanData;
 import java.util.List;
@@ -36,6 +44,10 @@ class MultiCloudJLoggerTest {
   void resetState() {
     MDC.clear();
     MultiCloudJObservability.setDefaultTracingPolicy(TracingPolicy.DISABLED);
+    MultiCloudJObservability.setMaxMetricBuckets(
+        MultiCloudJObservability.DEFAULT_MAX_METRIC_BUCKETS);
+    OperationMetrics.resetAdmittedBuckets();
+    MultiCloudJObservability.setMdcEnabled(true);
   }
 
   // --- DISABLED policy -----------------------------------------------------
@@ -790,4 +802,218 @@ class MultiCloudJLoggerTest {
         "prior MDC must be restored after async trace");
     assertEquals("outer-tenant", MDC.get(MultiCloudJLogger.MDC_TENANT_ID));
   }
+
+  // --- Fast path -----------------------------------------------------------
+
+  @Test
+  void mdcDisabled_quietPathLeavesMdcUntouched() {
+    MultiCloudJObservability.setMdcEnabled(false);
+    MultiCloudJLogger logger = new MultiCloudJLogger(TracingPolicy.DISABLED, "blob", "aws");
+    MDC.put(MultiCloudJLogger.MDC_CORRELATION_ID, "outer");
+    AtomicReference<String> captured = new AtomicReference<>();
+
+    logger.traceOperation(
+        "blob.test",
+        null,
+        OperationContext.builder().correlationId("inner").build(),
+        ctx -> {
+          captured.set(MDC.get(MultiCloudJLogger.MDC_CORRELATION_ID));
+          assertNull(MDC.get(MultiCloudJLogger.MDC_SDK_SERVICE));
+          return null;
+        });
+
+    assertEquals("outer", captured.get());
+    assertEquals("outer", MDC.get(MultiCloudJLogger.MDC_CORRELATION_ID));
+  }
+
+  @Test
+  void mdcDisabled_spanPathStillTraces() {
+    MultiCloudJObservability.setMdcEnabled(false);
+    MultiCloudJLogger logger = new MultiCloudJLogger(TracingPolicy.CHILD_AND_ROOT, "blob", "aws");
+
+    logger.traceOperation(
+        "blob.test",
+        null,
+        null,
+        ctx -> {
+          assertNull(MDC.get(MultiCloudJLogger.MDC_TRACE_ID));
+          return null;
+        });
+
+    assertEquals(1, otel.getSpans().size());
+  }
+
+  @Test
+  void missingContext_resolvesToSharedEmptyContext() {
+    MultiCloudJLogger logger = new MultiCloudJLogger(TracingPolicy.DISABLED, "blob", "aws");
+
+    OperationContext first = logger.traceOperation("blob.test", null, null, ctx -> ctx);
+    OperationContext second = logger.traceOperation("blob.test", null, null, ctx -> ctx);
+
+    assertEquals("", first.getCorrelationId());
+    assertSame(first, second, "a missing context must not allocate a new one per call");
+  }
+
+  // --- Metrics -------------------------------------------------------------
+
+  @Test
+  void metrics_successRecordsDurationAndNoErrors() {
+    MultiCloudJLogger logger = new MultiCloudJLogger(TracingPolicy.DISABLED, "blob", "aws");
+
+    logger.traceOperation("blob.upload", Map.of("bucket", "b1"), null, ctx -> "ok");
+
+    Attributes expected = operationAttributes("blob.upload", "b1");
+    HistogramPointData duration = histogramPoint(OperationMetrics.DURATION, expected);
+    assertEquals(1, duration.getCount());
+    assertEquals(0, longPoint(OperationMetrics.ACTIVE, expected).getValue());
+    assertTrue(points(OperationMetrics.ERRORS).isEmpty());
+  }
+
+  @Test
+  void metrics_failureRecordsErrorTypeAndRetryable() {
+    MultiCloudJLogger logger =
+        new MultiCloudJLogger(TracingPolicy.CHILD_AND_ROOT, "blob", "aws");
+
+    assertThrows(
+        ResourceExhaustedException.class,
+        () ->
+            logger.traceOperation(
+                "blob.download",
+                Map.of("bucket", "b1"),
+                null,
+                ctx -> {
+                  throw new ResourceExhaustedException("slow down");
+                }));
+
+    Attributes errorAttributes =
+        operationAttributes("blob.download", "b1").toBuilder()
+            .put(OperationMetrics.ERROR_TYPE, "ResourceExhaustedException")
+            .put(OperationMetrics.ERROR_RETRYABLE, true)
+            .build();
+    assertEquals(1, longPoint(OperationMetrics.ERRORS, errorAttributes).getValue());
+    assertEquals(
+        1,
+        histogramPoint(OperationMetrics.DURATION, operationAttributes("blob.download", "b1"))
+            .getCount());
+  }
+
+  @Test
+  void metrics_asyncFailureRecordsUnwrappedCause() {
+    MultiCloudJLogger logger = new MultiCloudJLogger(TracingPolicy.DISABLED, "blob", "aws");
+
+    CompletableFuture<String> future =
+        logger.traceAsyncOperation(
+            "blob.delete",
+            Map.of("bucket", "b1"),
+            null,
+            ctx ->
+                CompletableFuture.supplyAsync(
+                    () -> {
+                      throw new ResourceNotFoundException("missing");
+                    }));
+
+    assertThrows(CompletionException.class, future::join);
+    Attributes errorAttributes =
+        operationAttributes("blob.delete", "b1").toBuilder()
+            .put(OperationMetrics.ERROR_TYPE, "ResourceNotFoundException")
+            .put(OperationMetrics.ERROR_RETRYABLE, false)
+            .build();
+    assertEquals(1, longPoint(OperationMetrics.ERRORS, errorAttributes).getValue());
+    assertEquals(
+        0,
+        longPoint(OperationMetrics.ACTIVE, operationAttributes("blob.delete", "b1")).getValue());
+  }
+
+  @Test
+  void metrics_recordBytesSumsPerOperation() {
+    MultiCloudJLogger logger = new MultiCloudJLogger(TracingPolicy.DISABLED, "blob", "aws");
+
+    logger.recordBytes("blob.upload", Map.of("bucket", "b1"), 100);
+    logger.recordBytes("blob.upload", Map.of("bucket", "b1"), 50);
+    logger.recordBytes("blob.upload", Map.of("bucket", "b1"), -1);
+
+    assertEquals(
+        150,
+        longPoint(OperationMetrics.BYTES, operationAttributes("blob.upload", "b1")).getValue());
+  }
+
+  @Test
+  void metrics_bucketCardinalityIsBounded() {
+    MultiCloudJObservability.setMaxMetricBuckets(1);
+    MultiCloudJLogger first = new MultiCloudJLogger(TracingPolicy.DISABLED, "blob", "aws");
+    MultiCloudJLogger second = new MultiCloudJLogger(TracingPolicy.DISABLED, "blob", "aws");
+
+    first.traceOperation("blob.upload", Map.of("bucket", "b1"), null, ctx -> "ok");
+    second.traceOperation("blob.upload", Map.of("bucket", "b2"), null, ctx -> "ok");
+
+    assertEquals(
+        1,
+        histogramPoint(OperationMetrics.DURATION, operationAttributes("blob.upload", "b1"))
+            .getCount());
+    assertEquals(
+        1,
+        histogramPoint(
+                OperationMetrics.DURATION,
+                operationAttributes("blob.upload", OperationMetrics.OTHER_BUCKET))
+            .getCount());
+  }
+
+  @Test
+  void metrics_zeroBucketLimitDropsBucketAttribute() {
+    MultiCloudJObservability.setMaxMetricBuckets(0);
+    MultiCloudJLogger logger = new MultiCloudJLogger(TracingPolicy.DISABLED, "blob", "aws");
+
+    logger.traceOperation("blob.upload", Map.of("bucket", "b1"), null, ctx -> "ok");
+
+    assertEquals(
+        1,
+        histogramPoint(OperationMetrics.DURATION, operationAttributes("blob.upload", null))
+            .getCount());
+  }
+
+  @Test
+  void metrics_noopProviderRecordsNothing() {
+    MultiCloudJObservability.setMeterProvider(MeterProvider.noop());
+    try {
+      assertNull(OperationMetrics.create("blob", "aws"));
+      MultiCloudJLogger logger = new MultiCloudJLogger(TracingPolicy.DISABLED, "blob", "aws");
+      logger.traceOperation("blob.upload", Map.of("bucket", "b1"), null, ctx -> "ok");
+      logger.recordBytes("blob.upload", Map.of("bucket", "b1"), 10);
+      assertTrue(otel.getMetrics().isEmpty());
+    } finally {
+      MultiCloudJObservability.setMeterProvider(null);
+    }
+  }
+
+  private static Attributes operationAttributes(String operation, String bucket) {
+    AttributesBuilder builder =
+        Attributes.builder()
+            .put(OperationMetrics.SDK_SERVICE, "blob")
+            .put(OperationMetrics.SDK_PROVIDER, "aws")
+            .put(OperationMetrics.OPERATION, operation);
+    if (bucket != null) {
+      builder.put(OperationMetrics.BUCKET, bucket);
+    }
+    return builder.build();
+  }
+
+  private static List<MetricData> points(String name) {
+    return otel.getMetrics().stream().filter(m -> m.getName().equals(name)).toList();
+  }
+
+  private static HistogramPointData histogramPoint(String name, Attributes attributes) {
+    return points(name).stream()
+        .flatMap(m -> m.getHistogramData().getPoints().stream())
+        .filter(p -> p.getAttributes().equals(attributes))
+        .findFirst()
+        .orElseThrow(() -> new AssertionError("no " + name + " point for " + attributes));
+  }
+
+  private static LongPointData longPoint(String name, Attributes attributes) {
+    return points(name).stream()
+        .flatMap(m -> m.getLongSumData().getPoints().stream())
+        .filter(p -> p.getAttributes().equals(attributes))
+        .findFirst()
+        .orElseThrow(() -> new AssertionError("no " + name + " point for " + attributes));
+  }
 }
@@ -1,8 +1,12 @@
 package com.salesforce.multicloudj.common.observability;
 
 import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
 import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
 
+import io.opentelemetry.api.metrics.MeterProvider;
 import org.junit.jupiter.api.AfterEach;
 import org.junit.jupiter.api.Test;
 
@@ -11,6 +15,10 @@ class MultiCloudJObservabilityTest {
   @AfterEach
   void resetGlobalDefault() {
     MultiCloudJObservability.setDefaultTracingPolicy(TracingPolicy.DISABLED);
+    MultiCloudJObservability.setMeterProvider(null);
+    MultiCloudJObservability.setMaxMetricBuckets(
+        MultiCloudJObservability.DEFAULT_MAX_METRIC_BUCKETS);
+    MultiCloudJObservability.setMdcEnabled(true);
   }
 
   @Test
@@ -33,4 +41,29 @@ class MultiCloudJObservabilityTest {
     MultiCloudJObservability.setDefaultTracingPolicy(null);
     assertEquals(TracingPolicy.DISABLED, MultiCloudJObservability.getDefaultTracingPolicy());
   }
+
+  @Test
+  void setMeterProvider_explicitProviderWins() {
+    MeterProvider provider = MeterProvider.noop();
+    MultiCloudJObservability.setMeterProvider(provider);
+    assertSame(provider, MultiCloudJObservability.getMeterProvider());
+  }
+
+  @Test
+  void maxMetricBuckets_defaultAndValidation() {
+    assertEquals(
+        MultiCloudJObservability.DEFAULT_MAX_METRIC_BUCKETS,
+        MultiCloudJObservability.getMaxMetricBuckets());
+    MultiCloudJObservability.setMaxMetricBuckets(0);
+    assertEquals(0, MultiCloudJObservability.getMaxMetricBuckets());
+    assertThrows(
+        IllegalArgumentException.class, () -> MultiCloudJObservability.setMaxMetricBuckets(-1));
+  }
+
+  @Test
+  void mdcEnabled_defaultsOnAndCanBeSwitchedOff() {
+    assertTrue(MultiCloudJObservability.isMdcEnabled());
+    MultiCloudJObservability.setMdcEnabled(false);
+    assertFalse(MultiCloudJObservability.isMdcEnabled());
+  }
 }